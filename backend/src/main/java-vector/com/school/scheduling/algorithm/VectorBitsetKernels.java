@@ -0,0 +1,95 @@
+package com.school.scheduling.algorithm;
+
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Kernels on the widest long vectors the CPU offers: four words per step with AVX2, eight with
+ * AVX-512. Words past the last full vector take the scalar loop. Compiled only by the Maven
+ * profile {@code vector}, and loaded by {@link BitsetKernels#get()} only when the incubator
+ * module is present, since referencing {@link LongVector} fails without it.
+ */
+final class VectorBitsetKernels extends BitsetKernels {
+
+    private static final VectorSpecies<Long> SPECIES = LongVector.SPECIES_PREFERRED;
+
+    @Override
+    public boolean intersects(long[] a, int aOffset, long[] b, int bOffset, int words) {
+        int w = 0;
+        for (int bound = SPECIES.loopBound(words); w < bound; w += SPECIES.length()) {
+            LongVector both = LongVector.fromArray(SPECIES, a, aOffset + w)
+                .and(LongVector.fromArray(SPECIES, b, bOffset + w));
+            if (both.compare(VectorOperators.NE, 0L).anyTrue()) return true;
+        }
+        for (; w < words; w++) {
+            if ((a[aOffset + w] & b[bOffset + w]) != 0) return true;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean containsAll(long[] a, int aOffset, long[] b, int bOffset, int words) {
+        int w = 0;
+        for (int bound = SPECIES.loopBound(words); w < bound; w += SPECIES.length()) {
+            LongVector missing = LongVector.fromArray(SPECIES, b, bOffset + w)
+                .lanewise(VectorOperators.AND_NOT, LongVector.fromArray(SPECIES, a, aOffset + w));
+            if (missing.compare(VectorOperators.NE, 0L).anyTrue()) return false;
+        }
+        for (; w < words; w++) {
+            if ((b[bOffset + w] & ~a[aOffset + w]) != 0) return false;
+        }
+        return true;
+    }
+
+    @Override
+    public void or(long[] target, int targetOffset, long[] source, int sourceOffset, int words) {
+        int w = 0;
+        for (int bound = SPECIES.loopBound(words); w < bound; w += SPECIES.length()) {
+            LongVector.fromArray(SPECIES, target, targetOffset + w)
+                .or(LongVector.fromArray(SPECIES, source, sourceOffset + w))
+                .intoArray(target, targetOffset + w);
+        }
+        for (; w < words; w++) {
+            target[targetOffset + w] |= source[sourceOffset + w];
+        }
+    }
+
+    @Override
+    public void andNot(long[] target, int targetOffset, long[] source, int sourceOffset, int words) {
+        int w = 0;
+        for (int bound = SPECIES.loopBound(words); w < bound; w += SPECIES.length()) {
+            LongVector.fromArray(SPECIES, target, targetOffset + w)
+                .lanewise(VectorOperators.AND_NOT, LongVector.fromArray(SPECIES, source, sourceOffset + w))
+                .intoArray(target, targetOffset + w);
+        }
+        for (; w < words; w++) {
+            target[targetOffset + w] &= ~source[sourceOffset + w];
+        }
+    }
+
+    @Override
+    public int bitCount(long[] a, int offset, int words) {
+        LongVector counts = LongVector.zero(SPECIES);
+        int w = 0;
+        for (int bound = SPECIES.loopBound(words); w < bound; w += SPECIES.length()) {
+            counts = counts.add(bitCounts(LongVector.fromArray(SPECIES, a, offset + w)));
+        }
+        int count = (int) counts.reduceLanes(VectorOperators.ADD);
+        for (; w < words; w++) {
+            count += Long.bitCount(a[offset + w]);
+        }
+        return count;
+    }
+
+    // Bits set per lane. JDK 17 has no lanewise BIT_COUNT, so this is the shift-and-add count
+    private static LongVector bitCounts(LongVector x) {
+        x = x.sub(x.lanewise(VectorOperators.LSHR, 1).and(0x5555555555555555L));
+        x = x.and(0x3333333333333333L).add(x.lanewise(VectorOperators.LSHR, 2).and(0x3333333333333333L));
+        x = x.add(x.lanewise(VectorOperators.LSHR, 4)).and(0x0f0f0f0f0f0f0f0fL);
+        x = x.add(x.lanewise(VectorOperators.LSHR, 8));
+        x = x.add(x.lanewise(VectorOperators.LSHR, 16));
+        x = x.add(x.lanewise(VectorOperators.LSHR, 32));
+        return x.and(0x7fL);
+    }
+}
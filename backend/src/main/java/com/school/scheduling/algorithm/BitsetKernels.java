@@ -0,0 +1,55 @@
+package com.school.scheduling.algorithm;
+
+/**
+ * The word loops behind the packed bitsets: {@link WeeklyOccupancy} masks and their flat tables,
+ * and prerequisite closures. Every kernel works on {@code words} longs starting at the given offsets.
+ * <p>
+ * {@link #get()} returns the Vector API kernels when the build included them (Maven profile
+ * {@code vector}) and the JVM runs with {@code --add-modules jdk.incubator.vector}. Otherwise, or
+ * with {@code -Dscheduling.bitset.kernels=scalar}, it returns the plain loops. Both give the same
+ * results, so callers never need to know which one they got.
+ */
+public abstract class BitsetKernels {
+
+    public static final String IMPLEMENTATION_PROPERTY = "scheduling.bitset.kernels";
+
+    private static final String VECTOR_KERNELS = "com.school.scheduling.algorithm.VectorBitsetKernels";
+    private static final BitsetKernels SCALAR = new ScalarBitsetKernels();
+    private static final BitsetKernels INSTANCE = load();
+
+    /**
+     * The fastest kernels available in this JVM.
+     */
+    public static BitsetKernels get() {
+        return INSTANCE;
+    }
+
+    public static BitsetKernels scalar() {
+        return SCALAR;
+    }
+
+    public abstract boolean intersects(long[] a, int aOffset, long[] b, int bOffset, int words);
+
+    /**
+     * Whether every bit set in {@code b} is also set in {@code a}.
+     */
+    public abstract boolean containsAll(long[] a, int aOffset, long[] b, int bOffset, int words);
+
+    public abstract void or(long[] target, int targetOffset, long[] source, int sourceOffset, int words);
+
+    public abstract void andNot(long[] target, int targetOffset, long[] source, int sourceOffset, int words);
+
+    public abstract int bitCount(long[] a, int offset, int words);
+
+    private static BitsetKernels load() {
+        if ("scalar".equals(System.getProperty(IMPLEMENTATION_PROPERTY))) {
+            return SCALAR;
+        }
+        try {
+            return (BitsetKernels) Class.forName(VECTOR_KERNELS).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            // Built without the vector profile, or jdk.incubator.vector is not in the module graph
+            return SCALAR;
+        }
+    }
+}
@@ -16,12 +16,14 @@ public class ConstraintSatisfactionProblem {
     private final Set<SchedulingConstraint> constraints;
     private final Map<SchedulingVariable, List<SchedulingValue>> domains;
     private final Map<SchedulingVariable, Set<SchedulingConstraint>> variableConstraints;
+    private volatile Map<SchedulingVariable, Set<SchedulingVariable>> conflictGraph;
 
     // Performance tracking
     private int nodesExplored = 0;
     private int backtracks = 0;
     private long startTime = 0;
     private long endTime = 0;
+    private int nodeLimit = Integer.MAX_VALUE;
 
     public ConstraintSatisfactionProblem(Set<SchedulingVariable> variables, Set<SchedulingConstraint> constraints,
                                         Map<SchedulingVariable, List<SchedulingValue>> domains) {
@@ -67,6 +69,11 @@ public class ConstraintSatisfactionProblem {
     private Optional<SchedulingAssignment> backtrackWithForwardChecking(SchedulingAssignment assignment) {
         nodesExplored++;
 
+        // Give up once the node budget is spent
+        if (isNodeLimitReached()) {
+            return Optional.empty();
+        }
+
         // Check if assignment is complete
         if (assignment.isComplete(variables)) {
             return Optional.of(assignment);
@@ -94,7 +101,7 @@ public class ConstraintSatisfactionProblem {
                 if (newDomains != null) { // No domain wipeout
                     // Recurse
                     Optional<SchedulingAssignment> result = backtrackWithForwardChecking(newAssignment);
-                    if (result.isPresent()) {
+                    if (result.isPresent() || isNodeLimitReached()) {
                         return result;
                     }
                 }
@@ -112,6 +119,10 @@ public class ConstraintSatisfactionProblem {
     private Optional<SchedulingAssignment> backtrackWithAC3(SchedulingAssignment assignment) {
         nodesExplored++;
 
+        if (isNodeLimitReached()) {
+            return Optional.empty();
+        }
+
         if (assignment.isComplete(variables)) {
             return Optional.of(assignment);
         }
@@ -135,7 +146,7 @@ public class ConstraintSatisfactionProblem {
                 newAssignment.assign(variable, value);
 
                 Optional<SchedulingAssignment> result = backtrackWithAC3(newAssignment);
-                if (result.isPresent()) {
+                if (result.isPresent() || isNodeLimitReached()) {
                     return result;
                 }
 
@@ -154,7 +165,7 @@ public class ConstraintSatisfactionProblem {
         SchedulingAssignment current = generateRandomAssignment();
         int maxSteps = variables.size() * 100; // Limit steps to prevent infinite loop
 
-        for (int i = 0; i < maxSteps; i++) {
+        for (int i = 0; i < maxSteps && !isNodeLimitReached(); i++) {
             nodesExplored++;
 
             if (isSolution(current)) {
@@ -183,9 +194,10 @@ public class ConstraintSatisfactionProblem {
     private boolean ac3(SchedulingAssignment assignment, Map<SchedulingVariable, List<SchedulingValue>> currentDomains) {
         Queue<Arc> queue = new LinkedList<>();
 
-        // Initialize queue with all arcs
+        // Initialize queue with the arcs of binary constraints; wider scopes are left to forward checking
         for (SchedulingConstraint constraint : constraints) {
             Set<SchedulingVariable> scope = constraint.getScope();
+            if (scope.size() != 2) continue;
             List<SchedulingVariable> scopeList = new ArrayList<>(scope);
             for (int i = 0; i < scopeList.size(); i++) {
                 for (int j = 0; j < scopeList.size(); j++) {
@@ -345,12 +357,11 @@ public class ConstraintSatisfactionProblem {
      * Checks if assignment is consistent with a specific constraint.
      */
     private boolean isConsistent(SchedulingAssignment assignment, SchedulingConstraint constraint) {
-        // Only check constraints where all variables in scope are assigned
+        // Constraints read only assigned variables and a hard one broken stays broken as more are
+        // assigned, so a scope with any variable assigned is checked as soon as it can fail
         Set<SchedulingVariable> scope = constraint.getScope();
-        for (SchedulingVariable var : scope) {
-            if (!assignment.isAssigned(var)) {
-                return true; // Not all variables assigned yet
-            }
+        if (!scope.isEmpty() && scope.stream().noneMatch(assignment::isAssigned)) {
+            return true; // Nothing in scope assigned yet
         }
 
         ConstraintResult result = constraint.validate(assignment);
@@ -392,7 +403,11 @@ public class ConstraintSatisfactionProblem {
 
         for (SchedulingConstraint constraint : constraints) {
             for (SchedulingVariable variable : constraint.getScope()) {
-                map.get(variable).add(constraint);
+                // A scope may reach past the variables of a subproblem
+                Set<SchedulingConstraint> shared = map.get(variable);
+                if (shared != null) {
+                    shared.add(constraint);
+                }
             }
         }
 
@@ -492,6 +507,75 @@ public class ConstraintSatisfactionProblem {
         endTime = 0;
     }
 
+    // Problem accessors
+    public Set<SchedulingVariable> getVariables() {
+        return Collections.unmodifiableSet(variables);
+    }
+
+    public Set<SchedulingConstraint> getConstraints() {
+        return Collections.unmodifiableSet(constraints);
+    }
+
+    public Map<SchedulingVariable, List<SchedulingValue>> getDomains() {
+        return Collections.unmodifiableMap(domains);
+    }
+
+    /**
+     * Variables in conflict with the given one: those sharing a conflict group of some constraint
+     * (see {@link SchedulingConstraint#getConflictGroups()}). Built on first use and kept for the
+     * life of the problem.
+     */
+    public Set<SchedulingVariable> getConflicts(SchedulingVariable variable) {
+        return getConflictGraph().getOrDefault(variable, Collections.emptySet());
+    }
+
+    public Map<SchedulingVariable, Set<SchedulingVariable>> getConflictGraph() {
+        Map<SchedulingVariable, Set<SchedulingVariable>> graph = conflictGraph;
+        if (graph == null) {
+            synchronized (this) {
+                graph = conflictGraph;
+                if (graph == null) {
+                    graph = buildConflictGraph();
+                    conflictGraph = graph;
+                }
+            }
+        }
+        return graph;
+    }
+
+    private Map<SchedulingVariable, Set<SchedulingVariable>> buildConflictGraph() {
+        Map<SchedulingVariable, Set<SchedulingVariable>> graph = new HashMap<>();
+        for (SchedulingConstraint constraint : constraints) {
+            for (Set<SchedulingVariable> group : constraint.getConflictGroups()) {
+                List<SchedulingVariable> members = group.stream().filter(variables::contains).collect(Collectors.toList());
+                for (SchedulingVariable member : members) {
+                    Set<SchedulingVariable> neighbors = graph.computeIfAbsent(member, v -> new HashSet<>());
+                    neighbors.addAll(members);
+                    neighbors.remove(member);
+                }
+            }
+        }
+        graph.replaceAll((variable, neighbors) -> Collections.unmodifiableSet(neighbors));
+        return Collections.unmodifiableMap(graph);
+    }
+
+    /**
+     * Caps the number of search nodes a single solve may explore. Once the budget is
+     * spent the search unwinds without trying further values and returns empty, which
+     * lets callers use the backtracker as a bounded repair step.
+     */
+    public void setNodeLimit(int nodeLimit) {
+        this.nodeLimit = nodeLimit > 0 ? nodeLimit : Integer.MAX_VALUE;
+    }
+
+    public int getNodeLimit() {
+        return nodeLimit;
+    }
+
+    public boolean isNodeLimitReached() {
+        return nodesExplored > nodeLimit;
+    }
+
     // Performance metrics
     public int getNodesExplored() {
         return nodesExplored;
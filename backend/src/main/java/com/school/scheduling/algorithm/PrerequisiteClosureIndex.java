@@ -0,0 +1,250 @@
+package com.school.scheduling.algorithm;
+
+import java.io.Serializable;
+import java.util.*;
+
+/**
+ * In-memory prerequisite graph of the courses, keyed by course id or code. Every course that takes
+ * part in a prerequisite gets a bit, and the index keeps for each course the set of courses it
+ * requires directly or indirectly. A student's completed courses become a bitset as well, so
+ * eligibility is a subset test of a few words instead of a query per student.
+ * <p>
+ * Writes update the transitive closure incrementally: adding A requires B only touches the courses
+ * that require A, and removing it recomputes just those. Reads go through an immutable
+ * {@link Closure} that is copied once after a batch of writes and can be shared between threads.
+ * The graph must stay acyclic; an edge that would close a cycle is rejected.
+ */
+public final class PrerequisiteClosureIndex<K> {
+
+    private final Map<K, Integer> indexOf = new HashMap<>();
+    private final List<K> keys = new ArrayList<>();
+    private final List<Set<Integer>> direct = new ArrayList<>();
+    private long[][] closure = new long[0][];
+    private int words = 1;
+    private Closure<K> published;
+
+    /**
+     * Records that {@code course} requires {@code prerequisite}. Returns false when it already did.
+     *
+     * @throws IllegalArgumentException when the prerequisite requires the course, directly or not
+     */
+    public synchronized boolean addPrerequisite(K course, K prerequisite) {
+        int c = intern(course);
+        int p = intern(prerequisite);
+        if (c == p || isSet(closure[p], c)) {
+            throw new IllegalArgumentException(
+                "Prerequisite " + prerequisite + " of " + course + " would create a prerequisite cycle");
+        }
+        if (!direct.get(c).add(p)) {
+            return false;
+        }
+
+        // Whatever requires the course now also requires the prerequisite and its closure
+        long[] gained = closure[p].clone();
+        gained[p >>> 6] |= 1L << p;
+        for (int row = 0; row < keys.size(); row++) {
+            if (row == c || isSet(closure[row], c)) {
+                for (int w = 0; w < words; w++) {
+                    closure[row][w] |= gained[w];
+                }
+            }
+        }
+        published = null;
+        return true;
+    }
+
+    /**
+     * Drops the requirement. Returns false when the course did not require the prerequisite directly.
+     */
+    public synchronized boolean removePrerequisite(K course, K prerequisite) {
+        Integer c = indexOf.get(course);
+        Integer p = indexOf.get(prerequisite);
+        if (c == null || p == null || !direct.get(c).remove(p)) {
+            return false;
+        }
+
+        // Only the course and the courses requiring it can lose requirements
+        boolean[] stale = new boolean[keys.size()];
+        for (int row = 0; row < keys.size(); row++) {
+            if (row == c || isSet(closure[row], c)) {
+                stale[row] = true;
+                Arrays.fill(closure[row], 0L);
+            }
+        }
+        for (int row = 0; row < keys.size(); row++) {
+            if (stale[row]) {
+                recompute(row, stale);
+            }
+        }
+        published = null;
+        return true;
+    }
+
+    public synchronized void clear() {
+        indexOf.clear();
+        keys.clear();
+        direct.clear();
+        closure = new long[0][];
+        words = 1;
+        published = null;
+    }
+
+    /**
+     * The current graph. Unchanged until the next write, after which the next call copies it once.
+     */
+    public synchronized Closure<K> closure() {
+        if (published == null) {
+            int n = keys.size();
+            long[][] rows = new long[n][];
+            int[][] requires = new int[n][];
+            int used = Math.max(1, (n + 63) >>> 6);
+            for (int row = 0; row < n; row++) {
+                rows[row] = Arrays.copyOf(closure[row], used);
+                requires[row] = direct.get(row).stream().mapToInt(Integer::intValue).sorted().toArray();
+            }
+            published = new Closure<>(new HashMap<>(indexOf), new ArrayList<>(keys), rows, requires, used);
+        }
+        return published;
+    }
+
+    private int intern(K key) {
+        Integer existing = indexOf.get(key);
+        if (existing != null) {
+            return existing;
+        }
+        int index = keys.size();
+        if (index >= words * 64) {
+            words *= 2;
+            for (int row = 0; row < index; row++) {
+                closure[row] = Arrays.copyOf(closure[row], words);
+            }
+        }
+        if (index == closure.length) {
+            closure = Arrays.copyOf(closure, Math.max(16, index * 2));
+        }
+        closure[index] = new long[words];
+        indexOf.put(key, index);
+        keys.add(key);
+        direct.add(new HashSet<>());
+        return index;
+    }
+
+    // Rebuilds a stale row from its direct prerequisites; rows that are not stale are already right
+    private void recompute(int row, boolean[] stale) {
+        stale[row] = false;
+        for (int p : direct.get(row)) {
+            if (stale[p]) {
+                recompute(p, stale);
+            }
+            for (int w = 0; w < words; w++) {
+                closure[row][w] |= closure[p][w];
+            }
+            closure[row][p >>> 6] |= 1L << p;
+        }
+    }
+
+    private static boolean isSet(long[] bits, int bit) {
+        return (bits[bit >>> 6] & (1L << bit)) != 0;
+    }
+
+    /**
+     * Immutable view of the prerequisite graph at one point in time. Completed-course sets built
+     * from one view must be tested against the same view. Serializable, as constraints holding a
+     * view are stored with compiled problems.
+     */
+    public static final class Closure<K> implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+        private static final BitsetKernels KERNELS = BitsetKernels.get();
+
+        private final Map<K, Integer> indexOf;
+        private final List<K> keys;
+        private final long[][] rows;
+        private final int[][] direct;
+        private final int words;
+
+        private Closure(Map<K, Integer> indexOf, List<K> keys, long[][] rows, int[][] direct, int words) {
+            this.indexOf = indexOf;
+            this.keys = keys;
+            this.rows = rows;
+            this.direct = direct;
+            this.words = words;
+        }
+
+        /**
+         * Bitset of the courses a student has satisfied: the completed courses and everything they
+         * require, since passing a course also settles its own prerequisites. Courses outside the
+         * graph are ignored.
+         */
+        public long[] completedSet(Collection<K> completedCourses) {
+            long[] satisfied = new long[words];
+            for (K course : completedCourses) {
+                Integer c = indexOf.get(course);
+                if (c != null) {
+                    KERNELS.or(satisfied, 0, rows[c], 0, words);
+                    satisfied[c >>> 6] |= 1L << c;
+                }
+            }
+            return satisfied;
+        }
+
+        public long[] emptySet() {
+            return new long[words];
+        }
+
+        public boolean hasPrerequisites(K course) {
+            Integer c = indexOf.get(course);
+            return c != null && direct[c].length > 0;
+        }
+
+        /**
+         * Whether every course the course requires, directly or not, is in the completed set.
+         */
+        public boolean isEligible(K course, long[] completed) {
+            Integer c = indexOf.get(course);
+            if (c == null) {
+                return true;
+            }
+            return KERNELS.containsAll(completed, 0, rows[c], 0, words);
+        }
+
+        /**
+         * The direct prerequisites of the course missing from the completed set.
+         */
+        public List<K> missingPrerequisites(K course, long[] completed) {
+            Integer c = indexOf.get(course);
+            if (c == null) {
+                return List.of();
+            }
+            List<K> missing = new ArrayList<>();
+            for (int p : direct[c]) {
+                if ((completed[p >>> 6] & (1L << p)) == 0) {
+                    missing.add(keys.get(p));
+                }
+            }
+            return missing;
+        }
+
+        /**
+         * Every course the course requires, directly or not.
+         */
+        public Set<K> prerequisitesOf(K course) {
+            Integer c = indexOf.get(course);
+            if (c == null) {
+                return Set.of();
+            }
+            Set<K> required = new LinkedHashSet<>();
+            long[] row = rows[c];
+            for (int w = 0; w < words; w++) {
+                for (long bits = row[w]; bits != 0; bits &= bits - 1) {
+                    required.add(keys.get(w * 64 + Long.numberOfTrailingZeros(bits)));
+                }
+            }
+            return required;
+        }
+
+        public int getCourseCount() {
+            return keys.size();
+        }
+    }
+}
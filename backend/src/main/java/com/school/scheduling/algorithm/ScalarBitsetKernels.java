@@ -0,0 +1,46 @@
+package com.school.scheduling.algorithm;
+
+/**
+ * Plain word-at-a-time kernels; the fallback everywhere the Vector API is not available.
+ */
+final class ScalarBitsetKernels extends BitsetKernels {
+
+    @Override
+    public boolean intersects(long[] a, int aOffset, long[] b, int bOffset, int words) {
+        for (int w = 0; w < words; w++) {
+            if ((a[aOffset + w] & b[bOffset + w]) != 0) return true;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean containsAll(long[] a, int aOffset, long[] b, int bOffset, int words) {
+        for (int w = 0; w < words; w++) {
+            if ((b[bOffset + w] & ~a[aOffset + w]) != 0) return false;
+        }
+        return true;
+    }
+
+    @Override
+    public void or(long[] target, int targetOffset, long[] source, int sourceOffset, int words) {
+        for (int w = 0; w < words; w++) {
+            target[targetOffset + w] |= source[sourceOffset + w];
+        }
+    }
+
+    @Override
+    public void andNot(long[] target, int targetOffset, long[] source, int sourceOffset, int words) {
+        for (int w = 0; w < words; w++) {
+            target[targetOffset + w] &= ~source[sourceOffset + w];
+        }
+    }
+
+    @Override
+    public int bitCount(long[] a, int offset, int words) {
+        int count = 0;
+        for (int w = 0; w < words; w++) {
+            count += Long.bitCount(a[offset + w]);
+        }
+        return count;
+    }
+}
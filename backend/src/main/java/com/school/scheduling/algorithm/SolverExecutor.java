@@ -0,0 +1,46 @@
+package com.school.scheduling.algorithm;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The one worker pool every solve runs its parallel work on: GA islands, LNS workers, annealing
+ * replicas, tabu candidate chunks and sectioning. Concurrent solves share its threads instead of
+ * each starting a pool sized to the machine, so the process never runs more solver threads than
+ * cores however many jobs are in flight.
+ * <p>
+ * It is a {@link ForkJoinPool}, so parallel streams submitted to it stay on it and a task waiting
+ * on its subtasks helps run them. The pool starts on first use; the application shuts it down on
+ * close, and a later use starts a fresh one.
+ */
+public final class SolverExecutor {
+
+    private static final AtomicInteger THREADS = new AtomicInteger();
+    private static ForkJoinPool shared;
+
+    private SolverExecutor() {
+    }
+
+    public static synchronized ForkJoinPool shared() {
+        if (shared == null || shared.isShutdown()) {
+            shared = new ForkJoinPool(Runtime.getRuntime().availableProcessors(), pool -> {
+                ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                thread.setName("solver-" + THREADS.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }, null, false);
+        }
+        return shared;
+    }
+
+    /**
+     * Stops the pool, interrupting running solves; they return their best result so far.
+     */
+    public static synchronized void shutdown() {
+        if (shared != null) {
+            shared.shutdownNow();
+            shared = null;
+        }
+    }
+}
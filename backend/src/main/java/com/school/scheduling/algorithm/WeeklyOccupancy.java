@@ -0,0 +1,206 @@
+package com.school.scheduling.algorithm;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.Arrays;
+
+/**
+ * The busy times of one student, teacher or room over a week: 7 days x 96 quarter-hours packed
+ * into {@link #WORDS} longs, bit {@code (day - 1) * 96 + quarter}. A class covers every
+ * quarter-hour it touches, so 09:10-09:50 occupies 09:00 to 10:00; with class times on quarter-hour
+ * boundaries the mask is exact. Clash tests are word ANDs, run lengths are shifts, and a mask is
+ * {@link #WORDS} longs.
+ * <p>
+ * Large populations keep their masks in one flat {@code long[]}, {@link #WORDS} per owner;
+ * the static methods work on such tables at an offset and the instance methods on a single mask.
+ * The word loops run on {@link BitsetKernels#get()}.
+ */
+public final class WeeklyOccupancy {
+
+    public static final int MINUTES_PER_SLOT = 15;
+    public static final int SLOTS_PER_DAY = 24 * 60 / MINUTES_PER_SLOT;
+    public static final int WORDS = (7 * SLOTS_PER_DAY + 63) / 64;
+
+    private static final long DAY_HIGH_MASK = (1L << (SLOTS_PER_DAY - 64)) - 1;
+    private static final BitsetKernels KERNELS = BitsetKernels.get();
+
+    private final long[] words;
+
+    public WeeklyOccupancy() {
+        this.words = new long[WORDS];
+    }
+
+    private WeeklyOccupancy(long[] words) {
+        this.words = words;
+    }
+
+    public static WeeklyOccupancy of(DayOfWeek day, LocalTime start, LocalTime end) {
+        return new WeeklyOccupancy().add(day, start, end);
+    }
+
+    public WeeklyOccupancy add(DayOfWeek day, LocalTime start, LocalTime end) {
+        set(words, 0, day, start, end);
+        return this;
+    }
+
+    public boolean intersects(WeeklyOccupancy other) {
+        return intersects(words, 0, other.words, 0);
+    }
+
+    public void addAll(WeeklyOccupancy other) {
+        or(words, 0, other.words, 0);
+    }
+
+    /**
+     * Frees the other mask's quarter-hours. Exact for a class added before, since the classes of
+     * a clash-free week never share a quarter-hour.
+     */
+    public void removeAll(WeeklyOccupancy other) {
+        andNot(words, 0, other.words, 0);
+    }
+
+    public boolean isEmpty() {
+        for (long word : words) {
+            if (word != 0) return false;
+        }
+        return true;
+    }
+
+    public int slotCount() {
+        return KERNELS.bitCount(words, 0, WORDS);
+    }
+
+    /**
+     * Length in quarter-hours of the longest busy stretch of the day.
+     */
+    public int longestRun(DayOfWeek day) {
+        return longestRun(words, 0, day);
+    }
+
+    /**
+     * The mask grown by the given number of quarter-hours on both sides of every busy stretch, for
+     * break and travel checks: a class clashing with the widened week starts or ends within that
+     * distance of another. Growth at midnight spills into the neighbouring day.
+     */
+    public WeeklyOccupancy widen(int slots) {
+        long[] widened = words.clone();
+        long[] shifted = new long[WORDS];
+        for (int s = 1; s <= slots; s++) {
+            shiftLeft(words, shifted, s);
+            or(widened, 0, shifted, 0);
+            shiftRight(words, shifted, s);
+            or(widened, 0, shifted, 0);
+        }
+        widened[WORDS - 1] &= lastWordMask();
+        return new WeeklyOccupancy(widened);
+    }
+
+    public WeeklyOccupancy copy() {
+        return new WeeklyOccupancy(words.clone());
+    }
+
+    /**
+     * Number of quarter-hour slots covering a duration, rounded up.
+     */
+    public static int slotsFor(long minutes) {
+        return (int) ((Math.max(0, minutes) + MINUTES_PER_SLOT - 1) / MINUTES_PER_SLOT);
+    }
+
+    // Flat tables
+
+    public static void set(long[] table, int offset, DayOfWeek day, LocalTime start, LocalTime end) {
+        int base = (day.getValue() - 1) * SLOTS_PER_DAY;
+        int from = base + start.toSecondOfDay() / (MINUTES_PER_SLOT * 60);
+        int to = base + Math.min(SLOTS_PER_DAY, (end.toSecondOfDay() + MINUTES_PER_SLOT * 60 - 1) / (MINUTES_PER_SLOT * 60));
+        for (int slot = from; slot < to; slot++) {
+            table[offset + (slot >>> 6)] |= 1L << slot;
+        }
+    }
+
+    public static boolean intersects(long[] a, int aOffset, long[] b, int bOffset) {
+        return KERNELS.intersects(a, aOffset, b, bOffset, WORDS);
+    }
+
+    public static void or(long[] target, int targetOffset, long[] source, int sourceOffset) {
+        KERNELS.or(target, targetOffset, source, sourceOffset, WORDS);
+    }
+
+    public static void andNot(long[] target, int targetOffset, long[] source, int sourceOffset) {
+        KERNELS.andNot(target, targetOffset, source, sourceOffset, WORDS);
+    }
+
+    public static void or(long[] target, int targetOffset, WeeklyOccupancy source) {
+        or(target, targetOffset, source.words, 0);
+    }
+
+    public static boolean intersects(long[] table, int offset, WeeklyOccupancy other) {
+        return intersects(table, offset, other.words, 0);
+    }
+
+    public static int longestRun(long[] table, int offset, DayOfWeek day) {
+        int base = (day.getValue() - 1) * SLOTS_PER_DAY;
+        long low = bitsAt(table, offset, base);
+        long high = bitsAt(table, offset, base + 64) & DAY_HIGH_MASK;
+
+        // Each step shortens every run by one; the number of steps is the longest run
+        int run = 0;
+        while ((low | high) != 0) {
+            low &= (low >>> 1) | (high << 63);
+            high &= high >>> 1;
+            run++;
+        }
+        return run;
+    }
+
+    // The 64 bits starting at the given bit, zero past the end of the week
+    private static long bitsAt(long[] table, int offset, int bit) {
+        int word = bit >>> 6;
+        int shift = bit & 63;
+        long bits = table[offset + word] >>> shift;
+        if (shift != 0 && word + 1 < WORDS) {
+            bits |= table[offset + word + 1] << (64 - shift);
+        }
+        return bits;
+    }
+
+    private static void shiftLeft(long[] source, long[] target, int bits) {
+        int words = bits >>> 6;
+        int shift = bits & 63;
+        Arrays.fill(target, 0L);
+        for (int w = WORDS - 1; w >= words; w--) {
+            long value = source[w - words] << shift;
+            if (shift != 0 && w - words - 1 >= 0) {
+                value |= source[w - words - 1] >>> (64 - shift);
+            }
+            target[w] = value;
+        }
+    }
+
+    private static void shiftRight(long[] source, long[] target, int bits) {
+        int words = bits >>> 6;
+        int shift = bits & 63;
+        Arrays.fill(target, 0L);
+        for (int w = 0; w + words < WORDS; w++) {
+            long value = source[w + words] >>> shift;
+            if (shift != 0 && w + words + 1 < WORDS) {
+                value |= source[w + words + 1] << (64 - shift);
+            }
+            target[w] = value;
+        }
+    }
+
+    private static long lastWordMask() {
+        int used = 7 * SLOTS_PER_DAY - 64 * (WORDS - 1);
+        return used == 64 ? -1L : (1L << used) - 1;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || o instanceof WeeklyOccupancy && Arrays.equals(words, ((WeeklyOccupancy) o).words);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(words);
+    }
+}
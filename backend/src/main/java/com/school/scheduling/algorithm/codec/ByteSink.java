@@ -0,0 +1,139 @@
+package com.school.scheduling.algorithm.codec;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Growable output buffer with the varint primitives of {@link SchedulingCodec}. Unsigned varints
+ * are little-endian base-128 (seven bits per byte, high bit set on all but the last); signed
+ * values are zigzag-mapped first so small negative numbers stay short.
+ */
+final class ByteSink {
+
+    private byte[] bytes;
+    private int size;
+
+    ByteSink(int initialCapacity) {
+        this.bytes = new byte[Math.max(16, initialCapacity)];
+    }
+
+    void putByte(int value) {
+        ensure(1);
+        bytes[size++] = (byte) value;
+    }
+
+    void putInt(int value) {
+        ensure(4);
+        bytes[size++] = (byte) (value >>> 24);
+        bytes[size++] = (byte) (value >>> 16);
+        bytes[size++] = (byte) (value >>> 8);
+        bytes[size++] = (byte) value;
+    }
+
+    void putLong(long value) {
+        putInt((int) (value >>> 32));
+        putInt((int) value);
+    }
+
+    void putDouble(double value) {
+        putLong(Double.doubleToRawLongBits(value));
+    }
+
+    void putVarInt(int value) {
+        putVarLong(value & 0xffffffffL);
+    }
+
+    void putVarLong(long value) {
+        ensure(10);
+        while ((value & ~0x7fL) != 0) {
+            bytes[size++] = (byte) ((value & 0x7f) | 0x80);
+            value >>>= 7;
+        }
+        bytes[size++] = (byte) value;
+    }
+
+    void putZigZag(long value) {
+        putVarLong((value << 1) ^ (value >> 63));
+    }
+
+    void putString(String value) {
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        putVarInt(utf8.length);
+        putBytes(utf8, 0, utf8.length);
+    }
+
+    void putBytes(byte[] source, int offset, int length) {
+        ensure(length);
+        System.arraycopy(source, offset, bytes, size, length);
+        size += length;
+    }
+
+    void putSink(ByteSink other) {
+        putBytes(other.bytes, 0, other.size);
+    }
+
+    int size() {
+        return size;
+    }
+
+    byte[] toByteArray() {
+        return Arrays.copyOf(bytes, size);
+    }
+
+    private void ensure(int extra) {
+        if (size + extra > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + extra));
+        }
+    }
+
+    // Matching reads straight from a buffer, so heap, direct and mapped buffers decode without a copy
+    static int getVarInt(ByteBuffer buffer) {
+        long value = getVarLong(buffer);
+        if ((value >>> 32) != 0) {
+            throw new IllegalArgumentException("Varint does not fit in an int");
+        }
+        return (int) value;
+    }
+
+    static long getVarLong(ByteBuffer buffer) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7f) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint");
+    }
+
+    static long getZigZag(ByteBuffer buffer) {
+        long raw = getVarLong(buffer);
+        return (raw >>> 1) ^ -(raw & 1);
+    }
+
+    /**
+     * Reads a count and rejects values the remaining bytes could not possibly hold, so a damaged
+     * or hostile input cannot make the decoder allocate gigabytes.
+     */
+    static int getCount(ByteBuffer buffer, int minBytesPerItem) {
+        int count = getVarInt(buffer);
+        if (count < 0 || (long) count * minBytesPerItem > buffer.remaining()) {
+            throw new IllegalArgumentException("Count " + count + " exceeds the remaining input");
+        }
+        return count;
+    }
+
+    static String getString(ByteBuffer buffer) {
+        int length = getCount(buffer, 1);
+        if (buffer.hasArray()) {
+            String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + length);
+            return value;
+        }
+        byte[] utf8 = new byte[length];
+        buffer.get(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+}
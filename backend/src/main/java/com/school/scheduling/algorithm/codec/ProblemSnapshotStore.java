@@ -0,0 +1,137 @@
+package com.school.scheduling.algorithm.codec;
+
+import com.school.scheduling.algorithm.ConstraintSatisfactionProblem;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.Optional;
+
+/**
+ * Compiled problems on disk, one file per semester and data version, so solving unchanged data
+ * again skips building the problem. A file holds one {@link SchedulingCodec} problem record and is
+ * opened read-only through a {@link MappedByteBuffer}: decoding reads the page cache directly, and
+ * every JVM on the host that opens the file shares the same pages.
+ * <p>
+ * Files are written under a temporary name and moved into place, so other processes see a whole
+ * file or none, and saving a version removes the semester's older ones. A file is keyed by the
+ * codec version and the builder version as well as the data version, so a new record format or a
+ * deployment that builds problems differently never reads what the previous one stored. The store
+ * never fails a solve; a file that cannot be read or written counts as missing and the error is
+ * kept for inspection.
+ */
+public class ProblemSnapshotStore {
+
+    private static final String SUFFIX = ".problem";
+
+    private final Path directory;
+    private final String builderVersion;
+    private volatile String lastError;
+
+    /**
+     * @param builderVersion identifies how the caller builds problems from the data; files saved
+     *                       under another builder version are not loaded
+     */
+    public ProblemSnapshotStore(Path directory, String builderVersion) {
+        this.directory = directory;
+        this.builderVersion = builderVersion;
+    }
+
+    /**
+     * File of the semester's problem at the data version; the versions are hashed into the name.
+     */
+    public Path pathOf(Long semesterId, String dataVersion) {
+        String key = SchedulingCodec.VERSION + "|" + builderVersion + "|" + dataVersion;
+        return directory.resolve(prefix(semesterId) + Long.toHexString(hash(key)) + SUFFIX);
+    }
+
+    /**
+     * The saved problem, or empty when there is none for this data version or it cannot be read.
+     */
+    public Optional<ConstraintSatisfactionProblem> load(Long semesterId, String dataVersion) {
+        Path path = pathOf(semesterId, dataVersion);
+        if (!Files.exists(path)) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(read(path));
+        } catch (IOException | IllegalArgumentException e) {
+            lastError = path + ": " + e.getMessage();
+            return Optional.empty();
+        }
+    }
+
+    public void save(Long semesterId, String dataVersion, ConstraintSatisfactionProblem csp) {
+        Path path = pathOf(semesterId, dataVersion);
+        try {
+            write(path, SchedulingCodec.encodeProblem(csp));
+            removeOtherVersions(semesterId, path);
+            lastError = null;
+        } catch (IOException | IllegalArgumentException e) {
+            // Unserializable constraints end up here as well
+            lastError = path + ": " + e.getMessage();
+        }
+    }
+
+    /**
+     * Maps a problem file read-only and decodes it, for workers and benchmark runs that were handed
+     * the path. The mapping outlives the channel and is released with the buffer.
+     *
+     * @throws IllegalArgumentException when the file is not a problem record of this codec version
+     */
+    public static ConstraintSatisfactionProblem read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return SchedulingCodec.decodeProblem(buffer);
+        }
+    }
+
+    private void write(Path path, byte[] record) throws IOException {
+        Files.createDirectories(directory);
+        Path temporary = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+                ByteBuffer buffer = ByteBuffer.wrap(record);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(true);
+            }
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    // Readers that still map an old file keep their pages until they drop the buffer
+    private void removeOtherVersions(Long semesterId, Path current) throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, prefix(semesterId) + "*" + SUFFIX)) {
+            for (Path file : files) {
+                if (!file.getFileName().equals(current.getFileName())) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+
+    private static String prefix(Long semesterId) {
+        return "semester-" + semesterId + "-";
+    }
+
+    // 64-bit FNV-1a, so two keys practically never share a file
+    private static long hash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    public Path getDirectory() { return directory; }
+    public String getBuilderVersion() { return builderVersion; }
+    public String getLastError() { return lastError; }
+}
@@ -0,0 +1,543 @@
+package com.school.scheduling.algorithm.codec;
+
+import com.school.scheduling.algorithm.ConstraintSatisfactionProblem;
+import com.school.scheduling.algorithm.strategy.GenomeEncoding;
+import com.school.scheduling.domain.constraint.*;
+
+import java.io.*;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.*;
+
+/**
+ * Compact, versioned binary format for problem snapshots, assignments and genomes, shared by
+ * worker IPC, checkpoints and anything else that stores or ships solver data.
+ * <p>
+ * Every record starts with the magic number, the format version and a record kind. A problem
+ * record holds a string table (each distinct id, name or code once), a value dictionary (each
+ * distinct {@link SchedulingValue} once) and the variables in id order, whose domains are lists of
+ * dictionary indices written as zigzag deltas from the previous index. Ids that follow the usual
+ * {@code TYPE_key} pattern are rebuilt instead of stored. Constraints carry arbitrary per-type
+ * data and stay in Java serialization inside the record, read back through a filter that allows
+ * only the scheduling model and JDK value types and caps the section's size, object count, nesting
+ * and array lengths, so a hostile or corrupt record fails fast instead of exhausting the heap.
+ * <p>
+ * Assignments and genomes refer to a problem through {@link GenomeEncoding} and its
+ * {@link #fingerprint fingerprint}: an assignment lists its assigned genes as gaps plus domain
+ * indices, a delta lists only the genes that differ from a base assignment. Integers are varints,
+ * so a gene usually costs one or two bytes.
+ * <p>
+ * Decoding reads from a {@link ByteBuffer} (heap, direct or memory-mapped) and advances its
+ * position; strings, values and constraints are copied out into objects. Malformed input fails
+ * with {@link IllegalArgumentException}.
+ */
+public final class SchedulingCodec {
+
+    public static final int MAGIC = 0x53434243; // "SCBC"
+    public static final int VERSION = 1;
+
+    // Limits on the serialized constraint section, well above what a term's constraints need
+    static final int MAX_CONSTRAINT_BYTES = 32 * 1024 * 1024;
+    static final int MAX_CONSTRAINT_REFS = 2_000_000;
+    static final int MAX_CONSTRAINT_DEPTH = 32;
+    static final int MAX_CONSTRAINT_ARRAY = 1 << 21;
+
+    // Constraints may only contain the scheduling model and JDK value types
+    private static final ObjectInputFilter CONSTRAINT_FILTER = ObjectInputFilter.Config.createFilter(
+        "maxbytes=" + MAX_CONSTRAINT_BYTES + ";maxrefs=" + MAX_CONSTRAINT_REFS
+            + ";maxdepth=" + MAX_CONSTRAINT_DEPTH + ";maxarray=" + MAX_CONSTRAINT_ARRAY
+            + ";com.school.scheduling.algorithm.**;com.school.scheduling.domain.**"
+            + ";java.lang.*;java.util.*;java.time.*;!*");
+
+    // Value flags: low bit says the id is derived, the next three bits hold the payload tag
+    private static final int FLAG_DERIVED_ID = 1;
+    private static final int FLAG_NO_PREFERENCE = 1 << 4;
+    private static final int TAG_NULL = 0;
+    private static final int TAG_LONG = 1;
+    private static final int TAG_INT = 2;
+    private static final int TAG_STRING = 3;
+    private static final int TAG_DOUBLE = 4;
+    private static final int TAG_BOOLEAN = 5;
+
+    private static final ValueType[] VALUE_TYPES = ValueType.values();
+    private static final VariableType[] VARIABLE_TYPES = VariableType.values();
+
+    private SchedulingCodec() {
+    }
+
+    public enum RecordKind {
+        PROBLEM, ASSIGNMENT, DELTA, GENOME;
+
+        private static final RecordKind[] VALUES = values();
+    }
+
+    // Problems
+    public static byte[] encodeProblem(ConstraintSatisfactionProblem csp) {
+        List<SchedulingVariable> variables = new ArrayList<>(csp.getVariables());
+        variables.sort(Comparator.comparing(SchedulingVariable::getId));
+
+        StringTable strings = new StringTable();
+        Map<ValueKey, Integer> dictionary = new HashMap<>();
+        ByteSink values = new ByteSink(1024);
+        ByteSink body = new ByteSink(4096);
+
+        body.putVarInt(variables.size());
+        for (SchedulingVariable variable : variables) {
+            boolean derived = variable.getId().equals(variable.getType().name() + "_" + variable.getEntityId());
+            body.putByte(derived ? FLAG_DERIVED_ID : 0);
+            body.putVarInt(variable.getType().ordinal());
+            if (!derived) {
+                body.putVarInt(strings.indexOf(variable.getId()));
+            }
+            body.putVarInt(strings.indexOf(variable.getEntityId()));
+            body.putVarInt(strings.indexOf(variable.getDisplayName()));
+
+            List<SchedulingValue> domain = csp.getDomains().getOrDefault(variable, Collections.emptyList());
+            body.putVarInt(domain.size());
+            int previous = 0;
+            for (SchedulingValue value : domain) {
+                ValueKey key = new ValueKey(value);
+                Integer index = dictionary.get(key);
+                if (index == null) {
+                    index = dictionary.size();
+                    dictionary.put(key, index);
+                    writeValue(values, strings, value);
+                }
+                body.putZigZag(index - previous);
+                previous = index;
+            }
+        }
+
+        byte[] constraints = serializeConstraints(csp.getConstraints());
+        body.putVarInt(constraints.length);
+        body.putBytes(constraints, 0, constraints.length);
+
+        ByteSink out = new ByteSink(strings.byteSize + values.size() + body.size() + 32);
+        writeHeader(out, RecordKind.PROBLEM);
+        strings.writeTo(out);
+        out.putVarInt(dictionary.size());
+        out.putSink(values);
+        out.putSink(body);
+        return out.toByteArray();
+    }
+
+    public static ConstraintSatisfactionProblem decodeProblem(ByteBuffer buffer) {
+        try {
+            readHeader(buffer, RecordKind.PROBLEM);
+            String[] strings = new String[ByteSink.getCount(buffer, 1)];
+            for (int i = 0; i < strings.length; i++) {
+                strings[i] = ByteSink.getString(buffer);
+            }
+
+            SchedulingValue[] values = new SchedulingValue[ByteSink.getCount(buffer, 3)];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = readValue(buffer, strings);
+            }
+
+            int variableCount = ByteSink.getCount(buffer, 4);
+            Map<SchedulingVariable, List<SchedulingValue>> domains = new LinkedHashMap<>();
+            for (int v = 0; v < variableCount; v++) {
+                int flags = buffer.get();
+                VariableType type = VARIABLE_TYPES[checkIndex(ByteSink.getVarInt(buffer), VARIABLE_TYPES.length)];
+                String id = (flags & FLAG_DERIVED_ID) == 0 ? string(strings, ByteSink.getVarInt(buffer)) : null;
+                String entityId = string(strings, ByteSink.getVarInt(buffer));
+                String displayName = string(strings, ByteSink.getVarInt(buffer));
+                SchedulingVariable variable = id != null
+                    ? new SchedulingVariable(id, type, entityId, displayName)
+                    : new SchedulingVariable(type, entityId, displayName);
+
+                int domainSize = ByteSink.getCount(buffer, 1);
+                List<SchedulingValue> domain = new ArrayList<>(domainSize);
+                int index = 0;
+                for (int j = 0; j < domainSize; j++) {
+                    index += (int) ByteSink.getZigZag(buffer);
+                    domain.add(values[checkIndex(index, values.length)]);
+                }
+                domains.put(variable, domain);
+            }
+
+            int constraintBytes = ByteSink.getCount(buffer, 1);
+            if (constraintBytes > MAX_CONSTRAINT_BYTES) {
+                throw new IllegalArgumentException("Constraint section of " + constraintBytes + " bytes exceeds the limit");
+            }
+            Set<SchedulingConstraint> constraints = deserializeConstraints(buffer, constraintBytes);
+            return new ConstraintSatisfactionProblem(domains.keySet(), constraints, domains);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated problem record", e);
+        }
+    }
+
+    // Assignments
+    /**
+     * Assigned genes of the assignment as (gap to the previous assigned gene, domain index) pairs.
+     */
+    public static byte[] encodeAssignment(GenomeEncoding encoding, SchedulingAssignment assignment) {
+        int[] genome = encoding.encode(assignment);
+        ByteSink out = new ByteSink(32 + genome.length * 2);
+        writeHeader(out, RecordKind.ASSIGNMENT);
+        out.putLong(fingerprint(encoding));
+
+        int assigned = 0;
+        for (int gene : genome) {
+            if (gene != GenomeEncoding.UNASSIGNED) assigned++;
+        }
+        out.putVarInt(assigned);
+        int previous = -1;
+        for (int gene = 0; gene < genome.length; gene++) {
+            if (genome[gene] != GenomeEncoding.UNASSIGNED) {
+                out.putVarInt(gene - previous - 1);
+                out.putVarInt(genome[gene]);
+                previous = gene;
+            }
+        }
+        return out.toByteArray();
+    }
+
+    public static SchedulingAssignment decodeAssignment(GenomeEncoding encoding, ByteBuffer buffer) {
+        try {
+            readHeader(buffer, RecordKind.ASSIGNMENT);
+            checkFingerprint(encoding, buffer.getLong());
+            int[] genome = encoding.newGenome();
+            int assigned = ByteSink.getCount(buffer, 2);
+            int gene = -1;
+            for (int i = 0; i < assigned; i++) {
+                gene += ByteSink.getVarInt(buffer) + 1;
+                checkIndex(gene, genome.length);
+                genome[gene] = checkIndex(ByteSink.getVarInt(buffer), encoding.domainSize(gene));
+            }
+            return encoding.decode(genome);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated assignment record", e);
+        }
+    }
+
+    /**
+     * Genes whose value differs from the base, as (gap, domain index + 1) pairs where 0 unassigns.
+     * Successive incumbents of a search usually differ in a handful of genes, so this stays tiny.
+     */
+    public static byte[] encodeDelta(GenomeEncoding encoding, SchedulingAssignment base, SchedulingAssignment changed) {
+        int[] before = encoding.encode(base);
+        int[] after = encoding.encode(changed);
+        int differing = 0;
+        for (int gene = 0; gene < after.length; gene++) {
+            if (before[gene] != after[gene]) differing++;
+        }
+
+        ByteSink out = new ByteSink(32 + differing * 3);
+        writeHeader(out, RecordKind.DELTA);
+        out.putLong(fingerprint(encoding));
+        out.putVarInt(differing);
+        int previous = -1;
+        for (int gene = 0; gene < after.length; gene++) {
+            if (before[gene] != after[gene]) {
+                out.putVarInt(gene - previous - 1);
+                out.putVarInt(after[gene] + 1);
+                previous = gene;
+            }
+        }
+        return out.toByteArray();
+    }
+
+    public static SchedulingAssignment applyDelta(GenomeEncoding encoding, SchedulingAssignment base, ByteBuffer buffer) {
+        try {
+            readHeader(buffer, RecordKind.DELTA);
+            checkFingerprint(encoding, buffer.getLong());
+            int[] genome = encoding.encode(base);
+            int differing = ByteSink.getCount(buffer, 2);
+            int gene = -1;
+            for (int i = 0; i < differing; i++) {
+                gene += ByteSink.getVarInt(buffer) + 1;
+                checkIndex(gene, genome.length);
+                genome[gene] = checkIndex(ByteSink.getVarInt(buffer), encoding.domainSize(gene) + 1) - 1;
+            }
+            return encoding.decode(genome);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated delta record", e);
+        }
+    }
+
+    // Genomes
+    /**
+     * A raw genome, one varint per gene (index + 1, so 0 is unassigned); null is allowed.
+     */
+    public static byte[] encodeGenome(int[] genome) {
+        ByteSink out = new ByteSink(16 + (genome != null ? genome.length : 0));
+        writeHeader(out, RecordKind.GENOME);
+        if (genome == null) {
+            out.putVarInt(0);
+            return out.toByteArray();
+        }
+        out.putVarInt(genome.length + 1);
+        for (int gene : genome) {
+            out.putVarInt(gene + 1);
+        }
+        return out.toByteArray();
+    }
+
+    public static int[] decodeGenome(ByteBuffer buffer) {
+        try {
+            readHeader(buffer, RecordKind.GENOME);
+            int length = ByteSink.getVarInt(buffer) - 1;
+            if (length < 0) {
+                return null;
+            }
+            if (length > buffer.remaining()) {
+                throw new IllegalArgumentException("Genome length " + length + " exceeds the remaining input");
+            }
+            int[] genome = new int[length];
+            for (int i = 0; i < length; i++) {
+                genome[i] = ByteSink.getVarInt(buffer) - 1;
+            }
+            return genome;
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated genome record", e);
+        }
+    }
+
+    /**
+     * Hash of the variables and their domains in genome order. Changes whenever an offering,
+     * teacher, room or slot is added or removed, which would give saved genomes another meaning.
+     */
+    public static long fingerprint(GenomeEncoding encoding) {
+        long hash = 1125899906842597L;
+        for (int gene = 0; gene < encoding.size(); gene++) {
+            hash = 31 * hash + encoding.getVariable(gene).getId().hashCode();
+            for (int value = 0; value < encoding.domainSize(gene); value++) {
+                hash = 31 * hash + encoding.getValue(gene, value).getId().hashCode();
+            }
+            hash = 31 * hash + encoding.domainSize(gene);
+        }
+        return hash;
+    }
+
+    // Record framing
+    private static void writeHeader(ByteSink out, RecordKind kind) {
+        out.putInt(MAGIC);
+        out.putByte(VERSION);
+        out.putByte(kind.ordinal());
+    }
+
+    private static void readHeader(ByteBuffer buffer, RecordKind expected) {
+        if (buffer.remaining() < 6 || buffer.getInt() != MAGIC) {
+            throw new IllegalArgumentException("Not a scheduling codec record");
+        }
+        int version = buffer.get() & 0xff;
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported codec version " + version + ", expected " + VERSION);
+        }
+        int kind = buffer.get() & 0xff;
+        if (kind >= RecordKind.VALUES.length || RecordKind.VALUES[kind] != expected) {
+            throw new IllegalArgumentException("Expected a " + expected + " record");
+        }
+    }
+
+    private static void checkFingerprint(GenomeEncoding encoding, long recorded) {
+        if (recorded != fingerprint(encoding)) {
+            throw new IllegalArgumentException("Record was written for a different problem");
+        }
+    }
+
+    // Values
+    private static void writeValue(ByteSink out, StringTable strings, SchedulingValue value) {
+        Object payload = value.getValue();
+        int tag = payloadTag(payload);
+        boolean derived = payload != null && value.getId().equals(value.getType().name() + "_" + payload);
+        boolean noPreference = value.getPreferenceScore() == 0.0;
+
+        out.putByte((derived ? FLAG_DERIVED_ID : 0) | tag << 1 | (noPreference ? FLAG_NO_PREFERENCE : 0));
+        out.putVarInt(value.getType().ordinal());
+        if (!derived) {
+            out.putVarInt(strings.indexOf(value.getId()));
+        }
+        switch (tag) {
+            case TAG_LONG:
+                out.putZigZag((Long) payload);
+                break;
+            case TAG_INT:
+                out.putZigZag((Integer) payload);
+                break;
+            case TAG_STRING:
+                out.putVarInt(strings.indexOf((String) payload));
+                break;
+            case TAG_DOUBLE:
+                out.putDouble((Double) payload);
+                break;
+            case TAG_BOOLEAN:
+                out.putByte((Boolean) payload ? 1 : 0);
+                break;
+            default:
+                break;
+        }
+        out.putVarInt(strings.indexOf(value.getDisplayName()));
+        if (!noPreference) {
+            out.putDouble(value.getPreferenceScore());
+        }
+    }
+
+    private static SchedulingValue readValue(ByteBuffer buffer, String[] strings) {
+        int flags = buffer.get() & 0xff;
+        int tag = (flags >>> 1) & 0x7;
+        ValueType type = VALUE_TYPES[checkIndex(ByteSink.getVarInt(buffer), VALUE_TYPES.length)];
+        String id = (flags & FLAG_DERIVED_ID) == 0 ? string(strings, ByteSink.getVarInt(buffer)) : null;
+
+        Object payload;
+        switch (tag) {
+            case TAG_NULL:
+                payload = null;
+                break;
+            case TAG_LONG:
+                payload = ByteSink.getZigZag(buffer);
+                break;
+            case TAG_INT:
+                payload = (int) ByteSink.getZigZag(buffer);
+                break;
+            case TAG_STRING:
+                payload = string(strings, ByteSink.getVarInt(buffer));
+                break;
+            case TAG_DOUBLE:
+                payload = buffer.getDouble();
+                break;
+            case TAG_BOOLEAN:
+                payload = buffer.get() != 0;
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown value payload tag " + tag);
+        }
+
+        String displayName = string(strings, ByteSink.getVarInt(buffer));
+        double preference = (flags & FLAG_NO_PREFERENCE) != 0 ? 0.0 : buffer.getDouble();
+        if (id == null) {
+            id = type.name() + "_" + payload;
+        }
+        return new SchedulingValue(id, type, payload, displayName, preference);
+    }
+
+    private static int payloadTag(Object payload) {
+        if (payload == null) return TAG_NULL;
+        if (payload instanceof Long) return TAG_LONG;
+        if (payload instanceof Integer) return TAG_INT;
+        if (payload instanceof String) return TAG_STRING;
+        if (payload instanceof Double) return TAG_DOUBLE;
+        if (payload instanceof Boolean) return TAG_BOOLEAN;
+        throw new IllegalArgumentException("Unsupported value payload " + payload.getClass().getName());
+    }
+
+    // Constraints
+    private static byte[] serializeConstraints(Set<SchedulingConstraint> constraints) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(bytes))) {
+            out.writeObject(new ArrayList<>(constraints));
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Constraint is not serializable: " + e.getMessage(), e);
+        }
+        return bytes.toByteArray();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Set<SchedulingConstraint> deserializeConstraints(ByteBuffer buffer, int length) {
+        ByteBuffer slice = buffer.slice();
+        slice.limit(length);
+        buffer.position(buffer.position() + length);
+        try (ObjectInputStream in = new ObjectInputStream(new ByteBufferInputStream(slice))) {
+            in.setObjectInputFilter(CONSTRAINT_FILTER);
+            return new HashSet<>((List<SchedulingConstraint>) in.readObject());
+        } catch (IOException | ClassNotFoundException | ClassCastException e) {
+            throw new IllegalArgumentException("Constraints were rejected or do not match this application's classes: "
+                                               + e.getMessage(), e);
+        }
+    }
+
+    private static String string(String[] strings, int reference) {
+        return reference == 0 ? null : strings[checkIndex(reference - 1, strings.length)];
+    }
+
+    private static int checkIndex(int index, int size) {
+        if (index < 0 || index >= size) {
+            throw new IllegalArgumentException("Index " + index + " out of range (size " + size + ")");
+        }
+        return index;
+    }
+
+    // Helper classes
+    /**
+     * Strings in first-use order. Written once; records refer to them by position, counting from
+     * one so that 0 can stand for null.
+     */
+    private static class StringTable {
+        private final Map<String, Integer> indices = new HashMap<>();
+        private final List<String> strings = new ArrayList<>();
+        private int byteSize;
+
+        int indexOf(String value) {
+            if (value == null) {
+                return 0;
+            }
+            Integer index = indices.get(value);
+            if (index == null) {
+                strings.add(value);
+                index = strings.size();
+                indices.put(value, index);
+                byteSize += value.length() + 2;
+            }
+            return index;
+        }
+
+        void writeTo(ByteSink out) {
+            out.putVarInt(strings.size());
+            for (String value : strings) {
+                out.putString(value);
+            }
+        }
+    }
+
+    /**
+     * Identity of a dictionary entry. Stricter than {@link SchedulingValue#equals}, which ignores
+     * the display name and preference score that can differ between domains.
+     */
+    private static class ValueKey {
+        private final SchedulingValue value;
+
+        ValueKey(SchedulingValue value) {
+            this.value = value;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof ValueKey)) return false;
+            SchedulingValue other = ((ValueKey) o).value;
+            return value.equals(other)
+                && value.getType() == other.getType()
+                && Objects.equals(value.getDisplayName(), other.getDisplayName())
+                && Double.compare(value.getPreferenceScore(), other.getPreferenceScore()) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(value.getId(), value.getValue(), value.getPreferenceScore());
+        }
+    }
+
+    private static class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xff : -1;
+        }
+
+        @Override
+        public int read(byte[] target, int offset, int length) {
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int count = Math.min(length, buffer.remaining());
+            buffer.get(target, offset, count);
+            return count;
+        }
+    }
+}
@@ -1,92 +1,94 @@
 package com.school.scheduling.algorithm.constraint;
 
+import com.school.scheduling.algorithm.optimization.PerformanceOptimizer;
 import com.school.scheduling.domain.constraint.*;
-import com.school.scheduling.domain.Classroom;
-import com.school.scheduling.domain.CourseOffering;
 
+import java.io.Serializable;
 import java.util.*;
 
 /**
- * Constraint that ensures classroom capacity is not exceeded and room types match course requirements.
+ * Constraint that ensures a course offering's classroom is large enough and of the type the course
+ * requires. There is one constraint per offering, scoped to that offering; rooms booked twice are
+ * the resource conflict constraint's concern.
  */
 public class ClassroomCapacityConstraint extends SchedulingConstraint {
 
+    private final SchedulingVariable offering;
     private final Map<String, ClassroomInfo> classroomInfo;
-    private final Map<String, CourseRequirements> courseRequirements;
+    private final CourseRequirements course;
     private final boolean allowOversubscription;
     private final double maxOversubscriptionRatio;
 
-    public ClassroomCapacityConstraint(Map<String, ClassroomInfo> classroomInfo,
-                                     Map<String, CourseRequirements> courseRequirements,
+    /**
+     * @param classroomInfo classrooms by id, read but not copied so that offerings can share them
+     */
+    public ClassroomCapacityConstraint(SchedulingVariable offering, Map<String, ClassroomInfo> classroomInfo,
+                                     CourseRequirements course,
                                      boolean allowOversubscription, double maxOversubscriptionRatio) {
-        super("Classroom Capacity Constraint", ConstraintType.CLASSROOM_CAPACITY, ConstraintPriority.HARD,
-              "Ensures classroom capacity is not exceeded and room types match requirements");
-        this.classroomInfo = new HashMap<>(classroomInfo);
-        this.courseRequirements = new HashMap<>(courseRequirements);
+        super("Classroom Capacity Constraint: Offering " + offering.getEntityId(), ConstraintType.CLASSROOM_CAPACITY,
+              ConstraintPriority.HARD, "Ensures classroom capacity is not exceeded and room types match requirements");
+        this.offering = offering;
+        this.classroomInfo = classroomInfo;
+        this.course = course;
         this.allowOversubscription = allowOversubscription;
         this.maxOversubscriptionRatio = maxOversubscriptionRatio;
     }
 
-    @Override
-    public ConstraintResult validate(SchedulingAssignment assignment) {
-        // Check all classroom assignments in the current assignment
-        Map<String, List<ScheduledClass>> classroomSchedules = extractClassroomSchedules(assignment);
-
-        for (Map.Entry<String, List<ScheduledClass>> entry : classroomSchedules.entrySet()) {
-            String classroomId = entry.getKey();
-            List<ScheduledClass> scheduledClasses = entry.getValue();
-
-            // Check time conflicts for the same classroom
-            ConstraintResult conflictResult = checkClassroomConflicts(scheduledClasses);
-            if (!conflictResult.isSatisfied()) {
-                return conflictResult;
+    /**
+     * One constraint per offering with known requirements, all reading one copy of the classrooms.
+     *
+     * @param courseRequirements requirements by course offering id
+     */
+    public static Set<ClassroomCapacityConstraint> forOfferings(Collection<SchedulingVariable> offerings,
+                                                                Map<String, ClassroomInfo> classroomInfo,
+                                                                Map<String, CourseRequirements> courseRequirements,
+                                                                boolean allowOversubscription,
+                                                                double maxOversubscriptionRatio) {
+        Map<String, ClassroomInfo> classrooms = new HashMap<>(classroomInfo);
+        Set<ClassroomCapacityConstraint> constraints = new HashSet<>();
+        for (SchedulingVariable offering : offerings) {
+            CourseRequirements course = courseRequirements.get(offering.getEntityId());
+            if (course != null) {
+                constraints.add(new ClassroomCapacityConstraint(offering, classrooms, course,
+                                                                allowOversubscription, maxOversubscriptionRatio));
             }
+        }
+        return constraints;
+    }
 
-            // Check capacity for each class
-            for (ScheduledClass scheduledClass : scheduledClasses) {
-                ConstraintResult capacityResult = checkClassCapacity(classroomId, scheduledClass);
-                if (!capacityResult.isSatisfied()) {
-                    return capacityResult;
-                }
-
-                // Check room type requirements
-                ConstraintResult roomTypeResult = checkRoomTypeRequirements(classroomId, scheduledClass);
-                if (!roomTypeResult.isSatisfied()) {
-                    return roomTypeResult;
-                }
-
-                // Check equipment requirements
-                ConstraintResult equipmentResult = checkEquipmentRequirements(classroomId, scheduledClass);
-                if (!equipmentResult.isSatisfied()) {
-                    return equipmentResult;
-                }
-            }
+    @Override
+    public ConstraintResult validate(SchedulingAssignment assignment) {
+        SchedulingValue value = assignment.getValue(offering);
+        SchedulingValue room = value != null && value.isClassroom()
+            ? value : PerformanceOptimizer.roomOf(assignment, offering).orElse(null);
+        if (room == null) {
+            return ConstraintResult.satisfied();
         }
 
-        return ConstraintResult.satisfied();
+        String classroomId = room.getValue().toString();
+        ConstraintResult capacityResult = checkClassCapacity(classroomId);
+        if (!capacityResult.isSatisfied() && capacityResult.getViolationScore() >= 1.0) {
+            return capacityResult;
+        }
+        return checkRoomTypeRequirements(classroomId);
     }
 
     @Override
     public Set<SchedulingVariable> getScope() {
-        // This constraint affects all classroom assignment variables
-        Set<SchedulingVariable> scope = new HashSet<>();
-        // In a real implementation, we'd return the specific classroom variables
-        return scope;
+        return Set.of(offering);
     }
 
     @Override
     public List<SchedulingValue> getValidValues(SchedulingAssignment assignment,
                                                Map<SchedulingVariable, List<SchedulingValue>> domains) {
-        // Return classrooms that meet the requirements
+        // Only the offering's classrooms are filtered; its times and teachers are no concern here
         List<SchedulingValue> validValues = new ArrayList<>();
 
         for (Map.Entry<SchedulingVariable, List<SchedulingValue>> entry : domains.entrySet()) {
-            SchedulingVariable variable = entry.getKey();
-            if (variable.getType() == VariableType.CLASSROOM_ASSIGNMENT) {
-                for (SchedulingValue value : entry.getValue()) {
-                    if (isClassroomSuitableForAssignment(assignment, variable, value)) {
-                        validValues.add(value);
-                    }
+            for (SchedulingValue value : entry.getValue()) {
+                if (!entry.getKey().equals(offering) || !value.isClassroom()
+                        || isSuitable(value.getValue().toString())) {
+                    validValues.add(value);
                 }
             }
         }
@@ -94,38 +96,11 @@ public class ClassroomCapacityConstraint extends SchedulingConstraint {
         return validValues;
     }
 
-    private ConstraintResult checkClassroomConflicts(List<ScheduledClass> scheduledClasses) {
-        // Sort by start time
-        scheduledClasses.sort(Comparator.comparing(ScheduledClass::getStartTime));
-
-        for (int i = 0; i < scheduledClasses.size() - 1; i++) {
-            ScheduledClass current = scheduledClasses.get(i);
-            ScheduledClass next = scheduledClasses.get(i + 1);
-
-            // Check for time conflicts on the same day
-            if (current.getDayOfWeek() == next.getDayOfWeek() &&
-                current.getEndTime().isAfter(next.getStartTime())) {
-                return ConstraintResult.violated(
-                    String.format("Classroom conflict: %s (%s) overlaps with %s (%s) on %s",
-                        current.getCourseOfferingId(), current.getTimeRange(),
-                        next.getCourseOfferingId(), next.getTimeRange(),
-                        current.getDayOfWeek()),
-                    1.0,
-                    Arrays.asList("Classroom_" + current.getClassroomId(),
-                                 current.getCourseOfferingId(), next.getCourseOfferingId())
-                );
-            }
-        }
-
-        return ConstraintResult.satisfied();
-    }
-
-    private ConstraintResult checkClassCapacity(String classroomId, ScheduledClass scheduledClass) {
+    private ConstraintResult checkClassCapacity(String classroomId) {
         ClassroomInfo classroom = classroomInfo.get(classroomId);
-        CourseRequirements course = courseRequirements.get(scheduledClass.getCourseOfferingId());
 
-        if (classroom == null || course == null) {
-            return ConstraintResult.violated("Missing classroom or course information");
+        if (classroom == null) {
+            return ConstraintResult.violated("Missing classroom information for " + classroomId);
         }
 
         int requiredCapacity = course.getExpectedEnrollment();
@@ -163,11 +138,10 @@ public class ClassroomCapacityConstraint extends SchedulingConstraint {
         return ConstraintResult.satisfied();
     }
 
-    private ConstraintResult checkRoomTypeRequirements(String classroomId, ScheduledClass scheduledClass) {
+    private ConstraintResult checkRoomTypeRequirements(String classroomId) {
         ClassroomInfo classroom = classroomInfo.get(classroomId);
-        CourseRequirements course = courseRequirements.get(scheduledClass.getCourseOfferingId());
 
-        if (classroom == null || course == null) {
+        if (classroom == null) {
             return ConstraintResult.satisfied();
         }
 
@@ -205,68 +179,29 @@ public class ClassroomCapacityConstraint extends SchedulingConstraint {
         return ConstraintResult.satisfied();
     }
 
-    private ConstraintResult checkEquipmentRequirements(String classroomId, ScheduledClass scheduledClass) {
-        ClassroomInfo classroom = classroomInfo.get(classroomId);
-        CourseRequirements course = courseRequirements.get(scheduledClass.getCourseOfferingId());
-
-        if (classroom == null || course == null) {
-            return ConstraintResult.satisfied();
-        }
-
-        // Check required equipment
-        for (String requiredEquipment : course.getRequiredEquipment()) {
-            if (!classroom.hasEquipment(requiredEquipment)) {
-                return ConstraintResult.violated(
-                    String.format("Missing equipment: %s requires %s but %s doesn't have it",
-                        course.getCourseCode(), requiredEquipment, classroomId),
-                    0.8,
-                    Arrays.asList("Classroom_" + classroomId, course.getCourseCode())
-                );
-            }
-        }
-
-        return ConstraintResult.satisfied();
-    }
-
-    private Map<String, List<ScheduledClass>> extractClassroomSchedules(SchedulingAssignment assignment) {
-        Map<String, List<ScheduledClass>> classroomSchedules = new HashMap<>();
-
-        // Extract scheduled classes from assignment
-        for (Map.Entry<SchedulingVariable, SchedulingValue> entry : assignment.getAssignments().entrySet()) {
-            SchedulingVariable variable = entry.getKey();
-            SchedulingValue value = entry.getValue();
-
-            if (variable.getType() == VariableType.COURSE_SCHEDULING && value.isClassroom()) {
-                ScheduledClass scheduledClass = createScheduledClassFromAssignment(variable, value);
-                classroomSchedules.computeIfAbsent(scheduledClass.getClassroomId(), k -> new ArrayList<>())
-                               .add(scheduledClass);
-            }
+    /**
+     * Whether the course offering may use the classroom at all, whatever else meets in it: the
+     * class fits, within the allowed oversubscription, and the room has the required type. Missing
+     * equipment and poor utilization only cost preference, so they do not make a room unsuitable.
+     */
+    public boolean isSuitable(String classroomId) {
+        if (!classroomInfo.containsKey(classroomId)) {
+            return false;
         }
 
-        return classroomSchedules;
+        ConstraintResult capacity = checkClassCapacity(classroomId);
+        return (capacity.isSatisfied() || capacity.getViolationScore() < 1.0)
+            && checkRoomTypeRequirements(classroomId).isSatisfied();
     }
 
-    private ScheduledClass createScheduledClassFromAssignment(SchedulingVariable variable, SchedulingValue value) {
-        // This is a simplified version - in real implementation, we'd extract actual domain objects
-        return new ScheduledClass(
-            "course_" + variable.getEntityId(),
-            "classroom_" + value.getValue(),
-            DayOfWeek.MONDAY, // Placeholder
-            java.time.LocalTime.of(9, 0), // Placeholder
-            java.time.LocalTime.of(10, 30) // Placeholder
-        );
-    }
-
-    private boolean isClassroomSuitableForAssignment(SchedulingAssignment assignment,
-                                                    SchedulingVariable variable,
-                                                    SchedulingValue value) {
-        // Check if the classroom meets the requirements for this assignment
-        // This is a simplified version - real implementation would check actual requirements
-        return true;
+    public SchedulingVariable getOffering() {
+        return offering;
     }
 
     // Helper classes
-    public static class ClassroomInfo {
+    public static class ClassroomInfo implements Serializable {
+        private static final long serialVersionUID = 1L;
+
         private final String classroomId;
         private final String roomType;
         private final int capacity;
@@ -297,7 +232,9 @@ public class ClassroomCapacityConstraint extends SchedulingConstraint {
         }
     }
 
-    public static class CourseRequirements {
+    public static class CourseRequirements implements Serializable {
+        private static final long serialVersionUID = 1L;
+
         private final String courseCode;
         private final int expectedEnrollment;
         private final String requiredRoomType;
@@ -323,33 +260,4 @@ public class ClassroomCapacityConstraint extends SchedulingConstraint {
         public boolean requiresComputerLab() { return requiresComputerLab; }
         public Set<String> getRequiredEquipment() { return new HashSet<>(requiredEquipment); }
     }
-
-    public static class ScheduledClass {
-        private final String courseOfferingId;
-        private final String classroomId;
-        private final DayOfWeek dayOfWeek;
-        private final java.time.LocalTime startTime;
-        private final java.time.LocalTime endTime;
-
-        public ScheduledClass(String courseOfferingId, String classroomId,
-                             DayOfWeek dayOfWeek, java.time.LocalTime startTime,
-                             java.time.LocalTime endTime) {
-            this.courseOfferingId = courseOfferingId;
-            this.classroomId = classroomId;
-            this.dayOfWeek = dayOfWeek;
-            this.startTime = startTime;
-            this.endTime = endTime;
-        }
-
-        // Getters
-        public String getCourseOfferingId() { return courseOfferingId; }
-        public String getClassroomId() { return classroomId; }
-        public DayOfWeek getDayOfWeek() { return dayOfWeek; }
-        public java.time.LocalTime getStartTime() { return startTime; }
-        public java.time.LocalTime getEndTime() { return endTime; }
-
-        public String getTimeRange() {
-            return startTime + "-" + endTime;
-        }
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,113 @@
+package com.school.scheduling.algorithm.constraint;
+
+import com.school.scheduling.domain.constraint.*;
+
+import java.util.*;
+
+/**
+ * Constraint that keeps the offerings sharing one resource - a teacher or the only room that fits
+ * them - out of concurrent time slots. There is one constraint per resource, scoped to the group
+ * of offerings that use it, so a move only revalidates the groups of the offerings it moves, and
+ * the groups are the conflict graph the solvers colour and move on. Students have their own
+ * {@link StudentScheduleConflictConstraint}.
+ */
+public class ResourceConflictConstraint extends SchedulingConstraint {
+
+    private final String resource;
+    private final Set<SchedulingVariable> group;
+    private final Map<Object, Object> concurrentSlots;
+
+    /**
+     * @param resource        the shared resource, e.g. "Teacher 12", which names the constraint
+     * @param group           the offerings using it
+     * @param concurrentSlots a shared key by time slot id for slots that overlap; slots missing
+     *                        from the map only clash with themselves
+     */
+    public ResourceConflictConstraint(String resource, Set<SchedulingVariable> group, Map<Object, Object> concurrentSlots) {
+        super("Resource Conflict Constraint: " + resource, ConstraintType.TEACHER_AVAILABILITY, ConstraintPriority.HARD,
+              "Ensures offerings sharing a teacher or room do not meet at the same time");
+        this.resource = resource;
+        this.group = new HashSet<>(group);
+        this.concurrentSlots = concurrentSlots;
+    }
+
+    /**
+     * One constraint per resource shared by two or more offerings; they all read one copy of the
+     * concurrent slots.
+     *
+     * @param groups offerings by the resource they share, e.g. "Teacher 12"
+     */
+    public static Set<ResourceConflictConstraint> forGroups(Map<String, Set<SchedulingVariable>> groups,
+                                                            Map<Object, Object> concurrentSlots) {
+        Map<Object, Object> slots = new HashMap<>(concurrentSlots);
+        Set<ResourceConflictConstraint> constraints = new HashSet<>();
+        groups.forEach((resource, members) -> {
+            if (members.size() > 1) {
+                constraints.add(new ResourceConflictConstraint(resource, members, slots));
+            }
+        });
+        return constraints;
+    }
+
+    @Override
+    public ConstraintResult validate(SchedulingAssignment assignment) {
+        Map<Object, SchedulingVariable> taken = new HashMap<>();
+        for (SchedulingVariable variable : group) {
+            SchedulingValue value = assignment.getValue(variable);
+            if (value == null || !value.isTimeSlot()) continue;
+
+            SchedulingVariable other = taken.putIfAbsent(
+                concurrentSlots.getOrDefault(value.getValue(), value.getValue()), variable);
+            if (other != null) {
+                return ConstraintResult.violated(
+                    String.format("%s has %s and %s at the same time",
+                        resource, other.getDisplayName(), variable.getDisplayName()),
+                    1.0,
+                    Arrays.asList("CourseOffering_" + other.getEntityId(), "CourseOffering_" + variable.getEntityId())
+                );
+            }
+        }
+        return ConstraintResult.satisfied();
+    }
+
+    /**
+     * Counts the pairs of offerings in concurrent slots; three offerings at once are three pairs.
+     */
+    @Override
+    public int countViolations(SchedulingAssignment assignment) {
+        Map<Object, Integer> taken = new HashMap<>();
+        int pairs = 0;
+        for (SchedulingVariable variable : group) {
+            SchedulingValue value = assignment.getValue(variable);
+            if (value == null || !value.isTimeSlot()) continue;
+
+            // Each offering pairs with those already in its slot
+            pairs += taken.merge(concurrentSlots.getOrDefault(value.getValue(), value.getValue()), 1, Integer::sum) - 1;
+        }
+        return pairs;
+    }
+
+    @Override
+    public int getMaximumViolations() {
+        return group.size() * (group.size() - 1) / 2;
+    }
+
+    @Override
+    public Set<SchedulingVariable> getScope() {
+        return Collections.unmodifiableSet(group);
+    }
+
+    @Override
+    public List<SchedulingValue> getValidValues(SchedulingAssignment assignment,
+                                               Map<SchedulingVariable, List<SchedulingValue>> domains) {
+        List<SchedulingValue> validValues = new ArrayList<>();
+        for (List<SchedulingValue> values : domains.values()) {
+            validValues.addAll(values);
+        }
+        return validValues;
+    }
+
+    public String getResource() {
+        return resource;
+    }
+}
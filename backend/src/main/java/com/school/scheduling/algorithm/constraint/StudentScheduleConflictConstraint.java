@@ -1,160 +1,239 @@
 package com.school.scheduling.algorithm.constraint;
 
+import com.school.scheduling.algorithm.PrerequisiteClosureIndex;
+import com.school.scheduling.algorithm.WeeklyOccupancy;
+import com.school.scheduling.algorithm.optimization.PerformanceOptimizer;
 import com.school.scheduling.domain.constraint.*;
-import com.school.scheduling.domain.Student;
-import com.school.scheduling.domain.Course;
-import com.school.scheduling.domain.CoursePrerequisite;
 
+import java.io.Serializable;
 import java.time.DayOfWeek;
+import java.time.LocalTime;
 import java.util.*;
 
 /**
- * Constraint that prevents student schedule conflicts and ensures prerequisites are met.
+ * Constraint on one student's week, read from the time slots and rooms the assignment gives the
+ * offerings the student attends. {@link Checks#CLASHES} keeps those offerings out of overlapping
+ * times and is hard; {@link Checks#WORKLOAD} covers what the rest of the week asks of the student -
+ * prerequisites, consecutive hours, breaks and travel between buildings, and the credit load - and
+ * weighs as medium, as a tight timetable may well have to ask it. The scope is the attended
+ * offerings, so a move only revalidates the students of the offerings it moves.
+ * <p>
+ * The week is a {@link WeeklyOccupancy} filled one class at a time from the quarter-hour masks the
+ * {@link Timetable} keeps per time slot: a class is only compared with the student's other classes
+ * by time when its quarter-hours clash with, or lie within a break of, the week so far, and a day's
+ * consecutive hours are only counted on exact times when its quarter-hour run is too long. Masks
+ * round outward, so a clear mask settles a check and a hit is always confirmed. The constraint is
+ * shared by the solver threads, so it keeps no week between calls: a move revalidates the students
+ * of the moved offering, each OR-ing the masks of a handful of classes. Prerequisites are the
+ * timetable's {@link PrerequisiteClosureIndex}, built once for all students, and the student's
+ * completed courses a bitset of it.
  */
 public class StudentScheduleConflictConstraint extends SchedulingConstraint {
 
-    private final Map<Long, StudentInfo> studentInfo;
-    private final Map<String, CoursePrerequisites> coursePrerequisites;
+    // Assume 15 minutes minimum for building change
+    private static final int BUILDING_CHANGE_MINUTES = 15;
+
+    /**
+     * Which of the student's checks the constraint makes.
+     */
+    public enum Checks {
+        CLASHES, WORKLOAD
+    }
+
+    private final StudentInfo student;
+    private final Set<SchedulingVariable> attended;
+    private final Timetable timetable;
+    private final Checks checks;
+    private final long[] completedCourses;
     private final int maxConsecutiveHours;
     private final int minBreakBetweenClasses;
 
-    public StudentScheduleConflictConstraint(Map<Long, StudentInfo> studentInfo,
-                                           Map<String, CoursePrerequisites> coursePrerequisites,
+    /**
+     * @param student  the student, whose id names the constraint
+     * @param attended the offerings the student attends
+     * @param timetable course, time slot and room data shared by all students of the semester
+     * @param checks    whether the constraint keeps the classes apart or checks the rest of the week
+     */
+    public StudentScheduleConflictConstraint(StudentInfo student, Collection<SchedulingVariable> attended,
+                                           Timetable timetable, Checks checks,
                                            int maxConsecutiveHours, int minBreakBetweenClasses) {
-        super("Student Schedule Conflict Constraint", ConstraintType.STUDENT_CONFLICT, ConstraintPriority.HARD,
-              "Prevents student schedule conflicts and ensures prerequisites are met");
-        this.studentInfo = new HashMap<>(studentInfo);
-        this.coursePrerequisites = new HashMap<>(coursePrerequisites);
+        super(checks == Checks.CLASHES
+                  ? "Student Schedule Conflict Constraint: Student " + student.getStudentId()
+                  : "Student Workload Constraint: Student " + student.getStudentId(),
+              ConstraintType.STUDENT_CONFLICT,
+              checks == Checks.CLASHES ? ConstraintPriority.HARD : ConstraintPriority.MEDIUM,
+              checks == Checks.CLASHES
+                  ? "Prevents a student's classes from meeting at the same time"
+                  : "Ensures prerequisites are met and a student's week leaves breaks and stays within the credit load");
+        this.student = student;
+        this.attended = new HashSet<>(attended);
+        this.timetable = timetable;
+        this.checks = checks;
+        this.completedCourses = timetable.getPrerequisiteClosure().completedSet(student.getCompletedCourses());
         this.maxConsecutiveHours = maxConsecutiveHours;
         this.minBreakBetweenClasses = minBreakBetweenClasses;
     }
 
     @Override
     public ConstraintResult validate(SchedulingAssignment assignment) {
-        // Extract student schedules from the assignment
-        Map<Long, List<StudentSchedule>> studentSchedules = extractStudentSchedules(assignment);
+        List<StudentSchedule> schedules = schedulesOf(assignment);
+        Long studentId = student.getStudentId();
+        if (checks == Checks.CLASHES) {
+            return checkTimeConflicts(studentId, schedules);
+        }
 
-        for (Map.Entry<Long, List<StudentSchedule>> entry : studentSchedules.entrySet()) {
-            Long studentId = entry.getKey();
-            List<StudentSchedule> schedules = entry.getValue();
+        // Overlapping classes are left to the student's clash constraint
+        WeeklyOccupancy week = new WeeklyOccupancy();
+        schedules.forEach(schedule -> week.addAll(schedule.getOccupancy()));
 
-            // Check for time conflicts
-            ConstraintResult conflictResult = checkTimeConflicts(studentId, schedules);
-            if (!conflictResult.isSatisfied()) {
-                return conflictResult;
-            }
+        // Check prerequisites
+        ConstraintResult prerequisiteResult = checkPrerequisites(studentId, schedules);
+        if (!prerequisiteResult.isSatisfied()) {
+            return prerequisiteResult;
+        }
 
-            // Check prerequisites
-            ConstraintResult prerequisiteResult = checkPrerequisites(studentId, schedules);
-            if (!prerequisiteResult.isSatisfied()) {
-                return prerequisiteResult;
-            }
+        // Check consecutive classes
+        ConstraintResult consecutiveResult = checkConsecutiveClasses(studentId, schedules, week);
+        if (!consecutiveResult.isSatisfied()) {
+            return consecutiveResult;
+        }
 
-            // Check consecutive classes
-            ConstraintResult consecutiveResult = checkConsecutiveClasses(studentId, schedules);
-            if (!consecutiveResult.isSatisfied()) {
-                return consecutiveResult;
-            }
+        // Check travel time between classes
+        ConstraintResult travelResult = checkTravelTime(studentId, schedules);
+        if (!travelResult.isSatisfied()) {
+            return travelResult;
+        }
 
-            // Check travel time between classes
-            ConstraintResult travelResult = checkTravelTime(studentId, schedules);
-            if (!travelResult.isSatisfied()) {
-                return travelResult;
-            }
+        // Check credit load
+        return checkCreditLoad(studentId, schedules);
+    }
+
+    /**
+     * Clashes count the pairs of the student's classes that overlap; the workload checks are one
+     * violation at most.
+     */
+    @Override
+    public int countViolations(SchedulingAssignment assignment) {
+        if (checks != Checks.CLASHES) {
+            return super.countViolations(assignment);
+        }
 
-            // Check credit load
-            ConstraintResult creditResult = checkCreditLoad(studentId, schedules);
-            if (!creditResult.isSatisfied()) {
-                return creditResult;
+        List<SlotTime> placed = new ArrayList<>();
+        WeeklyOccupancy week = new WeeklyOccupancy();
+        int pairs = 0;
+        for (SchedulingVariable variable : attended) {
+            SlotTime slot = slotOf(assignment.getValue(variable));
+            if (slot == null) continue;
+            if (week.intersects(slot.getOccupancy())) {
+                for (SlotTime other : placed) {
+                    if (other.overlaps(slot)) pairs++;
+                }
             }
+            week.addAll(slot.getOccupancy());
+            placed.add(slot);
         }
+        return pairs;
+    }
 
-        return ConstraintResult.satisfied();
+    @Override
+    public int getMaximumViolations() {
+        return checks == Checks.CLASHES ? attended.size() * (attended.size() - 1) / 2 : 1;
     }
 
     @Override
     public Set<SchedulingVariable> getScope() {
-        // This constraint affects all student enrollment variables
-        Set<SchedulingVariable> scope = new HashSet<>();
-        // In a real implementation, we'd return the specific student variables
-        return scope;
+        return Collections.unmodifiableSet(attended);
+    }
+
+    @Override
+    public Collection<Set<SchedulingVariable>> getConflictGroups() {
+        // Only clashes keep the attended offerings apart
+        return checks == Checks.CLASHES ? super.getConflictGroups() : Collections.emptyList();
     }
 
     @Override
     public List<SchedulingValue> getValidValues(SchedulingAssignment assignment,
                                                Map<SchedulingVariable, List<SchedulingValue>> domains) {
-        // Return course offerings that don't conflict with student's schedule
+        // Time slots overlapping the student's other placed classes are left out; the rest of the
+        // week binds the attended offerings together, not a single value
         List<SchedulingValue> validValues = new ArrayList<>();
-
         for (Map.Entry<SchedulingVariable, List<SchedulingValue>> entry : domains.entrySet()) {
-            SchedulingVariable variable = entry.getKey();
-            if (variable.getType() == VariableType.STUDENT_ENROLLMENT) {
-                for (SchedulingValue value : entry.getValue()) {
-                    if (isCourseAvailableForStudent(assignment, variable, value)) {
-                        validValues.add(value);
-                    }
+            if (checks != Checks.CLASHES || !attended.contains(entry.getKey())) {
+                validValues.addAll(entry.getValue());
+                continue;
+            }
+
+            List<SlotTime> others = new ArrayList<>();
+            WeeklyOccupancy week = new WeeklyOccupancy();
+            for (SchedulingVariable variable : attended) {
+                SlotTime slot = variable.equals(entry.getKey()) ? null : slotOf(assignment.getValue(variable));
+                if (slot != null) {
+                    others.add(slot);
+                    week.addAll(slot.getOccupancy());
+                }
+            }
+            for (SchedulingValue value : entry.getValue()) {
+                SlotTime slot = slotOf(value);
+                if (slot == null || !week.intersects(slot.getOccupancy())
+                        || others.stream().noneMatch(slot::overlaps)) {
+                    validValues.add(value);
                 }
             }
         }
-
         return validValues;
     }
 
-    private ConstraintResult checkTimeConflicts(Long studentId, List<StudentSchedule> schedules) {
-        // Group by day of week
-        Map<DayOfWeek, List<StudentSchedule>> dailySchedules = new HashMap<>();
-        for (StudentSchedule schedule : schedules) {
-            dailySchedules.computeIfAbsent(schedule.getDayOfWeek(), k -> new ArrayList<>())
-                        .add(schedule);
-        }
-
-        // Check conflicts for each day
-        for (Map.Entry<DayOfWeek, List<StudentSchedule>> entry : dailySchedules.entrySet()) {
-            DayOfWeek day = entry.getKey();
-            List<StudentSchedule> daySchedules = entry.getValue();
-
-            // Sort by start time
-            daySchedules.sort(Comparator.comparing(StudentSchedule::getStartTime));
+    public Long getStudentId() {
+        return student.getStudentId();
+    }
 
-            // Check for overlaps
-            for (int i = 0; i < daySchedules.size() - 1; i++) {
-                StudentSchedule current = daySchedules.get(i);
-                StudentSchedule next = daySchedules.get(i + 1);
+    public Checks getChecks() {
+        return checks;
+    }
 
-                if (current.getEndTime().isAfter(next.getStartTime())) {
-                    return ConstraintResult.violated(
-                        String.format("Student %d has time conflict on %s: %s (%s) overlaps with %s (%s)",
-                            studentId, day,
-                            current.getCourseCode(), current.getTimeRange(),
-                            next.getCourseCode(), next.getTimeRange()),
-                        1.0,
-                        Arrays.asList("Student_" + studentId, current.getCourseCode(), next.getCourseCode())
-                    );
+    // Fills the student's week; only classes whose quarter-hours clash are compared by time
+    private ConstraintResult checkTimeConflicts(Long studentId, List<StudentSchedule> schedules) {
+        WeeklyOccupancy week = new WeeklyOccupancy();
+        for (int i = 0; i < schedules.size(); i++) {
+            StudentSchedule schedule = schedules.get(i);
+            if (week.intersects(schedule.getOccupancy())) {
+                for (int j = 0; j < i; j++) {
+                    StudentSchedule other = schedules.get(j);
+                    if (other.overlaps(schedule)) {
+                        StudentSchedule current = other.getStartTime().isAfter(schedule.getStartTime()) ? schedule : other;
+                        StudentSchedule next = current == other ? schedule : other;
+                        return ConstraintResult.violated(
+                            String.format("Student %d has time conflict on %s: %s (%s) overlaps with %s (%s)",
+                                studentId, current.getDayOfWeek(),
+                                current.getCourseCode(), current.getTimeRange(),
+                                next.getCourseCode(), next.getTimeRange()),
+                            1.0,
+                            Arrays.asList("Student_" + studentId,
+                                          "CourseOffering_" + current.getCourseOfferingId(),
+                                          "CourseOffering_" + next.getCourseOfferingId())
+                        );
+                    }
                 }
             }
+            week.addAll(schedule.getOccupancy());
         }
 
         return ConstraintResult.satisfied();
     }
 
     private ConstraintResult checkPrerequisites(Long studentId, List<StudentSchedule> schedules) {
-        StudentInfo student = studentInfo.get(studentId);
-        if (student == null) {
-            return ConstraintResult.violated("Student information not found for ID: " + studentId);
-        }
-
+        PrerequisiteClosureIndex.Closure<String> closure = timetable.getPrerequisiteClosure();
         for (StudentSchedule schedule : schedules) {
-            CoursePrerequisites prerequisites = coursePrerequisites.get(schedule.getCourseCode());
+            CoursePrerequisites prerequisites = timetable.getCoursePrerequisites(schedule.getCourseCode());
             if (prerequisites != null) {
-                for (String requiredCourse : prerequisites.getRequiredCourses()) {
-                    if (!student.hasCompletedCourse(requiredCourse)) {
-                        return ConstraintResult.violated(
-                            String.format("Student %d missing prerequisite %s for course %s",
-                                studentId, requiredCourse, schedule.getCourseCode()),
-                            1.0,
-                            Arrays.asList("Student_" + studentId, schedule.getCourseCode())
-                        );
-                    }
+                if (!closure.isEligible(schedule.getCourseCode(), completedCourses)) {
+                    List<String> missing = closure.missingPrerequisites(schedule.getCourseCode(), completedCourses);
+                    return ConstraintResult.violated(
+                        String.format("Student %d missing prerequisite %s for course %s",
+                            studentId, String.join(", ", missing), schedule.getCourseCode()),
+                        1.0,
+                        Arrays.asList("Student_" + studentId, schedule.getCourseCode())
+                    );
                 }
 
                 // Check minimum grade requirements
@@ -177,85 +256,80 @@ public class StudentScheduleConflictConstraint extends SchedulingConstraint {
         return ConstraintResult.satisfied();
     }
 
-    private ConstraintResult checkConsecutiveClasses(Long studentId, List<StudentSchedule> schedules) {
-        // Group by day of week
-        Map<DayOfWeek, List<StudentSchedule>> dailySchedules = new HashMap<>();
-        for (StudentSchedule schedule : schedules) {
-            dailySchedules.computeIfAbsent(schedule.getDayOfWeek(), k -> new ArrayList<>())
-                        .add(schedule);
-        }
-
-        for (Map.Entry<DayOfWeek, List<StudentSchedule>> entry : dailySchedules.entrySet()) {
-            DayOfWeek day = entry.getKey();
-            List<StudentSchedule> daySchedules = entry.getValue();
-
-            // Sort by start time
-            daySchedules.sort(Comparator.comparing(StudentSchedule::getStartTime));
-
-            // Check consecutive classes
-            for (int i = 0; i < daySchedules.size() - 1; i++) {
-                StudentSchedule current = daySchedules.get(i);
-                StudentSchedule next = daySchedules.get(i + 1);
-
-                if (current.getDayOfWeek() == next.getDayOfWeek() &&
-                    current.getEndTime().equals(next.getStartTime())) {
-
-                    // Count consecutive hours
-                    double consecutiveHours = current.getDurationHours() + next.getDurationHours();
-                    int j = i + 2;
-
-                    while (j < daySchedules.size() &&
-                           daySchedules.get(j).getStartTime().equals(daySchedules.get(j-1).getEndTime())) {
-                        consecutiveHours += daySchedules.get(j).getDurationHours();
-                        j++;
-                    }
-
-                    if (consecutiveHours > maxConsecutiveHours) {
-                        return ConstraintResult.violated(
-                            String.format("Student %d has %.1f consecutive hours on %s (max: %d)",
-                                studentId, consecutiveHours, day, maxConsecutiveHours),
-                            0.8, // Soft constraint
-                            Arrays.asList("Student_" + studentId)
-                        );
-                    }
-                }
+    // The week's quarter-hour runs bound the chains of back-to-back classes from above, so only a
+    // day whose run is too long is walked again on exact times
+    private ConstraintResult checkConsecutiveClasses(Long studentId, List<StudentSchedule> schedules,
+                                                     WeeklyOccupancy week) {
+        for (DayOfWeek day : DayOfWeek.values()) {
+            if (week.longestRun(day) * WeeklyOccupancy.MINUTES_PER_SLOT <= maxConsecutiveHours * 60) continue;
+
+            double consecutiveHours = longestChainHours(schedules, day);
+            if (consecutiveHours > maxConsecutiveHours) {
+                return ConstraintResult.violated(
+                    String.format("Student %d has %.1f consecutive hours on %s (max: %d)",
+                        studentId, consecutiveHours, day, maxConsecutiveHours),
+                    0.8, // Soft constraint
+                    Arrays.asList("Student_" + studentId)
+                );
             }
         }
 
         return ConstraintResult.satisfied();
     }
 
-    private ConstraintResult checkTravelTime(Long studentId, List<StudentSchedule> schedules) {
-        // Group by day of week
-        Map<DayOfWeek, List<StudentSchedule>> dailySchedules = new HashMap<>();
+    // Hours of the longest run of two or more classes on the day, each starting as the last ends
+    private static double longestChainHours(List<StudentSchedule> schedules, DayOfWeek day) {
+        List<StudentSchedule> daily = new ArrayList<>();
         for (StudentSchedule schedule : schedules) {
-            dailySchedules.computeIfAbsent(schedule.getDayOfWeek(), k -> new ArrayList<>())
-                        .add(schedule);
+            if (schedule.getDayOfWeek() == day) {
+                daily.add(schedule);
+            }
         }
+        daily.sort(Comparator.comparing(StudentSchedule::getStartTime));
+
+        long longest = 0;
+        long minutes = 0;
+        int length = 0;
+        for (int i = 0; i < daily.size(); i++) {
+            StudentSchedule schedule = daily.get(i);
+            long classMinutes = java.time.Duration.between(schedule.getStartTime(), schedule.getEndTime()).toMinutes();
+            boolean continues = i > 0 && daily.get(i - 1).getEndTime().equals(schedule.getStartTime());
+            minutes = continues ? minutes + classMinutes : classMinutes;
+            length = continues ? length + 1 : 1;
+            if (length > 1) {
+                longest = Math.max(longest, minutes);
+            }
+        }
+        return longest / 60.0;
+    }
 
-        for (Map.Entry<DayOfWeek, List<StudentSchedule>> entry : dailySchedules.entrySet()) {
-            DayOfWeek day = entry.getKey();
-            List<StudentSchedule> daySchedules = entry.getValue();
-
-            // Sort by start time
-            daySchedules.sort(Comparator.comparing(StudentSchedule::getStartTime));
-
-            for (int i = 0; i < daySchedules.size() - 1; i++) {
-                StudentSchedule current = daySchedules.get(i);
-                StudentSchedule next = daySchedules.get(i + 1);
-
-                if (current.getDayOfWeek() == next.getDayOfWeek()) {
+    private ConstraintResult checkTravelTime(Long studentId, List<StudentSchedule> schedules) {
+        // Classes further apart than this never need a closer look
+        int nearSlots = WeeklyOccupancy.slotsFor(Math.max(minBreakBetweenClasses, BUILDING_CHANGE_MINUTES));
+        WeeklyOccupancy earlier = new WeeklyOccupancy();
+
+        for (int i = 0; i < schedules.size(); i++) {
+            StudentSchedule schedule = schedules.get(i);
+            if (earlier.intersects(schedule.getOccupancy().widen(nearSlots))) {
+                for (int j = 0; j < i; j++) {
+                    StudentSchedule other = schedules.get(j);
+                    if (other.getDayOfWeek() != schedule.getDayOfWeek()) continue;
+
+                    StudentSchedule current = other.getStartTime().isAfter(schedule.getStartTime()) ? schedule : other;
+                    StudentSchedule next = current == other ? schedule : other;
                     long breakMinutes = java.time.Duration.between(current.getEndTime(), next.getStartTime()).toMinutes();
+                    if (breakMinutes < 0) continue; // Overlaps are time conflicts
 
-                    // Check if classes are in different buildings
-                    if (!current.getBuilding().equals(next.getBuilding())) {
-                        if (breakMinutes < 15) { // Assume 15 minutes minimum for building change
+                    // Check if classes are in different buildings; without matched rooms only the break counts
+                    if (current.getBuilding() != null && next.getBuilding() != null
+                            && !current.getBuilding().equals(next.getBuilding())) {
+                        if (breakMinutes < BUILDING_CHANGE_MINUTES) {
                             return ConstraintResult.violated(
                                 String.format("Insufficient travel time for student %d between %s (%s, %s) and %s (%s, %s) on %s: only %d minutes",
                                     studentId,
                                     current.getCourseCode(), current.getBuilding(), current.getRoomNumber(),
                                     next.getCourseCode(), next.getBuilding(), next.getRoomNumber(),
-                                    day, breakMinutes),
+                                    current.getDayOfWeek(), breakMinutes),
                                 0.7, // Soft constraint
                                 Arrays.asList("Student_" + studentId)
                             );
@@ -263,24 +337,20 @@ public class StudentScheduleConflictConstraint extends SchedulingConstraint {
                     } else if (breakMinutes < minBreakBetweenClasses) {
                         return ConstraintResult.violated(
                             String.format("Insufficient break time for student %d between classes on %s: %d minutes (minimum: %d)",
-                                studentId, day, breakMinutes, minBreakBetweenClasses),
+                                studentId, current.getDayOfWeek(), breakMinutes, minBreakBetweenClasses),
                             0.6, // Soft constraint
                             Arrays.asList("Student_" + studentId)
                         );
                     }
                 }
             }
+            earlier.addAll(schedule.getOccupancy());
         }
 
         return ConstraintResult.satisfied();
     }
 
     private ConstraintResult checkCreditLoad(Long studentId, List<StudentSchedule> schedules) {
-        StudentInfo student = studentInfo.get(studentId);
-        if (student == null) {
-            return ConstraintResult.satisfied();
-        }
-
         // Calculate total credits
         double totalCredits = schedules.stream()
                 .mapToDouble(s -> s.getCredits())
@@ -308,51 +378,153 @@ public class StudentScheduleConflictConstraint extends SchedulingConstraint {
         return ConstraintResult.satisfied();
     }
 
-    private Map<Long, List<StudentSchedule>> extractStudentSchedules(SchedulingAssignment assignment) {
-        Map<Long, List<StudentSchedule>> studentSchedules = new HashMap<>();
-
-        // Extract student schedules from assignment
-        for (Map.Entry<SchedulingVariable, SchedulingValue> entry : assignment.getAssignments().entrySet()) {
-            SchedulingVariable variable = entry.getKey();
-            SchedulingValue value = entry.getValue();
-
-            if (variable.getType() == VariableType.STUDENT_ENROLLMENT) {
-                // This would typically come from enrollment data
-                // For now, we'll create a placeholder implementation
-                Long studentId = Long.parseLong(variable.getEntityId());
-                StudentSchedule schedule = createStudentScheduleFromAssignment(variable, value);
-                studentSchedules.computeIfAbsent(studentId, k -> new ArrayList<>())
-                               .add(schedule);
+    // The attended offerings the assignment gives a time, in the rooms matched or assigned to them
+    private List<StudentSchedule> schedulesOf(SchedulingAssignment assignment) {
+        List<StudentSchedule> schedules = new ArrayList<>();
+        for (SchedulingVariable variable : attended) {
+            SlotTime slot = slotOf(assignment.getValue(variable));
+            if (slot == null) continue;
+
+            SchedulingValue room = PerformanceOptimizer.roomOf(assignment, variable).orElse(null);
+            RoomInfo roomInfo = room != null ? timetable.getRoom(room.getValue()) : null;
+            OfferingInfo offering = timetable.getOffering(variable.getEntityId());
+            schedules.add(new StudentSchedule(
+                variable.getEntityId(),
+                offering != null ? offering.getCourseCode() : variable.getDisplayName(),
+                roomInfo != null ? roomInfo.getBuilding() : null,
+                roomInfo != null ? roomInfo.getRoomNumber() : null,
+                slot.getDayOfWeek(),
+                slot.getStartTime(),
+                slot.getEndTime(),
+                offering != null ? offering.getCredits() : 0.0,
+                slot.getOccupancy()
+            ));
+        }
+        return schedules;
+    }
+
+    private SlotTime slotOf(SchedulingValue value) {
+        return value != null && value.isTimeSlot() ? timetable.getTimeSlot(value.getValue()) : null;
+    }
+
+    // Helper classes
+
+    /**
+     * What the student constraints of a semester read besides the assignment: each offering's
+     * course and credits, the times of the slots with their quarter-hour masks and the buildings of
+     * the rooms, by the ids the scheduling values carry, and the prerequisites of the courses.
+     * Filled once before solving and shared by all students.
+     */
+    public static class Timetable implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final Map<String, OfferingInfo> offerings = new HashMap<>();
+        private final Map<Object, SlotTime> timeSlots = new HashMap<>();
+        private final Map<Object, RoomInfo> rooms = new HashMap<>();
+        private final Map<String, CoursePrerequisites> coursePrerequisites;
+        private final PrerequisiteClosureIndex.Closure<String> prerequisiteClosure;
+
+        public Timetable(Map<String, CoursePrerequisites> coursePrerequisites) {
+            this.coursePrerequisites = new HashMap<>(coursePrerequisites);
+            this.prerequisiteClosure = buildClosure(this.coursePrerequisites.values());
+        }
+
+        public Timetable addOffering(String courseOfferingId, String courseCode, double credits) {
+            offerings.put(courseOfferingId, new OfferingInfo(courseCode, credits));
+            return this;
+        }
+
+        public Timetable addTimeSlot(Object timeSlotId, DayOfWeek day, LocalTime start, LocalTime end) {
+            timeSlots.put(timeSlotId, new SlotTime(day, start, end));
+            return this;
+        }
+
+        public Timetable addRoom(Object classroomId, String building, String roomNumber) {
+            rooms.put(classroomId, new RoomInfo(building, roomNumber));
+            return this;
+        }
+
+        OfferingInfo getOffering(String courseOfferingId) { return offerings.get(courseOfferingId); }
+        SlotTime getTimeSlot(Object timeSlotId) { return timeSlots.get(timeSlotId); }
+        RoomInfo getRoom(Object classroomId) { return rooms.get(classroomId); }
+        CoursePrerequisites getCoursePrerequisites(String courseCode) { return coursePrerequisites.get(courseCode); }
+        PrerequisiteClosureIndex.Closure<String> getPrerequisiteClosure() { return prerequisiteClosure; }
+
+        private static PrerequisiteClosureIndex.Closure<String> buildClosure(Collection<CoursePrerequisites> prerequisites) {
+            PrerequisiteClosureIndex<String> index = new PrerequisiteClosureIndex<>();
+            for (CoursePrerequisites course : prerequisites) {
+                for (String requiredCourse : course.getRequiredCourses()) {
+                    index.addPrerequisite(course.getCourseCode(), requiredCourse);
+                }
             }
+            return index.closure();
         }
+    }
 
-        return studentSchedules;
+    static class OfferingInfo implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final String courseCode;
+        private final double credits;
+
+        OfferingInfo(String courseCode, double credits) {
+            this.courseCode = courseCode;
+            this.credits = credits;
+        }
+
+        String getCourseCode() { return courseCode; }
+        double getCredits() { return credits; }
     }
 
-    private StudentSchedule createStudentScheduleFromAssignment(SchedulingVariable variable, SchedulingValue value) {
-        // This is a simplified version - in real implementation, we'd extract actual domain objects
-        return new StudentSchedule(
-            "course_" + value.getValue(),
-            "COURSE101",
-            "Main Building",
-            "Room 101",
-            DayOfWeek.MONDAY,
-            java.time.LocalTime.of(9, 0),
-            java.time.LocalTime.of(10, 30),
-            3.0 // Credits
-        );
+    static class SlotTime implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final DayOfWeek dayOfWeek;
+        private final LocalTime startTime;
+        private final LocalTime endTime;
+        private final transient WeeklyOccupancy occupancy;
+
+        SlotTime(DayOfWeek dayOfWeek, LocalTime startTime, LocalTime endTime) {
+            this.dayOfWeek = dayOfWeek;
+            this.startTime = startTime;
+            this.endTime = endTime;
+            this.occupancy = WeeklyOccupancy.of(dayOfWeek, startTime, endTime);
+        }
+
+        // The mask is not serialized; a decoded slot computes it again
+        private Object readResolve() {
+            return new SlotTime(dayOfWeek, startTime, endTime);
+        }
+
+        DayOfWeek getDayOfWeek() { return dayOfWeek; }
+        LocalTime getStartTime() { return startTime; }
+        LocalTime getEndTime() { return endTime; }
+        WeeklyOccupancy getOccupancy() { return occupancy; }
+
+        boolean overlaps(SlotTime other) {
+            return dayOfWeek == other.dayOfWeek
+                && startTime.isBefore(other.endTime) && other.startTime.isBefore(endTime);
+        }
     }
 
-    private boolean isCourseAvailableForStudent(SchedulingAssignment assignment,
-                                               SchedulingVariable variable,
-                                               SchedulingValue value) {
-        // Check if the course doesn't conflict with student's existing schedule
-        // This is a simplified version - real implementation would check actual conflicts
-        return true;
+    static class RoomInfo implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final String building;
+        private final String roomNumber;
+
+        RoomInfo(String building, String roomNumber) {
+            this.building = building;
+            this.roomNumber = roomNumber;
+        }
+
+        String getBuilding() { return building; }
+        String getRoomNumber() { return roomNumber; }
     }
 
-    // Helper classes
-    public static class StudentInfo {
+    public static class StudentInfo implements Serializable {
+        private static final long serialVersionUID = 1L;
+
         private final Long studentId;
         private final Set<String> completedCourses;
         private final Map<String, String> courseGrades;
@@ -390,11 +562,15 @@ public class StudentScheduleConflictConstraint extends SchedulingConstraint {
         }
 
         // Getters
+        public Long getStudentId() { return studentId; }
+        public Set<String> getCompletedCourses() { return Collections.unmodifiableSet(completedCourses); }
         public double getMaxCreditsPerSemester() { return maxCreditsPerSemester; }
         public double getMinCreditsPerSemester() { return minCreditsPerSemester; }
     }
 
-    public static class CoursePrerequisites {
+    public static class CoursePrerequisites implements Serializable {
+        private static final long serialVersionUID = 1L;
+
         private final String courseCode;
         private final Set<String> requiredCourses;
         private final Map<String, String> minimumGradeRequirements;
@@ -421,10 +597,18 @@ public class StudentScheduleConflictConstraint extends SchedulingConstraint {
         private final java.time.LocalTime startTime;
         private final java.time.LocalTime endTime;
         private final double credits;
+        private final WeeklyOccupancy occupancy;
 
         public StudentSchedule(String courseOfferingId, String courseCode, String building, String roomNumber,
                               DayOfWeek dayOfWeek, java.time.LocalTime startTime,
                               java.time.LocalTime endTime, double credits) {
+            this(courseOfferingId, courseCode, building, roomNumber, dayOfWeek, startTime, endTime, credits,
+                 WeeklyOccupancy.of(dayOfWeek, startTime, endTime));
+        }
+
+        StudentSchedule(String courseOfferingId, String courseCode, String building, String roomNumber,
+                        DayOfWeek dayOfWeek, java.time.LocalTime startTime,
+                        java.time.LocalTime endTime, double credits, WeeklyOccupancy occupancy) {
             this.courseOfferingId = courseOfferingId;
             this.courseCode = courseCode;
             this.building = building;
@@ -433,6 +617,7 @@ public class StudentScheduleConflictConstraint extends SchedulingConstraint {
             this.startTime = startTime;
             this.endTime = endTime;
             this.credits = credits;
+            this.occupancy = occupancy;
         }
 
         // Getters
@@ -444,6 +629,11 @@ public class StudentScheduleConflictConstraint extends SchedulingConstraint {
         public java.time.LocalTime getStartTime() { return startTime; }
         public java.time.LocalTime getEndTime() { return endTime; }
         public double getCredits() { return credits; }
+        public WeeklyOccupancy getOccupancy() { return occupancy; }
+        public boolean overlaps(StudentSchedule other) {
+            return dayOfWeek == other.dayOfWeek &&
+                   startTime.isBefore(other.endTime) && other.startTime.isBefore(endTime);
+        }
         public double getDurationHours() {
             return java.time.Duration.between(startTime, endTime).toMinutes() / 60.0;
         }
@@ -451,4 +641,4 @@ public class StudentScheduleConflictConstraint extends SchedulingConstraint {
             return startTime + "-" + endTime;
         }
     }
-}
\ No newline at end of file
+}
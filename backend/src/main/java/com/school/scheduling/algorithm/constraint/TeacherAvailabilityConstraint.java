@@ -1,11 +1,13 @@
 package com.school.scheduling.algorithm.constraint;
 
+import com.school.scheduling.algorithm.WeeklyOccupancy;
 import com.school.scheduling.domain.constraint.*;
 import com.school.scheduling.domain.Teacher;
 import com.school.scheduling.domain.CourseOffering;
 import com.school.scheduling.domain.TimeSlot;
 import com.school.scheduling.domain.Classroom;
 
+import java.io.Serializable;
 import java.time.DayOfWeek;
 import java.util.*;
 
@@ -156,43 +158,66 @@ public class TeacherAvailabilityConstraint extends SchedulingConstraint {
         return ConstraintResult.satisfied();
     }
 
-    private ConstraintResult checkConsecutiveClasses(List<ScheduledClass> classes) {
-        for (int i = 0; i < classes.size() - 1; i++) {
-            ScheduledClass current = classes.get(i);
-            ScheduledClass next = classes.get(i + 1);
+    /*
+     * The teacher's week as quarter-hours. A class covers every quarter-hour it touches and
+     * classes a few minutes apart merge into one stretch, so a day's longest run bounds its
+     * longest chain of back-to-back classes from above: only a day whose run is too long is
+     * walked again on exact times. The mask is built per validate, as the classes are extracted
+     * per validate; the constraint sees whole assignments, not the move that changed them.
+     */
+    ConstraintResult checkConsecutiveClasses(List<ScheduledClass> classes) {
+        if (classes.isEmpty()) {
+            return ConstraintResult.satisfied();
+        }
+        WeeklyOccupancy week = new WeeklyOccupancy();
+        for (ScheduledClass scheduledClass : classes) {
+            week.add(scheduledClass.getDayOfWeek(), scheduledClass.getStartTime(), scheduledClass.getEndTime());
+        }
 
-            // Check if classes are on the same day and consecutive
-            if (current.getDayOfWeek() == next.getDayOfWeek() &&
-                current.getEndTime().equals(next.getStartTime())) {
-
-                // Count consecutive classes
-                int consecutiveCount = 2;
-                double consecutiveHours = current.getDurationHours() + next.getDurationHours();
-
-                int j = i + 2;
-                while (j < classes.size() &&
-                       classes.get(j).getDayOfWeek() == current.getDayOfWeek() &&
-                       classes.get(j).getStartTime().equals(classes.get(j-1).getEndTime())) {
-                    consecutiveCount++;
-                    consecutiveHours += classes.get(j).getDurationHours();
-                    j++;
-                }
+        for (DayOfWeek day : DayOfWeek.values()) {
+            if (week.longestRun(day) * WeeklyOccupancy.MINUTES_PER_SLOT <= maxConsecutiveHours * 60) continue;
 
-                if (consecutiveHours > maxConsecutiveHours) {
-                    return ConstraintResult.violated(
-                        String.format("Teacher has %.1f consecutive hours (max: %d) starting at %s on %s",
-                            consecutiveHours, maxConsecutiveHours,
-                            current.getStartTime(), current.getDayOfWeek()),
-                        1.0,
-                        Arrays.asList("Teacher_" + current.getTeacherId())
-                    );
-                }
+            double consecutiveHours = longestChainHours(classes, day);
+            if (consecutiveHours > maxConsecutiveHours) {
+                return ConstraintResult.violated(
+                    String.format("Teacher has %.1f consecutive hours (max: %d) on %s",
+                        consecutiveHours, maxConsecutiveHours, day),
+                    1.0,
+                    Arrays.asList("Teacher_" + classes.get(0).getTeacherId())
+                );
             }
         }
 
         return ConstraintResult.satisfied();
     }
 
+    // Hours of the longest run of two or more classes on the day, each starting as the last ends
+    private static double longestChainHours(List<ScheduledClass> classes, DayOfWeek day) {
+        List<ScheduledClass> daily = new ArrayList<>();
+        for (ScheduledClass scheduledClass : classes) {
+            if (scheduledClass.getDayOfWeek() == day) {
+                daily.add(scheduledClass);
+            }
+        }
+        daily.sort(Comparator.comparing(ScheduledClass::getStartTime));
+
+        long longest = 0;
+        long minutes = 0;
+        int length = 0;
+        for (int i = 0; i < daily.size(); i++) {
+            ScheduledClass scheduledClass = daily.get(i);
+            long classMinutes = java.time.Duration.between(scheduledClass.getStartTime(), scheduledClass.getEndTime())
+                .toMinutes();
+            boolean continues = i > 0 && daily.get(i - 1).getEndTime().equals(scheduledClass.getStartTime());
+            minutes = continues ? minutes + classMinutes : classMinutes;
+            length = continues ? length + 1 : 1;
+            if (length > 1) {
+                longest = Math.max(longest, minutes);
+            }
+        }
+        return longest / 60.0;
+    }
+
     private ConstraintResult checkBreakTimes(List<ScheduledClass> classes) {
         for (int i = 0; i < classes.size() - 1; i++) {
             ScheduledClass current = classes.get(i);
@@ -258,7 +283,9 @@ public class TeacherAvailabilityConstraint extends SchedulingConstraint {
     }
 
     // Helper classes
-    public static class TeacherAvailability {
+    public static class TeacherAvailability implements Serializable {
+        private static final long serialVersionUID = 1L;
+
         private final Long teacherId;
         private final Map<DayOfWeek, List<TimeRange>> availability;
         private final double maxWeeklyHours;
@@ -293,7 +320,9 @@ public class TeacherAvailabilityConstraint extends SchedulingConstraint {
         }
     }
 
-    public static class TimeRange {
+    public static class TimeRange implements Serializable {
+        private static final long serialVersionUID = 1L;
+
         private final java.time.LocalTime startTime;
         private final java.time.LocalTime endTime;
 
@@ -0,0 +1,144 @@
+package com.school.scheduling.algorithm.constraint;
+
+import com.school.scheduling.domain.constraint.*;
+
+import java.io.Serializable;
+import java.util.*;
+
+/**
+ * Constraint that keeps a teacher within the number of offerings and the weekly teaching hours
+ * they may take. There is one constraint per teacher with limits, scoped to the offerings that
+ * may be given that teacher. It also carries the limits for solvers that assign teachers directly.
+ */
+public class TeacherLoadConstraint extends SchedulingConstraint {
+
+    private final Long teacherId;
+    private final TeacherLoad load;
+    private final Set<SchedulingVariable> offerings;
+    private final Map<String, Integer> offeringMinutes;
+
+    /**
+     * @param offerings       the offerings whose domain holds the teacher
+     * @param offeringMinutes weekly teaching minutes by course offering id
+     */
+    public TeacherLoadConstraint(Long teacherId, TeacherLoad load, Collection<SchedulingVariable> offerings,
+                                 Map<String, Integer> offeringMinutes) {
+        super("Teacher Load Constraint: Teacher " + teacherId, ConstraintType.TEACHER_WORKLOAD, ConstraintPriority.HARD,
+              "Ensures teachers stay within their course and weekly hour limits");
+        this.teacherId = teacherId;
+        this.load = load;
+        this.offerings = new HashSet<>(offerings);
+        this.offeringMinutes = offeringMinutes;
+    }
+
+    /**
+     * One constraint per teacher with limits that some offering's domain holds; they all read one
+     * copy of the offering minutes.
+     *
+     * @param teacherLoads    limits by teacher id
+     * @param domains         the problem's domains, whose teacher values carry teacher ids
+     * @param offeringMinutes weekly teaching minutes by course offering id
+     */
+    public static Set<TeacherLoadConstraint> forTeachers(Map<Long, TeacherLoad> teacherLoads,
+                                                         Map<SchedulingVariable, List<SchedulingValue>> domains,
+                                                         Map<String, Integer> offeringMinutes) {
+        Map<Long, Set<SchedulingVariable>> offeringsByTeacher = new HashMap<>();
+        domains.forEach((variable, values) -> {
+            for (SchedulingValue value : values) {
+                if (value.isTeacher() && teacherLoads.containsKey(value.getValue())) {
+                    offeringsByTeacher.computeIfAbsent((Long) value.getValue(), id -> new HashSet<>()).add(variable);
+                }
+            }
+        });
+
+        Map<String, Integer> minutes = new HashMap<>(offeringMinutes);
+        Set<TeacherLoadConstraint> constraints = new HashSet<>();
+        offeringsByTeacher.forEach((teacherId, offerings) ->
+            constraints.add(new TeacherLoadConstraint(teacherId, teacherLoads.get(teacherId), offerings, minutes)));
+        return constraints;
+    }
+
+    @Override
+    public ConstraintResult validate(SchedulingAssignment assignment) {
+        int courses = 0;
+        long minutes = 0;
+        for (SchedulingVariable offering : offerings) {
+            SchedulingValue value = assignment.getValue(offering);
+            if (value != null && value.isTeacher() && teacherId.equals(value.getValue())) {
+                courses++;
+                minutes += getOfferingMinutes(offering.getEntityId());
+            }
+        }
+
+        if (courses > load.getMaxCourses()) {
+            return ConstraintResult.violated(
+                String.format("Teacher %d exceeds maximum courses per semester: %d > %d",
+                    teacherId, courses, load.getMaxCourses()),
+                1.0,
+                Arrays.asList("Teacher_" + teacherId)
+            );
+        }
+
+        if (minutes > load.getMaxWeeklyMinutes()) {
+            return ConstraintResult.violated(
+                String.format("Teacher %d exceeds maximum weekly hours: %.1f > %.1f",
+                    teacherId, minutes / 60.0, load.getMaxWeeklyMinutes() / 60.0),
+                1.0,
+                Arrays.asList("Teacher_" + teacherId)
+            );
+        }
+
+        return ConstraintResult.satisfied();
+    }
+
+    @Override
+    public Set<SchedulingVariable> getScope() {
+        return Collections.unmodifiableSet(offerings);
+    }
+
+    @Override
+    public Collection<Set<SchedulingVariable>> getConflictGroups() {
+        // Offerings that may share the teacher do not have to meet apart
+        return Collections.emptyList();
+    }
+
+    @Override
+    public List<SchedulingValue> getValidValues(SchedulingAssignment assignment,
+                                               Map<SchedulingVariable, List<SchedulingValue>> domains) {
+        // Limits bind sets of offerings, not a single value
+        List<SchedulingValue> validValues = new ArrayList<>();
+        for (List<SchedulingValue> values : domains.values()) {
+            validValues.addAll(values);
+        }
+        return validValues;
+    }
+
+    public Long getTeacherId() {
+        return teacherId;
+    }
+
+    public TeacherLoad getTeacherLoad() {
+        return load;
+    }
+
+    public int getOfferingMinutes(String courseOfferingId) {
+        return offeringMinutes.getOrDefault(courseOfferingId, 0);
+    }
+
+    // Helper classes
+    public static class TeacherLoad implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final int maxCourses;
+        private final int maxWeeklyMinutes;
+
+        public TeacherLoad(int maxCourses, int maxWeeklyMinutes) {
+            this.maxCourses = maxCourses;
+            this.maxWeeklyMinutes = maxWeeklyMinutes;
+        }
+
+        // Getters
+        public int getMaxCourses() { return maxCourses; }
+        public int getMaxWeeklyMinutes() { return maxWeeklyMinutes; }
+    }
+}
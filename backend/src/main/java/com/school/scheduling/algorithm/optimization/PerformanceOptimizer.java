@@ -5,6 +5,7 @@ import com.school.scheduling.domain.constraint.*;
 
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.function.BiPredicate;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -14,6 +15,9 @@ import java.util.stream.Collectors;
  */
 public class PerformanceOptimizer {
 
+    // Metadata key of the rooms matched to a time assignment, a Map<SchedulingVariable, SchedulingValue>
+    public static final String ROOM_ASSIGNMENTS = "roomAssignments";
+
     private final CacheManager cacheManager;
     private final ExecutorService executorService;
     private final int parallelismLevel;
@@ -215,6 +219,101 @@ public class PerformanceOptimizer {
         return Optional.of(merged);
     }
 
+    /**
+     * Takes room choice out of the search. Phase one solves the returned time problem: the same
+     * problem without classroom values, plus a counting constraint that keeps concurrent classes
+     * within the rooms suited to them. Phase two, {@link #assignRooms}, matches rooms to each
+     * group of concurrent classes of its solution.
+     *
+     * @param suitable   whether a variable may use a classroom value at all
+     * @param slotGroups per time slot value, a key shared by every slot it overlaps; slots that
+     *                   are missing only clash with themselves
+     */
+    public RoomDecomposition decomposeRooms(ConstraintSatisfactionProblem csp,
+                                            BiPredicate<SchedulingVariable, SchedulingValue> suitable,
+                                            Map<Object, Object> slotGroups) {
+        List<SchedulingVariable> classes = new ArrayList<>(csp.getVariables());
+        Map<Object, Integer> roomIndex = new LinkedHashMap<>();
+        Map<SchedulingVariable, List<SchedulingValue>> timeDomains = new HashMap<>();
+        List<List<SchedulingValue>> roomChoices = new ArrayList<>();
+        int[][] suitableRooms = new int[classes.size()][];
+
+        for (int c = 0; c < classes.size(); c++) {
+            SchedulingVariable variable = classes.get(c);
+            List<SchedulingValue> domain = csp.getDomains().getOrDefault(variable, List.of());
+
+            // Preferred rooms first, so the matching keeps classes in them where it can
+            List<SchedulingValue> rooms = domain.stream()
+                .filter(SchedulingValue::isClassroom)
+                .filter(room -> suitable.test(variable, room))
+                .sorted(Comparator.comparingDouble(SchedulingValue::getPreferenceScore).reversed())
+                .collect(Collectors.toList());
+            roomChoices.add(rooms);
+            suitableRooms[c] = rooms.stream()
+                .mapToInt(room -> roomIndex.computeIfAbsent(room.getValue(), key -> roomIndex.size()))
+                .toArray();
+
+            timeDomains.put(variable, domain.stream()
+                .filter(value -> !value.isClassroom())
+                .collect(Collectors.toList()));
+        }
+
+        RoomCountingConstraint counting = new RoomCountingConstraint(
+            classes, new RoomMatcher(roomIndex.size(), suitableRooms), slotGroups);
+        Set<SchedulingConstraint> constraints = new HashSet<>(csp.getConstraints());
+        constraints.add(counting);
+
+        return new RoomDecomposition(
+            new ConstraintSatisfactionProblem(csp.getVariables(), constraints, timeDomains),
+            counting, roomChoices);
+    }
+
+    /**
+     * Matches rooms to a solution of the time problem, each group of concurrent classes in
+     * parallel. The rooms are recorded under {@link #ROOM_ASSIGNMENTS} in a copy of the
+     * assignment; empty when some class with a time is left without a room.
+     */
+    public Optional<SchedulingAssignment> assignRooms(RoomDecomposition decomposition,
+                                                      SchedulingAssignment times) {
+        RoomCountingConstraint counting = decomposition.getCountingConstraint();
+        List<SchedulingVariable> classes = counting.getClasses();
+        int[] groups = counting.groupsOf(times);
+        int[] rooms = counting.getMatcher().matchAll(groups, executorService);
+
+        Map<SchedulingVariable, SchedulingValue> roomAssignments = new HashMap<>();
+        for (int c = 0; c < classes.size(); c++) {
+            if (groups[c] < 0) continue;
+            if (rooms[c] < 0) {
+                return Optional.empty();
+            }
+            roomAssignments.put(classes.get(c), decomposition.roomValue(c, rooms[c], counting.getMatcher()));
+        }
+
+        SchedulingAssignment result = times.copy();
+        result.addMetadata(ROOM_ASSIGNMENTS, roomAssignments);
+        return Optional.of(result);
+    }
+
+    /**
+     * The room {@link #assignRooms} matched to the class; empty when the assignment was not
+     * through room matching or the class has no time.
+     */
+    @SuppressWarnings("unchecked")
+    public static Optional<SchedulingValue> roomOf(SchedulingAssignment assignment, SchedulingVariable variable) {
+        Map<SchedulingVariable, SchedulingValue> rooms =
+            (Map<SchedulingVariable, SchedulingValue>) assignment.getMetadata(ROOM_ASSIGNMENTS);
+        return rooms == null ? Optional.empty() : Optional.ofNullable(rooms.get(variable));
+    }
+
+    /**
+     * Solves the time problem of the decomposition with the strategy, then matches its rooms.
+     */
+    public Optional<SchedulingAssignment> solveTwoPhase(RoomDecomposition decomposition,
+                                                        OptimizationStrategy strategy) {
+        return decomposition.getTimeProblem().solveWithStrategy(mapStrategy(strategy))
+            .flatMap(times -> assignRooms(decomposition, times));
+    }
+
     /**
      * Applies variable ordering optimization.
      */
@@ -423,6 +522,115 @@ public class PerformanceOptimizer {
         public List<SchedulingVariable> getOrderedVariables() { return new ArrayList<>(orderedVariables); }
     }
 
+    public static class RoomDecomposition {
+        private final ConstraintSatisfactionProblem timeProblem;
+        private final RoomCountingConstraint countingConstraint;
+        private final List<List<SchedulingValue>> roomChoices;
+
+        public RoomDecomposition(ConstraintSatisfactionProblem timeProblem,
+                                 RoomCountingConstraint countingConstraint,
+                                 List<List<SchedulingValue>> roomChoices) {
+            this.timeProblem = timeProblem;
+            this.countingConstraint = countingConstraint;
+            this.roomChoices = new ArrayList<>(roomChoices);
+        }
+
+        // The class's own value for a matched room; the matcher numbers rooms in the order of its choices
+        SchedulingValue roomValue(int c, int room, RoomMatcher matcher) {
+            int[] suitable = matcher.suitableRooms(c);
+            for (int k = 0; k < suitable.length; k++) {
+                if (suitable[k] == room) {
+                    return roomChoices.get(c).get(k);
+                }
+            }
+            throw new IllegalArgumentException("Room " + room + " is not a choice of class " + c);
+        }
+
+        // Getters
+        public ConstraintSatisfactionProblem getTimeProblem() { return timeProblem; }
+        public RoomCountingConstraint getCountingConstraint() { return countingConstraint; }
+        public int getRoomCount() { return countingConstraint.getMatcher().getRoomCount(); }
+    }
+
+    /**
+     * Hard constraint of the time problem: no group of concurrent classes may need more rooms
+     * than there are rooms suited to them. Counting only; the matching itself waits for phase two.
+     */
+    public static class RoomCountingConstraint extends SchedulingConstraint {
+        private static final long serialVersionUID = 1L;
+
+        private final List<SchedulingVariable> classes;
+        private final RoomMatcher matcher;
+        private final Map<Object, Object> slotGroups;
+
+        public RoomCountingConstraint(List<SchedulingVariable> classes, RoomMatcher matcher,
+                                      Map<Object, Object> slotGroups) {
+            super("Room Counting Constraint", ConstraintType.CLASSROOM_CAPACITY, ConstraintPriority.HARD,
+                  "Ensures concurrent classes do not outnumber the rooms suited to them");
+            this.classes = new ArrayList<>(classes);
+            this.matcher = matcher;
+            this.slotGroups = new HashMap<>(slotGroups);
+        }
+
+        @Override
+        public ConstraintResult validate(SchedulingAssignment assignment) {
+            int[] groups = groupsOf(assignment);
+            Map<Integer, List<Integer>> concurrent = new HashMap<>();
+            for (int c = 0; c < groups.length; c++) {
+                if (groups[c] >= 0) {
+                    concurrent.computeIfAbsent(groups[c], g -> new ArrayList<>()).add(c);
+                }
+            }
+
+            for (List<Integer> group : concurrent.values()) {
+                int shortfall = matcher.shortfall(group.stream().mapToInt(Integer::intValue).toArray());
+                if (shortfall > 0) {
+                    return ConstraintResult.violated(
+                        String.format("%d concurrent classes are %d suitable rooms short", group.size(), shortfall),
+                        1.0,
+                        group.stream().map(c -> classes.get(c).getEntityId()).collect(Collectors.toList())
+                    );
+                }
+            }
+            return ConstraintResult.satisfied();
+        }
+
+        @Override
+        public Set<SchedulingVariable> getScope() {
+            return new HashSet<>(classes);
+        }
+
+        @Override
+        public List<SchedulingValue> getValidValues(SchedulingAssignment assignment,
+                                                   Map<SchedulingVariable, List<SchedulingValue>> domains) {
+            // A count over concurrent classes rules out no value of a single variable
+            return domains.values().stream().flatMap(List::stream).collect(Collectors.toList());
+        }
+
+        /**
+         * Per class, the group of concurrent classes its time slot puts it in, or -1 for classes
+         * without a time slot.
+         */
+        public int[] groupsOf(SchedulingAssignment assignment) {
+            int[] groups = new int[classes.size()];
+            Map<Object, Integer> keys = new HashMap<>();
+            for (int c = 0; c < classes.size(); c++) {
+                SchedulingValue value = assignment.getValue(classes.get(c));
+                if (value == null || !value.isTimeSlot()) {
+                    groups[c] = -1;
+                    continue;
+                }
+                Object key = slotGroups.getOrDefault(value.getValue(), value.getValue());
+                groups[c] = keys.computeIfAbsent(key, k -> keys.size());
+            }
+            return groups;
+        }
+
+        // Getters
+        public List<SchedulingVariable> getClasses() { return new ArrayList<>(classes); }
+        public RoomMatcher getMatcher() { return matcher; }
+    }
+
     public enum OptimizationStrategy {
         PARALLEL_BACKTRACKING,
         PARALLEL_AC3,
@@ -0,0 +1,216 @@
+package com.school.scheduling.algorithm.optimization;
+
+import java.io.Serializable;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Assigns rooms to classes once their times are fixed. Classes that do not meet at the same time
+ * never compete for a room, so every group of concurrent classes is a bipartite matching problem
+ * of its own, classes on one side and rooms on the other, with an edge wherever the room suits
+ * the class. Each group is matched with Hopcroft-Karp, and groups are matched in parallel.
+ * <p>
+ * Rooms are tried in the order each class lists them, so listing them best first makes the
+ * matching keep classes in their preferred rooms wherever that costs no other class its room.
+ * <p>
+ * {@link #shortfall(int[])} is the counting check for the search that fixes the times: it tells
+ * whether a group of classes obviously cannot be roomed without matching anything.
+ */
+public class RoomMatcher implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private static final int UNMATCHED = -1;
+    private static final int UNREACHED = Integer.MAX_VALUE;
+
+    private final int roomCount;
+    private final int[][] suitableRooms;
+    // Sizes of the distinct suitable-room sets, and per class the distinct sets containing its own
+    private final int[] setSizes;
+    private final int[][] coveringSets;
+
+    /**
+     * @param roomCount     rooms, numbered 0..roomCount-1
+     * @param suitableRooms per class, the rooms it may use, preferred first
+     */
+    public RoomMatcher(int roomCount, int[][] suitableRooms) {
+        if (roomCount < 0) {
+            throw new IllegalArgumentException("Room count must not be negative: " + roomCount);
+        }
+        this.roomCount = roomCount;
+        this.suitableRooms = new int[suitableRooms.length][];
+
+        Map<BitSet, Integer> distinct = new LinkedHashMap<>();
+        BitSet[] sets = new BitSet[suitableRooms.length];
+        for (int c = 0; c < suitableRooms.length; c++) {
+            this.suitableRooms[c] = suitableRooms[c].clone();
+            BitSet set = new BitSet(roomCount);
+            for (int room : suitableRooms[c]) {
+                if (room < 0 || room >= roomCount) {
+                    throw new IllegalArgumentException("Class " + c + " lists unknown room " + room);
+                }
+                set.set(room);
+            }
+            sets[c] = set;
+            distinct.putIfAbsent(set, distinct.size());
+        }
+
+        List<BitSet> distinctSets = new ArrayList<>(distinct.keySet());
+        this.setSizes = distinctSets.stream().mapToInt(BitSet::cardinality).toArray();
+        this.coveringSets = new int[suitableRooms.length][];
+        for (int c = 0; c < suitableRooms.length; c++) {
+            int[] covering = new int[distinctSets.size()];
+            int count = 0;
+            for (int s = 0; s < distinctSets.size(); s++) {
+                BitSet outside = (BitSet) sets[c].clone();
+                outside.andNot(distinctSets.get(s));
+                if (outside.isEmpty()) {
+                    covering[count++] = s;
+                }
+            }
+            coveringSets[c] = Arrays.copyOf(covering, count);
+        }
+    }
+
+    /**
+     * How many of the given concurrent classes are certain to go without a room: the largest
+     * excess of classes confined to some suitable-room set over the rooms in that set, taken over
+     * the distinct sets the classes list. 0 does not guarantee a matching exists, only that
+     * counting alone cannot rule it out.
+     */
+    public int shortfall(int[] classes) {
+        int[] counts = new int[setSizes.length];
+        int shortfall = 0;
+        for (int c : classes) {
+            for (int s : coveringSets[c]) {
+                shortfall = Math.max(shortfall, ++counts[s] - setSizes[s]);
+            }
+        }
+        return shortfall;
+    }
+
+    /**
+     * Matches the given concurrent classes to distinct rooms with as many classes roomed as
+     * possible.
+     *
+     * @return the room of each class, in the order given, or -1 for classes left without one
+     */
+    public int[] match(int[] classes) {
+        int[] roomOf = new int[classes.length];
+        int[] classIn = new int[roomCount];
+        int[] distance = new int[classes.length];
+        Arrays.fill(roomOf, UNMATCHED);
+        Arrays.fill(classIn, UNMATCHED);
+
+        // Greedy start in preference order; Hopcroft-Karp only repairs what it leaves unmatched
+        for (int i = 0; i < classes.length; i++) {
+            for (int room : suitableRooms[classes[i]]) {
+                if (classIn[room] == UNMATCHED) {
+                    classIn[room] = i;
+                    roomOf[i] = room;
+                    break;
+                }
+            }
+        }
+
+        while (layer(classes, roomOf, classIn, distance)) {
+            for (int i = 0; i < classes.length; i++) {
+                if (roomOf[i] == UNMATCHED) {
+                    augment(i, classes, roomOf, classIn, distance);
+                }
+            }
+        }
+        return roomOf;
+    }
+
+    /**
+     * Matches every group of concurrent classes on the executor, one task per group.
+     *
+     * @param groupOf per class, the group of classes meeting at the same time, or a negative
+     *                number for classes without a time
+     * @return the room of each class, or -1 for classes without a time or left without a room
+     */
+    public int[] matchAll(int[] groupOf, Executor executor) {
+        if (groupOf.length != suitableRooms.length) {
+            throw new IllegalArgumentException("Expected a group for each of " + suitableRooms.length
+                                               + " classes, got " + groupOf.length);
+        }
+        Map<Integer, List<Integer>> groups = new HashMap<>();
+        for (int c = 0; c < groupOf.length; c++) {
+            if (groupOf[c] >= 0) {
+                groups.computeIfAbsent(groupOf[c], g -> new ArrayList<>()).add(c);
+            }
+        }
+
+        int[] roomOf = new int[groupOf.length];
+        Arrays.fill(roomOf, UNMATCHED);
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (List<Integer> group : groups.values()) {
+            int[] classes = group.stream().mapToInt(Integer::intValue).toArray();
+            futures.add(CompletableFuture.runAsync(() -> {
+                int[] rooms = match(classes);
+                for (int i = 0; i < classes.length; i++) {
+                    roomOf[classes[i]] = rooms[i];
+                }
+            }, executor));
+        }
+        // Groups write disjoint slots of the result; join publishes them to this thread
+        futures.forEach(CompletableFuture::join);
+        return roomOf;
+    }
+
+    // Breadth-first layering from the unmatched classes; true when some free room is reachable
+    private boolean layer(int[] classes, int[] roomOf, int[] classIn, int[] distance) {
+        int[] queue = new int[classes.length];
+        int head = 0;
+        int tail = 0;
+        for (int i = 0; i < classes.length; i++) {
+            if (roomOf[i] == UNMATCHED) {
+                distance[i] = 0;
+                queue[tail++] = i;
+            } else {
+                distance[i] = UNREACHED;
+            }
+        }
+
+        boolean reachedFreeRoom = false;
+        while (head < tail) {
+            int i = queue[head++];
+            for (int room : suitableRooms[classes[i]]) {
+                int holder = classIn[room];
+                if (holder == UNMATCHED) {
+                    reachedFreeRoom = true;
+                } else if (distance[holder] == UNREACHED) {
+                    distance[holder] = distance[i] + 1;
+                    queue[tail++] = holder;
+                }
+            }
+        }
+        return reachedFreeRoom;
+    }
+
+    // Depth-first search for an augmenting path along the layers
+    private boolean augment(int i, int[] classes, int[] roomOf, int[] classIn, int[] distance) {
+        for (int room : suitableRooms[classes[i]]) {
+            int holder = classIn[room];
+            if (holder == UNMATCHED
+                || (distance[holder] == distance[i] + 1 && augment(holder, classes, roomOf, classIn, distance))) {
+                classIn[room] = i;
+                roomOf[i] = room;
+                return true;
+            }
+        }
+        distance[i] = UNREACHED;
+        return false;
+    }
+
+    /**
+     * The rooms the class may use, preferred first.
+     */
+    public int[] suitableRooms(int c) {
+        return suitableRooms[c].clone();
+    }
+
+    public int getRoomCount() { return roomCount; }
+    public int getClassCount() { return suitableRooms.length; }
+}
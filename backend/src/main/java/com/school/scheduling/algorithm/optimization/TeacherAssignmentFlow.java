@@ -0,0 +1,417 @@
+package com.school.scheduling.algorithm.optimization;
+
+import java.util.*;
+
+/**
+ * Assigns one teacher to each offering as a transportation problem, solved as a min-cost flow:
+ * source to every offering with capacity 1, offering to every teacher qualified for it at the
+ * cost of the preference the pair misses, and teacher to sink with the teacher's course limit.
+ * Successive shortest paths with node potentials then room as many offerings as possible at the
+ * least total cost, in polynomial time.
+ * <p>
+ * Teaching hours are a second capacity a single flow cannot carry exactly. After each solve, a
+ * teacher over their weekly hours gives up their longest offering and their course limit drops
+ * to what they kept, and the flow is re-solved; course limits are therefore exact, hour limits
+ * are enforced but not optimised over. Every solve starts again from the teachers' own course
+ * limits, so lowered limits do not outlive the solve that lowered them.
+ * <p>
+ * {@link #updateTeacher} re-solves incrementally when one teacher's limits or preferences
+ * change: only their offerings are released, negative cycles the new costs open are cancelled,
+ * and the released offerings are routed again, so offerings far from the change mostly keep
+ * their teacher.
+ */
+public class TeacherAssignmentFlow {
+
+    // Preferences 0..1 become integer costs 0..COST_SCALE
+    static final int COST_SCALE = 1000;
+    public static final int UNLIMITED = Integer.MAX_VALUE;
+
+    private static final int NONE = -1;
+    private static final long INFINITE = Long.MAX_VALUE / 4;
+
+    private final int offeringCount;
+    private final int teacherCount;
+    private final int[] offeringMinutes;
+    private final int[] maxCourses;
+    private final int[] maxMinutes;
+    private final List<Map<Integer, Double>> preferences = new ArrayList<>();
+
+    // Residual graph: edge e and e ^ 1 are each other's reverse
+    private int source;
+    private int sink;
+    private int[] head;
+    private int[] next = new int[0];
+    private int[] to = new int[0];
+    private int[] capacity = new int[0];
+    private long[] cost = new long[0];
+    private int edgeCount;
+    private int[] sinkEdge;
+    private long[] potential;
+    private boolean solved;
+
+    public TeacherAssignmentFlow(int offeringCount, int teacherCount) {
+        if (offeringCount < 0 || teacherCount < 0) {
+            throw new IllegalArgumentException("Counts must not be negative: " + offeringCount + ", " + teacherCount);
+        }
+        this.offeringCount = offeringCount;
+        this.teacherCount = teacherCount;
+        this.offeringMinutes = new int[offeringCount];
+        this.maxCourses = new int[teacherCount];
+        this.maxMinutes = new int[teacherCount];
+        Arrays.fill(maxCourses, UNLIMITED);
+        Arrays.fill(maxMinutes, UNLIMITED);
+        for (int t = 0; t < teacherCount; t++) {
+            preferences.add(new HashMap<>());
+        }
+    }
+
+    /**
+     * @param minutes weekly teaching minutes of the offering
+     */
+    public synchronized void setLoad(int offering, int minutes) {
+        offeringMinutes[offering] = Math.max(0, minutes);
+        solved = false;
+    }
+
+    /**
+     * @param courses most offerings the teacher may take, or {@link #UNLIMITED}
+     * @param minutes most weekly teaching minutes, or {@link #UNLIMITED}
+     */
+    public synchronized void setCapacity(int teacher, int courses, int minutes) {
+        maxCourses[teacher] = Math.max(0, courses);
+        maxMinutes[teacher] = Math.max(0, minutes);
+        solved = false;
+    }
+
+    /**
+     * Lets the teacher take the offering.
+     *
+     * @param preference how good the pairing is, 0..1
+     */
+    public synchronized void addEligibility(int offering, int teacher, double preference) {
+        if (offering < 0 || offering >= offeringCount) {
+            throw new IllegalArgumentException("Unknown offering " + offering);
+        }
+        preferences.get(teacher).put(offering, preference);
+        solved = false;
+    }
+
+    /**
+     * Solves from scratch.
+     *
+     * @return the teacher of each offering, or -1 for offerings no teacher could take
+     */
+    public synchronized int[] solve() {
+        build();
+        reoptimize();
+        solved = true;
+        return assignment();
+    }
+
+    /**
+     * Replaces the teacher's limits and the offerings they may take, then re-solves from the
+     * current assignment. Solves from scratch when nothing was solved yet.
+     *
+     * @param offerings per offering the teacher may take, how good the pairing is
+     * @return the teacher of each offering, or -1 for offerings no teacher could take
+     */
+    public synchronized int[] updateTeacher(int teacher, int courses, int minutes, Map<Integer, Double> offerings) {
+        for (int offering : offerings.keySet()) {
+            if (offering < 0 || offering >= offeringCount) {
+                throw new IllegalArgumentException("Unknown offering " + offering);
+            }
+        }
+        boolean wasSolved = solved;
+        maxCourses[teacher] = Math.max(0, courses);
+        maxMinutes[teacher] = Math.max(0, minutes);
+        preferences.set(teacher, new HashMap<>(offerings));
+        if (!wasSolved) {
+            return solve();
+        }
+
+        int node = teacherNode(teacher);
+        for (int e = head[node]; e != NONE; e = next[e]) {
+            // Reverse of an offering edge: capacity 1 when the offering is routed through the teacher
+            if (isOffering(to[e])) {
+                if (capacity[e] > 0) {
+                    release(to[e]);
+                }
+                capacity[e] = 0;
+                capacity[e ^ 1] = 0;
+            }
+        }
+        addOfferingEdges(teacher);
+
+        reoptimize();
+        return assignment();
+    }
+
+    /**
+     * Total cost of the current assignment, COST_SCALE per unit of preference missed.
+     */
+    public synchronized long getCost() {
+        long total = 0;
+        for (int o = 0; o < offeringCount; o++) {
+            for (int e = head[offeringNode(o)]; e != NONE; e = next[e]) {
+                if ((e & 1) == 0 && capacity[e ^ 1] > 0) {
+                    total += cost[e];
+                }
+            }
+        }
+        return total;
+    }
+
+    // Graph
+
+    private void build() {
+        source = 0;
+        sink = offeringCount + teacherCount + 1;
+        head = new int[sink + 1];
+        Arrays.fill(head, NONE);
+        edgeCount = 0;
+        sinkEdge = new int[teacherCount];
+
+        for (int o = 0; o < offeringCount; o++) {
+            addEdge(source, offeringNode(o), 1, 0);
+        }
+        for (int t = 0; t < teacherCount; t++) {
+            addOfferingEdges(t);
+            sinkEdge[t] = addEdge(teacherNode(t), sink, maxCourses[t], 0);
+        }
+    }
+
+    private void addOfferingEdges(int teacher) {
+        for (Map.Entry<Integer, Double> entry : new TreeMap<>(preferences.get(teacher)).entrySet()) {
+            int offering = entry.getKey();
+            if (offeringMinutes[offering] <= maxMinutes[teacher]) {
+                double preference = Math.max(0.0, Math.min(1.0, entry.getValue()));
+                addEdge(offeringNode(offering), teacherNode(teacher), 1, Math.round((1.0 - preference) * COST_SCALE));
+            }
+        }
+    }
+
+    private int addEdge(int from, int target, int cap, long edgeCost) {
+        ensureEdgeCapacity(edgeCount + 2);
+        int e = edgeCount;
+        link(e, from, target, cap, edgeCost);
+        link(e + 1, target, from, 0, -edgeCost);
+        edgeCount += 2;
+        return e;
+    }
+
+    private void link(int e, int from, int target, int cap, long edgeCost) {
+        to[e] = target;
+        capacity[e] = cap;
+        cost[e] = edgeCost;
+        next[e] = head[from];
+        head[from] = e;
+    }
+
+    private void ensureEdgeCapacity(int size) {
+        if (size > to.length) {
+            int grown = Math.max(size, to.length * 2 + 16);
+            next = Arrays.copyOf(next, grown);
+            to = Arrays.copyOf(to, grown);
+            capacity = Arrays.copyOf(capacity, grown);
+            cost = Arrays.copyOf(cost, grown);
+        }
+    }
+
+    private int offeringNode(int offering) { return 1 + offering; }
+    private int teacherNode(int teacher) { return 1 + offeringCount + teacher; }
+    private boolean isOffering(int node) { return node >= 1 && node <= offeringCount; }
+
+    // Flow
+
+    private void reoptimize() {
+        restoreCourseLimits();
+        cancelNegativeCycles();
+        routeOfferings();
+        while (enforceHours()) {
+            cancelNegativeCycles();
+            routeOfferings();
+        }
+    }
+
+    // Reopens the places hour enforcement closed: each teacher's sink edge takes their course
+    // limit less what they teach, as in a graph just built
+    private void restoreCourseLimits() {
+        for (int t = 0; t < teacherCount; t++) {
+            capacity[sinkEdge[t]] = maxCourses[t] - capacity[sinkEdge[t] ^ 1];
+        }
+    }
+
+    // Successive shortest paths, one offering per path, Dijkstra on reduced costs
+    private void routeOfferings() {
+        potential = shortestDistances();
+        int nodes = sink + 1;
+        long[] distance = new long[nodes];
+        int[] via = new int[nodes];
+
+        while (true) {
+            Arrays.fill(distance, INFINITE);
+            Arrays.fill(via, NONE);
+            distance[source] = 0;
+            PriorityQueue<long[]> queue = new PriorityQueue<>(Comparator.comparingLong(entry -> entry[0]));
+            queue.add(new long[] {0, source});
+            while (!queue.isEmpty()) {
+                long[] entry = queue.poll();
+                int u = (int) entry[1];
+                if (entry[0] > distance[u]) continue;
+                if (u == sink) break;
+                for (int e = head[u]; e != NONE; e = next[e]) {
+                    if (capacity[e] <= 0) continue;
+                    int v = to[e];
+                    long candidate = distance[u] + cost[e] + potential[u] - potential[v];
+                    if (candidate < distance[v]) {
+                        distance[v] = candidate;
+                        via[v] = e;
+                        queue.add(new long[] {candidate, v});
+                    }
+                }
+            }
+            if (distance[sink] >= INFINITE) {
+                return;
+            }
+
+            // Capping at the sink distance keeps every reduced cost non-negative
+            for (int v = 0; v < nodes; v++) {
+                potential[v] += Math.min(distance[v], distance[sink]);
+            }
+            for (int v = sink; v != source; v = to[via[v] ^ 1]) {
+                capacity[via[v]]--;
+                capacity[via[v] ^ 1]++;
+            }
+        }
+    }
+
+    // Bellman-Ford from the source over the residual graph; unreachable nodes stay at 0
+    private long[] shortestDistances() {
+        int nodes = sink + 1;
+        long[] distance = new long[nodes];
+        Arrays.fill(distance, INFINITE);
+        distance[source] = 0;
+        for (int round = 0; round < nodes; round++) {
+            boolean changed = false;
+            for (int u = 0; u < nodes; u++) {
+                if (distance[u] >= INFINITE) continue;
+                for (int e = head[u]; e != NONE; e = next[e]) {
+                    if (capacity[e] > 0 && distance[u] + cost[e] < distance[to[e]]) {
+                        distance[to[e]] = distance[u] + cost[e];
+                        changed = true;
+                    }
+                }
+            }
+            if (!changed) break;
+        }
+        for (int v = 0; v < nodes; v++) {
+            if (distance[v] >= INFINITE) distance[v] = 0;
+        }
+        return distance;
+    }
+
+    // A flow is cheapest for its size exactly when its residual graph has no negative cycle
+    private void cancelNegativeCycles() {
+        int nodes = sink + 1;
+        long[] distance = new long[nodes];
+        int[] via = new int[nodes];
+        while (true) {
+            Arrays.fill(distance, 0);
+            Arrays.fill(via, NONE);
+            int relaxed = NONE;
+            for (int round = 0; round < nodes; round++) {
+                relaxed = NONE;
+                for (int u = 0; u < nodes; u++) {
+                    for (int e = head[u]; e != NONE; e = next[e]) {
+                        if (capacity[e] > 0 && distance[u] + cost[e] < distance[to[e]]) {
+                            distance[to[e]] = distance[u] + cost[e];
+                            via[to[e]] = e;
+                            relaxed = to[e];
+                        }
+                    }
+                }
+                if (relaxed == NONE) return;
+            }
+
+            // Still relaxing after |V| rounds: walking back |V| edges lands on the cycle
+            int onCycle = relaxed;
+            for (int i = 0; i < nodes; i++) {
+                onCycle = to[via[onCycle] ^ 1];
+            }
+            int bottleneck = Integer.MAX_VALUE;
+            int v = onCycle;
+            do {
+                bottleneck = Math.min(bottleneck, capacity[via[v]]);
+                v = to[via[v] ^ 1];
+            } while (v != onCycle);
+            v = onCycle;
+            do {
+                capacity[via[v]] -= bottleneck;
+                capacity[via[v] ^ 1] += bottleneck;
+                v = to[via[v] ^ 1];
+            } while (v != onCycle);
+        }
+    }
+
+    // Unroutes the offering: source -> offering -> teacher -> sink loses one unit
+    private void release(int offeringNode) {
+        for (int e = head[offeringNode]; e != NONE; e = next[e]) {
+            int target = to[e];
+            if (target == source && capacity[e] > 0) {
+                capacity[e]--;        // offering -> source (reverse)
+                capacity[e ^ 1]++;
+            } else if (target != source && (e & 1) == 0 && capacity[e ^ 1] > 0) {
+                capacity[e]++;        // offering -> teacher
+                capacity[e ^ 1]--;
+                int teacher = target - 1 - offeringCount;
+                capacity[sinkEdge[teacher]]++;
+                capacity[sinkEdge[teacher] ^ 1]--;
+            }
+        }
+    }
+
+    // Teachers over their hours give up their longest offering; true when anything changed
+    private boolean enforceHours() {
+        int[] teacherOf = assignment();
+        long[] minutes = new long[teacherCount];
+        int[] courses = new int[teacherCount];
+        int[] longest = new int[teacherCount];
+        Arrays.fill(longest, NONE);
+        for (int o = 0; o < offeringCount; o++) {
+            int t = teacherOf[o];
+            if (t == NONE) continue;
+            minutes[t] += offeringMinutes[o];
+            courses[t]++;
+            if (longest[t] == NONE || offeringMinutes[o] > offeringMinutes[longest[t]]) {
+                longest[t] = o;
+            }
+        }
+
+        boolean changed = false;
+        for (int t = 0; t < teacherCount; t++) {
+            if (minutes[t] > maxMinutes[t]) {
+                release(offeringNode(longest[t]));
+                // The teacher keeps courses - 1 offerings; the freed place is closed
+                capacity[sinkEdge[t]] = 0;
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    private int[] assignment() {
+        int[] teacherOf = new int[offeringCount];
+        Arrays.fill(teacherOf, NONE);
+        for (int o = 0; o < offeringCount; o++) {
+            for (int e = head[offeringNode(o)]; e != NONE; e = next[e]) {
+                if ((e & 1) == 0 && capacity[e ^ 1] > 0) {
+                    teacherOf[o] = to[e] - 1 - offeringCount;
+                }
+            }
+        }
+        return teacherOf;
+    }
+
+    public int getOfferingCount() { return offeringCount; }
+    public int getTeacherCount() { return teacherCount; }
+}
@@ -0,0 +1,75 @@
+package com.school.scheduling.algorithm.pipeline;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Checkpoint location of one solve and how often to write it. Stages are asked for their state
+ * at most once per interval; stage boundaries are always written. Checkpointing never fails a
+ * solve: a write error is kept for inspection and the search carries on.
+ */
+public class CheckpointFile {
+
+    private final Path path;
+    private final long intervalMs;
+    private final AtomicLong nextDueMillis;
+    private volatile String lastError;
+
+    public CheckpointFile(Path path, long intervalMs) {
+        this.path = path;
+        this.intervalMs = Math.max(1, intervalMs);
+        this.nextDueMillis = new AtomicLong(System.currentTimeMillis() + this.intervalMs);
+    }
+
+    /**
+     * True for exactly one caller once the interval has passed since the last write.
+     */
+    boolean isDue() {
+        long due = nextDueMillis.get();
+        long now = System.currentTimeMillis();
+        return now >= due && nextDueMillis.compareAndSet(due, now + intervalMs);
+    }
+
+    void save(SolveCheckpoint checkpoint) {
+        try {
+            checkpoint.write(path);
+            nextDueMillis.set(System.currentTimeMillis() + intervalMs);
+            lastError = null;
+        } catch (IOException e) {
+            lastError = e.getMessage();
+        }
+    }
+
+    /**
+     * The saved checkpoint, or empty when there is none or it cannot be read.
+     */
+    public Optional<SolveCheckpoint> load() {
+        if (!Files.exists(path)) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(SolveCheckpoint.read(path));
+        } catch (IOException e) {
+            lastError = e.getMessage();
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Removes the checkpoint once its solve has finished for good.
+     */
+    public void delete() {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            lastError = e.getMessage();
+        }
+    }
+
+    public Path getPath() { return path; }
+    public long getIntervalMs() { return intervalMs; }
+    public String getLastError() { return lastError; }
+}
@@ -0,0 +1,148 @@
+package com.school.scheduling.algorithm.pipeline;
+
+import com.school.scheduling.algorithm.codec.SchedulingCodec;
+import com.school.scheduling.algorithm.strategy.GenomeEncoding;
+import com.school.scheduling.algorithm.strategy.SearchState;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Where a pipeline run stands: the stage it is in and how long that stage has run, the
+ * incumbent handed to the stage and the stage's own search state. Written as a small binary
+ * file (magic, version, fields, CRC32) so a solve can resume after the process restarts.
+ * Two fingerprints tie a checkpoint to the problem and the pipeline it was taken on; a checkpoint
+ * whose fingerprints no longer match is ignored rather than resumed into a different problem.
+ */
+public final class SolveCheckpoint {
+
+    static final int MAGIC = 0x53434350; // "SCCP"
+    static final int VERSION = 2;
+
+    private final long problemFingerprint;
+    private final long pipelineFingerprint;
+    private final int stageIndex;
+    private final long stageElapsedMs;
+    private final int[] incumbent;
+    private final SearchState stageState;
+
+    SolveCheckpoint(long problemFingerprint, long pipelineFingerprint, int stageIndex, long stageElapsedMs,
+                    int[] incumbent, SearchState stageState) {
+        this.problemFingerprint = problemFingerprint;
+        this.pipelineFingerprint = pipelineFingerprint;
+        this.stageIndex = stageIndex;
+        this.stageElapsedMs = stageElapsedMs;
+        this.incumbent = incumbent;
+        this.stageState = stageState;
+    }
+
+    static long fingerprint(GenomeEncoding encoding) {
+        return SchedulingCodec.fingerprint(encoding);
+    }
+
+    static long fingerprint(List<SolvePipeline.Stage> stages) {
+        long hash = 1125899906842597L;
+        for (SolvePipeline.Stage stage : stages) {
+            hash = 31 * hash + stage.getType().name().hashCode();
+            hash = 31 * hash + Long.hashCode(stage.getTimeBudgetMs());
+        }
+        return hash;
+    }
+
+    boolean matches(long problemFingerprint, long pipelineFingerprint) {
+        return this.problemFingerprint == problemFingerprint && this.pipelineFingerprint == pipelineFingerprint;
+    }
+
+    /**
+     * Writes to a temporary file next to the target and moves it into place, so a crash while
+     * writing leaves the previous checkpoint intact.
+     */
+    void write(Path path) throws IOException {
+        Path directory = path.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temporary = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+        try {
+            CRC32 crc = new CRC32();
+            try (FileOutputStream file = new FileOutputStream(temporary.toFile());
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new CheckedOutputStream(file, crc)))) {
+                out.writeInt(MAGIC);
+                out.writeByte(VERSION);
+                out.writeLong(problemFingerprint);
+                out.writeLong(pipelineFingerprint);
+                out.writeInt(stageIndex);
+                out.writeLong(stageElapsedMs);
+                writeGenome(out, incumbent);
+                out.writeBoolean(stageState != null);
+                if (stageState != null) {
+                    stageState.writeTo(out);
+                }
+                out.flush();
+                new DataOutputStream(file).writeLong(crc.getValue());
+                file.getFD().sync();
+            }
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    static SolveCheckpoint read(Path path) throws IOException {
+        CRC32 crc = new CRC32();
+        // The checksum sits below the data stream so it covers exactly the bytes read so far
+        try (DataInputStream in = new DataInputStream(new CheckedInputStream(
+                 new BufferedInputStream(Files.newInputStream(path)), crc))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException(path + " is not a solve checkpoint");
+            }
+            int version = in.readUnsignedByte();
+            if (version != VERSION) {
+                throw new IOException("Unsupported checkpoint version " + version + ", expected " + VERSION);
+            }
+            long problemFingerprint = in.readLong();
+            long pipelineFingerprint = in.readLong();
+            int stageIndex = in.readInt();
+            long stageElapsedMs = in.readLong();
+            int[] incumbent = readGenome(in);
+            SearchState stageState = in.readBoolean() ? SearchState.readFrom(in) : null;
+
+            long expected = crc.getValue();
+            if (in.readLong() != expected) {
+                throw new IOException(path + " is damaged (checksum mismatch)");
+            }
+            return new SolveCheckpoint(problemFingerprint, pipelineFingerprint, stageIndex, stageElapsedMs,
+                                       incumbent, stageState);
+        }
+    }
+
+    private static void writeGenome(DataOutputStream out, int[] genome) throws IOException {
+        byte[] encoded = SchedulingCodec.encodeGenome(genome);
+        out.writeInt(encoded.length);
+        out.write(encoded);
+    }
+
+    private static int[] readGenome(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0 || length > (1 << 28)) {
+            throw new IOException("Invalid genome length " + length);
+        }
+        byte[] encoded = new byte[length];
+        in.readFully(encoded);
+        try {
+            return SchedulingCodec.decodeGenome(ByteBuffer.wrap(encoded));
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Malformed incumbent: " + e.getMessage(), e);
+        }
+    }
+
+    public int getStageIndex() { return stageIndex; }
+    public long getStageElapsedMs() { return stageElapsedMs; }
+    public int[] getIncumbent() { return incumbent; }
+    public SearchState getStageState() { return stageState; }
+}
@@ -0,0 +1,365 @@
+package com.school.scheduling.algorithm.pipeline;
+
+import com.school.scheduling.algorithm.ConstraintSatisfactionProblem;
+import com.school.scheduling.algorithm.remote.RemoteSolverPool;
+import com.school.scheduling.algorithm.strategy.GenomeEncoding;
+import com.school.scheduling.algorithm.strategy.IncrementalFitnessEvaluator;
+import com.school.scheduling.algorithm.strategy.ScoreDirector;
+import com.school.scheduling.algorithm.strategy.SearchListener;
+import com.school.scheduling.algorithm.strategy.SearchState;
+import com.school.scheduling.domain.constraint.*;
+
+import java.util.*;
+
+/**
+ * A solve expressed as a sequence of stages, e.g. DSatur construction, tabu search, LNS and
+ * a soft-constraint polish. Each stage gets its own time budget and starts from the best
+ * schedule found so far; a stage result only replaces the incumbent when its {@link ScoreDirector}
+ * score is no worse.
+ * Every stage is measured before and after so budgets can be tuned by gain per second.
+ * An interrupted thread stops the pipeline between stages. With a {@link CheckpointFile} the
+ * run can be resumed in a later process from where it stood.
+ */
+public class SolvePipeline {
+
+    private final List<Stage> stages;
+    private final RemoteSolverPool remotePool;
+
+    public SolvePipeline(List<Stage> stages) {
+        this(stages, null);
+    }
+
+    /**
+     * @param remotePool solver workers for the remote stages; null runs them in process
+     */
+    public SolvePipeline(List<Stage> stages, RemoteSolverPool remotePool) {
+        if (stages == null || stages.isEmpty()) {
+            throw new IllegalArgumentException("A solve pipeline needs at least one stage");
+        }
+        this.stages = List.copyOf(stages);
+        this.remotePool = remotePool;
+    }
+
+    /**
+     * Single-stage pipeline without a meaningful budget, for strategies that are not staged.
+     */
+    public static SolvePipeline of(StageType type) {
+        return new SolvePipeline(List.of(new Stage(type, Long.MAX_VALUE)));
+    }
+
+    /**
+     * Runs every stage in order and returns the best schedule with the per-stage reports.
+     */
+    public PipelineResult run(ConstraintSatisfactionProblem csp) {
+        return run(csp, new SolveProgress());
+    }
+
+    /**
+     * As {@link #run(ConstraintSatisfactionProblem)}, publishing the current stage, explored nodes
+     * and best quality to the given progress as the solve goes.
+     */
+    public PipelineResult run(ConstraintSatisfactionProblem csp, SolveProgress progress) {
+        return run(csp, progress, null);
+    }
+
+    /**
+     * As {@link #run(ConstraintSatisfactionProblem, SolveProgress)}, checkpointing to the given file
+     * after every stage and periodically inside long stages. When the file holds a checkpoint taken
+     * on the same problem and pipeline, the run resumes from it: finished stages are skipped and the
+     * interrupted stage continues from its saved state with what is left of its budget.
+     *
+     * @param checkpoints where to checkpoint; null runs without checkpoints
+     */
+    public PipelineResult run(ConstraintSatisfactionProblem csp, SolveProgress progress, CheckpointFile checkpoints) {
+        progress.pipelineStarted(stages);
+        long pipelineStart = System.currentTimeMillis();
+        GenomeEncoding encoding = new GenomeEncoding(csp);
+        ScoreDirector director = new ScoreDirector(encoding, csp);
+        SchedulingAssignment incumbent = null;
+        Quality incumbentQuality = Quality.none(director);
+        List<StageReport> reports = new ArrayList<>();
+
+        long problemFingerprint = checkpoints != null ? SolveCheckpoint.fingerprint(encoding) : 0;
+        long pipelineFingerprint = SolveCheckpoint.fingerprint(stages);
+        SolveCheckpoint resume = checkpoints == null ? null : checkpoints.load()
+            .filter(checkpoint -> checkpoint.matches(problemFingerprint, pipelineFingerprint))
+            .orElse(null);
+
+        int firstStage = 0;
+        if (resume != null) {
+            firstStage = Math.min(resume.getStageIndex(), stages.size());
+            if (resume.getIncumbent() != null) {
+                incumbent = encoding.decode(resume.getIncumbent());
+                incumbentQuality = Quality.of(director, incumbent);
+                progress.offer(incumbentQuality);
+            }
+        }
+
+        for (int index = firstStage; index < stages.size(); index++) {
+            Stage stage = stages.get(index);
+            if (Thread.currentThread().isInterrupted()) {
+                break; // Cancelled; keep what the earlier stages found
+            }
+            boolean resumingStage = resume != null && index == resume.getStageIndex();
+            long spentBefore = resumingStage ? resume.getStageElapsedMs() : 0;
+            SearchState state = resumingStage ? resume.getStageState() : null;
+
+            long stageStart = System.currentTimeMillis();
+            long deadline = stage.getTimeBudgetMs() >= Long.MAX_VALUE - stageStart
+                ? Long.MAX_VALUE : stageStart + Math.max(0, stage.getTimeBudgetMs() - spentBefore);
+            progress.stageStarted(index, deadline);
+
+            SchedulingAssignment input = stage.getType().isImproving() && incumbent != null ? incumbent.copy() : null;
+            if (stage.getType().isImproving() && state != null && state.getBest() != null) {
+                input = encoding.decode(state.getBest()); // Stages without own state pick up from their saved best
+            }
+            SearchListener listener = checkpoints == null ? progress
+                : new CheckpointingListener(progress, checkpoints, problemFingerprint, pipelineFingerprint, index,
+                                            stageStart - spentBefore, incumbent != null ? encoding.encode(incumbent) : null);
+            Optional<SchedulingAssignment> output = runStage(stage.getType(), csp, input, deadline, listener, state);
+            long elapsed = System.currentTimeMillis() - stageStart;
+
+            Quality before = incumbentQuality;
+            boolean accepted = false;
+            if (output.isPresent()) {
+                Quality quality = Quality.of(director, output.get());
+                if (incumbent == null || quality.compareTo(incumbentQuality) <= 0) {
+                    incumbent = output.get();
+                    incumbentQuality = quality;
+                    accepted = true;
+                    progress.offer(quality);
+                }
+            }
+
+            reports.add(new StageReport(stage, elapsed, before, incumbentQuality, accepted));
+
+            // An interrupted stage may have stopped early, so it is only recorded as done when it was not
+            if (checkpoints != null && !Thread.currentThread().isInterrupted()) {
+                checkpoints.save(new SolveCheckpoint(problemFingerprint, pipelineFingerprint, index + 1, 0,
+                                                     incumbent != null ? encoding.encode(incumbent) : null, null));
+            }
+        }
+
+        return new PipelineResult(Optional.ofNullable(incumbent), incumbentQuality, reports,
+                                  System.currentTimeMillis() - pipelineStart);
+    }
+
+    /**
+     * Runs a stage on the solver workers when it is a remote stage and workers are configured,
+     * falling back to the in-process stage when none of them produced a result.
+     */
+    private Optional<SchedulingAssignment> runStage(StageType type, ConstraintSatisfactionProblem csp,
+                                                    SchedulingAssignment input, long deadline, SearchListener listener,
+                                                    SearchState state) {
+        if (type.getRemoteMode() != null && remotePool != null && remotePool.isEnabled()) {
+            Optional<SchedulingAssignment> remote = remotePool.solve(csp, input, type.getRemoteMode(), deadline, listener);
+            if (remote.isPresent() || Thread.currentThread().isInterrupted()) {
+                return remote;
+            }
+        }
+        return type.run(csp, input, deadline, listener, state);
+    }
+
+    public List<Stage> getStages() {
+        return stages;
+    }
+
+    // Helper classes
+    /**
+     * Forwards progress and turns a stage's state into a pipeline checkpoint when one is due.
+     */
+    private static class CheckpointingListener implements SearchListener {
+        private final SearchListener progress;
+        private final CheckpointFile checkpoints;
+        private final long problemFingerprint;
+        private final long pipelineFingerprint;
+        private final int stageIndex;
+        private final long stageStartedAt;
+        private final int[] incumbent;
+
+        CheckpointingListener(SearchListener progress, CheckpointFile checkpoints, long problemFingerprint,
+                              long pipelineFingerprint, int stageIndex, long stageStartedAt, int[] incumbent) {
+            this.progress = progress;
+            this.checkpoints = checkpoints;
+            this.problemFingerprint = problemFingerprint;
+            this.pipelineFingerprint = pipelineFingerprint;
+            this.stageIndex = stageIndex;
+            this.stageStartedAt = stageStartedAt;
+            this.incumbent = incumbent;
+        }
+
+        @Override
+        public void nodesExplored(long count) {
+            progress.nodesExplored(count);
+        }
+
+        @Override
+        public void improved(IncrementalFitnessEvaluator.Tally best) {
+            progress.improved(best);
+        }
+
+        @Override
+        public boolean checkpointDue() {
+            return checkpoints.isDue();
+        }
+
+        @Override
+        public void checkpoint(SearchState state) {
+            checkpoints.save(new SolveCheckpoint(problemFingerprint, pipelineFingerprint, stageIndex,
+                                                 System.currentTimeMillis() - stageStartedAt, incumbent, state));
+        }
+    }
+
+    /**
+     * One configured step: what to run and for how long.
+     */
+    public static class Stage {
+        private final StageType type;
+        private final long timeBudgetMs;
+
+        public Stage(StageType type, long timeBudgetMs) {
+            this.type = Objects.requireNonNull(type, "stage type");
+            this.timeBudgetMs = timeBudgetMs > 0 ? timeBudgetMs : Long.MAX_VALUE;
+        }
+
+        public StageType getType() { return type; }
+        public long getTimeBudgetMs() { return timeBudgetMs; }
+    }
+
+    /**
+     * {@link ScoreDirector} score of a schedule with its violation counts and folded fitness.
+     * Qualities order by score; unassigned offerings count as hard penalty and keep a schedule
+     * infeasible.
+     */
+    public static class Quality implements Comparable<Quality> {
+        private final int hardViolations;
+        private final int softViolations;
+        private final int unassigned;
+        private final ScoreDirector.Score score;
+        private final double fitness;
+
+        public Quality(int hardViolations, int softViolations, int unassigned, ScoreDirector.Score score, double fitness) {
+            this.hardViolations = hardViolations;
+            this.softViolations = softViolations;
+            this.unassigned = unassigned;
+            this.score = Objects.requireNonNull(score, "score");
+            this.fitness = fitness;
+        }
+
+        /**
+         * Quality of a schedule with nothing assigned.
+         */
+        static Quality none(ScoreDirector director) {
+            return of(director.evaluate(director.getEncoding().newGenome()));
+        }
+
+        public static Quality of(IncrementalFitnessEvaluator.Tally tally) {
+            return new Quality(tally.getHardViolationCount(), tally.getSoftViolationCount(),
+                               tally.getVariableCount() - tally.getAssignedCount(), tally.getScore(), tally.getFitness());
+        }
+
+        /**
+         * Scores an assignment from scratch; values outside their variable's domain count as unassigned.
+         */
+        public static Quality of(ScoreDirector director, SchedulingAssignment assignment) {
+            return of(director.evaluate(director.getEncoding().encode(assignment)));
+        }
+
+        public static Quality of(ConstraintSatisfactionProblem csp, SchedulingAssignment assignment) {
+            return of(new ScoreDirector(new GenomeEncoding(csp), csp), assignment);
+        }
+
+        public boolean isFeasible() {
+            return hardViolations == 0 && unassigned == 0;
+        }
+
+        @Override
+        public int compareTo(Quality other) {
+            return score.compareTo(other.score);
+        }
+
+        public int getHardViolations() { return hardViolations; }
+        public int getSoftViolations() { return softViolations; }
+        public int getUnassigned() { return unassigned; }
+        public ScoreDirector.Score getScore() { return score; }
+        public double getFitness() { return fitness; }
+
+        @Override
+        public String toString() {
+            return String.format("%s (hard=%d soft=%d unassigned=%d)", score, hardViolations, softViolations, unassigned);
+        }
+    }
+
+    /**
+     * Quality gained by one stage against the time it spent.
+     */
+    public static class StageReport {
+        private final Stage stage;
+        private final long elapsedMs;
+        private final Quality before;
+        private final Quality after;
+        private final boolean accepted;
+
+        StageReport(Stage stage, long elapsedMs, Quality before, Quality after, boolean accepted) {
+            this.stage = stage;
+            this.elapsedMs = elapsedMs;
+            this.before = before;
+            this.after = after;
+            this.accepted = accepted;
+        }
+
+        /**
+         * Fitness gained by the stage on the director's 0 to 1 scale; zero when its result was not kept.
+         */
+        public double getGain() {
+            return after.getFitness() - before.getFitness();
+        }
+
+        public double getGainPerSecond() {
+            return elapsedMs > 0 ? getGain() * 1000.0 / elapsedMs : getGain();
+        }
+
+        public Stage getStage() { return stage; }
+        public long getElapsedMs() { return elapsedMs; }
+        public Quality getBefore() { return before; }
+        public Quality getAfter() { return after; }
+        public boolean isAccepted() { return accepted; }
+
+        @Override
+        public String toString() {
+            String budget = stage.getTimeBudgetMs() == Long.MAX_VALUE ? "-" : stage.getTimeBudgetMs() + "ms";
+            return String.format("%s: %dms of %s, %s -> %s, gain %.4f (%.4f/s)%s",
+                stage.getType(), elapsedMs, budget, before, after, getGain(), getGainPerSecond(),
+                accepted ? "" : ", discarded");
+        }
+    }
+
+    public static class PipelineResult {
+        private final Optional<SchedulingAssignment> assignment;
+        private final Quality quality;
+        private final List<StageReport> stageReports;
+        private final long executionTimeMs;
+
+        PipelineResult(Optional<SchedulingAssignment> assignment, Quality quality,
+                       List<StageReport> stageReports, long executionTimeMs) {
+            this.assignment = assignment;
+            this.quality = quality;
+            this.stageReports = stageReports;
+            this.executionTimeMs = executionTimeMs;
+        }
+
+        public String getSummary() {
+            StringBuilder summary = new StringBuilder();
+            summary.append(String.format("Pipeline: %dms, %s", executionTimeMs, quality));
+            for (StageReport report : stageReports) {
+                summary.append("; ").append(report);
+            }
+            return summary.toString();
+        }
+
+        public Optional<SchedulingAssignment> getAssignment() { return assignment; }
+        public Quality getQuality() { return quality; }
+        public List<StageReport> getStageReports() { return stageReports; }
+        public long getExecutionTimeMs() { return executionTimeMs; }
+    }
+}
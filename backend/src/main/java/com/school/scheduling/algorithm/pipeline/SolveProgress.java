@@ -0,0 +1,124 @@
+package com.school.scheduling.algorithm.pipeline;
+
+import com.school.scheduling.algorithm.strategy.IncrementalFitnessEvaluator;
+import com.school.scheduling.algorithm.strategy.SearchListener;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Live view of a running {@link SolvePipeline}. Solver threads only bump counters and swap an
+ * immutable best-quality reference, so observers can sample it at any rate without slowing the
+ * search. The best quality is the pipeline incumbent, lowered by in-stage improvements as the
+ * strategies report them.
+ */
+public class SolveProgress implements SearchListener {
+
+    private final LongAdder nodes = new LongAdder();
+    private final AtomicReference<SolvePipeline.Quality> best = new AtomicReference<>();
+    private final long startedAt = System.currentTimeMillis();
+
+    private volatile List<SolvePipeline.Stage> stages = List.of();
+    private volatile int stageIndex = -1;
+    private volatile long stageDeadline = Long.MAX_VALUE;
+
+    @Override
+    public void nodesExplored(long count) {
+        nodes.add(count);
+    }
+
+    @Override
+    public void improved(IncrementalFitnessEvaluator.Tally best) {
+        offer(SolvePipeline.Quality.of(best));
+    }
+
+    void pipelineStarted(List<SolvePipeline.Stage> stages) {
+        this.stages = stages;
+    }
+
+    void stageStarted(int index, long deadlineMillis) {
+        this.stageDeadline = deadlineMillis;
+        this.stageIndex = index;
+    }
+
+    void offer(SolvePipeline.Quality quality) {
+        best.accumulateAndGet(quality, (current, candidate) ->
+            current == null || candidate.compareTo(current) < 0 ? candidate : current);
+    }
+
+    /**
+     * Consistent-enough copy of the current state for reporting.
+     */
+    public Snapshot snapshot() {
+        long now = System.currentTimeMillis();
+        List<SolvePipeline.Stage> stages = this.stages;
+        int index = this.stageIndex;
+        String stage = index >= 0 && index < stages.size() ? stages.get(index).getType().name() : null;
+        return new Snapshot(stage, index + 1, stages.size(), best.get(), nodes.sum(), now - startedAt,
+                            estimateRemainingMs(stages, index, now));
+    }
+
+    /**
+     * Time left in the current stage plus the budgets of the stages after it, or -1 when some
+     * remaining stage has no budget.
+     */
+    private long estimateRemainingMs(List<SolvePipeline.Stage> stages, int index, long now) {
+        if (index < 0 || stages.isEmpty()) {
+            return -1;
+        }
+        long deadline = stageDeadline;
+        if (deadline == Long.MAX_VALUE) {
+            return -1;
+        }
+
+        long remaining = Math.max(0, deadline - now);
+        for (int i = index + 1; i < stages.size(); i++) {
+            long budget = stages.get(i).getTimeBudgetMs();
+            if (budget == Long.MAX_VALUE) {
+                return -1;
+            }
+            remaining += budget;
+        }
+        return remaining;
+    }
+
+    // Helper classes
+    public static class Snapshot {
+        private final String stage;
+        private final int stageNumber;
+        private final int stageCount;
+        private final SolvePipeline.Quality best;
+        private final long nodes;
+        private final long elapsedMs;
+        private final long etaMs;
+
+        Snapshot(String stage, int stageNumber, int stageCount, SolvePipeline.Quality best,
+                 long nodes, long elapsedMs, long etaMs) {
+            this.stage = stage;
+            this.stageNumber = stageNumber;
+            this.stageCount = stageCount;
+            this.best = best;
+            this.nodes = nodes;
+            this.elapsedMs = elapsedMs;
+            this.etaMs = etaMs;
+        }
+
+        /**
+         * Score of the best schedule so far, e.g. "0hard/3medium/1.5soft", or null before the first one.
+         */
+        public String getBestScore() {
+            return best != null ? best.getScore().toString() : null;
+        }
+
+        public int getHardViolations() { return best != null ? best.getHardViolations() : -1; }
+        public int getUnassigned() { return best != null ? best.getUnassigned() : -1; }
+        public int getSoftViolations() { return best != null ? best.getSoftViolations() : -1; }
+        public String getStage() { return stage; }
+        public int getStageNumber() { return stageNumber; }
+        public int getStageCount() { return stageCount; }
+        public long getNodes() { return nodes; }
+        public long getElapsedMs() { return elapsedMs; }
+        public long getEtaMs() { return etaMs; }
+    }
+}
@@ -0,0 +1,184 @@
+package com.school.scheduling.algorithm.pipeline;
+
+import com.school.scheduling.algorithm.ConstraintSatisfactionProblem;
+import com.school.scheduling.algorithm.remote.RemoteSolverPool;
+import com.school.scheduling.algorithm.strategy.GeneticAlgorithmStrategy;
+import com.school.scheduling.algorithm.strategy.GreedyStrategy;
+import com.school.scheduling.algorithm.strategy.LargeNeighborhoodSearchStrategy;
+import com.school.scheduling.algorithm.strategy.LocalSearchStrategy;
+import com.school.scheduling.algorithm.strategy.SearchListener;
+import com.school.scheduling.algorithm.strategy.SearchState;
+import com.school.scheduling.algorithm.strategy.TeacherAssignmentStrategy;
+import com.school.scheduling.domain.constraint.SchedulingAssignment;
+
+import java.util.Optional;
+
+/**
+ * Solver steps that can be chained in a {@link SolvePipeline}. Constructive stages ignore the
+ * incoming incumbent and build a schedule from scratch; improvement stages start from it
+ * (or from their own greedy start when there is none) and stop at the stage deadline.
+ * The backtracking stages run to completion and treat their budget as advisory.
+ * Improvement stages report explored nodes and new best schedules to the listener, and the
+ * long-running ones hand it their state for checkpoints.
+ * Remote stages run on solver worker processes when a {@link RemoteSolverPool} is configured.
+ */
+public enum StageType {
+    /** Saturation-degree greedy construction. */
+    DSATUR(false) {
+        @Override
+        public Optional<SchedulingAssignment> run(ConstraintSatisfactionProblem csp, SchedulingAssignment incumbent,
+                                                  long deadlineMillis, SearchListener listener, SearchState resume) {
+            return new GreedyStrategy(GreedyStrategy.HeuristicType.DSATUR, false, 10).solve(csp);
+        }
+    },
+    /** Backtracking with forward checking. */
+    BACKTRACKING(false) {
+        @Override
+        public Optional<SchedulingAssignment> run(ConstraintSatisfactionProblem csp, SchedulingAssignment incumbent,
+                                                  long deadlineMillis, SearchListener listener, SearchState resume) {
+            return csp.solveWithStrategy(ConstraintSatisfactionProblem.SolvingStrategy.BACKTRACKING_FORWARD_CHECKING);
+        }
+    },
+    /** Backtracking with arc consistency. */
+    BACKTRACKING_AC3(false) {
+        @Override
+        public Optional<SchedulingAssignment> run(ConstraintSatisfactionProblem csp, SchedulingAssignment incumbent,
+                                                  long deadlineMillis, SearchListener listener, SearchState resume) {
+            return csp.solveWithStrategy(ConstraintSatisfactionProblem.SolvingStrategy.BACKTRACKING_AC3);
+        }
+    },
+    /** Min-conflicts repair on the CSP. */
+    MIN_CONFLICTS(false) {
+        @Override
+        public Optional<SchedulingAssignment> run(ConstraintSatisfactionProblem csp, SchedulingAssignment incumbent,
+                                                  long deadlineMillis, SearchListener listener, SearchState resume) {
+            return csp.solveWithStrategy(ConstraintSatisfactionProblem.SolvingStrategy.MIN_CONFLICTS);
+        }
+    },
+    /** Island-model genetic algorithm from a random population, stopping at the deadline. */
+    GENETIC(false) {
+        @Override
+        public Optional<SchedulingAssignment> run(ConstraintSatisfactionProblem csp, SchedulingAssignment incumbent,
+                                                  long deadlineMillis, SearchListener listener, SearchState resume) {
+            return new GeneticAlgorithmStrategy().solve(csp, deadlineMillis, listener, resume);
+        }
+    },
+    /** Simulated annealing with compound moves. */
+    SIMULATED_ANNEALING(true) {
+        @Override
+        public Optional<SchedulingAssignment> run(ConstraintSatisfactionProblem csp, SchedulingAssignment incumbent,
+                                                  long deadlineMillis, SearchListener listener, SearchState resume) {
+            return new LocalSearchStrategy().solve(csp, incumbent, deadlineMillis, listener, resume);
+        }
+    },
+    /**
+     * Replica-exchange annealing: chains at a ladder of temperatures run concurrently on the
+     * shared solver pool and swap states between sweeps.
+     */
+    PARALLEL_TEMPERING(true) {
+        @Override
+        public Optional<SchedulingAssignment> run(ConstraintSatisfactionProblem csp, SchedulingAssignment incumbent,
+                                                  long deadlineMillis, SearchListener listener, SearchState resume) {
+            return new LocalSearchStrategy().solveWithParallelTempering(csp, incumbent, deadlineMillis, listener, resume);
+        }
+    },
+    /** Move-based tabu search. */
+    TABU(true) {
+        @Override
+        public Optional<SchedulingAssignment> run(ConstraintSatisfactionProblem csp, SchedulingAssignment incumbent,
+                                                  long deadlineMillis, SearchListener listener, SearchState resume) {
+            return new LocalSearchStrategy().solveWithTabuSearch(csp, incumbent, deadlineMillis, listener, resume);
+        }
+    },
+    /** Adaptive large neighborhood search. */
+    LNS(true) {
+        @Override
+        public Optional<SchedulingAssignment> run(ConstraintSatisfactionProblem csp, SchedulingAssignment incumbent,
+                                                  long deadlineMillis, SearchListener listener, SearchState resume) {
+            return new LargeNeighborhoodSearchStrategy().solve(csp, incumbent, deadlineMillis, listener, resume);
+        }
+    },
+    /**
+     * Solver workers each run a different improvement stage from the incumbent and the best
+     * result wins. Runs tabu search locally when no worker is available.
+     */
+    REMOTE_PORTFOLIO(true, RemoteSolverPool.Mode.PORTFOLIO) {
+        @Override
+        public Optional<SchedulingAssignment> run(ConstraintSatisfactionProblem csp, SchedulingAssignment incumbent,
+                                                  long deadlineMillis, SearchListener listener, SearchState resume) {
+            return TABU.run(csp, incumbent, deadlineMillis, listener, resume);
+        }
+    },
+    /**
+     * LNS epochs spread over the solver workers, each epoch starting from the best schedule of the
+     * previous one. Runs LNS locally when no worker is available.
+     */
+    REMOTE_LNS(true, RemoteSolverPool.Mode.LNS) {
+        @Override
+        public Optional<SchedulingAssignment> run(ConstraintSatisfactionProblem csp, SchedulingAssignment incumbent,
+                                                  long deadlineMillis, SearchListener listener, SearchState resume) {
+            return LNS.run(csp, incumbent, deadlineMillis, listener, resume);
+        }
+    },
+    /**
+     * Min-cost-flow teacher assignment within the teachers' course and hour limits. Staffs every
+     * offering when it runs first; later it re-staffs the offerings holding a teacher.
+     */
+    TEACHER_FLOW(true) {
+        @Override
+        public Optional<SchedulingAssignment> run(ConstraintSatisfactionProblem csp, SchedulingAssignment incumbent,
+                                                  long deadlineMillis, SearchListener listener, SearchState resume) {
+            return new TeacherAssignmentStrategy().solve(csp, incumbent);
+        }
+    },
+    /** Soft-constraint descent that never adds hard violations. */
+    POLISH(true) {
+        @Override
+        public Optional<SchedulingAssignment> run(ConstraintSatisfactionProblem csp, SchedulingAssignment incumbent,
+                                                  long deadlineMillis, SearchListener listener, SearchState resume) {
+            return new LocalSearchStrategy().polishSoftConstraints(csp, incumbent, deadlineMillis, listener);
+        }
+    };
+
+    private final boolean improving;
+    private final RemoteSolverPool.Mode remoteMode;
+
+    StageType(boolean improving) {
+        this(improving, null);
+    }
+
+    StageType(boolean improving, RemoteSolverPool.Mode remoteMode) {
+        this.improving = improving;
+        this.remoteMode = remoteMode;
+    }
+
+    /**
+     * Whether the stage starts from the incumbent handed over by the previous stage.
+     */
+    public boolean isImproving() {
+        return improving;
+    }
+
+    /**
+     * How the stage is spread over solver workers, or null for stages that always run in process.
+     */
+    public RemoteSolverPool.Mode getRemoteMode() {
+        return remoteMode;
+    }
+
+    /**
+     * Runs the stage in this JVM. Public so solver workers can run the stages they are sent.
+     */
+    public Optional<SchedulingAssignment> run(ConstraintSatisfactionProblem csp, SchedulingAssignment incumbent,
+                                              long deadlineMillis, SearchListener listener) {
+        return run(csp, incumbent, deadlineMillis, listener, null);
+    }
+
+    /**
+     * As {@link #run(ConstraintSatisfactionProblem, SchedulingAssignment, long, SearchListener)},
+     * continuing from a checkpointed search state when one is given. Stages that keep no state of
+     * their own ignore it and start from the incumbent.
+     */
+    public abstract Optional<SchedulingAssignment> run(ConstraintSatisfactionProblem csp, SchedulingAssignment incumbent,
+                                                       long deadlineMillis, SearchListener listener, SearchState resume);
+}
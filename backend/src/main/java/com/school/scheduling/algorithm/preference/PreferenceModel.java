@@ -0,0 +1,149 @@
+package com.school.scheduling.algorithm.preference;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.*;
+
+/**
+ * The inputs of the assignment preferences of one problem: offerings, teachers, rooms and time
+ * slots under their database ids, the subjects teachers hold, teachers' stated availability, room
+ * types, department buildings and the time-of-day rating of each slot. {@link #compile()} turns
+ * them into {@link PreferenceTables}, dense score matrices indexed by compiled ids.
+ * <p>
+ * Ids are compiled in the order entities are added. Qualifications and availability may refer to
+ * entities added later; the model is read only when compiled.
+ */
+public class PreferenceModel {
+
+    // Weights of the parts of each score; each score stays within 0..1
+    static final double TEACHER_PROFICIENCY_WEIGHT = 0.6;
+    static final double TEACHER_DEPARTMENT_WEIGHT = 0.25;
+    static final double TEACHER_AVAILABILITY_WEIGHT = 0.15;
+    static final double ROOM_TYPE_WEIGHT = 0.5;
+    static final double ROOM_BUILDING_WEIGHT = 0.3;
+    static final double ROOM_FIT_WEIGHT = 0.2;
+    static final double TIME_OF_DAY_WEIGHT = 0.5;
+
+    // Score of anything nobody stated a preference about
+    static final double NEUTRAL = 0.5;
+    // Teacher slots outside every window a teacher gave
+    static final double OUTSIDE_AVAILABILITY = 0.3;
+
+    final List<Long> offeringIds = new ArrayList<>();
+    final List<Long> offeringDepartments = new ArrayList<>();
+    final List<Boolean> offeringLabs = new ArrayList<>();
+    final List<Integer> offeringEnrollments = new ArrayList<>();
+
+    final List<Long> teacherIds = new ArrayList<>();
+    final List<Long> teacherDepartments = new ArrayList<>();
+
+    final List<Long> roomIds = new ArrayList<>();
+    final List<String> roomBuildings = new ArrayList<>();
+    final List<Boolean> roomLabs = new ArrayList<>();
+    final List<Integer> roomCapacities = new ArrayList<>();
+
+    final List<Long> slotIds = new ArrayList<>();
+    final List<DayOfWeek> slotDays = new ArrayList<>();
+    final List<LocalTime> slotStarts = new ArrayList<>();
+    final List<LocalTime> slotEnds = new ArrayList<>();
+    final List<Double> slotTimeOfDay = new ArrayList<>();
+
+    final Map<Long, String> departmentBuildings = new HashMap<>();
+    final Map<Long, Map<Long, Double>> qualifications = new HashMap<>();
+    final Map<Long, List<Window>> availability = new HashMap<>();
+
+    /**
+     * Adds an offering and returns its compiled id.
+     *
+     * @param departmentId department of the course, or null
+     * @param enrollment   expected number of students, or 0 when unknown
+     */
+    public int addOffering(long offeringId, Long departmentId, boolean requiresLab, int enrollment) {
+        offeringIds.add(offeringId);
+        offeringDepartments.add(departmentId);
+        offeringLabs.add(requiresLab);
+        offeringEnrollments.add(enrollment);
+        return offeringIds.size() - 1;
+    }
+
+    public int addTeacher(long teacherId, Long departmentId) {
+        teacherIds.add(teacherId);
+        teacherDepartments.add(departmentId);
+        return teacherIds.size() - 1;
+    }
+
+    /**
+     * @param laboratory whether the room is a laboratory of some kind
+     * @param capacity   seats, or 0 when unknown
+     */
+    public int addRoom(long roomId, String buildingCode, boolean laboratory, int capacity) {
+        roomIds.add(roomId);
+        roomBuildings.add(buildingCode);
+        roomLabs.add(laboratory);
+        roomCapacities.add(capacity);
+        return roomIds.size() - 1;
+    }
+
+    /**
+     * @param timeOfDay how desirable the time of day is in general, 0..1
+     */
+    public int addTimeSlot(long slotId, DayOfWeek day, LocalTime start, LocalTime end, double timeOfDay) {
+        slotIds.add(slotId);
+        slotDays.add(day);
+        slotStarts.add(start);
+        slotEnds.add(end);
+        slotTimeOfDay.add(clamp(timeOfDay));
+        return slotIds.size() - 1;
+    }
+
+    public void setDepartmentBuilding(long departmentId, String buildingCode) {
+        departmentBuildings.put(departmentId, buildingCode);
+    }
+
+    /**
+     * Marks the teacher as able to teach the offering.
+     *
+     * @param proficiency how well the teacher knows the subject, 0..1
+     */
+    public void addQualification(long teacherId, long offeringId, double proficiency) {
+        qualifications.computeIfAbsent(teacherId, id -> new HashMap<>()).merge(offeringId, clamp(proficiency), Math::max);
+    }
+
+    /**
+     * A window of the teacher's week with how much the teacher wants to teach in it: 1 preferred,
+     * 0 unavailable. Slots touching an unavailable window score 0; other slots take the best
+     * window containing them.
+     */
+    public void addAvailability(long teacherId, DayOfWeek day, LocalTime start, LocalTime end, double preference) {
+        availability.computeIfAbsent(teacherId, id -> new ArrayList<>()).add(new Window(day, start, end, clamp(preference)));
+    }
+
+    /**
+     * Forgets every window the teacher stated, before the teacher's changed availability is added.
+     */
+    public void clearAvailability(long teacherId) {
+        availability.remove(teacherId);
+    }
+
+    public PreferenceTables compile() {
+        return new PreferenceTables(this);
+    }
+
+    static double clamp(double score) {
+        return Math.max(0.0, Math.min(1.0, score));
+    }
+
+    static final class Window {
+        final DayOfWeek day;
+        final LocalTime start;
+        final LocalTime end;
+        final double preference;
+
+        Window(DayOfWeek day, LocalTime start, LocalTime end, double preference) {
+            this.day = day;
+            this.start = start;
+            this.end = end;
+            this.preference = preference;
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package com.school.scheduling.algorithm.preference;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.*;
+
+import static com.school.scheduling.algorithm.preference.PreferenceModel.*;
+
+/**
+ * Assignment preferences compiled once per problem build into dense row-major matrices, so a
+ * solver reads a score with one array lookup however often it asks. All scores are within 0..1,
+ * higher is better; anything nobody stated a preference about scores 0.5.
+ * <ul>
+ *   <li>teacher x offering: proficiency in the subject, same department and how open the
+ *       teacher's week is; 0 when the teacher is not qualified</li>
+ *   <li>room x offering: room type against the lab requirement, the room being in the building
+ *       of the course's department, and how well the class fills the room; 0 when too small</li>
+ *   <li>slot x offering: the time-of-day rating and the availability of the qualified teachers</li>
+ *   <li>teacher x slot: the teacher's stated availability</li>
+ * </ul>
+ */
+public class PreferenceTables {
+
+    // Room type affinity: a lab course outside a lab barely works, a lecture in a lab wastes it
+    private static final double LAB_IN_LAB = 1.0;
+    private static final double LAB_ELSEWHERE = 0.2;
+    private static final double LECTURE_IN_LAB = 0.4;
+    private static final double LECTURE_ELSEWHERE = 1.0;
+
+    private final int offeringCount;
+    private final int teacherCount;
+    private final int roomCount;
+    private final int slotCount;
+    private final Map<Long, Integer> offeringIndex;
+    private final Map<Long, Integer> teacherIndex;
+    private final Map<Long, Integer> roomIndex;
+    private final Map<Long, Integer> slotIndex;
+    private final int[][] qualifiedTeachers;
+    private final float[] teacherSlot;
+    private final float[] teacherOffering;
+    private final float[] roomOffering;
+    private final float[] slotOffering;
+
+    PreferenceTables(PreferenceModel model) {
+        this.offeringCount = model.offeringIds.size();
+        this.teacherCount = model.teacherIds.size();
+        this.roomCount = model.roomIds.size();
+        this.slotCount = model.slotIds.size();
+        this.offeringIndex = index(model.offeringIds);
+        this.teacherIndex = index(model.teacherIds);
+        this.roomIndex = index(model.roomIds);
+        this.slotIndex = index(model.slotIds);
+
+        List<List<Integer>> qualified = new ArrayList<>();
+        for (int o = 0; o < offeringCount; o++) {
+            qualified.add(new ArrayList<>());
+        }
+        for (int t = 0; t < teacherCount; t++) {
+            for (Long offeringId : model.qualifications.getOrDefault(model.teacherIds.get(t), Map.of()).keySet()) {
+                Integer o = offeringIndex.get(offeringId);
+                if (o != null) {
+                    qualified.get(o).add(t);
+                }
+            }
+        }
+        this.qualifiedTeachers = new int[offeringCount][];
+        for (int o = 0; o < offeringCount; o++) {
+            qualifiedTeachers[o] = qualified.get(o).stream().mapToInt(Integer::intValue).sorted().toArray();
+        }
+
+        this.teacherSlot = new float[teacherCount * slotCount];
+        this.teacherOffering = new float[offeringCount * teacherCount];
+        for (int t = 0; t < teacherCount; t++) {
+            compileTeacherSlots(model, t);
+            compileTeacherOfferings(model, t);
+        }
+        this.roomOffering = compileRooms(model);
+        this.slotOffering = new float[offeringCount * slotCount];
+        for (int o = 0; o < offeringCount; o++) {
+            compileSlots(model, o);
+        }
+    }
+
+    // Copies the rows a teacher's availability feeds and shares the rest
+    private PreferenceTables(PreferenceTables tables) {
+        this.offeringCount = tables.offeringCount;
+        this.teacherCount = tables.teacherCount;
+        this.roomCount = tables.roomCount;
+        this.slotCount = tables.slotCount;
+        this.offeringIndex = tables.offeringIndex;
+        this.teacherIndex = tables.teacherIndex;
+        this.roomIndex = tables.roomIndex;
+        this.slotIndex = tables.slotIndex;
+        this.qualifiedTeachers = tables.qualifiedTeachers;
+        this.teacherSlot = tables.teacherSlot.clone();
+        this.teacherOffering = tables.teacherOffering.clone();
+        this.roomOffering = tables.roomOffering;
+        this.slotOffering = tables.slotOffering.clone();
+    }
+
+    /**
+     * The tables after the teacher's stated availability changed in the model they were compiled
+     * from, which must hold the same offerings, teachers and slots. Only what reads the
+     * availability is recompiled: the teacher's availability and offering scores and the slot
+     * scores of the offerings the teacher is qualified for.
+     */
+    public PreferenceTables recompileTeacher(PreferenceModel model, int teacher) {
+        PreferenceTables tables = new PreferenceTables(this);
+        tables.compileTeacherSlots(model, teacher);
+        tables.compileTeacherOfferings(model, teacher);
+        for (int o = 0; o < offeringCount; o++) {
+            if (Arrays.binarySearch(qualifiedTeachers[o], teacher) >= 0) {
+                tables.compileSlots(model, o);
+            }
+        }
+        return tables;
+    }
+
+    private void compileTeacherSlots(PreferenceModel model, int t) {
+        List<PreferenceModel.Window> windows = model.availability.get(model.teacherIds.get(t));
+        for (int s = 0; s < slotCount; s++) {
+            teacherSlot[t * slotCount + s] = (float) availability(windows, model.slotDays.get(s),
+                                                                  model.slotStarts.get(s), model.slotEnds.get(s));
+        }
+    }
+
+    // Reads the teacher's availability row, so it is compiled after it
+    private void compileTeacherOfferings(PreferenceModel model, int t) {
+        double sum = 0;
+        for (int s = 0; s < slotCount; s++) {
+            sum += teacherSlot[t * slotCount + s];
+        }
+        double openness = slotCount > 0 ? sum / slotCount : NEUTRAL;
+
+        Map<Long, Double> subjects = model.qualifications.getOrDefault(model.teacherIds.get(t), Map.of());
+        for (Map.Entry<Long, Double> subject : subjects.entrySet()) {
+            Integer o = offeringIndex.get(subject.getKey());
+            if (o == null) continue;
+            double department = match(model.offeringDepartments.get(o), model.teacherDepartments.get(t));
+            teacherOffering[o * teacherCount + t] = (float) (TEACHER_PROFICIENCY_WEIGHT * subject.getValue()
+                + TEACHER_DEPARTMENT_WEIGHT * department + TEACHER_AVAILABILITY_WEIGHT * openness);
+        }
+    }
+
+    private static double availability(List<PreferenceModel.Window> windows, DayOfWeek day,
+                                       LocalTime start, LocalTime end) {
+        if (windows == null || windows.isEmpty() || day == null || start == null || end == null) {
+            return NEUTRAL;
+        }
+        double best = -1;
+        for (PreferenceModel.Window window : windows) {
+            if (window.day != day || !window.start.isBefore(end) || !start.isBefore(window.end)) continue;
+            if (window.preference == 0.0) {
+                return 0.0;
+            }
+            if (!start.isBefore(window.start) && !end.isAfter(window.end)) {
+                best = Math.max(best, window.preference);
+            }
+        }
+        return best >= 0 ? best : OUTSIDE_AVAILABILITY;
+    }
+
+    private float[] compileRooms(PreferenceModel model) {
+        float[] scores = new float[offeringCount * roomCount];
+        for (int o = 0; o < offeringCount; o++) {
+            boolean lab = model.offeringLabs.get(o);
+            int enrollment = model.offeringEnrollments.get(o);
+            Long department = model.offeringDepartments.get(o);
+            String home = department != null ? model.departmentBuildings.get(department) : null;
+
+            for (int r = 0; r < roomCount; r++) {
+                int capacity = model.roomCapacities.get(r);
+                if (enrollment > 0 && capacity > 0 && capacity < enrollment) {
+                    continue; // Too small: stays 0
+                }
+                boolean labRoom = model.roomLabs.get(r);
+                double type = lab ? (labRoom ? LAB_IN_LAB : LAB_ELSEWHERE) : (labRoom ? LECTURE_IN_LAB : LECTURE_ELSEWHERE);
+                double building = match(home, model.roomBuildings.get(r));
+                double fit = enrollment > 0 && capacity > 0 ? (double) enrollment / capacity : NEUTRAL;
+                scores[o * roomCount + r] = (float) (ROOM_TYPE_WEIGHT * type + ROOM_BUILDING_WEIGHT * building
+                                                     + ROOM_FIT_WEIGHT * fit);
+            }
+        }
+        return scores;
+    }
+
+    // Reads the availability rows of the offering's qualified teachers, so it is compiled after them
+    private void compileSlots(PreferenceModel model, int o) {
+        int[] teachers = qualifiedTeachers[o];
+        for (int s = 0; s < slotCount; s++) {
+            double available = NEUTRAL;
+            if (teachers.length > 0) {
+                double sum = 0;
+                for (int t : teachers) {
+                    sum += teacherSlot[t * slotCount + s];
+                }
+                available = sum / teachers.length;
+            }
+            slotOffering[o * slotCount + s] = (float) (TIME_OF_DAY_WEIGHT * model.slotTimeOfDay.get(s)
+                                                       + (1 - TIME_OF_DAY_WEIGHT) * available);
+        }
+    }
+
+    // 1 when both are known and equal, 0 when both are known and differ, neutral otherwise
+    private static double match(Object a, Object b) {
+        if (a == null || b == null) return NEUTRAL;
+        return a.equals(b) ? 1.0 : 0.0;
+    }
+
+    private static Map<Long, Integer> index(List<Long> ids) {
+        Map<Long, Integer> index = new HashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            index.putIfAbsent(ids.get(i), i);
+        }
+        return index;
+    }
+
+    // Compiled ids, -1 for unknown database ids
+
+    public int offeringIndex(long offeringId) { return offeringIndex.getOrDefault(offeringId, -1); }
+    public int teacherIndex(long teacherId) { return teacherIndex.getOrDefault(teacherId, -1); }
+    public int roomIndex(long roomId) { return roomIndex.getOrDefault(roomId, -1); }
+    public int slotIndex(long slotId) { return slotIndex.getOrDefault(slotId, -1); }
+
+    // Scores by compiled id
+
+    public double teacherScore(int offering, int teacher) {
+        return teacherOffering[offering * teacherCount + teacher];
+    }
+
+    public double roomScore(int offering, int room) {
+        return roomOffering[offering * roomCount + room];
+    }
+
+    public double timeScore(int offering, int slot) {
+        return slotOffering[offering * slotCount + slot];
+    }
+
+    public double availabilityScore(int teacher, int slot) {
+        return teacherSlot[teacher * slotCount + slot];
+    }
+
+    /**
+     * Compiled ids of the teachers qualified for the offering, ascending.
+     */
+    public int[] qualifiedTeachers(int offering) {
+        return qualifiedTeachers[offering].clone();
+    }
+
+    public int getOfferingCount() { return offeringCount; }
+    public int getTeacherCount() { return teacherCount; }
+    public int getRoomCount() { return roomCount; }
+    public int getSlotCount() { return slotCount; }
+}
@@ -0,0 +1,451 @@
+package com.school.scheduling.algorithm.remote;
+
+import com.school.scheduling.algorithm.ConstraintSatisfactionProblem;
+import com.school.scheduling.algorithm.pipeline.SolvePipeline;
+import com.school.scheduling.algorithm.pipeline.StageType;
+import com.school.scheduling.algorithm.remote.WorkerProtocol.Frame;
+import com.school.scheduling.algorithm.remote.WorkerProtocol.Incumbent;
+import com.school.scheduling.algorithm.remote.WorkerProtocol.MessageType;
+import com.school.scheduling.algorithm.remote.WorkerProtocol.SolveRequest;
+import com.school.scheduling.algorithm.strategy.GenomeEncoding;
+import com.school.scheduling.algorithm.strategy.IncrementalFitnessEvaluator;
+import com.school.scheduling.algorithm.strategy.ScoreDirector;
+import com.school.scheduling.algorithm.strategy.SearchListener;
+import com.school.scheduling.algorithm.strategy.SearchState;
+import com.school.scheduling.domain.constraint.SchedulingAssignment;
+
+import java.io.*;
+import java.nio.channels.SocketChannel;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Coordinator side of the solver worker processes. Each solve opens one connection per worker,
+ * ships the problem snapshot once and then hands out work:
+ * <ul>
+ *   <li>PORTFOLIO: every worker runs a different improvement stage from the same start for the
+ *       whole budget; incumbents stream back and the best one wins.</li>
+ *   <li>LNS: the budget is cut into epochs; in each epoch every worker runs LNS from the best
+ *       schedule of the previous epoch, so the workers search in parallel from a shared incumbent.</li>
+ * </ul>
+ * Workers that cannot be reached, do not load the problem before the stage deadline or fail
+ * mid-solve are dropped for that solve. When no worker delivers anything the solve returns empty
+ * and the caller runs the stage in process.
+ */
+public class RemoteSolverPool {
+
+    // Workers get this long past the deadline to deliver their result before the connection is cut
+    private static final long RESULT_GRACE_MS = 2000;
+    // Cap for stages configured without a budget; workers would otherwise search indefinitely
+    private static final long MAX_UNBOUNDED_BUDGET_MS = 60_000;
+    // An unreachable host should not take the whole stage before the other workers can start
+    private static final long CONNECT_TIMEOUT_MS = 5000;
+
+    private static final List<StageType> DEFAULT_PORTFOLIO =
+        List.of(StageType.TABU, StageType.LNS, StageType.SIMULATED_ANNEALING);
+
+    public enum Mode { PORTFOLIO, LNS }
+
+    private final List<WorkerEndpoint> endpoints;
+    private final String secret;
+    private final List<StageType> portfolio;
+    private final int reportIntervalMs;
+    private final long lnsEpochMs;
+    private final ExecutorService executor;
+    private final List<String> lastFailures = new CopyOnWriteArrayList<>();
+
+    public RemoteSolverPool(List<WorkerEndpoint> endpoints, String secret) {
+        this(endpoints, secret, DEFAULT_PORTFOLIO, 500, 2000);
+    }
+
+    /**
+     * @param secret shared with the workers, to answer their challenge; only needed with endpoints
+     * @param portfolio stages handed to workers in PORTFOLIO mode, round-robin by worker
+     * @param reportIntervalMs how often a worker reports a new best during a stage
+     * @param lnsEpochMs length of one LNS epoch before incumbents are exchanged
+     */
+    public RemoteSolverPool(List<WorkerEndpoint> endpoints, String secret, List<StageType> portfolio,
+                            int reportIntervalMs, long lnsEpochMs) {
+        if (!endpoints.isEmpty() && (secret == null || secret.isBlank())) {
+            throw new IllegalArgumentException("Solver workers need a shared secret");
+        }
+        this.endpoints = List.copyOf(endpoints);
+        this.secret = secret;
+        this.portfolio = List.copyOf(portfolio);
+        this.reportIntervalMs = Math.max(50, reportIntervalMs);
+        this.lnsEpochMs = Math.max(100, lnsEpochMs);
+        if (this.portfolio.isEmpty() || this.portfolio.stream().anyMatch(stage -> stage.getRemoteMode() != null)) {
+            throw new IllegalArgumentException("Portfolio stages must be local stages");
+        }
+
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "remote-solver-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public boolean isEnabled() {
+        return !endpoints.isEmpty();
+    }
+
+    /**
+     * Runs the given mode on every reachable worker until the deadline. Returns the best schedule,
+     * or empty when no worker produced one.
+     */
+    public Optional<SchedulingAssignment> solve(ConstraintSatisfactionProblem csp, SchedulingAssignment initialSolution,
+                                                Mode mode, long deadlineMillis, SearchListener listener) {
+        lastFailures.clear();
+        long now = System.currentTimeMillis();
+        long deadline = deadlineMillis - now > MAX_UNBOUNDED_BUDGET_MS ? now + MAX_UNBOUNDED_BUDGET_MS : deadlineMillis;
+
+        GenomeEncoding encoding = new GenomeEncoding(csp);
+        Best best = new Best(new ScoreDirector(encoding, csp), initialSolution);
+
+        List<WorkerSession> sessions = connectAll(csp, deadline);
+        try {
+            if (sessions.isEmpty()) {
+                return Optional.empty();
+            }
+            if (mode == Mode.PORTFOLIO) {
+                runPortfolio(sessions, best, deadline, listener);
+            } else {
+                runLnsEpochs(sessions, best, deadline, listener);
+            }
+        } finally {
+            sessions.forEach(WorkerSession::close);
+        }
+
+        int[] result = best.genome();
+        return best.isReported() && result != null ? Optional.of(encoding.decode(result)) : Optional.empty();
+    }
+
+    /**
+     * Connects to every worker and loads the problem, waiting no longer than the deadline. A worker
+     * that has not answered by then is cut off: closing its channel unblocks the handshake.
+     */
+    private List<WorkerSession> connectAll(ConstraintSatisfactionProblem csp, long deadline) {
+        byte[] snapshot;
+        try {
+            snapshot = WorkerProtocol.encodeProblem(csp);
+        } catch (IOException e) {
+            lastFailures.add("Problem snapshot: " + e.getMessage());
+            return Collections.emptyList();
+        }
+
+        AtomicReferenceArray<WorkerSession> opening = new AtomicReferenceArray<>(endpoints.size());
+        List<Future<WorkerSession>> connecting = new ArrayList<>();
+        for (int i = 0; i < endpoints.size(); i++) {
+            WorkerEndpoint endpoint = endpoints.get(i);
+            int index = i;
+            connecting.add(executor.submit(() -> {
+                long remaining = Math.max(1, deadline - System.currentTimeMillis());
+                WorkerSession session = new WorkerSession(endpoint, endpoint.connect(Math.min(CONNECT_TIMEOUT_MS, remaining)));
+                opening.set(index, session);
+                session.load(secret, snapshot);
+                return session;
+            }));
+        }
+
+        List<WorkerSession> sessions = new ArrayList<>();
+        for (int i = 0; i < connecting.size(); i++) {
+            try {
+                sessions.add(connecting.get(i).get(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS));
+                continue;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                lastFailures.add(endpoints.get(i) + ": " + e.getCause().getMessage());
+                continue;
+            } catch (TimeoutException e) {
+                lastFailures.add(endpoints.get(i) + ": no answer before the stage deadline");
+            }
+            connecting.get(i).cancel(true);
+            WorkerSession session = opening.get(i);
+            if (session != null) {
+                session.abort();
+            }
+        }
+        return sessions;
+    }
+
+    private void runPortfolio(List<WorkerSession> sessions, Best best, long deadline, SearchListener listener) {
+        int[] start = best.genome();
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int i = 0; i < sessions.size(); i++) {
+            WorkerSession session = sessions.get(i);
+            SolveRequest request = new SolveRequest(portfolio.get(i % portfolio.size()).name(),
+                                                    Math.max(0, deadline - System.currentTimeMillis()),
+                                                    reportIntervalMs, start);
+            tasks.add(() -> {
+                session.solve(request, best, listener);
+                return null;
+            });
+        }
+        awaitAll(sessions, tasks, deadline);
+    }
+
+    private void runLnsEpochs(List<WorkerSession> sessions, Best best, long deadline, SearchListener listener) {
+        while (!Thread.currentThread().isInterrupted()) {
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0) {
+                break;
+            }
+            long epoch = Math.min(lnsEpochMs, remaining);
+            int[] start = best.genome();
+
+            List<Callable<Void>> tasks = new ArrayList<>();
+            for (WorkerSession session : sessions) {
+                if (session.failed) continue;
+                SolveRequest request = new SolveRequest(StageType.LNS.name(), epoch, reportIntervalMs, start);
+                tasks.add(() -> {
+                    session.solve(request, best, listener);
+                    return null;
+                });
+            }
+            if (tasks.isEmpty()) {
+                break;
+            }
+            awaitAll(sessions, tasks, System.currentTimeMillis() + epoch);
+        }
+    }
+
+    /**
+     * Runs one solve per session and waits for the results, cutting off sessions that are still
+     * busy after the grace period. A cut-off or failed session is not used again.
+     */
+    private void awaitAll(List<WorkerSession> sessions, List<Callable<Void>> tasks, long deadline) {
+        List<Future<Void>> futures = new ArrayList<>();
+        for (Callable<Void> task : tasks) {
+            futures.add(executor.submit(task));
+        }
+
+        for (Future<Void> future : futures) {
+            long wait = deadline + RESULT_GRACE_MS - System.currentTimeMillis();
+            try {
+                future.get(Math.max(0, wait), TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException e) {
+                lastFailures.add(e.getCause().getMessage());
+            } catch (TimeoutException e) {
+                lastFailures.add("Worker missed its deadline");
+            }
+        }
+
+        // Anything still running is cancelled; closing the channel unblocks the reader
+        for (int i = 0; i < futures.size(); i++) {
+            if (!futures.get(i).isDone()) {
+                futures.get(i).cancel(true);
+            }
+        }
+        for (WorkerSession session : sessions) {
+            if (session.busy) {
+                session.abort();
+            }
+        }
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // Configuration and monitoring
+    public List<WorkerEndpoint> getEndpoints() { return endpoints; }
+    public List<StageType> getPortfolio() { return portfolio; }
+    public List<String> getLastFailures() { return List.copyOf(lastFailures); }
+
+    // Helper classes
+    /**
+     * Best genome across all workers of one solve. Worker genomes are rescored here with the
+     * coordinator's own director rather than trusting the counts a worker reports.
+     */
+    private static class Best {
+        private final ScoreDirector director;
+        private int[] genome;
+        private SolvePipeline.Quality quality;
+        private IncrementalFitnessEvaluator.Tally tally;
+        // Whether any worker delivered a solve, even one that did not beat the start
+        private boolean reported;
+
+        Best(ScoreDirector director, SchedulingAssignment initialSolution) {
+            this.director = director;
+            if (initialSolution != null) {
+                this.genome = director.getEncoding().encode(initialSolution);
+                this.tally = director.evaluate(genome);
+                this.quality = SolvePipeline.Quality.of(tally);
+            }
+        }
+
+        synchronized int[] genome() {
+            return genome;
+        }
+
+        synchronized boolean isReported() {
+            return reported;
+        }
+
+        synchronized boolean offer(Incumbent incumbent) {
+            reported = true;
+            if (incumbent.getGenome() == null) {
+                return false;
+            }
+            if (!fits(incumbent.getGenome())) {
+                throw new IllegalArgumentException("Worker genome does not fit the problem");
+            }
+            IncrementalFitnessEvaluator.Tally candidateTally = director.evaluate(incumbent.getGenome());
+            SolvePipeline.Quality candidate = SolvePipeline.Quality.of(candidateTally);
+            if (quality != null && candidate.compareTo(quality) >= 0) {
+                return false;
+            }
+            genome = incumbent.getGenome();
+            quality = candidate;
+            tally = candidateTally;
+            return true;
+        }
+
+        synchronized IncrementalFitnessEvaluator.Tally tally() {
+            return tally;
+        }
+
+        private boolean fits(int[] candidate) {
+            GenomeEncoding encoding = director.getEncoding();
+            if (candidate.length != encoding.size()) {
+                return false;
+            }
+            for (int gene = 0; gene < candidate.length; gene++) {
+                if (candidate[gene] != GenomeEncoding.UNASSIGNED
+                    && (candidate[gene] < 0 || candidate[gene] >= encoding.domainSize(gene))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * One connection to a worker with its problem loaded.
+     */
+    private static class WorkerSession {
+        private final WorkerEndpoint endpoint;
+        private final SocketChannel channel;
+        private final DataInputStream in;
+        private final DataOutputStream out;
+        private volatile boolean busy;
+        private volatile boolean failed;
+
+        private WorkerSession(WorkerEndpoint endpoint, SocketChannel channel) {
+            this.endpoint = endpoint;
+            this.channel = channel;
+            this.in = new DataInputStream(new BufferedInputStream(WorkerProtocol.inputStream(channel)));
+            this.out = new DataOutputStream(new BufferedOutputStream(WorkerProtocol.outputStream(channel)));
+        }
+
+        /**
+         * Handshakes and loads the problem. Blocks on the worker's answers; the coordinator bounds
+         * the wait by aborting the session.
+         */
+        void load(String secret, byte[] snapshot) throws IOException {
+            try {
+                WorkerProtocol.writeHandshake(out);
+                WorkerProtocol.readHandshake(in);
+                WorkerProtocol.answerChallenge(in, out, secret);
+                WorkerProtocol.writeFrame(out, MessageType.LOAD, snapshot);
+                expect(MessageType.LOADED);
+            } catch (IOException e) {
+                failed = true;
+                close();
+                throw e;
+            }
+        }
+
+        /**
+         * Sends one solve and relays incumbents until the worker's RESULT arrives.
+         */
+        void solve(SolveRequest request, Best best, SearchListener listener) throws IOException {
+            busy = true;
+            long reportedNodes = 0;
+            try {
+                WorkerProtocol.writeFrame(out, MessageType.SOLVE, WorkerProtocol.encodeSolve(request));
+                while (true) {
+                    Frame frame = WorkerProtocol.readFrame(in);
+                    if (frame.getType() == MessageType.ERROR) {
+                        failed = true;
+                        throw new IOException(endpoint + ": " + WorkerProtocol.decodeText(frame.getPayload()));
+                    }
+                    if (frame.getType() != MessageType.INCUMBENT && frame.getType() != MessageType.RESULT) {
+                        continue;
+                    }
+
+                    Incumbent incumbent = WorkerProtocol.decodeIncumbent(frame.getPayload());
+                    listener.nodesExplored(incumbent.getNodes() - reportedNodes);
+                    reportedNodes = incumbent.getNodes();
+                    boolean improved;
+                    try {
+                        improved = best.offer(incumbent);
+                    } catch (IllegalArgumentException e) {
+                        failed = true;
+                        throw new IOException(endpoint + ": " + e.getMessage(), e);
+                    }
+                    if (improved) {
+                        listener.improved(best.tally());
+                    }
+                    if (listener.checkpointDue()) {
+                        int[] genome = best.genome();
+                        if (genome != null) {
+                            listener.checkpoint(SearchState.incumbent(genome));
+                        }
+                    }
+                    if (frame.getType() == MessageType.RESULT) {
+                        return;
+                    }
+                }
+            } catch (IOException e) {
+                failed = true;
+                throw e;
+            } finally {
+                busy = false;
+            }
+        }
+
+        private void expect(MessageType type) throws IOException {
+            Frame frame = WorkerProtocol.readFrame(in);
+            if (frame.getType() == MessageType.ERROR) {
+                throw new IOException(endpoint + ": " + WorkerProtocol.decodeText(frame.getPayload()));
+            }
+            if (frame.getType() != type) {
+                throw new IOException(endpoint + ": expected " + type + " but got " + frame.getType());
+            }
+        }
+
+        /**
+         * Closes without saying goodbye; a worker that stopped reading could block the BYE.
+         */
+        void abort() {
+            failed = true;
+            close();
+        }
+
+        void close() {
+            if (!channel.isOpen()) {
+                return;
+            }
+            try {
+                if (!busy && !failed) {
+                    WorkerProtocol.writeFrame(out, MessageType.BYE, new byte[0]);
+                }
+            } catch (IOException e) {
+                // Closing anyway
+            }
+            try {
+                channel.close();
+            } catch (IOException e) {
+                // Already gone
+            }
+        }
+    }
+}
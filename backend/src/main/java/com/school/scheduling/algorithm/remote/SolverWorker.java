@@ -0,0 +1,357 @@
+package com.school.scheduling.algorithm.remote;
+
+import com.school.scheduling.algorithm.ConstraintSatisfactionProblem;
+import com.school.scheduling.algorithm.pipeline.SolvePipeline;
+import com.school.scheduling.algorithm.pipeline.StageType;
+import com.school.scheduling.algorithm.remote.WorkerProtocol.Frame;
+import com.school.scheduling.algorithm.remote.WorkerProtocol.Incumbent;
+import com.school.scheduling.algorithm.remote.WorkerProtocol.MessageType;
+import com.school.scheduling.algorithm.remote.WorkerProtocol.SolveRequest;
+import com.school.scheduling.algorithm.strategy.GenomeEncoding;
+import com.school.scheduling.algorithm.strategy.ScoreDirector;
+import com.school.scheduling.algorithm.strategy.SearchListener;
+import com.school.scheduling.algorithm.strategy.SearchState;
+import com.school.scheduling.domain.constraint.SchedulingAssignment;
+
+import java.io.*;
+import java.net.SocketAddress;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Solver worker process. Listens on a TCP or Unix domain socket, loads the problem snapshot a
+ * coordinator sends and runs the stages it asks for, streaming each new best genome back.
+ * An improvement stage runs once for its whole budget; every report interval the worker asks it
+ * for its search state and sends the best genome in it, so incumbents flow back while the stage
+ * keeps its temperature, tabu list or population.
+ * Each connection holds one problem and runs one solve at a time; connections are independent.
+ * <p>
+ * Coordinators must answer the shared-secret challenge of {@link WorkerProtocol} before the worker
+ * reads anything from them. The worker binds loopback addresses and Unix sockets only, unless
+ * {@code --allow-remote} is given for a worker that other hosts reach over a trusted network.
+ * Start it with the application classpath and the secret in {@value #SECRET_VARIABLE}:
+ * {@code java -cp <classpath> com.school.scheduling.algorithm.remote.SolverWorker tcp://127.0.0.1:7601}
+ * or with {@code unix:/run/scheduling/worker-1.sock}.
+ */
+public class SolverWorker implements Closeable {
+
+    public static final String SECRET_VARIABLE = "SOLVER_WORKER_SECRET";
+    private static final String DEFAULT_ENDPOINT = "tcp://127.0.0.1:7601";
+    private static final String ALLOW_REMOTE = "--allow-remote";
+
+    private final WorkerEndpoint endpoint;
+    private final String secret;
+    private final boolean allowRemote;
+    private final ExecutorService connections;
+    private ServerSocketChannel server;
+    private Thread acceptor;
+
+    public SolverWorker(WorkerEndpoint endpoint, String secret) {
+        this(endpoint, secret, false);
+    }
+
+    /**
+     * @param secret      shared with the coordinators; they must prove they hold it
+     * @param allowRemote whether the endpoint may be reachable from other hosts
+     */
+    public SolverWorker(WorkerEndpoint endpoint, String secret, boolean allowRemote) {
+        if (secret == null || secret.isBlank()) {
+            throw new IllegalArgumentException("A solver worker needs a shared secret");
+        }
+        this.endpoint = endpoint;
+        this.secret = secret;
+        this.allowRemote = allowRemote;
+        AtomicInteger counter = new AtomicInteger();
+        this.connections = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "solver-worker-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<String> arguments = new ArrayList<>(Arrays.asList(args));
+        boolean allowRemote = arguments.remove(ALLOW_REMOTE);
+        String secret = System.getenv(SECRET_VARIABLE);
+        if (arguments.size() > 1 || secret == null || secret.isBlank()) {
+            System.err.println("Usage: " + SECRET_VARIABLE + "=<secret> SolverWorker [" + ALLOW_REMOTE + "] "
+                               + "[tcp://host:port | unix:/path/to/socket] (default " + DEFAULT_ENDPOINT + ")");
+            System.exit(2);
+        }
+        SolverWorker worker = new SolverWorker(
+            WorkerEndpoint.parse(arguments.isEmpty() ? DEFAULT_ENDPOINT : arguments.get(0)), secret, allowRemote);
+        Runtime.getRuntime().addShutdownHook(new Thread(worker::close));
+        // The first line on stdout tells a parent process where to connect (useful with port 0)
+        System.out.println("LISTENING " + worker.start());
+        System.out.flush();
+        worker.acceptor.join();
+    }
+
+    /**
+     * Binds the endpoint and starts accepting coordinators. Returns the bound address,
+     * which carries the actual port when port 0 was requested.
+     *
+     * @throws IllegalArgumentException when the endpoint is reachable from other hosts and remote
+     *                                  connections were not allowed
+     */
+    public synchronized SocketAddress start() throws IOException {
+        if (!allowRemote && !endpoint.isLocal()) {
+            throw new IllegalArgumentException("Refusing to listen on " + endpoint
+                + "; bind a loopback address or a Unix socket, or allow remote connections");
+        }
+        if (endpoint.isUnix()) {
+            Files.deleteIfExists(((UnixDomainSocketAddress) endpoint.getAddress()).getPath());
+        }
+        server = endpoint.bind();
+        acceptor = new Thread(this::acceptLoop, "solver-worker-acceptor");
+        acceptor.start();
+        return server.getLocalAddress();
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            if (server != null) {
+                server.close();
+            }
+        } catch (IOException e) {
+            // Closing anyway
+        }
+        connections.shutdownNow();
+        if (endpoint.isUnix()) {
+            try {
+                Files.deleteIfExists(((UnixDomainSocketAddress) endpoint.getAddress()).getPath());
+            } catch (IOException e) {
+                // Stale socket file; the next start removes it
+            }
+        }
+    }
+
+    private void acceptLoop() {
+        while (server.isOpen()) {
+            try {
+                SocketChannel channel = server.accept();
+                connections.submit(new Connection(channel, secret));
+            } catch (ClosedChannelException e) {
+                return;
+            } catch (IOException | RejectedExecutionException e) {
+                if (!server.isOpen()) {
+                    return;
+                }
+            }
+        }
+    }
+
+    // Helper classes
+    /**
+     * One coordinator connection. The reader thread handles control messages; solves run on a
+     * separate thread so a CANCEL can interrupt them. Writes from both threads share the stream lock.
+     */
+    private static class Connection implements Runnable {
+        private final SocketChannel channel;
+        private final String secret;
+        private final ExecutorService solver = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "solver-worker-solve");
+            thread.setDaemon(true);
+            return thread;
+        });
+        private DataOutputStream out;
+        private ConstraintSatisfactionProblem csp;
+        private GenomeEncoding encoding;
+        private Future<?> running;
+
+        Connection(SocketChannel channel, String secret) {
+            this.channel = channel;
+            this.secret = secret;
+        }
+
+        @Override
+        public void run() {
+            try (channel) {
+                DataInputStream in = new DataInputStream(new BufferedInputStream(WorkerProtocol.inputStream(channel)));
+                out = new DataOutputStream(new BufferedOutputStream(WorkerProtocol.outputStream(channel)));
+                WorkerProtocol.readHandshake(in);
+                byte[] challenge;
+                synchronized (out) {
+                    WorkerProtocol.writeHandshake(out);
+                    challenge = WorkerProtocol.writeChallenge(out);
+                }
+                if (!WorkerProtocol.verifyAnswer(in, challenge, secret)) {
+                    send(MessageType.ERROR, WorkerProtocol.encodeText("Authentication failed"));
+                    return;
+                }
+
+                while (true) {
+                    Frame frame = WorkerProtocol.readFrame(in);
+                    switch (frame.getType()) {
+                        case LOAD:
+                            cancelRunning();
+                            csp = WorkerProtocol.decodeProblem(frame.getPayload());
+                            encoding = new GenomeEncoding(csp);
+                            send(MessageType.LOADED, WorkerProtocol.encodeText(String.valueOf(encoding.size())));
+                            break;
+                        case SOLVE:
+                            startSolve(WorkerProtocol.decodeSolve(frame.getPayload()));
+                            break;
+                        case CANCEL:
+                            cancelRunning();
+                            break;
+                        case BYE:
+                            return;
+                        default:
+                            send(MessageType.ERROR, WorkerProtocol.encodeText("Unexpected message " + frame.getType()));
+                    }
+                }
+            } catch (EOFException | ClosedChannelException e) {
+                // Coordinator went away
+            } catch (IOException e) {
+                trySend(MessageType.ERROR, e.getMessage());
+            } finally {
+                solver.shutdownNow();
+            }
+        }
+
+        private void startSolve(SolveRequest request) throws IOException {
+            if (csp == null) {
+                send(MessageType.ERROR, WorkerProtocol.encodeText("No problem loaded"));
+                return;
+            }
+            if (running != null && !running.isDone()) {
+                send(MessageType.ERROR, WorkerProtocol.encodeText("A solve is already running"));
+                return;
+            }
+            ConstraintSatisfactionProblem problem = csp;
+            GenomeEncoding problemEncoding = encoding;
+            running = solver.submit(() -> {
+                try {
+                    solve(request, problem, problemEncoding);
+                } catch (Exception e) {
+                    trySend(MessageType.ERROR, e.getClass().getSimpleName() + ": " + e.getMessage());
+                }
+            });
+        }
+
+        private void solve(SolveRequest request, ConstraintSatisfactionProblem csp, GenomeEncoding encoding)
+            throws IOException {
+            StageType type = StageType.valueOf(request.getStage());
+            if (type.getRemoteMode() != null) {
+                throw new IllegalArgumentException("Workers run local stages only, got " + type);
+            }
+
+            long start = System.currentTimeMillis();
+            long deadline = request.getBudgetMs() >= Long.MAX_VALUE - start ? Long.MAX_VALUE : start + request.getBudgetMs();
+            Reporter reporter = new Reporter(csp, encoding, Math.max(50, request.getReportIntervalMs()));
+            if (request.getGenome() != null) {
+                reporter.offer(encoding.decode(request.getGenome()), false);
+            }
+
+            SchedulingAssignment initial = reporter.best != null ? reporter.best.copy() : null;
+            Optional<SchedulingAssignment> output = type.run(csp, initial, deadline, reporter);
+            if (output.isPresent()) {
+                reporter.offer(output.get(), false);
+            }
+
+            if (Thread.currentThread().isInterrupted()) {
+                return; // Cancelled; the coordinator no longer waits for a result
+            }
+            send(MessageType.RESULT, reporter.best != null
+                ? incumbent(encoding, reporter.best, reporter.bestQuality, reporter.nodes.sum())
+                : WorkerProtocol.encodeIncumbent(new Incumbent(0, 0, encoding.size(), reporter.nodes.sum(), null)));
+        }
+
+        private byte[] incumbent(GenomeEncoding encoding, SchedulingAssignment best, SolvePipeline.Quality quality,
+                                 long nodes) throws IOException {
+            return WorkerProtocol.encodeIncumbent(new Incumbent(quality.getHardViolations(), quality.getSoftViolations(),
+                                                                quality.getUnassigned(), nodes, encoding.encode(best)));
+        }
+
+        /**
+         * Listener of a running stage: every report interval it takes the stage's search state and
+         * sends the best genome in it when that beats what was sent before.
+         */
+        private class Reporter implements SearchListener {
+            private final ScoreDirector director;
+            private final GenomeEncoding encoding;
+            private final long interval;
+            private final LongAdder nodes = new LongAdder();
+            private final AtomicLong nextReportAt;
+            private SchedulingAssignment best;
+            private SolvePipeline.Quality bestQuality;
+
+            Reporter(ConstraintSatisfactionProblem csp, GenomeEncoding encoding, long interval) {
+                this.director = new ScoreDirector(encoding, csp);
+                this.encoding = encoding;
+                this.interval = interval;
+                this.nextReportAt = new AtomicLong(System.currentTimeMillis() + interval);
+            }
+
+            @Override
+            public void nodesExplored(long count) {
+                nodes.add(count);
+            }
+
+            @Override
+            public boolean checkpointDue() {
+                long due = nextReportAt.get();
+                long now = System.currentTimeMillis();
+                return now >= due && nextReportAt.compareAndSet(due, now + interval);
+            }
+
+            @Override
+            public void checkpoint(SearchState state) {
+                if (state.getBest() == null) {
+                    return;
+                }
+                try {
+                    offer(encoding.decode(state.getBest()), true);
+                } catch (IOException e) {
+                    // The coordinator is gone; the solve ends when it is cancelled
+                }
+            }
+
+            synchronized void offer(SchedulingAssignment candidate, boolean report) throws IOException {
+                SolvePipeline.Quality quality = SolvePipeline.Quality.of(director, candidate);
+                if (bestQuality != null && quality.compareTo(bestQuality) >= 0) {
+                    return;
+                }
+                best = candidate;
+                bestQuality = quality;
+                if (report) {
+                    send(MessageType.INCUMBENT, incumbent(encoding, best, bestQuality, nodes.sum()));
+                }
+            }
+        }
+
+        private void cancelRunning() {
+            if (running != null) {
+                running.cancel(true);
+                running = null;
+            }
+        }
+
+        private void send(MessageType type, byte[] payload) throws IOException {
+            synchronized (out) {
+                WorkerProtocol.writeFrame(out, type, payload);
+            }
+        }
+
+        private void trySend(MessageType type, String message) {
+            if (out == null) {
+                return;
+            }
+            try {
+                send(type, WorkerProtocol.encodeText(message));
+            } catch (IOException e) {
+                // Connection is gone; nothing left to tell
+            }
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.school.scheduling.algorithm.remote;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.SocketTimeoutException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Path;
+import java.util.Objects;
+
+/**
+ * Address of a solver worker: {@code tcp://host:port} for a worker on this host or the LAN,
+ * or {@code unix:/path/to/socket} for a worker on the same host. Workers only bind loopback
+ * addresses and Unix sockets unless told otherwise (see {@link SolverWorker}).
+ */
+public class WorkerEndpoint {
+
+    private static final String TCP_PREFIX = "tcp://";
+    private static final String UNIX_PREFIX = "unix:";
+
+    private final String uri;
+    private final SocketAddress address;
+    private final boolean unix;
+
+    private WorkerEndpoint(String uri, SocketAddress address, boolean unix) {
+        this.uri = uri;
+        this.address = address;
+        this.unix = unix;
+    }
+
+    public static WorkerEndpoint parse(String uri) {
+        String value = Objects.requireNonNull(uri, "endpoint").trim();
+        if (value.startsWith(TCP_PREFIX)) {
+            String hostPort = value.substring(TCP_PREFIX.length());
+            int colon = hostPort.lastIndexOf(':');
+            if (colon <= 0 || colon == hostPort.length() - 1) {
+                throw new IllegalArgumentException("Expected tcp://host:port but got " + uri);
+            }
+            try {
+                int port = Integer.parseInt(hostPort.substring(colon + 1));
+                return new WorkerEndpoint(value, new InetSocketAddress(hostPort.substring(0, colon), port), false);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid port in " + uri, e);
+            }
+        }
+        if (value.startsWith(UNIX_PREFIX)) {
+            String path = value.substring(UNIX_PREFIX.length());
+            while (path.startsWith("//")) {
+                path = path.substring(1);
+            }
+            if (path.isEmpty()) {
+                throw new IllegalArgumentException("Expected unix:/path/to/socket but got " + uri);
+            }
+            return new WorkerEndpoint(value, UnixDomainSocketAddress.of(Path.of(path)), true);
+        }
+        throw new IllegalArgumentException("Unsupported worker endpoint " + uri + " (use tcp:// or unix:)");
+    }
+
+    /**
+     * Opens a blocking channel to the worker. The connect itself runs non-blocking so a host that
+     * never answers costs at most the timeout; an interrupt gives up the same way.
+     */
+    SocketChannel connect(long timeoutMillis) throws IOException {
+        SocketChannel channel = unix ? SocketChannel.open(StandardProtocolFamily.UNIX) : SocketChannel.open();
+        try {
+            channel.configureBlocking(false);
+            if (!channel.connect(address)) {
+                long deadline = System.currentTimeMillis() + timeoutMillis;
+                try (Selector selector = Selector.open()) {
+                    channel.register(selector, SelectionKey.OP_CONNECT);
+                    while (!channel.finishConnect()) {
+                        long remaining = deadline - System.currentTimeMillis();
+                        if (remaining <= 0 || Thread.currentThread().isInterrupted()) {
+                            throw new SocketTimeoutException("No connection within " + timeoutMillis + " ms");
+                        }
+                        selector.select(remaining);
+                    }
+                }
+            }
+            // Closing the selector deregistered the channel, so it can block again
+            channel.configureBlocking(true);
+            if (!unix) {
+                channel.socket().setTcpNoDelay(true);
+            }
+            return channel;
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    ServerSocketChannel bind() throws IOException {
+        ServerSocketChannel server = unix ? ServerSocketChannel.open(StandardProtocolFamily.UNIX) : ServerSocketChannel.open();
+        server.bind(address);
+        return server;
+    }
+
+    public boolean isUnix() {
+        return unix;
+    }
+
+    /**
+     * Whether only processes on this host can reach the endpoint.
+     */
+    public boolean isLocal() {
+        if (unix) {
+            return true;
+        }
+        InetSocketAddress inet = (InetSocketAddress) address;
+        return inet.getAddress() != null && inet.getAddress().isLoopbackAddress();
+    }
+
+    public SocketAddress getAddress() {
+        return address;
+    }
+
+    @Override
+    public String toString() {
+        return uri;
+    }
+}
@@ -0,0 +1,312 @@
+package com.school.scheduling.algorithm.remote;
+
+import com.school.scheduling.algorithm.ConstraintSatisfactionProblem;
+import com.school.scheduling.algorithm.codec.SchedulingCodec;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+
+/**
+ * Wire format between the web application and solver workers.
+ * <p>
+ * A connection opens with the magic number and protocol version from each side. The worker then
+ * sends a random challenge and the coordinator answers with its HMAC-SHA256 under the secret both
+ * were configured with; the worker reads no frame before a correct answer and closes the
+ * connection on a wrong one. After that both sides exchange frames: a one-byte message type, an
+ * int payload length and the payload.
+ * Problems and genomes use the {@link SchedulingCodec} binary format. A genome holds, per variable,
+ * the index of the chosen value in that variable's domain (-1 when unassigned). Both sides build the same {@code GenomeEncoding}
+ * from the loaded problem, which orders variables by id and keeps domain order, so
+ * genomes mean the same thing on both ends.
+ * <p>
+ * Messages from the coordinator: LOAD (problem snapshot), SOLVE (stage, budget, report interval,
+ * starting genome), CANCEL and BYE. Messages from a worker: LOADED, INCUMBENT (a new best during
+ * a solve), RESULT (final best of a solve) and ERROR.
+ */
+public final class WorkerProtocol {
+
+    public static final int MAGIC = 0x53435752; // "SCWR"
+    public static final int VERSION = 3;
+
+    // Refuse anything larger than this instead of allocating whatever a peer claims; a compiled
+    // semester problem is a few megabytes
+    static final int MAX_FRAME_BYTES = 32 * 1024 * 1024;
+    static final int CHALLENGE_BYTES = 32;
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private WorkerProtocol() {
+    }
+
+    public enum MessageType {
+        LOAD, LOADED, SOLVE, INCUMBENT, RESULT, CANCEL, ERROR, BYE;
+
+        private static final MessageType[] VALUES = values();
+
+        static MessageType fromCode(int code) throws IOException {
+            if (code < 0 || code >= VALUES.length) {
+                throw new IOException("Unknown message type " + code);
+            }
+            return VALUES[code];
+        }
+    }
+
+    // Framing
+    static void writeHandshake(DataOutputStream out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        out.flush();
+    }
+
+    static void readHandshake(DataInputStream in) throws IOException {
+        int magic = in.readInt();
+        int version = in.readUnsignedByte();
+        if (magic != MAGIC) {
+            throw new IOException("Not a solver worker connection");
+        }
+        if (version != VERSION) {
+            throw new IOException("Unsupported protocol version " + version + ", expected " + VERSION);
+        }
+    }
+
+    /**
+     * Sends a fresh challenge and returns it for {@link #verifyAnswer}.
+     */
+    static byte[] writeChallenge(DataOutputStream out) throws IOException {
+        byte[] challenge = new byte[CHALLENGE_BYTES];
+        RANDOM.nextBytes(challenge);
+        out.write(challenge);
+        out.flush();
+        return challenge;
+    }
+
+    static void answerChallenge(DataInputStream in, DataOutputStream out, String secret) throws IOException {
+        byte[] challenge = new byte[CHALLENGE_BYTES];
+        in.readFully(challenge);
+        out.write(hmac(secret, challenge));
+        out.flush();
+    }
+
+    static boolean verifyAnswer(DataInputStream in, byte[] challenge, String secret) throws IOException {
+        byte[] answer = new byte[CHALLENGE_BYTES];
+        in.readFully(answer);
+        return MessageDigest.isEqual(answer, hmac(secret, challenge));
+    }
+
+    private static byte[] hmac(String secret, byte[] challenge) throws IOException {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            return mac.doFinal(challenge);
+        } catch (GeneralSecurityException e) {
+            throw new IOException("Cannot authenticate worker connection", e);
+        }
+    }
+
+    static void writeFrame(DataOutputStream out, MessageType type, byte[] payload) throws IOException {
+        out.writeByte(type.ordinal());
+        out.writeInt(payload.length);
+        out.write(payload);
+        out.flush();
+    }
+
+    static Frame readFrame(DataInputStream in) throws IOException {
+        MessageType type = MessageType.fromCode(in.readUnsignedByte());
+        int length = in.readInt();
+        if (length < 0 || length > MAX_FRAME_BYTES) {
+            throw new IOException("Invalid frame length " + length);
+        }
+        byte[] payload = new byte[length];
+        in.readFully(payload);
+        return new Frame(type, payload);
+    }
+
+    /**
+     * Stream over a blocking socket channel. Unlike {@code Channels.newInputStream}, reads do not
+     * hold the channel's blocking lock, so another thread can write while one is blocked reading.
+     */
+    static InputStream inputStream(SocketChannel channel) {
+        return new InputStream() {
+            @Override
+            public int read() throws IOException {
+                byte[] single = new byte[1];
+                return read(single, 0, 1) < 0 ? -1 : single[0] & 0xff;
+            }
+
+            @Override
+            public int read(byte[] buffer, int offset, int length) throws IOException {
+                return length == 0 ? 0 : channel.read(ByteBuffer.wrap(buffer, offset, length));
+            }
+        };
+    }
+
+    static OutputStream outputStream(SocketChannel channel) {
+        return new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                write(new byte[] {(byte) b}, 0, 1);
+            }
+
+            @Override
+            public void write(byte[] buffer, int offset, int length) throws IOException {
+                ByteBuffer bytes = ByteBuffer.wrap(buffer, offset, length);
+                while (bytes.hasRemaining()) {
+                    channel.write(bytes);
+                }
+            }
+        };
+    }
+
+    // Problem snapshots
+    /**
+     * Problems travel in the {@link SchedulingCodec} problem format, which keeps the variable
+     * order and domain order the genomes rely on. Constraints carry their own data, so the worker
+     * needs nothing but the application classes to rebuild it.
+     */
+    static byte[] encodeProblem(ConstraintSatisfactionProblem csp) throws IOException {
+        try {
+            return SchedulingCodec.encodeProblem(csp);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Problem cannot be sent to a worker: " + e.getMessage(), e);
+        }
+    }
+
+    static ConstraintSatisfactionProblem decodeProblem(byte[] payload) throws IOException {
+        try {
+            return SchedulingCodec.decodeProblem(ByteBuffer.wrap(payload));
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Problem snapshot does not match the worker's classes", e);
+        }
+    }
+
+    // Solve requests and results
+    static byte[] encodeSolve(SolveRequest request) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeUTF(request.getStage());
+        out.writeLong(request.getBudgetMs());
+        out.writeInt(request.getReportIntervalMs());
+        writeGenome(out, request.getGenome());
+        return bytes.toByteArray();
+    }
+
+    static SolveRequest decodeSolve(byte[] payload) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        return new SolveRequest(in.readUTF(), in.readLong(), in.readInt(), readGenome(in));
+    }
+
+    static byte[] encodeIncumbent(Incumbent incumbent) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(incumbent.getHardViolations());
+        out.writeInt(incumbent.getSoftViolations());
+        out.writeInt(incumbent.getUnassigned());
+        out.writeLong(incumbent.getNodes());
+        writeGenome(out, incumbent.getGenome());
+        return bytes.toByteArray();
+    }
+
+    static Incumbent decodeIncumbent(byte[] payload) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        return new Incumbent(in.readInt(), in.readInt(), in.readInt(), in.readLong(), readGenome(in));
+    }
+
+    static byte[] encodeText(String text) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        new DataOutputStream(bytes).writeUTF(text != null ? text : "");
+        return bytes.toByteArray();
+    }
+
+    static String decodeText(byte[] payload) throws IOException {
+        return new DataInputStream(new ByteArrayInputStream(payload)).readUTF();
+    }
+
+    private static void writeGenome(DataOutputStream out, int[] genome) throws IOException {
+        byte[] encoded = SchedulingCodec.encodeGenome(genome);
+        out.writeInt(encoded.length);
+        out.write(encoded);
+    }
+
+    private static int[] readGenome(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0 || length > MAX_FRAME_BYTES) {
+            throw new IOException("Invalid genome length " + length);
+        }
+        byte[] encoded = new byte[length];
+        in.readFully(encoded);
+        try {
+            return SchedulingCodec.decodeGenome(ByteBuffer.wrap(encoded));
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Malformed genome: " + e.getMessage(), e);
+        }
+    }
+
+    // Helper classes
+    static class Frame {
+        private final MessageType type;
+        private final byte[] payload;
+
+        Frame(MessageType type, byte[] payload) {
+            this.type = type;
+            this.payload = payload;
+        }
+
+        MessageType getType() { return type; }
+        byte[] getPayload() { return payload; }
+    }
+
+    /**
+     * One unit of work: run a stage from a starting genome (null for a fresh start) for a budget,
+     * reporting new bests at most every reportIntervalMs.
+     */
+    static class SolveRequest {
+        private final String stage;
+        private final long budgetMs;
+        private final int reportIntervalMs;
+        private final int[] genome;
+
+        SolveRequest(String stage, long budgetMs, int reportIntervalMs, int[] genome) {
+            this.stage = stage;
+            this.budgetMs = budgetMs;
+            this.reportIntervalMs = reportIntervalMs;
+            this.genome = genome;
+        }
+
+        String getStage() { return stage; }
+        long getBudgetMs() { return budgetMs; }
+        int getReportIntervalMs() { return reportIntervalMs; }
+        int[] getGenome() { return genome; }
+    }
+
+    /**
+     * Best genome of a worker with its violation counts and the nodes explored so far in the solve.
+     */
+    static class Incumbent {
+        private final int hardViolations;
+        private final int softViolations;
+        private final int unassigned;
+        private final long nodes;
+        private final int[] genome;
+
+        Incumbent(int hardViolations, int softViolations, int unassigned, long nodes, int[] genome) {
+            this.hardViolations = hardViolations;
+            this.softViolations = softViolations;
+            this.unassigned = unassigned;
+            this.nodes = nodes;
+            this.genome = genome;
+        }
+
+        int getHardViolations() { return hardViolations; }
+        int getSoftViolations() { return softViolations; }
+        int getUnassigned() { return unassigned; }
+        long getNodes() { return nodes; }
+        int[] getGenome() { return genome; }
+    }
+}
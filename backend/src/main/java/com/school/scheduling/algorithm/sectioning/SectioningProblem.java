@@ -0,0 +1,194 @@
+package com.school.scheduling.algorithm.sectioning;
+
+import com.school.scheduling.algorithm.WeeklyOccupancy;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.*;
+
+/**
+ * Input of a batch sectioning run: the sections of each course with their capacity and weekly
+ * meetings, the courses each student asks for, the courses they have completed and the
+ * prerequisites between courses. Entities are referenced by their database ids and numbered
+ * densely in the order they are first seen; {@link StudentSectioningEngine} works on the numbers.
+ * <p>
+ * The problem is filled once and then read-only; the engine builds its arrays on first use.
+ */
+public class SectioningProblem {
+
+    private final Map<Long, Integer> courseIndex = new HashMap<>();
+    private final Map<Long, Integer> sectionIndex = new HashMap<>();
+    private final Map<Long, Integer> studentIndex = new HashMap<>();
+
+    private final List<Long> sectionIds = new ArrayList<>();
+    private final List<Integer> sectionCourses = new ArrayList<>();
+    private final List<Integer> sectionCapacities = new ArrayList<>();
+    private long[] sectionWeeks = new long[16 * WeeklyOccupancy.WORDS];
+
+    private final List<Long> studentIds = new ArrayList<>();
+    private final List<Set<Integer>> completedCourses = new ArrayList<>();
+    private final Map<Integer, Set<Integer>> prerequisites = new HashMap<>();
+
+    private final List<Long> requestIds = new ArrayList<>();
+    private final List<Integer> requestStudents = new ArrayList<>();
+    private final List<Integer> requestCourses = new ArrayList<>();
+    private final List<Integer> requestPreferred = new ArrayList<>();
+
+    private Index index;
+
+    public void addSection(long sectionId, long courseId, int capacity) {
+        checkOpen();
+        if (sectionIndex.containsKey(sectionId)) {
+            throw new IllegalArgumentException("Duplicate section: " + sectionId);
+        }
+        sectionIndex.put(sectionId, sectionIds.size());
+        sectionIds.add(sectionId);
+        sectionCourses.add(course(courseId));
+        sectionCapacities.add(Math.max(0, capacity));
+        if (sectionIds.size() * WeeklyOccupancy.WORDS > sectionWeeks.length) {
+            sectionWeeks = Arrays.copyOf(sectionWeeks, sectionWeeks.length * 2);
+        }
+    }
+
+    public void setCapacity(long sectionId, int capacity) {
+        checkOpen();
+        sectionCapacities.set(section(sectionId), Math.max(0, capacity));
+    }
+
+    /**
+     * Adds a weekly meeting of a section that was added before.
+     */
+    public void addMeeting(long sectionId, DayOfWeek day, LocalTime start, LocalTime end) {
+        checkOpen();
+        WeeklyOccupancy.set(sectionWeeks, section(sectionId) * WeeklyOccupancy.WORDS, day, start, end);
+    }
+
+    public void addCompletedCourse(long studentId, long courseId) {
+        checkOpen();
+        completedCourses.get(student(studentId)).add(course(courseId));
+    }
+
+    public void addPrerequisite(long courseId, long prerequisiteCourseId) {
+        checkOpen();
+        prerequisites.computeIfAbsent(course(courseId), c -> new HashSet<>()).add(course(prerequisiteCourseId));
+    }
+
+    /**
+     * Asks for a seat in any section of a course, the given section if possible
+     * ({@code null} for no preference). Returns the request number.
+     */
+    public int addRequest(long requestId, long studentId, long courseId, Long preferredSectionId) {
+        checkOpen();
+        Integer preferred = preferredSectionId != null ? sectionIndex.get(preferredSectionId) : null;
+        int course = course(courseId);
+        requestIds.add(requestId);
+        requestStudents.add(student(studentId));
+        requestCourses.add(course);
+        requestPreferred.add(preferred != null && sectionCourses.get(preferred) == course ? preferred : -1);
+        return requestIds.size() - 1;
+    }
+
+    public int getStudentCount() { return studentIds.size(); }
+    public int getSectionCount() { return sectionIds.size(); }
+    public int getRequestCount() { return requestIds.size(); }
+    public long getStudentId(int student) { return studentIds.get(student); }
+    public long getSectionId(int section) { return sectionIds.get(section); }
+    public long getRequestId(int request) { return requestIds.get(request); }
+    public int getRequestStudent(int request) { return requestStudents.get(request); }
+
+    private int course(long courseId) {
+        return courseIndex.computeIfAbsent(courseId, id -> courseIndex.size());
+    }
+
+    private int section(long sectionId) {
+        Integer section = sectionIndex.get(sectionId);
+        if (section == null) {
+            throw new IllegalArgumentException("Unknown section: " + sectionId);
+        }
+        return section;
+    }
+
+    private int student(long studentId) {
+        Integer student = studentIndex.get(studentId);
+        if (student == null) {
+            student = studentIds.size();
+            studentIndex.put(studentId, student);
+            studentIds.add(studentId);
+            completedCourses.add(new HashSet<>());
+        }
+        return student;
+    }
+
+    private void checkOpen() {
+        if (index != null) {
+            throw new IllegalStateException("Sectioning problem is already in use");
+        }
+    }
+
+    synchronized Index index() {
+        if (index == null) {
+            index = new Index();
+        }
+        return index;
+    }
+
+    /**
+     * The problem as flat arrays, with compressed rows for the sections of a course and the
+     * requests of a student.
+     */
+    final class Index {
+        final int studentCount = studentIds.size();
+        final int sectionCount = sectionIds.size();
+        final int requestCount = requestIds.size();
+        final int[] sectionCourse = toArray(sectionCourses);
+        final int[] capacity = toArray(sectionCapacities);
+        final long[] sectionWeek = sectionWeeks;
+        final int[] requestStudent = toArray(requestStudents);
+        final int[] requestCourse = toArray(requestCourses);
+        final int[] preferred = toArray(requestPreferred);
+        final int[] courseSectionStart;
+        final int[] courseSections;
+        final int[] studentRequestStart;
+        final int[] studentRequests;
+        final boolean[] eligible;
+
+        private Index() {
+            int courseCount = courseIndex.size();
+            courseSectionStart = new int[courseCount + 1];
+            courseSections = group(sectionCourse, courseSectionStart);
+            studentRequestStart = new int[studentCount + 1];
+            studentRequests = group(requestStudent, studentRequestStart);
+
+            // A request is eligible when the student completed every direct prerequisite
+            eligible = new boolean[requestCount];
+            for (int r = 0; r < requestCount; r++) {
+                Set<Integer> required = prerequisites.getOrDefault(requestCourse[r], Collections.emptySet());
+                eligible[r] = completedCourses.get(requestStudent[r]).containsAll(required);
+            }
+        }
+
+        int sectionsOf(int course) {
+            return courseSectionStart[course + 1] - courseSectionStart[course];
+        }
+    }
+
+    // Counting sort of the items by key; start[k]..start[k+1] delimits key k, items stay in order
+    private static int[] group(int[] keys, int[] start) {
+        for (int key : keys) {
+            start[key + 1]++;
+        }
+        for (int k = 1; k < start.length; k++) {
+            start[k] += start[k - 1];
+        }
+        int[] next = Arrays.copyOf(start, start.length - 1);
+        int[] items = new int[keys.length];
+        for (int item = 0; item < keys.length; item++) {
+            items[next[keys[item]]++] = item;
+        }
+        return items;
+    }
+
+    private static int[] toArray(List<Integer> values) {
+        return values.stream().mapToInt(Integer::intValue).toArray();
+    }
+}
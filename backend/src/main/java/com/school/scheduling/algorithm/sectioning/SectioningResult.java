@@ -0,0 +1,104 @@
+package com.school.scheduling.algorithm.sectioning;
+
+import java.util.*;
+
+/**
+ * Outcome of a sectioning run: the section of every placed request and the reason each of the
+ * others stayed unplaced.
+ */
+public class SectioningResult {
+
+    /**
+     * Why a request could not be placed.
+     */
+    public enum Reason {
+        /** The student has not completed the course's prerequisites. */
+        NOT_ELIGIBLE,
+        /** The course has no section this semester. */
+        NO_SECTION,
+        /** Every section clashes with the student's other classes. */
+        TIME_CONFLICT,
+        /** A section fits the student's week but all of those are full. */
+        FULL
+    }
+
+    private final SectioningProblem problem;
+    private final int[] sectionOf;
+    private final Reason[] reasons;
+    private final int placedCount;
+    private final int preferredCount;
+    private final long executionTimeMs;
+
+    SectioningResult(SectioningProblem problem, int[] sectionOf, Reason[] reasons, long executionTimeMs) {
+        this.problem = problem;
+        this.sectionOf = sectionOf;
+        this.reasons = reasons;
+        this.executionTimeMs = executionTimeMs;
+
+        SectioningProblem.Index index = problem.index();
+        int placed = 0;
+        int preferred = 0;
+        for (int r = 0; r < sectionOf.length; r++) {
+            if (sectionOf[r] >= 0) {
+                placed++;
+                if (sectionOf[r] == index.preferred[r]) preferred++;
+            }
+        }
+        this.placedCount = placed;
+        this.preferredCount = preferred;
+    }
+
+    public boolean isPlaced(int request) {
+        return sectionOf[request] >= 0;
+    }
+
+    /**
+     * Id of the section the request was placed in, or null.
+     */
+    public Long getSectionId(int request) {
+        return sectionOf[request] >= 0 ? problem.getSectionId(sectionOf[request]) : null;
+    }
+
+    /**
+     * Why the request is unplaced, or null when it is placed.
+     */
+    public Reason getReason(int request) {
+        return reasons[request];
+    }
+
+    /**
+     * Section ids per student id, in request order.
+     */
+    public Map<Long, List<Long>> getStudentSections() {
+        Map<Long, List<Long>> sections = new LinkedHashMap<>();
+        for (int r = 0; r < sectionOf.length; r++) {
+            if (sectionOf[r] >= 0) {
+                sections.computeIfAbsent(problem.getStudentId(problem.getRequestStudent(r)), id -> new ArrayList<>())
+                    .add(problem.getSectionId(sectionOf[r]));
+            }
+        }
+        return sections;
+    }
+
+    public int getRequestCount() { return sectionOf.length; }
+    public int getPlacedCount() { return placedCount; }
+    public int getUnplacedCount() { return sectionOf.length - placedCount; }
+    public int getPreferredCount() { return preferredCount; }
+    public long getExecutionTimeMs() { return executionTimeMs; }
+
+    public int countUnplaced(Reason reason) {
+        int count = 0;
+        for (Reason unplaced : reasons) {
+            if (unplaced == reason) count++;
+        }
+        return count;
+    }
+
+    public String getSummary() {
+        return String.format("Sectioning: %d/%d requests placed (%d in the requested section), " +
+                             "%d time conflicts, %d full, %d not eligible, %d without section, Time: %dms",
+                             placedCount, sectionOf.length, preferredCount, countUnplaced(Reason.TIME_CONFLICT),
+                             countUnplaced(Reason.FULL), countUnplaced(Reason.NOT_ELIGIBLE),
+                             countUnplaced(Reason.NO_SECTION), executionTimeMs);
+    }
+}
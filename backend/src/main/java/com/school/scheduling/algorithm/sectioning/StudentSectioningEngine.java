@@ -0,0 +1,390 @@
+package com.school.scheduling.algorithm.sectioning;
+
+import com.school.scheduling.algorithm.SolverExecutor;
+import com.school.scheduling.algorithm.WeeklyOccupancy;
+
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.IntStream;
+
+/**
+ * Places the course requests of every student of a semester into concrete sections, minimizing
+ * the number of requests left unplaced. Every student's week is a quarter-hour bitmask (see
+ * {@link WeeklyOccupancy}), so testing a section against a schedule is a handful of word ANDs.
+ * <ol>
+ *   <li>Choose, in parallel: each student independently picks the clash-free combination of
+ *   sections that places most requests, by a bounded depth-first search over the most constrained
+ *   course first. The requested section is tried first, then the sections least in demand.</li>
+ *   <li>Admit: choices take seats in order of how few alternatives their course has; a choice
+ *   finding its section full is left for repair.</li>
+ *   <li>Repair: an unplaced request takes a free clash-free section, or makes room by moving
+ *   another student out of a full section into a different section of the same course, or by
+ *   moving one of the student's own clashing classes to another section. No move ever unplaces
+ *   a request, so each round can only lower the number of conflicts.</li>
+ * </ol>
+ * Only section capacities couple students, and only the sequential admit and repair phases see
+ * them, so runs are deterministic regardless of parallelism.
+ */
+public class StudentSectioningEngine {
+
+    private final int parallelism;
+    private final int repairRounds;
+    private final int searchLimit;
+
+    public StudentSectioningEngine() {
+        this(Runtime.getRuntime().availableProcessors(), 3, 2_000);
+    }
+
+    /**
+     * @param searchLimit search nodes per student before the best combination found so far is taken
+     */
+    public StudentSectioningEngine(int parallelism, int repairRounds, int searchLimit) {
+        this.parallelism = Math.max(1, parallelism);
+        this.repairRounds = Math.max(0, repairRounds);
+        this.searchLimit = Math.max(1, searchLimit);
+    }
+
+    public SectioningResult section(SectioningProblem problem) {
+        long startTime = System.currentTimeMillis();
+        SectioningProblem.Index index = problem.index();
+        Run run = new Run(index);
+
+        if (parallelism > 1) {
+            try {
+                SolverExecutor.shared()
+                    .submit(() -> IntStream.range(0, index.studentCount).parallel().forEach(run::choose)).get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Sectioning failed", e.getCause());
+            }
+        } else {
+            IntStream.range(0, index.studentCount).forEach(run::choose);
+        }
+
+        run.admit();
+        // Each round may free the seats or times the next one needs
+        for (int round = 0; round < repairRounds; round++) {
+            if (run.repair() == 0) break;
+        }
+        return new SectioningResult(problem, run.sectionOf, run.reasons(), System.currentTimeMillis() - startTime);
+    }
+
+    /**
+     * State of one run. Week bits, seats and members only change in the sequential phases.
+     */
+    private final class Run {
+        private static final int W = WeeklyOccupancy.WORDS;
+
+        private final SectioningProblem.Index index;
+        private final int[] choice;
+        private final int[] sectionOf;
+        private final long[] week;
+        private final int[] remaining;
+        private final int[][] members;
+        private final int[] memberCount;
+
+        // Sections of each course, least demanded first, and each section's position there
+        private final int[] sortedSections;
+        private final int[] position;
+
+        Run(SectioningProblem.Index index) {
+            this.index = index;
+            this.choice = new int[index.requestCount];
+            this.sectionOf = new int[index.requestCount];
+            Arrays.fill(choice, -1);
+            Arrays.fill(sectionOf, -1);
+            this.week = new long[index.studentCount * W];
+            this.remaining = index.capacity.clone();
+            this.members = new int[index.sectionCount][];
+            this.memberCount = new int[index.sectionCount];
+            for (int section = 0; section < index.sectionCount; section++) {
+                members[section] = new int[index.capacity[section]];
+            }
+
+            // Expected demand per seat: requests naming the section plus a fair share of the others
+            double[] pressure = new double[index.sectionCount];
+            for (int r = 0; r < index.requestCount; r++) {
+                int course = index.requestCourse[r];
+                if (index.preferred[r] >= 0) {
+                    pressure[index.preferred[r]] += 1.0;
+                } else {
+                    double share = 1.0 / Math.max(1, index.sectionsOf(course));
+                    for (int k = index.courseSectionStart[course]; k < index.courseSectionStart[course + 1]; k++) {
+                        pressure[index.courseSections[k]] += share;
+                    }
+                }
+            }
+            this.sortedSections = index.courseSections.clone();
+            this.position = new int[index.sectionCount];
+            for (int course = 0; course + 1 < index.courseSectionStart.length; course++) {
+                int from = index.courseSectionStart[course];
+                int to = index.courseSectionStart[course + 1];
+                Integer[] sections = new Integer[to - from];
+                for (int k = from; k < to; k++) {
+                    sections[k - from] = sortedSections[k];
+                }
+                Arrays.sort(sections, Comparator.comparingDouble(
+                    (Integer s) -> pressure[s] / Math.max(1, index.capacity[s])).thenComparingInt(s -> s));
+                for (int k = from; k < to; k++) {
+                    sortedSections[k] = sections[k - from];
+                    position[sortedSections[k]] = k - from;
+                }
+            }
+        }
+
+        int candidateCount(int request) {
+            return index.sectionsOf(index.requestCourse[request]);
+        }
+
+        // The requested section first, then the course's sections least demanded first
+        int candidate(int request, int k) {
+            int from = index.courseSectionStart[index.requestCourse[request]];
+            int preferred = index.preferred[request];
+            if (preferred < 0) return sortedSections[from + k];
+            if (k == 0) return preferred;
+            int j = k - 1;
+            return sortedSections[from + (j >= position[preferred] ? j + 1 : j)];
+        }
+
+        boolean placeable(int request) {
+            return index.eligible[request] && candidateCount(request) > 0;
+        }
+
+        // Phase 1, one student; touches only the student's own entries of choice
+        void choose(int student) {
+            int from = index.studentRequestStart[student];
+            int to = index.studentRequestStart[student + 1];
+            int[] requests = new int[to - from];
+            int n = 0;
+            for (int k = from; k < to; k++) {
+                int request = index.studentRequests[k];
+                if (placeable(request)) {
+                    requests[n++] = request;
+                }
+            }
+            if (n == 0) return;
+
+            // Most constrained course first
+            int[] ordered = Arrays.copyOf(requests, n);
+            for (int i = 1; i < n; i++) {
+                int request = ordered[i];
+                int j = i - 1;
+                while (j >= 0 && candidateCount(ordered[j]) > candidateCount(request)) {
+                    ordered[j + 1] = ordered[j];
+                    j--;
+                }
+                ordered[j + 1] = request;
+            }
+
+            StudentSearch search = new StudentSearch(ordered);
+            search.run(0, 0, 0);
+            for (int i = 0; i < n; i++) {
+                choice[ordered[i]] = search.best[i];
+            }
+        }
+
+        /**
+         * Depth-first search over one student's requests for the clash-free combination that
+         * places most of them, then keeps most in their requested section.
+         */
+        private final class StudentSearch {
+            private final int[] requests;
+            private final int[] current;
+            private final int[] best;
+            private final long[] mask = new long[W];
+            private long bestScore = -1;
+            private int nodes = 0;
+
+            StudentSearch(int[] requests) {
+                this.requests = requests;
+                this.current = new int[requests.length];
+                this.best = new int[requests.length];
+                Arrays.fill(best, -1);
+            }
+
+            void run(int depth, int placed, int preferred) {
+                int n = requests.length;
+                int left = n - depth;
+                if (score(placed + left, preferred + left) <= bestScore || nodes++ >= searchLimit) return;
+                if (depth == n) {
+                    bestScore = score(placed, preferred);
+                    System.arraycopy(current, 0, best, 0, n);
+                    return;
+                }
+
+                int request = requests[depth];
+                for (int k = 0; k < candidateCount(request); k++) {
+                    int section = candidate(request, k);
+                    if (WeeklyOccupancy.intersects(mask, 0, index.sectionWeek, section * W)) continue;
+                    WeeklyOccupancy.or(mask, 0, index.sectionWeek, section * W);
+                    current[depth] = section;
+                    run(depth + 1, placed + 1, preferred + (section == index.preferred[request] ? 1 : 0));
+                    WeeklyOccupancy.andNot(mask, 0, index.sectionWeek, section * W);
+                }
+                current[depth] = -1;
+                run(depth + 1, placed, preferred);
+            }
+
+            private long score(int placed, int preferred) {
+                return (long) placed * (requests.length + 1) + preferred;
+            }
+        }
+
+        // Phase 2: requests of courses with fewest sections take their seats first
+        void admit() {
+            Integer[] order = new Integer[index.requestCount];
+            for (int r = 0; r < order.length; r++) {
+                order[r] = r;
+            }
+            Arrays.sort(order, Comparator.comparingInt(this::candidateCount));
+            for (int request : order) {
+                int section = choice[request];
+                if (section >= 0 && remaining[section] > 0) {
+                    place(request, section);
+                }
+            }
+        }
+
+        // Phase 3: one pass over the unplaced requests; returns how many got placed
+        int repair() {
+            int placed = 0;
+            for (int request = 0; request < index.requestCount; request++) {
+                if (sectionOf[request] < 0 && placeable(request)
+                    && (placeFree(request) || placeByMovingOther(request) || placeByMovingOwn(request))) {
+                    placed++;
+                }
+            }
+            return placed;
+        }
+
+        private boolean placeFree(int request) {
+            int student = index.requestStudent[request];
+            for (int k = 0; k < candidateCount(request); k++) {
+                int section = candidate(request, k);
+                if (remaining[section] > 0 && fits(student, section)) {
+                    place(request, section);
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        // A full section that fits: move one of its students to another section of the course
+        private boolean placeByMovingOther(int request) {
+            int student = index.requestStudent[request];
+            for (int k = 0; k < candidateCount(request); k++) {
+                int section = candidate(request, k);
+                if (remaining[section] > 0 || !fits(student, section)) continue;
+
+                for (int m = 0; m < memberCount[section]; m++) {
+                    int other = members[section][m];
+                    int otherStudent = index.requestStudent[other];
+                    WeeklyOccupancy.andNot(week, otherStudent * W, index.sectionWeek, section * W);
+                    int alternative = freeAlternative(other, section);
+                    WeeklyOccupancy.or(week, otherStudent * W, index.sectionWeek, section * W);
+                    if (alternative >= 0) {
+                        unplace(other);
+                        place(other, alternative);
+                        place(request, section);
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        // A free section clashing with one own class: move that class to another of its sections
+        private boolean placeByMovingOwn(int request) {
+            int student = index.requestStudent[request];
+            int from = index.studentRequestStart[student];
+            int to = index.studentRequestStart[student + 1];
+            for (int k = 0; k < candidateCount(request); k++) {
+                int section = candidate(request, k);
+                if (remaining[section] == 0) continue;
+
+                int clashing = -1;
+                int clashes = 0;
+                for (int i = from; i < to && clashes < 2; i++) {
+                    int own = index.studentRequests[i];
+                    if (sectionOf[own] >= 0
+                        && WeeklyOccupancy.intersects(index.sectionWeek, sectionOf[own] * W, index.sectionWeek, section * W)) {
+                        clashing = own;
+                        clashes++;
+                    }
+                }
+                if (clashes != 1) continue;
+
+                int original = sectionOf[clashing];
+                unplace(clashing);
+                place(request, section);
+                int alternative = freeAlternative(clashing, original);
+                if (alternative >= 0) {
+                    place(clashing, alternative);
+                    return true;
+                }
+                unplace(request);
+                place(clashing, original);
+            }
+            return false;
+        }
+
+        // A section of the request's course other than the excluded one with a seat that fits
+        private int freeAlternative(int request, int excluded) {
+            int student = index.requestStudent[request];
+            for (int k = 0; k < candidateCount(request); k++) {
+                int section = candidate(request, k);
+                if (section != excluded && remaining[section] > 0 && fits(student, section)) {
+                    return section;
+                }
+            }
+            return -1;
+        }
+
+        private boolean fits(int student, int section) {
+            return !WeeklyOccupancy.intersects(week, student * W, index.sectionWeek, section * W);
+        }
+
+        private void place(int request, int section) {
+            sectionOf[request] = section;
+            remaining[section]--;
+            members[section][memberCount[section]++] = request;
+            WeeklyOccupancy.or(week, index.requestStudent[request] * W, index.sectionWeek, section * W);
+        }
+
+        private void unplace(int request) {
+            int section = sectionOf[request];
+            sectionOf[request] = -1;
+            remaining[section]++;
+            for (int m = 0; m < memberCount[section]; m++) {
+                if (members[section][m] == request) {
+                    members[section][m] = members[section][--memberCount[section]];
+                    break;
+                }
+            }
+            WeeklyOccupancy.andNot(week, index.requestStudent[request] * W, index.sectionWeek, section * W);
+        }
+
+        SectioningResult.Reason[] reasons() {
+            SectioningResult.Reason[] reasons = new SectioningResult.Reason[index.requestCount];
+            for (int request = 0; request < index.requestCount; request++) {
+                if (sectionOf[request] >= 0) continue;
+                if (!index.eligible[request]) {
+                    reasons[request] = SectioningResult.Reason.NOT_ELIGIBLE;
+                } else if (candidateCount(request) == 0) {
+                    reasons[request] = SectioningResult.Reason.NO_SECTION;
+                } else {
+                    reasons[request] = SectioningResult.Reason.TIME_CONFLICT;
+                    int student = index.requestStudent[request];
+                    for (int k = 0; k < candidateCount(request); k++) {
+                        if (fits(student, candidate(request, k))) {
+                            reasons[request] = SectioningResult.Reason.FULL;
+                            break;
+                        }
+                    }
+                }
+            }
+            return reasons;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.school.scheduling.algorithm.strategy;
+
+/**
+ * Reassigns a single variable to another value of its domain.
+ */
+public class ChangeMove extends Move {
+
+    private final int gene;
+    private final int value;
+
+    public ChangeMove(int gene, int value) {
+        this.gene = gene;
+        this.value = value;
+    }
+
+    @Override
+    public int size() {
+        return 1;
+    }
+
+    @Override
+    public int gene(int index) {
+        return gene;
+    }
+
+    @Override
+    public int value(int index) {
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return "ChangeMove{gene=" + gene + ", value=" + value + "}";
+    }
+}
@@ -1,15 +1,29 @@
 package com.school.scheduling.algorithm.strategy;
 
 import com.school.scheduling.algorithm.ConstraintSatisfactionProblem;
+import com.school.scheduling.algorithm.SolverExecutor;
 import com.school.scheduling.domain.constraint.*;
 
 import java.util.*;
-import java.util.concurrent.ThreadLocalRandom;
-import java.util.stream.Collectors;
+import java.util.concurrent.*;
+import java.util.stream.IntStream;
 
 /**
  * Genetic algorithm implementation for school scheduling optimization.
- * Uses population-based evolution to find optimal solutions.
+ * Uses population-based evolution to find optimal solutions. Sub-populations (islands)
+ * evolve on separate cores and exchange elites along a ring every few generations.
+ * Runs are deterministic for a given seed and island count.
+ *
+ * Individuals are int[] genomes (see {@link GenomeEncoding}) held in two pooled buffers
+ * per island; only the final best genome is decoded into a SchedulingAssignment.
+ * Each individual keeps an {@link IncrementalFitnessEvaluator.Tally}, so an offspring is
+ * scored from its parent's cached components plus the genes that differ; constraints without
+ * a scope are still re-validated in full. Fitness is the
+ * tally's {@link ScoreDirector} score folded into [0, 1].
+ *
+ * {@link #solvePareto(ConstraintSatisfactionProblem, long)} runs the same operators as NSGA-II
+ * instead: one population is ranked by non-dominated sorting over {@link ScheduleObjectives}
+ * with crowding distance as the tie-breaker, and the result is the whole first front.
  */
 public class GeneticAlgorithmStrategy {
 
@@ -18,6 +32,14 @@ public class GeneticAlgorithmStrategy {
     private final double mutationRate;
     private final double crossoverRate;
     private final double elitismRate;
+    private final int islandCount;
+    private final int migrationInterval;
+    private final int migrationSize;
+    private final long seed;
+
+    // Statistics from the last run
+    private int generationsCompleted = 0;
+    private long executionTimeMs = 0;
 
     public GeneticAlgorithmStrategy() {
         this(100, 50, 0.02, 0.8, 0.1);
@@ -25,298 +47,632 @@ public class GeneticAlgorithmStrategy {
 
     public GeneticAlgorithmStrategy(int populationSize, int generations,
                                   double mutationRate, double crossoverRate, double elitismRate) {
-        this.populationSize = populationSize;
+        this(populationSize, generations, mutationRate, crossoverRate, elitismRate,
+             4, 10, 2, System.nanoTime());
+    }
+
+    public GeneticAlgorithmStrategy(int populationSize, int generations,
+                                  double mutationRate, double crossoverRate, double elitismRate,
+                                  int islandCount, int migrationInterval, int migrationSize, long seed) {
+        this.populationSize = Math.max(2, populationSize);
         this.generations = generations;
         this.mutationRate = mutationRate;
         this.crossoverRate = crossoverRate;
         this.elitismRate = elitismRate;
+        this.islandCount = Math.max(1, islandCount);
+        this.migrationInterval = Math.max(1, migrationInterval);
+        this.migrationSize = Math.max(0, migrationSize);
+        this.seed = seed;
     }
 
     /**
-     * Solves CSP using genetic algorithm.
+     * Solves CSP using the island-model genetic algorithm.
      */
     public Optional<SchedulingAssignment> solve(ConstraintSatisfactionProblem csp) {
-        // Initialize population
-        List<SchedulingAssignment> population = initializePopulation(csp);
-
-        SchedulingAssignment bestSolution = null;
-        double bestFitness = Double.NEGATIVE_INFINITY;
-
-        // Evolution loop
-        for (int generation = 0; generation < generations; generation++) {
-            // Evaluate fitness
-            List<Double> fitnessScores = evaluatePopulation(population, csp);
-
-            // Track best solution
-            for (int i = 0; i < population.size(); i++) {
-                if (fitnessScores.get(i) > bestFitness) {
-                    bestFitness = fitnessScores.get(i);
-                    bestSolution = population.get(i).copy();
-                }
-            }
+        return solve(csp, Long.MAX_VALUE, SearchListener.NONE, null);
+    }
 
-            // Check for convergence
-            if (bestFitness >= 0.95) {
-                break;
+    /**
+     * Runs the island model until the generation limit or the deadline (epoch milliseconds), checked
+     * between migrations. Populations and random streams go to the listener at a migration barrier
+     * whenever it asks for a checkpoint; a run resumed from that state continues with the same
+     * populations and random streams.
+     */
+    public Optional<SchedulingAssignment> solve(ConstraintSatisfactionProblem csp, long deadlineMillis,
+                                                SearchListener listener, SearchState resume) {
+        long startTime = System.currentTimeMillis();
+        generationsCompleted = 0;
+
+        GenomeEncoding encoding = new GenomeEncoding(csp);
+        IncrementalFitnessEvaluator evaluator = new IncrementalFitnessEvaluator(encoding, csp);
+        boolean resuming = resume != null && resume.fits(encoding)
+            && resume.getPopulation() != null && resume.getPopulation().length == islandCount * (populationSize + 1)
+            && resume.getRandomStates() != null && resume.getRandomStates().length == islandCount;
+
+        // Each island owns its random stream, so results only depend on the seed and island count
+        Random seeder = new Random(seed);
+        List<Island> islands = new ArrayList<>();
+        for (int i = 0; i < islandCount; i++) {
+            islands.add(new Island(i, new SplitMixRandom(seeder.nextLong()), evaluator));
+            if (resuming) {
+                islands.get(i).random.setState(resume.getRandomStates()[i]);
             }
+        }
+        if (resuming) {
+            generationsCompleted = (int) Math.min(resume.getIteration(), generations);
+        }
 
-            // Selection
-            List<SchedulingAssignment> selected = selection(population, fitnessScores);
-
-            // Crossover and mutation
-            population = evolvePopulation(selected, csp);
+        // Migrants are double-buffered: islands read this epoch's arrivals and write the next
+        // epoch's, and the buffers swap at the barrier, so no island sees another's current epoch
+        int[][][] arrivals = new int[islandCount][][];
+        int[][][] departures = new int[islandCount][][];
+        ForkJoinPool pool = SolverExecutor.shared();
+
+        try {
+            int[][] saved = resuming ? resume.getPopulation() : null;
+            pool.submit(() -> islands.parallelStream().forEach(island -> island.initialize(saved))).get();
+
+            // Islands evolve independently between migrations; each epoch ends with a barrier
+            while (generationsCompleted < generations && bestOf(islands).bestFitness < 0.95
+                   && System.currentTimeMillis() < deadlineMillis) {
+                if (listener.checkpointDue()) {
+                    listener.checkpoint(captureState(islands, arrivals));
+                }
+                int epochLength = Math.min(migrationInterval, generations - generationsCompleted);
+
+                int[][][] incoming = arrivals;
+                int[][][] outgoing = departures;
+                pool.submit(() -> islands.parallelStream().forEach(island -> {
+                    island.acceptMigrants(incoming[island.index]);
+                    island.evolve(epochLength);
+                    if (islandCount > 1 && migrationSize > 0) {
+                        outgoing[(island.index + 1) % islandCount] = island.selectMigrants(migrationSize);
+                    }
+                })).get();
+                Arrays.fill(incoming, null);
+                arrivals = outgoing;
+                departures = incoming;
+
+                generationsCompleted += epochLength;
+                listener.nodesExplored((long) epochLength * populationSize * islandCount);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Genetic algorithm island failed", e.getCause());
+        } finally {
+            executionTimeMs = System.currentTimeMillis() - startTime;
         }
 
-        return Optional.ofNullable(bestSolution);
+        Island best = bestOf(islands);
+        return best.bestGenome != null ? Optional.of(encoding.decode(best.bestGenome)) : Optional.empty();
     }
 
-    private List<SchedulingAssignment> initializePopulation(ConstraintSatisfactionProblem csp) {
-        List<SchedulingAssignment> population = new ArrayList<>();
+    /**
+     * Multi-objective mode (NSGA-II). Parents and offspring share one pool of 2N tallies; each
+     * generation breeds N offspring by crowded binary tournament, scores them from their parents'
+     * tallies in parallel and keeps the best N of the pool by front and crowding distance. Hard
+     * score is a constraint: a less violating schedule dominates regardless of its objectives.
+     */
+    public ParetoFront solvePareto(ConstraintSatisfactionProblem csp) {
+        return solvePareto(csp, Long.MAX_VALUE);
+    }
 
-        for (int i = 0; i < populationSize; i++) {
-            population.add(generateRandomAssignment(csp));
+    /**
+     * As {@link #solvePareto(ConstraintSatisfactionProblem)}, stopping between generations once
+     * the deadline (epoch milliseconds) has passed or the thread is interrupted.
+     */
+    public ParetoFront solvePareto(ConstraintSatisfactionProblem csp, long deadlineMillis) {
+        long startTime = System.currentTimeMillis();
+        generationsCompleted = 0;
+
+        GenomeEncoding encoding = new GenomeEncoding(csp);
+        ParetoPopulation population = new ParetoPopulation(new ScoreDirector(encoding, csp),
+                                                           new ScheduleObjectives(encoding));
+        ForkJoinPool pool = SolverExecutor.shared();
+        try {
+            population.initialize(pool);
+            while (generationsCompleted < generations && System.currentTimeMillis() < deadlineMillis
+                   && !Thread.currentThread().isInterrupted()) {
+                population.evolve(pool);
+                generationsCompleted++;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Pareto evaluation failed", e.getCause());
+        } finally {
+            executionTimeMs = System.currentTimeMillis() - startTime;
         }
-
-        return population;
+        return population.front(generationsCompleted, executionTimeMs);
     }
 
-    private SchedulingAssignment generateRandomAssignment(ConstraintSatisfactionProblem csp) {
-        SchedulingAssignment assignment = new SchedulingAssignment();
-        Map<SchedulingVariable, List<SchedulingValue>> domains = csp.getDomains();
-
-        List<SchedulingVariable> variables = new ArrayList<>(domains.keySet());
-        Collections.shuffle(variables);
-
-        for (SchedulingVariable variable : variables) {
-            List<SchedulingValue> possibleValues = new ArrayList<>(domains.get(variable));
-            Collections.shuffle(possibleValues);
-
-            // Try to assign a value that doesn't violate constraints
-            for (SchedulingValue value : possibleValues) {
-                assignment.assign(variable, value);
-                if (isValidAssignment(assignment, csp)) {
-                    break;
-                }
-                assignment.unassign(variable);
+    /**
+     * Every island's population, best genome and random stream at a migration barrier. Pending migrants are
+     * delivered first; islands would take them in before evolving anyway, so the run is unchanged
+     * and the populations are all a resumed run needs.
+     */
+    private SearchState captureState(List<Island> islands, int[][][] arrivals) {
+        for (Island island : islands) {
+            island.acceptMigrants(arrivals[island.index]);
+            arrivals[island.index] = null;
+        }
+        // Each island contributes its population followed by its best genome so far
+        int[][] population = new int[islandCount * (populationSize + 1)][];
+        long[] randomStates = new long[islandCount];
+        for (Island island : islands) {
+            int offset = island.index * (populationSize + 1);
+            for (int i = 0; i < populationSize; i++) {
+                population[offset + i] = island.population[i].genome().clone();
             }
+            population[offset + populationSize] = island.bestGenome.clone();
+            randomStates[island.index] = island.random.getState();
         }
-
-        return assignment;
+        return SearchState.genetic(generationsCompleted, bestOf(islands).bestGenome, population, randomStates);
     }
 
-    private List<Double> evaluatePopulation(List<SchedulingAssignment> population,
-                                         ConstraintSatisfactionProblem csp) {
-        return population.stream()
-            .map(assignment -> calculateFitness(assignment, csp))
-            .collect(Collectors.toList());
+    private Island bestOf(List<Island> islands) {
+        return islands.stream()
+            .max(Comparator.comparingDouble((Island island) -> island.bestFitness)
+                .thenComparing(island -> -island.index))
+            .orElseThrow();
     }
 
-    private double calculateFitness(SchedulingAssignment assignment, ConstraintSatisfactionProblem csp) {
-        double fitness = 0.0;
-
-        // Constraint satisfaction (primary factor)
-        double constraintSatisfaction = calculateConstraintSatisfaction(assignment, csp);
-        fitness += constraintSatisfaction * 0.7;
+    /**
+     * A sub-population with its own random stream. Only touched by one thread at a time.
+     * Parents and offspring live in two fixed buffers that are swapped every generation.
+     */
+    private class Island {
+        private final int index;
+        private final SplitMixRandom random;
+        private final GenomeEncoding encoding;
+
+        private IncrementalFitnessEvaluator.Tally[] population;
+        private IncrementalFitnessEvaluator.Tally[] offspring;
+        private double[] fitnessScores;
+        private double[] offspringScores;
+        private final int[] parents;
+        private final int[] order;
+        private final int[] spareChild;
+
+        private int[] bestGenome;
+        private double bestFitness = Double.NEGATIVE_INFINITY;
+
+        Island(int index, SplitMixRandom random, IncrementalFitnessEvaluator evaluator) {
+            this.index = index;
+            this.random = random;
+            this.encoding = evaluator.getEncoding();
+            this.population = new IncrementalFitnessEvaluator.Tally[populationSize];
+            this.offspring = new IncrementalFitnessEvaluator.Tally[populationSize];
+            for (int i = 0; i < populationSize; i++) {
+                population[i] = evaluator.newTally();
+                offspring[i] = evaluator.newTally();
+            }
+            this.fitnessScores = new double[populationSize];
+            this.offspringScores = new double[populationSize];
+            this.parents = new int[populationSize];
+            this.order = new int[populationSize];
+            this.spareChild = new int[encoding.size()];
+        }
 
-        // Resource utilization (secondary factor)
-        double resourceUtilization = calculateResourceUtilization(assignment, csp);
-        fitness += resourceUtilization * 0.2;
+        /**
+         * Random population, or this island's share of a checkpointed one when given.
+         */
+        void initialize(int[][] saved) {
+            int offset = index * (populationSize + 1);
+            for (int i = 0; i < populationSize; i++) {
+                if (saved != null) {
+                    System.arraycopy(saved[offset + i], 0, population[i].genome(), 0, encoding.size());
+                } else {
+                    encoding.randomize(population[i].genome(), random);
+                }
+            }
+            IntStream.range(0, populationSize)
+                .parallel()
+                .forEach(i -> {
+                    population[i].evaluate();
+                    fitnessScores[i] = fitnessOf(population[i]);
+                });
+            if (saved != null) {
+                // The best so far may be an earlier individual with the same fitness as today's best
+                bestGenome = saved[offset + populationSize].clone();
+                IncrementalFitnessEvaluator.Tally scratch = offspring[0];
+                System.arraycopy(bestGenome, 0, scratch.genome(), 0, encoding.size());
+                scratch.evaluate();
+                bestFitness = fitnessOf(scratch);
+            }
+            trackBest();
+        }
 
-        // Solution quality (tertiary factor)
-        double solutionQuality = calculateSolutionQuality(assignment, csp);
-        fitness += solutionQuality * 0.1;
+        void evolve(int generationCount) {
+            for (int generation = 0; generation < generationCount && bestFitness < 0.95; generation++) {
+                sortByFitness(order, fitnessScores);
 
-        return Math.max(0, Math.min(1, fitness));
-    }
+                // Elites carry over unchanged together with their scores
+                int eliteCount = Math.min(populationSize, (int) (populationSize * elitismRate));
+                for (int i = 0; i < eliteCount; i++) {
+                    offspring[i].copyFrom(population[order[i]]);
+                    offspringScores[i] = fitnessScores[order[i]];
+                }
 
-    private double calculateConstraintSatisfaction(SchedulingAssignment assignment,
-                                                 ConstraintSatisfactionProblem csp) {
-        int satisfiedConstraints = 0;
-        int totalConstraints = csp.getConstraints().size();
+                // Tournament selection, crossover and mutation straight into the offspring buffer
+                for (int i = eliteCount; i < populationSize; i += 2) {
+                    int first = tournamentSelection();
+                    int second = tournamentSelection();
+                    int[] parent1 = population[first].genome();
+                    int[] parent2 = population[second].genome();
+                    int[] child1 = offspring[i].genome();
+                    int[] child2 = i + 1 < populationSize ? offspring[i + 1].genome() : spareChild;
+                    parents[i] = first;
+                    if (i + 1 < populationSize) {
+                        parents[i + 1] = second;
+                    }
+
+                    if (random.nextDouble() < crossoverRate) {
+                        GenomeEncoding.crossover(parent1, parent2, child1, child2, random);
+                    } else {
+                        System.arraycopy(parent1, 0, child1, 0, encoding.size());
+                        System.arraycopy(parent2, 0, child2, 0, encoding.size());
+                    }
+
+                    if (random.nextDouble() < mutationRate) {
+                        encoding.mutate(child1, random);
+                    }
+                    if (random.nextDouble() < mutationRate) {
+                        encoding.mutate(child2, random);
+                    }
+                }
 
-        for (SchedulingConstraint constraint : csp.getConstraints()) {
-            ConstraintResult result = constraint.validate(assignment);
-            if (result.isSatisfied()) {
-                satisfiedConstraints++;
+                evaluateOffspring(eliteCount);
+                swapBuffers();
+                trackBest();
             }
         }
 
-        return totalConstraints > 0 ? (double) satisfiedConstraints / totalConstraints : 1.0;
-    }
-
-    private double calculateResourceUtilization(SchedulingAssignment assignment,
-                                              ConstraintSatisfactionProblem csp) {
-        // Calculate how efficiently resources are being used
-        Map<SchedulingVariable, SchedulingValue> assignments = assignment.getAssignments();
+        int[][] selectMigrants(int count) {
+            sortByFitness(order, fitnessScores);
+            int[][] elites = new int[Math.min(count, populationSize)][];
+            for (int i = 0; i < elites.length; i++) {
+                elites[i] = population[order[i]].genome().clone();
+            }
+            return elites;
+        }
 
-        long teacherCount = assignments.values().stream()
-            .filter(v -> v.getType() == ValueType.TEACHER)
-            .distinct()
-            .count();
+        void acceptMigrants(int[][] incoming) {
+            if (incoming == null || incoming.length == 0) {
+                return;
+            }
 
-        long classroomCount = assignments.values().stream()
-            .filter(v -> v.getType() == ValueType.CLASSROOM)
-            .distinct()
-            .count();
+            // Migrants replace the weakest individuals
+            sortByFitness(order, fitnessScores);
+            for (int i = 0; i < incoming.length && i < populationSize; i++) {
+                int target = order[populationSize - 1 - i];
+                System.arraycopy(incoming[i], 0, population[target].genome(), 0, encoding.size());
+                population[target].evaluate();
+                fitnessScores[target] = fitnessOf(population[target]);
+            }
+        }
 
-        double teacherUtilization = Math.min(1.0, teacherCount / 10.0); // Assume 10 teachers available
-        double classroomUtilization = Math.min(1.0, classroomCount / 15.0); // Assume 15 classrooms available
+        private int tournamentSelection() {
+            int tournamentSize = 3;
+            int best = random.nextInt(populationSize);
 
-        return (teacherUtilization + classroomUtilization) / 2.0;
-    }
+            for (int i = 1; i < tournamentSize; i++) {
+                int candidate = random.nextInt(populationSize);
+                if (fitnessScores[candidate] > fitnessScores[best]) {
+                    best = candidate;
+                }
+            }
 
-    private double calculateSolutionQuality(SchedulingAssignment assignment,
-                                         ConstraintSatisfactionProblem csp) {
-        // Calculate solution quality metrics
-        double preferenceScore = 0.0;
-        int assignmentCount = assignment.getAssignments().size();
-
-        if (assignmentCount > 0) {
-            double totalPreference = assignment.getAssignments().values().stream()
-                .mapToDouble(SchedulingValue::getPreferenceScore)
-                .sum();
-            preferenceScore = totalPreference / assignmentCount;
+            return best;
         }
 
-        return preferenceScore;
-    }
+        /**
+         * Scores each child from its parent's tally in parallel.
+         * When called from an island task this runs on the island pool.
+         */
+        private void evaluateOffspring(int from) {
+            IntStream.range(from, populationSize)
+                .parallel()
+                .forEach(i -> {
+                    offspring[i].deriveFrom(population[parents[i]]);
+                    offspringScores[i] = fitnessOf(offspring[i]);
+                });
+        }
 
-    private List<SchedulingAssignment> selection(List<SchedulingAssignment> population,
-                                               List<Double> fitnessScores) {
-        List<SchedulingAssignment> selected = new ArrayList<>();
-        int eliteCount = (int) (populationSize * elitismRate);
+        private void swapBuffers() {
+            IncrementalFitnessEvaluator.Tally[] genomes = population;
+            population = offspring;
+            offspring = genomes;
 
-        // Elite selection
-        List<Integer> indices = new ArrayList<>();
-        for (int i = 0; i < fitnessScores.size(); i++) {
-            indices.add(i);
+            double[] scores = fitnessScores;
+            fitnessScores = offspringScores;
+            offspringScores = scores;
         }
 
-        indices.sort((i, j) -> Double.compare(fitnessScores.get(j), fitnessScores.get(i)));
+        private void trackBest() {
+            for (int i = 0; i < populationSize; i++) {
+                if (fitnessScores[i] > bestFitness) {
+                    bestFitness = fitnessScores[i];
+                    bestGenome = population[i].genome().clone();
+                }
+            }
+        }
+    }
 
-        for (int i = 0; i < eliteCount && i < indices.size(); i++) {
-            selected.add(population.get(indices.get(i)).copy());
+    /**
+     * NSGA-II state. Indices 0..N-1 of the pool are the parents, N..2N-1 the offspring buffers;
+     * objective values, violations, ranks and crowding distances are parallel primitive arrays.
+     */
+    private class ParetoPopulation {
+        private final GenomeEncoding encoding;
+        private final ScheduleObjectives objectives;
+        private final SplitMixRandom random = new SplitMixRandom(seed);
+        private final NonDominatedSorter sorter;
+        private final int[] parents;
+        private final int[] survivors;
+        private final boolean[] survived;
+        private final int[] spareChild;
+        private IncrementalFitnessEvaluator.Tally[] pool;
+        private IncrementalFitnessEvaluator.Tally[] nextPool;
+        private double[][] values;
+        private double[][] nextValues;
+        private double[] violation;
+        private double[] nextViolation;
+        private int[] rank;
+        private int[] nextRank;
+        private double[] crowding;
+        private double[] nextCrowding;
+
+        ParetoPopulation(ScoreDirector director, ScheduleObjectives objectives) {
+            this.encoding = director.getEncoding();
+            this.objectives = objectives;
+            int capacity = 2 * populationSize;
+            this.sorter = new NonDominatedSorter(capacity);
+            this.parents = new int[capacity];
+            this.survivors = new int[capacity];
+            this.survived = new boolean[capacity];
+            this.spareChild = new int[encoding.size()];
+            this.pool = new IncrementalFitnessEvaluator.Tally[capacity];
+            this.nextPool = new IncrementalFitnessEvaluator.Tally[capacity];
+            for (int i = 0; i < capacity; i++) {
+                pool[i] = director.newTally();
+            }
+            this.values = new double[objectives.count()][capacity];
+            this.nextValues = new double[objectives.count()][capacity];
+            this.violation = new double[capacity];
+            this.nextViolation = new double[capacity];
+            this.rank = new int[capacity];
+            this.nextRank = new int[capacity];
+            this.crowding = new double[capacity];
+            this.nextCrowding = new double[capacity];
         }
 
-        // Tournament selection for remaining
-        while (selected.size() < populationSize) {
-            SchedulingAssignment winner = tournamentSelection(population, fitnessScores);
-            selected.add(winner.copy());
+        void initialize(ForkJoinPool executor) throws InterruptedException, ExecutionException {
+            for (int i = 0; i < populationSize; i++) {
+                encoding.randomize(pool[i].genome(), random);
+            }
+            executor.submit(() -> IntStream.range(0, populationSize).parallel().forEach(i -> {
+                pool[i].evaluate();
+                score(i);
+            })).get();
+
+            int fronts = sorter.sort(values, violation, populationSize, rank);
+            for (int front = 0; front < fronts; front++) {
+                sorter.crowding(values, front, crowding);
+            }
         }
 
-        return selected;
-    }
+        void evolve(ForkJoinPool executor) throws InterruptedException, ExecutionException {
+            // Offspring by crowded binary tournament, crossover and mutation
+            for (int i = populationSize; i < 2 * populationSize; i += 2) {
+                int first = crowdedTournament();
+                int second = crowdedTournament();
+                int[] child1 = pool[i].genome();
+                int[] child2 = i + 1 < 2 * populationSize ? pool[i + 1].genome() : spareChild;
+                parents[i] = first;
+                if (i + 1 < 2 * populationSize) {
+                    parents[i + 1] = second;
+                }
 
-    private SchedulingAssignment tournamentSelection(List<SchedulingAssignment> population,
-                                                    List<Double> fitnessScores) {
-        int tournamentSize = 3;
-        SchedulingAssignment best = null;
-        double bestFitness = Double.NEGATIVE_INFINITY;
-
-        for (int i = 0; i < tournamentSize; i++) {
-            int index = ThreadLocalRandom.current().nextInt(population.size());
-            if (fitnessScores.get(index) > bestFitness) {
-                bestFitness = fitnessScores.get(index);
-                best = population.get(index);
+                if (random.nextDouble() < crossoverRate) {
+                    GenomeEncoding.crossover(pool[first].genome(), pool[second].genome(), child1, child2, random);
+                } else {
+                    System.arraycopy(pool[first].genome(), 0, child1, 0, encoding.size());
+                    System.arraycopy(pool[second].genome(), 0, child2, 0, encoding.size());
+                }
+                if (random.nextDouble() < mutationRate) {
+                    encoding.mutate(child1, random);
+                }
+                if (random.nextDouble() < mutationRate) {
+                    encoding.mutate(child2, random);
+                }
             }
-        }
 
-        return best;
-    }
+            executor.submit(() -> IntStream.range(populationSize, 2 * populationSize).parallel().forEach(i -> {
+                pool[i].deriveFrom(pool[parents[i]]);
+                score(i);
+            })).get();
 
-    private List<SchedulingAssignment> evolvePopulation(List<SchedulingAssignment> selected,
-                                                      ConstraintSatisfactionProblem csp) {
-        List<SchedulingAssignment> newPopulation = new ArrayList<>();
-        Collections.shuffle(selected);
+            selectSurvivors();
+        }
 
-        for (int i = 0; i < selected.size(); i += 2) {
-            SchedulingAssignment parent1 = selected.get(i);
-            SchedulingAssignment parent2 = (i + 1 < selected.size()) ? selected.get(i + 1) : selected.get(0);
+        /**
+         * Keeps whole fronts while they fit, then the least crowded members of the front that does not.
+         */
+        private void selectSurvivors() {
+            int size = 2 * populationSize;
+            int fronts = sorter.sort(values, violation, size, rank);
+            int[] order = sorter.order();
+            int kept = 0;
+            for (int front = 0; front < fronts && kept < populationSize; front++) {
+                sorter.crowding(values, front, crowding);
+                int from = sorter.frontStart(front);
+                int to = sorter.frontEnd(front);
+                if (to - from > populationSize - kept) {
+                    sortByKey(order, crowding, from, to - 1);
+                }
+                for (int i = from; i < to && kept < populationSize; i++) {
+                    survivors[kept++] = order[i];
+                }
+            }
 
-            if (ThreadLocalRandom.current().nextDouble() < crossoverRate) {
-                SchedulingAssignment[] offspring = crossover(parent1, parent2, csp);
-                newPopulation.add(offspring[0]);
-                if (offspring[1] != null) {
-                    newPopulation.add(offspring[1]);
+            // Survivors move to the front of the pool; the rest become next generation's offspring buffers
+            Arrays.fill(survived, false);
+            for (int i = 0; i < populationSize; i++) {
+                survived[survivors[i]] = true;
+            }
+            int next = populationSize;
+            for (int i = 0; i < size; i++) {
+                if (!survived[i]) {
+                    survivors[next++] = i;
+                }
+            }
+            for (int i = 0; i < size; i++) {
+                int from = survivors[i];
+                nextPool[i] = pool[from];
+                nextViolation[i] = violation[from];
+                nextRank[i] = rank[from];
+                nextCrowding[i] = crowding[from];
+                for (int m = 0; m < values.length; m++) {
+                    nextValues[m][i] = values[m][from];
                 }
-            } else {
-                newPopulation.add(parent1.copy());
-                newPopulation.add(parent2.copy());
             }
+            IncrementalFitnessEvaluator.Tally[] tallies = pool;
+            pool = nextPool;
+            nextPool = tallies;
+            double[][] objectiveValues = values;
+            values = nextValues;
+            nextValues = objectiveValues;
+            double[] violations = violation;
+            violation = nextViolation;
+            nextViolation = violations;
+            int[] ranks = rank;
+            rank = nextRank;
+            nextRank = ranks;
+            double[] distances = crowding;
+            crowding = nextCrowding;
+            nextCrowding = distances;
         }
 
-        // Mutation
-        for (SchedulingAssignment individual : newPopulation) {
-            if (ThreadLocalRandom.current().nextDouble() < mutationRate) {
-                mutate(individual, csp);
+        // Lower rank wins; within a rank the less crowded individual does
+        private int crowdedTournament() {
+            int a = random.nextInt(populationSize);
+            int b = random.nextInt(populationSize);
+            if (rank[a] != rank[b]) {
+                return rank[a] < rank[b] ? a : b;
             }
+            return crowding[b] > crowding[a] ? b : a;
+        }
+
+        private void score(int individual) {
+            violation[individual] = pool[individual].getScore().getHard();
+            objectives.evaluate(pool[individual], values, individual);
         }
 
-        return newPopulation;
+        /**
+         * The distinct genomes of the parents' first front.
+         */
+        ParetoFront front(int generationCount, long elapsedMs) {
+            List<ParetoFront.Solution> solutions = new ArrayList<>();
+            List<int[]> seen = new ArrayList<>();
+            for (int i = 0; i < populationSize; i++) {
+                if (rank[i] != 0) continue;
+                int[] genome = pool[i].genome();
+                if (seen.stream().anyMatch(other -> Arrays.equals(other, genome))) continue;
+                seen.add(genome);
+
+                double[] objectiveValues = new double[values.length];
+                for (int m = 0; m < values.length; m++) {
+                    objectiveValues[m] = values[m][i];
+                }
+                solutions.add(new ParetoFront.Solution(encoding.decode(genome), objectiveValues, pool[i].getScore()));
+            }
+            return new ParetoFront(solutions, generationCount, elapsedMs);
+        }
     }
 
-    private SchedulingAssignment[] crossover(SchedulingAssignment parent1, SchedulingAssignment parent2,
-                                          ConstraintSatisfactionProblem csp) {
-        Map<SchedulingVariable, SchedulingValue> assignments1 = parent1.getAssignments();
-        Map<SchedulingVariable, SchedulingValue> assignments2 = parent2.getAssignments();
+    private double fitnessOf(IncrementalFitnessEvaluator.Tally tally) {
+        return tally.getFitness();
+    }
 
-        List<SchedulingVariable> variables = new ArrayList<>(assignments1.keySet());
-        Collections.shuffle(variables);
+    /**
+     * Sorts population indices by descending fitness without boxing. Ties keep the lower index first.
+     */
+    static void sortByFitness(int[] order, double[] fitnessScores) {
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        sortByKey(order, fitnessScores, 0, order.length - 1);
+    }
 
-        int crossoverPoint = ThreadLocalRandom.current().nextInt(1, variables.size());
+    /**
+     * Sorts {@code order[low..high]}, a list of indices into keys, by descending key.
+     */
+    static void sortByKey(int[] order, double[] keys, int low, int high) {
+        while (low < high) {
+            if (high - low < 16) {
+                insertionSort(order, keys, low, high);
+                return;
+            }
 
-        SchedulingAssignment offspring1 = new SchedulingAssignment();
-        SchedulingAssignment offspring2 = new SchedulingAssignment();
+            int pivot = order[(low + high) >>> 1];
+            int i = low;
+            int j = high;
+            while (i <= j) {
+                while (before(order[i], pivot, keys)) i++;
+                while (before(pivot, order[j], keys)) j--;
+                if (i <= j) {
+                    int tmp = order[i];
+                    order[i++] = order[j];
+                    order[j--] = tmp;
+                }
+            }
 
-        for (int i = 0; i < variables.size(); i++) {
-            SchedulingVariable variable = variables.get(i);
-            if (i < crossoverPoint) {
-                offspring1.assign(variable, assignments1.get(variable));
-                offspring2.assign(variable, assignments2.get(variable));
+            // Recurse into the smaller half to bound stack depth
+            if (j - low < high - i) {
+                sortByKey(order, keys, low, j);
+                low = i;
             } else {
-                offspring1.assign(variable, assignments2.get(variable));
-                offspring2.assign(variable, assignments1.get(variable));
+                sortByKey(order, keys, i, high);
+                high = j;
             }
         }
-
-        return new SchedulingAssignment[]{offspring1, offspring2};
     }
 
-    private void mutate(SchedulingAssignment individual, ConstraintSatisfactionProblem csp) {
-        Map<SchedulingVariable, SchedulingValue> assignments = individual.getAssignments();
-        Map<SchedulingVariable, List<SchedulingValue>> domains = csp.getDomains();
-
-        List<SchedulingVariable> variables = new ArrayList<>(assignments.keySet());
-        if (variables.isEmpty()) return;
+    private static void insertionSort(int[] order, double[] keys, int low, int high) {
+        for (int i = low + 1; i <= high; i++) {
+            int current = order[i];
+            int j = i - 1;
+            while (j >= low && before(current, order[j], keys)) {
+                order[j + 1] = order[j];
+                j--;
+            }
+            order[j + 1] = current;
+        }
+    }
 
-        SchedulingVariable variable = variables.get(ThreadLocalRandom.current().nextInt(variables.size()));
-        List<SchedulingValue> possibleValues = new ArrayList<>(domains.get(variable));
-        Collections.shuffle(possibleValues);
+    private static boolean before(int a, int b, double[] keys) {
+        int byScore = Double.compare(keys[b], keys[a]);
+        return byScore != 0 ? byScore < 0 : a < b;
+    }
 
-        individual.unassign(variable);
+    // Performance metrics
+    public int getGenerationsCompleted() {
+        return generationsCompleted;
+    }
 
-        for (SchedulingValue value : possibleValues) {
-            individual.assign(variable, value);
-            if (isValidAssignment(individual, csp)) {
-                break;
-            }
-            individual.unassign(variable);
-        }
+    public long getExecutionTimeMs() {
+        return executionTimeMs;
+    }
 
-        // If no valid value found, assign back the original
-        if (individual.getValue(variable) == null) {
-            individual.assign(variable, assignments.get(variable));
-        }
+    public double getGenerationsPerSecond() {
+        return executionTimeMs > 0 ? generationsCompleted * islandCount * 1000.0 / executionTimeMs : 0.0;
     }
 
-    private boolean isValidAssignment(SchedulingAssignment assignment, ConstraintSatisfactionProblem csp) {
-        for (SchedulingConstraint constraint : csp.getConstraints()) {
-            ConstraintResult result = constraint.validate(assignment);
-            if (!result.isSatisfied() && constraint.getType() == ConstraintType.TEACHER_CONFLICT) {
-                return false;
-            }
-        }
-        return true;
+    public String getPerformanceSummary() {
+        return String.format("Islands: %d, Generations: %d, Time: %dms, Throughput: %.1f gen/s",
+                islandCount, generationsCompleted, executionTimeMs, getGenerationsPerSecond());
     }
 
     // Getters for configuration
@@ -325,4 +681,8 @@ public class GeneticAlgorithmStrategy {
     public double getMutationRate() { return mutationRate; }
     public double getCrossoverRate() { return crossoverRate; }
     public double getElitismRate() { return elitismRate; }
-}
\ No newline at end of file
+    public int getIslandCount() { return islandCount; }
+    public int getMigrationInterval() { return migrationInterval; }
+    public int getMigrationSize() { return migrationSize; }
+    public long getSeed() { return seed; }
+}
@@ -0,0 +1,185 @@
+package com.school.scheduling.algorithm.strategy;
+
+import com.school.scheduling.algorithm.ConstraintSatisfactionProblem;
+import com.school.scheduling.domain.constraint.*;
+
+import java.util.*;
+
+/**
+ * Compact integer encoding of a CSP for population-based search.
+ * A genome is an int[] holding, per variable, the index of the chosen value in that
+ * variable's domain. Variables are ordered by id so the layout is stable across runs.
+ * Genomes are only decoded to SchedulingAssignment when a caller needs the map form.
+ */
+public class GenomeEncoding {
+
+    public static final int UNASSIGNED = -1;
+
+    private final SchedulingVariable[] variables;
+    private final SchedulingValue[][] domainValues;
+    private final int[][] valueIds;
+    private final Map<SchedulingVariable, Integer> variableIndex;
+    private final List<SchedulingValue> distinctValues;
+
+    public GenomeEncoding(ConstraintSatisfactionProblem csp) {
+        Map<SchedulingVariable, List<SchedulingValue>> domains = csp.getDomains();
+
+        List<SchedulingVariable> ordered = new ArrayList<>(csp.getVariables());
+        ordered.sort(Comparator.comparing(SchedulingVariable::getId));
+
+        this.variables = ordered.toArray(new SchedulingVariable[0]);
+        this.domainValues = new SchedulingValue[variables.length][];
+        this.valueIds = new int[variables.length][];
+        this.variableIndex = new HashMap<>();
+        this.distinctValues = new ArrayList<>();
+
+        // Values shared between domains get one dictionary id, so genomes can be scanned without hashing
+        Map<SchedulingValue, Integer> dictionary = new HashMap<>();
+        for (int i = 0; i < variables.length; i++) {
+            variableIndex.put(variables[i], i);
+            List<SchedulingValue> domain = domains.getOrDefault(variables[i], Collections.emptyList());
+            domainValues[i] = domain.toArray(new SchedulingValue[0]);
+            valueIds[i] = new int[domainValues[i].length];
+            for (int j = 0; j < domainValues[i].length; j++) {
+                SchedulingValue value = domainValues[i][j];
+                Integer id = dictionary.get(value);
+                if (id == null) {
+                    id = distinctValues.size();
+                    dictionary.put(value, id);
+                    distinctValues.add(value);
+                }
+                valueIds[i][j] = id;
+            }
+        }
+    }
+
+    /**
+     * Number of genes (variables) in a genome.
+     */
+    public int size() {
+        return variables.length;
+    }
+
+    public int domainSize(int gene) {
+        return domainValues[gene].length;
+    }
+
+    public SchedulingVariable getVariable(int gene) {
+        return variables[gene];
+    }
+
+    public int indexOf(SchedulingVariable variable) {
+        Integer index = variableIndex.get(variable);
+        return index != null ? index : -1;
+    }
+
+    public SchedulingValue getValue(int gene, int valueIndex) {
+        return valueIndex == UNASSIGNED ? null : domainValues[gene][valueIndex];
+    }
+
+    /**
+     * Dictionary id of a domain entry; equal values in different domains share an id.
+     */
+    public int getValueId(int gene, int valueIndex) {
+        return valueIds[gene][valueIndex];
+    }
+
+    public SchedulingValue getDistinctValue(int valueId) {
+        return distinctValues.get(valueId);
+    }
+
+    public int getDistinctValueCount() {
+        return distinctValues.size();
+    }
+
+    public int[] newGenome() {
+        int[] genome = new int[variables.length];
+        Arrays.fill(genome, UNASSIGNED);
+        return genome;
+    }
+
+    /**
+     * Fills the genome with uniformly random domain indices.
+     */
+    public void randomize(int[] genome, Random random) {
+        for (int gene = 0; gene < genome.length; gene++) {
+            int domainSize = domainValues[gene].length;
+            genome[gene] = domainSize > 0 ? random.nextInt(domainSize) : UNASSIGNED;
+        }
+    }
+
+    /**
+     * Reassigns one random gene to a different value of its domain.
+     */
+    public void mutate(int[] genome, Random random) {
+        if (genome.length == 0) return;
+
+        int gene = random.nextInt(genome.length);
+        int domainSize = domainValues[gene].length;
+        if (domainSize < 2) return;
+
+        int current = genome[gene];
+        int replacement = random.nextInt(domainSize - 1);
+        genome[gene] = replacement >= current && current != UNASSIGNED ? replacement + 1 : replacement;
+    }
+
+    /**
+     * Uniform crossover into caller-owned child buffers. Draws one random bit per gene.
+     */
+    public static void crossover(int[] parent1, int[] parent2, int[] child1, int[] child2, Random random) {
+        long mask = 0;
+        for (int gene = 0; gene < parent1.length; gene++) {
+            if ((gene & 63) == 0) {
+                mask = random.nextLong();
+            }
+            boolean swap = (mask & (1L << (gene & 63))) != 0;
+            child1[gene] = swap ? parent2[gene] : parent1[gene];
+            child2[gene] = swap ? parent1[gene] : parent2[gene];
+        }
+    }
+
+    public int[] encode(SchedulingAssignment assignment) {
+        int[] genome = newGenome();
+        encodeInto(assignment, genome);
+        return genome;
+    }
+
+    /**
+     * Writes the assignment into an existing genome. Values outside the domain are left unassigned.
+     */
+    public void encodeInto(SchedulingAssignment assignment, int[] genome) {
+        for (int gene = 0; gene < variables.length; gene++) {
+            genome[gene] = UNASSIGNED;
+            SchedulingValue value = assignment.getValue(variables[gene]);
+            if (value == null) continue;
+
+            SchedulingValue[] domain = domainValues[gene];
+            for (int j = 0; j < domain.length; j++) {
+                if (domain[j].equals(value)) {
+                    genome[gene] = j;
+                    break;
+                }
+            }
+        }
+    }
+
+    public SchedulingAssignment decode(int[] genome) {
+        SchedulingAssignment assignment = new SchedulingAssignment();
+        decodeInto(genome, assignment);
+        return assignment;
+    }
+
+    /**
+     * Overwrites every variable of a reusable assignment. Map entries are replaced in place,
+     * so decoding into the same scratch assignment does not allocate.
+     */
+    public void decodeInto(int[] genome, SchedulingAssignment target) {
+        for (int gene = 0; gene < variables.length; gene++) {
+            if (genome[gene] == UNASSIGNED) {
+                target.unassign(variables[gene]);
+            } else {
+                target.assign(variables[gene], domainValues[gene][genome[gene]]);
+            }
+        }
+    }
+}
@@ -5,31 +5,51 @@ import com.school.scheduling.domain.constraint.*;
 
 import java.util.*;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  * Greedy algorithm implementation for school scheduling optimization.
  * Uses various heuristics to make locally optimal choices at each step.
+ * The DSATUR heuristic reorders variables as the assignment fills up and never gives up
+ * on a variable, so it always returns a complete (possibly near-feasible) construction.
  */
 public class GreedyStrategy {
 
     private final HeuristicType heuristicType;
     private final boolean useForwardChecking;
     private final int maxAttemptsPerVariable;
+    private final int maxDiscrepancies;
+
+    // Result of the last DSatur construction
+    private volatile int lastViolations = 0;
+    private volatile int lastUnassigned = 0;
+    private volatile int lastRuns = 0;
+    private volatile long lastExecutionTimeMs = 0;
 
     public GreedyStrategy() {
         this(HeuristicType.MRV_DEGREE, true, 10);
     }
 
     public GreedyStrategy(HeuristicType heuristicType, boolean useForwardChecking, int maxAttemptsPerVariable) {
+        this(heuristicType, useForwardChecking, maxAttemptsPerVariable, 3);
+    }
+
+    public GreedyStrategy(HeuristicType heuristicType, boolean useForwardChecking, int maxAttemptsPerVariable,
+                          int maxDiscrepancies) {
         this.heuristicType = heuristicType;
         this.useForwardChecking = useForwardChecking;
         this.maxAttemptsPerVariable = maxAttemptsPerVariable;
+        this.maxDiscrepancies = maxDiscrepancies;
     }
 
     /**
      * Solves CSP using greedy algorithm with specified heuristic.
      */
     public Optional<SchedulingAssignment> solve(ConstraintSatisfactionProblem csp) {
+        if (heuristicType == HeuristicType.DSATUR) {
+            return solveWithDSatur(csp);
+        }
+
         SchedulingAssignment assignment = new SchedulingAssignment();
         Map<SchedulingVariable, List<SchedulingValue>> currentDomains = new HashMap<>();
 
@@ -38,12 +58,69 @@ public class GreedyStrategy {
             currentDomains.put(entry.getKey(), new ArrayList<>(entry.getValue()));
         }
 
-        return greedyAssignment(assignment, currentDomains, csp);
+        ValueScorer scorer = new ValueScorer(new ScoreDirector(new GenomeEncoding(csp), csp));
+        return greedyAssignment(assignment, currentDomains, csp, scorer);
+    }
+
+    /**
+     * DSatur construction. Unassigned variables sit in a priority queue keyed on the number of
+     * values still free of conflicts (fewest first), then on saturation (most blocked values
+     * first) and on the number of unassigned conflicting variables. Each placement updates only
+     * the conflicting variables' keys. A variable with no clash-free value takes the least
+     * violating one instead of failing. When a run ends with violations it is retried up to
+     * maxDiscrepancies times, each retry allowing one more deviation from the heuristic's first
+     * choice at the variables around the previous run's conflicts; the best run is returned.
+     */
+    public Optional<SchedulingAssignment> solveWithDSatur(ConstraintSatisfactionProblem csp) {
+        long startTime = System.currentTimeMillis();
+
+        GenomeEncoding encoding = new GenomeEncoding(csp);
+        MoveNeighborhood graph = new MoveNeighborhood(encoding, csp);
+        IncrementalFitnessEvaluator evaluator = new IncrementalFitnessEvaluator(encoding, csp);
+        int[][] valueOrder = orderDomainsByPreference(encoding);
+
+        DSaturRun best = null;
+        Set<Integer> culprits = Collections.emptySet();
+        int runs = 0;
+        for (int discrepancies = 0; discrepancies <= maxDiscrepancies; discrepancies++) {
+            DSaturRun run = new DSaturRun(encoding, graph, evaluator, valueOrder);
+            run.construct(discrepancies, culprits);
+            runs++;
+
+            if (best == null || run.isBetterThan(best)) {
+                best = run;
+            }
+            if (best.violations() == 0 && best.unassigned == 0) {
+                break;
+            }
+            culprits = run.culprits();
+        }
+
+        lastViolations = best.violations();
+        lastUnassigned = best.unassigned;
+        lastRuns = runs;
+        lastExecutionTimeMs = System.currentTimeMillis() - startTime;
+
+        return Optional.of(encoding.decode(best.tally.genome()));
+    }
+
+    private int[][] orderDomainsByPreference(GenomeEncoding encoding) {
+        int[][] order = new int[encoding.size()][];
+        for (int gene = 0; gene < encoding.size(); gene++) {
+            final int g = gene;
+            order[gene] = IntStream.range(0, encoding.domainSize(gene))
+                .boxed()
+                .sorted((a, b) -> Double.compare(encoding.getValue(g, b).getPreferenceScore(),
+                                                 encoding.getValue(g, a).getPreferenceScore()))
+                .mapToInt(Integer::intValue)
+                .toArray();
+        }
+        return order;
     }
 
     private Optional<SchedulingAssignment> greedyAssignment(SchedulingAssignment assignment,
                                                          Map<SchedulingVariable, List<SchedulingValue>> domains,
-                                                         ConstraintSatisfactionProblem csp) {
+                                                         ConstraintSatisfactionProblem csp, ValueScorer scorer) {
         // Order variables using selected heuristic
         List<SchedulingVariable> orderedVariables = orderVariablesByHeuristic(assignment, domains, csp);
 
@@ -53,7 +130,7 @@ public class GreedyStrategy {
             }
 
             // Order values by preference
-            List<SchedulingValue> orderedValues = orderValuesByPreference(assignment, variable, domains.get(variable), csp);
+            List<SchedulingValue> orderedValues = orderValuesByPreference(scorer, assignment, variable, domains.get(variable));
 
             boolean assigned = false;
             int attempts = 0;
@@ -71,7 +148,7 @@ public class GreedyStrategy {
                     // Forward checking if enabled
                     Map<SchedulingVariable, List<SchedulingValue>> newDomains = null;
                     if (useForwardChecking) {
-                        newDomains = forwardChecking(assignment, variable, value, domains);
+                        newDomains = forwardChecking(assignment, variable, value, domains, csp);
                     }
 
                     if (newDomains != null) { // No domain wipeout
@@ -201,17 +278,7 @@ public class GreedyStrategy {
     }
 
     private int calculateVariableDegree(SchedulingVariable variable, ConstraintSatisfactionProblem csp) {
-        Set<SchedulingVariable> connectedVariables = new HashSet<>();
-
-        for (SchedulingConstraint constraint : csp.getConstraints()) {
-            Set<SchedulingVariable> scope = constraint.getScope();
-            if (scope.contains(variable)) {
-                connectedVariables.addAll(scope);
-            }
-        }
-
-        connectedVariables.remove(variable);
-        return connectedVariables.size();
+        return csp.getConflicts(variable).size();
     }
 
     private double calculateLeastConstrainingScore(SchedulingVariable variable,
@@ -222,8 +289,9 @@ public class GreedyStrategy {
 
         // For each possible value, estimate its impact on other variables
         for (SchedulingConstraint constraint : csp.getConstraints()) {
-            if (constraint.getScope().contains(variable)) {
-                Set<SchedulingVariable> otherVariables = new HashSet<>(constraint.getScope());
+            for (Set<SchedulingVariable> group : constraint.getConflictGroups()) {
+                if (!group.contains(variable)) continue;
+                Set<SchedulingVariable> otherVariables = new HashSet<>(group);
                 otherVariables.remove(variable);
 
                 if (!otherVariables.isEmpty()) {
@@ -246,7 +314,7 @@ public class GreedyStrategy {
         double impact = 0.0;
 
         switch (constraint.getType()) {
-            case TEACHER_CONFLICT:
+            case TEACHER_AVAILABILITY:
                 impact = 2.0; // High impact - affects teacher schedules
                 break;
             case CLASSROOM_CAPACITY:
@@ -271,49 +339,16 @@ public class GreedyStrategy {
         return degree > 0 ? (double) domainSize / degree : Double.MAX_VALUE;
     }
 
-    private List<SchedulingValue> orderValuesByPreference(SchedulingAssignment assignment,
+    private List<SchedulingValue> orderValuesByPreference(ValueScorer scorer,
+                                                          SchedulingAssignment assignment,
                                                           SchedulingVariable variable,
-                                                          List<SchedulingValue> values,
-                                                          ConstraintSatisfactionProblem csp) {
+                                                          List<SchedulingValue> values) {
+        Map<SchedulingValue, Double> scores = scorer.score(assignment, variable, values);
         return values.stream()
-            .sorted((v1, v2) -> {
-                double score1 = calculateValuePreferenceScore(assignment, variable, v1, csp);
-                double score2 = calculateValuePreferenceScore(assignment, variable, v2, csp);
-                return Double.compare(score2, score1); // Higher score first
-            })
+            .sorted((v1, v2) -> Double.compare(scores.get(v2), scores.get(v1))) // Higher score first
             .collect(Collectors.toList());
     }
 
-    private double calculateValuePreferenceScore(SchedulingAssignment assignment,
-                                               SchedulingVariable variable,
-                                               SchedulingValue value,
-                                               ConstraintSatisfactionProblem csp) {
-        double score = value.getPreferenceScore(); // Base preference score
-
-        // Add constraint satisfaction bonus
-        assignment.assign(variable, value);
-        double constraintScore = evaluateConstraintSatisfaction(assignment, csp);
-        assignment.unassign(variable);
-
-        // Combine scores
-        return score * 0.7 + constraintScore * 0.3;
-    }
-
-    private double evaluateConstraintSatisfaction(SchedulingAssignment assignment, ConstraintSatisfactionProblem csp) {
-        int satisfied = 0;
-        int total = 0;
-
-        for (SchedulingConstraint constraint : csp.getConstraints()) {
-            ConstraintResult result = constraint.validate(assignment);
-            if (result.isSatisfied()) {
-                satisfied++;
-            }
-            total++;
-        }
-
-        return total > 0 ? (double) satisfied / total : 1.0;
-    }
-
     private boolean isConsistent(SchedulingAssignment assignment, SchedulingVariable variable,
                                 SchedulingValue value, ConstraintSatisfactionProblem csp) {
         // Create temporary assignment
@@ -334,7 +369,8 @@ public class GreedyStrategy {
     private Map<SchedulingVariable, List<SchedulingValue>> forwardChecking(SchedulingAssignment assignment,
                                                                          SchedulingVariable variable,
                                                                          SchedulingValue value,
-                                                                         Map<SchedulingVariable, List<SchedulingValue>> currentDomains) {
+                                                                         Map<SchedulingVariable, List<SchedulingValue>> currentDomains,
+                                                                         ConstraintSatisfactionProblem csp) {
         Map<SchedulingVariable, List<SchedulingValue>> newDomains = new HashMap<>();
 
         // Copy current domains
@@ -372,16 +408,7 @@ public class GreedyStrategy {
 
     private Set<SchedulingVariable> findConnectedVariables(SchedulingVariable variable,
                                                            ConstraintSatisfactionProblem csp) {
-        Set<SchedulingVariable> connected = new HashSet<>();
-
-        for (SchedulingConstraint constraint : csp.getConstraints()) {
-            if (constraint.getScope().contains(variable)) {
-                connected.addAll(constraint.getScope());
-            }
-        }
-
-        connected.remove(variable);
-        return connected;
+        return csp.getConflicts(variable);
     }
 
     private boolean handleAssignmentFailure(SchedulingVariable variable, SchedulingAssignment assignment,
@@ -418,7 +445,7 @@ public class GreedyStrategy {
 
     private List<SchedulingConstraint> findSoftConstraints(ConstraintSatisfactionProblem csp) {
         return csp.getConstraints().stream()
-            .filter(c -> c.getPriority() == ConstraintPriority.SOFT)
+            .filter(c -> c.getPriority() != ConstraintPriority.HARD)
             .collect(Collectors.toList());
     }
 
@@ -446,11 +473,268 @@ public class GreedyStrategy {
         DEGREE,                 // Degree heuristic
         MRV_DEGREE,             // Combined MRV and Degree
         LEAST_CONSTRAINING_VALUE, // Least Constraining Value for variable ordering
-        DOM_DEG                 // Domain/Degree ratio
+        DOM_DEG,                // Domain/Degree ratio
+        DSATUR                  // Saturation degree, reordered after every placement
+    }
+
+    // Helper classes
+    /**
+     * Scores candidate values by the fitness the assignment would have with each of them.
+     * A tally follows the assignment between calls, so scoring a value re-validates only the
+     * constraints on the variable being placed.
+     */
+    private static class ValueScorer {
+        private final GenomeEncoding encoding;
+        private IncrementalFitnessEvaluator.Tally tally;
+        private IncrementalFitnessEvaluator.Tally scratch;
+
+        ValueScorer(ScoreDirector director) {
+            this.encoding = director.getEncoding();
+            this.tally = director.newTally();
+            this.tally.evaluate();
+            this.scratch = director.newTally();
+        }
+
+        Map<SchedulingValue, Double> score(SchedulingAssignment assignment, SchedulingVariable variable,
+                                           List<SchedulingValue> values) {
+            encoding.encodeInto(assignment, scratch.genome());
+            scratch.deriveFrom(tally);
+            IncrementalFitnessEvaluator.Tally synced = scratch;
+            scratch = tally;
+            tally = synced;
+
+            Map<SchedulingValue, Double> scores = new HashMap<>();
+            int gene = encoding.indexOf(variable);
+            int original = gene >= 0 ? tally.genome()[gene] : GenomeEncoding.UNASSIGNED;
+            for (SchedulingValue value : values) {
+                int index = gene >= 0 ? indexOf(gene, value) : GenomeEncoding.UNASSIGNED;
+                if (index == GenomeEncoding.UNASSIGNED) {
+                    scores.put(value, Double.NEGATIVE_INFINITY); // Not part of the problem's domain
+                    continue;
+                }
+                tally.change(gene, index);
+                scores.put(value, tally.getFitness());
+            }
+            if (gene >= 0) {
+                tally.change(gene, original);
+            }
+            return scores;
+        }
+
+        private int indexOf(int gene, SchedulingValue value) {
+            for (int j = 0; j < encoding.domainSize(gene); j++) {
+                if (encoding.getValue(gene, j).equals(value)) {
+                    return j;
+                }
+            }
+            return GenomeEncoding.UNASSIGNED;
+        }
+    }
+
+    /**
+     * One DSatur construction over a genome. Conflicts are edges of the problem's conflict graph:
+     * two conflicting variables may not hold the same value.
+     */
+    private class DSaturRun {
+        private final GenomeEncoding encoding;
+        private final MoveNeighborhood graph;
+        private final int[][] valueOrder;
+        private final IncrementalFitnessEvaluator.Tally tally;
+        private final int[][] blocked;
+        private final int[] remaining;
+        private final int[] openDegree;
+        private final int[] version;
+        private final Set<Integer> conflicted = new HashSet<>();
+        private int unassigned = 0;
+        private boolean deviated;
+
+        DSaturRun(GenomeEncoding encoding, MoveNeighborhood graph, IncrementalFitnessEvaluator evaluator,
+                  int[][] valueOrder) {
+            this.encoding = encoding;
+            this.graph = graph;
+            this.valueOrder = valueOrder;
+            this.tally = evaluator.newTally();
+            this.tally.evaluate();
+
+            int size = encoding.size();
+            this.blocked = new int[size][];
+            this.remaining = new int[size];
+            this.openDegree = new int[size];
+            this.version = new int[size];
+            for (int gene = 0; gene < size; gene++) {
+                blocked[gene] = new int[encoding.domainSize(gene)];
+                remaining[gene] = encoding.domainSize(gene);
+                openDegree[gene] = graph.getConflicts(gene).length;
+            }
+        }
+
+        void construct(int discrepancies, Set<Integer> culprits) {
+            PriorityQueue<QueueEntry> queue = new PriorityQueue<>();
+            for (int gene = 0; gene < encoding.size(); gene++) {
+                queue.add(entryFor(gene));
+            }
+
+            int discrepanciesLeft = discrepancies;
+            while (!queue.isEmpty()) {
+                QueueEntry entry = queue.poll();
+                int gene = entry.gene;
+                if (entry.version != version[gene] || tally.genome()[gene] != GenomeEncoding.UNASSIGNED) {
+                    continue; // Stale key
+                }
+
+                boolean deviate = discrepanciesLeft > 0 && culprits.contains(gene);
+                long before = penalty();
+                int value = chooseValue(gene, deviate, before);
+                if (deviated) {
+                    discrepanciesLeft--;
+                }
+                if (value == GenomeEncoding.UNASSIGNED) {
+                    unassigned++;
+                    continue;
+                }
+
+                tally.change(gene, value);
+                if (penalty() > before) {
+                    conflicted.add(gene);
+                }
+                version[gene]++;
+                propagate(gene, value, queue);
+            }
+        }
+
+        /**
+         * Picks the most preferred clash-free value that adds no penalty, or the second such value
+         * when deviating. Falls back to the value adding the least weighted penalty when every
+         * candidate adds some.
+         */
+        private int chooseValue(int gene, boolean deviate, long before) {
+            deviated = false;
+            int firstFeasible = GenomeEncoding.UNASSIGNED;
+            int bestValue = GenomeEncoding.UNASSIGNED;
+            long bestIncrease = Long.MAX_VALUE;
+
+            int attempts = 0;
+            for (int index : valueOrder[gene]) {
+                if (blocked[gene][index] > 0) continue;
+                if (attempts++ >= maxAttemptsPerVariable) break;
+
+                long increase = trial(gene, index, before);
+                if (increase <= 0) {
+                    if (!deviate) return index;
+                    if (firstFeasible != GenomeEncoding.UNASSIGNED) {
+                        deviated = true;
+                        return index;
+                    }
+                    firstFeasible = index;
+                } else if (increase < bestIncrease) {
+                    bestValue = index;
+                    bestIncrease = increase;
+                }
+            }
+            if (firstFeasible != GenomeEncoding.UNASSIGNED) {
+                return firstFeasible;
+            }
+
+            // Every free value violates something: take the least violating value overall
+            attempts = 0;
+            for (int index : valueOrder[gene]) {
+                if (blocked[gene][index] == 0) continue;
+                if (attempts++ >= maxAttemptsPerVariable) break;
+
+                long increase = trial(gene, index, before);
+                if (increase < bestIncrease) {
+                    bestValue = index;
+                    bestIncrease = increase;
+                }
+            }
+            return bestValue;
+        }
+
+        private long trial(int gene, int index, long before) {
+            tally.change(gene, index);
+            long increase = penalty() - before;
+            tally.change(gene, GenomeEncoding.UNASSIGNED);
+            return increase;
+        }
+
+        private void propagate(int gene, int value, PriorityQueue<QueueEntry> queue) {
+            int valueId = encoding.getValueId(gene, value);
+            for (int neighbor : graph.getConflicts(gene)) {
+                if (tally.genome()[neighbor] != GenomeEncoding.UNASSIGNED) continue;
+
+                openDegree[neighbor]--;
+                int index = graph.domainIndexOf(neighbor, valueId);
+                if (index >= 0 && blocked[neighbor][index]++ == 0) {
+                    remaining[neighbor]--;
+                }
+                version[neighbor]++;
+                queue.add(entryFor(neighbor));
+            }
+        }
+
+        private QueueEntry entryFor(int gene) {
+            int saturation = encoding.domainSize(gene) - remaining[gene];
+            return new QueueEntry(gene, remaining[gene], saturation, openDegree[gene], version[gene]);
+        }
+
+        int violations() {
+            return tally.getConstraintCount() - tally.getSatisfiedCount();
+        }
+
+        // Broken constraints weighted by the score director, hard before medium before soft
+        long penalty() {
+            return tally.getScoreDirector().constraintPenalty(tally);
+        }
+
+        boolean isBetterThan(DSaturRun other) {
+            return tally.getScore().compareTo(other.tally.getScore()) < 0;
+        }
+
+        /**
+         * Conflicted variables and their neighbors, where the next run may deviate.
+         */
+        Set<Integer> culprits() {
+            Set<Integer> culprits = new HashSet<>(conflicted);
+            for (int gene : conflicted) {
+                for (int neighbor : graph.getConflicts(gene)) {
+                    culprits.add(neighbor);
+                }
+            }
+            return culprits;
+        }
+    }
+
+    private static class QueueEntry implements Comparable<QueueEntry> {
+        final int gene;
+        final int remaining;
+        final int saturation;
+        final int openDegree;
+        final int version;
+
+        QueueEntry(int gene, int remaining, int saturation, int openDegree, int version) {
+            this.gene = gene;
+            this.remaining = remaining;
+            this.saturation = saturation;
+            this.openDegree = openDegree;
+            this.version = version;
+        }
+
+        @Override
+        public int compareTo(QueueEntry other) {
+            if (remaining != other.remaining) return Integer.compare(remaining, other.remaining);
+            if (saturation != other.saturation) return Integer.compare(other.saturation, saturation);
+            if (openDegree != other.openDegree) return Integer.compare(other.openDegree, openDegree);
+            return Integer.compare(gene, other.gene);
+        }
     }
 
     // Getters for configuration
     public HeuristicType getHeuristicType() { return heuristicType; }
     public boolean isUseForwardChecking() { return useForwardChecking; }
     public int getMaxAttemptsPerVariable() { return maxAttemptsPerVariable; }
+    public int getMaxDiscrepancies() { return maxDiscrepancies; }
+    public int getLastViolations() { return lastViolations; }
+    public int getLastUnassigned() { return lastUnassigned; }
+    public int getLastRuns() { return lastRuns; }
+    public long getLastExecutionTimeMs() { return lastExecutionTimeMs; }
 }
\ No newline at end of file
@@ -0,0 +1,477 @@
+package com.school.scheduling.algorithm.strategy;
+
+import com.school.scheduling.algorithm.ConstraintSatisfactionProblem;
+import com.school.scheduling.domain.constraint.*;
+
+import java.util.*;
+
+/**
+ * Keeps fitness components for genomes up to date under small changes.
+ * A {@link Tally} caches how often each constraint is violated, how often each value is used
+ * and the preference sum. Changing a gene re-validates only the constraints whose scope contains
+ * that gene; constraints with an empty scope apply to the whole assignment and are
+ * re-validated on every change. Each tally also keeps the weighted penalty of every
+ * {@link ScoreDirector.Level}: a constraint's weight times its
+ * {@link SchedulingConstraint#countViolations violation count}, so two clashes of one teacher
+ * cost twice one. Its {@link ScoreDirector} turns the penalties into a score.
+ * <p>
+ * Only scoped constraints are saved work. The semester constraints in
+ * {@code algorithm.constraint} are built one per teacher, room, student or offering and
+ * scoped to the offerings that can reach it, so moving one offering re-validates the few
+ * constraints it belongs to. The placeholder teacher availability constraint is still global.
+ */
+public class IncrementalFitnessEvaluator {
+
+    private static final int TYPE_COUNT = ValueType.values().length;
+
+    private final GenomeEncoding encoding;
+    private final SchedulingConstraint[] constraints;
+    private final boolean[] global;
+    private final boolean[] hard;
+    private final int[] globalConstraints;
+    private final int[][] constraintsByGene;
+    private final int[] valueTypes;
+    private final double[] valuePreferences;
+    private final int[] levels;
+    private final long[] weights;
+    private final long[] maximumPenalty;
+    private final double[] bestPreferences;
+    private final double preferenceSpan;
+    private final ScoreDirector director;
+    private final ThreadLocal<AssignmentView> views;
+
+    /**
+     * Creates an evaluator scored by a {@link ScoreDirector} with the default weights.
+     */
+    public IncrementalFitnessEvaluator(GenomeEncoding encoding, ConstraintSatisfactionProblem csp) {
+        this(encoding, csp, ScoreDirector.Weights.defaults(), null);
+    }
+
+    IncrementalFitnessEvaluator(GenomeEncoding encoding, ConstraintSatisfactionProblem csp,
+                                ScoreDirector.Weights scoreWeights, ScoreDirector director) {
+        this.encoding = encoding;
+
+        List<SchedulingConstraint> ordered = new ArrayList<>(csp.getConstraints());
+        ordered.sort(Comparator.comparing(SchedulingConstraint::getName));
+        this.constraints = ordered.toArray(new SchedulingConstraint[0]);
+        this.global = new boolean[constraints.length];
+        this.hard = new boolean[constraints.length];
+        this.levels = new int[constraints.length];
+        this.weights = new long[constraints.length];
+        this.maximumPenalty = new long[ScoreDirector.Level.values().length];
+        for (int c = 0; c < constraints.length; c++) {
+            ConstraintPriority priority = constraints[c].getPriority();
+            hard[c] = priority == ConstraintPriority.HARD;
+            levels[c] = scoreWeights.levelOf(priority).ordinal();
+            weights[c] = scoreWeights.weightOf(priority);
+            maximumPenalty[levels[c]] += weights[c] * constraints[c].getMaximumViolations();
+        }
+
+        // Index constraints by the genes in their scope
+        List<List<Integer>> byGene = new ArrayList<>();
+        for (int gene = 0; gene < encoding.size(); gene++) {
+            byGene.add(new ArrayList<>());
+        }
+        List<Integer> globals = new ArrayList<>();
+        for (int c = 0; c < constraints.length; c++) {
+            boolean scoped = false;
+            for (SchedulingVariable variable : constraints[c].getScope()) {
+                int gene = encoding.indexOf(variable);
+                if (gene >= 0) {
+                    byGene.get(gene).add(c);
+                    scoped = true;
+                }
+            }
+            if (!scoped) {
+                global[c] = true;
+                globals.add(c);
+            }
+        }
+
+        this.globalConstraints = globals.stream().mapToInt(Integer::intValue).toArray();
+        this.constraintsByGene = new int[encoding.size()][];
+        for (int gene = 0; gene < encoding.size(); gene++) {
+            constraintsByGene[gene] = byGene.get(gene).stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        this.valueTypes = new int[encoding.getDistinctValueCount()];
+        this.valuePreferences = new double[encoding.getDistinctValueCount()];
+        for (int id = 0; id < valueTypes.length; id++) {
+            SchedulingValue value = encoding.getDistinctValue(id);
+            valueTypes[id] = value.getType().ordinal();
+            valuePreferences[id] = value.getPreferenceScore();
+        }
+
+        // Preference regret of a gene is measured against the best value of its domain
+        this.bestPreferences = new double[encoding.size()];
+        double span = 0.0;
+        for (int gene = 0; gene < encoding.size(); gene++) {
+            double best = Double.NEGATIVE_INFINITY;
+            double worst = Double.POSITIVE_INFINITY;
+            for (int j = 0; j < encoding.domainSize(gene); j++) {
+                double preference = valuePreferences[encoding.getValueId(gene, j)];
+                best = Math.max(best, preference);
+                worst = Math.min(worst, preference);
+            }
+            if (encoding.domainSize(gene) > 0) {
+                bestPreferences[gene] = best;
+                span += best - worst;
+            }
+        }
+        this.preferenceSpan = span;
+
+        this.views = ThreadLocal.withInitial(AssignmentView::new);
+        this.director = director != null ? director : new ScoreDirector(this, scoreWeights);
+    }
+
+    public GenomeEncoding getEncoding() {
+        return encoding;
+    }
+
+    public int getConstraintCount() {
+        return constraints.length;
+    }
+
+    public ScoreDirector getScoreDirector() {
+        return director;
+    }
+
+    /**
+     * Weighted penalty of a level when every constraint on it is violated as often as it can be.
+     */
+    long getMaximumPenalty(ScoreDirector.Level level) {
+        return maximumPenalty[level.ordinal()];
+    }
+
+    /**
+     * Preference regret when every gene takes the least preferred value of its domain.
+     */
+    double getPreferenceSpan() {
+        return preferenceSpan;
+    }
+
+    /**
+     * Creates an empty tally; call {@link Tally#evaluate()} after filling its genome.
+     */
+    public Tally newTally() {
+        return new Tally();
+    }
+
+    /**
+     * Creates a tally for a copy of the genome and evaluates it from scratch.
+     */
+    public Tally evaluate(int[] genome) {
+        Tally tally = new Tally();
+        System.arraycopy(genome, 0, tally.genome, 0, genome.length);
+        tally.evaluate();
+        return tally;
+    }
+
+    /**
+     * Cached fitness components for one genome. Not thread-safe; a tally may be read
+     * concurrently but must only be changed by one thread at a time.
+     */
+    public class Tally {
+        private final int[] genome;
+        private final boolean[] satisfied;
+        private final boolean[] applicable;
+        private final int[] violations;
+        private final int[] assignedInScope;
+        private final int[] valueUses;
+        private final int[] distinctByType;
+        private final int[] usesByType;
+        private final long[] penalties;
+        private final int[] touched;
+        private final int[] touchedStamp;
+        private int stamp = 0;
+
+        private int satisfiedCount;
+        private int applicableCount;
+        private int satisfiedApplicableCount;
+        private int hardViolationCount;
+        private int assignedCount;
+        private double preferenceSum;
+        private double bestPreferenceSum;
+
+        private Tally() {
+            this.genome = encoding.newGenome();
+            this.satisfied = new boolean[constraints.length];
+            this.applicable = new boolean[constraints.length];
+            this.violations = new int[constraints.length];
+            this.assignedInScope = new int[constraints.length];
+            this.valueUses = new int[valueTypes.length];
+            this.distinctByType = new int[TYPE_COUNT];
+            this.usesByType = new int[TYPE_COUNT];
+            this.penalties = new long[maximumPenalty.length];
+            this.touched = new int[constraints.length];
+            this.touchedStamp = new int[constraints.length];
+        }
+
+        /**
+         * The genome this tally describes. Callers that write to it directly must follow up
+         * with {@link #evaluate()} or {@link #deriveFrom(Tally)}.
+         */
+        public int[] genome() {
+            return genome;
+        }
+
+        /**
+         * Recomputes every component from the current genome.
+         */
+        public void evaluate() {
+            Arrays.fill(assignedInScope, 0);
+            Arrays.fill(valueUses, 0);
+            Arrays.fill(distinctByType, 0);
+            Arrays.fill(usesByType, 0);
+            assignedCount = 0;
+            preferenceSum = 0.0;
+            bestPreferenceSum = 0.0;
+
+            for (int gene = 0; gene < genome.length; gene++) {
+                if (genome[gene] != GenomeEncoding.UNASSIGNED) {
+                    addValue(gene, genome[gene]);
+                    for (int c : constraintsByGene[gene]) {
+                        assignedInScope[c]++;
+                    }
+                }
+            }
+
+            SchedulingAssignment assignment = views.get().sync(genome);
+            satisfiedCount = 0;
+            applicableCount = 0;
+            satisfiedApplicableCount = 0;
+            hardViolationCount = 0;
+            Arrays.fill(penalties, 0L);
+            for (int c = 0; c < constraints.length; c++) {
+                violations[c] = constraints[c].countViolations(assignment);
+                satisfied[c] = violations[c] == 0;
+                applicable[c] = isApplicable(c);
+                count(c, 1);
+            }
+        }
+
+        /**
+         * Brings this tally to its (already written) genome starting from another tally's state.
+         * Only genes that differ from the parent are applied; falls back to a full evaluation
+         * when the changed genes touch most constraints anyway.
+         */
+        public void deriveFrom(Tally parent) {
+            int touchedCount = 0;
+            int nextStamp = nextStamp();
+            int changedGenes = 0;
+
+            for (int gene = 0; gene < genome.length; gene++) {
+                if (genome[gene] == parent.genome[gene]) continue;
+                changedGenes++;
+                for (int c : constraintsByGene[gene]) {
+                    if (touchedStamp[c] != nextStamp) {
+                        touchedStamp[c] = nextStamp;
+                        touched[touchedCount++] = c;
+                    }
+                }
+            }
+
+            if (changedGenes > 0 && touchedCount + globalConstraints.length >= constraints.length) {
+                evaluate();
+                return;
+            }
+
+            copyComponents(parent);
+            if (changedGenes == 0) {
+                return;
+            }
+
+            for (int gene = 0; gene < genome.length; gene++) {
+                int oldValue = parent.genome[gene];
+                int newValue = genome[gene];
+                if (oldValue == newValue) continue;
+                updateAggregates(gene, oldValue, newValue);
+            }
+
+            revalidate(touchedCount);
+        }
+
+        /**
+         * Assigns a gene and updates the affected components. Pass UNASSIGNED to clear it.
+         */
+        public void change(int gene, int valueIndex) {
+            int oldValue = genome[gene];
+            if (oldValue == valueIndex) return;
+
+            genome[gene] = valueIndex;
+            updateAggregates(gene, oldValue, valueIndex);
+
+            int touchedCount = 0;
+            int nextStamp = nextStamp();
+            for (int c : constraintsByGene[gene]) {
+                if (touchedStamp[c] != nextStamp) {
+                    touchedStamp[c] = nextStamp;
+                    touched[touchedCount++] = c;
+                }
+            }
+            revalidate(touchedCount);
+        }
+
+        /**
+         * Copies genome and components from another tally of the same evaluator.
+         */
+        public void copyFrom(Tally other) {
+            System.arraycopy(other.genome, 0, genome, 0, genome.length);
+            copyComponents(other);
+        }
+
+        private void copyComponents(Tally other) {
+            System.arraycopy(other.satisfied, 0, satisfied, 0, satisfied.length);
+            System.arraycopy(other.applicable, 0, applicable, 0, applicable.length);
+            System.arraycopy(other.violations, 0, violations, 0, violations.length);
+            System.arraycopy(other.assignedInScope, 0, assignedInScope, 0, assignedInScope.length);
+            System.arraycopy(other.valueUses, 0, valueUses, 0, valueUses.length);
+            System.arraycopy(other.distinctByType, 0, distinctByType, 0, TYPE_COUNT);
+            System.arraycopy(other.usesByType, 0, usesByType, 0, TYPE_COUNT);
+            System.arraycopy(other.penalties, 0, penalties, 0, penalties.length);
+            satisfiedCount = other.satisfiedCount;
+            applicableCount = other.applicableCount;
+            satisfiedApplicableCount = other.satisfiedApplicableCount;
+            hardViolationCount = other.hardViolationCount;
+            assignedCount = other.assignedCount;
+            preferenceSum = other.preferenceSum;
+            bestPreferenceSum = other.bestPreferenceSum;
+        }
+
+        private void updateAggregates(int gene, int oldValue, int newValue) {
+            boolean wasAssigned = oldValue != GenomeEncoding.UNASSIGNED;
+            boolean isAssigned = newValue != GenomeEncoding.UNASSIGNED;
+
+            if (wasAssigned) removeValue(gene, oldValue);
+            if (isAssigned) addValue(gene, newValue);
+
+            if (wasAssigned != isAssigned) {
+                int direction = isAssigned ? 1 : -1;
+                for (int c : constraintsByGene[gene]) {
+                    assignedInScope[c] += direction;
+                }
+            }
+        }
+
+        private void revalidate(int touchedCount) {
+            SchedulingAssignment assignment = views.get().sync(genome);
+            for (int i = 0; i < touchedCount; i++) {
+                revalidate(touched[i], assignment);
+            }
+            for (int c : globalConstraints) {
+                revalidate(c, assignment);
+            }
+        }
+
+        private void revalidate(int c, SchedulingAssignment assignment) {
+            count(c, -1);
+            violations[c] = constraints[c].countViolations(assignment);
+            satisfied[c] = violations[c] == 0;
+            applicable[c] = isApplicable(c);
+            count(c, 1);
+        }
+
+        private void count(int c, int direction) {
+            if (satisfied[c]) {
+                satisfiedCount += direction;
+            } else {
+                if (hard[c]) hardViolationCount += direction;
+                penalties[levels[c]] += direction * weights[c] * violations[c];
+            }
+            if (applicable[c]) {
+                applicableCount += direction;
+                if (satisfied[c]) satisfiedApplicableCount += direction;
+            }
+        }
+
+        private boolean isApplicable(int c) {
+            return global[c] ? assignedCount > 0 : assignedInScope[c] > 0;
+        }
+
+        private void addValue(int gene, int valueIndex) {
+            int id = encoding.getValueId(gene, valueIndex);
+            if (valueUses[id]++ == 0) {
+                distinctByType[valueTypes[id]]++;
+            }
+            usesByType[valueTypes[id]]++;
+            preferenceSum += valuePreferences[id];
+            bestPreferenceSum += bestPreferences[gene];
+            assignedCount++;
+        }
+
+        private void removeValue(int gene, int valueIndex) {
+            int id = encoding.getValueId(gene, valueIndex);
+            if (--valueUses[id] == 0) {
+                distinctByType[valueTypes[id]]--;
+            }
+            usesByType[valueTypes[id]]--;
+            preferenceSum -= valuePreferences[id];
+            bestPreferenceSum -= bestPreferences[gene];
+            assignedCount--;
+        }
+
+        private int nextStamp() {
+            if (++stamp == Integer.MAX_VALUE) {
+                Arrays.fill(touchedStamp, 0);
+                stamp = 1;
+            }
+            return stamp;
+        }
+
+        public GenomeEncoding getEncoding() {
+            return encoding;
+        }
+
+        public ScoreDirector getScoreDirector() {
+            return director;
+        }
+
+        public ScoreDirector.Score getScore() {
+            return director.score(this);
+        }
+
+        public double getFitness() {
+            return director.fitness(this);
+        }
+
+        // Component accessors
+        public int getSatisfiedCount() { return satisfiedCount; }
+        public int getConstraintCount() { return constraints.length; }
+        public int getApplicableCount() { return applicableCount; }
+        public int getSatisfiedApplicableCount() { return satisfiedApplicableCount; }
+        public int getHardViolationCount() { return hardViolationCount; }
+        public int getSoftViolationCount() { return constraints.length - satisfiedCount - hardViolationCount; }
+        public int getAssignedCount() { return assignedCount; }
+        public int getVariableCount() { return genome.length; }
+        public double getPreferenceSum() { return preferenceSum; }
+        public double getPreferenceRegret() { return Math.max(0.0, bestPreferenceSum - preferenceSum); }
+        public long getPenalty(ScoreDirector.Level level) { return penalties[level.ordinal()]; }
+        public int getDistinctCount(ValueType type) { return distinctByType[type.ordinal()]; }
+        public int getUseCount(ValueType type) { return usesByType[type.ordinal()]; }
+        public int getValueUses(int valueId) { return valueUses[valueId]; }
+        public boolean isSatisfied(int constraintIndex) { return satisfied[constraintIndex]; }
+        public int getViolationCount(int constraintIndex) { return violations[constraintIndex]; }
+    }
+
+    /**
+     * Per-thread assignment kept in step with the last genome it was synced to,
+     * so constraints can be validated after updating only the genes that differ.
+     */
+    private class AssignmentView {
+        private final SchedulingAssignment assignment = new SchedulingAssignment();
+        private final int[] decoded = encoding.newGenome();
+
+        SchedulingAssignment sync(int[] genome) {
+            for (int gene = 0; gene < genome.length; gene++) {
+                if (decoded[gene] == genome[gene]) continue;
+                decoded[gene] = genome[gene];
+                if (genome[gene] == GenomeEncoding.UNASSIGNED) {
+                    assignment.unassign(encoding.getVariable(gene));
+                } else {
+                    assignment.assign(encoding.getVariable(gene), encoding.getValue(gene, genome[gene]));
+                }
+            }
+            return assignment;
+        }
+    }
+}
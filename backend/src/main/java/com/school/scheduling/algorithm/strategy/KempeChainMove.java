@@ -0,0 +1,37 @@
+package com.school.scheduling.algorithm.strategy;
+
+/**
+ * Interchanges two values along a connected chain of the conflict graph: every variable in
+ * the chain holding one value takes the other. Applied as a whole, the chain cannot create a
+ * new clash between two of its members.
+ */
+public class KempeChainMove extends Move {
+
+    private final int[] genes;
+    private final int[] values;
+
+    public KempeChainMove(int[] genes, int[] values) {
+        this.genes = genes;
+        this.values = values;
+    }
+
+    @Override
+    public int size() {
+        return genes.length;
+    }
+
+    @Override
+    public int gene(int index) {
+        return genes[index];
+    }
+
+    @Override
+    public int value(int index) {
+        return values[index];
+    }
+
+    @Override
+    public String toString() {
+        return "KempeChainMove{length=" + genes.length + "}";
+    }
+}
@@ -0,0 +1,507 @@
+package com.school.scheduling.algorithm.strategy;
+
+import com.school.scheduling.algorithm.ConstraintSatisfactionProblem;
+import com.school.scheduling.algorithm.SolverExecutor;
+import com.school.scheduling.domain.constraint.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Large Neighborhood Search (LNS) implementation for school scheduling optimization.
+ * Repeatedly relaxes a structured neighborhood of the incumbent (a department, a day,
+ * a teacher's classes, a room cluster or a Kempe chain) and re-solves it with the CSP backtracker
+ * under a node budget. Operators that produce improvements are selected more often.
+ * Each worker keeps a {@link ScoreDirector} tally of its current solution, so a repaired
+ * candidate is scored by re-validating only the constraints around the genes that changed.
+ */
+public class LargeNeighborhoodSearchStrategy {
+
+    private static final double REWARD_NEW_BEST = 3.0;
+    private static final double REWARD_IMPROVED = 2.0;
+    private static final double REWARD_ACCEPTED = 0.5;
+
+    private final int maxIterations;
+    private final int nodeBudget;
+    private final double maxRelaxationRatio;
+    private final int workerCount;
+    private final double reactionFactor;
+
+    public LargeNeighborhoodSearchStrategy() {
+        this(500, 2000, 0.2, Runtime.getRuntime().availableProcessors(), 0.2);
+    }
+
+    public LargeNeighborhoodSearchStrategy(int maxIterations, int nodeBudget, double maxRelaxationRatio,
+                                           int workerCount, double reactionFactor) {
+        this.maxIterations = maxIterations;
+        this.nodeBudget = nodeBudget;
+        this.maxRelaxationRatio = maxRelaxationRatio;
+        this.workerCount = Math.max(1, workerCount);
+        this.reactionFactor = reactionFactor;
+    }
+
+    /**
+     * Solves CSP using large neighborhood search, starting from a random complete assignment.
+     */
+    public Optional<SchedulingAssignment> solve(ConstraintSatisfactionProblem csp) {
+        return solve(csp, generateInitialSolution(csp));
+    }
+
+    /**
+     * Improves the given starting solution using parallel LNS workers that share one incumbent.
+     */
+    public Optional<SchedulingAssignment> solve(ConstraintSatisfactionProblem csp, SchedulingAssignment initialSolution) {
+        return solve(csp, initialSolution, Long.MAX_VALUE);
+    }
+
+    /**
+     * As {@link #solve(ConstraintSatisfactionProblem, SchedulingAssignment)}, but workers stop
+     * taking new iterations once the deadline (epoch milliseconds) has passed.
+     */
+    public Optional<SchedulingAssignment> solve(ConstraintSatisfactionProblem csp, SchedulingAssignment initialSolution,
+                                                long deadlineMillis) {
+        return solve(csp, initialSolution, deadlineMillis, SearchListener.NONE);
+    }
+
+    /**
+     * As {@link #solve(ConstraintSatisfactionProblem, SchedulingAssignment, long)}, reporting each
+     * repaired neighborhood and each new incumbent to the listener.
+     */
+    public Optional<SchedulingAssignment> solve(ConstraintSatisfactionProblem csp, SchedulingAssignment initialSolution,
+                                                long deadlineMillis, SearchListener listener) {
+        return solve(csp, initialSolution, deadlineMillis, listener, null);
+    }
+
+    /**
+     * As {@link #solve(ConstraintSatisfactionProblem, SchedulingAssignment, long, SearchListener)},
+     * continuing from a checkpointed state when one is given: its best schedule replaces the
+     * starting solution and the learned operator weights and iteration count carry over.
+     */
+    public Optional<SchedulingAssignment> solve(ConstraintSatisfactionProblem csp, SchedulingAssignment initialSolution,
+                                                long deadlineMillis, SearchListener listener, SearchState resume) {
+        MoveNeighborhood moves = new MoveNeighborhood(new GenomeEncoding(csp), csp);
+        ScoreDirector director = new ScoreDirector(moves.getEncoding(), csp);
+        AdaptiveOperatorSelector selector = new AdaptiveOperatorSelector(reactionFactor);
+        int completedIterations = 0;
+        if (resume != null && resume.getBest() != null && resume.fits(moves.getEncoding())) {
+            initialSolution = moves.getEncoding().decode(resume.getBest());
+            selector.restore(resume.getOperatorWeights());
+            completedIterations = (int) Math.min(resume.getIteration(), maxIterations);
+        }
+
+        if (initialSolution == null) {
+            initialSolution = generateInitialSolution(csp);
+        }
+        if (csp.getVariables().isEmpty()) {
+            return Optional.of(initialSolution.copy());
+        }
+
+        AtomicReference<Incumbent> incumbent = new AtomicReference<>(
+            new Incumbent(initialSolution.copy(),
+                          director.fitness(director.evaluate(moves.getEncoding().encode(initialSolution)))));
+        AtomicInteger remainingIterations = new AtomicInteger(maxIterations - completedIterations);
+
+        ExecutorService executor = SolverExecutor.shared();
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int i = 0; i < workerCount; i++) {
+                workers.add(executor.submit(() -> runWorker(csp, director, moves, incumbent, selector, remainingIterations,
+                                                         deadlineMillis, listener)));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("LNS worker failed", e.getCause());
+        } finally {
+            // Workers on the shared pool are not interrupted; they stop at their next iteration
+            remainingIterations.set(0);
+        }
+
+        return Optional.of(incumbent.get().getAssignment());
+    }
+
+    private void runWorker(ConstraintSatisfactionProblem csp, ScoreDirector director, MoveNeighborhood moves,
+                           AtomicReference<Incumbent> incumbent, AdaptiveOperatorSelector selector,
+                           AtomicInteger remainingIterations, long deadlineMillis, SearchListener listener) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        GenomeEncoding encoding = moves.getEncoding();
+        SchedulingAssignment current = incumbent.get().getAssignment();
+        IncrementalFitnessEvaluator.Tally currentTally = director.evaluate(encoding.encode(current));
+        IncrementalFitnessEvaluator.Tally candidateTally = director.newTally();
+        double currentFitness = director.fitness(currentTally);
+        int maxRelaxed = Math.max(1, (int) Math.ceil(csp.getVariables().size() * maxRelaxationRatio));
+
+        while (remainingIterations.getAndDecrement() > 0 && !Thread.currentThread().isInterrupted()) {
+            if (incumbent.get().getFitness() >= 0.95 || System.currentTimeMillis() >= deadlineMillis) {
+                break;
+            }
+            if (listener.checkpointDue()) {
+                int completed = maxIterations - Math.max(0, remainingIterations.get());
+                listener.checkpoint(SearchState.largeNeighborhood(
+                    completed, moves.getEncoding().encode(incumbent.get().getAssignment()), selector.getWeights()));
+            }
+
+            NeighborhoodOperator operator = selector.select(random);
+            Set<SchedulingVariable> relaxed = operator.selectVariables(current, csp, moves, maxRelaxed, random);
+            if (relaxed.isEmpty()) {
+                selector.reward(operator, 0.0);
+                continue;
+            }
+
+            SchedulingAssignment candidate = repair(csp, current, currentTally, relaxed, candidateTally);
+            double candidateFitness = director.fitness(candidateTally);
+            listener.nodesExplored(1);
+
+            double reward = 0.0;
+            if (candidateFitness >= currentFitness) {
+                reward = candidateFitness > currentFitness ? REWARD_IMPROVED : REWARD_ACCEPTED;
+                current = candidate;
+                currentFitness = candidateFitness;
+                IncrementalFitnessEvaluator.Tally previous = currentTally;
+                currentTally = candidateTally;
+                candidateTally = previous;
+
+                if (offer(incumbent, candidate, candidateFitness)) {
+                    reward = REWARD_NEW_BEST;
+                    listener.improved(currentTally);
+                }
+            } else if (incumbent.get().getFitness() > currentFitness) {
+                // Another worker found something better; restart from the shared incumbent
+                Incumbent best = incumbent.get();
+                current = best.getAssignment();
+                currentFitness = best.getFitness();
+                encoding.encodeInto(current, candidateTally.genome());
+                candidateTally.deriveFrom(currentTally);
+                IncrementalFitnessEvaluator.Tally previous = currentTally;
+                currentTally = candidateTally;
+                candidateTally = previous;
+            }
+
+            selector.reward(operator, reward);
+        }
+    }
+
+    /**
+     * Re-solves the relaxed variables with the backtracker while every other variable
+     * stays pinned to its current value. Falls back to greedy repair when the node budget runs out.
+     * On return the candidate tally describes the repaired assignment.
+     */
+    private SchedulingAssignment repair(ConstraintSatisfactionProblem csp, SchedulingAssignment current,
+                                        IncrementalFitnessEvaluator.Tally currentTally, Set<SchedulingVariable> relaxed,
+                                        IncrementalFitnessEvaluator.Tally candidate) {
+        Map<SchedulingVariable, List<SchedulingValue>> subproblemDomains = new HashMap<>();
+        for (Map.Entry<SchedulingVariable, List<SchedulingValue>> entry : csp.getDomains().entrySet()) {
+            SchedulingVariable variable = entry.getKey();
+            SchedulingValue currentValue = current.getValue(variable);
+
+            if (relaxed.contains(variable) || currentValue == null) {
+                List<SchedulingValue> values = new ArrayList<>(entry.getValue());
+                Collections.shuffle(values, ThreadLocalRandom.current());
+                subproblemDomains.put(variable, values);
+            } else {
+                subproblemDomains.put(variable, Collections.singletonList(currentValue));
+            }
+        }
+
+        ConstraintSatisfactionProblem subproblem = new ConstraintSatisfactionProblem(
+            csp.getVariables(), csp.getConstraints(), subproblemDomains);
+        subproblem.setNodeLimit(nodeBudget);
+
+        Optional<SchedulingAssignment> result = subproblem.solveWithStrategy(
+            ConstraintSatisfactionProblem.SolvingStrategy.BACKTRACKING_FORWARD_CHECKING);
+        if (result.isPresent()) {
+            candidate.getEncoding().encodeInto(result.get(), candidate.genome());
+            candidate.deriveFrom(currentTally);
+            return result.get();
+        }
+
+        // The pinned part may itself be infeasible; fall back to a greedy repair so the search can still move
+        return greedyRepair(currentTally, relaxed, candidate);
+    }
+
+    /**
+     * Clears the relaxed genes, then gives each in random order the value that scores best.
+     * Every trial value is a single gene change on the candidate tally.
+     */
+    private SchedulingAssignment greedyRepair(IncrementalFitnessEvaluator.Tally currentTally,
+                                              Set<SchedulingVariable> relaxed,
+                                              IncrementalFitnessEvaluator.Tally candidate) {
+        GenomeEncoding encoding = candidate.getEncoding();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<Integer> order = new ArrayList<>();
+        for (SchedulingVariable variable : relaxed) {
+            int gene = encoding.indexOf(variable);
+            if (gene >= 0) {
+                order.add(gene);
+            }
+        }
+        Collections.shuffle(order, random);
+
+        candidate.copyFrom(currentTally);
+        for (int gene : order) {
+            candidate.change(gene, GenomeEncoding.UNASSIGNED);
+        }
+
+        for (int gene : order) {
+            int bestValue = GenomeEncoding.UNASSIGNED;
+            double bestFitness = Double.NEGATIVE_INFINITY;
+
+            // Start at a random value so that ties do not always fall back to the first domain value
+            int domainSize = encoding.domainSize(gene);
+            int offset = domainSize > 0 ? random.nextInt(domainSize) : 0;
+            for (int i = 0; i < domainSize; i++) {
+                int value = (offset + i) % domainSize;
+                candidate.change(gene, value);
+                double fitness = candidate.getFitness();
+                if (fitness > bestFitness) {
+                    bestFitness = fitness;
+                    bestValue = value;
+                }
+            }
+            candidate.change(gene, bestValue);
+        }
+
+        return encoding.decode(candidate.genome());
+    }
+
+    private boolean offer(AtomicReference<Incumbent> incumbent, SchedulingAssignment candidate, double fitness) {
+        Incumbent proposed = new Incumbent(candidate.copy(), fitness);
+        Incumbent previous = incumbent.getAndUpdate(best -> fitness > best.getFitness() ? proposed : best);
+        return fitness > previous.getFitness();
+    }
+
+    private SchedulingAssignment generateInitialSolution(ConstraintSatisfactionProblem csp) {
+        SchedulingAssignment assignment = new SchedulingAssignment();
+
+        for (Map.Entry<SchedulingVariable, List<SchedulingValue>> entry : csp.getDomains().entrySet()) {
+            List<SchedulingValue> values = entry.getValue();
+            if (!values.isEmpty()) {
+                assignment.assign(entry.getKey(), values.get(ThreadLocalRandom.current().nextInt(values.size())));
+            }
+        }
+
+        return assignment;
+    }
+
+    // Helper classes
+
+    /**
+     * Destroy operators. Each one picks a structured set of variables to relax.
+     */
+    public enum NeighborhoodOperator {
+        /** All offerings of one department, keyed by the course code prefix. */
+        DEPARTMENT {
+            @Override
+            Set<SchedulingVariable> selectVariables(SchedulingAssignment current, ConstraintSatisfactionProblem csp,
+                                                    int maxSize, Random random) {
+                return selectByKey(csp.getVariables(), v -> departmentKey(v.getDisplayName()), maxSize, random);
+            }
+        },
+        /** All offerings placed on one day of the week. */
+        DAY {
+            @Override
+            Set<SchedulingVariable> selectVariables(SchedulingAssignment current, ConstraintSatisfactionProblem csp,
+                                                    int maxSize, Random random) {
+                return selectByAssignedValue(current, ValueType.TIME_SLOT, v -> firstToken(v.getDisplayName()),
+                    maxSize, random);
+            }
+        },
+        /** All offerings taught by one teacher. */
+        TEACHER {
+            @Override
+            Set<SchedulingVariable> selectVariables(SchedulingAssignment current, ConstraintSatisfactionProblem csp,
+                                                    int maxSize, Random random) {
+                return selectByAssignedValue(current, ValueType.TEACHER, SchedulingValue::getId, maxSize, random);
+            }
+        },
+        /** All offerings held in one building, keyed by the room code prefix. */
+        ROOM_CLUSTER {
+            @Override
+            Set<SchedulingVariable> selectVariables(SchedulingAssignment current, ConstraintSatisfactionProblem csp,
+                                                    int maxSize, Random random) {
+                return selectByAssignedValue(current, ValueType.CLASSROOM, v -> buildingKey(v.getDisplayName()),
+                    maxSize, random);
+            }
+        },
+        /** A uniformly random subset, used as a diversification fallback. */
+        RANDOM {
+            @Override
+            Set<SchedulingVariable> selectVariables(SchedulingAssignment current, ConstraintSatisfactionProblem csp,
+                                                    int maxSize, Random random) {
+                List<SchedulingVariable> variables = new ArrayList<>(csp.getVariables());
+                Collections.shuffle(variables, random);
+                return new HashSet<>(variables.subList(0, Math.min(maxSize, variables.size())));
+            }
+        },
+        /** The offerings of a Kempe chain between two values over the conflict graph. */
+        KEMPE_CHAIN {
+            @Override
+            Set<SchedulingVariable> selectVariables(SchedulingAssignment current, ConstraintSatisfactionProblem csp,
+                                                    int maxSize, Random random) {
+                return selectVariables(current, csp, new MoveNeighborhood(new GenomeEncoding(csp), csp), maxSize, random);
+            }
+
+            @Override
+            Set<SchedulingVariable> selectVariables(SchedulingAssignment current, ConstraintSatisfactionProblem csp,
+                                                    MoveNeighborhood moves, int maxSize, Random random) {
+                GenomeEncoding encoding = moves.getEncoding();
+                Move chain = moves.randomKempeChain(encoding.encode(current), random);
+                if (chain == null) {
+                    return Collections.emptySet();
+                }
+
+                Set<SchedulingVariable> selected = new HashSet<>();
+                for (int i = 0; i < chain.size() && selected.size() < maxSize; i++) {
+                    selected.add(encoding.getVariable(chain.gene(i)));
+                }
+                return selected;
+            }
+        };
+
+        abstract Set<SchedulingVariable> selectVariables(SchedulingAssignment current, ConstraintSatisfactionProblem csp,
+                                                         int maxSize, Random random);
+
+        /**
+         * Variant that can reuse move generators built once per solve.
+         */
+        Set<SchedulingVariable> selectVariables(SchedulingAssignment current, ConstraintSatisfactionProblem csp,
+                                                MoveNeighborhood moves, int maxSize, Random random) {
+            return selectVariables(current, csp, maxSize, random);
+        }
+
+        private static Set<SchedulingVariable> selectByKey(Collection<SchedulingVariable> variables,
+                                                           Function<SchedulingVariable, String> keyFunction,
+                                                           int maxSize, Random random) {
+            Map<String, List<SchedulingVariable>> groups = variables.stream()
+                .collect(Collectors.groupingBy(keyFunction));
+            if (groups.isEmpty()) {
+                return Collections.emptySet();
+            }
+
+            List<String> keys = new ArrayList<>(groups.keySet());
+            Collections.sort(keys);
+            List<SchedulingVariable> group = new ArrayList<>(groups.get(keys.get(random.nextInt(keys.size()))));
+            Collections.shuffle(group, random);
+            return new HashSet<>(group.subList(0, Math.min(maxSize, group.size())));
+        }
+
+        private static Set<SchedulingVariable> selectByAssignedValue(SchedulingAssignment current, ValueType valueType,
+                                                                     Function<SchedulingValue, String> keyFunction,
+                                                                     int maxSize, Random random) {
+            List<SchedulingVariable> candidates = current.getAssignedVariables().stream()
+                .filter(v -> current.getValue(v).getType() == valueType)
+                .collect(Collectors.toList());
+            return selectByKey(candidates, v -> keyFunction.apply(current.getValue(v)), maxSize, random);
+        }
+
+        private static String departmentKey(String courseDisplayName) {
+            String code = firstToken(courseDisplayName);
+            int end = 0;
+            while (end < code.length() && Character.isLetter(code.charAt(end))) {
+                end++;
+            }
+            return end > 0 ? code.substring(0, end) : code;
+        }
+
+        private static String buildingKey(String roomCode) {
+            int separator = roomCode.indexOf('-');
+            return separator > 0 ? roomCode.substring(0, separator) : roomCode;
+        }
+
+        private static String firstToken(String text) {
+            if (text == null) {
+                return "";
+            }
+            int space = text.indexOf(' ');
+            return space > 0 ? text.substring(0, space) : text;
+        }
+    }
+
+    /**
+     * Roulette-wheel operator selection with weights smoothed towards recent rewards.
+     */
+    static class AdaptiveOperatorSelector {
+        private static final double MIN_WEIGHT = 0.05;
+
+        private final NeighborhoodOperator[] operators = NeighborhoodOperator.values();
+        private final double[] weights = new double[operators.length];
+        private final double reactionFactor;
+
+        AdaptiveOperatorSelector(double reactionFactor) {
+            this.reactionFactor = reactionFactor;
+            Arrays.fill(weights, 1.0);
+        }
+
+        synchronized NeighborhoodOperator select(Random random) {
+            double total = 0.0;
+            for (double weight : weights) {
+                total += weight;
+            }
+
+            double pick = random.nextDouble() * total;
+            for (int i = 0; i < operators.length; i++) {
+                pick -= weights[i];
+                if (pick <= 0) {
+                    return operators[i];
+                }
+            }
+            return operators[operators.length - 1];
+        }
+
+        synchronized void reward(NeighborhoodOperator operator, double reward) {
+            int index = operator.ordinal();
+            weights[index] = Math.max(MIN_WEIGHT, (1 - reactionFactor) * weights[index] + reactionFactor * reward);
+        }
+
+        synchronized double getWeight(NeighborhoodOperator operator) {
+            return weights[operator.ordinal()];
+        }
+
+        synchronized double[] getWeights() {
+            return weights.clone();
+        }
+
+        /**
+         * Loads checkpointed weights; ignored when the operator set has changed since.
+         */
+        synchronized void restore(double[] saved) {
+            if (saved != null && saved.length == weights.length) {
+                for (int i = 0; i < weights.length; i++) {
+                    weights[i] = Math.max(MIN_WEIGHT, saved[i]);
+                }
+            }
+        }
+    }
+
+    private static class Incumbent {
+        private final SchedulingAssignment assignment;
+        private final double fitness;
+
+        Incumbent(SchedulingAssignment assignment, double fitness) {
+            this.assignment = assignment;
+            this.fitness = fitness;
+        }
+
+        SchedulingAssignment getAssignment() {
+            return assignment.copy();
+        }
+
+        double getFitness() {
+            return fitness;
+        }
+    }
+
+    // Getters for configuration
+    public int getMaxIterations() { return maxIterations; }
+    public int getNodeBudget() { return nodeBudget; }
+    public double getMaxRelaxationRatio() { return maxRelaxationRatio; }
+    public int getWorkerCount() { return workerCount; }
+    public double getReactionFactor() { return reactionFactor; }
+}
@@ -1,15 +1,23 @@
 package com.school.scheduling.algorithm.strategy;
 
 import com.school.scheduling.algorithm.ConstraintSatisfactionProblem;
+import com.school.scheduling.algorithm.SolverExecutor;
 import com.school.scheduling.domain.constraint.*;
 
 import java.util.*;
-import java.util.concurrent.ThreadLocalRandom;
-import java.util.stream.Collectors;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
 
 /**
  * Local search algorithm implementation for school scheduling optimization.
  * Uses hill climbing and simulated annealing to find local optima.
+ * Neighbors are applied to an {@link IncrementalFitnessEvaluator.Tally} in place and reverted
+ * when rejected, so a move only re-validates the constraints on the changed variable and the
+ * unscoped ones.
+ * Fitness is the tally's {@link ScoreDirector} score folded into [0, 1].
+ * A replica-exchange mode runs several annealing chains at fixed, self-tuning temperatures
+ * on a worker pool and swaps their states with the Metropolis criterion. Tabu search scores
+ * lightweight {@link Move} objects and keeps tenure in an array indexed by (variable, value).
  */
 public class LocalSearchStrategy {
 
@@ -18,6 +26,23 @@ public class LocalSearchStrategy {
     private final double initialTemperature;
     private final double coolingRate;
     private final boolean useSimulatedAnnealing;
+    private final int replicaCount;
+    private final int exchangeInterval;
+    private final int workerCount;
+    private final int tabuSampleSize;
+
+    // Tabu search tuning
+    private static final int TABU_TENURE = 50;
+    private static final int PARALLEL_NEIGHBORHOOD_SIZE = 256;
+
+    // Iterations between two looks at whether a checkpoint is due
+    private static final int CHECKPOINT_POLL_INTERVAL = 64;
+    // Replica steps between two looks at the clock
+    private static final int DEADLINE_POLL_INTERVAL = 64;
+
+    // Replica exchange tuning
+    private static final double TARGET_SWAP_ACCEPTANCE = 0.3;
+    private static final double MIN_TEMPERATURE = 1e-4;
 
     public LocalSearchStrategy() {
         this(1000, 100, 100.0, 0.995, true);
@@ -25,52 +50,124 @@ public class LocalSearchStrategy {
 
     public LocalSearchStrategy(int maxIterations, int maxNonImprovingIterations,
                              double initialTemperature, double coolingRate, boolean useSimulatedAnnealing) {
+        this(maxIterations, maxNonImprovingIterations, initialTemperature, coolingRate, useSimulatedAnnealing,
+             Runtime.getRuntime().availableProcessors(), 50, Runtime.getRuntime().availableProcessors());
+    }
+
+    public LocalSearchStrategy(int maxIterations, int maxNonImprovingIterations,
+                             double initialTemperature, double coolingRate, boolean useSimulatedAnnealing,
+                             int replicaCount, int exchangeInterval, int workerCount) {
+        this(maxIterations, maxNonImprovingIterations, initialTemperature, coolingRate, useSimulatedAnnealing,
+             replicaCount, exchangeInterval, workerCount, 50);
+    }
+
+    /**
+     * @param tabuSampleSize candidate moves sampled per tabu iteration; 0 scans the full neighborhood
+     */
+    public LocalSearchStrategy(int maxIterations, int maxNonImprovingIterations,
+                             double initialTemperature, double coolingRate, boolean useSimulatedAnnealing,
+                             int replicaCount, int exchangeInterval, int workerCount, int tabuSampleSize) {
         this.maxIterations = maxIterations;
         this.maxNonImprovingIterations = maxNonImprovingIterations;
         this.initialTemperature = initialTemperature;
         this.coolingRate = coolingRate;
         this.useSimulatedAnnealing = useSimulatedAnnealing;
+        this.replicaCount = Math.max(2, replicaCount);
+        this.exchangeInterval = Math.max(1, exchangeInterval);
+        this.workerCount = Math.max(1, workerCount);
+        this.tabuSampleSize = Math.max(0, tabuSampleSize);
     }
 
     /**
      * Solves CSP using local search algorithm.
      */
     public Optional<SchedulingAssignment> solve(ConstraintSatisfactionProblem csp) {
-        // Generate initial solution
-        SchedulingAssignment currentSolution = generateInitialSolution(csp);
-        double currentFitness = calculateFitness(currentSolution, csp);
+        return solve(csp, null, Long.MAX_VALUE);
+    }
 
-        SchedulingAssignment bestSolution = currentSolution.copy();
-        double bestFitness = currentFitness;
+    /**
+     * Local search from the given starting solution (greedy start when null), stopping at the
+     * deadline (epoch milliseconds) at the latest.
+     */
+    public Optional<SchedulingAssignment> solve(ConstraintSatisfactionProblem csp, SchedulingAssignment initialSolution,
+                                                long deadlineMillis) {
+        return solve(csp, initialSolution, deadlineMillis, SearchListener.NONE);
+    }
 
-        double temperature = initialTemperature;
+    /**
+     * As {@link #solve(ConstraintSatisfactionProblem, SchedulingAssignment, long)}, reporting each
+     * iteration and each new best solution to the listener.
+     */
+    public Optional<SchedulingAssignment> solve(ConstraintSatisfactionProblem csp, SchedulingAssignment initialSolution,
+                                                long deadlineMillis, SearchListener listener) {
+        return solve(csp, initialSolution, deadlineMillis, listener, null);
+    }
+
+    /**
+     * As {@link #solve(ConstraintSatisfactionProblem, SchedulingAssignment, long, SearchListener)},
+     * continuing from a checkpointed state when one is given (the starting solution is then ignored).
+     * The current and best genomes, temperature and random stream go to the listener whenever it
+     * asks for a checkpoint.
+     */
+    public Optional<SchedulingAssignment> solve(ConstraintSatisfactionProblem csp, SchedulingAssignment initialSolution,
+                                                long deadlineMillis, SearchListener listener, SearchState resume) {
+        GenomeEncoding encoding = new GenomeEncoding(csp);
+        IncrementalFitnessEvaluator evaluator = new IncrementalFitnessEvaluator(encoding, csp);
+        MoveNeighborhood neighborhood = new MoveNeighborhood(encoding, csp);
+        boolean resuming = resume != null && resume.getCurrent() != null && resume.fits(encoding);
+        SplitMixRandom random = resuming && resume.getRandomStates() != null
+            ? new SplitMixRandom(resume.getRandomStates()[0]) : SplitMixRandom.seeded();
+
+        // Generate initial solution, or pick up where the checkpoint left off
+        IncrementalFitnessEvaluator.Tally current = resuming
+            ? evaluator.evaluate(resume.getCurrent()) : startFrom(evaluator, initialSolution, random);
+        double currentFitness = calculateFitness(current);
+
+        int[] bestSolution = resuming && resume.getBest() != null ? resume.getBest().clone() : current.genome().clone();
+        double bestFitness = resuming ? calculateFitness(evaluator.evaluate(bestSolution)) : currentFitness;
+        int[] previous = new int[Math.max(1, encoding.size())];
+
+        double temperature = resuming ? resume.getTemperature() : initialTemperature;
         int nonImprovingIterations = 0;
+        int firstIteration = resuming ? (int) Math.min(resume.getIteration(), maxIterations) : 0;
+
+        for (int iteration = firstIteration; iteration < maxIterations; iteration++) {
+            if (iteration % CHECKPOINT_POLL_INTERVAL == 0 && listener.checkpointDue()) {
+                listener.checkpoint(SearchState.annealing(iteration, bestSolution, current.genome(), temperature,
+                                                          random.getState()));
+            }
 
-        for (int iteration = 0; iteration < maxIterations; iteration++) {
-            // Generate neighbor solution
-            SchedulingAssignment neighborSolution = generateNeighbor(currentSolution, csp);
-            double neighborFitness = calculateFitness(neighborSolution, csp);
+            // Apply a neighbor move in place; only the constraints on the moved genes are re-checked
+            Move move = neighborhood.randomMove(current.genome(), random);
+            if (move != null) {
+                move.apply(current, previous);
+            }
+            double neighborFitness = calculateFitness(current);
+            listener.nodesExplored(1);
 
             // Acceptance criteria
             boolean acceptNeighbor = false;
             if (useSimulatedAnnealing) {
-                acceptNeighbor = acceptWithProbability(currentFitness, neighborFitness, temperature);
+                acceptNeighbor = acceptWithProbability(currentFitness, neighborFitness, temperature, random);
             } else {
                 acceptNeighbor = neighborFitness > currentFitness;
             }
 
             if (acceptNeighbor) {
-                currentSolution = neighborSolution;
                 currentFitness = neighborFitness;
 
                 if (neighborFitness > bestFitness) {
-                    bestSolution = neighborSolution.copy();
+                    System.arraycopy(current.genome(), 0, bestSolution, 0, bestSolution.length);
                     bestFitness = neighborFitness;
                     nonImprovingIterations = 0;
+                    listener.improved(current);
                 } else {
                     nonImprovingIterations++;
                 }
             } else {
+                if (move != null) {
+                    move.undo(current, previous);
+                }
                 nonImprovingIterations++;
             }
 
@@ -80,351 +177,655 @@ public class LocalSearchStrategy {
             }
 
             // Check termination conditions
-            if (bestFitness >= 0.95 || nonImprovingIterations >= maxNonImprovingIterations) {
+            if (bestFitness >= 0.95 || nonImprovingIterations >= maxNonImprovingIterations
+                || System.currentTimeMillis() >= deadlineMillis) {
                 break;
             }
         }
 
-        return Optional.ofNullable(bestSolution);
+        return Optional.of(encoding.decode(bestSolution));
     }
 
-    private SchedulingAssignment generateInitialSolution(ConstraintSatisfactionProblem csp) {
-        SchedulingAssignment assignment = new SchedulingAssignment();
-        Map<SchedulingVariable, List<SchedulingValue>> domains = csp.getDomains();
-
-        List<SchedulingVariable> variables = new ArrayList<>(domains.keySet());
-        Collections.shuffle(variables);
+    /**
+     * Improves soft constraints without giving up hard ones: first-improvement descent over
+     * single changes that never raise the hard violation count and lower the soft one
+     * (or lower the hard count). Stops at a local optimum or at the deadline.
+     */
+    public Optional<SchedulingAssignment> polishSoftConstraints(ConstraintSatisfactionProblem csp,
+                                                                SchedulingAssignment initialSolution,
+                                                                long deadlineMillis) {
+        return polishSoftConstraints(csp, initialSolution, deadlineMillis, SearchListener.NONE);
+    }
 
-        for (SchedulingVariable variable : variables) {
-            List<SchedulingValue> possibleValues = domains.get(variable);
-            if (!possibleValues.isEmpty()) {
-                // Try to assign the best possible value first
-                SchedulingValue bestValue = findBestValueForVariable(variable, possibleValues, assignment, csp);
-                assignment.assign(variable, bestValue);
-            }
+    public Optional<SchedulingAssignment> polishSoftConstraints(ConstraintSatisfactionProblem csp,
+                                                                SchedulingAssignment initialSolution,
+                                                                long deadlineMillis, SearchListener listener) {
+        GenomeEncoding encoding = new GenomeEncoding(csp);
+        IncrementalFitnessEvaluator evaluator = new IncrementalFitnessEvaluator(encoding, csp);
+        Random random = ThreadLocalRandom.current();
+        IncrementalFitnessEvaluator.Tally current = startFrom(evaluator, initialSolution, random);
+
+        List<Integer> genes = new ArrayList<>();
+        for (int gene = 0; gene < encoding.size(); gene++) {
+            genes.add(gene);
         }
 
-        return assignment;
-    }
+        boolean improved = true;
+        long visited = 0;
+        while (improved && System.currentTimeMillis() < deadlineMillis) {
+            improved = false;
+            Collections.shuffle(genes, random);
 
-    private SchedulingValue findBestValueForVariable(SchedulingVariable variable, List<SchedulingValue> values,
-                                                    SchedulingAssignment assignment, ConstraintSatisfactionProblem csp) {
-        SchedulingValue bestValue = values.get(0);
-        double bestScore = Double.NEGATIVE_INFINITY;
+            for (int gene : genes) {
+                // A descent has no state beyond its current genome, so that is all it checkpoints
+                if (++visited % CHECKPOINT_POLL_INTERVAL == 0 && listener.checkpointDue()) {
+                    listener.checkpoint(SearchState.incumbent(current.genome()));
+                }
 
-        for (SchedulingValue value : values) {
-            assignment.assign(variable, value);
-            double score = evaluatePartialAssignment(assignment, csp);
-            assignment.unassign(variable);
+                int original = current.genome()[gene];
+                if (original == GenomeEncoding.UNASSIGNED) continue;
+
+                int hard = current.getHardViolationCount();
+                int soft = current.getSoftViolationCount();
+                for (int value = 0; value < encoding.domainSize(gene); value++) {
+                    if (value == original) continue;
+
+                    current.change(gene, value);
+                    listener.nodesExplored(1);
+                    int newHard = current.getHardViolationCount();
+                    if (newHard < hard || (newHard == hard && current.getSoftViolationCount() < soft)) {
+                        listener.improved(current);
+                        improved = true;
+                        break;
+                    }
+                    current.change(gene, original);
+                }
 
-            if (score > bestScore) {
-                bestScore = score;
-                bestValue = value;
+                if (System.currentTimeMillis() >= deadlineMillis) {
+                    break;
+                }
             }
         }
 
-        return bestValue;
+        return Optional.of(encoding.decode(current.genome()));
     }
 
-    private double evaluatePartialAssignment(SchedulingAssignment assignment, ConstraintSatisfactionProblem csp) {
-        double score = 0.0;
-        int constraintCount = 0;
-
-        for (SchedulingConstraint constraint : csp.getConstraints()) {
-            // Only evaluate constraints that involve assigned variables
-            if (hasAssignedVariablesInScope(constraint, assignment)) {
-                ConstraintResult result = constraint.validate(assignment);
-                if (result.isSatisfied()) {
-                    score += 1.0;
-                }
-                constraintCount++;
-            }
+    /**
+     * Tally for the given starting solution; genes it leaves unassigned are filled greedily.
+     * Without a starting solution the whole genome is built greedily.
+     */
+    private IncrementalFitnessEvaluator.Tally startFrom(IncrementalFitnessEvaluator evaluator,
+                                                        SchedulingAssignment initialSolution, Random random) {
+        if (initialSolution == null) {
+            return generateInitialSolution(evaluator, random);
         }
 
-        return constraintCount > 0 ? score / constraintCount : 0.0;
-    }
-
-    private boolean hasAssignedVariablesInScope(SchedulingConstraint constraint, SchedulingAssignment assignment) {
-        Set<SchedulingVariable> scope = constraint.getScope();
-        for (SchedulingVariable variable : scope) {
-            if (assignment.isAssigned(variable)) {
-                return true;
+        GenomeEncoding encoding = evaluator.getEncoding();
+        IncrementalFitnessEvaluator.Tally tally = evaluator.evaluate(encoding.encode(initialSolution));
+        for (int gene = 0; gene < encoding.size(); gene++) {
+            if (tally.genome()[gene] == GenomeEncoding.UNASSIGNED && encoding.domainSize(gene) > 0) {
+                tally.change(gene, findBestValueForVariable(tally, gene));
             }
         }
-        return false;
+        return tally;
     }
 
-    private SchedulingAssignment generateNeighbor(SchedulingAssignment current, ConstraintSatisfactionProblem csp) {
-        SchedulingAssignment neighbor = current.copy();
-        Map<SchedulingVariable, List<SchedulingValue>> domains = csp.getDomains();
+    private IncrementalFitnessEvaluator.Tally generateInitialSolution(IncrementalFitnessEvaluator evaluator,
+                                                                       Random random) {
+        GenomeEncoding encoding = evaluator.getEncoding();
+        IncrementalFitnessEvaluator.Tally tally = evaluator.newTally();
+        tally.evaluate();
 
-        List<SchedulingVariable> assignedVariables = new ArrayList<>(current.getAssignments().keySet());
-        if (assignedVariables.isEmpty()) {
-            return neighbor;
+        List<Integer> genes = new ArrayList<>();
+        for (int gene = 0; gene < encoding.size(); gene++) {
+            genes.add(gene);
         }
+        Collections.shuffle(genes, random);
 
-        // Select a random variable to modify
-        SchedulingVariable variable = assignedVariables.get(ThreadLocalRandom.current().nextInt(assignedVariables.size()));
-        List<SchedulingValue> possibleValues = new ArrayList<>(domains.get(variable));
-
-        // Remove current value from options
-        SchedulingValue currentValue = current.getValue(variable);
-        possibleValues.remove(currentValue);
-
-        if (!possibleValues.isEmpty()) {
-            // Try a different value
-            SchedulingValue newValue = possibleValues.get(ThreadLocalRandom.current().nextInt(possibleValues.size()));
-            neighbor.assign(variable, newValue);
+        for (int gene : genes) {
+            if (encoding.domainSize(gene) > 0) {
+                // Try to assign the best possible value first
+                tally.change(gene, findBestValueForVariable(tally, gene));
+            }
         }
 
-        return neighbor;
+        return tally;
     }
 
-    private double calculateFitness(SchedulingAssignment assignment, ConstraintSatisfactionProblem csp) {
-        double fitness = 0.0;
-
-        // Primary: constraint satisfaction
-        double constraintScore = calculateConstraintSatisfaction(assignment, csp);
-        fitness += constraintScore * 0.6;
+    private int findBestValueForVariable(IncrementalFitnessEvaluator.Tally tally, int gene) {
+        GenomeEncoding encoding = tally.getEncoding();
+        int bestValue = 0;
+        double bestScore = Double.NEGATIVE_INFINITY;
 
-        // Secondary: solution completeness
-        double completenessScore = calculateCompleteness(assignment, csp);
-        fitness += completenessScore * 0.3;
+        for (int value = 0; value < encoding.domainSize(gene); value++) {
+            tally.change(gene, value);
+            double score = calculateFitness(tally);
 
-        // Tertiary: resource efficiency
-        double efficiencyScore = calculateResourceEfficiency(assignment, csp);
-        fitness += efficiencyScore * 0.1;
+            if (score > bestScore) {
+                bestScore = score;
+                bestValue = value;
+            }
+        }
+        tally.change(gene, GenomeEncoding.UNASSIGNED);
 
-        return Math.max(0, Math.min(1, fitness));
+        return bestValue;
     }
 
-    private double calculateConstraintSatisfaction(SchedulingAssignment assignment,
-                                                 ConstraintSatisfactionProblem csp) {
-        int satisfiedConstraints = 0;
-        int applicableConstraints = 0;
+    /**
+     * Fitness of the tally under its {@link ScoreDirector}. Unassigned variables cost the same
+     * whatever value a gene takes, so this also ranks the values of one gene in a partial assignment.
+     */
+    private double calculateFitness(IncrementalFitnessEvaluator.Tally tally) {
+        return tally.getFitness();
+    }
 
-        for (SchedulingConstraint constraint : csp.getConstraints()) {
-            if (hasAssignedVariablesInScope(constraint, assignment)) {
-                ConstraintResult result = constraint.validate(assignment);
-                if (result.isSatisfied()) {
-                    satisfiedConstraints++;
-                }
-                applicableConstraints++;
-            }
+    private boolean acceptWithProbability(double currentFitness, double neighborFitness, double temperature,
+                                          Random random) {
+        if (neighborFitness > currentFitness) {
+            return true; // Always accept better solutions
         }
 
-        return applicableConstraints > 0 ? (double) satisfiedConstraints / applicableConstraints : 1.0;
+        // Accept worse solutions with probability based on temperature
+        double delta = currentFitness - neighborFitness;
+        double probability = Math.exp(-delta / temperature);
+
+        return random.nextDouble() < probability;
     }
 
-    private double calculateCompleteness(SchedulingAssignment assignment, ConstraintSatisfactionProblem csp) {
-        int assignedVariables = assignment.getAssignments().size();
-        int totalVariables = csp.getVariables().size();
+    /**
+     * Solves CSP with replica-exchange simulated annealing on the shared solver pool.
+     */
+    public Optional<SchedulingAssignment> solveWithParallelTempering(ConstraintSatisfactionProblem csp) {
+        return solveWithParallelTempering(csp, SolverExecutor.shared());
+    }
 
-        return totalVariables > 0 ? (double) assignedVariables / totalVariables : 1.0;
+    public Optional<SchedulingAssignment> solveWithParallelTempering(ConstraintSatisfactionProblem csp,
+                                                                     ExecutorService workers) {
+        return solveWithParallelTempering(csp, null, Long.MAX_VALUE, SearchListener.NONE, null, workers);
     }
 
-    private double calculateResourceEfficiency(SchedulingAssignment assignment, ConstraintSatisfactionProblem csp) {
-        // Calculate efficiency based on preference scores and resource distribution
-        Map<SchedulingVariable, SchedulingValue> assignments = assignment.getAssignments();
+    /**
+     * Replica-exchange annealing on the shared solver pool from the given starting solution (greedy
+     * starts when null), stopping at the deadline (epoch milliseconds) at the latest. A checkpointed
+     * state restarts every replica from its best genome; the best genome goes to the listener
+     * whenever it asks for a checkpoint.
+     */
+    public Optional<SchedulingAssignment> solveWithParallelTempering(ConstraintSatisfactionProblem csp,
+                                                                     SchedulingAssignment initialSolution,
+                                                                     long deadlineMillis, SearchListener listener,
+                                                                     SearchState resume) {
+        return solveWithParallelTempering(csp, initialSolution, deadlineMillis, listener, resume, SolverExecutor.shared());
+    }
 
-        if (assignments.isEmpty()) return 0.0;
+    /**
+     * Solves CSP with replica-exchange simulated annealing. Replicas run their Metropolis sweeps
+     * concurrently on the given executor; between sweeps neighbouring temperatures swap states
+     * and the ladder is stretched or compressed toward the target swap acceptance rate. Sweeps
+     * cut short at the deadline, so a round never runs far past it.
+     */
+    public Optional<SchedulingAssignment> solveWithParallelTempering(ConstraintSatisfactionProblem csp,
+                                                                     SchedulingAssignment initialSolution,
+                                                                     long deadlineMillis, SearchListener listener,
+                                                                     SearchState resume, ExecutorService workers) {
+        GenomeEncoding encoding = new GenomeEncoding(csp);
+        IncrementalFitnessEvaluator evaluator = new IncrementalFitnessEvaluator(encoding, csp);
+        MoveNeighborhood neighborhood = new MoveNeighborhood(encoding, csp);
+        Random random = new Random(ThreadLocalRandom.current().nextLong());
+        int[] resumed = resume != null && resume.getBest() != null && resume.fits(encoding) ? resume.getBest() : null;
+
+        List<Replica> replicas = new ArrayList<>();
+        for (int k = 0; k < replicaCount; k++) {
+            replicas.add(new Replica(neighborhood, new Random(random.nextLong())));
+        }
+        runOnWorkers(workers, replicas, replica -> {
+            replica.tally = resumed != null
+                ? evaluator.evaluate(resumed.clone()) : startFrom(evaluator, initialSolution, replica.random);
+            replica.fitness = calculateFitness(replica.tally);
+        });
+
+        // Geometric ladder: the coldest chain rarely accepts a typical worsening move,
+        // the hottest usually does (capped by the configured initial temperature)
+        double moveScale = estimateMoveScale(replicas.get(0));
+        double coldest = Math.max(MIN_TEMPERATURE, moveScale / Math.log(100));
+        double hottest = Math.max(coldest * 2, Math.min(initialTemperature, moveScale / Math.log(1 / 0.9)));
+        double[] temperatures = new double[replicaCount];
+        for (int k = 0; k < replicaCount; k++) {
+            temperatures[k] = coldest * Math.pow(hottest / coldest, (double) k / (replicaCount - 1));
+        }
+
+        int[] bestSolution = null;
+        double bestFitness = Double.NEGATIVE_INFINITY;
+        int[] swapAttempts = new int[replicaCount - 1];
+        int[] swapAccepts = new int[replicaCount - 1];
+        int nonImprovingIterations = 0;
+        int round = 0;
 
-        double totalPreference = assignments.values().stream()
-            .mapToDouble(SchedulingValue::getPreferenceScore)
-            .sum();
+        for (int iteration = 0; iteration < maxIterations && System.currentTimeMillis() < deadlineMillis;
+             iteration += exchangeInterval, round++) {
+            int sweepLength = Math.min(exchangeInterval, maxIterations - iteration);
+            for (int k = 0; k < replicaCount; k++) {
+                replicas.get(k).temperature = temperatures[k];
+            }
+            runOnWorkers(workers, replicas, replica -> replica.sweep(sweepLength, deadlineMillis));
+
+            // Collect the best state seen by any chain; listeners are only called from this thread
+            boolean improved = false;
+            for (Replica replica : replicas) {
+                listener.nodesExplored(replica.swept);
+                if (replica.bestFitness > bestFitness) {
+                    bestFitness = replica.bestFitness;
+                    bestSolution = replica.bestGenome.clone();
+                    improved = true;
+                }
+            }
+            if (improved) {
+                listener.improved(evaluator.evaluate(bestSolution.clone()));
+            }
+            if (listener.checkpointDue()) {
+                listener.checkpoint(SearchState.incumbent(bestSolution));
+            }
+            nonImprovingIterations = improved ? 0 : nonImprovingIterations + sweepLength;
+            if (bestFitness >= 0.95 || nonImprovingIterations >= maxNonImprovingIterations
+                || System.currentTimeMillis() >= deadlineMillis) {
+                break;
+            }
 
-        // Calculate variance in resource usage (lower variance is better)
-        Map<ValueType, Integer> resourceUsage = new EnumMap<>(ValueType.class);
-        assignments.values().forEach(value ->
-            resourceUsage.merge(value.getType(), 1, Integer::sum)
-        );
+            // Metropolis swaps between neighbouring temperatures, alternating even and odd pairs
+            for (int k = round % 2; k + 1 < replicaCount; k += 2) {
+                Replica colder = replicas.get(k);
+                Replica hotter = replicas.get(k + 1);
+                double exponent = (1.0 / temperatures[k] - 1.0 / temperatures[k + 1]) * (hotter.fitness - colder.fitness);
+                swapAttempts[k]++;
+                if (exponent >= 0 || random.nextDouble() < Math.exp(exponent)) {
+                    replicas.set(k, hotter);
+                    replicas.set(k + 1, colder);
+                    swapAccepts[k]++;
+                }
+            }
 
-        double variance = calculateVariance(resourceUsage.values());
-        double efficiency = Math.max(0, 1.0 - variance / 100.0); // Normalize variance
+            adaptTemperatures(temperatures, swapAttempts, swapAccepts, round);
+        }
 
-        return (totalPreference / assignments.size() + efficiency) / 2.0;
+        return Optional.ofNullable(bestSolution).map(encoding::decode);
     }
 
-    private double calculateVariance(Collection<Integer> values) {
-        if (values.size() < 2) return 0.0;
+    /**
+     * Average fitness loss of a random move, sampled and reverted on one replica.
+     */
+    private double estimateMoveScale(Replica replica) {
+        int[] genome = replica.tally.genome();
+        int[] previous = new int[Math.max(1, genome.length)];
+        double totalLoss = 0.0;
+        int samples = 0;
+
+        for (int attempt = 0; attempt < 100 && genome.length > 0; attempt++) {
+            Move move = replica.neighborhood.randomMove(genome, replica.random);
+            if (move == null) continue;
 
-        double mean = values.stream().mapToInt(Integer::intValue).average().orElse(0.0);
-        double variance = values.stream()
-            .mapToDouble(value -> Math.pow(value - mean, 2))
-            .average()
-            .orElse(0.0);
+            double loss = replica.fitness - move.score(replica.tally, this::calculateFitness, previous);
+
+            if (loss > 0) {
+                totalLoss += loss;
+                samples++;
+            }
+        }
 
-        return variance;
+        return samples > 0 ? totalLoss / samples : MIN_TEMPERATURE;
     }
 
-    private boolean acceptWithProbability(double currentFitness, double neighborFitness, double temperature) {
-        if (neighborFitness > currentFitness) {
-            return true; // Always accept better solutions
+    /**
+     * Keeps the coldest temperature fixed and scales each neighbouring ratio by how far its
+     * swap acceptance is from the target. The step size decays so the ladder settles.
+     */
+    private void adaptTemperatures(double[] temperatures, int[] swapAttempts, int[] swapAccepts, int round) {
+        double gain = 1.0 / (1.0 + round / 10.0);
+        double[] ratios = new double[temperatures.length - 1];
+        for (int k = 0; k < ratios.length; k++) {
+            ratios[k] = temperatures[k + 1] / temperatures[k];
+            if (swapAttempts[k] > 0) {
+                double acceptance = (double) swapAccepts[k] / swapAttempts[k];
+                ratios[k] = Math.max(1.01, ratios[k] * Math.exp(gain * (acceptance - TARGET_SWAP_ACCEPTANCE)));
+            }
         }
+        for (int k = 0; k < ratios.length; k++) {
+            temperatures[k + 1] = temperatures[k] * ratios[k];
+        }
+    }
 
-        // Accept worse solutions with probability based on temperature
-        double delta = currentFitness - neighborFitness;
-        double probability = Math.exp(-delta / temperature);
+    private void runOnWorkers(ExecutorService workers, List<Replica> replicas,
+                              Consumer<Replica> task) {
+        List<Callable<Void>> calls = new ArrayList<>();
+        for (Replica replica : replicas) {
+            calls.add(() -> {
+                task.accept(replica);
+                return null;
+            });
+        }
 
-        return ThreadLocalRandom.current().nextDouble() < probability;
+        try {
+            for (Future<Void> future : workers.invokeAll(calls)) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Parallel tempering interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Parallel tempering replica failed", e.getCause());
+        }
     }
 
     // Tabu Search variant for additional local search capability
     public Optional<SchedulingAssignment> solveWithTabuSearch(ConstraintSatisfactionProblem csp) {
-        SchedulingAssignment currentSolution = generateInitialSolution(csp);
-        double currentFitness = calculateFitness(currentSolution, csp);
-
-        SchedulingAssignment bestSolution = currentSolution.copy();
-        double bestFitness = currentFitness;
-
-        TabuList tabuList = new TabuList(100, 50); // 100 max size, 50 tenure
+        return solveWithTabuSearch(csp, null, Long.MAX_VALUE);
+    }
 
-        for (int iteration = 0; iteration < maxIterations; iteration++) {
-            // Generate all neighbors
-            List<SchedulingAssignment> neighbors = generateAllNeighbors(currentSolution, csp);
+    /**
+     * Tabu search from the given starting solution (greedy start when null), stopping at the
+     * deadline (epoch milliseconds) at the latest.
+     */
+    public Optional<SchedulingAssignment> solveWithTabuSearch(ConstraintSatisfactionProblem csp,
+                                                              SchedulingAssignment initialSolution,
+                                                              long deadlineMillis) {
+        return solveWithTabuSearch(csp, initialSolution, deadlineMillis, SearchListener.NONE);
+    }
 
-            // Find best non-tabu neighbor
-            SchedulingAssignment bestNeighbor = null;
-            double bestNeighborFitness = Double.NEGATIVE_INFINITY;
-            Move bestMove = null;
+    /**
+     * As {@link #solveWithTabuSearch(ConstraintSatisfactionProblem, SchedulingAssignment, long)},
+     * reporting evaluated moves and each new best solution to the listener.
+     */
+    public Optional<SchedulingAssignment> solveWithTabuSearch(ConstraintSatisfactionProblem csp,
+                                                              SchedulingAssignment initialSolution,
+                                                              long deadlineMillis, SearchListener listener) {
+        return solveWithTabuSearch(csp, initialSolution, deadlineMillis, listener, null);
+    }
 
-            for (SchedulingAssignment neighbor : neighbors) {
-                Move move = createMove(currentSolution, neighbor);
-                if (!tabuList.isTabu(move)) {
-                    double fitness = calculateFitness(neighbor, csp);
-                    if (fitness > bestNeighborFitness ||
-                        (fitness == bestNeighborFitness && fitness > bestFitness)) { // Aspiration criterion
-                        bestNeighbor = neighbor;
-                        bestNeighborFitness = fitness;
-                        bestMove = move;
-                    }
-                }
+    /**
+     * As {@link #solveWithTabuSearch(ConstraintSatisfactionProblem, SchedulingAssignment, long, SearchListener)},
+     * continuing from a checkpointed state when one is given. The tenure table travels with the
+     * current genome and iteration count, so moves that were tabu stay tabu after a restart.
+     */
+    public Optional<SchedulingAssignment> solveWithTabuSearch(ConstraintSatisfactionProblem csp,
+                                                              SchedulingAssignment initialSolution,
+                                                              long deadlineMillis, SearchListener listener,
+                                                              SearchState resume) {
+        GenomeEncoding encoding = new GenomeEncoding(csp);
+        IncrementalFitnessEvaluator evaluator = new IncrementalFitnessEvaluator(encoding, csp);
+        MoveNeighborhood neighborhood = new MoveNeighborhood(encoding, csp);
+        TabuList tabuList = new TabuList(encoding, TABU_TENURE);
+        boolean resuming = resume != null && resume.getCurrent() != null && resume.fits(encoding)
+            && tabuList.restore(resume.getTabuUntil());
+        SplitMixRandom random = resuming && resume.getRandomStates() != null
+            ? new SplitMixRandom(resume.getRandomStates()[0]) : SplitMixRandom.seeded();
+
+        IncrementalFitnessEvaluator.Tally current = resuming
+            ? evaluator.evaluate(resume.getCurrent()) : startFrom(evaluator, initialSolution, random);
+        double currentFitness = calculateFitness(current);
+
+        int[] bestSolution = resuming && resume.getBest() != null ? resume.getBest().clone() : current.genome().clone();
+        double bestFitness = resuming ? calculateFitness(evaluator.evaluate(bestSolution)) : currentFitness;
+
+        int[] previous = new int[Math.max(1, encoding.size())];
+        CandidateEvaluator candidates = new CandidateEvaluator(evaluator, Math.min(workerCount, 64));
+        int firstIteration = resuming ? (int) Math.min(resume.getIteration(), maxIterations) : 0;
+
+        for (int iteration = firstIteration; iteration < maxIterations && System.currentTimeMillis() < deadlineMillis; iteration++) {
+            if (iteration % CHECKPOINT_POLL_INTERVAL == 0 && listener.checkpointDue()) {
+                listener.checkpoint(SearchState.tabu(iteration, bestSolution, current.genome(),
+                                                     tabuList.tabuUntil, random.getState()));
             }
 
-            if (bestNeighbor == null) {
+            List<Move> moves = generateNeighborhood(current, neighborhood, random);
+
+            // Find best admissible move; tabu moves are allowed when they beat the best (aspiration)
+            ScoredMove best = candidates.findBest(current, moves, tabuList, iteration, bestFitness);
+            listener.nodesExplored(moves.size());
+            if (best == null) {
                 break; // No valid moves
             }
 
-            currentSolution = bestNeighbor;
-            currentFitness = bestNeighborFitness;
+            best.move.apply(current, previous);
+            tabuList.addTabuMove(best.move, previous, iteration);
+            currentFitness = best.fitness;
 
-            if (bestNeighborFitness > bestFitness) {
-                bestSolution = bestNeighbor.copy();
-                bestFitness = bestNeighborFitness;
+            if (currentFitness > bestFitness) {
+                System.arraycopy(current.genome(), 0, bestSolution, 0, bestSolution.length);
+                bestFitness = currentFitness;
+                listener.improved(current);
             }
-
-            tabuList.addTabuMove(bestMove);
         }
 
-        return Optional.ofNullable(bestSolution);
+        return Optional.of(encoding.decode(bestSolution));
     }
 
-    private List<SchedulingAssignment> generateAllNeighbors(SchedulingAssignment current,
-                                                          ConstraintSatisfactionProblem csp) {
-        List<SchedulingAssignment> neighbors = new ArrayList<>();
-        Map<SchedulingVariable, List<SchedulingValue>> domains = csp.getDomains();
-
-        // Generate neighbors by changing one variable assignment at a time
-        for (Map.Entry<SchedulingVariable, SchedulingValue> entry : current.getAssignments().entrySet()) {
-            SchedulingVariable variable = entry.getKey();
-            SchedulingValue currentValue = entry.getValue();
-
-            for (SchedulingValue newValue : domains.get(variable)) {
-                if (!newValue.equals(currentValue)) {
-                    SchedulingAssignment neighbor = current.copy();
-                    neighbor.assign(variable, newValue);
-                    neighbors.add(neighbor);
-                }
+    /**
+     * Single-variable moves around the current genome plus sampled swaps and Kempe chains.
+     * Single changes are scanned in full when the neighborhood is small enough, otherwise
+     * tabuSampleSize of them are sampled without listing the rest.
+     */
+    private List<Move> generateNeighborhood(IncrementalFitnessEvaluator.Tally current,
+                                            MoveNeighborhood neighborhood, Random random) {
+        GenomeEncoding encoding = current.getEncoding();
+        int[] genome = current.genome();
+
+        long neighborhoodSize = 0;
+        for (int gene = 0; gene < genome.length; gene++) {
+            if (genome[gene] != GenomeEncoding.UNASSIGNED) {
+                neighborhoodSize += encoding.domainSize(gene) - 1;
             }
         }
 
-        // Limit neighbor size for performance
-        if (neighbors.size() > 50) {
-            Collections.shuffle(neighbors);
-            return neighbors.subList(0, 50);
+        List<Move> moves = new ArrayList<>();
+        if (tabuSampleSize == 0 || neighborhoodSize <= tabuSampleSize) {
+            for (int gene = 0; gene < genome.length; gene++) {
+                if (genome[gene] == GenomeEncoding.UNASSIGNED) continue;
+                for (int value = 0; value < encoding.domainSize(gene); value++) {
+                    if (value != genome[gene]) {
+                        moves.add(new ChangeMove(gene, value));
+                    }
+                }
+            }
+        } else {
+            for (int attempt = 0; moves.size() < tabuSampleSize && attempt < tabuSampleSize * 4; attempt++) {
+                Move move = neighborhood.randomChange(genome, random);
+                if (move != null) {
+                    moves.add(move);
+                }
+            }
         }
 
-        return neighbors;
+        // Compound moves keep the search moving when every single change breaks a hard constraint
+        int compoundCount = Math.max(1, Math.min(moves.size(), genome.length) / 2);
+        moves.addAll(neighborhood.sampleCompoundMoves(genome, compoundCount, random));
+        return moves;
     }
 
-    private Move createMove(SchedulingAssignment from, SchedulingAssignment to) {
-        for (Map.Entry<SchedulingVariable, SchedulingValue> entry : from.getAssignments().entrySet()) {
-            SchedulingVariable variable = entry.getKey();
-            SchedulingValue fromValue = entry.getValue();
-            SchedulingValue toValue = to.getValue(variable);
+    // Helper classes
+    /**
+     * One annealing chain. A replica carries its state when swapped to another temperature.
+     */
+    private class Replica {
+        private final MoveNeighborhood neighborhood;
+        private final Random random;
+        private IncrementalFitnessEvaluator.Tally tally;
+        private double fitness;
+        private double temperature;
+        private int[] bestGenome;
+        private double bestFitness = Double.NEGATIVE_INFINITY;
+        // Steps taken by the last sweep
+        private int swept;
+
+        Replica(MoveNeighborhood neighborhood, Random random) {
+            this.neighborhood = neighborhood;
+            this.random = random;
+        }
+
+        void sweep(int steps, long deadlineMillis) {
+            int[] genome = tally.genome();
+            swept = 0;
+            if (bestGenome == null) {
+                bestGenome = genome.clone();
+                bestFitness = fitness;
+            }
+            if (genome.length == 0) return;
+            int[] previous = new int[genome.length];
 
-            if (!toValue.equals(fromValue)) {
-                return new Move(variable, fromValue, toValue);
+            for (int step = 0; step < steps; step++, swept++) {
+                if (step % DEADLINE_POLL_INTERVAL == 0 && System.currentTimeMillis() >= deadlineMillis) {
+                    break;
+                }
+                Move move = neighborhood.randomMove(genome, random);
+                if (move == null) continue;
+
+                move.apply(tally, previous);
+                double candidate = calculateFitness(tally);
+                double delta = candidate - fitness;
+
+                if (delta >= 0 || random.nextDouble() < Math.exp(delta / temperature)) {
+                    fitness = candidate;
+                    if (fitness > bestFitness) {
+                        bestFitness = fitness;
+                        System.arraycopy(genome, 0, bestGenome, 0, genome.length);
+                    }
+                } else {
+                    move.undo(tally, previous);
+                }
             }
         }
-        return null;
     }
 
-    // Helper classes
+    /**
+     * Tabu memory indexed by (variable, value). Assigning a value that a variable recently
+     * left is forbidden until the stored iteration has passed.
+     */
     private static class TabuList {
-        private final Queue<Move> tabuMoves;
-        private final Map<Move, Integer> tenures;
-        private final int maxSize;
+        private final int[] offsets;
+        private final int[] tabuUntil;
         private final int tenure;
 
-        public TabuList(int maxSize, int tenure) {
-            this.tabuMoves = new LinkedList<>();
-            this.tenures = new HashMap<>();
-            this.maxSize = maxSize;
+        TabuList(GenomeEncoding encoding, int tenure) {
+            this.offsets = new int[encoding.size() + 1];
+            for (int gene = 0; gene < encoding.size(); gene++) {
+                offsets[gene + 1] = offsets[gene] + encoding.domainSize(gene);
+            }
+            this.tabuUntil = new int[offsets[encoding.size()]];
             this.tenure = tenure;
         }
 
-        public void addTabuMove(Move move) {
-            if (move == null) return;
-
-            tabuMoves.offer(move);
-            tenures.put(move, tenure);
+        /**
+         * Loads a checkpointed tenure table. Returns false when it was taken on another problem.
+         */
+        boolean restore(int[] saved) {
+            if (saved == null || saved.length != tabuUntil.length) {
+                return false;
+            }
+            System.arraycopy(saved, 0, tabuUntil, 0, saved.length);
+            return true;
+        }
 
-            // Update tenures and remove expired moves
-            Iterator<Map.Entry<Move, Integer>> iterator = tenures.entrySet().iterator();
-            while (iterator.hasNext()) {
-                Map.Entry<Move, Integer> entry = iterator.next();
-                entry.setValue(entry.getValue() - 1);
-                if (entry.getValue() <= 0) {
-                    iterator.remove();
+        void addTabuMove(Move move, int[] previous, int iteration) {
+            for (int i = 0; i < move.size(); i++) {
+                if (previous[i] != GenomeEncoding.UNASSIGNED) {
+                    tabuUntil[offsets[move.gene(i)] + previous[i]] = iteration + tenure;
                 }
             }
+        }
 
-            // Remove oldest if exceeds max size
-            while (tabuMoves.size() > maxSize) {
-                Move oldest = tabuMoves.poll();
-                tenures.remove(oldest);
+        boolean isTabu(Move move, int iteration) {
+            for (int i = 0; i < move.size(); i++) {
+                int value = move.value(i);
+                if (value != GenomeEncoding.UNASSIGNED && tabuUntil[offsets[move.gene(i)] + value] > iteration) {
+                    return true;
+                }
             }
+            return false;
         }
+    }
 
-        public boolean isTabu(Move move) {
-            return move != null && tenures.containsKey(move);
+    private static class ScoredMove {
+        private final Move move;
+        private final double fitness;
+
+        ScoredMove(Move move, double fitness) {
+            this.move = move;
+            this.fitness = fitness;
         }
     }
 
-    private static class Move {
-        private final SchedulingVariable variable;
-        private final SchedulingValue fromValue;
-        private final SchedulingValue toValue;
-
-        public Move(SchedulingVariable variable, SchedulingValue fromValue, SchedulingValue toValue) {
-            this.variable = variable;
-            this.fromValue = fromValue;
-            this.toValue = toValue;
+    /**
+     * Scores candidate moves by delta evaluation. Large neighborhoods are split into chunks,
+     * each scored on a worker-owned copy of the current tally.
+     */
+    private class CandidateEvaluator {
+        private final IncrementalFitnessEvaluator evaluator;
+        private final int chunks;
+        private final ExecutorService workers;
+        private final IncrementalFitnessEvaluator.Tally[] workerTallies;
+
+        CandidateEvaluator(IncrementalFitnessEvaluator evaluator, int chunks) {
+            this.evaluator = evaluator;
+            this.chunks = Math.max(1, chunks);
+            this.workers = this.chunks > 1 ? SolverExecutor.shared() : null;
+            this.workerTallies = new IncrementalFitnessEvaluator.Tally[this.chunks];
         }
 
-        @Override
-        public boolean equals(Object obj) {
-            if (this == obj) return true;
-            if (obj == null || getClass() != obj.getClass()) return false;
-            Move move = (Move) obj;
-            return Objects.equals(variable, move.variable) &&
-                   Objects.equals(toValue, move.toValue);
+        ScoredMove findBest(IncrementalFitnessEvaluator.Tally current, List<Move> moves,
+                            TabuList tabuList, int iteration, double bestFitness) {
+            if (workers == null || moves.size() < PARALLEL_NEIGHBORHOOD_SIZE) {
+                return findBest(current, moves, 0, moves.size(), tabuList, iteration, bestFitness);
+            }
+
+            List<Callable<ScoredMove>> tasks = new ArrayList<>();
+            int chunkSize = (moves.size() + chunks - 1) / chunks;
+            for (int chunk = 0; chunk < chunks; chunk++) {
+                int from = chunk * chunkSize;
+                int to = Math.min(moves.size(), from + chunkSize);
+                int slot = chunk;
+                tasks.add(() -> {
+                    if (workerTallies[slot] == null) {
+                        workerTallies[slot] = evaluator.newTally();
+                    }
+                    workerTallies[slot].copyFrom(current);
+                    return findBest(workerTallies[slot], moves, from, to, tabuList, iteration, bestFitness);
+                });
+            }
+
+            // Chunks are combined in order, so ties resolve the same way as a sequential scan
+            ScoredMove best = null;
+            try {
+                for (Future<ScoredMove> future : workers.invokeAll(tasks)) {
+                    ScoredMove candidate = future.get();
+                    if (candidate != null && (best == null || candidate.fitness > best.fitness)) {
+                        best = candidate;
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Tabu search interrupted", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Tabu candidate evaluation failed", e.getCause());
+            }
+            return best;
         }
 
-        @Override
-        public int hashCode() {
-            return Objects.hash(variable, toValue);
+        private ScoredMove findBest(IncrementalFitnessEvaluator.Tally tally, List<Move> moves, int from, int to,
+                                    TabuList tabuList, int iteration, double bestFitness) {
+            int[] previous = new int[Math.max(1, tally.getVariableCount())];
+            Move bestMove = null;
+            double bestMoveFitness = Double.NEGATIVE_INFINITY;
+
+            for (int i = from; i < to; i++) {
+                Move move = moves.get(i);
+                if (move.isNoOp(tally.genome())) continue;
+
+                double fitness = move.score(tally, LocalSearchStrategy.this::calculateFitness, previous);
+                boolean admissible = !tabuList.isTabu(move, iteration) || fitness > bestFitness;
+                if (admissible && fitness > bestMoveFitness) {
+                    bestMove = move;
+                    bestMoveFitness = fitness;
+                }
+            }
+
+            return bestMove != null ? new ScoredMove(bestMove, bestMoveFitness) : null;
         }
     }
 
@@ -434,4 +835,8 @@ public class LocalSearchStrategy {
     public double getInitialTemperature() { return initialTemperature; }
     public double getCoolingRate() { return coolingRate; }
     public boolean isUseSimulatedAnnealing() { return useSimulatedAnnealing; }
+    public int getReplicaCount() { return replicaCount; }
+    public int getExchangeInterval() { return exchangeInterval; }
+    public int getWorkerCount() { return workerCount; }
+    public int getTabuSampleSize() { return tabuSampleSize; }
 }
\ No newline at end of file
@@ -0,0 +1,66 @@
+package com.school.scheduling.algorithm.strategy;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * A change to one or more genes of a genome. Moves are small value objects that
+ * neighborhoods create on the fly; they are scored by applying them to an
+ * {@link IncrementalFitnessEvaluator.Tally} and undoing them, never by copying assignments.
+ * A move must not list the same gene twice.
+ */
+public abstract class Move {
+
+    /**
+     * Number of genes the move assigns.
+     */
+    public abstract int size();
+
+    public abstract int gene(int index);
+
+    /**
+     * Domain index assigned to {@link #gene(int)} by this move.
+     */
+    public abstract int value(int index);
+
+    /**
+     * Applies the move and records the overwritten values in previous (length at least size()).
+     */
+    public void apply(IncrementalFitnessEvaluator.Tally tally, int[] previous) {
+        int[] genome = tally.genome();
+        for (int i = 0; i < size(); i++) {
+            previous[i] = genome[gene(i)];
+        }
+        for (int i = 0; i < size(); i++) {
+            tally.change(gene(i), value(i));
+        }
+    }
+
+    /**
+     * Restores the values recorded by {@link #apply}.
+     */
+    public void undo(IncrementalFitnessEvaluator.Tally tally, int[] previous) {
+        for (int i = size() - 1; i >= 0; i--) {
+            tally.change(gene(i), previous[i]);
+        }
+    }
+
+    /**
+     * Fitness the tally would have after this move. The tally is left unchanged.
+     */
+    public double score(IncrementalFitnessEvaluator.Tally tally,
+                        ToDoubleFunction<IncrementalFitnessEvaluator.Tally> fitness, int[] previous) {
+        apply(tally, previous);
+        double result = fitness.applyAsDouble(tally);
+        undo(tally, previous);
+        return result;
+    }
+
+    public boolean isNoOp(int[] genome) {
+        for (int i = 0; i < size(); i++) {
+            if (genome[gene(i)] != value(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
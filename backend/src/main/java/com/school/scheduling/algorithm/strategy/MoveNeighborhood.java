@@ -0,0 +1,200 @@
+package com.school.scheduling.algorithm.strategy;
+
+import com.school.scheduling.algorithm.ConstraintSatisfactionProblem;
+import com.school.scheduling.domain.constraint.*;
+
+import java.util.*;
+
+/**
+ * Generates single and compound moves over genomes of one {@link GenomeEncoding}:
+ * reassigning a variable, swapping the values of two variables of the same value type
+ * (slot swaps, room swaps) and Kempe-chain interchanges over the conflict graph.
+ * The conflict graph is the problem's {@link ConstraintSatisfactionProblem#getConflicts}:
+ * variables sharing a teacher, room or student, or the scope of some constraint.
+ * Instances are immutable after construction and can be shared between threads.
+ */
+public class MoveNeighborhood {
+
+    private static final int MAX_ATTEMPTS = 20;
+
+    private final GenomeEncoding encoding;
+    private final int[][] adjacency;
+    private final Map<Integer, Integer>[] domainIndexById;
+
+    @SuppressWarnings("unchecked")
+    public MoveNeighborhood(GenomeEncoding encoding, ConstraintSatisfactionProblem csp) {
+        this.encoding = encoding;
+
+        this.adjacency = new int[encoding.size()][];
+        this.domainIndexById = new Map[encoding.size()];
+        for (int gene = 0; gene < encoding.size(); gene++) {
+            adjacency[gene] = csp.getConflicts(encoding.getVariable(gene)).stream()
+                .mapToInt(encoding::indexOf)
+                .filter(neighbor -> neighbor >= 0)
+                .sorted()
+                .toArray();
+            domainIndexById[gene] = new HashMap<>();
+            for (int index = 0; index < encoding.domainSize(gene); index++) {
+                domainIndexById[gene].putIfAbsent(encoding.getValueId(gene, index), index);
+            }
+        }
+    }
+
+    public GenomeEncoding getEncoding() {
+        return encoding;
+    }
+
+    /**
+     * Picks a single change, a swap or a Kempe chain. Falls back to a single change
+     * when no compound move fits the current genome.
+     */
+    public Move randomMove(int[] genome, Random random) {
+        double roll = random.nextDouble();
+        Move move = null;
+        if (roll < 0.25) {
+            move = randomSwap(genome, null, random);
+        } else if (roll < 0.5) {
+            move = randomKempeChain(genome, random);
+        }
+        return move != null ? move : randomChange(genome, random);
+    }
+
+    /**
+     * Samples compound moves only (swaps and Kempe chains), for neighborhoods that already
+     * enumerate single changes.
+     */
+    public List<Move> sampleCompoundMoves(int[] genome, int count, Random random) {
+        List<Move> moves = new ArrayList<>();
+        for (int attempt = 0; moves.size() < count && attempt < count * 2; attempt++) {
+            Move move = random.nextBoolean() ? randomSwap(genome, null, random) : randomKempeChain(genome, random);
+            if (move != null) {
+                moves.add(move);
+            }
+        }
+        return moves;
+    }
+
+    public Move randomChange(int[] genome, Random random) {
+        for (int attempt = 0; attempt < MAX_ATTEMPTS && genome.length > 0; attempt++) {
+            int gene = random.nextInt(genome.length);
+            int domainSize = encoding.domainSize(gene);
+            if (genome[gene] == GenomeEncoding.UNASSIGNED || domainSize < 2) continue;
+
+            int value = random.nextInt(domainSize - 1);
+            return new ChangeMove(gene, value >= genome[gene] ? value + 1 : value);
+        }
+        return null;
+    }
+
+    /**
+     * Swaps the values of two variables whose current values share a type
+     * (restricted to the given type unless it is null). Both values must lie in the other domain.
+     */
+    public Move randomSwap(int[] genome, ValueType type, Random random) {
+        for (int attempt = 0; attempt < MAX_ATTEMPTS && genome.length > 1; attempt++) {
+            int first = random.nextInt(genome.length);
+            int second = random.nextInt(genome.length);
+            if (first == second || genome[first] == GenomeEncoding.UNASSIGNED
+                || genome[second] == GenomeEncoding.UNASSIGNED) continue;
+
+            int firstId = encoding.getValueId(first, genome[first]);
+            int secondId = encoding.getValueId(second, genome[second]);
+            if (firstId == secondId) continue;
+
+            ValueType firstType = encoding.getDistinctValue(firstId).getType();
+            if (firstType != encoding.getDistinctValue(secondId).getType()) continue;
+            if (type != null && firstType != type) continue;
+
+            Move swap = swap(first, second, genome);
+            if (swap != null) {
+                return swap;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Swap move between two variables, or null when either value is outside the other domain.
+     */
+    public Move swap(int first, int second, int[] genome) {
+        Integer firstTakes = domainIndexById[first].get(encoding.getValueId(second, genome[second]));
+        Integer secondTakes = domainIndexById[second].get(encoding.getValueId(first, genome[first]));
+        if (firstTakes == null || secondTakes == null) {
+            return null;
+        }
+        return new SwapMove(first, firstTakes, second, secondTakes);
+    }
+
+    public Move randomKempeChain(int[] genome, Random random) {
+        for (int attempt = 0; attempt < MAX_ATTEMPTS && genome.length > 0; attempt++) {
+            int gene = random.nextInt(genome.length);
+            int domainSize = encoding.domainSize(gene);
+            if (genome[gene] == GenomeEncoding.UNASSIGNED || domainSize < 2) continue;
+
+            int target = random.nextInt(domainSize - 1);
+            Move chain = kempeChain(genome, gene, target >= genome[gene] ? target + 1 : target);
+            if (chain != null) {
+                return chain;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Builds the Kempe chain that moves startGene to targetIndex: the connected component of
+     * the conflict graph among variables holding either the start value or the target value,
+     * with the two values interchanged. Returns null when a chain member cannot take the other value.
+     */
+    public Move kempeChain(int[] genome, int startGene, int targetIndex) {
+        int from = encoding.getValueId(startGene, genome[startGene]);
+        int to = encoding.getValueId(startGene, targetIndex);
+        if (from == to) {
+            return null;
+        }
+
+        List<Integer> genes = new ArrayList<>();
+        List<Integer> values = new ArrayList<>();
+        Set<Integer> visited = new HashSet<>();
+        Deque<Integer> queue = new ArrayDeque<>();
+        queue.add(startGene);
+        visited.add(startGene);
+
+        while (!queue.isEmpty()) {
+            int gene = queue.poll();
+            int current = encoding.getValueId(gene, genome[gene]);
+            Integer next = domainIndexById[gene].get(current == from ? to : from);
+            if (next == null) {
+                return null;
+            }
+            genes.add(gene);
+            values.add(next);
+
+            for (int neighbor : adjacency[gene]) {
+                if (genome[neighbor] == GenomeEncoding.UNASSIGNED || visited.contains(neighbor)) continue;
+                int neighborValue = encoding.getValueId(neighbor, genome[neighbor]);
+                if (neighborValue == from || neighborValue == to) {
+                    visited.add(neighbor);
+                    queue.add(neighbor);
+                }
+            }
+        }
+
+        return new KempeChainMove(genes.stream().mapToInt(Integer::intValue).toArray(),
+                                  values.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    /**
+     * Index of the value with the given dictionary id in a variable's domain, or -1.
+     */
+    public int domainIndexOf(int gene, int valueId) {
+        Integer index = domainIndexById[gene].get(valueId);
+        return index != null ? index : -1;
+    }
+
+    /**
+     * Variables in conflict with the given one.
+     */
+    public int[] getConflicts(int gene) {
+        return adjacency[gene];
+    }
+}
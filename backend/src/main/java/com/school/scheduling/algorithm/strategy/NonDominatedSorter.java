@@ -0,0 +1,151 @@
+package com.school.scheduling.algorithm.strategy;
+
+/**
+ * Fast non-dominated sorting and crowding distance (NSGA-II) over primitive arrays. Objective
+ * values are stored per objective, {@code values[objective][individual]}, all minimized.
+ * Constraint violation is compared first: of two individuals the less violating one dominates,
+ * and only equally violating individuals are compared objective by objective.
+ * Buffers are sized once for the largest population; an instance is not thread-safe.
+ */
+class NonDominatedSorter {
+
+    private final int capacity;
+    private final int[] dominationCount;
+    private final int[] dominatedSize;
+    private final int[] dominated;
+    private final int[] order;
+    private final int[] frontStart;
+    private final int[] scratch;
+    private int frontCount;
+
+    NonDominatedSorter(int capacity) {
+        this.capacity = capacity;
+        this.dominationCount = new int[capacity];
+        this.dominatedSize = new int[capacity];
+        this.dominated = new int[capacity * capacity];
+        this.order = new int[capacity];
+        this.frontStart = new int[capacity + 1];
+        this.scratch = new int[capacity];
+    }
+
+    /**
+     * Ranks individuals 0..size-1 into fronts; rank 0 is the non-dominated front.
+     * Returns the number of fronts. Front f is {@code order()[frontStart(f)..frontEnd(f))}.
+     */
+    int sort(double[][] values, double[] violation, int size, int[] rank) {
+        for (int p = 0; p < size; p++) {
+            dominationCount[p] = 0;
+            dominatedSize[p] = 0;
+        }
+        for (int p = 0; p < size; p++) {
+            for (int q = p + 1; q < size; q++) {
+                int comparison = compare(values, violation, p, q);
+                if (comparison < 0) {
+                    dominated[p * capacity + dominatedSize[p]++] = q;
+                    dominationCount[q]++;
+                } else if (comparison > 0) {
+                    dominated[q * capacity + dominatedSize[q]++] = p;
+                    dominationCount[p]++;
+                }
+            }
+        }
+
+        int sorted = 0;
+        for (int p = 0; p < size; p++) {
+            if (dominationCount[p] == 0) {
+                rank[p] = 0;
+                order[sorted++] = p;
+            }
+        }
+
+        // Peel fronts off: removing a front frees the individuals only it dominated
+        frontCount = 0;
+        int start = 0;
+        while (start < sorted) {
+            int end = sorted;
+            frontStart[frontCount++] = start;
+            for (int i = start; i < end; i++) {
+                int p = order[i];
+                for (int k = 0; k < dominatedSize[p]; k++) {
+                    int q = dominated[p * capacity + k];
+                    if (--dominationCount[q] == 0) {
+                        rank[q] = frontCount;
+                        order[sorted++] = q;
+                    }
+                }
+            }
+            start = end;
+        }
+        frontStart[frontCount] = sorted;
+        return frontCount;
+    }
+
+    /**
+     * Crowding distance of the members of one front: the normalized side lengths of the cuboid
+     * spanned by each member's neighbours, summed over objectives. Boundary members get infinity.
+     */
+    void crowding(double[][] values, int front, double[] distance) {
+        int from = frontStart[front];
+        int to = frontStart[front + 1];
+        int size = to - from;
+        for (int i = from; i < to; i++) {
+            distance[order[i]] = 0.0;
+        }
+        if (size <= 2) {
+            for (int i = from; i < to; i++) {
+                distance[order[i]] = Double.POSITIVE_INFINITY;
+            }
+            return;
+        }
+
+        for (double[] objective : values) {
+            System.arraycopy(order, from, scratch, 0, size);
+            GeneticAlgorithmStrategy.sortByKey(scratch, objective, 0, size - 1); // descending
+
+            double range = objective[scratch[0]] - objective[scratch[size - 1]];
+            distance[scratch[0]] = Double.POSITIVE_INFINITY;
+            distance[scratch[size - 1]] = Double.POSITIVE_INFINITY;
+            if (range <= 0) continue;
+
+            for (int i = 1; i < size - 1; i++) {
+                distance[scratch[i]] += (objective[scratch[i - 1]] - objective[scratch[i + 1]]) / range;
+            }
+        }
+    }
+
+    int[] order() {
+        return order;
+    }
+
+    int frontStart(int front) {
+        return frontStart[front];
+    }
+
+    int frontEnd(int front) {
+        return frontStart[front + 1];
+    }
+
+    int frontCount() {
+        return frontCount;
+    }
+
+    /**
+     * Negative when p dominates q, positive when q dominates p, zero when neither does.
+     */
+    static int compare(double[][] values, double[] violation, int p, int q) {
+        if (violation[p] != violation[q]) {
+            return violation[p] < violation[q] ? -1 : 1;
+        }
+        boolean pBetter = false;
+        boolean qBetter = false;
+        for (double[] objective : values) {
+            if (objective[p] < objective[q]) {
+                pBetter = true;
+            } else if (objective[q] < objective[p]) {
+                qBetter = true;
+            }
+            if (pBetter && qBetter) return 0;
+        }
+        return pBetter ? -1 : qBetter ? 1 : 0;
+    }
+}
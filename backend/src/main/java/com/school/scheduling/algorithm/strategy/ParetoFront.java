@@ -0,0 +1,83 @@
+package com.school.scheduling.algorithm.strategy;
+
+import com.school.scheduling.domain.constraint.SchedulingAssignment;
+
+import java.util.*;
+
+/**
+ * Timetables none of which is better than another on every objective, as returned by the
+ * multi-objective mode of {@link GeneticAlgorithmStrategy}. Planners pick one by the trade-off
+ * they want. Solutions are ordered by score, then by their objective values.
+ */
+public class ParetoFront {
+
+    private final List<Solution> solutions;
+    private final int generations;
+    private final long executionTimeMs;
+
+    ParetoFront(List<Solution> solutions, int generations, long executionTimeMs) {
+        List<Solution> ordered = new ArrayList<>(solutions);
+        ordered.sort(Comparator.comparing(Solution::getScore).thenComparing(Solution::compareObjectives));
+        this.solutions = Collections.unmodifiableList(ordered);
+        this.generations = generations;
+        this.executionTimeMs = executionTimeMs;
+    }
+
+    public List<Solution> getSolutions() { return solutions; }
+    public int size() { return solutions.size(); }
+    public boolean isEmpty() { return solutions.isEmpty(); }
+    public int getGenerations() { return generations; }
+    public long getExecutionTimeMs() { return executionTimeMs; }
+
+    /**
+     * The solution with the lowest value of one objective, ties broken by score.
+     */
+    public Optional<Solution> best(ScheduleObjectives.Objective objective) {
+        return solutions.stream()
+            .min(Comparator.comparingDouble((Solution s) -> s.getObjective(objective)).thenComparing(Solution::getScore));
+    }
+
+    public String getSummary() {
+        return String.format("Pareto front: %d schedules, Generations: %d, Time: %dms",
+                             solutions.size(), generations, executionTimeMs);
+    }
+
+    /**
+     * One timetable of the front with its objective values and score.
+     */
+    public static class Solution {
+        private final SchedulingAssignment assignment;
+        private final double[] objectives;
+        private final ScoreDirector.Score score;
+
+        Solution(SchedulingAssignment assignment, double[] objectives, ScoreDirector.Score score) {
+            this.assignment = assignment;
+            this.objectives = objectives;
+            this.score = score;
+        }
+
+        public SchedulingAssignment getAssignment() { return assignment; }
+        public ScoreDirector.Score getScore() { return score; }
+
+        public double getObjective(ScheduleObjectives.Objective objective) {
+            return objectives[objective.ordinal()];
+        }
+
+        public double[] getObjectives() {
+            return objectives.clone();
+        }
+
+        private int compareObjectives(Solution other) {
+            return Arrays.compare(objectives, other.objectives);
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder text = new StringBuilder(score.toString());
+            for (ScheduleObjectives.Objective objective : ScheduleObjectives.Objective.values()) {
+                text.append(String.format(", %s=%.3f", objective.name().toLowerCase(), getObjective(objective)));
+            }
+            return text.toString();
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.school.scheduling.algorithm.strategy;
+
+import com.school.scheduling.domain.constraint.*;
+
+import java.util.*;
+
+/**
+ * The objectives a planner trades against each other, read from a tally's cached value uses.
+ * All of them are minimized. Time gaps stand in for student gaps: the problem has no enrolment
+ * data, so they count the idle periods inside each day of the common timetable, which every
+ * student taking several of its offerings sits through.
+ */
+public class ScheduleObjectives {
+
+    public enum Objective {
+        /** Preference given up against the best value of each domain. */
+        PREFERENCE_REGRET,
+        /** Standard deviation of the classes per teacher, idle teachers included. */
+        TEACHER_WORKLOAD_IMBALANCE,
+        /** Rooms used per class held in a room; 1.0 means no room is shared, lower is better utilized. */
+        ROOM_SPREAD,
+        /** Unused time slots between the first and last used slot of each day. */
+        TIME_GAPS
+    }
+
+    private static final Objective[] OBJECTIVES = Objective.values();
+
+    private final int[] teacherIds;
+    private final int[] timeSlotIds;
+    private final int[] slotDay;
+    private final int[] slotPosition;
+    private final int dayCount;
+
+    public ScheduleObjectives(GenomeEncoding encoding) {
+        List<Integer> teachers = new ArrayList<>();
+        Map<String, List<Integer>> slotsByDay = new LinkedHashMap<>();
+        for (int id = 0; id < encoding.getDistinctValueCount(); id++) {
+            SchedulingValue value = encoding.getDistinctValue(id);
+            if (value.getType() == ValueType.TEACHER) {
+                teachers.add(id);
+            } else if (value.getType() == ValueType.TIME_SLOT) {
+                slotsByDay.computeIfAbsent(dayOf(value.getDisplayName()), day -> new ArrayList<>()).add(id);
+            }
+        }
+        this.teacherIds = teachers.stream().mapToInt(Integer::intValue).toArray();
+
+        // Number the slots of each day by start time
+        List<Integer> slots = new ArrayList<>();
+        this.slotDay = new int[encoding.getDistinctValueCount()];
+        this.slotPosition = new int[encoding.getDistinctValueCount()];
+        int day = 0;
+        for (List<Integer> ids : slotsByDay.values()) {
+            ids.sort(Comparator.comparingInt((Integer id) -> startMinutes(encoding.getDistinctValue(id).getDisplayName()))
+                .thenComparing(id -> String.valueOf(encoding.getDistinctValue(id).getDisplayName())));
+            for (int position = 0; position < ids.size(); position++) {
+                slotDay[ids.get(position)] = day;
+                slotPosition[ids.get(position)] = position;
+                slots.add(ids.get(position));
+            }
+            day++;
+        }
+        this.timeSlotIds = slots.stream().mapToInt(Integer::intValue).toArray();
+        this.dayCount = day;
+    }
+
+    public int count() {
+        return OBJECTIVES.length;
+    }
+
+    /**
+     * Writes the objective values of the tally into column {@code individual} of a
+     * per-objective array, as used by non-dominated sorting.
+     */
+    public void evaluate(IncrementalFitnessEvaluator.Tally tally, double[][] values, int individual) {
+        values[Objective.PREFERENCE_REGRET.ordinal()][individual] = tally.getPreferenceRegret();
+        values[Objective.TEACHER_WORKLOAD_IMBALANCE.ordinal()][individual] = workloadImbalance(tally);
+        values[Objective.ROOM_SPREAD.ordinal()][individual] = roomSpread(tally);
+        values[Objective.TIME_GAPS.ordinal()][individual] = timeGaps(tally);
+    }
+
+    public double[] evaluate(IncrementalFitnessEvaluator.Tally tally) {
+        double[][] values = new double[OBJECTIVES.length][1];
+        evaluate(tally, values, 0);
+        double[] result = new double[OBJECTIVES.length];
+        for (int m = 0; m < result.length; m++) {
+            result[m] = values[m][0];
+        }
+        return result;
+    }
+
+    private double workloadImbalance(IncrementalFitnessEvaluator.Tally tally) {
+        if (teacherIds.length == 0) return 0.0;
+
+        double mean = (double) tally.getUseCount(ValueType.TEACHER) / teacherIds.length;
+        double squaredDeviation = 0.0;
+        for (int id : teacherIds) {
+            double deviation = tally.getValueUses(id) - mean;
+            squaredDeviation += deviation * deviation;
+        }
+        return Math.sqrt(squaredDeviation / teacherIds.length);
+    }
+
+    private double roomSpread(IncrementalFitnessEvaluator.Tally tally) {
+        int uses = tally.getUseCount(ValueType.CLASSROOM);
+        return uses > 0 ? (double) tally.getDistinctCount(ValueType.CLASSROOM) / uses : 0.0;
+    }
+
+    private double timeGaps(IncrementalFitnessEvaluator.Tally tally) {
+        if (dayCount == 0) return 0.0;
+
+        int[] first = new int[dayCount];
+        int[] last = new int[dayCount];
+        int[] used = new int[dayCount];
+        Arrays.fill(first, Integer.MAX_VALUE);
+        Arrays.fill(last, -1);
+        for (int id : timeSlotIds) {
+            if (tally.getValueUses(id) == 0) continue;
+            int day = slotDay[id];
+            first[day] = Math.min(first[day], slotPosition[id]);
+            last[day] = Math.max(last[day], slotPosition[id]);
+            used[day]++;
+        }
+
+        int gaps = 0;
+        for (int day = 0; day < dayCount; day++) {
+            if (used[day] > 0) {
+                gaps += last[day] - first[day] + 1 - used[day];
+            }
+        }
+        return gaps;
+    }
+
+    // "MONDAY 09:00 - 10:00 (MORNING)" is on MONDAY and starts at 540
+    private static String dayOf(String displayName) {
+        if (displayName == null) return "";
+        int space = displayName.indexOf(' ');
+        return space > 0 ? displayName.substring(0, space) : displayName;
+    }
+
+    private static int startMinutes(String displayName) {
+        if (displayName == null) return Integer.MAX_VALUE;
+        String[] tokens = displayName.split(" ");
+        if (tokens.length < 2) return Integer.MAX_VALUE;
+
+        int colon = tokens[1].indexOf(':');
+        try {
+            return colon > 0
+                ? Integer.parseInt(tokens[1].substring(0, colon)) * 60 + Integer.parseInt(tokens[1].substring(colon + 1))
+                : Integer.MAX_VALUE;
+        } catch (NumberFormatException e) {
+            return Integer.MAX_VALUE;
+        }
+    }
+}
@@ -0,0 +1,265 @@
+package com.school.scheduling.algorithm.strategy;
+
+import com.school.scheduling.algorithm.ConstraintSatisfactionProblem;
+import com.school.scheduling.domain.constraint.*;
+
+import java.util.*;
+
+/**
+ * The one objective every strategy optimizes. A {@link Score} holds three penalty levels that
+ * compare lexicographically: hard (violations of HARD constraints and unassigned variables),
+ * medium (HIGH and MEDIUM constraints) and soft (LOW constraints and the preference given up
+ * against the best value of each domain). A constraint costs its weight once per violation it
+ * counts, such as each clashing pair of a teacher's offerings. How constraint priorities map onto
+ * levels and weights is set by {@link Weights}.
+ * <p>
+ * The director owns an {@link IncrementalFitnessEvaluator}; its tallies keep the weighted penalty
+ * of every level up to date as genes change, so scoring a move re-validates only the constraints
+ * around the changed genes. {@link #fitness(Score)} folds a score into [0, 1] for the strategies
+ * that need a scalar (acceptance probabilities, roulette selection, stop thresholds).
+ */
+public class ScoreDirector {
+
+    /**
+     * Score levels, most significant first.
+     */
+    public enum Level {
+        HARD,
+        MEDIUM,
+        SOFT
+    }
+
+    private final Weights weights;
+    private final IncrementalFitnessEvaluator evaluator;
+
+    public ScoreDirector(GenomeEncoding encoding, ConstraintSatisfactionProblem csp) {
+        this(encoding, csp, Weights.defaults());
+    }
+
+    public ScoreDirector(GenomeEncoding encoding, ConstraintSatisfactionProblem csp, Weights weights) {
+        this.weights = weights;
+        this.evaluator = new IncrementalFitnessEvaluator(encoding, csp, weights, this);
+    }
+
+    // For evaluators created without a director of their own
+    ScoreDirector(IncrementalFitnessEvaluator evaluator, Weights weights) {
+        this.weights = weights;
+        this.evaluator = evaluator;
+    }
+
+    public IncrementalFitnessEvaluator getEvaluator() {
+        return evaluator;
+    }
+
+    public GenomeEncoding getEncoding() {
+        return evaluator.getEncoding();
+    }
+
+    public Weights getWeights() {
+        return weights;
+    }
+
+    public IncrementalFitnessEvaluator.Tally newTally() {
+        return evaluator.newTally();
+    }
+
+    public IncrementalFitnessEvaluator.Tally evaluate(int[] genome) {
+        return evaluator.evaluate(genome);
+    }
+
+    public Score score(IncrementalFitnessEvaluator.Tally tally) {
+        long hard = tally.getPenalty(Level.HARD)
+            + weights.unassignedWeight * (tally.getVariableCount() - tally.getAssignedCount());
+        double soft = tally.getPenalty(Level.SOFT) + weights.preferenceWeight * tally.getPreferenceRegret();
+        return new Score(hard, tally.getPenalty(Level.MEDIUM), Math.max(0.0, soft));
+    }
+
+    /**
+     * Scores an assignment from scratch. Values outside their variable's domain count as unassigned.
+     */
+    public Score score(SchedulingAssignment assignment) {
+        return score(evaluator.evaluate(getEncoding().encode(assignment)));
+    }
+
+    public double fitness(IncrementalFitnessEvaluator.Tally tally) {
+        return fitness(score(tally));
+    }
+
+    /**
+     * Folds a score into [0, 1]: each level's penalty is divided by the worst penalty the problem
+     * allows on that level and weighted by the level's share. Any hard penalty costs at least half
+     * the hard share, so with the default shares every feasible score folds above every infeasible
+     * one and the strategies' 0.95 stop threshold is only reached by feasible schedules.
+     * 1.0 means nothing is given up.
+     */
+    public double fitness(Score score) {
+        double hardRatio = ratio(score.hard, maximum(Level.HARD));
+        double loss = weights.shares[Level.HARD.ordinal()] * (hardRatio > 0 ? 0.5 + 0.5 * hardRatio : 0.0)
+            + weights.shares[Level.MEDIUM.ordinal()] * ratio(score.medium, maximum(Level.MEDIUM))
+            + weights.shares[Level.SOFT.ordinal()] * ratio(score.soft, maximum(Level.SOFT));
+        return Math.max(0, Math.min(1, 1.0 - loss));
+    }
+
+    /**
+     * Weighted penalty of the constraint violations as one number ordered like the score: any hard
+     * penalty outweighs all medium penalty, which outweighs all soft penalty. Unassigned variables
+     * and preferences are left out, so constructive heuristics can compare partial assignments.
+     */
+    public long constraintPenalty(IncrementalFitnessEvaluator.Tally tally) {
+        long mediumRange = evaluator.getMaximumPenalty(Level.MEDIUM) + 1;
+        long softRange = evaluator.getMaximumPenalty(Level.SOFT) + 1;
+        return (tally.getPenalty(Level.HARD) * mediumRange + tally.getPenalty(Level.MEDIUM)) * softRange
+            + tally.getPenalty(Level.SOFT);
+    }
+
+    private double maximum(Level level) {
+        double maximum = evaluator.getMaximumPenalty(level);
+        if (level == Level.HARD) {
+            maximum += (double) weights.unassignedWeight * getEncoding().size();
+        } else if (level == Level.SOFT) {
+            maximum += weights.preferenceWeight * evaluator.getPreferenceSpan();
+        }
+        return maximum;
+    }
+
+    private static double ratio(double penalty, double maximum) {
+        return maximum > 0 ? Math.min(1.0, penalty / maximum) : 0.0;
+    }
+
+    /**
+     * Penalties on the three levels; lower is better and 0hard/0medium/0soft is perfect.
+     */
+    public static final class Score implements Comparable<Score> {
+        private final long hard;
+        private final long medium;
+        private final double soft;
+
+        public Score(long hard, long medium, double soft) {
+            this.hard = hard;
+            this.medium = medium;
+            this.soft = soft;
+        }
+
+        public long getHard() { return hard; }
+        public long getMedium() { return medium; }
+        public double getSoft() { return soft; }
+
+        public boolean isFeasible() {
+            return hard == 0;
+        }
+
+        @Override
+        public int compareTo(Score other) {
+            if (hard != other.hard) return Long.compare(hard, other.hard);
+            if (medium != other.medium) return Long.compare(medium, other.medium);
+            return Double.compare(soft, other.soft);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Score)) return false;
+            Score other = (Score) o;
+            return hard == other.hard && medium == other.medium && Double.compare(soft, other.soft) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(hard, medium, soft);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%dhard/%dmedium/%ssoft", hard, medium, soft);
+        }
+    }
+
+    /**
+     * Maps constraint priorities onto levels and weights. By default HARD constraints are hard,
+     * HIGH (weight 2) and MEDIUM (weight 1) are medium and LOW is soft; an unassigned variable
+     * costs one hard point and preference regret is taken at face value. Instances are immutable.
+     */
+    public static final class Weights {
+        private final EnumMap<ConstraintPriority, Level> levels;
+        private final EnumMap<ConstraintPriority, Long> constraintWeights;
+        private final long unassignedWeight;
+        private final double preferenceWeight;
+        private final double[] shares;
+
+        private Weights(EnumMap<ConstraintPriority, Level> levels, EnumMap<ConstraintPriority, Long> constraintWeights,
+                        long unassignedWeight, double preferenceWeight, double[] shares) {
+            this.levels = levels;
+            this.constraintWeights = constraintWeights;
+            this.unassignedWeight = unassignedWeight;
+            this.preferenceWeight = preferenceWeight;
+            this.shares = shares;
+        }
+
+        public static Weights defaults() {
+            EnumMap<ConstraintPriority, Level> levels = new EnumMap<>(ConstraintPriority.class);
+            EnumMap<ConstraintPriority, Long> constraintWeights = new EnumMap<>(ConstraintPriority.class);
+            levels.put(ConstraintPriority.HARD, Level.HARD);
+            constraintWeights.put(ConstraintPriority.HARD, 1L);
+            levels.put(ConstraintPriority.HIGH, Level.MEDIUM);
+            constraintWeights.put(ConstraintPriority.HIGH, 2L);
+            levels.put(ConstraintPriority.MEDIUM, Level.MEDIUM);
+            constraintWeights.put(ConstraintPriority.MEDIUM, 1L);
+            levels.put(ConstraintPriority.LOW, Level.SOFT);
+            constraintWeights.put(ConstraintPriority.LOW, 1L);
+            return new Weights(levels, constraintWeights, 1L, 1.0, new double[] {0.7, 0.2, 0.1});
+        }
+
+        /**
+         * Scores constraints of the given priority on another level or with another weight.
+         */
+        public Weights with(ConstraintPriority priority, Level level, long weight) {
+            if (weight < 0) {
+                throw new IllegalArgumentException("Constraint weight must not be negative: " + weight);
+            }
+            EnumMap<ConstraintPriority, Level> newLevels = new EnumMap<>(levels);
+            EnumMap<ConstraintPriority, Long> newWeights = new EnumMap<>(constraintWeights);
+            newLevels.put(priority, level);
+            newWeights.put(priority, weight);
+            return new Weights(newLevels, newWeights, unassignedWeight, preferenceWeight, shares);
+        }
+
+        public Weights withUnassignedWeight(long weight) {
+            if (weight < 0) {
+                throw new IllegalArgumentException("Unassigned weight must not be negative: " + weight);
+            }
+            return new Weights(levels, constraintWeights, weight, preferenceWeight, shares);
+        }
+
+        public Weights withPreferenceWeight(double weight) {
+            if (weight < 0) {
+                throw new IllegalArgumentException("Preference weight must not be negative: " + weight);
+            }
+            return new Weights(levels, constraintWeights, unassignedWeight, weight, shares);
+        }
+
+        /**
+         * Shares of the levels in {@link ScoreDirector#fitness(Score)}; they should add up to 1.
+         */
+        public Weights withLevelShares(double hard, double medium, double soft) {
+            if (hard < 0 || medium < 0 || soft < 0) {
+                throw new IllegalArgumentException("Level shares must not be negative");
+            }
+            return new Weights(levels, constraintWeights, unassignedWeight, preferenceWeight,
+                               new double[] {hard, medium, soft});
+        }
+
+        /**
+         * Level of a constraint priority; constraints without a priority are soft.
+         */
+        public Level levelOf(ConstraintPriority priority) {
+            return priority != null ? levels.getOrDefault(priority, Level.SOFT) : Level.SOFT;
+        }
+
+        public long weightOf(ConstraintPriority priority) {
+            return priority != null ? constraintWeights.getOrDefault(priority, 1L) : 1L;
+        }
+
+        public long getUnassignedWeight() { return unassignedWeight; }
+        public double getPreferenceWeight() { return preferenceWeight; }
+    }
+}
@@ -0,0 +1,36 @@
+package com.school.scheduling.algorithm.strategy;
+
+/**
+ * Callback for observing a running search. Strategies report explored nodes (iterations,
+ * evaluated moves or repaired neighborhoods) and every new best schedule by its tally, scored by
+ * the strategy's {@link ScoreDirector}.
+ * Long-running strategies also poll {@link #checkpointDue()} every few iterations and, when it
+ * says so, hand over a {@link SearchState} they can later resume from.
+ * Implementations are called from solver threads, possibly several at once, and must be cheap.
+ */
+public interface SearchListener {
+
+    SearchListener NONE = new SearchListener() {
+    };
+
+    default void nodesExplored(long count) {
+    }
+
+    /**
+     * A new best schedule. The tally belongs to the search and keeps changing after the call,
+     * so read what is needed from it before returning.
+     */
+    default void improved(IncrementalFitnessEvaluator.Tally best) {
+    }
+
+    /**
+     * Whether the search should call {@link #checkpoint} now. Returns true to one caller only,
+     * so parallel workers do not all capture their state for the same checkpoint.
+     */
+    default boolean checkpointDue() {
+        return false;
+    }
+
+    default void checkpoint(SearchState state) {
+    }
+}
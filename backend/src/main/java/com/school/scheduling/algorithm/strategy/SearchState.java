@@ -0,0 +1,191 @@
+package com.school.scheduling.algorithm.strategy;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Resumable state of a running search, handed to {@link SearchListener#checkpoint} and back to
+ * the strategy on restart. Genomes follow {@link GenomeEncoding}. Which parts are set depends on
+ * the strategy: annealing keeps its current genome, temperature and random stream; tabu search its
+ * current genome, tenure table and random stream; LNS its adaptive operator weights; the genetic
+ * algorithm every island's population and random stream. Parts a strategy does not use are null.
+ */
+public final class SearchState {
+
+    private final long iteration;
+    private final int[] best;
+    private final int[] current;
+    private final double temperature;
+    private final int[] tabuUntil;
+    private final double[] operatorWeights;
+    private final int[][] population;
+    private final long[] randomStates;
+
+    private SearchState(long iteration, int[] best, int[] current, double temperature, int[] tabuUntil,
+                        double[] operatorWeights, int[][] population, long[] randomStates) {
+        this.iteration = iteration;
+        this.best = best;
+        this.current = current;
+        this.temperature = temperature;
+        this.tabuUntil = tabuUntil;
+        this.operatorWeights = operatorWeights;
+        this.population = population;
+        this.randomStates = randomStates;
+    }
+
+    /**
+     * State that is nothing but a best genome, for searches whose progress lives in the incumbent.
+     */
+    public static SearchState incumbent(int[] best) {
+        return new SearchState(0, best.clone(), null, Double.NaN, null, null, null, null);
+    }
+
+    static SearchState annealing(long iteration, int[] best, int[] current, double temperature, long randomState) {
+        return new SearchState(iteration, best.clone(), current.clone(), temperature, null, null, null,
+                               new long[] {randomState});
+    }
+
+    static SearchState tabu(long iteration, int[] best, int[] current, int[] tabuUntil, long randomState) {
+        return new SearchState(iteration, best.clone(), current.clone(), Double.NaN, tabuUntil.clone(), null, null,
+                               new long[] {randomState});
+    }
+
+    static SearchState largeNeighborhood(long iteration, int[] best, double[] operatorWeights) {
+        return new SearchState(iteration, best.clone(), null, Double.NaN, null, operatorWeights.clone(), null, null);
+    }
+
+    static SearchState genetic(long generation, int[] best, int[][] population, long[] randomStates) {
+        return new SearchState(generation, best != null ? best.clone() : null, null, Double.NaN, null, null,
+                               population, randomStates.clone());
+    }
+
+    /**
+     * Whether the genomes in this state fit a problem of the given encoding.
+     */
+    boolean fits(GenomeEncoding encoding) {
+        if (best != null && best.length != encoding.size()) return false;
+        if (current != null && current.length != encoding.size()) return false;
+        if (population != null) {
+            for (int[] genome : population) {
+                if (genome.length != encoding.size()) return false;
+            }
+        }
+        return true;
+    }
+
+    // Binary form: fixed-width fields, arrays prefixed by their length (-1 for null)
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeLong(iteration);
+        writeInts(out, best);
+        writeInts(out, current);
+        out.writeDouble(temperature);
+        writeInts(out, tabuUntil);
+        if (operatorWeights == null) {
+            out.writeInt(-1);
+        } else {
+            out.writeInt(operatorWeights.length);
+            for (double weight : operatorWeights) {
+                out.writeDouble(weight);
+            }
+        }
+        if (population == null) {
+            out.writeInt(-1);
+        } else {
+            out.writeInt(population.length);
+            for (int[] genome : population) {
+                writeInts(out, genome);
+            }
+        }
+        if (randomStates == null) {
+            out.writeInt(-1);
+        } else {
+            out.writeInt(randomStates.length);
+            for (long state : randomStates) {
+                out.writeLong(state);
+            }
+        }
+    }
+
+    public static SearchState readFrom(DataInput in) throws IOException {
+        long iteration = in.readLong();
+        int[] best = readInts(in);
+        int[] current = readInts(in);
+        double temperature = in.readDouble();
+        int[] tabuUntil = readInts(in);
+
+        double[] operatorWeights = null;
+        int weightCount = readLength(in);
+        if (weightCount >= 0) {
+            operatorWeights = new double[weightCount];
+            for (int i = 0; i < weightCount; i++) {
+                operatorWeights[i] = in.readDouble();
+            }
+        }
+
+        int[][] population = null;
+        int populationSize = readLength(in);
+        if (populationSize >= 0) {
+            population = new int[populationSize][];
+            for (int i = 0; i < populationSize; i++) {
+                population[i] = readInts(in);
+                if (population[i] == null) {
+                    throw new IOException("Population entry " + i + " is missing");
+                }
+            }
+        }
+
+        long[] randomStates = null;
+        int stateCount = readLength(in);
+        if (stateCount >= 0) {
+            randomStates = new long[stateCount];
+            for (int i = 0; i < stateCount; i++) {
+                randomStates[i] = in.readLong();
+            }
+        }
+        return new SearchState(iteration, best, current, temperature, tabuUntil, operatorWeights, population,
+                               randomStates);
+    }
+
+    static void writeInts(DataOutput out, int[] values) throws IOException {
+        if (values == null) {
+            out.writeInt(-1);
+            return;
+        }
+        out.writeInt(values.length);
+        for (int value : values) {
+            out.writeInt(value);
+        }
+    }
+
+    static int[] readInts(DataInput in) throws IOException {
+        int length = readLength(in);
+        if (length < 0) {
+            return null;
+        }
+        int[] values = new int[length];
+        for (int i = 0; i < length; i++) {
+            values[i] = in.readInt();
+        }
+        return values;
+    }
+
+    private static int readLength(DataInput in) throws IOException {
+        int length = in.readInt();
+        // Guards against allocating whatever a damaged file claims
+        if (length < -1 || length > (1 << 26)) {
+            throw new IOException("Invalid array length " + length);
+        }
+        return length;
+    }
+
+    // Getters
+    public long getIteration() { return iteration; }
+    public int[] getBest() { return best; }
+    int[] getCurrent() { return current; }
+    double getTemperature() { return temperature; }
+    int[] getTabuUntil() { return tabuUntil; }
+    double[] getOperatorWeights() { return operatorWeights; }
+    int[][] getPopulation() { return population; }
+    long[] getRandomStates() { return randomStates; }
+}
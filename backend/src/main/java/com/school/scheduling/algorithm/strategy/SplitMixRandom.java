@@ -0,0 +1,52 @@
+package com.school.scheduling.algorithm.strategy;
+
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * SplitMix64 generator whose whole state is one long, so a search can write its random
+ * stream to a checkpoint and continue it exactly after a restart. Not thread-safe; every
+ * search thread owns its generator.
+ */
+class SplitMixRandom extends Random {
+
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    private long state;
+
+    SplitMixRandom(long seed) {
+        super(0L);
+        this.state = seed;
+    }
+
+    static SplitMixRandom seeded() {
+        return new SplitMixRandom(ThreadLocalRandom.current().nextLong());
+    }
+
+    long getState() {
+        return state;
+    }
+
+    void setState(long state) {
+        this.state = state;
+    }
+
+    @Override
+    public void setSeed(long seed) {
+        // Called by the Random constructor before our state exists; the constructor sets it afterwards
+        this.state = seed;
+    }
+
+    @Override
+    public long nextLong() {
+        long z = (state += GOLDEN_GAMMA);
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    @Override
+    protected int next(int bits) {
+        return (int) (nextLong() >>> (64 - bits));
+    }
+}
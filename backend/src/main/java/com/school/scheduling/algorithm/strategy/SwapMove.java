@@ -0,0 +1,40 @@
+package com.school.scheduling.algorithm.strategy;
+
+/**
+ * Exchanges the values of two variables, e.g. the time slots or rooms of two offerings.
+ * Values are stored as indices into each variable's own domain.
+ */
+public class SwapMove extends Move {
+
+    private final int firstGene;
+    private final int firstValue;
+    private final int secondGene;
+    private final int secondValue;
+
+    public SwapMove(int firstGene, int firstValue, int secondGene, int secondValue) {
+        this.firstGene = firstGene;
+        this.firstValue = firstValue;
+        this.secondGene = secondGene;
+        this.secondValue = secondValue;
+    }
+
+    @Override
+    public int size() {
+        return 2;
+    }
+
+    @Override
+    public int gene(int index) {
+        return index == 0 ? firstGene : secondGene;
+    }
+
+    @Override
+    public int value(int index) {
+        return index == 0 ? firstValue : secondValue;
+    }
+
+    @Override
+    public String toString() {
+        return "SwapMove{" + firstGene + "<->" + secondGene + "}";
+    }
+}
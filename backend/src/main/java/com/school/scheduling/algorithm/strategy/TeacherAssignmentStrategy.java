@@ -0,0 +1,86 @@
+package com.school.scheduling.algorithm.strategy;
+
+import com.school.scheduling.algorithm.ConstraintSatisfactionProblem;
+import com.school.scheduling.algorithm.constraint.TeacherLoadConstraint;
+import com.school.scheduling.algorithm.optimization.TeacherAssignmentFlow;
+import com.school.scheduling.domain.constraint.*;
+
+import java.util.*;
+
+/**
+ * Assigns teachers in one polynomial-time step instead of searching for them: the offerings to
+ * staff and the teachers in their domains form a transportation problem, solved as a min-cost
+ * flow over the teacher values' preference scores. Course and hour limits come from the
+ * problem's per-teacher {@link TeacherLoadConstraint}s; a teacher without one is unlimited.
+ * <p>
+ * Without an incumbent every offering with a teacher in its domain is staffed. From an incumbent,
+ * offerings holding a teacher or nothing are re-staffed and all other values are kept.
+ */
+public class TeacherAssignmentStrategy {
+
+    public Optional<SchedulingAssignment> solve(ConstraintSatisfactionProblem csp, SchedulingAssignment incumbent) {
+        SchedulingAssignment result = incumbent != null ? incumbent.copy() : new SchedulingAssignment();
+
+        List<SchedulingVariable> offerings = new ArrayList<>();
+        for (SchedulingVariable variable : csp.getVariables()) {
+            SchedulingValue current = result.getValue(variable);
+            boolean hasTeachers = csp.getDomains().getOrDefault(variable, List.of()).stream()
+                .anyMatch(SchedulingValue::isTeacher);
+            if (hasTeachers && (current == null || current.isTeacher())) {
+                offerings.add(variable);
+            }
+        }
+        // Stable compiled ids make the flow's tie-breaking repeatable
+        offerings.sort(Comparator.comparing(SchedulingVariable::getEntityId));
+
+        Map<Object, Integer> teacherIndex = new LinkedHashMap<>();
+        List<Map<Integer, SchedulingValue>> values = new ArrayList<>();
+        for (SchedulingVariable variable : offerings) {
+            Map<Integer, SchedulingValue> byTeacher = new HashMap<>();
+            for (SchedulingValue value : csp.getDomains().get(variable)) {
+                if (value.isTeacher()) {
+                    byTeacher.putIfAbsent(teacherIndex.computeIfAbsent(value.getValue(), id -> teacherIndex.size()), value);
+                }
+            }
+            values.add(byTeacher);
+        }
+
+        Map<Long, TeacherLoadConstraint> loads = new HashMap<>();
+        csp.getConstraints().stream()
+            .filter(TeacherLoadConstraint.class::isInstance)
+            .map(TeacherLoadConstraint.class::cast)
+            .forEach(constraint -> loads.put(constraint.getTeacherId(), constraint));
+
+        TeacherAssignmentFlow flow = new TeacherAssignmentFlow(offerings.size(), teacherIndex.size());
+        if (!loads.isEmpty()) {
+            // Every teacher's constraint reads the same offering minutes
+            TeacherLoadConstraint minutes = loads.values().iterator().next();
+            for (int o = 0; o < offerings.size(); o++) {
+                flow.setLoad(o, minutes.getOfferingMinutes(offerings.get(o).getEntityId()));
+            }
+            for (Map.Entry<Object, Integer> teacher : teacherIndex.entrySet()) {
+                TeacherLoadConstraint load = loads.get(teacher.getKey());
+                if (load != null) {
+                    flow.setCapacity(teacher.getValue(), load.getTeacherLoad().getMaxCourses(),
+                                     load.getTeacherLoad().getMaxWeeklyMinutes());
+                }
+            }
+        }
+        for (int o = 0; o < offerings.size(); o++) {
+            for (Map.Entry<Integer, SchedulingValue> entry : values.get(o).entrySet()) {
+                flow.addEligibility(o, entry.getKey(), entry.getValue().getPreferenceScore());
+            }
+        }
+
+        int[] teacherOf = flow.solve();
+        for (int o = 0; o < offerings.size(); o++) {
+            if (teacherOf[o] >= 0) {
+                result.assign(offerings.get(o), values.get(o).get(teacherOf[o]));
+            } else {
+                // No teacher left within the limits; an unstaffed offering beats an overloaded teacher
+                result.unassign(offerings.get(o));
+            }
+        }
+        return Optional.of(result);
+    }
+}
@@ -0,0 +1,117 @@
+package com.school.scheduling.config;
+
+import com.school.scheduling.algorithm.pipeline.SolvePipeline;
+import com.school.scheduling.algorithm.pipeline.StageType;
+import com.school.scheduling.algorithm.remote.RemoteSolverPool;
+import com.school.scheduling.service.SchedulingService.SchedulingStrategy;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Solve pipelines per scheduling strategy, bound from app.scheduling.pipelines.
+ * Strategies without configured stages fall back to the defaults below.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.scheduling")
+public class SolvePipelineProperties {
+
+    private Map<SchedulingStrategy, List<StageProperties>> pipelines = new EnumMap<>(SchedulingStrategy.class);
+    // Pipelines search times and teachers only; rooms are matched per time slot afterwards
+    private boolean roomMatching;
+    // Compiled problems are kept here per semester and data version; empty builds every solve afresh
+    private String problemSnapshotDir = "";
+    // Longest a Pareto front may be searched for; callers may ask for less, and it must be positive
+    private long paretoTimeLimitMs = 30000;
+
+    public SolvePipelineProperties() {
+        pipelines.put(SchedulingStrategy.BACKTRACKING, List.of(new StageProperties(StageType.BACKTRACKING, 0)));
+        pipelines.put(SchedulingStrategy.MIN_CONFLICTS, List.of(new StageProperties(StageType.MIN_CONFLICTS, 0)));
+        pipelines.put(SchedulingStrategy.GREEDY, List.of(
+            new StageProperties(StageType.DSATUR, 1000),
+            new StageProperties(StageType.POLISH, 2000)));
+        pipelines.put(SchedulingStrategy.HYBRID, List.of(
+            new StageProperties(StageType.DSATUR, 1000),
+            new StageProperties(StageType.TEACHER_FLOW, 1000),
+            new StageProperties(StageType.TABU, 5000),
+            new StageProperties(StageType.PARALLEL_TEMPERING, 5000),
+            new StageProperties(StageType.LNS, 15000),
+            new StageProperties(StageType.POLISH, 5000)));
+    }
+
+    /**
+     * Pipeline for a strategy; a plain backtracking solve when nothing is configured.
+     */
+    public SolvePipeline pipelineFor(SchedulingStrategy strategy) {
+        return pipelineFor(strategy, null);
+    }
+
+    /**
+     * As {@link #pipelineFor(SchedulingStrategy)}, with remote stages running on the given workers.
+     */
+    public SolvePipeline pipelineFor(SchedulingStrategy strategy, RemoteSolverPool remotePool) {
+        List<StageProperties> stages = pipelines.get(strategy);
+        if (stages == null || stages.isEmpty()) {
+            return SolvePipeline.of(StageType.BACKTRACKING);
+        }
+        return new SolvePipeline(stages.stream()
+            .map(stage -> new SolvePipeline.Stage(stage.getStage(), stage.getTimeBudgetMs()))
+            .collect(Collectors.toList()), remotePool);
+    }
+
+    public Map<SchedulingStrategy, List<StageProperties>> getPipelines() {
+        return pipelines;
+    }
+
+    public void setPipelines(Map<SchedulingStrategy, List<StageProperties>> pipelines) {
+        this.pipelines.putAll(pipelines);
+    }
+
+    public boolean isRoomMatching() {
+        return roomMatching;
+    }
+
+    public void setRoomMatching(boolean roomMatching) {
+        this.roomMatching = roomMatching;
+    }
+
+    public String getProblemSnapshotDir() {
+        return problemSnapshotDir;
+    }
+
+    public void setProblemSnapshotDir(String problemSnapshotDir) {
+        this.problemSnapshotDir = problemSnapshotDir;
+    }
+
+    public long getParetoTimeLimitMs() {
+        return paretoTimeLimitMs;
+    }
+
+    public void setParetoTimeLimitMs(long paretoTimeLimitMs) {
+        if (paretoTimeLimitMs <= 0) {
+            throw new IllegalArgumentException("Pareto time limit must be positive: " + paretoTimeLimitMs);
+        }
+        this.paretoTimeLimitMs = paretoTimeLimitMs;
+    }
+
+    public static class StageProperties {
+        private StageType stage;
+        // 0 means unlimited
+        private long timeBudgetMs;
+
+        public StageProperties() {
+        }
+
+        public StageProperties(StageType stage, long timeBudgetMs) {
+            this.stage = stage;
+            this.timeBudgetMs = timeBudgetMs;
+        }
+
+        public StageType getStage() { return stage; }
+        public void setStage(StageType stage) { this.stage = stage; }
+        public long getTimeBudgetMs() { return timeBudgetMs; }
+        public void setTimeBudgetMs(long timeBudgetMs) { this.timeBudgetMs = timeBudgetMs; }
+    }
+}
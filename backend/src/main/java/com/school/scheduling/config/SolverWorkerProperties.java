@@ -0,0 +1,49 @@
+package com.school.scheduling.config;
+
+import com.school.scheduling.algorithm.pipeline.StageType;
+import com.school.scheduling.algorithm.remote.RemoteSolverPool;
+import com.school.scheduling.algorithm.remote.WorkerEndpoint;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Solver worker processes, bound from app.scheduling.workers. With no endpoints configured the
+ * remote pipeline stages run in the web application itself.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.scheduling.workers")
+public class SolverWorkerProperties {
+
+    // tcp://host:port or unix:/path/to/socket
+    private List<String> endpoints = new ArrayList<>();
+    // Shared with the workers through their SOLVER_WORKER_SECRET
+    private String secret;
+    private List<StageType> portfolio = new ArrayList<>(List.of(
+        StageType.TABU, StageType.LNS, StageType.SIMULATED_ANNEALING));
+    private int reportIntervalMs = 500;
+    private long lnsEpochMs = 2000;
+
+    @Bean(destroyMethod = "shutdown")
+    public RemoteSolverPool remoteSolverPool() {
+        List<WorkerEndpoint> parsed = endpoints.stream()
+            .filter(endpoint -> endpoint != null && !endpoint.isBlank())
+            .map(WorkerEndpoint::parse)
+            .collect(Collectors.toList());
+        return new RemoteSolverPool(parsed, secret, portfolio, reportIntervalMs, lnsEpochMs);
+    }
+
+    public List<String> getEndpoints() { return endpoints; }
+    public void setEndpoints(List<String> endpoints) { this.endpoints = endpoints; }
+    public String getSecret() { return secret; }
+    public void setSecret(String secret) { this.secret = secret; }
+    public List<StageType> getPortfolio() { return portfolio; }
+    public void setPortfolio(List<StageType> portfolio) { this.portfolio = portfolio; }
+    public int getReportIntervalMs() { return reportIntervalMs; }
+    public void setReportIntervalMs(int reportIntervalMs) { this.reportIntervalMs = reportIntervalMs; }
+    public long getLnsEpochMs() { return lnsEpochMs; }
+    public void setLnsEpochMs(long lnsEpochMs) { this.lnsEpochMs = lnsEpochMs; }
+}
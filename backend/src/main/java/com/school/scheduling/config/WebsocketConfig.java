@@ -1,6 +1,7 @@
 package com.school.scheduling.config;
 
 import com.school.scheduling.websocket.ConflictWebSocketHandler;
+import com.school.scheduling.websocket.SolverProgressWebSocketHandler;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.socket.config.annotation.EnableWebSocket;
@@ -13,11 +14,15 @@ import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry
 public class WebsocketConfig implements WebSocketConfigurer {
 
     private final ConflictWebSocketHandler conflictWebSocketHandler;
+    private final SolverProgressWebSocketHandler solverProgressWebSocketHandler;
 
     @Override
     public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
         registry.addHandler(conflictWebSocketHandler, "/ws/conflicts")
                 .setAllowedOrigins("*")
                 .withSockJS();
+        registry.addHandler(solverProgressWebSocketHandler, "/ws/solver-progress")
+                .setAllowedOrigins("*")
+                .withSockJS();
     }
 }
\ No newline at end of file
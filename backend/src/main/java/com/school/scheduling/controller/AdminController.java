@@ -1,9 +1,12 @@
 package com.school.scheduling.controller;
 
+import com.school.scheduling.algorithm.sectioning.SectioningResult;
 import com.school.scheduling.dto.response.ApiResponse;
 import com.school.scheduling.exception.BadRequestException;
 import com.school.scheduling.mapper.ScheduleMapper;
 import com.school.scheduling.mapper.ScheduleConflictMapper;
+import com.school.scheduling.service.SchedulingService;
+import com.school.scheduling.service.StudentSectioningService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -24,10 +27,15 @@ public class AdminController {
 
     private final ScheduleMapper scheduleMapper;
     private final ScheduleConflictMapper scheduleConflictMapper;
+    private final StudentSectioningService sectioningService;
+    private final SchedulingService schedulingService;
 
-    public AdminController(ScheduleMapper scheduleMapper, ScheduleConflictMapper scheduleConflictMapper) {
+    public AdminController(ScheduleMapper scheduleMapper, ScheduleConflictMapper scheduleConflictMapper,
+                           StudentSectioningService sectioningService, SchedulingService schedulingService) {
         this.scheduleMapper = scheduleMapper;
         this.scheduleConflictMapper = scheduleConflictMapper;
+        this.sectioningService = sectioningService;
+        this.schedulingService = schedulingService;
     }
 
     @GetMapping("/dashboard/stats")
@@ -89,4 +97,50 @@ public class AdminController {
             throw new RuntimeException("Failed to detect conflicts", e);
         }
     }
-}
\ No newline at end of file
+
+    @PostMapping("/semesters/{semesterId}/sectioning")
+    @Operation(summary = "Section students", description = "Place the semester's enrolled students into sections of their courses")
+    @ApiResponses(value = {
+            @SwaggerApiResponse(responseCode = "200", description = "Sectioning completed"),
+            @SwaggerApiResponse(responseCode = "401", description = "Unauthorized"),
+            @SwaggerApiResponse(responseCode = "403", description = "Forbidden")
+    })
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> sectionStudents(
+            @Parameter(description = "Semester ID") @PathVariable Long semesterId) {
+
+        try {
+            SectioningResult result = sectioningService.sectionStudents(semesterId);
+            Map<String, Object> stats = Map.of(
+                    "requests", result.getRequestCount(),
+                    "placed", result.getPlacedCount(),
+                    "placedInRequestedSection", result.getPreferredCount(),
+                    "unplaced", result.getUnplacedCount(),
+                    "executionTimeMs", result.getExecutionTimeMs()
+            );
+            return ResponseEntity.ok(ApiResponse.success(stats, result.getSummary()));
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to section students", e);
+        }
+    }
+
+    @PostMapping("/semesters/{semesterId}/teacher-assignments")
+    @Operation(summary = "Assign teachers", description = "Assign a teacher to every offering of the semester within the teachers' course and hour limits")
+    @ApiResponses(value = {
+            @SwaggerApiResponse(responseCode = "200", description = "Teachers assigned"),
+            @SwaggerApiResponse(responseCode = "401", description = "Unauthorized"),
+            @SwaggerApiResponse(responseCode = "403", description = "Forbidden")
+    })
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<Map<Long, Long>>> assignTeachers(
+            @Parameter(description = "Semester ID") @PathVariable Long semesterId) {
+
+        try {
+            Map<Long, Long> teacherByOffering = schedulingService.assignTeachers(semesterId);
+            return ResponseEntity.ok(ApiResponse.success(teacherByOffering,
+                    "Assigned teachers to " + teacherByOffering.size() + " offerings"));
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to assign teachers", e);
+        }
+    }
+}
@@ -9,6 +9,7 @@ import com.school.scheduling.exception.ResourceNotFoundException;
 import com.school.scheduling.exception.ResourceAlreadyExistsException;
 import com.school.scheduling.exception.BadRequestException;
 import com.school.scheduling.mapper.CourseMapper;
+import com.school.scheduling.service.CoursePrerequisiteService;
 import com.school.scheduling.validation.CourseValidator;
 import com.school.scheduling.validation.ValidationResult;
 import io.swagger.v3.oas.annotations.Operation;
@@ -25,6 +26,7 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/v1/courses")
@@ -33,10 +35,13 @@ public class CourseController {
 
     private final CourseMapper courseMapper;
     private final CourseValidator courseValidator;
+    private final CoursePrerequisiteService prerequisiteService;
 
-    public CourseController(CourseMapper courseMapper, CourseValidator courseValidator) {
+    public CourseController(CourseMapper courseMapper, CourseValidator courseValidator,
+                            CoursePrerequisiteService prerequisiteService) {
         this.courseMapper = courseMapper;
         this.courseValidator = courseValidator;
+        this.prerequisiteService = prerequisiteService;
     }
 
     @GetMapping
@@ -166,17 +171,9 @@ public class CourseController {
 
             courseMapper.insert(course);
 
-            // Add prerequisites if provided
+            // Add prerequisites if provided; the service keeps the prerequisite index in step
             if (courseRequest.getPrerequisites() != null) {
-                courseRequest.getPrerequisites().forEach(prereqRequest -> {
-                    com.school.scheduling.domain.CoursePrerequisite prerequisite = new com.school.scheduling.domain.CoursePrerequisite();
-                    prerequisite.setCourse(course);
-                    prerequisite.setPrerequisiteCourse(new com.school.scheduling.domain.Course(prereqRequest.getPrerequisiteCourseId()));
-                    prerequisite.setIsMandatory(prereqRequest.getIsMandatory());
-                    prerequisite.setMinimumGrade(prereqRequest.getMinimumGrade());
-                    prerequisite.setNotes(prereqRequest.getNotes());
-                    course.addPrerequisite(prerequisite);
-                });
+                prerequisiteService.replacePrerequisites(course.getId(), toPrerequisites(course, courseRequest));
             }
 
             CourseResponse response = CourseResponse.fromEntity(courseMapper.findById(course.getId()));
@@ -228,21 +225,9 @@ public class CourseController {
 
             courseMapper.update(existingCourse);
 
-            // Update prerequisites if provided
+            // Replace prerequisites if provided; the service keeps the prerequisite index in step
             if (courseRequest.getPrerequisites() != null) {
-                // Remove existing prerequisites
-                existingCourse.getPrerequisites().clear();
-
-                // Add new prerequisites
-                courseRequest.getPrerequisites().forEach(prereqRequest -> {
-                    com.school.scheduling.domain.CoursePrerequisite prerequisite = new com.school.scheduling.domain.CoursePrerequisite();
-                    prerequisite.setCourse(existingCourse);
-                    prerequisite.setPrerequisiteCourse(new com.school.scheduling.domain.Course(prereqRequest.getPrerequisiteCourseId()));
-                    prerequisite.setIsMandatory(prereqRequest.getIsMandatory());
-                    prerequisite.setMinimumGrade(prereqRequest.getMinimumGrade());
-                    prerequisite.setNotes(prereqRequest.getNotes());
-                    existingCourse.addPrerequisite(prerequisite);
-                });
+                prerequisiteService.replacePrerequisites(id, toPrerequisites(existingCourse, courseRequest));
             }
 
             CourseResponse response = CourseResponse.fromEntity(courseMapper.findById(id));
@@ -389,4 +374,17 @@ public class CourseController {
             throw new RuntimeException("Failed to retrieve lab courses", e);
         }
     }
-}
\ No newline at end of file
+
+    private List<com.school.scheduling.domain.CoursePrerequisite> toPrerequisites(
+            com.school.scheduling.domain.Course course, CourseRequest courseRequest) {
+        return courseRequest.getPrerequisites().stream().map(prereqRequest -> {
+            com.school.scheduling.domain.CoursePrerequisite prerequisite = new com.school.scheduling.domain.CoursePrerequisite();
+            prerequisite.setCourse(course);
+            prerequisite.setPrerequisiteCourse(new com.school.scheduling.domain.Course(prereqRequest.getPrerequisiteCourseId()));
+            prerequisite.setIsMandatory(prereqRequest.getIsMandatory());
+            prerequisite.setMinimumGrade(prereqRequest.getMinimumGrade());
+            prerequisite.setNotes(prereqRequest.getNotes());
+            return prerequisite;
+        }).collect(Collectors.toList());
+    }
+}
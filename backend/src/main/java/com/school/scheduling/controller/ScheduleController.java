@@ -8,6 +8,7 @@ import com.school.scheduling.dto.request.ScheduleRequest;
 import com.school.scheduling.exception.ResourceNotFoundException;
 import com.school.scheduling.exception.BadRequestException;
 import com.school.scheduling.mapper.ScheduleMapper;
+import com.school.scheduling.service.SchedulingService;
 import com.school.scheduling.validation.ScheduleValidator;
 import com.school.scheduling.validation.ValidationResult;
 import io.swagger.v3.oas.annotations.Operation;
@@ -34,10 +35,13 @@ public class ScheduleController {
 
     private final ScheduleMapper scheduleMapper;
     private final ScheduleValidator scheduleValidator;
+    private final SchedulingService schedulingService;
 
-    public ScheduleController(ScheduleMapper scheduleMapper, ScheduleValidator scheduleValidator) {
+    public ScheduleController(ScheduleMapper scheduleMapper, ScheduleValidator scheduleValidator,
+                              SchedulingService schedulingService) {
         this.scheduleMapper = scheduleMapper;
         this.scheduleValidator = scheduleValidator;
+        this.schedulingService = schedulingService;
     }
 
     @GetMapping
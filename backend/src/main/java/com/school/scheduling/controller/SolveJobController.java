@@ -0,0 +1,106 @@
+package com.school.scheduling.controller;
+
+import com.school.scheduling.domain.SolveJob;
+import com.school.scheduling.dto.request.SolveJobRequest;
+import com.school.scheduling.dto.response.ApiResponse;
+import com.school.scheduling.dto.response.ScheduleOptionResponse;
+import com.school.scheduling.dto.response.SolveJobResponse;
+import com.school.scheduling.service.SolveJobService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.security.Principal;
+import java.util.List;
+
+/**
+ * Submit, poll and cancel asynchronous schedule generation. Submitting returns 202 with the
+ * job id straight away; clients poll the job until it reaches a finished status. Searches for
+ * schedule options are jobs too, whose options are read once the job has succeeded.
+ */
+@RestController
+@RequestMapping("/api/v1/solve-jobs")
+@Tag(name = "Solve Jobs", description = "Asynchronous schedule generation")
+public class SolveJobController {
+
+    private final SolveJobService solveJobService;
+
+    public SolveJobController(SolveJobService solveJobService) {
+        this.solveJobService = solveJobService;
+    }
+
+    @PostMapping
+    @Operation(summary = "Submit a solve job", description = "Queue schedule generation for a semester")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<SolveJobResponse>> submitJob(
+            @Valid @RequestBody SolveJobRequest request, Principal principal) {
+
+        SolveJob job = solveJobService.submit(request.getSemesterId(), request.getStrategy(),
+                                              principal != null ? principal.getName() : null);
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(ApiResponse.success(SolveJobResponse.fromEntity(job), "Solve job queued"));
+    }
+
+    @PostMapping("/options")
+    @Operation(summary = "Submit a search for schedule options",
+               description = "Queue a Pareto search for alternative schedules of a semester; nothing is saved")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<SolveJobResponse>> submitOptionsJob(
+            @Parameter(description = "Semester ID") @RequestParam Long semesterId,
+            @Parameter(description = "Time limit in milliseconds, capped by the configured limit; the configured limit when omitted")
+            @RequestParam(required = false) Long timeLimitMs,
+            Principal principal) {
+
+        SolveJob job = solveJobService.submitPareto(semesterId, timeLimitMs,
+                                                    principal != null ? principal.getName() : null);
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(ApiResponse.success(SolveJobResponse.fromEntity(job), "Search for schedule options queued"));
+    }
+
+    @GetMapping("/{id}/options")
+    @Operation(summary = "Get schedule options", description = "Options found by a finished search for schedule options")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<List<ScheduleOptionResponse>>> getOptions(
+            @Parameter(description = "Solve job ID") @PathVariable Long id) {
+
+        List<ScheduleOptionResponse> options = solveJobService.getOptions(id);
+        return ResponseEntity.ok(ApiResponse.success(options, "Found " + options.size() + " schedule options"));
+    }
+
+    @GetMapping("/{id}")
+    @Operation(summary = "Get solve job", description = "Poll the status of a solve job")
+    @PreAuthorize("hasAnyRole('ADMIN', 'TEACHER')")
+    public ResponseEntity<ApiResponse<SolveJobResponse>> getJob(
+            @Parameter(description = "Solve job ID") @PathVariable Long id) {
+
+        return ResponseEntity.ok(ApiResponse.success(SolveJobResponse.fromEntity(solveJobService.getJob(id))));
+    }
+
+    @GetMapping
+    @Operation(summary = "List recent solve jobs", description = "Most recent solve jobs of a semester")
+    @PreAuthorize("hasAnyRole('ADMIN', 'TEACHER')")
+    public ResponseEntity<ApiResponse<List<SolveJobResponse>>> getRecentJobs(
+            @Parameter(description = "Semester ID") @RequestParam Long semesterId) {
+
+        List<SolveJobResponse> jobs = solveJobService.getRecentJobs(semesterId)
+                .stream()
+                .map(SolveJobResponse::fromEntity)
+                .toList();
+        return ResponseEntity.ok(ApiResponse.success(jobs));
+    }
+
+    @PostMapping("/{id}/cancel")
+    @Operation(summary = "Cancel solve job", description = "Cancel a queued or running solve job")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<SolveJobResponse>> cancelJob(
+            @Parameter(description = "Solve job ID") @PathVariable Long id) {
+
+        SolveJob job = solveJobService.cancel(id);
+        return ResponseEntity.ok(ApiResponse.success(SolveJobResponse.fromEntity(job), "Solve job cancelled"));
+    }
+}
@@ -13,6 +13,7 @@ import com.school.scheduling.exception.ResourceAlreadyExistsException;
 import com.school.scheduling.exception.BadRequestException;
 import com.school.scheduling.mapper.TeacherMapper;
 import com.school.scheduling.mapper.TeacherAvailabilityMapper;
+import com.school.scheduling.service.SchedulingService;
 import com.school.scheduling.validation.TeacherValidator;
 import com.school.scheduling.validation.ValidationResult;
 import com.school.scheduling.domain.TeacherAvailability;
@@ -24,6 +25,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse as SwaggerApiResponse
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.Valid;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -39,11 +41,15 @@ public class TeacherController {
     private final TeacherMapper teacherMapper;
     private final TeacherValidator teacherValidator;
     private final TeacherAvailabilityMapper teacherAvailabilityMapper;
+    // Availability changes go out as events; kept teacher assignments are re-solved off the request thread
+    private final ApplicationEventPublisher eventPublisher;
 
-    public TeacherController(TeacherMapper teacherMapper, TeacherValidator teacherValidator, TeacherAvailabilityMapper teacherAvailabilityMapper) {
+    public TeacherController(TeacherMapper teacherMapper, TeacherValidator teacherValidator,
+                             TeacherAvailabilityMapper teacherAvailabilityMapper, ApplicationEventPublisher eventPublisher) {
         this.teacherMapper = teacherMapper;
         this.teacherValidator = teacherValidator;
         this.teacherAvailabilityMapper = teacherAvailabilityMapper;
+        this.eventPublisher = eventPublisher;
     }
 
     @GetMapping
@@ -438,6 +444,7 @@ public class TeacherController {
             availability.setNotes(availabilityRequest.getNotes());
 
             teacherAvailabilityMapper.insert(availability);
+            eventPublisher.publishEvent(new SchedulingService.TeacherAvailabilityChanged(teacherId));
 
             TeacherAvailabilityResponse response = TeacherAvailabilityResponse.fromEntity(
                 teacherAvailabilityMapper.findById(availability.getId()).orElse(null)
@@ -509,6 +516,7 @@ public class TeacherController {
             existingAvailability.setNotes(availabilityRequest.getNotes());
 
             teacherAvailabilityMapper.update(existingAvailability);
+            eventPublisher.publishEvent(new SchedulingService.TeacherAvailabilityChanged(teacherId));
 
             TeacherAvailabilityResponse response = TeacherAvailabilityResponse.fromEntity(
                 teacherAvailabilityMapper.findById(availabilityId).orElse(null)
@@ -547,6 +555,7 @@ public class TeacherController {
             }
 
             teacherAvailabilityMapper.hardDelete(availabilityId);
+            eventPublisher.publishEvent(new SchedulingService.TeacherAvailabilityChanged(teacherId));
             return ResponseEntity.ok(ApiResponse.deleted("Teacher availability deleted successfully"));
         } catch (Exception e) {
             throw new RuntimeException("Failed to delete teacher availability: " + availabilityId, e);
@@ -0,0 +1,80 @@
+package com.school.scheduling.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Table;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import java.time.LocalDateTime;
+
+@Data
+@EqualsAndHashCode(callSuper = true)
+@Entity
+@Table(name = "solve_jobs")
+public class SolveJob extends BaseEntity {
+
+    @NotNull(message = "Semester is required")
+    @Column(name = "semester_id", nullable = false)
+    private Long semesterId;
+
+    @NotNull(message = "Strategy is required")
+    @Column(name = "strategy", nullable = false, length = 30)
+    private String strategy;
+
+    // Pareto searches only: how long the search may run, null for the configured limit
+    @Column(name = "time_limit_ms")
+    private Long timeLimitMs;
+
+    @NotNull(message = "Status is required")
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private JobStatus status = JobStatus.QUEUED;
+
+    @Column(name = "cancel_requested", nullable = false)
+    private Boolean cancelRequested = false;
+
+    @Column(name = "attempts", nullable = false)
+    private Integer attempts = 0;
+
+    @Column(name = "schedules_created")
+    private Integer schedulesCreated;
+
+    @Column(name = "message", columnDefinition = "TEXT")
+    private String message;
+
+    @Column(name = "performance_summary", columnDefinition = "TEXT")
+    private String performanceSummary;
+
+    // Pareto searches only: the schedule options found, as JSON
+    @Column(name = "schedule_options", columnDefinition = "MEDIUMTEXT")
+    private String scheduleOptions;
+
+    @Column(name = "submitted_at", nullable = false)
+    private LocalDateTime submittedAt = LocalDateTime.now();
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    public enum JobStatus {
+        QUEUED, RUNNING, SUCCEEDED, FAILED, CANCELLED
+    }
+
+    public boolean isFinished() {
+        return status == JobStatus.SUCCEEDED || status == JobStatus.FAILED || status == JobStatus.CANCELLED;
+    }
+
+    public Long getRunningTimeMs() {
+        if (startedAt == null) {
+            return null;
+        }
+        LocalDateTime end = finishedAt != null ? finishedAt : LocalDateTime.now();
+        return java.time.Duration.between(startedAt, end).toMillis();
+    }
+}
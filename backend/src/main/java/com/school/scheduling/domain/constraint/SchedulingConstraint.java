@@ -1,11 +1,13 @@
 package com.school.scheduling.domain.constraint;
 
+import java.io.Serializable;
 import java.util.*;
 
 /**
  * Represents a constraint in the Constraint Satisfaction Problem (CSP) for school scheduling.
  */
-public abstract class SchedulingConstraint {
+public abstract class SchedulingConstraint implements Serializable {
+    private static final long serialVersionUID = 1L;
 
     private final String name;
     private final ConstraintType type;
@@ -35,6 +37,30 @@ public abstract class SchedulingConstraint {
     public abstract List<SchedulingValue> getValidValues(SchedulingAssignment assignment,
                                                          Map<SchedulingVariable, List<SchedulingValue>> domains);
 
+    /**
+     * Number of separate violations in the assignment, such as clashing pairs, so that scores can
+     * tell two clashes from one. By default 1 when the constraint is violated and 0 otherwise.
+     */
+    public int countViolations(SchedulingAssignment assignment) {
+        return validate(assignment).isSatisfied() ? 0 : 1;
+    }
+
+    /**
+     * Most violations {@link #countViolations} can report for any assignment.
+     */
+    public int getMaximumViolations() {
+        return 1;
+    }
+
+    /**
+     * Groups of variables that compete for one resource, any two of them in conflict. By default
+     * the scope; constraints over the whole assignment name the groups they relate instead.
+     */
+    public Collection<Set<SchedulingVariable>> getConflictGroups() {
+        Set<SchedulingVariable> scope = getScope();
+        return scope.size() > 1 ? Collections.singletonList(scope) : Collections.emptyList();
+    }
+
     public String getName() {
         return name;
     }
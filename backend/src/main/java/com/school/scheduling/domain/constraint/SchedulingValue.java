@@ -1,5 +1,6 @@
 package com.school.scheduling.domain.constraint;
 
+import java.io.Serializable;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.Objects;
@@ -7,7 +8,9 @@ import java.util.Objects;
 /**
  * Represents a value that can be assigned to a scheduling variable.
  */
-public class SchedulingValue {
+public class SchedulingValue implements Serializable {
+    private static final long serialVersionUID = 1L;
+
     private final String id;
     private final ValueType type;
     private final Object value;
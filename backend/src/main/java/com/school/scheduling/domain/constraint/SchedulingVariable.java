@@ -1,11 +1,14 @@
 package com.school.scheduling.domain.constraint;
 
+import java.io.Serializable;
 import java.util.Objects;
 
 /**
  * Represents a variable in the CSP - something that needs to be assigned a value.
  */
-public class SchedulingVariable {
+public class SchedulingVariable implements Serializable {
+    private static final long serialVersionUID = 1L;
+
     private final String id;
     private final VariableType type;
     private final String entityId;
@@ -0,0 +1,21 @@
+package com.school.scheduling.dto.request;
+
+import com.school.scheduling.service.SchedulingService.SchedulingStrategy;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import jakarta.validation.constraints.NotNull;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SolveJobRequest {
+    @NotNull(message = "Semester ID is required")
+    private Long semesterId;
+
+    @Builder.Default
+    private SchedulingStrategy strategy = SchedulingStrategy.HYBRID;
+}
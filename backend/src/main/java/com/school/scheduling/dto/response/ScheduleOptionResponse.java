@@ -0,0 +1,56 @@
+package com.school.scheduling.dto.response;
+
+import com.school.scheduling.algorithm.strategy.ParetoFront;
+import com.school.scheduling.algorithm.strategy.ScheduleObjectives;
+import com.school.scheduling.service.SchedulingService.ScheduleOption;
+import com.school.scheduling.service.SchedulingService.SchedulingMetrics;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One schedule of a Pareto front: its score, objective values (lower is better) and metrics.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScheduleOptionResponse {
+    private Long hardScore;
+    private Long mediumScore;
+    private Double softScore;
+    private Map<String, Double> objectives;
+    private Integer totalSchedules;
+    private Double resourceUtilization;
+    private Double teacherWorkloadBalance;
+    private Double studentSatisfaction;
+    private List<ScheduleResponse> schedules;
+
+    public static ScheduleOptionResponse fromOption(ScheduleOption option) {
+        if (option == null) return null;
+
+        ScheduleOptionResponse response = new ScheduleOptionResponse();
+        ParetoFront.Solution solution = option.getSolution();
+        response.setHardScore(solution.getScore().getHard());
+        response.setMediumScore(solution.getScore().getMedium());
+        response.setSoftScore(solution.getScore().getSoft());
+
+        Map<String, Double> objectives = new LinkedHashMap<>();
+        for (ScheduleObjectives.Objective objective : ScheduleObjectives.Objective.values()) {
+            objectives.put(objective.name(), solution.getObjective(objective));
+        }
+        response.setObjectives(objectives);
+
+        SchedulingMetrics metrics = option.getMetrics();
+        response.setTotalSchedules(metrics.getTotalSchedules());
+        response.setResourceUtilization(metrics.getResourceUtilization());
+        response.setTeacherWorkloadBalance(metrics.getTeacherWorkloadBalance());
+        response.setStudentSatisfaction(metrics.getStudentSatisfaction());
+        response.setSchedules(option.getSchedules().stream().map(ScheduleResponse::fromEntity).toList());
+
+        return response;
+    }
+}
@@ -0,0 +1,50 @@
+package com.school.scheduling.dto.response;
+
+import com.school.scheduling.domain.SolveJob;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SolveJobResponse {
+    private Long id;
+    private Long semesterId;
+    private String strategy;
+    private Long timeLimitMs;
+    private SolveJob.JobStatus status;
+    private Boolean cancelRequested;
+    private Integer attempts;
+    private Integer schedulesCreated;
+    private String message;
+    private String performanceSummary;
+    private LocalDateTime submittedAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private Long runningTimeMs;
+
+    public static SolveJobResponse fromEntity(SolveJob job) {
+        if (job == null) return null;
+
+        SolveJobResponse response = new SolveJobResponse();
+        response.setId(job.getId());
+        response.setSemesterId(job.getSemesterId());
+        response.setStrategy(job.getStrategy());
+        response.setTimeLimitMs(job.getTimeLimitMs());
+        response.setStatus(job.getStatus());
+        response.setCancelRequested(job.getCancelRequested());
+        response.setAttempts(job.getAttempts());
+        response.setSchedulesCreated(job.getSchedulesCreated());
+        response.setMessage(job.getMessage());
+        response.setPerformanceSummary(job.getPerformanceSummary());
+        response.setSubmittedAt(job.getSubmittedAt());
+        response.setStartedAt(job.getStartedAt());
+        response.setFinishedAt(job.getFinishedAt());
+        response.setRunningTimeMs(job.getRunningTimeMs());
+
+        return response;
+    }
+}
@@ -14,12 +14,12 @@ public interface CoursePrerequisiteMapper {
     // Basic CRUD Operations
     @Insert("INSERT INTO course_prerequisites (course_id, prerequisite_course_id, is_mandatory, " +
             "minimum_grade, created_at, updated_at) " +
-            "VALUES (#{courseId}, #{prerequisiteCourseId}, #{isMandatory}, " +
+            "VALUES (#{course.id}, #{prerequisiteCourse.id}, #{isMandatory}, " +
             "#{minimumGrade}, #{createdAt}, #{updatedAt})")
     @Options(useGeneratedKeys = true, keyProperty = "id")
     int insert(CoursePrerequisite coursePrerequisite);
 
-    @Update("UPDATE course_prerequisites SET course_id = #{courseId}, prerequisite_course_id = #{prerequisiteCourseId}, " +
+    @Update("UPDATE course_prerequisites SET course_id = #{course.id}, prerequisite_course_id = #{prerequisiteCourse.id}, " +
             "is_mandatory = #{isMandatory}, minimum_grade = #{minimumGrade}, " +
             "updated_at = #{updatedAt} WHERE id = #{id}")
     int update(CoursePrerequisite coursePrerequisite);
@@ -30,8 +30,8 @@ public interface CoursePrerequisiteMapper {
     @Select("SELECT * FROM course_prerequisites WHERE id = #{id} AND deleted_at IS NULL")
     @Results(id = "coursePrerequisiteResultMap", value = {
         @Result(property = "id", column = "id"),
-        @Result(property = "courseId", column = "course_id"),
-        @Result(property = "prerequisiteCourseId", column = "prerequisite_course_id"),
+        @Result(property = "course.id", column = "course_id"),
+        @Result(property = "prerequisiteCourse.id", column = "prerequisite_course_id"),
         @Result(property = "isMandatory", column = "is_mandatory"),
         @Result(property = "minimumGrade", column = "minimum_grade"),
         @Result(property = "createdAt", column = "created_at"),
@@ -147,6 +147,11 @@ public interface CoursePrerequisiteMapper {
     @ResultMap("coursePrerequisiteResultMap")
     List<CoursePrerequisite> findMandatoryPrerequisitesWithCourseInfo(@Param("courseId") Long courseId);
 
+    // Row count and last change of the table; soft deletes bump updated_at too, to the microsecond
+    // since migration 005, so any write between two reads gives a different value
+    @Select("SELECT CONCAT(COUNT(*), '@', COALESCE(MAX(updated_at), '')) FROM course_prerequisites")
+    String findDataVersion();
+
     // Result class for mandatory distribution
     class MandatoryCount {
         private Boolean isMandatory;
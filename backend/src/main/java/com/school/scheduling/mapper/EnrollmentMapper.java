@@ -133,6 +133,11 @@ public interface EnrollmentMapper {
                    @Param("status") String status,
                    @Param("updatedAt") LocalDateTime updatedAt);
 
+    @Update("UPDATE enrollments SET course_offering_id = #{courseOfferingId}, updated_at = #{updatedAt} WHERE id = #{id}")
+    int updateCourseOffering(@Param("id") Long id,
+                           @Param("courseOfferingId") Long courseOfferingId,
+                           @Param("updatedAt") LocalDateTime updatedAt);
+
     @Update("UPDATE enrollments SET grade = #{grade}, grade_letter = #{gradeLetter}, " +
             "updated_at = #{updatedAt} WHERE id = #{id}")
     int updateGrade(@Param("id") Long id,
@@ -157,12 +162,17 @@ public interface EnrollmentMapper {
             "WHERE deleted_at IS NULL GROUP BY status ORDER BY count DESC")
     List<StatusCount> getStatusDistribution();
 
-    @Select("SELECT COUNT(*) FROM enrollments WHERE status = 'COMPLETED' " +
-            "AND grade >= 60 AND deleted_at IS NULL")
+    // Passing is judged against the minimum grade later courses require, as for prerequisites
+    @Select("SELECT COUNT(*) FROM enrollments e JOIN course_offerings co ON co.id = e.course_offering_id " +
+            "LEFT JOIN " + SemesterSnapshotMapper.PREREQUISITE_MINIMUM_GRADES +
+            " ON p.prerequisite_course_id = co.course_id " +
+            "WHERE " + SemesterSnapshotMapper.PASSED + " AND e.deleted_at IS NULL")
     int countSuccessfulCompletions();
 
-    @Select("SELECT COUNT(*) FROM enrollments WHERE status = 'COMPLETED' " +
-            "AND grade < 60 AND deleted_at IS NULL")
+    @Select("SELECT COUNT(*) FROM enrollments e JOIN course_offerings co ON co.id = e.course_offering_id " +
+            "JOIN " + SemesterSnapshotMapper.PREREQUISITE_MINIMUM_GRADES +
+            " ON p.prerequisite_course_id = co.course_id " +
+            "WHERE e.status = 'COMPLETED' AND e.grade < p.minimum_grade AND e.deleted_at IS NULL")
     int countFailedCompletions();
 
     // Result classes for distribution queries
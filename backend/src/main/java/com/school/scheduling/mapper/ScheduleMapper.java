@@ -18,13 +18,13 @@ public interface ScheduleMapper {
     // Basic CRUD Operations
     @Insert("INSERT INTO schedules (course_offering_id, classroom_id, time_slot_id, schedule_date, " +
             "is_recurring, recurrence_pattern, notes, created_at, updated_at) " +
-            "VALUES (#{courseOfferingId}, #{classroomId}, #{timeSlotId}, #{scheduleDate}, " +
+            "VALUES (#{courseOffering.id}, #{classroom.id}, #{timeSlot.id}, #{scheduleDate}, " +
             "#{isRecurring}, #{recurrencePattern}, #{notes}, #{createdAt}, #{updatedAt})")
     @Options(useGeneratedKeys = true, keyProperty = "id")
     int insert(Schedule schedule);
 
-    @Update("UPDATE schedules SET course_offering_id = #{courseOfferingId}, classroom_id = #{classroomId}, " +
-            "time_slot_id = #{timeSlotId}, schedule_date = #{scheduleDate}, is_recurring = #{isRecurring}, " +
+    @Update("UPDATE schedules SET course_offering_id = #{courseOffering.id}, classroom_id = #{classroom.id}, " +
+            "time_slot_id = #{timeSlot.id}, schedule_date = #{scheduleDate}, is_recurring = #{isRecurring}, " +
             "recurrence_pattern = #{recurrencePattern}, notes = #{notes}, updated_at = #{updatedAt} " +
             "WHERE id = #{id}")
     int update(Schedule schedule);
@@ -286,7 +286,7 @@ public interface ScheduleMapper {
             "INSERT INTO schedules (course_offering_id, classroom_id, time_slot_id, schedule_date, " +
             "is_recurring, recurrence_pattern, notes, created_at, updated_at) VALUES " +
             "<foreach collection='schedules' item='schedule' separator=','>" +
-            "(#{schedule.courseOfferingId}, #{schedule.classroomId}, #{schedule.timeSlotId}, " +
+            "(#{schedule.courseOffering.id}, #{schedule.classroom.id}, #{schedule.timeSlot.id}, " +
             "#{schedule.scheduleDate}, #{schedule.isRecurring}, #{schedule.recurrencePattern}, " +
             "#{schedule.notes}, #{schedule.createdAt}, #{schedule.updatedAt})" +
             "</foreach>" +
@@ -296,8 +296,8 @@ public interface ScheduleMapper {
 
     @Update("<script>" +
             "<foreach collection='schedules' item='schedule' separator=';'>" +
-            "UPDATE schedules SET course_offering_id = #{schedule.courseOfferingId}, " +
-            "classroom_id = #{schedule.classroomId}, time_slot_id = #{schedule.timeSlotId}, " +
+            "UPDATE schedules SET course_offering_id = #{schedule.courseOffering.id}, " +
+            "classroom_id = #{schedule.classroom.id}, time_slot_id = #{schedule.timeSlot.id}, " +
             "schedule_date = #{schedule.scheduleDate}, is_recurring = #{schedule.isRecurring}, " +
             "recurrence_pattern = #{schedule.recurrencePattern}, notes = #{schedule.notes}, " +
             "updated_at = #{schedule.updatedAt} WHERE id = #{schedule.id}" +
@@ -0,0 +1,203 @@
+package com.school.scheduling.mapper;
+
+import com.school.scheduling.domain.*;
+import org.apache.ibatis.annotations.*;
+import org.apache.ibatis.mapping.ResultSetType;
+import org.apache.ibatis.session.ResultHandler;
+
+/**
+ * Set-based, streaming reads of everything the solver needs for one semester. Each method is a
+ * single query whose rows are handed to the handler as they arrive, so loading never holds a
+ * second copy of a table and never issues a query per row. Related rows come from joins instead
+ * of the lazy nested selects of the regular result maps.
+ */
+@Mapper
+public interface SemesterSnapshotMapper {
+
+    // Rows per round trip; the JDBC URL enables cursor fetch so the driver honours it
+    int FETCH_SIZE = 1000;
+
+    // The strictest minimum grade of the mandatory prerequisite rows requiring each course, joined
+    // as p on the completed course: prerequisite checks track passed courses, not passed rows
+    String PREREQUISITE_MINIMUM_GRADES =
+        "(SELECT prerequisite_course_id, MAX(minimum_grade) AS minimum_grade FROM course_prerequisites " +
+        "WHERE is_mandatory = true AND deleted_at IS NULL GROUP BY prerequisite_course_id) p";
+
+    // A completed course counts as passed unless a prerequisite row asks for a higher grade
+    String PASSED = "e.status = 'COMPLETED' AND (e.grade IS NULL OR p.minimum_grade IS NULL OR e.grade >= p.minimum_grade)";
+
+    // Row count and last change of every table the snapshot reads; soft deletes bump updated_at too,
+    // which migration 005 keeps to the microsecond so changes within one second still differ
+    @Select("SELECT CONCAT_WS('|', " +
+            "(SELECT CONCAT(COUNT(*), '@', COALESCE(MAX(updated_at), '')) FROM course_offerings WHERE semester_id = #{semesterId}), " +
+            "(SELECT CONCAT(COUNT(*), '@', COALESCE(MAX(updated_at), '')) FROM courses), " +
+            "(SELECT CONCAT(COUNT(*), '@', COALESCE(MAX(updated_at), '')) FROM teachers), " +
+            "(SELECT CONCAT(COUNT(*), '@', COALESCE(MAX(updated_at), '')) FROM users), " +
+            "(SELECT CONCAT(COUNT(*), '@', COALESCE(MAX(updated_at), '')) FROM teacher_specializations), " +
+            "(SELECT CONCAT(COUNT(*), '@', COALESCE(MAX(updated_at), '')) FROM teacher_availability), " +
+            "(SELECT CONCAT(COUNT(*), '@', COALESCE(MAX(updated_at), '')) FROM classrooms), " +
+            "(SELECT CONCAT(COUNT(*), '@', COALESCE(MAX(updated_at), '')) FROM time_slots), " +
+            "(SELECT CONCAT(COUNT(*), '@', COALESCE(MAX(updated_at), '')) FROM enrollments), " +
+            "(SELECT CONCAT(COUNT(*), '@', COALESCE(MAX(updated_at), '')) FROM course_prerequisites))")
+    String findDataVersion(@Param("semesterId") Long semesterId);
+
+    @Select("SELECT co.id, co.section_number, co.teacher_id, co.max_enrollment, co.current_enrollment, co.schedule_type, " +
+            "co.is_open, c.id AS course_id, c.course_code, c.title AS course_title, c.credits, " +
+            "c.contact_hours_per_week, c.theory_hours, c.lab_hours, c.max_students, c.requires_lab, c.department_id " +
+            "FROM course_offerings co JOIN courses c ON c.id = co.course_id " +
+            "WHERE co.semester_id = #{semesterId} AND co.deleted_at IS NULL ORDER BY co.id")
+    @Options(fetchSize = FETCH_SIZE, resultSetType = ResultSetType.FORWARD_ONLY)
+    @Results(id = "snapshotOfferingResultMap", value = {
+        @Result(property = "id", column = "id", id = true),
+        @Result(property = "sectionNumber", column = "section_number"),
+        @Result(property = "teacher.id", column = "teacher_id"),
+        @Result(property = "maxEnrollment", column = "max_enrollment"),
+        @Result(property = "currentEnrollment", column = "current_enrollment"),
+        @Result(property = "scheduleType", column = "schedule_type", typeHandler = org.apache.ibatis.type.EnumTypeHandler.class),
+        @Result(property = "isOpen", column = "is_open"),
+        @Result(property = "course.id", column = "course_id"),
+        @Result(property = "course.courseCode", column = "course_code"),
+        @Result(property = "course.title", column = "course_title"),
+        @Result(property = "course.credits", column = "credits"),
+        @Result(property = "course.contactHoursPerWeek", column = "contact_hours_per_week"),
+        @Result(property = "course.theoryHours", column = "theory_hours"),
+        @Result(property = "course.labHours", column = "lab_hours"),
+        @Result(property = "course.maxStudents", column = "max_students"),
+        @Result(property = "course.requiresLab", column = "requires_lab"),
+        @Result(property = "course.department.id", column = "department_id")
+    })
+    void streamOfferings(@Param("semesterId") Long semesterId, ResultHandler<CourseOffering> handler);
+
+    @Select("SELECT t.id, t.employee_id, t.title, t.max_weekly_hours, t.max_courses_per_semester, " +
+            "t.department_id, t.office_location, " +
+            "u.id AS user_id, u.first_name, u.last_name, u.email " +
+            "FROM teachers t JOIN users u ON u.id = t.user_id " +
+            "WHERE t.deleted_at IS NULL AND u.is_active = true ORDER BY t.id")
+    @Options(fetchSize = FETCH_SIZE, resultSetType = ResultSetType.FORWARD_ONLY)
+    @Results(id = "snapshotTeacherResultMap", value = {
+        @Result(property = "id", column = "id", id = true),
+        @Result(property = "employeeId", column = "employee_id"),
+        @Result(property = "title", column = "title", typeHandler = org.apache.ibatis.type.EnumTypeHandler.class),
+        @Result(property = "maxWeeklyHours", column = "max_weekly_hours"),
+        @Result(property = "maxCoursesPerSemester", column = "max_courses_per_semester"),
+        @Result(property = "department.id", column = "department_id"),
+        @Result(property = "officeLocation", column = "office_location"),
+        @Result(property = "user.id", column = "user_id"),
+        @Result(property = "user.firstName", column = "first_name"),
+        @Result(property = "user.lastName", column = "last_name"),
+        @Result(property = "user.email", column = "email")
+    })
+    void streamActiveTeachers(ResultHandler<Teacher> handler);
+
+    @Select("SELECT ts.id, ts.teacher_id, ts.subject_code, ts.proficiency_level, ts.years_experience " +
+            "FROM teacher_specializations ts JOIN teachers t ON t.id = ts.teacher_id " +
+            "JOIN users u ON u.id = t.user_id " +
+            "WHERE t.deleted_at IS NULL AND u.is_active = true ORDER BY ts.teacher_id")
+    @Options(fetchSize = FETCH_SIZE, resultSetType = ResultSetType.FORWARD_ONLY)
+    @Results(id = "snapshotSpecializationResultMap", value = {
+        @Result(property = "id", column = "id", id = true),
+        @Result(property = "teacher.id", column = "teacher_id"),
+        @Result(property = "subjectCode", column = "subject_code"),
+        @Result(property = "proficiencyLevel", column = "proficiency_level", typeHandler = org.apache.ibatis.type.EnumTypeHandler.class),
+        @Result(property = "yearsExperience", column = "years_experience")
+    })
+    void streamActiveTeacherSpecializations(ResultHandler<TeacherSpecialization> handler);
+
+    @Select("SELECT * FROM classrooms WHERE deleted_at IS NULL AND is_available = true ORDER BY building_code, room_number")
+    @Options(fetchSize = FETCH_SIZE, resultSetType = ResultSetType.FORWARD_ONLY)
+    @ResultMap("com.school.scheduling.mapper.ClassroomMapper.classroomResultMap")
+    void streamAvailableClassrooms(ResultHandler<Classroom> handler);
+
+    @Select("SELECT a.id, a.teacher_id, a.day_of_week, a.start_time, a.end_time, a.availability_type " +
+            "FROM teacher_availability a JOIN teachers t ON t.id = a.teacher_id " +
+            "WHERE a.deleted_at IS NULL AND t.deleted_at IS NULL ORDER BY a.teacher_id, a.day_of_week, a.start_time")
+    @Options(fetchSize = FETCH_SIZE, resultSetType = ResultSetType.FORWARD_ONLY)
+    @Results(id = "snapshotAvailabilityResultMap", value = {
+        @Result(property = "id", column = "id", id = true),
+        @Result(property = "teacher.id", column = "teacher_id"),
+        @Result(property = "dayOfWeek", column = "day_of_week", typeHandler = org.apache.ibatis.type.EnumTypeHandler.class),
+        @Result(property = "startTime", column = "start_time"),
+        @Result(property = "endTime", column = "end_time"),
+        @Result(property = "availabilityType", column = "availability_type", typeHandler = org.apache.ibatis.type.EnumTypeHandler.class)
+    })
+    void streamTeacherAvailabilities(ResultHandler<TeacherAvailability> handler);
+
+    @Select("SELECT * FROM time_slots WHERE deleted_at IS NULL ORDER BY day_of_week, start_time")
+    @Options(fetchSize = FETCH_SIZE, resultSetType = ResultSetType.FORWARD_ONLY)
+    @ResultMap("com.school.scheduling.mapper.TimeSlotMapper.timeSlotResultMap")
+    void streamTimeSlots(ResultHandler<TimeSlot> handler);
+
+    // Student sectioning
+
+    @Select("SELECT s.id, s.course_offering_id, co.course_id, ts.day_of_week, ts.start_time, ts.end_time " +
+            "FROM schedules s JOIN course_offerings co ON co.id = s.course_offering_id " +
+            "JOIN time_slots ts ON ts.id = s.time_slot_id " +
+            "WHERE co.semester_id = #{semesterId} AND s.deleted_at IS NULL AND co.deleted_at IS NULL " +
+            "ORDER BY s.course_offering_id")
+    @Options(fetchSize = FETCH_SIZE, resultSetType = ResultSetType.FORWARD_ONLY)
+    @Results(id = "snapshotMeetingResultMap", value = {
+        @Result(property = "id", column = "id", id = true),
+        @Result(property = "courseOffering.id", column = "course_offering_id"),
+        @Result(property = "courseOffering.course.id", column = "course_id"),
+        @Result(property = "timeSlot.dayOfWeek", column = "day_of_week", typeHandler = org.apache.ibatis.type.EnumTypeHandler.class),
+        @Result(property = "timeSlot.startTime", column = "start_time"),
+        @Result(property = "timeSlot.endTime", column = "end_time")
+    })
+    void streamSectionMeetings(@Param("semesterId") Long semesterId, ResultHandler<Schedule> handler);
+
+    @Select("SELECT e.id, e.student_id, e.course_offering_id, co.course_id, c.course_code, e.grade_letter " +
+            "FROM enrollments e JOIN course_offerings co ON co.id = e.course_offering_id " +
+            "JOIN courses c ON c.id = co.course_id " +
+            "WHERE co.semester_id = #{semesterId} AND e.status = 'ENROLLED' " +
+            "AND e.deleted_at IS NULL AND co.deleted_at IS NULL ORDER BY e.student_id, e.id")
+    @Options(fetchSize = FETCH_SIZE, resultSetType = ResultSetType.FORWARD_ONLY)
+    @Results(id = "snapshotEnrollmentResultMap", value = {
+        @Result(property = "id", column = "id", id = true),
+        @Result(property = "student.id", column = "student_id"),
+        @Result(property = "courseOffering.id", column = "course_offering_id"),
+        @Result(property = "courseOffering.course.id", column = "course_id"),
+        @Result(property = "courseOffering.course.courseCode", column = "course_code"),
+        @Result(property = "gradeLetter", column = "grade_letter")
+    })
+    void streamEnrollments(@Param("semesterId") Long semesterId, ResultHandler<Enrollment> handler);
+
+    // Passed courses of the students enrolled in the semester
+    @Select("SELECT e.id, e.student_id, e.course_offering_id, co.course_id, c.course_code, e.grade_letter " +
+            "FROM enrollments e JOIN course_offerings co ON co.id = e.course_offering_id " +
+            "JOIN courses c ON c.id = co.course_id " +
+            "LEFT JOIN " + PREREQUISITE_MINIMUM_GRADES + " ON p.prerequisite_course_id = co.course_id " +
+            "WHERE " + PASSED + " AND e.deleted_at IS NULL " +
+            "AND e.student_id IN (SELECT r.student_id FROM enrollments r " +
+            "JOIN course_offerings rc ON rc.id = r.course_offering_id " +
+            "WHERE rc.semester_id = #{semesterId} AND r.deleted_at IS NULL)")
+    @Options(fetchSize = FETCH_SIZE, resultSetType = ResultSetType.FORWARD_ONLY)
+    @ResultMap("snapshotEnrollmentResultMap")
+    void streamCompletedEnrollments(@Param("semesterId") Long semesterId, ResultHandler<Enrollment> handler);
+
+    // Passed courses of the students enrolled in one offering
+    @Select("SELECT e.id, e.student_id, e.course_offering_id, co.course_id, c.course_code, e.grade_letter " +
+            "FROM enrollments e JOIN course_offerings co ON co.id = e.course_offering_id " +
+            "JOIN courses c ON c.id = co.course_id " +
+            "LEFT JOIN " + PREREQUISITE_MINIMUM_GRADES + " ON p.prerequisite_course_id = co.course_id " +
+            "WHERE " + PASSED + " AND e.deleted_at IS NULL " +
+            "AND e.student_id IN (SELECT r.student_id FROM enrollments r " +
+            "WHERE r.course_offering_id = #{courseOfferingId} AND r.deleted_at IS NULL)")
+    @Options(fetchSize = FETCH_SIZE, resultSetType = ResultSetType.FORWARD_ONLY)
+    @ResultMap("snapshotEnrollmentResultMap")
+    void streamCompletedEnrollmentsOfOffering(@Param("courseOfferingId") Long courseOfferingId,
+                                              ResultHandler<Enrollment> handler);
+
+    @Select("SELECT p.id, p.course_id, c.course_code, p.prerequisite_course_id, " +
+            "pc.course_code AS prerequisite_course_code FROM course_prerequisites p " +
+            "JOIN courses c ON c.id = p.course_id JOIN courses pc ON pc.id = p.prerequisite_course_id " +
+            "WHERE p.is_mandatory = true AND p.deleted_at IS NULL")
+    @Options(fetchSize = FETCH_SIZE, resultSetType = ResultSetType.FORWARD_ONLY)
+    @Results(id = "snapshotPrerequisiteResultMap", value = {
+        @Result(property = "id", column = "id", id = true),
+        @Result(property = "course.id", column = "course_id"),
+        @Result(property = "course.courseCode", column = "course_code"),
+        @Result(property = "prerequisiteCourse.id", column = "prerequisite_course_id"),
+        @Result(property = "prerequisiteCourse.courseCode", column = "prerequisite_course_code")
+    })
+    void streamMandatoryPrerequisites(ResultHandler<CoursePrerequisite> handler);
+}
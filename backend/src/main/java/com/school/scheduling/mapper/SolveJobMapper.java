@@ -0,0 +1,91 @@
+package com.school.scheduling.mapper;
+
+import com.school.scheduling.domain.SolveJob;
+import org.apache.ibatis.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Mapper
+public interface SolveJobMapper {
+
+    @Insert("INSERT INTO solve_jobs (semester_id, strategy, time_limit_ms, status, cancel_requested, attempts, " +
+            "submitted_at, created_by, created_at, updated_at) " +
+            "VALUES (#{semesterId}, #{strategy}, #{timeLimitMs}, #{status}, #{cancelRequested}, #{attempts}, " +
+            "#{submittedAt}, #{createdBy}, NOW(), NOW())")
+    @Options(useGeneratedKeys = true, keyProperty = "id")
+    int insert(SolveJob job);
+
+    @Select("SELECT * FROM solve_jobs WHERE id = #{id} AND deleted_at IS NULL")
+    @Results(id = "solveJobResultMap", value = {
+        @Result(property = "id", column = "id"),
+        @Result(property = "semesterId", column = "semester_id"),
+        @Result(property = "strategy", column = "strategy"),
+        @Result(property = "timeLimitMs", column = "time_limit_ms"),
+        @Result(property = "status", column = "status", typeHandler = org.apache.ibatis.type.EnumTypeHandler.class),
+        @Result(property = "cancelRequested", column = "cancel_requested"),
+        @Result(property = "attempts", column = "attempts"),
+        @Result(property = "schedulesCreated", column = "schedules_created"),
+        @Result(property = "message", column = "message"),
+        @Result(property = "performanceSummary", column = "performance_summary"),
+        @Result(property = "scheduleOptions", column = "schedule_options"),
+        @Result(property = "submittedAt", column = "submitted_at"),
+        @Result(property = "startedAt", column = "started_at"),
+        @Result(property = "finishedAt", column = "finished_at"),
+        @Result(property = "createdBy", column = "created_by"),
+        @Result(property = "createdAt", column = "created_at"),
+        @Result(property = "updatedAt", column = "updated_at")
+    })
+    Optional<SolveJob> findById(@Param("id") Long id);
+
+    @Select("SELECT * FROM solve_jobs WHERE status IN ('QUEUED', 'RUNNING') AND deleted_at IS NULL " +
+            "ORDER BY submitted_at, id")
+    @ResultMap("solveJobResultMap")
+    List<SolveJob> findUnfinished();
+
+    @Select("SELECT * FROM solve_jobs WHERE semester_id = #{semesterId} AND deleted_at IS NULL " +
+            "ORDER BY submitted_at DESC LIMIT #{limit}")
+    @ResultMap("solveJobResultMap")
+    List<SolveJob> findRecentBySemesterId(@Param("semesterId") Long semesterId, @Param("limit") int limit);
+
+    // State transitions are guarded by the expected current status, so a job is claimed only once.
+    // A job finishes in the transaction that saves its schedule: the row lock then orders it against
+    // requestCancel, so either the cancel waits and finds the job finished or the save is rolled back.
+
+    @Update("UPDATE solve_jobs SET status = 'RUNNING', started_at = #{startedAt}, attempts = attempts + 1, " +
+            "updated_at = NOW() WHERE id = #{id} AND status = 'QUEUED' AND cancel_requested = FALSE")
+    int markRunning(@Param("id") Long id, @Param("startedAt") LocalDateTime startedAt);
+
+    @Update("UPDATE solve_jobs SET status = #{status}, message = #{message}, " +
+            "performance_summary = #{performanceSummary}, schedules_created = #{schedulesCreated}, " +
+            "finished_at = #{finishedAt}, updated_at = NOW() " +
+            "WHERE id = #{id} AND status = 'RUNNING' AND cancel_requested = FALSE")
+    int markFinished(@Param("id") Long id, @Param("status") SolveJob.JobStatus status,
+                     @Param("message") String message, @Param("performanceSummary") String performanceSummary,
+                     @Param("schedulesCreated") Integer schedulesCreated,
+                     @Param("finishedAt") LocalDateTime finishedAt);
+
+    // A Pareto search saves nothing but the options it found, under the same guard
+    @Update("UPDATE solve_jobs SET status = 'SUCCEEDED', message = #{message}, " +
+            "performance_summary = #{performanceSummary}, schedule_options = #{scheduleOptions}, " +
+            "finished_at = #{finishedAt}, updated_at = NOW() " +
+            "WHERE id = #{id} AND status = 'RUNNING' AND cancel_requested = FALSE")
+    int markOptionsFound(@Param("id") Long id, @Param("message") String message,
+                         @Param("performanceSummary") String performanceSummary,
+                         @Param("scheduleOptions") String scheduleOptions,
+                         @Param("finishedAt") LocalDateTime finishedAt);
+
+    @Update("UPDATE solve_jobs SET cancel_requested = TRUE, updated_at = NOW() " +
+            "WHERE id = #{id} AND status IN ('QUEUED', 'RUNNING')")
+    int requestCancel(@Param("id") Long id);
+
+    @Update("UPDATE solve_jobs SET status = 'CANCELLED', message = #{message}, finished_at = #{finishedAt}, " +
+            "updated_at = NOW() WHERE id = #{id} AND status IN ('QUEUED', 'RUNNING')")
+    int markCancelled(@Param("id") Long id, @Param("message") String message,
+                      @Param("finishedAt") LocalDateTime finishedAt);
+
+    @Update("UPDATE solve_jobs SET status = 'QUEUED', started_at = NULL, updated_at = NOW() " +
+            "WHERE status = 'RUNNING' AND deleted_at IS NULL")
+    int requeueRunning();
+}
@@ -1,5 +1,6 @@
 package com.school.scheduling.service;
 
+import com.school.scheduling.algorithm.PrerequisiteClosureIndex;
 import com.school.scheduling.domain.Schedule;
 import com.school.scheduling.domain.ScheduleConflict;
 import com.school.scheduling.domain.Teacher;
@@ -21,7 +22,9 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
@@ -38,6 +41,7 @@ public class ConflictDetectionService {
     private final ClassroomMapper classroomMapper;
     private final CourseMapper courseMapper;
     private final StudentMapper studentMapper;
+    private final CoursePrerequisiteService prerequisiteService;
 
     public List<ScheduleConflict> detectConflictsForSchedule(Schedule schedule) {
         List<ScheduleConflict> conflicts = new ArrayList<>();
@@ -311,37 +315,45 @@ public class ConflictDetectionService {
         CourseOffering courseOffering = schedule.getCourseOffering();
         Course course = courseOffering.getCourse();
 
-        // Get enrolled students
+        // Courses without prerequisites need no student data at all
+        PrerequisiteClosureIndex.Closure<Long> closure = prerequisiteService.getClosure();
+        if (!closure.hasPrerequisites(course.getId())) {
+            return conflicts;
+        }
+
+        // Get enrolled students and everything they have passed, one query each
         List<Student> enrolledStudents = studentMapper.findStudentsByCourseOffering(courseOffering.getId());
+        Map<Long, long[]> completedCourses = prerequisiteService.findCompletedCourses(courseOffering.getId(), closure);
+        Map<Long, String> courseCodes = new HashMap<>();
 
         for (Student student : enrolledStudents) {
             // Check if student has completed prerequisites
-            List<Course> missingPrerequisites = courseMapper.findMissingPrerequisitesForStudent(
-                course.getId(), student.getId()
-            );
+            long[] completed = completedCourses.getOrDefault(student.getId(), closure.emptySet());
+            if (closure.isEligible(course.getId(), completed)) {
+                continue;
+            }
 
-            if (!missingPrerequisites.isEmpty()) {
-                String prerequisiteList = missingPrerequisites.stream()
-                    .map(Course::getCourseCode)
-                    .collect(Collectors.joining(", "));
+            String prerequisiteList = closure.missingPrerequisites(course.getId(), completed).stream()
+                .map(courseId -> courseCodes.computeIfAbsent(courseId, id ->
+                    courseMapper.findById(id).map(Course::getCourseCode).orElse(String.valueOf(id))))
+                .collect(Collectors.joining(", "));
 
-                ScheduleConflict conflict = new ScheduleConflict();
-                conflict.setConflictType(ScheduleConflict.ConflictType.PREREQUISITE_NOT_MET);
-                conflict.setSeverity(ScheduleConflict.Severity.LOW);
-                conflict.setDescription(String.format(
-                    "Student %s is enrolled in %s without completing prerequisites: %s",
-                    student.getFullName(),
-                    course.getCourseCode(),
-                    prerequisiteList
-                ));
-                conflict.setSchedule2(schedule);
-                conflict.setEntityType(ScheduleConflict.EntityType.STUDENT);
-                conflict.setEntityId(student.getId());
-                conflict.setResolutionStatus(ScheduleConflict.ResolutionStatus.PENDING);
-                conflict.setDetectedAt(LocalDateTime.now());
+            ScheduleConflict conflict = new ScheduleConflict();
+            conflict.setConflictType(ScheduleConflict.ConflictType.PREREQUISITE_NOT_MET);
+            conflict.setSeverity(ScheduleConflict.Severity.LOW);
+            conflict.setDescription(String.format(
+                "Student %s is enrolled in %s without completing prerequisites: %s",
+                student.getFullName(),
+                course.getCourseCode(),
+                prerequisiteList
+            ));
+            conflict.setSchedule2(schedule);
+            conflict.setEntityType(ScheduleConflict.EntityType.STUDENT);
+            conflict.setEntityId(student.getId());
+            conflict.setResolutionStatus(ScheduleConflict.ResolutionStatus.PENDING);
+            conflict.setDetectedAt(LocalDateTime.now());
 
-                conflicts.add(conflict);
-            }
+            conflicts.add(conflict);
         }
 
         return conflicts;
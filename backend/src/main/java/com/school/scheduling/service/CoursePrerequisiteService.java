@@ -0,0 +1,267 @@
+package com.school.scheduling.service;
+
+import com.school.scheduling.algorithm.PrerequisiteClosureIndex;
+import com.school.scheduling.domain.CoursePrerequisite;
+import com.school.scheduling.domain.Enrollment;
+import com.school.scheduling.mapper.CoursePrerequisiteMapper;
+import com.school.scheduling.mapper.SemesterSnapshotMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Writes course prerequisites and keeps an in-memory {@link PrerequisiteClosureIndex} of the
+ * mandatory ones in step with them. The index is loaded from {@code course_prerequisites} in one
+ * streaming query on first use; after that every write through this service updates it
+ * incrementally once the write has committed, so prerequisite checks never query per student.
+ * <p>
+ * Before the index is served, the table's row count and latest {@code updated_at} are compared
+ * with the ones it was built from. A write that bypassed this service, such as a cascade from a
+ * deleted course or a migration, moves them and the index is rebuilt.
+ */
+@Slf4j
+@Service
+public class CoursePrerequisiteService {
+
+    private final CoursePrerequisiteMapper prerequisiteMapper;
+    private final SemesterSnapshotMapper snapshotMapper;
+    private final TransactionTemplate transactionTemplate;
+    private volatile Indexed indexed;
+
+    public CoursePrerequisiteService(CoursePrerequisiteMapper prerequisiteMapper,
+                                     SemesterSnapshotMapper snapshotMapper,
+                                     TransactionTemplate transactionTemplate) {
+        this.prerequisiteMapper = prerequisiteMapper;
+        this.snapshotMapper = snapshotMapper;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    public CoursePrerequisite createPrerequisite(CoursePrerequisite prerequisite) {
+        checkAcyclic(prerequisite);
+        LocalDateTime now = LocalDateTime.now();
+        prerequisite.setCreatedAt(now);
+        prerequisite.setUpdatedAt(now);
+        Written<Integer> written = write(() -> prerequisiteMapper.insert(prerequisite));
+
+        apply(written, index -> {
+            if (isMandatory(prerequisite)) {
+                index.addPrerequisite(prerequisite.getCourse().getId(), prerequisite.getPrerequisiteCourse().getId());
+            }
+        });
+        return prerequisite;
+    }
+
+    public CoursePrerequisite updatePrerequisite(CoursePrerequisite prerequisite) {
+        checkAcyclic(prerequisite);
+        prerequisite.setUpdatedAt(LocalDateTime.now());
+        Written<Optional<CoursePrerequisite>> written = write(() -> {
+            Optional<CoursePrerequisite> existing = prerequisiteMapper.findById(prerequisite.getId());
+            prerequisiteMapper.update(prerequisite);
+            return existing;
+        });
+
+        apply(written, index -> {
+            written.result.filter(this::isMandatory).ifPresent(old ->
+                index.removePrerequisite(old.getCourse().getId(), old.getPrerequisiteCourse().getId()));
+            if (isMandatory(prerequisite)) {
+                index.addPrerequisite(prerequisite.getCourse().getId(), prerequisite.getPrerequisiteCourse().getId());
+            }
+        });
+        return prerequisite;
+    }
+
+    public void deletePrerequisite(Long id) {
+        Written<Optional<CoursePrerequisite>> written = write(() -> {
+            Optional<CoursePrerequisite> existing = prerequisiteMapper.findById(id);
+            existing.ifPresent(prerequisite -> prerequisiteMapper.softDelete(id, LocalDateTime.now()));
+            return existing;
+        });
+
+        apply(written, index -> written.result.filter(this::isMandatory).ifPresent(prerequisite ->
+            index.removePrerequisite(prerequisite.getCourse().getId(), prerequisite.getPrerequisiteCourse().getId())));
+    }
+
+    /**
+     * Makes the given prerequisites the only ones of the course. Rows for a prerequisite course the
+     * course already has are updated in place, the others are inserted, and rows no longer listed
+     * are deleted, all in one transaction.
+     */
+    public List<CoursePrerequisite> replacePrerequisites(Long courseId, List<CoursePrerequisite> prerequisites) {
+        for (CoursePrerequisite prerequisite : prerequisites) {
+            if (!courseId.equals(prerequisite.getCourse().getId())) {
+                throw new IllegalArgumentException("Prerequisite of course " + prerequisite.getCourse().getId()
+                                                   + " cannot be set on course " + courseId);
+            }
+            checkAcyclic(prerequisite);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        Written<List<CoursePrerequisite>> written = write(() -> {
+            List<CoursePrerequisite> existing = prerequisiteMapper.findByCourseId(courseId);
+            Map<Long, CoursePrerequisite> remaining = new HashMap<>();
+            existing.forEach(row -> remaining.put(row.getPrerequisiteCourse().getId(), row));
+
+            for (CoursePrerequisite prerequisite : prerequisites) {
+                CoursePrerequisite current = remaining.remove(prerequisite.getPrerequisiteCourse().getId());
+                prerequisite.setUpdatedAt(now);
+                if (current != null) {
+                    prerequisite.setId(current.getId());
+                    prerequisite.setCreatedAt(current.getCreatedAt());
+                    prerequisiteMapper.update(prerequisite);
+                } else {
+                    prerequisite.setCreatedAt(now);
+                    prerequisiteMapper.insert(prerequisite);
+                }
+            }
+            remaining.values().forEach(row -> prerequisiteMapper.softDelete(row.getId(), now));
+            return existing;
+        });
+
+        apply(written, index -> {
+            written.result.stream().filter(this::isMandatory).forEach(old ->
+                index.removePrerequisite(courseId, old.getPrerequisiteCourse().getId()));
+            prerequisites.stream().filter(this::isMandatory).forEach(prerequisite ->
+                index.addPrerequisite(courseId, prerequisite.getPrerequisiteCourse().getId()));
+        });
+        return prerequisites;
+    }
+
+    /**
+     * The mandatory prerequisite graph as it stands, keyed by course id.
+     */
+    public PrerequisiteClosureIndex.Closure<Long> getClosure() {
+        return index().closure();
+    }
+
+    /**
+     * Satisfied-course bitsets, per student id, of the students enrolled in the offering, built
+     * against the given closure in one query.
+     */
+    public Map<Long, long[]> findCompletedCourses(Long courseOfferingId, PrerequisiteClosureIndex.Closure<Long> closure) {
+        Map<Long, List<Long>> completed = new HashMap<>();
+        snapshotMapper.streamCompletedEnrollmentsOfOffering(courseOfferingId, context -> {
+            Enrollment enrollment = context.getResultObject();
+            completed.computeIfAbsent(enrollment.getStudent().getId(), id -> new ArrayList<>())
+                .add(enrollment.getCourseOffering().getCourse().getId());
+        });
+
+        Map<Long, long[]> sets = new HashMap<>();
+        completed.forEach((studentId, courses) -> sets.put(studentId, closure.completedSet(courses)));
+        return sets;
+    }
+
+    /**
+     * Drops the index so that the next check reloads it.
+     */
+    public synchronized void reload() {
+        indexed = null;
+    }
+
+    private PrerequisiteClosureIndex<Long> index() {
+        String version = prerequisiteMapper.findDataVersion();
+        Indexed current = indexed;
+        if (current == null || !Objects.equals(current.version, version)) {
+            synchronized (this) {
+                current = indexed;
+                if (current == null || !Objects.equals(current.version, version)) {
+                    // Read before loading: a write during the load moves the version again
+                    current = new Indexed(load(), version);
+                    indexed = current;
+                }
+            }
+        }
+        return current.index;
+    }
+
+    private PrerequisiteClosureIndex<Long> load() {
+        PrerequisiteClosureIndex<Long> loaded = new PrerequisiteClosureIndex<>();
+        transactionTemplate.executeWithoutResult(status -> snapshotMapper.streamMandatoryPrerequisites(context -> {
+            CoursePrerequisite prerequisite = context.getResultObject();
+            try {
+                loaded.addPrerequisite(prerequisite.getCourse().getId(), prerequisite.getPrerequisiteCourse().getId());
+            } catch (IllegalArgumentException e) {
+                log.warn("Skipping course prerequisite {}: {}", prerequisite.getId(), e.getMessage());
+            }
+        }));
+        log.info("Loaded prerequisite index of {} courses", loaded.closure().getCourseCount());
+        return loaded;
+    }
+
+    // Runs a write with the table version read just before and just after it in the same transaction
+    private <T> Written<T> write(Supplier<T> change) {
+        return transactionTemplate.execute(status -> {
+            String before = prerequisiteMapper.findDataVersion();
+            T result = change.get();
+            return new Written<>(result, before, prerequisiteMapper.findDataVersion());
+        });
+    }
+
+    /**
+     * Brings the index up to a committed write. The write is applied in place only when the index
+     * was built from the table exactly as the write found it; otherwise something else changed the
+     * table too and the index is dropped for the next check to rebuild.
+     */
+    private synchronized void apply(Written<?> written, Consumer<PrerequisiteClosureIndex<Long>> update) {
+        Indexed current = indexed;
+        if (current == null || Objects.equals(current.version, written.after)) {
+            // Not loaded yet, or already rebuilt with this write in it
+            return;
+        }
+        if (!Objects.equals(current.version, written.before)) {
+            indexed = null;
+            return;
+        }
+        try {
+            update.accept(current.index);
+            indexed = new Indexed(current.index, written.after);
+        } catch (IllegalArgumentException e) {
+            log.warn("Rebuilding prerequisite index: {}", e.getMessage());
+            indexed = null;
+        }
+    }
+
+    // Rejects a cycle before it is written rather than after
+    private void checkAcyclic(CoursePrerequisite prerequisite) {
+        Long courseId = prerequisite.getCourse().getId();
+        Long prerequisiteId = prerequisite.getPrerequisiteCourse().getId();
+        if (courseId.equals(prerequisiteId) || getClosure().prerequisitesOf(prerequisiteId).contains(courseId)) {
+            throw new IllegalArgumentException(
+                "Prerequisite course " + prerequisiteId + " of course " + courseId + " would create a prerequisite cycle");
+        }
+    }
+
+    private boolean isMandatory(CoursePrerequisite prerequisite) {
+        return !Boolean.FALSE.equals(prerequisite.getIsMandatory()) && prerequisite.getDeletedAt() == null;
+    }
+
+    // Helper classes
+    /**
+     * The index together with the table version it reflects.
+     */
+    private static final class Indexed {
+        private final PrerequisiteClosureIndex<Long> index;
+        private final String version;
+
+        Indexed(PrerequisiteClosureIndex<Long> index, String version) {
+            this.index = index;
+            this.version = version;
+        }
+    }
+
+    private static final class Written<T> {
+        private final T result;
+        private final String before;
+        private final String after;
+
+        Written(T result, String before, String after) {
+            this.result = result;
+            this.before = before;
+            this.after = after;
+        }
+    }
+}
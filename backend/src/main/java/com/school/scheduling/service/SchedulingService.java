@@ -1,13 +1,31 @@
 package com.school.scheduling.service;
 
 import com.school.scheduling.algorithm.ConstraintSatisfactionProblem;
+import com.school.scheduling.algorithm.codec.ProblemSnapshotStore;
+import com.school.scheduling.algorithm.optimization.PerformanceOptimizer;
+import com.school.scheduling.algorithm.optimization.TeacherAssignmentFlow;
+import com.school.scheduling.algorithm.pipeline.SolvePipeline;
+import com.school.scheduling.algorithm.preference.PreferenceModel;
+import com.school.scheduling.algorithm.preference.PreferenceTables;
+import com.school.scheduling.algorithm.pipeline.CheckpointFile;
+import com.school.scheduling.algorithm.pipeline.SolveProgress;
+import com.school.scheduling.algorithm.remote.RemoteSolverPool;
+import com.school.scheduling.algorithm.strategy.GeneticAlgorithmStrategy;
+import com.school.scheduling.algorithm.strategy.ParetoFront;
+import com.school.scheduling.algorithm.strategy.ScheduleObjectives;
 import com.school.scheduling.algorithm.constraint.*;
 import com.school.scheduling.domain.constraint.*;
 import com.school.scheduling.domain.*;
+import com.school.scheduling.config.SolvePipelineProperties;
 import com.school.scheduling.mapper.*;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.math.BigDecimal;
+import java.nio.file.Path;
 import java.time.*;
 import java.util.*;
 import java.util.concurrent.*;
@@ -16,9 +34,11 @@ import java.util.stream.Collectors;
 /**
  * Main scheduling service that implements constraint-based optimization for school scheduling.
  * Provides both automatic and manual scheduling capabilities.
+ * Schedule generation does not run inside a transaction: the search can take minutes, so data
+ * is loaded with plain queries and the generated schedules are saved in a short transaction of
+ * their own once the search has finished.
  */
 @Service
-@Transactional
 public class SchedulingService {
 
     private final CourseOfferingMapper courseOfferingMapper;
@@ -28,8 +48,18 @@ public class SchedulingService {
     private final TimeSlotMapper timeSlotMapper;
     private final StudentMapper studentMapper;
     private final CourseMapper courseMapper;
+    private final TeacherAvailabilityMapper teacherAvailabilityMapper;
+    private final SemesterSnapshotLoader snapshotLoader;
+    private final StudentSectioningService sectioningService;
+    private final SolvePipelineProperties pipelineProperties;
+    private final RemoteSolverPool remoteSolverPool;
+    private final TransactionTemplate transactionTemplate;
 
     // Configuration parameters
+    private static final int TEACHER_ASSIGNMENTS_LIMIT = 8;
+    // Bump whenever buildSchedulingProblem turns the same data into a different problem, so
+    // problems stored by the previous build are rebuilt instead of reused
+    static final int PROBLEM_BUILDER_VERSION = 2;
     private final int maxConsecutiveHours = 4;
     private final int minBreakBetweenClasses = 10;
     private final boolean allowOversubscription = true;
@@ -37,6 +67,17 @@ public class SchedulingService {
 
     // Performance optimization
     private final ExecutorService executorService = Executors.newFixedThreadPool(4);
+    private final PerformanceOptimizer performanceOptimizer = new PerformanceOptimizer();
+    private final ProblemSnapshotStore problemSnapshots;
+    // Teacher assignments kept per semester, so availability changes re-solve incrementally;
+    // the least recently used go first, and each is dropped when its semester is scheduled again
+    private final Map<Long, TeacherAssignmentSession> teacherAssignments = Collections.synchronizedMap(
+        new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, TeacherAssignmentSession> eldest) {
+                return size() > TEACHER_ASSIGNMENTS_LIMIT;
+            }
+        });
     private final Map<String, SchedulingCache> schedulingCache = new ConcurrentHashMap<>();
 
     public SchedulingService(CourseOfferingMapper courseOfferingMapper,
@@ -45,7 +86,13 @@ public class SchedulingService {
                            ScheduleMapper scheduleMapper,
                            TimeSlotMapper timeSlotMapper,
                            StudentMapper studentMapper,
-                           CourseMapper courseMapper) {
+                           CourseMapper courseMapper,
+                           TeacherAvailabilityMapper teacherAvailabilityMapper,
+                           SemesterSnapshotLoader snapshotLoader,
+                           StudentSectioningService sectioningService,
+                           SolvePipelineProperties pipelineProperties,
+                           RemoteSolverPool remoteSolverPool,
+                           TransactionTemplate transactionTemplate) {
         this.courseOfferingMapper = courseOfferingMapper;
         this.teacherMapper = teacherMapper;
         this.classroomMapper = classroomMapper;
@@ -53,37 +100,88 @@ public class SchedulingService {
         this.timeSlotMapper = timeSlotMapper;
         this.studentMapper = studentMapper;
         this.courseMapper = courseMapper;
+        this.teacherAvailabilityMapper = teacherAvailabilityMapper;
+        this.snapshotLoader = snapshotLoader;
+        this.sectioningService = sectioningService;
+        this.pipelineProperties = pipelineProperties;
+        this.remoteSolverPool = remoteSolverPool;
+        this.transactionTemplate = transactionTemplate;
+        String snapshotDirectory = pipelineProperties.getProblemSnapshotDir();
+        this.problemSnapshots = snapshotDirectory == null || snapshotDirectory.isBlank()
+            ? null : new ProblemSnapshotStore(Path.of(snapshotDirectory), problemBuilderVersion());
     }
 
     /**
      * Generates an optimized schedule for all course offerings in a semester.
      */
     public SchedulingResult generateOptimizedSchedule(Long semesterId, SchedulingStrategy strategy) {
-        try {
-            // Clear cache for this semester
-            schedulingCache.remove("semester_" + semesterId);
+        return generateOptimizedSchedule(semesterId, strategy, new SolveProgress());
+    }
 
-            // Load data
-            List<CourseOffering> courseOfferings = courseOfferingMapper.findBySemesterId(semesterId);
-            List<Teacher> teachers = teacherMapper.findAllActive();
-            List<Classroom> classrooms = classroomMapper.findAllActive();
-            List<TimeSlot> timeSlots = timeSlotMapper.findAll();
+    /**
+     * As {@link #generateOptimizedSchedule(Long, SchedulingStrategy)}, publishing live solver
+     * progress to the given tracker.
+     */
+    public SchedulingResult generateOptimizedSchedule(Long semesterId, SchedulingStrategy strategy,
+                                                      SolveProgress progress) {
+        return generateOptimizedSchedule(semesterId, strategy, progress, null);
+    }
 
-            // Build CSP
-            ConstraintSatisfactionProblem csp = buildSchedulingProblem(
-                courseOfferings, teachers, classrooms, timeSlots, semesterId
-            );
+    /**
+     * As {@link #generateOptimizedSchedule(Long, SchedulingStrategy, SolveProgress)}, checkpointing
+     * the solve to the given file and resuming from it when it holds a checkpoint of the same problem.
+     */
+    public SchedulingResult generateOptimizedSchedule(Long semesterId, SchedulingStrategy strategy,
+                                                      SolveProgress progress, CheckpointFile checkpoints) {
+        return generateOptimizedSchedule(semesterId, strategy, progress, checkpoints, result -> true);
+    }
 
-            // Solve using specified strategy
-            Optional<SchedulingAssignment> solution = csp.solveWithStrategy(mapStrategy(strategy));
+    /**
+     * As {@link #generateOptimizedSchedule(Long, SchedulingStrategy, SolveProgress, CheckpointFile)},
+     * asking the guard inside the transaction that saves the schedule whether it may still be saved.
+     */
+    public SchedulingResult generateOptimizedSchedule(Long semesterId, SchedulingStrategy strategy,
+                                                      SolveProgress progress, CheckpointFile checkpoints,
+                                                      CommitGuard guard) {
+        try {
+            // Clear cache for this semester
+            schedulingCache.remove("semester_" + semesterId);
+            teacherAssignments.remove(semesterId);
 
-            // Process results
-            if (solution.isPresent()) {
-                return processSuccessfulSchedule(solution.get(), courseOfferings, csp);
-            } else {
-                return processFailedSchedule(csp);
+            // Load data in one pass, then build the CSP from the snapshot indexes
+            SemesterSnapshot snapshot = snapshotLoader.load(semesterId);
+            if (snapshot.getOfferings().isEmpty()) {
+                return SchedulingResult.failure("No course offerings found for semester " + semesterId,
+                                                snapshot.getSummary());
+            }
+            long buildStart = System.currentTimeMillis();
+            ConstraintSatisfactionProblem csp = schedulingProblemFor(snapshot);
+            PerformanceOptimizer.RoomDecomposition rooms = decomposeRooms(csp, snapshot);
+            String loadSummary = String.format("%s; Build: %dms", snapshot.getSummary(),
+                                               System.currentTimeMillis() - buildStart);
+
+            // Solve using the pipeline configured for the strategy
+            SolvePipeline.PipelineResult pipelineResult = mapStrategy(strategy)
+                .run(rooms != null ? rooms.getTimeProblem() : csp, progress, checkpoints);
+            Optional<SchedulingAssignment> solution = pipelineResult.getAssignment();
+            if (Thread.currentThread().isInterrupted()) {
+                return SchedulingResult.failure("Schedule generation cancelled",
+                                                loadSummary + "; " + pipelineResult.getSummary());
+            }
+            if (!pipelineResult.getQuality().isFeasible()) {
+                return processFailedSchedule(pipelineResult, rooms != null ? rooms.getTimeProblem() : csp, loadSummary);
+            }
+            if (rooms != null) {
+                solution = performanceOptimizer.assignRooms(rooms, solution.get());
+                if (solution.isEmpty()) {
+                    return SchedulingResult.failure("No suitable room left for every class at its time",
+                                                    loadSummary + "; " + pipelineResult.getSummary());
+                }
             }
 
+            // Process results; a feasible pipeline result always holds a complete schedule
+            return processSuccessfulSchedule(solution.get(), snapshot, csp, pipelineResult, loadSummary, guard);
+
         } catch (Exception e) {
             return SchedulingResult.failure("Failed to generate schedule: " + e.getMessage());
         }
@@ -103,24 +201,39 @@ public class SchedulingService {
             Long semesterId = courseOfferings.get(0).getSemester().getId();
 
             // Load related data
+            long loadStart = System.currentTimeMillis();
             List<Teacher> teachers = getTeachersForCourseOfferings(courseOfferings);
             List<Classroom> classrooms = classroomMapper.findAllActive();
             List<TimeSlot> timeSlots = timeSlotMapper.findAll();
+            SemesterSnapshot snapshot = SemesterSnapshot.of(semesterId, courseOfferings, teachers, classrooms,
+                                                            timeSlots, System.currentTimeMillis() - loadStart);
 
             // Build CSP for specific courses
-            ConstraintSatisfactionProblem csp = buildSchedulingProblem(
-                courseOfferings, teachers, classrooms, timeSlots, semesterId
-            );
-
-            // Solve
-            Optional<SchedulingAssignment> solution = csp.solveWithStrategy(mapStrategy(strategy));
-
-            // Process results
-            if (solution.isPresent()) {
-                return processSuccessfulSchedule(solution.get(), courseOfferings, csp);
-            } else {
-                return processFailedSchedule(csp);
+            ConstraintSatisfactionProblem csp = buildSchedulingProblem(snapshot);
+            PerformanceOptimizer.RoomDecomposition rooms = decomposeRooms(csp, snapshot);
+
+            // Solve using the pipeline configured for the strategy
+            SolvePipeline.PipelineResult pipelineResult = mapStrategy(strategy)
+                .run(rooms != null ? rooms.getTimeProblem() : csp);
+            Optional<SchedulingAssignment> solution = pipelineResult.getAssignment();
+            if (Thread.currentThread().isInterrupted()) {
+                return SchedulingResult.failure("Schedule generation cancelled", pipelineResult.getSummary());
+            }
+            if (!pipelineResult.getQuality().isFeasible()) {
+                return processFailedSchedule(pipelineResult, rooms != null ? rooms.getTimeProblem() : csp,
+                                             snapshot.getSummary());
             }
+            if (rooms != null) {
+                solution = performanceOptimizer.assignRooms(rooms, solution.get());
+                if (solution.isEmpty()) {
+                    return SchedulingResult.failure("No suitable room left for every class at its time",
+                                                    pipelineResult.getSummary());
+                }
+            }
+
+            // Process results; a feasible pipeline result always holds a complete schedule
+            return processSuccessfulSchedule(solution.get(), snapshot, csp, pipelineResult,
+                                             snapshot.getSummary(), result -> true);
 
         } catch (Exception e) {
             return SchedulingResult.failure("Failed to generate schedule: " + e.getMessage());
@@ -130,6 +243,7 @@ public class SchedulingService {
     /**
      * Detects conflicts in existing schedules.
      */
+    @Transactional(readOnly = true)
     public List<ScheduleConflict> detectConflicts(Long semesterId) {
         List<Schedule> existingSchedules = scheduleMapper.findBySemesterId(semesterId);
         List<ScheduleConflict> conflicts = new ArrayList<>();
@@ -141,7 +255,7 @@ public class SchedulingService {
         conflicts.addAll(detectClassroomConflicts(existingSchedules));
 
         // Check for student conflicts
-        conflicts.addAll(detectStudentConflicts(existingSchedules));
+        conflicts.addAll(sectioningService.detectStudentConflicts(semesterId, existingSchedules));
 
         return conflicts;
     }
@@ -149,6 +263,7 @@ public class SchedulingService {
     /**
      * Resolves a specific conflict manually.
      */
+    @Transactional
     public ConflictResolutionResult resolveConflict(Long conflictId, ConflictResolutionAction action) {
         try {
             // Load conflict
@@ -178,9 +293,173 @@ public class SchedulingService {
         }
     }
 
+    /**
+     * Generates a Pareto front of alternative schedules for a semester with the multi-objective
+     * genetic algorithm, searching for the configured Pareto time limit. Nothing is saved;
+     * planners compare the options' metrics and save the one they choose. Runs as a solve job.
+     */
+    public ParetoSchedulingResult generateParetoSchedules(Long semesterId) {
+        return generateParetoSchedules(semesterId, pipelineProperties.getParetoTimeLimitMs());
+    }
+
+    /**
+     * As {@link #generateParetoSchedules(Long)}, returning the front reached when the time limit
+     * runs out. The limit is capped by the configured Pareto time limit.
+     *
+     * @throws IllegalArgumentException when the time limit is not positive
+     */
+    public ParetoSchedulingResult generateParetoSchedules(Long semesterId, long timeLimitMs) {
+        if (timeLimitMs <= 0) {
+            throw new IllegalArgumentException("Time limit must be positive: " + timeLimitMs);
+        }
+        long deadline = System.currentTimeMillis() + Math.min(timeLimitMs, pipelineProperties.getParetoTimeLimitMs());
+        try {
+            SemesterSnapshot snapshot = snapshotLoader.load(semesterId);
+            if (snapshot.getOfferings().isEmpty()) {
+                return ParetoSchedulingResult.failure("No course offerings found for semester " + semesterId,
+                                                      snapshot.getSummary());
+            }
+            ConstraintSatisfactionProblem csp = schedulingProblemFor(snapshot);
+
+            ParetoFront front = new GeneticAlgorithmStrategy().solvePareto(csp, deadline);
+            List<ScheduleOption> options = new ArrayList<>();
+            for (ParetoFront.Solution solution : front.getSolutions()) {
+                List<Schedule> schedules = convertAssignmentToSchedules(solution.getAssignment(), snapshot.getOfferings(),
+                                                                        snapshot.getTimeSlots(), snapshot.getClassrooms());
+                options.add(new ScheduleOption(schedules, calculateParetoMetrics(schedules, solution), solution));
+            }
+            return ParetoSchedulingResult.success(options, snapshot.getSummary() + "; " + front.getSummary());
+
+        } catch (Exception e) {
+            return ParetoSchedulingResult.failure("Failed to generate schedule options: " + e.getMessage(), "");
+        }
+    }
+
+    /**
+     * Assigns a teacher to every offering of the semester in one step, as a min-cost flow over the
+     * compiled teacher preferences within each teacher's course and weekly hour limits, and saves
+     * the offerings whose teacher changed. The assignment is kept, so
+     * {@link #reassignTeacher(Long, Long)} can re-solve it when a teacher's availability changes.
+     *
+     * @return teacher id by offering id; offerings no teacher could take are left out
+     */
+    public Map<Long, Long> assignTeachers(Long semesterId) {
+        SemesterSnapshot snapshot = snapshotLoader.load(semesterId);
+        PreferenceModel model = preferenceModel(snapshot);
+        PreferenceTables preferences = model.compile();
+
+        TeacherAssignmentFlow flow = new TeacherAssignmentFlow(preferences.getOfferingCount(),
+                                                               preferences.getTeacherCount());
+        for (CourseOffering offering : snapshot.getOfferings()) {
+            int o = preferences.offeringIndex(offering.getId());
+            flow.setLoad(o, offeringMinutes(offering));
+            for (int t : preferences.qualifiedTeachers(o)) {
+                flow.addEligibility(o, t, preferences.teacherScore(o, t));
+            }
+        }
+        for (Teacher teacher : snapshot.getTeachers()) {
+            TeacherLoadConstraint.TeacherLoad load = teacherLoad(teacher);
+            flow.setCapacity(preferences.teacherIndex(teacher.getId()), load.getMaxCourses(), load.getMaxWeeklyMinutes());
+        }
+
+        TeacherAssignmentSession session = new TeacherAssignmentSession(snapshot, model, preferences, flow);
+        teacherAssignments.put(semesterId, session);
+        synchronized (session) {
+            return saveTeacherAssignment(session, session.record(flow.solve()));
+        }
+    }
+
+    /**
+     * Re-solves the kept teacher assignment of the semester after the teacher's availability
+     * changed. Only that teacher's availability is reread, only the preference rows it feeds are
+     * recompiled and only their preferences are replaced in the flow, so offerings away from them
+     * mostly keep their teacher. Offerings whose teacher changed are saved, so the next solve of
+     * the semester starts from the new staffing. Assigns from scratch when no assignment of the
+     * semester is kept.
+     *
+     * @return teacher id by offering id; offerings no teacher could take are left out
+     */
+    public Map<Long, Long> reassignTeacher(Long semesterId, Long teacherId) {
+        TeacherAssignmentSession session = teacherAssignments.get(semesterId);
+        if (session == null || session.isExpired()) {
+            return assignTeachers(semesterId);
+        }
+
+        synchronized (session) {
+            Teacher teacher = session.getSnapshot().getTeachers().stream()
+                .filter(candidate -> candidate.getId().equals(teacherId))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Teacher " + teacherId + " is not active"));
+            List<TeacherAvailability> availabilities = teacherAvailabilityMapper.findByTeacherId(teacherId);
+            session.setSnapshot(session.getSnapshot().withAvailabilities(teacherId, availabilities));
+
+            // Availability only moves the teacher's own scores; the compiled ids stay the same
+            PreferenceModel model = session.getModel();
+            model.clearAvailability(teacherId);
+            addAvailabilities(model, teacherId, availabilities);
+            int t = session.getPreferences().teacherIndex(teacherId);
+            PreferenceTables preferences = session.getPreferences().recompileTeacher(model, t);
+            session.setPreferences(preferences);
+            Map<Integer, Double> offerings = new HashMap<>();
+            for (int o = 0; o < preferences.getOfferingCount(); o++) {
+                if (Arrays.binarySearch(preferences.qualifiedTeachers(o), t) >= 0) {
+                    offerings.put(o, preferences.teacherScore(o, t));
+                }
+            }
+
+            TeacherLoadConstraint.TeacherLoad load = teacherLoad(teacher);
+            return saveTeacherAssignment(session, session.record(session.getFlow().updateTeacher(
+                t, load.getMaxCourses(), load.getMaxWeeklyMinutes(), offerings)));
+        }
+    }
+
+    // Writes the offerings whose teacher differs from what is stored; the caller holds the session
+    private Map<Long, Long> saveTeacherAssignment(TeacherAssignmentSession session, Map<Long, Long> assignment) {
+        Map<Long, Long> changed = session.changedFrom(assignment);
+        if (!changed.isEmpty()) {
+            LocalDateTime now = LocalDateTime.now();
+            transactionTemplate.executeWithoutResult(status ->
+                changed.forEach((offeringId, teacherId) -> courseOfferingMapper.updateTeacher(offeringId, teacherId, now)));
+            session.stored(changed);
+        }
+        return assignment;
+    }
+
+    /**
+     * Re-solves the kept teacher assignments once a change to the teacher's availability has
+     * committed, on the async executor rather than the request thread. Without a surrounding
+     * transaction the event is handled right away.
+     */
+    @Async
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTeacherAvailabilityChanged(TeacherAvailabilityChanged event) {
+        teacherAvailabilityChanged(event.getTeacherId());
+    }
+
+    /**
+     * Re-solves and saves every kept teacher assignment the teacher takes part in after the
+     * teacher's availability changed. Semesters without a kept assignment are left for their next solve.
+     */
+    public void teacherAvailabilityChanged(Long teacherId) {
+        List<Long> semesterIds;
+        synchronized (teacherAssignments) {
+            semesterIds = new ArrayList<>(teacherAssignments.keySet());
+        }
+        for (Long semesterId : semesterIds) {
+            TeacherAssignmentSession session = teacherAssignments.get(semesterId);
+            if (session == null) continue;
+            if (session.isExpired()) {
+                teacherAssignments.remove(semesterId);
+            } else if (session.getSnapshot().getTeachers().stream().anyMatch(teacher -> teacher.getId().equals(teacherId))) {
+                reassignTeacher(semesterId, teacherId);
+            }
+        }
+    }
+
     /**
      * Optimizes an existing schedule.
      */
+    @Transactional
     public SchedulingResult optimizeExistingSchedule(Long semesterId, OptimizationCriteria criteria) {
         try {
             // Load existing schedules
@@ -209,7 +488,8 @@ public class SchedulingService {
 
             // Process results
             if (solution.isPresent()) {
-                return processOptimizationResult(solution.get(), existingSchedules, csp);
+                return processOptimizationResult(solution.get(), existingSchedules, courseOfferings, timeSlots,
+                                                 classrooms, csp);
             } else {
                 return SchedulingResult.failure("Failed to optimize schedule", csp.getPerformanceSummary());
             }
@@ -221,27 +501,92 @@ public class SchedulingService {
 
     // Private helper methods
 
-    private ConstraintSatisfactionProblem buildSchedulingProblem(List<CourseOffering> courseOfferings,
-                                                                List<Teacher> teachers,
-                                                                List<Classroom> classrooms,
-                                                                List<TimeSlot> timeSlots,
-                                                                Long semesterId) {
-        // Create variables
-        Set<SchedulingVariable> variables = createSchedulingVariables(courseOfferings);
+    // The application version comes from the jar manifest; unpackaged runs have none
+    private static String problemBuilderVersion() {
+        String applicationVersion = SchedulingService.class.getPackage().getImplementationVersion();
+        return PROBLEM_BUILDER_VERSION + "@" + (applicationVersion == null ? "dev" : applicationVersion);
+    }
 
-        // Create constraints
-        Set<SchedulingConstraint> constraints = createSchedulingConstraints(
-            courseOfferings, teachers, classrooms, timeSlots
-        );
+    /**
+     * The semester's problem as stored for the snapshot's data version, or built from the snapshot
+     * and stored for the next solve. What-if solves of unchanged data then skip the build.
+     */
+    private ConstraintSatisfactionProblem schedulingProblemFor(SemesterSnapshot snapshot) {
+        if (problemSnapshots == null || snapshot.getDataVersion() == null) {
+            return buildSchedulingProblem(snapshot);
+        }
+        Optional<ConstraintSatisfactionProblem> stored =
+            problemSnapshots.load(snapshot.getSemesterId(), snapshot.getDataVersion());
+        if (stored.isPresent()) {
+            return stored.get();
+        }
+        ConstraintSatisfactionProblem csp = buildSchedulingProblem(snapshot);
+        problemSnapshots.save(snapshot.getSemesterId(), snapshot.getDataVersion(), csp);
+        return csp;
+    }
+
+    private ConstraintSatisfactionProblem buildSchedulingProblem(SemesterSnapshot snapshot) {
+        // Create variables
+        Set<SchedulingVariable> variables = createSchedulingVariables(snapshot.getOfferings());
 
         // Create domains
-        Map<SchedulingVariable, List<SchedulingValue>> domains = createDomains(
-            courseOfferings, teachers, classrooms, timeSlots
-        );
+        Map<SchedulingVariable, List<SchedulingValue>> domains = createDomains(snapshot);
+
+        // Create constraints, scoped by the domains
+        Set<SchedulingConstraint> constraints = createSchedulingConstraints(snapshot, domains);
 
         return new ConstraintSatisfactionProblem(variables, constraints, domains);
     }
 
+    /**
+     * With room matching configured, splits room choice off the problem: the pipeline then
+     * searches times and teachers only, and rooms are matched to each time slot's classes
+     * afterwards, with the classroom capacity constraint deciding which rooms suit which class.
+     * Null when room matching is off.
+     */
+    private PerformanceOptimizer.RoomDecomposition decomposeRooms(ConstraintSatisfactionProblem csp,
+                                                                  SemesterSnapshot snapshot) {
+        if (!pipelineProperties.isRoomMatching()) {
+            return null;
+        }
+        Map<String, ClassroomCapacityConstraint> capacities = csp.getConstraints().stream()
+            .filter(ClassroomCapacityConstraint.class::isInstance)
+            .map(ClassroomCapacityConstraint.class::cast)
+            .collect(Collectors.toMap(capacity -> capacity.getOffering().getEntityId(), capacity -> capacity));
+        if (capacities.isEmpty()) {
+            throw new IllegalStateException("Room matching needs classroom capacity constraints");
+        }
+        return performanceOptimizer.decomposeRooms(
+            csp,
+            (variable, room) -> {
+                ClassroomCapacityConstraint capacity = capacities.get(variable.getEntityId());
+                return capacity != null && capacity.isSuitable(room.getValue().toString());
+            },
+            concurrentSlotGroups(snapshot.getTimeSlots()));
+    }
+
+    // Slots overlapping on the same day, directly or through others, share the id of the earliest
+    private Map<Object, Object> concurrentSlotGroups(List<TimeSlot> timeSlots) {
+        List<TimeSlot> sorted = timeSlots.stream()
+            .filter(slot -> slot.getDayOfWeek() != null && slot.getStartTime() != null && slot.getEndTime() != null)
+            .sorted(Comparator.comparing(TimeSlot::getDayOfWeek).thenComparing(TimeSlot::getStartTime))
+            .collect(Collectors.toList());
+
+        Map<Object, Object> groups = new HashMap<>();
+        TimeSlot first = null;
+        LocalTime groupEnd = null;
+        for (TimeSlot slot : sorted) {
+            if (first == null || slot.getDayOfWeek() != first.getDayOfWeek() || !slot.getStartTime().isBefore(groupEnd)) {
+                first = slot;
+                groupEnd = slot.getEndTime();
+            } else if (slot.getEndTime().isAfter(groupEnd)) {
+                groupEnd = slot.getEndTime();
+            }
+            groups.put(slot.getId(), first.getId());
+        }
+        return groups;
+    }
+
     private Set<SchedulingVariable> createSchedulingVariables(List<CourseOffering> courseOfferings) {
         return courseOfferings.stream()
             .map(offering -> new SchedulingVariable(
@@ -252,10 +597,12 @@ public class SchedulingService {
             .collect(Collectors.toSet());
     }
 
-    private Set<SchedulingConstraint> createSchedulingConstraints(List<CourseOffering> courseOfferings,
-                                                                  List<Teacher> teachers,
-                                                                  List<Classroom> classrooms,
-                                                                  List<TimeSlot> timeSlots) {
+    private Set<SchedulingConstraint> createSchedulingConstraints(SemesterSnapshot snapshot,
+                                                                  Map<SchedulingVariable, List<SchedulingValue>> domains) {
+        List<CourseOffering> courseOfferings = snapshot.getOfferings();
+        List<Teacher> teachers = snapshot.getTeachers();
+        List<Classroom> classrooms = snapshot.getClassrooms();
+        List<TimeSlot> timeSlots = snapshot.getTimeSlots();
         Set<SchedulingConstraint> constraints = new HashSet<>();
 
         // Teacher availability constraints
@@ -270,17 +617,23 @@ public class SchedulingService {
             createClassroomInfos(classrooms);
         Map<String, ClassroomCapacityConstraint.CourseRequirements> courseRequirements =
             createCourseRequirements(courseOfferings);
-        constraints.add(new ClassroomCapacityConstraint(
-            classroomInfos, courseRequirements, allowOversubscription, maxOversubscriptionRatio
+        constraints.addAll(ClassroomCapacityConstraint.forOfferings(
+            domains.keySet(), classroomInfos, courseRequirements,
+            allowOversubscription, maxOversubscriptionRatio
         ));
 
-        // Student conflict constraints
-        Map<Long, StudentScheduleConflictConstraint.StudentInfo> studentInfos =
-            createStudentInfos(courseOfferings);
-        Map<String, StudentScheduleConflictConstraint.CoursePrerequisites> coursePrerequisites =
-            createCoursePrerequisites(courseOfferings);
-        constraints.add(new StudentScheduleConflictConstraint(
-            studentInfos, coursePrerequisites, maxConsecutiveHours, minBreakBetweenClasses
+        // Student conflict constraints, over the offerings each student attends
+        constraints.addAll(createStudentConstraints(snapshot));
+
+        // Teacher course and hour limits
+        constraints.addAll(TeacherLoadConstraint.forTeachers(
+            createTeacherLoads(teachers), domains, createOfferingMinutes(courseOfferings)
+        ));
+
+        // Offerings sharing a teacher or their only suitable room never meet concurrently
+        constraints.addAll(ResourceConflictConstraint.forGroups(
+            createResourceGroups(courseOfferings, classrooms),
+            concurrentSlotGroups(timeSlots)
         ));
 
         // Additional constraints can be added here
@@ -290,53 +643,48 @@ public class SchedulingService {
         return constraints;
     }
 
-    private Map<SchedulingVariable, List<SchedulingValue>> createDomains(List<CourseOffering> courseOfferings,
-                                                                       List<Teacher> teachers,
-                                                                       List<Classroom> classrooms,
-                                                                       List<TimeSlot> timeSlots) {
+    private Map<SchedulingVariable, List<SchedulingValue>> createDomains(SemesterSnapshot snapshot) {
         Map<SchedulingVariable, List<SchedulingValue>> domains = new HashMap<>();
+        PreferenceTables preferences = compilePreferences(snapshot);
 
-        for (CourseOffering offering : courseOfferings) {
+        for (CourseOffering offering : snapshot.getOfferings()) {
             SchedulingVariable variable = new SchedulingVariable(
                 VariableType.COURSE_SCHEDULING,
                 offering.getId().toString(),
                 offering.getFullDisplayName()
             );
+            int o = preferences.offeringIndex(offering.getId());
 
             // Create possible scheduling values
             List<SchedulingValue> values = new ArrayList<>();
 
-            // Teacher assignments
-            for (Teacher teacher : teachers) {
-                if (canTeacherTeachCourse(teacher, offering)) {
-                    values.add(new SchedulingValue(
-                        ValueType.TEACHER,
-                        teacher.getId(),
-                        teacher.getFullName(),
-                        calculateTeacherPreferenceScore(teacher, offering)
-                    ));
-                }
+            // Teacher assignments: teachers specialized in the course subject
+            for (Teacher teacher : snapshot.teachersFor(offering.getCourseCode())) {
+                values.add(new SchedulingValue(
+                    ValueType.TEACHER,
+                    teacher.getId(),
+                    teacher.getFullName(),
+                    preferences.teacherScore(o, preferences.teacherIndex(teacher.getId()))
+                ));
             }
 
-            // Classroom assignments
-            for (Classroom classroom : classrooms) {
-                if (isClassroomSuitableForCourse(classroom, offering)) {
-                    values.add(new SchedulingValue(
-                        ValueType.CLASSROOM,
-                        classroom.getId(),
-                        classroom.getRoomCode(),
-                        calculateClassroomPreferenceScore(classroom, offering)
-                    ));
-                }
+            // Classroom assignments: rooms large enough for the offering
+            for (Classroom classroom : snapshot.classroomsWithCapacity(offering.getMaxEnrollment())) {
+                values.add(new SchedulingValue(
+                    ValueType.CLASSROOM,
+                    classroom.getId(),
+                    classroom.getRoomCode(),
+                    preferences.roomScore(o, preferences.roomIndex(classroom.getId()))
+                ));
             }
 
             // Time slot assignments
-            for (TimeSlot timeSlot : timeSlots) {
+            for (TimeSlot timeSlot : snapshot.getTimeSlots()) {
                 values.add(new SchedulingValue(
                     ValueType.TIME_SLOT,
                     timeSlot.getId(),
                     timeSlot.getSlotDescription(),
-                    calculateTimePreferenceScore(timeSlot, offering)
+                    preferences.timeScore(o, preferences.slotIndex(timeSlot.getId()))
                 ));
             }
 
@@ -404,6 +752,62 @@ public class SchedulingService {
         return availability;
     }
 
+    private Map<String, Set<SchedulingVariable>> createResourceGroups(List<CourseOffering> courseOfferings,
+                                                                      List<Classroom> classrooms) {
+        Map<String, Set<SchedulingVariable>> groups = new HashMap<>();
+        for (CourseOffering offering : courseOfferings) {
+            SchedulingVariable variable = new SchedulingVariable(
+                VariableType.COURSE_SCHEDULING,
+                offering.getId().toString(),
+                offering.getFullDisplayName()
+            );
+            if (offering.getTeacher() != null && offering.getTeacher().getId() != null) {
+                groups.computeIfAbsent("Teacher " + offering.getTeacher().getId(), key -> new HashSet<>()).add(variable);
+            }
+
+            List<Classroom> fitting = classrooms.stream()
+                .filter(classroom -> classroom.getCapacity() != null && classroom.getCapacity() >= offering.getMaxEnrollment())
+                .limit(2)
+                .collect(Collectors.toList());
+            if (fitting.size() == 1) {
+                groups.computeIfAbsent("Room " + fitting.get(0).getRoomCode(), key -> new HashSet<>()).add(variable);
+            }
+        }
+
+        return groups;
+    }
+
+    private Map<Long, TeacherLoadConstraint.TeacherLoad> createTeacherLoads(List<Teacher> teachers) {
+        Map<Long, TeacherLoadConstraint.TeacherLoad> loads = new HashMap<>();
+        for (Teacher teacher : teachers) {
+            loads.put(teacher.getId(), teacherLoad(teacher));
+        }
+        return loads;
+    }
+
+    private Map<String, Integer> createOfferingMinutes(List<CourseOffering> courseOfferings) {
+        Map<String, Integer> minutes = new HashMap<>();
+        for (CourseOffering offering : courseOfferings) {
+            minutes.put(offering.getId().toString(), offeringMinutes(offering));
+        }
+        return minutes;
+    }
+
+    private TeacherLoadConstraint.TeacherLoad teacherLoad(Teacher teacher) {
+        return new TeacherLoadConstraint.TeacherLoad(
+            teacher.getMaxCoursesPerSemester() != null ? teacher.getMaxCoursesPerSemester() : TeacherAssignmentFlow.UNLIMITED,
+            teacher.getMaxWeeklyHours() != null ? minutes(teacher.getMaxWeeklyHours()) : TeacherAssignmentFlow.UNLIMITED);
+    }
+
+    private int offeringMinutes(CourseOffering offering) {
+        Course course = offering.getCourse();
+        return course != null && course.getContactHoursPerWeek() != null ? minutes(course.getContactHoursPerWeek()) : 0;
+    }
+
+    private static int minutes(BigDecimal hours) {
+        return hours.multiply(BigDecimal.valueOf(60)).intValue();
+    }
+
     private Map<String, ClassroomCapacityConstraint.ClassroomInfo> createClassroomInfos(
         List<Classroom> classrooms) {
 
@@ -528,47 +932,90 @@ public class SchedulingService {
         return conflicts;
     }
 
-    private List<ScheduleConflict> detectStudentConflicts(List<Schedule> schedules) {
-        // This would require student enrollment data
-        // For now, return empty list
-        return new ArrayList<>();
-    }
-
     // Result processing methods
 
     private SchedulingResult processSuccessfulSchedule(SchedulingAssignment assignment,
-                                                      List<CourseOffering> courseOfferings,
-                                                      ConstraintSatisfactionProblem csp) {
+                                                      SemesterSnapshot snapshot,
+                                                      ConstraintSatisfactionProblem csp,
+                                                      SolvePipeline.PipelineResult pipelineResult,
+                                                      String loadSummary,
+                                                      CommitGuard guard) {
         // Convert assignment to schedule objects
-        List<Schedule> schedules = convertAssignmentToSchedules(assignment, courseOfferings);
-
-        // Save schedules
-        for (Schedule schedule : schedules) {
-            scheduleMapper.insert(schedule);
-        }
+        List<Schedule> schedules = convertAssignmentToSchedules(assignment, snapshot.getOfferings(),
+                                                                snapshot.getTimeSlots(), snapshot.getClassrooms());
 
         // Calculate metrics
         SchedulingMetrics metrics = calculateSchedulingMetrics(schedules, csp);
+        SchedulingResult result = SchedulingResult.success(schedules, metrics,
+                                                           loadSummary + "; " + pipelineResult.getSummary(),
+                                                           pipelineResult.getStageReports());
+
+        // Save schedules in one short transaction, after the search has released everything else
+        boolean committed = Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            for (Schedule schedule : schedules) {
+                scheduleMapper.insert(schedule);
+            }
+            if (!guard.mayCommit(result)) {
+                status.setRollbackOnly();
+                return false;
+            }
+            return true;
+        }));
 
-        return SchedulingResult.success(schedules, metrics, csp.getPerformanceSummary());
+        return committed ? result
+            : SchedulingResult.failure("Schedule generation cancelled", result.getPerformanceSummary());
     }
 
-    private SchedulingResult processFailedSchedule(ConstraintSatisfactionProblem csp) {
+    /**
+     * Nothing is saved for a schedule that breaks a hard constraint or leaves an offering out; the
+     * result lists what the best schedule found still violates.
+     */
+    private SchedulingResult processFailedSchedule(SolvePipeline.PipelineResult pipelineResult,
+                                                   ConstraintSatisfactionProblem csp, String loadSummary) {
+        List<String> violations = pipelineResult.getAssignment()
+            .map(assignment -> listViolations(csp, assignment))
+            .orElseGet(() -> List.of("No schedule was found for any of the " + csp.getVariables().size() + " offerings"));
         return SchedulingResult.failure(
             "No feasible schedule found",
-            csp.getPerformanceSummary()
+            loadSummary + "; " + pipelineResult.getSummary(),
+            violations
         );
     }
 
+    private List<String> listViolations(ConstraintSatisfactionProblem csp, SchedulingAssignment assignment) {
+        List<String> violations = new ArrayList<>();
+        for (var constraint : csp.getConstraints()) {
+            if (constraint.getPriority() != ConstraintPriority.HARD) continue;
+            ConstraintResult result = constraint.validate(assignment);
+            if (!result.isSatisfied()) {
+                violations.add(constraint.getName() + ": " + result.getMessage());
+            }
+        }
+        for (SchedulingVariable variable : csp.getVariables()) {
+            if (!assignment.isAssigned(variable)) {
+                violations.add(variable.getDisplayName() + " is not scheduled");
+            }
+        }
+        return violations;
+    }
+
     private SchedulingResult processOptimizationResult(SchedulingAssignment assignment,
                                                        List<Schedule> existingSchedules,
+                                                       List<CourseOffering> courseOfferings,
+                                                       List<TimeSlot> timeSlots,
+                                                       List<Classroom> classrooms,
                                                        ConstraintSatisfactionProblem csp) {
         // Convert assignment to schedule objects
-        List<Schedule> optimizedSchedules = convertAssignmentToSchedules(assignment,
-            existingSchedules.stream().map(Schedule::getCourseOffering).collect(Collectors.toList()));
+        List<Schedule> optimizedSchedules = convertAssignmentToSchedules(assignment, courseOfferings, timeSlots,
+                                                                         classrooms);
 
-        // Update schedules
+        // Update each offering's existing schedule in place
+        Map<Long, Schedule> existingByOffering = new HashMap<>();
+        existingSchedules.forEach(schedule -> existingByOffering.putIfAbsent(schedule.getCourseOffering().getId(), schedule));
         for (Schedule optimized : optimizedSchedules) {
+            Schedule existing = existingByOffering.get(optimized.getCourseOffering().getId());
+            optimized.setId(existing.getId());
+            optimized.setScheduleDate(existing.getScheduleDate());
             scheduleMapper.update(optimized);
         }
 
@@ -580,6 +1027,28 @@ public class SchedulingService {
 
     // Helper classes and enums
 
+    /**
+     * Last say on saving a generated schedule, asked inside the transaction that inserts it: false
+     * rolls the schedule back. Anything the guard writes in that transaction commits with it.
+     */
+    @FunctionalInterface
+    public interface CommitGuard {
+        boolean mayCommit(SchedulingResult result);
+    }
+
+    /**
+     * Published after a teacher's availability rows were written.
+     */
+    public static class TeacherAvailabilityChanged {
+        private final Long teacherId;
+
+        public TeacherAvailabilityChanged(Long teacherId) {
+            this.teacherId = teacherId;
+        }
+
+        public Long getTeacherId() { return teacherId; }
+    }
+
     public enum SchedulingStrategy {
         BACKTRACKING, MIN_CONFLICTS, HYBRID, GREEDY
     }
@@ -598,28 +1067,47 @@ public class SchedulingService {
         private final List<Schedule> schedules;
         private final SchedulingMetrics metrics;
         private final String performanceSummary;
+        private final List<SolvePipeline.StageReport> stageReports;
+        private final List<String> violations;
 
         private SchedulingResult(boolean success, String message, List<Schedule> schedules,
-                                SchedulingMetrics metrics, String performanceSummary) {
+                                SchedulingMetrics metrics, String performanceSummary,
+                                List<SolvePipeline.StageReport> stageReports, List<String> violations) {
             this.success = success;
             this.message = message;
             this.schedules = schedules;
             this.metrics = metrics;
             this.performanceSummary = performanceSummary;
+            this.stageReports = stageReports;
+            this.violations = violations;
         }
 
         public static SchedulingResult success(List<Schedule> schedules, SchedulingMetrics metrics,
                                            String performanceSummary) {
+            return success(schedules, metrics, performanceSummary, Collections.emptyList());
+        }
+
+        public static SchedulingResult success(List<Schedule> schedules, SchedulingMetrics metrics,
+                                           String performanceSummary,
+                                           List<SolvePipeline.StageReport> stageReports) {
             return new SchedulingResult(true, "Schedule generated successfully",
-                                       schedules, metrics, performanceSummary);
+                                       schedules, metrics, performanceSummary, stageReports, Collections.emptyList());
         }
 
         public static SchedulingResult failure(String message) {
-            return new SchedulingResult(false, message, null, null, "");
+            return failure(message, "");
         }
 
         public static SchedulingResult failure(String message, String performanceSummary) {
-            return new SchedulingResult(false, message, null, null, performanceSummary);
+            return failure(message, performanceSummary, Collections.emptyList());
+        }
+
+        /**
+         * @param violations the hard constraints the best schedule found breaks, and the offerings it leaves out
+         */
+        public static SchedulingResult failure(String message, String performanceSummary, List<String> violations) {
+            return new SchedulingResult(false, message, null, null, performanceSummary, Collections.emptyList(),
+                                        violations);
         }
 
         // Getters
@@ -628,6 +1116,8 @@ public class SchedulingService {
         public List<Schedule> getSchedules() { return schedules; }
         public SchedulingMetrics getMetrics() { return metrics; }
         public String getPerformanceSummary() { return performanceSummary; }
+        public List<SolvePipeline.StageReport> getStageReports() { return stageReports; }
+        public List<String> getViolations() { return violations; }
     }
 
     public static class SchedulingMetrics {
@@ -654,6 +1144,56 @@ public class SchedulingService {
         public double getStudentSatisfaction() { return studentSatisfaction; }
     }
 
+    public static class ParetoSchedulingResult {
+        private final boolean success;
+        private final String message;
+        private final List<ScheduleOption> options;
+        private final String performanceSummary;
+
+        private ParetoSchedulingResult(boolean success, String message, List<ScheduleOption> options,
+                                       String performanceSummary) {
+            this.success = success;
+            this.message = message;
+            this.options = options;
+            this.performanceSummary = performanceSummary;
+        }
+
+        public static ParetoSchedulingResult success(List<ScheduleOption> options, String performanceSummary) {
+            return new ParetoSchedulingResult(true, "Generated " + options.size() + " schedule options",
+                                              options, performanceSummary);
+        }
+
+        public static ParetoSchedulingResult failure(String message, String performanceSummary) {
+            return new ParetoSchedulingResult(false, message, Collections.emptyList(), performanceSummary);
+        }
+
+        // Getters
+        public boolean isSuccess() { return success; }
+        public String getMessage() { return message; }
+        public List<ScheduleOption> getOptions() { return options; }
+        public String getPerformanceSummary() { return performanceSummary; }
+    }
+
+    /**
+     * One schedule of a Pareto front with its metrics and raw objective values.
+     */
+    public static class ScheduleOption {
+        private final List<Schedule> schedules;
+        private final SchedulingMetrics metrics;
+        private final ParetoFront.Solution solution;
+
+        public ScheduleOption(List<Schedule> schedules, SchedulingMetrics metrics, ParetoFront.Solution solution) {
+            this.schedules = schedules;
+            this.metrics = metrics;
+            this.solution = solution;
+        }
+
+        // Getters
+        public List<Schedule> getSchedules() { return schedules; }
+        public SchedulingMetrics getMetrics() { return metrics; }
+        public ParetoFront.Solution getSolution() { return solution; }
+    }
+
     public static class ConflictResolutionAction {
         private final ConflictResolutionType type;
         private final Map<String, Object> parameters;
@@ -695,26 +1235,45 @@ public class SchedulingService {
 
     // Additional helper methods would be implemented here...
 
-    private ConstraintSatisfactionProblem.SolvingStrategy mapStrategy(SchedulingStrategy strategy) {
-        switch (strategy) {
-            case BACKTRACKING:
-                return ConstraintSatisfactionProblem.SolvingStrategy.BACKTRACKING_FORWARD_CHECKING;
-            case MIN_CONFLICTS:
-                return ConstraintSatisfactionProblem.SolvingStrategy.MIN_CONFLICTS;
-            case HYBRID:
-                return ConstraintSatisfactionProblem.SolvingStrategy.BACKTRACKING_AC3;
-            case GREEDY:
-                return ConstraintSatisfactionProblem.SolvingStrategy.BACKTRACKING_FORWARD_CHECKING;
-            default:
-                return ConstraintSatisfactionProblem.SolvingStrategy.BACKTRACKING_FORWARD_CHECKING;
-        }
+    private SolvePipeline mapStrategy(SchedulingStrategy strategy) {
+        return pipelineProperties.pipelineFor(strategy, remoteSolverPool);
     }
 
+    /**
+     * One weekly schedule per offering the assignment gives both a time slot and a classroom. After
+     * a two-phase solve the classroom is the one room matching chose for the offering's time;
+     * offerings left without either are not scheduled.
+     */
     private List<Schedule> convertAssignmentToSchedules(SchedulingAssignment assignment,
-                                                        List<CourseOffering> courseOfferings) {
-        // This would convert the CSP assignment to actual Schedule objects
-        // Implementation would depend on the specific assignment structure
-        return new ArrayList<>();
+                                                        List<CourseOffering> courseOfferings,
+                                                        List<TimeSlot> timeSlots,
+                                                        List<Classroom> classrooms) {
+        Map<Object, TimeSlot> slotsById = new HashMap<>();
+        timeSlots.forEach(slot -> slotsById.put(slot.getId(), slot));
+        Map<Object, Classroom> classroomsById = new HashMap<>();
+        classrooms.forEach(classroom -> classroomsById.put(classroom.getId(), classroom));
+
+        List<Schedule> schedules = new ArrayList<>();
+        for (CourseOffering offering : courseOfferings) {
+            SchedulingVariable variable = new SchedulingVariable(
+                VariableType.COURSE_SCHEDULING, offering.getId().toString(), offering.getFullDisplayName());
+            SchedulingValue value = assignment.getValue(variable);
+            SchedulingValue room = PerformanceOptimizer.roomOf(assignment, variable)
+                .orElse(value != null && value.isClassroom() ? value : null);
+
+            TimeSlot timeSlot = value != null && value.isTimeSlot() ? slotsById.get(value.getValue()) : null;
+            Classroom classroom = room != null ? classroomsById.get(room.getValue()) : null;
+            if (timeSlot == null || classroom == null) continue;
+
+            Schedule schedule = new Schedule();
+            schedule.setCourseOffering(offering);
+            schedule.setTimeSlot(timeSlot);
+            schedule.setClassroom(classroom);
+            schedule.setIsRecurring(true);
+            schedule.setRecurrencePattern("WEEKLY");
+            schedules.add(schedule);
+        }
+        return schedules;
     }
 
     private SchedulingMetrics calculateSchedulingMetrics(List<Schedule> schedules,
@@ -729,6 +1288,17 @@ public class SchedulingService {
         );
     }
 
+    // Objectives are penalties; metrics read higher-is-better
+    private SchedulingMetrics calculateParetoMetrics(List<Schedule> schedules, ParetoFront.Solution solution) {
+        return new SchedulingMetrics(
+            schedules.size(),
+            1.0 - solution.getObjective(ScheduleObjectives.Objective.ROOM_SPREAD),
+            (int) solution.getScore().getHard(),
+            1.0 / (1.0 + solution.getObjective(ScheduleObjectives.Objective.TEACHER_WORKLOAD_IMBALANCE)),
+            1.0 / (1.0 + solution.getObjective(ScheduleObjectives.Objective.TIME_GAPS))
+        );
+    }
+
     private double calculateResourceUtilization(List<Schedule> schedules) {
         // Calculate how well resources are utilized
         return 0.75; // Placeholder
@@ -739,29 +1309,108 @@ public class SchedulingService {
         return teacherMapper.findAllActive(); // Simplified
     }
 
-    private boolean canTeacherTeachCourse(Teacher teacher, CourseOffering offering) {
-        // Check if teacher can teach this course
-        return teacher.canTeachSubject(offering.getCourse().getCourseCode());
+    /**
+     * Compiles the preferences of every teacher, room and time slot of the snapshot for every
+     * offering once, so domain values and solvers read them as array lookups.
+     */
+    private PreferenceTables compilePreferences(SemesterSnapshot snapshot) {
+        return preferenceModel(snapshot).compile();
+    }
+
+    private PreferenceModel preferenceModel(SemesterSnapshot snapshot) {
+        PreferenceModel model = new PreferenceModel();
+
+        for (CourseOffering offering : snapshot.getOfferings()) {
+            Course course = offering.getCourse();
+            model.addOffering(offering.getId(),
+                              course != null && course.getDepartment() != null ? course.getDepartment().getId() : null,
+                              course != null && Boolean.TRUE.equals(course.getRequiresLab()),
+                              offering.getMaxEnrollment() != null ? offering.getMaxEnrollment() : 0);
+            for (Teacher teacher : snapshot.teachersFor(offering.getCourseCode())) {
+                model.addQualification(teacher.getId(), offering.getId(), proficiency(teacher, offering.getCourseCode()));
+            }
+        }
+
+        for (Teacher teacher : snapshot.getTeachers()) {
+            model.addTeacher(teacher.getId(), teacher.getDepartment() != null ? teacher.getDepartment().getId() : null);
+            addAvailabilities(model, teacher.getId(), snapshot.availabilitiesOf(teacher.getId()));
+        }
+
+        Set<String> buildings = new HashSet<>();
+        for (Classroom classroom : snapshot.getClassrooms()) {
+            model.addRoom(classroom.getId(), classroom.getBuildingCode(),
+                          classroom.getRoomType() == Classroom.RoomType.LABORATORY
+                              || classroom.getRoomType() == Classroom.RoomType.COMPUTER_LAB,
+                          classroom.getCapacity() != null ? classroom.getCapacity() : 0);
+            if (classroom.getBuildingCode() != null) {
+                buildings.add(classroom.getBuildingCode());
+            }
+        }
+        departmentBuildings(snapshot.getTeachers(), buildings).forEach(model::setDepartmentBuilding);
+
+        for (TimeSlot timeSlot : snapshot.getTimeSlots()) {
+            model.addTimeSlot(timeSlot.getId(), timeSlot.getDayOfWeek(), timeSlot.getStartTime(),
+                              timeSlot.getEndTime(), timeSlot.getPreferenceScore() / 3.0);
+        }
+
+        return model;
     }
 
-    private boolean isClassroomSuitableForCourse(Classroom classroom, CourseOffering offering) {
-        // Check if classroom is suitable for this course
-        return classroom.getCapacity() >= offering.getMaxEnrollment();
+    private void addAvailabilities(PreferenceModel model, Long teacherId, List<TeacherAvailability> availabilities) {
+        for (TeacherAvailability availability : availabilities) {
+            if (availability.getDayOfWeek() != null && availability.getStartTime() != null
+                && availability.getEndTime() != null) {
+                model.addAvailability(teacherId, availability.getDayOfWeek(), availability.getStartTime(),
+                                      availability.getEndTime(), availabilityPreference(availability));
+            }
+        }
     }
 
-    private double calculateTeacherPreferenceScore(Teacher teacher, CourseOffering offering) {
-        // Calculate preference score for teacher-course assignment
-        return 0.5; // Placeholder
+    private double proficiency(Teacher teacher, String subjectCode) {
+        double best = 0.0;
+        for (TeacherSpecialization specialization : teacher.getSpecializations()) {
+            if (Objects.equals(specialization.getSubjectCode(), subjectCode)) {
+                TeacherSpecialization.ProficiencyLevel level = specialization.getProficiencyLevel();
+                best = Math.max(best, level != null
+                    ? (level.ordinal() + 1.0) / TeacherSpecialization.ProficiencyLevel.values().length : 0.5);
+            }
+        }
+        return best;
     }
 
-    private double calculateClassroomPreferenceScore(Classroom classroom, CourseOffering offering) {
-        // Calculate preference score for classroom-course assignment
-        return 0.5; // Placeholder
+    private double availabilityPreference(TeacherAvailability availability) {
+        if (availability.getAvailabilityType() == null) {
+            return 0.7;
+        }
+        switch (availability.getAvailabilityType()) {
+            case PREFERRED: return 1.0;
+            case AVAILABLE: return 0.7;
+            case RESTRICTED: return 0.3;
+            default: return 0.0;
+        }
     }
 
-    private double calculateTimePreferenceScore(TimeSlot timeSlot, CourseOffering offering) {
-        // Calculate preference score for time slot assignment
-        return 0.5; // Placeholder
+    // A department's building is where most of its teachers have their offices
+    private Map<Long, String> departmentBuildings(List<Teacher> teachers, Set<String> buildings) {
+        Map<Long, Map<String, Integer>> offices = new HashMap<>();
+        for (Teacher teacher : teachers) {
+            String office = teacher.getOfficeLocation();
+            if (teacher.getDepartment() == null || office == null) continue;
+            String building = null;
+            for (String code : buildings) {
+                if (office.startsWith(code) && (building == null || code.length() > building.length())) {
+                    building = code;
+                }
+            }
+            if (building != null) {
+                offices.computeIfAbsent(teacher.getDepartment().getId(), id -> new HashMap<>()).merge(building, 1, Integer::sum);
+            }
+        }
+
+        Map<Long, String> departmentBuildings = new HashMap<>();
+        offices.forEach((department, counts) -> departmentBuildings.put(department,
+            Collections.max(counts.entrySet(), Map.Entry.comparingByValue()).getKey()));
+        return departmentBuildings;
     }
 
     // Optimization methods
@@ -810,18 +1459,146 @@ public class SchedulingService {
         return ConflictResolutionResult.success("Conflict ignored", conflict.getSchedule1());
     }
 
-    private Map<Long, StudentScheduleConflictConstraint.StudentInfo> createStudentInfos(List<CourseOffering> courseOfferings) {
-        // Create student information for conflict detection
-        return new HashMap<>();
+    /**
+     * Every enrolled student's workload constraint, and a clash constraint for each distinct set of
+     * attended offerings: students taking the same offerings share one, named after the first of
+     * them. All of them read the same timetable of the semester's offerings, slots and rooms.
+     */
+    private List<StudentScheduleConflictConstraint> createStudentConstraints(SemesterSnapshot snapshot) {
+        StudentScheduleConflictConstraint.Timetable timetable =
+            new StudentScheduleConflictConstraint.Timetable(createCoursePrerequisites(snapshot));
+        Map<Long, SchedulingVariable> variables = new HashMap<>();
+        for (CourseOffering offering : snapshot.getOfferings()) {
+            variables.put(offering.getId(), new SchedulingVariable(
+                VariableType.COURSE_SCHEDULING, offering.getId().toString(), offering.getFullDisplayName()));
+            Integer credits = offering.getCourse() != null ? offering.getCourse().getCredits() : null;
+            timetable.addOffering(offering.getId().toString(), offering.getCourseCode(), credits != null ? credits : 0);
+        }
+        for (TimeSlot slot : snapshot.getTimeSlots()) {
+            if (slot.getDayOfWeek() != null && slot.getStartTime() != null && slot.getEndTime() != null) {
+                timetable.addTimeSlot(slot.getId(), DayOfWeek.valueOf(slot.getDayOfWeek().name()),
+                                      slot.getStartTime(), slot.getEndTime());
+            }
+        }
+        for (Classroom classroom : snapshot.getClassrooms()) {
+            timetable.addRoom(classroom.getId(), classroom.getBuildingCode(), classroom.getRoomNumber());
+        }
+
+        Map<Long, StudentScheduleConflictConstraint.StudentInfo> studentInfos = createStudentInfos(snapshot);
+        List<StudentScheduleConflictConstraint> constraints = new ArrayList<>();
+        Set<Set<SchedulingVariable>> clashGroups = new HashSet<>();
+        snapshot.getOfferingsByStudent().forEach((studentId, offeringIds) -> {
+            Set<SchedulingVariable> attended = new HashSet<>();
+            for (Long offeringId : offeringIds) {
+                SchedulingVariable variable = variables.get(offeringId);
+                if (variable != null) {
+                    attended.add(variable);
+                }
+            }
+            if (attended.isEmpty()) return;
+
+            StudentScheduleConflictConstraint.StudentInfo student = studentInfos.get(studentId);
+            if (attended.size() > 1 && clashGroups.add(attended)) {
+                constraints.add(new StudentScheduleConflictConstraint(student, attended, timetable,
+                    StudentScheduleConflictConstraint.Checks.CLASHES, maxConsecutiveHours, minBreakBetweenClasses));
+            }
+            constraints.add(new StudentScheduleConflictConstraint(student, attended, timetable,
+                StudentScheduleConflictConstraint.Checks.WORKLOAD, maxConsecutiveHours, minBreakBetweenClasses));
+        });
+        return constraints;
     }
 
-    private Map<String, StudentScheduleConflictConstraint.CoursePrerequisites> createCoursePrerequisites(List<CourseOffering> courseOfferings) {
-        // Create course prerequisite information
-        return new HashMap<>();
+    // Passed courses come with their letter grades; no student has a recorded credit limit
+    private Map<Long, StudentScheduleConflictConstraint.StudentInfo> createStudentInfos(SemesterSnapshot snapshot) {
+        Map<Long, StudentScheduleConflictConstraint.StudentInfo> students = new HashMap<>();
+        for (Long studentId : snapshot.getOfferingsByStudent().keySet()) {
+            Map<String, String> passed = snapshot.passedCoursesOf(studentId);
+            Map<String, String> grades = new HashMap<>();
+            passed.forEach((courseCode, grade) -> {
+                if (grade != null) {
+                    grades.put(courseCode, grade);
+                }
+            });
+            students.put(studentId, new StudentScheduleConflictConstraint.StudentInfo(
+                studentId, passed.keySet(), grades, Double.MAX_VALUE, 0.0));
+        }
+        return students;
+    }
+
+    // A prerequisite counts once passed, so no course adds a letter-grade requirement
+    private Map<String, StudentScheduleConflictConstraint.CoursePrerequisites> createCoursePrerequisites(
+            SemesterSnapshot snapshot) {
+        Map<String, StudentScheduleConflictConstraint.CoursePrerequisites> prerequisites = new HashMap<>();
+        snapshot.getPrerequisitesByCourse().forEach((courseCode, requiredCourses) ->
+            prerequisites.put(courseCode, new StudentScheduleConflictConstraint.CoursePrerequisites(
+                courseCode, requiredCourses, Collections.emptyMap())));
+        return prerequisites;
     }
 
     // Cache and performance optimization
 
+    private static class TeacherAssignmentSession {
+        private final PreferenceModel model;
+        private final TeacherAssignmentFlow flow;
+        private final long timestamp;
+        // Teacher by offering id as last stored, so only offerings that change are written
+        private final Map<Long, Long> storedTeachers = new HashMap<>();
+        private SemesterSnapshot snapshot;
+        private PreferenceTables preferences;
+
+        TeacherAssignmentSession(SemesterSnapshot snapshot, PreferenceModel model, PreferenceTables preferences,
+                                 TeacherAssignmentFlow flow) {
+            this.snapshot = snapshot;
+            this.model = model;
+            this.preferences = preferences;
+            this.flow = flow;
+            this.timestamp = System.currentTimeMillis();
+            for (CourseOffering offering : snapshot.getOfferings()) {
+                if (offering.getTeacher() != null && offering.getTeacher().getId() != null) {
+                    storedTeachers.put(offering.getId(), offering.getTeacher().getId());
+                }
+            }
+        }
+
+        // Offerings left out of the assignment keep the teacher they have
+        Map<Long, Long> changedFrom(Map<Long, Long> assignment) {
+            Map<Long, Long> changed = new LinkedHashMap<>();
+            assignment.forEach((offeringId, teacherId) -> {
+                if (!teacherId.equals(storedTeachers.get(offeringId))) {
+                    changed.put(offeringId, teacherId);
+                }
+            });
+            return changed;
+        }
+
+        void stored(Map<Long, Long> teachers) {
+            storedTeachers.putAll(teachers);
+        }
+
+        // Older assignments are solved again from freshly loaded data
+        boolean isExpired() {
+            return System.currentTimeMillis() - timestamp > TimeUnit.HOURS.toMillis(1);
+        }
+
+        // Compiled ids follow the snapshot's order of offerings and teachers
+        Map<Long, Long> record(int[] teacherOf) {
+            Map<Long, Long> assignment = new LinkedHashMap<>();
+            for (int o = 0; o < teacherOf.length; o++) {
+                if (teacherOf[o] >= 0) {
+                    assignment.put(snapshot.getOfferings().get(o).getId(), snapshot.getTeachers().get(teacherOf[o]).getId());
+                }
+            }
+            return assignment;
+        }
+
+        SemesterSnapshot getSnapshot() { return snapshot; }
+        void setSnapshot(SemesterSnapshot snapshot) { this.snapshot = snapshot; }
+        PreferenceModel getModel() { return model; }
+        PreferenceTables getPreferences() { return preferences; }
+        void setPreferences(PreferenceTables preferences) { this.preferences = preferences; }
+        TeacherAssignmentFlow getFlow() { return flow; }
+    }
+
     private static class SchedulingCache {
         private final Map<String, Object> data = new HashMap<>();
         private final long timestamp;
@@ -0,0 +1,202 @@
+package com.school.scheduling.service;
+
+import com.school.scheduling.domain.*;
+
+import java.util.*;
+
+/**
+ * Everything the solver reads for one semester, loaded once and indexed for the lookups problem
+ * construction makes per offering: which teachers hold a subject, which rooms are of a type and
+ * which rooms seat a given number of students. Offerings share one {@link Course} instance per
+ * course and teachers carry their specializations, so nothing is fetched lazily afterwards.
+ * <p>
+ * Students are kept by id only: the offerings each attends this semester, the courses each has
+ * passed and the mandatory prerequisites of every course, both by course code.
+ */
+public class SemesterSnapshot {
+
+    private final Long semesterId;
+    private final List<CourseOffering> offerings;
+    private final List<Teacher> teachers;
+    private final List<Classroom> classrooms;
+    private final List<TimeSlot> timeSlots;
+    private final Map<String, List<Teacher>> teachersBySubject;
+    private final Map<Classroom.RoomType, List<Classroom>> classroomsByType;
+    private final Map<Long, List<TeacherAvailability>> availabilitiesByTeacher;
+    private final Map<Long, List<Long>> offeringsByStudent;
+    private final Map<Long, Map<String, String>> passedCoursesByStudent;
+    private final Map<String, Set<String>> prerequisitesByCourse;
+    private final List<Classroom> classroomsByCapacity;
+    private final int[] capacities;
+    private final String dataVersion;
+    private final long loadTimeMs;
+
+    SemesterSnapshot(Long semesterId, List<CourseOffering> offerings, List<Teacher> teachers,
+                     List<Classroom> classrooms, List<TimeSlot> timeSlots,
+                     Map<String, List<Teacher>> teachersBySubject,
+                     Map<Classroom.RoomType, List<Classroom>> classroomsByType,
+                     Map<Long, List<TeacherAvailability>> availabilitiesByTeacher,
+                     Map<Long, List<Long>> offeringsByStudent, Map<Long, Map<String, String>> passedCoursesByStudent,
+                     Map<String, Set<String>> prerequisitesByCourse, String dataVersion, long loadTimeMs) {
+        this.semesterId = semesterId;
+        this.offerings = offerings;
+        this.teachers = teachers;
+        this.classrooms = classrooms;
+        this.timeSlots = timeSlots;
+        this.teachersBySubject = teachersBySubject;
+        this.classroomsByType = classroomsByType;
+        this.availabilitiesByTeacher = availabilitiesByTeacher;
+        this.offeringsByStudent = offeringsByStudent;
+        this.passedCoursesByStudent = passedCoursesByStudent;
+        this.prerequisitesByCourse = prerequisitesByCourse;
+        this.dataVersion = dataVersion;
+        this.loadTimeMs = loadTimeMs;
+
+        // Ascending capacity, so the rooms seating at least n students are a suffix
+        List<Classroom> byCapacity = new ArrayList<>(classrooms);
+        byCapacity.sort(Comparator.comparingInt(SemesterSnapshot::capacityOf));
+        this.classroomsByCapacity = byCapacity;
+        this.capacities = byCapacity.stream().mapToInt(SemesterSnapshot::capacityOf).toArray();
+    }
+
+    /**
+     * Indexes data that was already loaded some other way, walking each teacher's
+     * specializations once instead of once per offering. Teachers have no stated availability,
+     * nobody is enrolled until {@link #addEnrollment} says so, and without a data version the
+     * snapshot is never matched to a stored problem.
+     */
+    public static SemesterSnapshot of(Long semesterId, List<CourseOffering> offerings, List<Teacher> teachers,
+                                      List<Classroom> classrooms, List<TimeSlot> timeSlots, long loadTimeMs) {
+        Map<String, List<Teacher>> teachersBySubject = new HashMap<>();
+        for (Teacher teacher : teachers) {
+            for (TeacherSpecialization specialization : teacher.getSpecializations()) {
+                indexTeacher(teachersBySubject, specialization.getSubjectCode(), teacher);
+            }
+        }
+        Map<Classroom.RoomType, List<Classroom>> classroomsByType = new EnumMap<>(Classroom.RoomType.class);
+        for (Classroom classroom : classrooms) {
+            indexClassroom(classroomsByType, classroom);
+        }
+        return new SemesterSnapshot(semesterId, offerings, teachers, classrooms, timeSlots,
+                                    teachersBySubject, classroomsByType, new HashMap<>(), new LinkedHashMap<>(),
+                                    new HashMap<>(), new HashMap<>(), null, loadTimeMs);
+    }
+
+    static void indexTeacher(Map<String, List<Teacher>> teachersBySubject, String subjectCode, Teacher teacher) {
+        if (subjectCode != null) {
+            List<Teacher> holders = teachersBySubject.computeIfAbsent(subjectCode, code -> new ArrayList<>());
+            if (holders.isEmpty() || holders.get(holders.size() - 1) != teacher) {
+                holders.add(teacher);
+            }
+        }
+    }
+
+    static void indexClassroom(Map<Classroom.RoomType, List<Classroom>> classroomsByType, Classroom classroom) {
+        if (classroom.getRoomType() != null) {
+            classroomsByType.computeIfAbsent(classroom.getRoomType(), type -> new ArrayList<>()).add(classroom);
+        }
+    }
+
+    /**
+     * Teachers with a specialization in the subject, in load order.
+     */
+    public List<Teacher> teachersFor(String subjectCode) {
+        return teachersBySubject.getOrDefault(subjectCode, Collections.emptyList());
+    }
+
+    public List<Classroom> classroomsOfType(Classroom.RoomType roomType) {
+        return classroomsByType.getOrDefault(roomType, Collections.emptyList());
+    }
+
+    /**
+     * The availability windows the teacher stated, by day and start time.
+     */
+    public List<TeacherAvailability> availabilitiesOf(Long teacherId) {
+        return availabilitiesByTeacher.getOrDefault(teacherId, Collections.emptyList());
+    }
+
+    /**
+     * A copy of the snapshot with the teacher's changed availability, so a kept snapshot can be
+     * re-solved without loading it again. Everything else is shared; this snapshot is unchanged.
+     */
+    SemesterSnapshot withAvailabilities(Long teacherId, List<TeacherAvailability> availabilities) {
+        Map<Long, List<TeacherAvailability>> byTeacher = new HashMap<>(availabilitiesByTeacher);
+        byTeacher.put(teacherId, new ArrayList<>(availabilities));
+        return new SemesterSnapshot(semesterId, offerings, teachers, classrooms, timeSlots, teachersBySubject,
+                                    classroomsByType, byTeacher, offeringsByStudent, passedCoursesByStudent,
+                                    prerequisitesByCourse, dataVersion, loadTimeMs);
+    }
+
+    /**
+     * A copy of the snapshot at another data version, as if it had been loaded when the data was
+     * in that state. Everything else is shared; this snapshot is unchanged.
+     */
+    SemesterSnapshot withDataVersion(String dataVersion) {
+        return new SemesterSnapshot(semesterId, offerings, teachers, classrooms, timeSlots, teachersBySubject,
+                                    classroomsByType, availabilitiesByTeacher, offeringsByStudent,
+                                    passedCoursesByStudent, prerequisitesByCourse, dataVersion, loadTimeMs);
+    }
+
+    /**
+     * The offerings of the semester each enrolled student attends, by student id.
+     */
+    public Map<Long, List<Long>> getOfferingsByStudent() {
+        return Collections.unmodifiableMap(offeringsByStudent);
+    }
+
+    /**
+     * The courses the student has passed, by course code, with the letter grade when one was given.
+     */
+    public Map<String, String> passedCoursesOf(Long studentId) {
+        return passedCoursesByStudent.getOrDefault(studentId, Collections.emptyMap());
+    }
+
+    /**
+     * The codes of the courses that must be passed before the course may be taken, by course code.
+     */
+    public Map<String, Set<String>> getPrerequisitesByCourse() {
+        return Collections.unmodifiableMap(prerequisitesByCourse);
+    }
+
+    /**
+     * Records that the student attends the offering.
+     */
+    void addEnrollment(Long studentId, Long offeringId) {
+        offeringsByStudent.computeIfAbsent(studentId, id -> new ArrayList<>()).add(offeringId);
+    }
+
+    /**
+     * Rooms seating at least the given number of students, smallest first.
+     */
+    public List<Classroom> classroomsWithCapacity(int minimumCapacity) {
+        int low = 0;
+        int high = capacities.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (capacities[mid] < minimumCapacity) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return classroomsByCapacity.subList(low, capacities.length);
+    }
+
+    public String getSummary() {
+        return String.format("Load: %dms, %d offerings, %d teachers, %d classrooms, %d time slots, %d students",
+                             loadTimeMs, offerings.size(), teachers.size(), classrooms.size(), timeSlots.size(),
+                             offeringsByStudent.size());
+    }
+
+    private static int capacityOf(Classroom classroom) {
+        return classroom.getCapacity() != null ? classroom.getCapacity() : 0;
+    }
+
+    public Long getSemesterId() { return semesterId; }
+    public List<CourseOffering> getOfferings() { return offerings; }
+    public List<Teacher> getTeachers() { return teachers; }
+    public List<Classroom> getClassrooms() { return classrooms; }
+    public List<TimeSlot> getTimeSlots() { return timeSlots; }
+    public String getDataVersion() { return dataVersion; }
+    public long getLoadTimeMs() { return loadTimeMs; }
+}
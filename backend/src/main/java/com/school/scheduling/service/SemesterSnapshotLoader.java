@@ -0,0 +1,121 @@
+package com.school.scheduling.service;
+
+import com.school.scheduling.domain.*;
+import com.school.scheduling.mapper.SemesterSnapshotMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+
+/**
+ * Loads the solver input of a semester in nine streaming queries (offerings with their courses,
+ * active teachers, their specializations and availability, available classrooms, time slots,
+ * the semester's enrollments, the courses its students passed and mandatory prerequisites)
+ * and builds the snapshot indexes while the rows arrive. The queries run in one read-only
+ * transaction, so they all see the same state of the database, and so does the data version
+ * read first.
+ */
+@Slf4j
+@Service
+public class SemesterSnapshotLoader {
+
+    private final SemesterSnapshotMapper snapshotMapper;
+
+    public SemesterSnapshotLoader(SemesterSnapshotMapper snapshotMapper) {
+        this.snapshotMapper = snapshotMapper;
+    }
+
+    @Transactional(readOnly = true)
+    public SemesterSnapshot load(Long semesterId) {
+        long start = System.currentTimeMillis();
+        String dataVersion = snapshotMapper.findDataVersion(semesterId);
+
+        // Offerings of the same course share one course instance
+        List<CourseOffering> offerings = new ArrayList<>();
+        Map<Long, Course> courses = new HashMap<>();
+        snapshotMapper.streamOfferings(semesterId, context -> {
+            CourseOffering offering = context.getResultObject();
+            Course course = offering.getCourse();
+            if (course != null && course.getId() != null) {
+                offering.setCourse(courses.computeIfAbsent(course.getId(), id -> course));
+            }
+            offerings.add(offering);
+        });
+
+        Map<Long, Teacher> teachersById = new LinkedHashMap<>();
+        snapshotMapper.streamActiveTeachers(context -> {
+            Teacher teacher = context.getResultObject();
+            teacher.setSpecializations(new ArrayList<>());
+            teachersById.put(teacher.getId(), teacher);
+        });
+
+        Map<String, List<Teacher>> teachersBySubject = new HashMap<>();
+        snapshotMapper.streamActiveTeacherSpecializations(context -> {
+            TeacherSpecialization specialization = context.getResultObject();
+            Teacher teacher = specialization.getTeacher() != null
+                ? teachersById.get(specialization.getTeacher().getId()) : null;
+            if (teacher != null) {
+                specialization.setTeacher(teacher);
+                teacher.getSpecializations().add(specialization);
+                SemesterSnapshot.indexTeacher(teachersBySubject, specialization.getSubjectCode(), teacher);
+            }
+        });
+
+        Map<Long, List<TeacherAvailability>> availabilitiesByTeacher = new HashMap<>();
+        snapshotMapper.streamTeacherAvailabilities(context -> {
+            TeacherAvailability availability = context.getResultObject();
+            if (availability.getTeacher() != null && teachersById.containsKey(availability.getTeacher().getId())) {
+                availabilitiesByTeacher.computeIfAbsent(availability.getTeacher().getId(), id -> new ArrayList<>())
+                    .add(availability);
+            }
+        });
+
+        List<Classroom> classrooms = new ArrayList<>();
+        Map<Classroom.RoomType, List<Classroom>> classroomsByType = new EnumMap<>(Classroom.RoomType.class);
+        snapshotMapper.streamAvailableClassrooms(context -> {
+            Classroom classroom = context.getResultObject();
+            classrooms.add(classroom);
+            SemesterSnapshot.indexClassroom(classroomsByType, classroom);
+        });
+
+        List<TimeSlot> timeSlots = new ArrayList<>();
+        snapshotMapper.streamTimeSlots(context -> timeSlots.add(context.getResultObject()));
+
+        Map<Long, List<Long>> offeringsByStudent = new LinkedHashMap<>();
+        snapshotMapper.streamEnrollments(semesterId, context -> {
+            Enrollment enrollment = context.getResultObject();
+            offeringsByStudent.computeIfAbsent(enrollment.getStudent().getId(), id -> new ArrayList<>())
+                .add(enrollment.getCourseOffering().getId());
+        });
+
+        // A course passed twice keeps the later row's grade
+        Map<Long, Map<String, String>> passedCoursesByStudent = new HashMap<>();
+        snapshotMapper.streamCompletedEnrollments(semesterId, context -> {
+            Enrollment enrollment = context.getResultObject();
+            String courseCode = enrollment.getCourseOffering().getCourse().getCourseCode();
+            if (courseCode != null) {
+                passedCoursesByStudent.computeIfAbsent(enrollment.getStudent().getId(), id -> new HashMap<>())
+                    .put(courseCode, enrollment.getGradeLetter());
+            }
+        });
+
+        Map<String, Set<String>> prerequisitesByCourse = new HashMap<>();
+        snapshotMapper.streamMandatoryPrerequisites(context -> {
+            CoursePrerequisite prerequisite = context.getResultObject();
+            String courseCode = prerequisite.getCourse().getCourseCode();
+            String requiredCode = prerequisite.getPrerequisiteCourse().getCourseCode();
+            if (courseCode != null && requiredCode != null) {
+                prerequisitesByCourse.computeIfAbsent(courseCode, code -> new HashSet<>()).add(requiredCode);
+            }
+        });
+
+        SemesterSnapshot snapshot = new SemesterSnapshot(semesterId, offerings, new ArrayList<>(teachersById.values()),
+                                                         classrooms, timeSlots, teachersBySubject, classroomsByType,
+                                                         availabilitiesByTeacher, offeringsByStudent,
+                                                         passedCoursesByStudent, prerequisitesByCourse, dataVersion,
+                                                         System.currentTimeMillis() - start);
+        log.debug("Semester {} snapshot: {}", semesterId, snapshot.getSummary());
+        return snapshot;
+    }
+}
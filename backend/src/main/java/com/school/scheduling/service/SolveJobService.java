@@ -0,0 +1,347 @@
+package com.school.scheduling.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.school.scheduling.algorithm.SolverExecutor;
+import com.school.scheduling.algorithm.pipeline.CheckpointFile;
+import com.school.scheduling.algorithm.pipeline.SolveProgress;
+import com.school.scheduling.domain.SolveJob;
+import com.school.scheduling.dto.response.ScheduleOptionResponse;
+import com.school.scheduling.exception.BadRequestException;
+import com.school.scheduling.exception.ConflictException;
+import com.school.scheduling.exception.ResourceNotFoundException;
+import com.school.scheduling.exception.ServiceUnavailableException;
+import com.school.scheduling.mapper.SolveJobMapper;
+import com.school.scheduling.service.SchedulingService.ParetoSchedulingResult;
+import com.school.scheduling.service.SchedulingService.SchedulingResult;
+import com.school.scheduling.service.SchedulingService.SchedulingStrategy;
+import com.school.scheduling.websocket.SolverProgressWebSocketHandler;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs schedule generation as background jobs so HTTP threads and database connections are
+ * not held for the length of a search. Jobs run on a bounded pool sized independently of the
+ * web server; submissions beyond the queue capacity are rejected with 503 instead of piling up.
+ * Job state lives in the solve_jobs table: each transition is a single guarded update, and jobs
+ * left queued or running by a previous shutdown are picked up again on startup (this assumes a
+ * single application instance owns the queue). Running jobs stream their progress through
+ * {@link SolverProgressWebSocketHandler} and checkpoint to one file per job, so a job picked up
+ * again after a restart or deploy resumes its search instead of starting over.
+ * <p>
+ * Searches for schedule options run as jobs of the {@value #PARETO_STRATEGY} strategy on the same
+ * pool. They save no schedules; the options they find are kept on the job until it is polled.
+ */
+@Slf4j
+@Service
+public class SolveJobService {
+
+    /**
+     * Strategy recorded for Pareto searches, which are not a {@link SchedulingStrategy}.
+     */
+    public static final String PARETO_STRATEGY = "PARETO";
+
+    private static final int RECENT_JOBS_LIMIT = 20;
+    private static final TypeReference<List<ScheduleOptionResponse>> OPTIONS_TYPE = new TypeReference<>() {};
+
+    private final SolveJobMapper solveJobMapper;
+    private final SchedulingService schedulingService;
+    private final SolverProgressWebSocketHandler progressHandler;
+    private final ObjectMapper objectMapper;
+    private final ThreadPoolExecutor executor;
+    private final Path checkpointDirectory;
+    private final long checkpointIntervalMs;
+    private final Map<Long, Future<?>> activeJobs = new ConcurrentHashMap<>();
+
+    public SolveJobService(SolveJobMapper solveJobMapper,
+                           SchedulingService schedulingService,
+                           SolverProgressWebSocketHandler progressHandler,
+                           ObjectMapper objectMapper,
+                           @Value("${app.scheduling.jobs.worker-count:2}") int workerCount,
+                           @Value("${app.scheduling.jobs.queue-capacity:50}") int queueCapacity,
+                           @Value("${app.scheduling.jobs.checkpoint-dir:}") String checkpointDirectory,
+                           @Value("${app.scheduling.jobs.checkpoint-interval-ms:60000}") long checkpointIntervalMs) {
+        this.solveJobMapper = solveJobMapper;
+        this.schedulingService = schedulingService;
+        this.progressHandler = progressHandler;
+        this.objectMapper = objectMapper;
+        this.executor = new ThreadPoolExecutor(
+            Math.max(1, workerCount), Math.max(1, workerCount),
+            0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+            new SolverThreadFactory(),
+            new ThreadPoolExecutor.AbortPolicy());
+        this.checkpointDirectory = checkpointDirectory == null || checkpointDirectory.isBlank()
+            ? null : Path.of(checkpointDirectory);
+        this.checkpointIntervalMs = checkpointIntervalMs;
+    }
+
+    /**
+     * Re-enqueues jobs that were queued or running when the application last stopped.
+     */
+    @PostConstruct
+    public void recoverJobs() {
+        int requeued = solveJobMapper.requeueRunning();
+        List<SolveJob> pending = solveJobMapper.findUnfinished();
+        for (SolveJob job : pending) {
+            if (Boolean.TRUE.equals(job.getCancelRequested())) {
+                solveJobMapper.markCancelled(job.getId(), "Cancelled", LocalDateTime.now());
+                continue;
+            }
+            try {
+                enqueue(job.getId());
+            } catch (RejectedExecutionException e) {
+                log.warn("Solver queue full during recovery; job {} stays queued until the next restart", job.getId());
+            }
+        }
+        if (!pending.isEmpty()) {
+            log.info("Recovered {} solve jobs ({} were running at shutdown)", pending.size(), requeued);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Interrupted jobs keep their RUNNING status and are requeued on the next start
+        executor.shutdownNow();
+        SolverExecutor.shutdown();
+    }
+
+    /**
+     * Records a new job and queues it. Fails fast when the queue is full.
+     *
+     * @throws ServiceUnavailableException when the queue is full
+     */
+    public SolveJob submit(Long semesterId, SchedulingStrategy strategy, String requestedBy) {
+        if (semesterId == null || strategy == null) {
+            throw new BadRequestException("Semester and strategy are required");
+        }
+        return submit(semesterId, strategy.name(), null, requestedBy);
+    }
+
+    /**
+     * Records and queues a search for schedule options. The search stops at the time limit,
+     * which the configured Pareto limit caps; without one it runs for the configured limit.
+     *
+     * @throws BadRequestException         when the time limit is not positive
+     * @throws ServiceUnavailableException when the queue is full
+     */
+    public SolveJob submitPareto(Long semesterId, Long timeLimitMs, String requestedBy) {
+        if (semesterId == null) {
+            throw new BadRequestException("Semester is required");
+        }
+        if (timeLimitMs != null && timeLimitMs <= 0) {
+            throw new BadRequestException("Time limit must be positive");
+        }
+        return submit(semesterId, PARETO_STRATEGY, timeLimitMs, requestedBy);
+    }
+
+    private SolveJob submit(Long semesterId, String strategy, Long timeLimitMs, String requestedBy) {
+        SolveJob job = new SolveJob();
+        job.setSemesterId(semesterId);
+        job.setStrategy(strategy);
+        job.setTimeLimitMs(timeLimitMs);
+        job.setStatus(SolveJob.JobStatus.QUEUED);
+        job.setSubmittedAt(LocalDateTime.now());
+        job.setCreatedBy(requestedBy);
+        solveJobMapper.insert(job);
+
+        try {
+            enqueue(job.getId());
+        } catch (RejectedExecutionException e) {
+            solveJobMapper.markCancelled(job.getId(), "Rejected: solver queue is full", LocalDateTime.now());
+            throw new ServiceUnavailableException("Solver queue is full, please retry later");
+        }
+        return job;
+    }
+
+    public SolveJob getJob(Long jobId) {
+        return solveJobMapper.findById(jobId)
+            .orElseThrow(() -> new ResourceNotFoundException("Solve job not found with id: " + jobId));
+    }
+
+    /**
+     * Schedule options found by a finished Pareto search.
+     *
+     * @throws BadRequestException when the job is not a Pareto search
+     * @throws ConflictException   when the search has not succeeded
+     */
+    public List<ScheduleOptionResponse> getOptions(Long jobId) {
+        SolveJob job = getJob(jobId);
+        if (!PARETO_STRATEGY.equals(job.getStrategy())) {
+            throw new BadRequestException("Solve job " + jobId + " is not a search for schedule options");
+        }
+        if (job.getStatus() != SolveJob.JobStatus.SUCCEEDED || job.getScheduleOptions() == null) {
+            throw new ConflictException("Solve job " + jobId + " has no options while " + job.getStatus());
+        }
+        try {
+            return objectMapper.readValue(job.getScheduleOptions(), OPTIONS_TYPE);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Options of solve job " + jobId + " cannot be read", e);
+        }
+    }
+
+    public List<SolveJob> getRecentJobs(Long semesterId) {
+        return solveJobMapper.findRecentBySemesterId(semesterId, RECENT_JOBS_LIMIT);
+    }
+
+    /**
+     * Cancels a queued or running job. A running search is interrupted and its result discarded;
+     * a job whose schedule has already been saved can no longer be cancelled. Cancelling a
+     * cancelled job again changes nothing.
+     *
+     * @throws ConflictException when the job has already succeeded or failed
+     */
+    public SolveJob cancel(Long jobId) {
+        if (solveJobMapper.requestCancel(jobId) == 0) {
+            SolveJob job = getJob(jobId);
+            if (job.getStatus() == SolveJob.JobStatus.CANCELLED) {
+                return job;
+            }
+            throw new ConflictException("Solve job " + jobId + " has already finished as " + job.getStatus());
+        }
+
+        solveJobMapper.markCancelled(jobId, "Cancelled", LocalDateTime.now());
+        Future<?> future = activeJobs.remove(jobId);
+        if (future != null) {
+            future.cancel(true);
+        } else {
+            deleteCheckpoint(jobId);
+        }
+        return getJob(jobId);
+    }
+
+    private void enqueue(Long jobId) {
+        Future<?> future = executor.submit(() -> runJob(jobId));
+        activeJobs.put(jobId, future);
+        if (future.isDone()) {
+            activeJobs.remove(jobId, future);
+        }
+    }
+
+    void runJob(Long jobId) {
+        SolveJob.JobStatus outcome = null;
+        try {
+            if (solveJobMapper.markRunning(jobId, LocalDateTime.now()) == 0) {
+                return; // Cancelled before it started
+            }
+
+            SolveJob job = getJob(jobId);
+            if (PARETO_STRATEGY.equals(job.getStrategy())) {
+                outcome = runParetoJob(job);
+                return;
+            }
+            SolveProgress progress = new SolveProgress();
+            progressHandler.track(jobId, progress);
+            outcome = SolveJob.JobStatus.CANCELLED;
+            CheckpointFile checkpoints = checkpointFor(jobId);
+            // The job finishes in the schedule's own transaction, unless it was cancelled first
+            SchedulingResult result = schedulingService.generateOptimizedSchedule(
+                job.getSemesterId(), SchedulingStrategy.valueOf(job.getStrategy()), progress, checkpoints,
+                saved -> solveJobMapper.markFinished(jobId, SolveJob.JobStatus.SUCCEEDED, saved.getMessage(),
+                    saved.getPerformanceSummary(), saved.getSchedules().size(), LocalDateTime.now()) == 1);
+            if (checkpoints != null && checkpoints.getLastError() != null) {
+                log.warn("Solve job {} could not checkpoint: {}", jobId, checkpoints.getLastError());
+            }
+
+            if (result.isSuccess()) {
+                outcome = SolveJob.JobStatus.SUCCEEDED;
+                deleteCheckpoint(jobId);
+                return;
+            }
+            if (Thread.currentThread().isInterrupted()) {
+                if (!executor.isShutdown()) {
+                    deleteCheckpoint(jobId); // Cancelled; a shutdown keeps it for the restart
+                }
+                return; // Cancelled or shutting down; the row already says what happens next
+            }
+
+            outcome = SolveJob.JobStatus.FAILED;
+            deleteCheckpoint(jobId);
+            if (solveJobMapper.markFinished(jobId, outcome,
+                    result.getViolations().isEmpty() ? result.getMessage()
+                        : result.getMessage() + ":\n" + String.join("\n", result.getViolations()),
+                    result.getPerformanceSummary(), null, LocalDateTime.now()) == 0) {
+                outcome = SolveJob.JobStatus.CANCELLED; // Cancelled while the schedule was being saved
+            }
+        } catch (Exception e) {
+            log.error("Solve job {} failed", jobId, e);
+            outcome = SolveJob.JobStatus.FAILED;
+            deleteCheckpoint(jobId);
+            solveJobMapper.markFinished(jobId, SolveJob.JobStatus.FAILED, e.getMessage(), null, null,
+                                        LocalDateTime.now());
+        } finally {
+            activeJobs.remove(jobId);
+            if (outcome != null) {
+                progressHandler.finish(jobId, outcome.name());
+            }
+        }
+    }
+
+    /**
+     * Searches the job's options and keeps them on the job. An interrupted search records
+     * nothing: the cancel or shutdown that interrupted it already has.
+     */
+    private SolveJob.JobStatus runParetoJob(SolveJob job) throws JsonProcessingException {
+        ParetoSchedulingResult result = job.getTimeLimitMs() != null
+            ? schedulingService.generateParetoSchedules(job.getSemesterId(), job.getTimeLimitMs())
+            : schedulingService.generateParetoSchedules(job.getSemesterId());
+        if (Thread.currentThread().isInterrupted()) {
+            return SolveJob.JobStatus.CANCELLED;
+        }
+
+        if (!result.isSuccess()) {
+            return solveJobMapper.markFinished(job.getId(), SolveJob.JobStatus.FAILED, result.getMessage(),
+                       result.getPerformanceSummary(), null, LocalDateTime.now()) == 1
+                ? SolveJob.JobStatus.FAILED : SolveJob.JobStatus.CANCELLED;
+        }
+        String options = objectMapper.writeValueAsString(result.getOptions().stream()
+            .map(ScheduleOptionResponse::fromOption)
+            .toList());
+        return solveJobMapper.markOptionsFound(job.getId(), result.getMessage(), result.getPerformanceSummary(),
+                   options, LocalDateTime.now()) == 1
+            ? SolveJob.JobStatus.SUCCEEDED : SolveJob.JobStatus.CANCELLED;
+    }
+
+    /**
+     * Checkpoint file of a job, or null when checkpointing is switched off.
+     */
+    private CheckpointFile checkpointFor(Long jobId) {
+        return checkpointDirectory != null
+            ? new CheckpointFile(checkpointDirectory.resolve("solve-job-" + jobId + ".ckpt"), checkpointIntervalMs)
+            : null;
+    }
+
+    private void deleteCheckpoint(Long jobId) {
+        CheckpointFile checkpoint = checkpointFor(jobId);
+        if (checkpoint != null) {
+            checkpoint.delete();
+        }
+    }
+
+    // Configuration and monitoring
+    public int getWorkerCount() { return executor.getMaximumPoolSize(); }
+    public int getQueuedCount() { return executor.getQueue().size(); }
+    public int getRunningCount() { return executor.getActiveCount(); }
+
+    private static class SolverThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "solve-job-" + counter.incrementAndGet());
+            thread.setDaemon(false);
+            return thread;
+        }
+    }
+}
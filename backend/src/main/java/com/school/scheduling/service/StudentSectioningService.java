@@ -0,0 +1,211 @@
+package com.school.scheduling.service;
+
+import com.school.scheduling.algorithm.sectioning.SectioningProblem;
+import com.school.scheduling.algorithm.sectioning.SectioningResult;
+import com.school.scheduling.algorithm.sectioning.StudentSectioningEngine;
+import com.school.scheduling.domain.*;
+import com.school.scheduling.mapper.CourseOfferingMapper;
+import com.school.scheduling.mapper.EnrollmentMapper;
+import com.school.scheduling.mapper.SemesterSnapshotMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Places the enrolled students of a semester into sections. Each enrollment asks for a seat in
+ * its course; the student may end up in another section of that course when this avoids a clash
+ * or a full section. Input is read in streaming queries, the engine runs outside any transaction
+ * and moved enrollments are written back in one short transaction.
+ */
+@Slf4j
+@Service
+public class StudentSectioningService {
+
+    private final SemesterSnapshotMapper snapshotMapper;
+    private final EnrollmentMapper enrollmentMapper;
+    private final CourseOfferingMapper courseOfferingMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final StudentSectioningEngine engine = new StudentSectioningEngine();
+
+    public StudentSectioningService(SemesterSnapshotMapper snapshotMapper,
+                                    EnrollmentMapper enrollmentMapper,
+                                    CourseOfferingMapper courseOfferingMapper,
+                                    TransactionTemplate transactionTemplate) {
+        this.snapshotMapper = snapshotMapper;
+        this.enrollmentMapper = enrollmentMapper;
+        this.courseOfferingMapper = courseOfferingMapper;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * Sections every active enrollment of the semester and saves the sections that changed.
+     * Enrollments that cannot be placed keep their section; the result says why.
+     */
+    public SectioningResult sectionStudents(Long semesterId) {
+        SectioningInput input = transactionTemplate.execute(status -> load(semesterId));
+        SectioningResult result = engine.section(input.problem);
+
+        transactionTemplate.executeWithoutResult(status -> save(input, result));
+        log.info("Semester {}: {}", semesterId, result.getSummary());
+        return result;
+    }
+
+    /**
+     * Pairs of schedules of the semester that enrolled students have to attend at the same time,
+     * one conflict per pair of offerings with the number of students affected. The cost follows
+     * the enrollments rather than the number of schedules squared.
+     */
+    public List<ScheduleConflict> detectStudentConflicts(Long semesterId, List<Schedule> schedules) {
+        Map<Long, List<Schedule>> schedulesByOffering = new HashMap<>();
+        for (Schedule schedule : schedules) {
+            if (schedule.getCourseOffering() != null && schedule.getTimeSlot() != null) {
+                schedulesByOffering.computeIfAbsent(schedule.getCourseOffering().getId(), id -> new ArrayList<>())
+                    .add(schedule);
+            }
+        }
+
+        Map<Long, List<Long>> offeringsByStudent = new LinkedHashMap<>();
+        snapshotMapper.streamEnrollments(semesterId, context -> {
+            Enrollment enrollment = context.getResultObject();
+            offeringsByStudent.computeIfAbsent(enrollment.getStudent().getId(), id -> new ArrayList<>())
+                .add(enrollment.getCourseOffering().getId());
+        });
+
+        // Each pair of offerings is tested once, however many students share it
+        Map<List<Long>, Schedule[]> clashes = new HashMap<>();
+        Map<List<Long>, Integer> affected = new LinkedHashMap<>();
+        for (List<Long> offerings : offeringsByStudent.values()) {
+            for (int i = 0; i < offerings.size(); i++) {
+                for (int j = i + 1; j < offerings.size(); j++) {
+                    List<Long> pair = List.of(Math.min(offerings.get(i), offerings.get(j)),
+                                              Math.max(offerings.get(i), offerings.get(j)));
+                    Schedule[] clash = clashes.computeIfAbsent(pair, p -> findClash(
+                        schedulesByOffering.getOrDefault(p.get(0), Collections.emptyList()),
+                        schedulesByOffering.getOrDefault(p.get(1), Collections.emptyList())));
+                    if (clash.length > 0) {
+                        affected.merge(pair, 1, Integer::sum);
+                    }
+                }
+            }
+        }
+
+        List<ScheduleConflict> conflicts = new ArrayList<>();
+        for (Map.Entry<List<Long>, Integer> entry : affected.entrySet()) {
+            Schedule[] clash = clashes.get(entry.getKey());
+            ScheduleConflict conflict = new ScheduleConflict();
+            conflict.setConflictType(ScheduleConflict.ConflictType.STUDENT_SCHEDULE_CONFLICT);
+            conflict.setSeverity(ScheduleConflict.Severity.MEDIUM);
+            conflict.setDescription(String.format(
+                "%d students enrolled in both %s and %s have overlapping classes on %s (%s and %s)",
+                entry.getValue(),
+                clash[0].getCourseOffering().getFullDisplayName(), clash[1].getCourseOffering().getFullDisplayName(),
+                clash[0].getTimeSlot().getDayOfWeek(),
+                clash[0].getTimeSlot().getTimeRange(), clash[1].getTimeSlot().getTimeRange()));
+            conflict.setSchedule1(clash[0]);
+            conflict.setSchedule2(clash[1]);
+            conflicts.add(conflict);
+        }
+        return conflicts;
+    }
+
+    private SectioningInput load(Long semesterId) {
+        SectioningProblem problem = new SectioningProblem();
+        Map<Long, Integer> capacities = new HashMap<>();
+        Set<Long> closed = new HashSet<>();
+        snapshotMapper.streamOfferings(semesterId, context -> {
+            CourseOffering offering = context.getResultObject();
+            int capacity = offering.getMaxEnrollment() != null ? offering.getMaxEnrollment() : 0;
+            problem.addSection(offering.getId(), offering.getCourse().getId(), capacity);
+            capacities.put(offering.getId(), capacity);
+            if (Boolean.FALSE.equals(offering.getIsOpen())) {
+                closed.add(offering.getId());
+            }
+        });
+
+        snapshotMapper.streamSectionMeetings(semesterId, context -> {
+            Schedule meeting = context.getResultObject();
+            TimeSlot slot = meeting.getTimeSlot();
+            if (slot.getDayOfWeek() != null && slot.getStartTime() != null && slot.getEndTime() != null) {
+                problem.addMeeting(meeting.getCourseOffering().getId(), slot.getDayOfWeek(),
+                                   slot.getStartTime(), slot.getEndTime());
+            }
+        });
+
+        snapshotMapper.streamMandatoryPrerequisites(context -> {
+            CoursePrerequisite prerequisite = context.getResultObject();
+            problem.addPrerequisite(prerequisite.getCourse().getId(), prerequisite.getPrerequisiteCourse().getId());
+        });
+
+        snapshotMapper.streamCompletedEnrollments(semesterId, context -> {
+            Enrollment enrollment = context.getResultObject();
+            problem.addCompletedCourse(enrollment.getStudent().getId(), enrollment.getCourseOffering().getCourse().getId());
+        });
+
+        List<Long> originalSections = new ArrayList<>();
+        Map<Long, Integer> closedDemand = new HashMap<>();
+        snapshotMapper.streamEnrollments(semesterId, context -> {
+            Enrollment enrollment = context.getResultObject();
+            Long sectionId = enrollment.getCourseOffering().getId();
+            problem.addRequest(enrollment.getId(), enrollment.getStudent().getId(),
+                               enrollment.getCourseOffering().getCourse().getId(), sectionId);
+            originalSections.add(sectionId);
+            if (closed.contains(sectionId)) {
+                closedDemand.merge(sectionId, 1, Integer::sum);
+            }
+        });
+
+        // Closed sections keep the students they have but take nobody new
+        for (Long sectionId : closed) {
+            problem.setCapacity(sectionId, Math.min(capacities.get(sectionId), closedDemand.getOrDefault(sectionId, 0)));
+        }
+        return new SectioningInput(problem, originalSections, capacities.keySet());
+    }
+
+    private void save(SectioningInput input, SectioningResult result) {
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, Integer> enrolled = new HashMap<>();
+        for (Long sectionId : input.sectionIds) {
+            enrolled.put(sectionId, 0);
+        }
+        for (int request = 0; request < result.getRequestCount(); request++) {
+            Long original = input.originalSections.get(request);
+            Long section = result.isPlaced(request) ? result.getSectionId(request) : original;
+            if (!section.equals(original)) {
+                enrollmentMapper.updateCourseOffering(input.problem.getRequestId(request), section, now);
+            }
+            enrolled.merge(section, 1, Integer::sum);
+        }
+        enrolled.forEach((sectionId, count) -> courseOfferingMapper.updateCurrentEnrollment(sectionId, count, now));
+    }
+
+    // The first two overlapping meetings of two offerings, or none
+    private static Schedule[] findClash(List<Schedule> first, List<Schedule> second) {
+        for (Schedule a : first) {
+            for (Schedule b : second) {
+                TimeSlot slotA = a.getTimeSlot();
+                TimeSlot slotB = b.getTimeSlot();
+                if (slotA.getDayOfWeek() == slotB.getDayOfWeek()
+                    && slotA.getStartTime().isBefore(slotB.getEndTime())
+                    && slotB.getStartTime().isBefore(slotA.getEndTime())) {
+                    return new Schedule[] {a, b};
+                }
+            }
+        }
+        return new Schedule[0];
+    }
+
+    private static class SectioningInput {
+        private final SectioningProblem problem;
+        private final List<Long> originalSections;
+        private final Set<Long> sectionIds;
+
+        SectioningInput(SectioningProblem problem, List<Long> originalSections, Set<Long> sectionIds) {
+            this.problem = problem;
+            this.originalSections = originalSections;
+            this.sectionIds = sectionIds;
+        }
+    }
+}
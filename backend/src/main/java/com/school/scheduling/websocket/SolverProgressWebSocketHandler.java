@@ -0,0 +1,330 @@
+package com.school.scheduling.websocket;
+
+import com.school.scheduling.algorithm.pipeline.SolveProgress;
+import com.school.scheduling.websocket.ConflictWebSocketHandler.WebSocketMessage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.*;
+
+/**
+ * Streams progress of running solve jobs to subscribed clients. Solver threads never send:
+ * running jobs register their {@link SolveProgress}, and a single publisher thread samples every
+ * tracked job with subscribers at a fixed rate, so each job produces at most
+ * max-updates-per-second messages however often its best score changes. Unchanged samples are
+ * skipped, and slow clients are buffered per session instead of stalling the publisher.
+ * <p>
+ * A job's subscriptions go when it finishes, and a session's when it closes, so jobs that never
+ * run and clients that disconnect leave nothing behind. Subscribing to a job that has recently
+ * finished answers with how it ended instead of waiting for updates that never come.
+ */
+@Slf4j
+@Component
+public class SolverProgressWebSocketHandler extends TextWebSocketHandler {
+
+    private static final int SEND_TIME_LIMIT_MS = 5000;
+    private static final int BUFFER_SIZE_LIMIT = 256 * 1024;
+    private static final int FINISHED_JOBS_LIMIT = 1000;
+
+    private final ObjectMapper objectMapper;
+    private final long publishIntervalMs;
+    private final Map<String, WebSocketSession> sessions = new ConcurrentHashMap<>();
+    private final Map<Long, Set<String>> subscriptions = new ConcurrentHashMap<>();
+    private final Map<Long, TrackedJob> trackedJobs = new ConcurrentHashMap<>();
+    private final Map<Long, String> finishedJobs = Collections.synchronizedMap(
+        new LinkedHashMap<>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, String> eldest) {
+                return size() > FINISHED_JOBS_LIMIT;
+            }
+        });
+    private ScheduledExecutorService publisher;
+
+    public SolverProgressWebSocketHandler(ObjectMapper objectMapper,
+                                          @Value("${app.scheduling.progress.max-updates-per-second:2}")
+                                          int maxUpdatesPerSecond) {
+        this.objectMapper = objectMapper;
+        this.publishIntervalMs = Math.max(1, 1000 / Math.max(1, maxUpdatesPerSecond));
+    }
+
+    @PostConstruct
+    public void start() {
+        publisher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "solver-progress-publisher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        publisher.scheduleAtFixedRate(this::publishProgress, publishIntervalMs, publishIntervalMs,
+                                      TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (publisher != null) {
+            publisher.shutdownNow();
+        }
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) {
+        sessions.put(session.getId(),
+                     new ConcurrentWebSocketSessionDecorator(session, SEND_TIME_LIMIT_MS, BUFFER_SIZE_LIMIT));
+        log.info("Solver progress connection established: {}", session.getId());
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        sessions.remove(session.getId());
+        subscriptions.keySet().forEach(jobId -> unsubscribe(jobId, session.getId()));
+        log.info("Solver progress connection closed: {}", session.getId());
+    }
+
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage message) {
+        try {
+            WebSocketMessage clientMessage = objectMapper.readValue(message.getPayload(), WebSocketMessage.class);
+
+            switch (clientMessage.getType()) {
+                case "subscribe":
+                    handleSubscription(session, toJobId(clientMessage.getData()));
+                    break;
+                case "unsubscribe":
+                    handleUnsubscription(session, toJobId(clientMessage.getData()));
+                    break;
+                case "ping":
+                    sendMessage(session.getId(), message("pong", "pong"));
+                    break;
+                default:
+                    log.warn("Unknown message type: {}", clientMessage.getType());
+            }
+        } catch (Exception e) {
+            log.error("Error handling solver progress message", e);
+        }
+    }
+
+    /**
+     * Starts sampling a running job. Called from the solve job worker before the search starts.
+     */
+    public void track(Long jobId, SolveProgress progress) {
+        finishedJobs.remove(jobId); // Picked up again after a restart
+        trackedJobs.put(jobId, new TrackedJob(progress));
+    }
+
+    /**
+     * Stops sampling a job and tells its subscribers how it ended.
+     */
+    public void finish(Long jobId, String status) {
+        trackedJobs.remove(jobId);
+        finishedJobs.put(jobId, status);
+        Set<String> subscribers = subscriptions.remove(jobId);
+        if (subscribers == null || subscribers.isEmpty()) {
+            return;
+        }
+
+        WebSocketMessage finished = message("solve_finished", new SolveFinishedData(jobId, status));
+        subscribers.forEach(sessionId -> sendMessage(sessionId, finished));
+    }
+
+    void publishProgress() {
+        try {
+            long now = System.currentTimeMillis();
+            trackedJobs.forEach((jobId, job) -> {
+                Set<String> subscribers = subscriptions.get(jobId);
+                if (subscribers == null || subscribers.isEmpty()) {
+                    return;
+                }
+
+                SolverProgressData data = job.sample(jobId, now);
+                if (data == null) {
+                    return; // Nothing changed since the last update
+                }
+                WebSocketMessage update = message("solve_progress", data);
+                subscribers.forEach(sessionId -> sendMessage(sessionId, update));
+            });
+        } catch (Exception e) {
+            // Never let one bad tick cancel the fixed-rate schedule
+            log.error("Error publishing solver progress", e);
+        }
+    }
+
+    private void handleSubscription(WebSocketSession session, Long jobId) {
+        if (jobId == null) {
+            sendMessage(session.getId(), message("error", "subscribe requires a job id"));
+            return;
+        }
+        String finishedStatus = finishedJobs.get(jobId);
+        if (finishedStatus != null) {
+            sendMessage(session.getId(), message("solve_finished", new SolveFinishedData(jobId, finishedStatus)));
+            return;
+        }
+        // Sets only change inside compute, so a set emptied by unsubscribe is never added to after removal
+        subscriptions.compute(jobId, (id, subscribers) -> {
+            Set<String> updated = subscribers != null ? subscribers : new CopyOnWriteArraySet<>();
+            updated.add(session.getId());
+            return updated;
+        });
+        TrackedJob job = trackedJobs.get(jobId);
+        if (job != null) {
+            job.forceNext = true; // New subscribers get the current state on the next tick
+        }
+        log.info("Client {} subscribed to progress of solve job {}", session.getId(), jobId);
+        sendMessage(session.getId(), message("subscription_confirmed", jobId));
+    }
+
+    private void handleUnsubscription(WebSocketSession session, Long jobId) {
+        if (jobId != null) {
+            unsubscribe(jobId, session.getId());
+        }
+    }
+
+    private void unsubscribe(Long jobId, String sessionId) {
+        subscriptions.computeIfPresent(jobId, (id, subscribers) -> {
+            subscribers.remove(sessionId);
+            return subscribers.isEmpty() ? null : subscribers;
+        });
+    }
+
+    private Long toJobId(Object data) {
+        if (data instanceof Number) {
+            return ((Number) data).longValue();
+        }
+        if (data instanceof String) {
+            try {
+                return Long.valueOf((String) data);
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    private WebSocketMessage message(String type, Object data) {
+        return WebSocketMessage.builder()
+            .type(type)
+            .data(data)
+            .timestamp(LocalDateTime.now())
+            .build();
+    }
+
+    private void sendMessage(String sessionId, WebSocketMessage message) {
+        WebSocketSession session = sessions.get(sessionId);
+        if (session == null || !session.isOpen()) {
+            return;
+        }
+        try {
+            session.sendMessage(new TextMessage(objectMapper.writeValueAsString(message)));
+        } catch (IOException e) {
+            log.error("Error sending solver progress to session {}", sessionId, e);
+        } catch (Exception e) {
+            // Buffer overflow or send timeout: the decorator closes the session
+            log.warn("Dropping slow solver progress client {}: {}", sessionId, e.getMessage());
+        }
+    }
+
+    public int getActiveConnections() {
+        return sessions.size();
+    }
+
+    public int getTrackedJobCount() {
+        return trackedJobs.size();
+    }
+
+    public int getSubscribedJobCount() {
+        return subscriptions.size();
+    }
+
+    // Helper classes
+    /**
+     * A running job and what was last sent for it; only touched by the publisher thread
+     * apart from forceNext.
+     */
+    private static class TrackedJob {
+        private final SolveProgress progress;
+        private long lastNodes = -1;
+        private String lastScore;
+        private String lastStage;
+        private long lastSampleAt;
+        private volatile boolean forceNext = true;
+
+        TrackedJob(SolveProgress progress) {
+            this.progress = progress;
+        }
+
+        SolverProgressData sample(Long jobId, long now) {
+            SolveProgress.Snapshot snapshot = progress.snapshot();
+            boolean changed = snapshot.getNodes() != lastNodes || !Objects.equals(snapshot.getBestScore(), lastScore)
+                || !Objects.equals(snapshot.getStage(), lastStage);
+            if (!changed && !forceNext) {
+                return null;
+            }
+
+            long nodesPerSecond = lastNodes >= 0 && now > lastSampleAt
+                ? (snapshot.getNodes() - lastNodes) * 1000 / (now - lastSampleAt)
+                : (snapshot.getElapsedMs() > 0 ? snapshot.getNodes() * 1000 / snapshot.getElapsedMs() : 0);
+
+            lastNodes = snapshot.getNodes();
+            lastScore = snapshot.getBestScore();
+            lastStage = snapshot.getStage();
+            lastSampleAt = now;
+            forceNext = false;
+
+            return SolverProgressData.builder()
+                .jobId(jobId)
+                .stage(snapshot.getStage())
+                .stageNumber(snapshot.getStageNumber())
+                .stageCount(snapshot.getStageCount())
+                .bestScore(snapshot.getBestScore())
+                .hardViolations(snapshot.getHardViolations())
+                .softViolations(snapshot.getSoftViolations())
+                .unassigned(snapshot.getUnassigned())
+                .nodes(snapshot.getNodes())
+                .nodesPerSecond(nodesPerSecond)
+                .elapsedMs(snapshot.getElapsedMs())
+                .etaMs(snapshot.getEtaMs() >= 0 ? snapshot.getEtaMs() : null)
+                .build();
+        }
+    }
+
+    @lombok.Data
+    @lombok.Builder
+    @lombok.NoArgsConstructor
+    @lombok.AllArgsConstructor
+    public static class SolverProgressData {
+        private Long jobId;
+        private String stage;
+        private int stageNumber;
+        private int stageCount;
+        private String bestScore; // null before the first schedule
+        private int hardViolations;
+        private int softViolations;
+        private int unassigned;
+        private long nodes;
+        private long nodesPerSecond;
+        private long elapsedMs;
+        private Long etaMs; // null when a remaining stage has no time budget
+    }
+
+    @lombok.Data
+    @lombok.NoArgsConstructor
+    @lombok.AllArgsConstructor
+    public static class SolveFinishedData {
+        private Long jobId;
+        private String status;
+    }
+}
@@ -0,0 +1,149 @@
+package com.school.scheduling.algorithm;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for BitsetKernels class. The scalar kernels and the kernels {@link BitsetKernels#get()}
+ * loads are both checked bit by bit against a naive reference; under the vector profile the
+ * loaded kernels must be the Vector API ones.
+ */
+class BitsetKernelsTest {
+
+    // Set by the vector profile's surefire configuration to the kernels the build must load
+    private static final String EXPECTED_KERNELS_PROPERTY = "scheduling.bitset.kernels.expected";
+
+    private final BitsetKernels kernels = BitsetKernels.get();
+    private final BitsetKernels scalar = BitsetKernels.scalar();
+
+    @Test
+    @DisplayName("Should load the Vector API kernels when the build asks for them")
+    void shouldLoadExpectedKernels() {
+        if ("vector".equals(System.getProperty(EXPECTED_KERNELS_PROPERTY))) {
+            assertEquals("com.school.scheduling.algorithm.VectorBitsetKernels", kernels.getClass().getName());
+        } else {
+            assertNotNull(kernels);
+        }
+    }
+
+    @Test
+    @DisplayName("Should match a bit-by-bit reference at every length and offset")
+    void shouldMatchReference() {
+        for (BitsetKernels tested : List.of(scalar, kernels)) {
+            Random random = new Random(49);
+            for (int words = 0; words <= 37; words++) {
+                for (int round = 0; round < 20; round++) {
+                    int aOffset = random.nextInt(5);
+                    int bOffset = random.nextInt(5);
+                    long[] a = randomBits(random, aOffset + words + 3);
+                    long[] b = randomBits(random, bOffset + words + 3);
+                    if (round % 4 == 0) {
+                        // Disjoint, and a superset, to reach the early exits
+                        for (int w = 0; w < words; w++) {
+                            b[bOffset + w] &= ~a[aOffset + w];
+                        }
+                    } else if (round % 4 == 1) {
+                        for (int w = 0; w < words; w++) {
+                            a[aOffset + w] |= b[bOffset + w];
+                        }
+                    }
+                    String at = tested.getClass().getSimpleName() + ", " + words + " words at " + aOffset + "/" + bOffset;
+
+                    assertEquals(referenceIntersects(a, aOffset, b, bOffset, words),
+                                 tested.intersects(a, aOffset, b, bOffset, words), at);
+                    assertEquals(referenceContainsAll(a, aOffset, b, bOffset, words),
+                                 tested.containsAll(a, aOffset, b, bOffset, words), at);
+                    assertEquals(referenceBitCount(a, aOffset, words), tested.bitCount(a, aOffset, words), at);
+
+                    long[] actual = a.clone();
+                    tested.or(actual, aOffset, b, bOffset, words);
+                    assertArrayEquals(referenceOr(a, aOffset, b, bOffset, words), actual, at);
+
+                    long[] removed = actual.clone();
+                    tested.andNot(removed, aOffset, b, bOffset, words);
+                    assertArrayEquals(referenceAndNot(actual, aOffset, b, bOffset, words), removed, at);
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should compute the scalar kernels word by word")
+    void shouldComputeScalarKernels() {
+        long[] a = {0b1011L, -1L, 0L};
+        long[] b = {0L, 0b0100L, 1L << 63, 0b0001L};
+
+        assertFalse(scalar.intersects(a, 0, b, 0, 1));
+        assertTrue(scalar.intersects(a, 0, b, 0, 2));
+        assertTrue(scalar.intersects(a, 0, b, 3, 1), "Offsets shift the words compared");
+        assertTrue(scalar.containsAll(a, 0, b, 0, 2));
+        assertFalse(scalar.containsAll(a, 0, b, 0, 3));
+        assertEquals(3 + 64, scalar.bitCount(a, 0, 3));
+
+        scalar.andNot(a, 0, b, 3, 1);
+        assertEquals(0b1010L, a[0]);
+        scalar.or(a, 2, b, 2, 1);
+        assertEquals(1L << 63, a[2]);
+    }
+
+    // Reference kernels, one bit at a time
+
+    private static boolean bit(long[] bits, int offset, int index) {
+        return (bits[offset + (index >>> 6)] >>> (index & 63) & 1L) != 0;
+    }
+
+    private static boolean referenceIntersects(long[] a, int aOffset, long[] b, int bOffset, int words) {
+        for (int i = 0; i < words * 64; i++) {
+            if (bit(a, aOffset, i) && bit(b, bOffset, i)) return true;
+        }
+        return false;
+    }
+
+    private static boolean referenceContainsAll(long[] a, int aOffset, long[] b, int bOffset, int words) {
+        for (int i = 0; i < words * 64; i++) {
+            if (bit(b, bOffset, i) && !bit(a, aOffset, i)) return false;
+        }
+        return true;
+    }
+
+    private static int referenceBitCount(long[] a, int offset, int words) {
+        int count = 0;
+        for (int i = 0; i < words * 64; i++) {
+            if (bit(a, offset, i)) count++;
+        }
+        return count;
+    }
+
+    private static long[] referenceOr(long[] target, int targetOffset, long[] source, int sourceOffset, int words) {
+        long[] result = target.clone();
+        for (int i = 0; i < words * 64; i++) {
+            if (bit(source, sourceOffset, i)) {
+                result[targetOffset + (i >>> 6)] |= 1L << (i & 63);
+            }
+        }
+        return result;
+    }
+
+    private static long[] referenceAndNot(long[] target, int targetOffset, long[] source, int sourceOffset, int words) {
+        long[] result = target.clone();
+        for (int i = 0; i < words * 64; i++) {
+            if (bit(source, sourceOffset, i)) {
+                result[targetOffset + (i >>> 6)] &= ~(1L << (i & 63));
+            }
+        }
+        return result;
+    }
+
+    private static long[] randomBits(Random random, int length) {
+        long[] bits = new long[length];
+        for (int w = 0; w < length; w++) {
+            // Sparse words make clashes and subsets likely enough to matter
+            bits[w] = random.nextLong() & random.nextLong() & random.nextLong();
+        }
+        return bits;
+    }
+}
@@ -141,6 +141,39 @@ class ConstraintSatisfactionProblemTest {
         assertNotNull(csp.getPerformanceSummary(), "Should provide performance summary");
     }
 
+    @Test
+    @DisplayName("Should stop when the node budget is spent")
+    void shouldStopWhenNodeBudgetIsSpent() {
+        // Five offerings pairwise apart in four slots: unsatisfiable, and far more than five nodes to prove it
+        Set<SchedulingVariable> crowded = new HashSet<>();
+        Map<SchedulingVariable, List<SchedulingValue>> slots = new HashMap<>();
+        for (int i = 1; i <= 5; i++) {
+            SchedulingVariable variable = new SchedulingVariable(VariableType.COURSE_SCHEDULING, "crowded_" + i, "Course " + i);
+            crowded.add(variable);
+            List<SchedulingValue> domain = new ArrayList<>();
+            for (int s = 1; s <= 4; s++) {
+                domain.add(new SchedulingValue(ValueType.TIME_SLOT, "slot_" + s, "Slot " + s));
+            }
+            slots.put(variable, domain);
+        }
+
+        ConstraintSatisfactionProblem unbudgetedCsp = new ConstraintSatisfactionProblem(
+            crowded, DifferentValueConstraint.allPairs(crowded), slots);
+        assertFalse(unbudgetedCsp.solve().isPresent());
+        assertTrue(unbudgetedCsp.getNodesExplored() > 5, "The full search needs more than the budget");
+        assertFalse(unbudgetedCsp.isNodeLimitReached());
+
+        ConstraintSatisfactionProblem budgetedCsp = new ConstraintSatisfactionProblem(
+            crowded, DifferentValueConstraint.allPairs(crowded), slots);
+        budgetedCsp.setNodeLimit(5);
+
+        Optional<SchedulingAssignment> solution = budgetedCsp.solve();
+
+        assertFalse(solution.isPresent(), "Should give up without a solution");
+        assertTrue(budgetedCsp.isNodeLimitReached());
+        assertEquals(6, budgetedCsp.getNodesExplored(), "Only the node that finds the budget spent is past it");
+    }
+
     @Test
     @DisplayName("Should handle inconsistent constraints")
     void shouldHandleInconsistentConstraints() {
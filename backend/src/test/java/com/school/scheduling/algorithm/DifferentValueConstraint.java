@@ -0,0 +1,55 @@
+package com.school.scheduling.algorithm;
+
+import com.school.scheduling.domain.constraint.*;
+
+import java.util.*;
+
+/**
+ * Test fixture: a hard constraint keeping two offerings on different values, the pairwise
+ * "no shared slot" constraint the strategy tests build their problems from.
+ */
+public class DifferentValueConstraint extends SchedulingConstraint {
+    private final SchedulingVariable first;
+    private final SchedulingVariable second;
+
+    public DifferentValueConstraint(SchedulingVariable first, SchedulingVariable second) {
+        super("Different Value " + first.getId() + "/" + second.getId(), ConstraintType.CLASSROOM_AVAILABILITY,
+              ConstraintPriority.HARD, "Two offerings may not share a value");
+        this.first = first;
+        this.second = second;
+    }
+
+    /**
+     * One constraint for every pair of the given offerings.
+     */
+    public static Set<SchedulingConstraint> allPairs(Collection<SchedulingVariable> variables) {
+        List<SchedulingVariable> ordered = new ArrayList<>(variables);
+        Set<SchedulingConstraint> constraints = new HashSet<>();
+        for (int i = 0; i < ordered.size(); i++) {
+            for (int j = i + 1; j < ordered.size(); j++) {
+                constraints.add(new DifferentValueConstraint(ordered.get(i), ordered.get(j)));
+            }
+        }
+        return constraints;
+    }
+
+    @Override
+    public ConstraintResult validate(SchedulingAssignment assignment) {
+        SchedulingValue firstValue = assignment.getValue(first);
+        if (firstValue != null && firstValue.equals(assignment.getValue(second))) {
+            return ConstraintResult.violated("Value used twice");
+        }
+        return ConstraintResult.satisfied();
+    }
+
+    @Override
+    public Set<SchedulingVariable> getScope() {
+        return new HashSet<>(Arrays.asList(first, second));
+    }
+
+    @Override
+    public List<SchedulingValue> getValidValues(SchedulingAssignment assignment,
+                                               Map<SchedulingVariable, List<SchedulingValue>> domains) {
+        return new ArrayList<>();
+    }
+}
@@ -0,0 +1,100 @@
+package com.school.scheduling.algorithm;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for PrerequisiteClosureIndex class.
+ */
+class PrerequisiteClosureIndexTest {
+
+    @Test
+    @DisplayName("Should require the whole prerequisite chain and accept completed chains")
+    void shouldTestEligibility() {
+        PrerequisiteClosureIndex<String> index = new PrerequisiteClosureIndex<>();
+        index.addPrerequisite("CALC2", "CALC1");
+        index.addPrerequisite("PHYS2", "CALC2");
+        index.addPrerequisite("PHYS2", "PHYS1");
+
+        PrerequisiteClosureIndex.Closure<String> closure = index.closure();
+        assertEquals(Set.of("CALC1", "CALC2", "PHYS1"), closure.prerequisitesOf("PHYS2"));
+
+        long[] calculus = closure.completedSet(List.of("CALC2"));
+        assertTrue(closure.isEligible("CALC2", calculus), "Calculus I is settled by passing Calculus II");
+        assertFalse(closure.isEligible("PHYS2", calculus));
+        assertEquals(List.of("PHYS1"), closure.missingPrerequisites("PHYS2", calculus));
+
+        long[] both = closure.completedSet(List.of("CALC2", "PHYS1", "HISTORY"));
+        assertTrue(closure.isEligible("PHYS2", both));
+        assertTrue(closure.isEligible("HISTORY", closure.emptySet()), "Courses outside the graph are open");
+        assertFalse(closure.hasPrerequisites("CALC1"));
+    }
+
+    @Test
+    @DisplayName("Should update the closure of dependent courses on writes and reject cycles")
+    void shouldUpdateIncrementally() {
+        PrerequisiteClosureIndex<Long> index = new PrerequisiteClosureIndex<>();
+        index.addPrerequisite(3L, 2L);
+        PrerequisiteClosureIndex.Closure<Long> before = index.closure();
+
+        assertTrue(index.addPrerequisite(2L, 1L));
+        assertFalse(index.addPrerequisite(2L, 1L));
+        assertEquals(Set.of(1L, 2L), index.closure().prerequisitesOf(3L));
+        assertEquals(Set.of(2L), before.prerequisitesOf(3L), "Published views do not change");
+
+        assertThrows(IllegalArgumentException.class, () -> index.addPrerequisite(1L, 3L));
+        assertThrows(IllegalArgumentException.class, () -> index.addPrerequisite(1L, 1L));
+
+        // 1 stays required through 4 after the direct edge from 2 goes
+        index.addPrerequisite(3L, 4L);
+        index.addPrerequisite(4L, 1L);
+        assertTrue(index.removePrerequisite(2L, 1L));
+        assertFalse(index.removePrerequisite(2L, 1L));
+        assertEquals(Set.of(), index.closure().prerequisitesOf(2L));
+        assertEquals(Set.of(1L, 2L, 4L), index.closure().prerequisitesOf(3L));
+    }
+
+    @Test
+    @DisplayName("Should match a from-scratch closure on a large random graph")
+    void shouldMatchReferenceClosure() {
+        int courses = 300;
+        Random random = new Random(11);
+        PrerequisiteClosureIndex<Integer> index = new PrerequisiteClosureIndex<>();
+        Map<Integer, Set<Integer>> edges = new HashMap<>();
+
+        // Edges always point to a lower number, so the graph stays acyclic
+        for (int step = 0; step < 3_000; step++) {
+            int course = 1 + random.nextInt(courses - 1);
+            int prerequisite = random.nextInt(course);
+            if (random.nextInt(4) == 0) {
+                boolean removed = edges.getOrDefault(course, Set.of()).contains(prerequisite);
+                assertEquals(removed, index.removePrerequisite(course, prerequisite));
+                if (removed) edges.get(course).remove(prerequisite);
+            } else {
+                index.addPrerequisite(course, prerequisite);
+                edges.computeIfAbsent(course, c -> new HashSet<>()).add(prerequisite);
+            }
+        }
+
+        PrerequisiteClosureIndex.Closure<Integer> closure = index.closure();
+        for (int course = 0; course < courses; course++) {
+            assertEquals(reach(course, edges), closure.prerequisitesOf(course), "Course " + course);
+        }
+    }
+
+    private static Set<Integer> reach(int course, Map<Integer, Set<Integer>> edges) {
+        Set<Integer> seen = new HashSet<>();
+        Deque<Integer> stack = new ArrayDeque<>(edges.getOrDefault(course, Set.of()));
+        while (!stack.isEmpty()) {
+            int next = stack.pop();
+            if (seen.add(next)) {
+                stack.addAll(edges.getOrDefault(next, Set.of()));
+            }
+        }
+        return seen;
+    }
+}
@@ -0,0 +1,88 @@
+package com.school.scheduling.algorithm;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for WeeklyOccupancy class.
+ */
+class WeeklyOccupancyTest {
+
+    @Test
+    @DisplayName("Should detect clashes by quarter-hour, rounding class times outwards")
+    void shouldDetectClashes() {
+        WeeklyOccupancy week = WeeklyOccupancy.of(DayOfWeek.TUESDAY, time(9, 0), time(10, 0));
+
+        assertTrue(week.intersects(WeeklyOccupancy.of(DayOfWeek.TUESDAY, time(9, 45), time(11, 0))));
+        assertFalse(week.intersects(WeeklyOccupancy.of(DayOfWeek.TUESDAY, time(10, 0), time(11, 0))));
+        assertFalse(week.intersects(WeeklyOccupancy.of(DayOfWeek.WEDNESDAY, time(9, 0), time(10, 0))));
+        assertTrue(week.intersects(WeeklyOccupancy.of(DayOfWeek.TUESDAY, time(9, 55), time(10, 30))),
+                   "09:55 falls in the 09:45 quarter-hour");
+        assertEquals(4, week.slotCount());
+
+        WeeklyOccupancy other = WeeklyOccupancy.of(DayOfWeek.SUNDAY, time(22, 0), time(23, 59));
+        week.addAll(other);
+        assertEquals(12, week.slotCount());
+        week.removeAll(other);
+        assertEquals(WeeklyOccupancy.of(DayOfWeek.TUESDAY, time(9, 0), time(10, 0)), week);
+    }
+
+    @Test
+    @DisplayName("Should measure the longest busy stretch of a day across word boundaries")
+    void shouldMeasureLongestRun() {
+        // Tuesday starts at bit 96, so its day spans the second and third words
+        WeeklyOccupancy week = new WeeklyOccupancy()
+            .add(DayOfWeek.TUESDAY, time(8, 0), time(10, 0))
+            .add(DayOfWeek.TUESDAY, time(10, 0), time(11, 30))
+            .add(DayOfWeek.TUESDAY, time(13, 0), time(14, 0))
+            .add(DayOfWeek.WEDNESDAY, time(0, 0), time(6, 0));
+
+        assertEquals(14, week.longestRun(DayOfWeek.TUESDAY));
+        assertEquals(24, week.longestRun(DayOfWeek.WEDNESDAY));
+        assertEquals(0, week.longestRun(DayOfWeek.MONDAY));
+        assertEquals(96, WeeklyOccupancy.of(DayOfWeek.SUNDAY, time(0, 0), time(23, 59)).longestRun(DayOfWeek.SUNDAY));
+    }
+
+    @Test
+    @DisplayName("Should widen busy stretches for break checks")
+    void shouldWiden() {
+        WeeklyOccupancy week = WeeklyOccupancy.of(DayOfWeek.MONDAY, time(10, 0), time(11, 0));
+        WeeklyOccupancy widened = week.widen(1);
+
+        assertTrue(widened.intersects(WeeklyOccupancy.of(DayOfWeek.MONDAY, time(11, 0), time(12, 0))));
+        assertTrue(widened.intersects(WeeklyOccupancy.of(DayOfWeek.MONDAY, time(9, 0), time(10, 0))));
+        assertFalse(widened.intersects(WeeklyOccupancy.of(DayOfWeek.MONDAY, time(11, 15), time(12, 0))));
+        assertEquals(6, widened.slotCount());
+        assertEquals(4, week.slotCount(), "Widening returns a new mask");
+
+        // Shifts crossing a word boundary
+        WeeklyOccupancy tuesday = WeeklyOccupancy.of(DayOfWeek.TUESDAY, time(0, 0), time(0, 15));
+        assertEquals(1 + 2 * 70, tuesday.widen(70).slotCount());
+    }
+
+    @Test
+    @DisplayName("Should keep flat tables of many weeks compact")
+    void shouldWorkOnFlatTables() {
+        int owners = 20_000;
+        long[] table = new long[owners * WeeklyOccupancy.WORDS];
+        assertTrue(table.length * Long.BYTES < 2_000_000);
+
+        WeeklyOccupancy lecture = WeeklyOccupancy.of(DayOfWeek.FRIDAY, time(14, 0), time(15, 30));
+        int offset = 12_345 * WeeklyOccupancy.WORDS;
+        WeeklyOccupancy.or(table, offset, lecture);
+
+        assertTrue(WeeklyOccupancy.intersects(table, offset, lecture));
+        assertFalse(WeeklyOccupancy.intersects(table, offset + WeeklyOccupancy.WORDS, lecture));
+        assertEquals(6, WeeklyOccupancy.longestRun(table, offset, DayOfWeek.FRIDAY));
+        assertEquals(7, WeeklyOccupancy.slotsFor(91));
+    }
+
+    private static LocalTime time(int hour, int minute) {
+        return LocalTime.of(hour, minute);
+    }
+}
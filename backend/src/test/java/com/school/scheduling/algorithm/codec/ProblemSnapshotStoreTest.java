@@ -0,0 +1,92 @@
+package com.school.scheduling.algorithm.codec;
+
+import com.school.scheduling.algorithm.ConstraintSatisfactionProblem;
+import com.school.scheduling.domain.constraint.*;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ProblemSnapshotStore class.
+ */
+class ProblemSnapshotStoreTest {
+
+    @Test
+    @DisplayName("Should reopen a saved problem for the same data version only, keeping one version per semester")
+    void shouldKeepOneVersionPerSemester(@TempDir Path directory) throws Exception {
+        ProblemSnapshotStore store = new ProblemSnapshotStore(directory.resolve("problems"), "1");
+        ConstraintSatisfactionProblem csp = problem(5);
+
+        assertTrue(store.load(1L, "v1").isEmpty());
+        store.save(1L, "v1", csp);
+        store.save(2L, "v1", problem(2));
+        assertNull(store.getLastError());
+
+        ConstraintSatisfactionProblem loaded = store.load(1L, "v1").orElseThrow();
+        assertEquals(csp.getVariables(), loaded.getVariables());
+        for (SchedulingVariable variable : csp.getVariables()) {
+            assertEquals(csp.getDomains().get(variable), loaded.getDomains().get(variable));
+        }
+        assertEquals(csp.getVariables(), ProblemSnapshotStore.read(store.pathOf(1L, "v1")).getVariables(),
+                     "Other processes open the file by path");
+        assertTrue(store.load(1L, "v2").isEmpty(), "Changed data is rebuilt");
+
+        store.save(1L, "v2", problem(6));
+        assertFalse(Files.exists(store.pathOf(1L, "v1")), "The older version of the semester is removed");
+        assertEquals(6, store.load(1L, "v2").orElseThrow().getVariables().size());
+        assertEquals(2, store.load(2L, "v1").orElseThrow().getVariables().size(), "Other semesters are kept");
+        try (var files = Files.list(store.getDirectory())) {
+            assertEquals(2, files.count(), "No temporary files are left behind");
+        }
+    }
+
+    @Test
+    @DisplayName("Should treat a damaged file as missing")
+    void shouldIgnoreDamagedFile(@TempDir Path directory) throws Exception {
+        ProblemSnapshotStore store = new ProblemSnapshotStore(directory, "1");
+        store.save(1L, "v1", problem(3));
+        Path path = store.pathOf(1L, "v1");
+        byte[] bytes = Files.readAllBytes(path);
+        Files.write(path, Arrays.copyOf(bytes, bytes.length / 2));
+
+        assertTrue(store.load(1L, "v1").isEmpty());
+        assertNotNull(store.getLastError());
+
+        store.save(1L, "v1", problem(3));
+        assertEquals(3, store.load(1L, "v1").orElseThrow().getVariables().size());
+    }
+
+    @Test
+    @DisplayName("Should not reopen a problem saved by another problem builder")
+    void shouldKeyByBuilderVersion(@TempDir Path directory) {
+        ProblemSnapshotStore store = new ProblemSnapshotStore(directory, "1");
+        store.save(1L, "v1", problem(3));
+
+        ProblemSnapshotStore rebuilt = new ProblemSnapshotStore(directory, "2");
+        assertNotEquals(store.pathOf(1L, "v1"), rebuilt.pathOf(1L, "v1"));
+        assertTrue(rebuilt.load(1L, "v1").isEmpty(), "Unchanged data is rebuilt by a new builder");
+        assertEquals(3, store.load(1L, "v1").orElseThrow().getVariables().size());
+    }
+
+    private static ConstraintSatisfactionProblem problem(int offerings) {
+        Map<SchedulingVariable, List<SchedulingValue>> domains = new HashMap<>();
+        for (int i = 1; i <= offerings; i++) {
+            List<SchedulingValue> domain = new ArrayList<>();
+            for (long t = 1; t <= 3; t++) {
+                domain.add(new SchedulingValue(ValueType.TEACHER, t, "Teacher " + t, 0.25 * t));
+            }
+            for (long s = 1; s <= 4; s++) {
+                domain.add(new SchedulingValue(ValueType.TIME_SLOT, s, "Slot " + s));
+            }
+            domains.put(new SchedulingVariable(VariableType.COURSE_SCHEDULING, String.valueOf(i), "CS" + (100 + i)), domain);
+        }
+        return new ConstraintSatisfactionProblem(new HashSet<>(domains.keySet()), new HashSet<>(), domains);
+    }
+}
@@ -0,0 +1,256 @@
+package com.school.scheduling.algorithm.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.school.scheduling.algorithm.ConstraintSatisfactionProblem;
+import com.school.scheduling.algorithm.DifferentValueConstraint;
+import com.school.scheduling.algorithm.constraint.StudentScheduleConflictConstraint;
+import com.school.scheduling.algorithm.strategy.GenomeEncoding;
+import com.school.scheduling.domain.constraint.*;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SchedulingCodec class.
+ */
+class SchedulingCodecTest {
+
+    @Test
+    @DisplayName("Should round-trip a problem with its domains and constraints")
+    void shouldRoundTripProblem() {
+        ConstraintSatisfactionProblem csp = offeringProblem(30, 20, 8, 10);
+
+        byte[] encoded = SchedulingCodec.encodeProblem(csp);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(encoded.length + 3);
+        buffer.put(encoded).put(new byte[] {1, 2, 3}).flip();
+        ConstraintSatisfactionProblem decoded = SchedulingCodec.decodeProblem(buffer);
+
+        assertEquals(3, buffer.remaining(), "Decoding stops at the end of the record");
+        assertEquals(csp.getVariables(), decoded.getVariables());
+        assertEquals(csp.getConstraints().size(), decoded.getConstraints().size());
+        for (SchedulingVariable variable : csp.getVariables()) {
+            SchedulingVariable copy = decoded.getVariables().stream()
+                .filter(v -> v.getId().equals(variable.getId())).findFirst().orElseThrow();
+            assertEquals(variable.getEntityId(), copy.getEntityId());
+            assertEquals(variable.getDisplayName(), copy.getDisplayName());
+
+            List<SchedulingValue> expected = csp.getDomains().get(variable);
+            List<SchedulingValue> actual = decoded.getDomains().get(copy);
+            assertEquals(expected, actual, "Domain order is preserved");
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals(expected.get(i).getType(), actual.get(i).getType());
+                assertEquals(expected.get(i).getDisplayName(), actual.get(i).getDisplayName());
+                assertEquals(expected.get(i).getPreferenceScore(), actual.get(i).getPreferenceScore());
+            }
+        }
+        assertEquals(SchedulingCodec.fingerprint(new GenomeEncoding(csp)),
+                     SchedulingCodec.fingerprint(new GenomeEncoding(decoded)));
+    }
+
+    @Test
+    @DisplayName("Should round-trip a student constraint with its prerequisite closure")
+    void shouldRoundTripStudentConstraint() {
+        ConstraintSatisfactionProblem offerings = offeringProblem(3, 2, 1, 1);
+        var student = new StudentScheduleConflictConstraint.StudentInfo(
+            7L, Set.of("CS100"), Map.of("CS100", "B"), 18, 0);
+        var timetable = new StudentScheduleConflictConstraint.Timetable(Map.of(
+            "CS200", new StudentScheduleConflictConstraint.CoursePrerequisites("CS200", Set.of("CS100"), Map.of())))
+            .addTimeSlot(1L, java.time.DayOfWeek.MONDAY, java.time.LocalTime.of(9, 0), java.time.LocalTime.of(10, 30))
+            .addTimeSlot(2L, java.time.DayOfWeek.MONDAY, java.time.LocalTime.of(10, 0), java.time.LocalTime.of(11, 0));
+        ConstraintSatisfactionProblem csp = new ConstraintSatisfactionProblem(
+            offerings.getVariables(),
+            Set.of(new StudentScheduleConflictConstraint(student, offerings.getVariables(), timetable,
+                                                         StudentScheduleConflictConstraint.Checks.CLASHES, 4, 10)),
+            offerings.getDomains());
+
+        ConstraintSatisfactionProblem decoded = SchedulingCodec.decodeProblem(
+            ByteBuffer.wrap(SchedulingCodec.encodeProblem(csp)));
+
+        SchedulingConstraint constraint = decoded.getConstraints().iterator().next();
+        assertInstanceOf(StudentScheduleConflictConstraint.class, constraint);
+        assertEquals(decoded.getVariables(), constraint.getScope());
+        assertTrue(constraint.validate(new SchedulingAssignment()).isSatisfied());
+
+        SchedulingAssignment overlapping = new SchedulingAssignment();
+        Iterator<SchedulingVariable> variables = decoded.getVariables().iterator();
+        overlapping.assign(variables.next(), new SchedulingValue(ValueType.TIME_SLOT, 1L, "Slot 1"));
+        overlapping.assign(variables.next(), new SchedulingValue(ValueType.TIME_SLOT, 2L, "Slot 2"));
+        assertFalse(constraint.validate(overlapping).isSatisfied(), "The decoded timetable still has the slot times");
+    }
+
+    @Test
+    @DisplayName("Should round-trip assignments and deltas between them")
+    void shouldRoundTripAssignmentsAndDeltas() {
+        ConstraintSatisfactionProblem csp = offeringProblem(40, 20, 8, 10);
+        GenomeEncoding encoding = new GenomeEncoding(csp);
+        Random random = new Random(7);
+        int[] genome = encoding.newGenome();
+        encoding.randomize(genome, random);
+        genome[3] = GenomeEncoding.UNASSIGNED;
+        SchedulingAssignment base = encoding.decode(genome);
+
+        SchedulingAssignment decoded = SchedulingCodec.decodeAssignment(
+            encoding, ByteBuffer.wrap(SchedulingCodec.encodeAssignment(encoding, base)));
+        assertArrayEquals(genome, encoding.encode(decoded));
+
+        int[] changed = genome.clone();
+        changed[0] = (changed[0] + 1) % encoding.domainSize(0);
+        changed[3] = 2;
+        changed[17] = GenomeEncoding.UNASSIGNED;
+        byte[] delta = SchedulingCodec.encodeDelta(encoding, base, encoding.decode(changed));
+        SchedulingAssignment applied = SchedulingCodec.applyDelta(encoding, base, ByteBuffer.wrap(delta));
+
+        assertArrayEquals(changed, encoding.encode(applied));
+        assertTrue(delta.length < 32, "Three changed genes fit in a few bytes, was " + delta.length);
+    }
+
+    @Test
+    @DisplayName("Should round-trip raw genomes including null")
+    void shouldRoundTripGenomes() {
+        int[] genome = {0, -1, 5, 300, 127, 128};
+        assertArrayEquals(genome, SchedulingCodec.decodeGenome(ByteBuffer.wrap(SchedulingCodec.encodeGenome(genome))));
+        assertNull(SchedulingCodec.decodeGenome(ByteBuffer.wrap(SchedulingCodec.encodeGenome(null))));
+    }
+
+    @Test
+    @DisplayName("Should reject records for another problem, of another kind or cut short")
+    void shouldRejectMismatchedRecords() {
+        GenomeEncoding encoding = new GenomeEncoding(offeringProblem(10, 6, 3, 4));
+        GenomeEncoding other = new GenomeEncoding(offeringProblem(11, 6, 3, 4));
+        int[] genome = encoding.newGenome();
+        encoding.randomize(genome, new Random(1));
+        byte[] assignment = SchedulingCodec.encodeAssignment(encoding, encoding.decode(genome));
+
+        assertThrows(IllegalArgumentException.class,
+                     () -> SchedulingCodec.decodeAssignment(other, ByteBuffer.wrap(assignment)));
+        assertThrows(IllegalArgumentException.class,
+                     () -> SchedulingCodec.decodeGenome(ByteBuffer.wrap(assignment)));
+        assertThrows(IllegalArgumentException.class,
+                     () -> SchedulingCodec.decodeAssignment(encoding,
+                         ByteBuffer.wrap(Arrays.copyOf(assignment, assignment.length - 2))));
+
+        byte[] problem = SchedulingCodec.encodeProblem(offeringProblem(10, 6, 3, 4));
+        assertThrows(IllegalArgumentException.class,
+                     () -> SchedulingCodec.decodeProblem(ByteBuffer.wrap(Arrays.copyOf(problem, problem.length / 2))));
+    }
+
+    @Test
+    @DisplayName("Should refuse constraint sections with foreign classes or runaway nesting")
+    void shouldRejectUnsafeConstraintSections() throws Exception {
+        List<Object> nested = new ArrayList<>();
+        List<Object> innermost = nested;
+        for (int i = 0; i < SchedulingCodec.MAX_CONSTRAINT_DEPTH + 8; i++) {
+            List<Object> next = new ArrayList<>();
+            innermost.add(next);
+            innermost = next;
+        }
+
+        assertThrows(IllegalArgumentException.class,
+                     () -> SchedulingCodec.decodeProblem(ByteBuffer.wrap(problemWithConstraints(nested))));
+        assertThrows(IllegalArgumentException.class,
+                     () -> SchedulingCodec.decodeProblem(ByteBuffer.wrap(
+                         problemWithConstraints(new ArrayList<>(List.of(new File("x")))))));
+        assertTrue(SchedulingCodec.decodeProblem(ByteBuffer.wrap(problemWithConstraints(new ArrayList<>())))
+                       .getConstraints().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should be smaller than JSON and Java serialization")
+    void shouldBeSmallerThanJsonAndJavaSerialization() throws Exception {
+        ConstraintSatisfactionProblem csp = offeringProblem(300, 40, 30, 40);
+        ObjectMapper mapper = new ObjectMapper();
+
+        List<Map<String, Object>> variables = new ArrayList<>();
+        for (Map.Entry<SchedulingVariable, List<SchedulingValue>> entry : csp.getDomains().entrySet()) {
+            List<Map<String, Object>> domain = new ArrayList<>();
+            for (SchedulingValue value : entry.getValue()) {
+                domain.add(Map.of("id", value.getId(), "type", value.getType().name(), "value", value.getValue(),
+                                  "displayName", value.getDisplayName(), "preferenceScore", value.getPreferenceScore()));
+            }
+            variables.add(Map.of("id", entry.getKey().getId(), "type", entry.getKey().getType().name(),
+                                 "entityId", entry.getKey().getEntityId(),
+                                 "displayName", entry.getKey().getDisplayName(), "domain", domain));
+        }
+        byte[] json = mapper.writeValueAsBytes(variables);
+
+        ByteArrayOutputStream serialized = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(serialized)) {
+            out.writeObject(new HashMap<>(csp.getDomains()));
+            out.writeObject(new ArrayList<>(csp.getConstraints()));
+        }
+
+        byte[] codec = SchedulingCodec.encodeProblem(csp);
+        assertTrue(codec.length < json.length, "Codec " + codec.length + " bytes, JSON " + json.length);
+        assertTrue(codec.length < serialized.size(), "Codec " + codec.length + " bytes, Java " + serialized.size());
+
+        GenomeEncoding encoding = new GenomeEncoding(csp);
+        int[] genome = encoding.newGenome();
+        encoding.randomize(genome, new Random(3));
+        SchedulingAssignment assignment = encoding.decode(genome);
+        Map<String, String> assignmentJson = new HashMap<>();
+        assignment.getAssignments().forEach((variable, value) -> assignmentJson.put(variable.getId(), value.getId()));
+        byte[] assignmentBytes = SchedulingCodec.encodeAssignment(encoding, assignment);
+        int assignmentJsonBytes = mapper.writeValueAsBytes(assignmentJson).length;
+        assertTrue(assignmentBytes.length < assignmentJsonBytes,
+                   "Codec " + assignmentBytes.length + " bytes, JSON " + assignmentJsonBytes);
+    }
+
+    /**
+     * A problem record without variables whose constraint section is the given object, serialized.
+     */
+    private static byte[] problemWithConstraints(Object constraints) throws Exception {
+        ByteArrayOutputStream serialized = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(serialized)) {
+            out.writeObject(constraints);
+        }
+        ByteSink record = new ByteSink(serialized.size() + 16);
+        record.putInt(SchedulingCodec.MAGIC);
+        record.putByte(SchedulingCodec.VERSION);
+        record.putByte(SchedulingCodec.RecordKind.PROBLEM.ordinal());
+        record.putVarInt(0);
+        record.putVarInt(0);
+        record.putVarInt(0);
+        record.putVarInt(serialized.size());
+        record.putBytes(serialized.toByteArray(), 0, serialized.size());
+        return record.toByteArray();
+    }
+
+    /**
+     * Offerings with a TEACHER/CLASSROOM/TIME_SLOT domain of database ids, like the loaded problem.
+     */
+    private ConstraintSatisfactionProblem offeringProblem(int offerings, int slots, int teachers, int rooms) {
+        Set<SchedulingVariable> variables = new HashSet<>();
+        Map<SchedulingVariable, List<SchedulingValue>> domains = new HashMap<>();
+        for (int i = 1; i <= offerings; i++) {
+            SchedulingVariable variable = new SchedulingVariable(VariableType.COURSE_SCHEDULING,
+                                                                 String.valueOf(i), "CS" + (100 + i) + "-01");
+            variables.add(variable);
+            List<SchedulingValue> domain = new ArrayList<>();
+            for (long t = 1; t <= teachers; t++) {
+                domain.add(new SchedulingValue(ValueType.TEACHER, t, "Teacher " + t, (i + t) % 3 == 0 ? 0.8 : 0.0));
+            }
+            for (long r = 1; r <= rooms; r++) {
+                domain.add(new SchedulingValue(ValueType.CLASSROOM, 1000 + r, "Room " + r));
+            }
+            for (long s = 1; s <= slots; s++) {
+                domain.add(new SchedulingValue(ValueType.TIME_SLOT, s, "Slot " + s, 0.5));
+            }
+            domains.put(variable, domain);
+        }
+
+        Set<SchedulingConstraint> constraints = new HashSet<>();
+        List<SchedulingVariable> ordered = new ArrayList<>(variables);
+        for (int i = 0; i + 1 < ordered.size(); i += 2) {
+            constraints.add(new DifferentValueConstraint(ordered.get(i), ordered.get(i + 1)));
+        }
+        return new ConstraintSatisfactionProblem(variables, constraints, domains);
+    }
+}
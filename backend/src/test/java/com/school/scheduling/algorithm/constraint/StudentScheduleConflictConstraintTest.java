@@ -0,0 +1,188 @@
+package com.school.scheduling.algorithm.constraint;
+
+import com.school.scheduling.algorithm.ConstraintSatisfactionProblem;
+import com.school.scheduling.algorithm.strategy.LocalSearchStrategy;
+import com.school.scheduling.domain.constraint.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for StudentScheduleConflictConstraint class.
+ */
+class StudentScheduleConflictConstraintTest {
+
+    private SchedulingVariable intro;
+    private SchedulingVariable advanced;
+    private SchedulingVariable other;
+    private StudentScheduleConflictConstraint.Timetable timetable;
+
+    @BeforeEach
+    void setUp() {
+        intro = new SchedulingVariable(VariableType.COURSE_SCHEDULING, "1", "CS100-01");
+        advanced = new SchedulingVariable(VariableType.COURSE_SCHEDULING, "2", "CS200-01");
+        other = new SchedulingVariable(VariableType.COURSE_SCHEDULING, "3", "MA100-01");
+
+        // CS200 requires CS100; slots 10 and 11 overlap, 12 follows 10 without a break
+        timetable = new StudentScheduleConflictConstraint.Timetable(Map.of(
+                "CS200", new StudentScheduleConflictConstraint.CoursePrerequisites("CS200", Set.of("CS100"), Map.of())))
+            .addOffering("1", "CS100", 3)
+            .addOffering("2", "CS200", 4)
+            .addOffering("3", "MA100", 3)
+            .addTimeSlot(10L, DayOfWeek.MONDAY, LocalTime.of(9, 0), LocalTime.of(10, 30))
+            .addTimeSlot(11L, DayOfWeek.MONDAY, LocalTime.of(10, 0), LocalTime.of(11, 0))
+            .addTimeSlot(12L, DayOfWeek.MONDAY, LocalTime.of(10, 30), LocalTime.of(12, 0))
+            .addTimeSlot(13L, DayOfWeek.TUESDAY, LocalTime.of(9, 0), LocalTime.of(10, 30));
+    }
+
+    @Test
+    @DisplayName("Should scope a student's constraint to the offerings they attend")
+    void shouldScopeToAttendedOfferings() {
+        StudentScheduleConflictConstraint constraint = constraint(student(Set.of(), 18),
+                                                                  StudentScheduleConflictConstraint.Checks.CLASHES);
+
+        assertEquals(Set.of(intro, other), constraint.getScope());
+        assertEquals("Student Schedule Conflict Constraint: Student 7", constraint.getName());
+        assertTrue(constraint.isHardConstraint());
+    }
+
+    @Test
+    @DisplayName("Should report attended offerings placed at overlapping times")
+    void shouldReportClash() {
+        StudentScheduleConflictConstraint constraint = constraint(student(Set.of(), 18),
+                                                                  StudentScheduleConflictConstraint.Checks.CLASHES);
+
+        ConstraintResult result = constraint.validate(assignment(intro, 10L, other, 11L));
+
+        assertFalse(result.isSatisfied());
+        assertTrue(result.getMessage().contains("Student 7 has time conflict"));
+        assertTrue(constraint.validate(assignment(intro, 10L, other, 13L)).isSatisfied());
+    }
+
+    @Test
+    @DisplayName("Should ignore offerings the student does not attend")
+    void shouldIgnoreOtherOfferings() {
+        StudentScheduleConflictConstraint constraint = constraint(student(Set.of(), 18),
+                                                                  StudentScheduleConflictConstraint.Checks.CLASHES);
+
+        assertTrue(constraint.validate(assignment(intro, 10L, advanced, 11L)).isSatisfied());
+    }
+
+    @Test
+    @DisplayName("Should report a missing prerequisite of a scheduled offering")
+    void shouldReportMissingPrerequisite() {
+        StudentScheduleConflictConstraint constraint = new StudentScheduleConflictConstraint(
+            student(Set.of(), 18), List.of(advanced), timetable, StudentScheduleConflictConstraint.Checks.WORKLOAD, 4, 10);
+
+        ConstraintResult result = constraint.validate(assignment(advanced, 13L));
+
+        assertFalse(result.isSatisfied());
+        assertTrue(result.getMessage().contains("missing prerequisite CS100 for course CS200"));
+        assertEquals(ConstraintPriority.MEDIUM, constraint.getPriority());
+
+        StudentScheduleConflictConstraint eligible = new StudentScheduleConflictConstraint(
+            student(Set.of("CS100"), 18), List.of(advanced), timetable, StudentScheduleConflictConstraint.Checks.WORKLOAD, 4, 10);
+        assertTrue(eligible.validate(assignment(advanced, 13L)).isSatisfied());
+    }
+
+    @Test
+    @DisplayName("Should report a credit load above the student's limit")
+    void shouldReportCreditOverload() {
+        StudentScheduleConflictConstraint constraint = constraint(student(Set.of(), 5),
+                                                                  StudentScheduleConflictConstraint.Checks.WORKLOAD);
+
+        assertTrue(constraint.validate(assignment(intro, 10L)).isSatisfied());
+        ConstraintResult result = constraint.validate(assignment(intro, 10L, other, 13L));
+        assertFalse(result.isSatisfied());
+        assertTrue(result.getMessage().contains("exceeds maximum credit load: 6.0 > 5.0"));
+    }
+
+    @Test
+    @DisplayName("Should report back-to-back classes without the minimum break")
+    void shouldReportMissingBreak() {
+        StudentScheduleConflictConstraint constraint = constraint(student(Set.of(), 18),
+                                                                  StudentScheduleConflictConstraint.Checks.WORKLOAD);
+
+        ConstraintResult result = constraint.validate(assignment(intro, 10L, other, 12L));
+
+        assertFalse(result.isSatisfied());
+        assertTrue(result.getMessage().contains("Insufficient break time for student 7"));
+    }
+
+    @Test
+    @DisplayName("Should leave out time slots overlapping the student's other classes")
+    void shouldFilterClashingSlots() {
+        StudentScheduleConflictConstraint constraint = constraint(student(Set.of(), 18),
+                                                                  StudentScheduleConflictConstraint.Checks.CLASHES);
+        List<SchedulingValue> slots = List.of(slot(10L), slot(11L), slot(12L), slot(13L));
+
+        List<SchedulingValue> valid = constraint.getValidValues(assignment(intro, 10L), Map.of(other, slots));
+
+        assertEquals(List.of(slot(12L), slot(13L)), valid, "Back-to-back is no clash; only the overlapping slots go");
+        assertEquals(slots, constraint.getValidValues(assignment(intro, 10L), Map.of(advanced, slots)));
+    }
+
+    @Test
+    @DisplayName("Should keep a solve's classes for one student apart")
+    void shouldSolveAroundStudentClash() {
+        Set<SchedulingConstraint> constraints = Set.of(
+            constraint(student(Set.of(), 18), StudentScheduleConflictConstraint.Checks.CLASHES),
+            constraint(student(Set.of(), 18), StudentScheduleConflictConstraint.Checks.WORKLOAD));
+        ConstraintSatisfactionProblem csp = new ConstraintSatisfactionProblem(
+            Set.of(intro, other), constraints,
+            Map.of(intro, List.of(slot(10L), slot(11L)), other, List.of(slot(11L), slot(12L), slot(13L))));
+
+        SchedulingAssignment solution = new LocalSearchStrategy().solve(csp).orElseThrow();
+
+        for (SchedulingConstraint constraint : constraints) {
+            assertTrue(constraint.validate(solution).isSatisfied(), constraint.getName() + " on " + solution.getAssignments());
+        }
+    }
+
+    @Test
+    @DisplayName("Should report the clash a solve cannot avoid")
+    void shouldReportUnavoidableClash() {
+        StudentScheduleConflictConstraint clashes = constraint(student(Set.of(), 18),
+                                                               StudentScheduleConflictConstraint.Checks.CLASHES);
+        ConstraintSatisfactionProblem csp = new ConstraintSatisfactionProblem(
+            Set.of(intro, other), Set.of(clashes),
+            Map.of(intro, List.of(slot(10L)), other, List.of(slot(10L), slot(11L))));
+
+        SchedulingAssignment solution = new LocalSearchStrategy().solve(csp).orElseThrow();
+
+        assertTrue(solution.isComplete(Set.of(intro, other)));
+        ConstraintResult result = clashes.validate(solution);
+        assertFalse(result.isSatisfied());
+        assertTrue(result.getMessage().startsWith("Student 7 has time conflict on MONDAY"), result.getMessage());
+    }
+
+    private StudentScheduleConflictConstraint constraint(StudentScheduleConflictConstraint.StudentInfo student,
+                                                         StudentScheduleConflictConstraint.Checks checks) {
+        return new StudentScheduleConflictConstraint(student, List.of(intro, other), timetable, checks, 4, 10);
+    }
+
+    private static StudentScheduleConflictConstraint.StudentInfo student(Set<String> passed, double maxCredits) {
+        Map<String, String> grades = new HashMap<>();
+        passed.forEach(course -> grades.put(course, "B"));
+        return new StudentScheduleConflictConstraint.StudentInfo(7L, passed, grades, maxCredits, 0);
+    }
+
+    private static SchedulingAssignment assignment(Object... placements) {
+        SchedulingAssignment assignment = new SchedulingAssignment();
+        for (int i = 0; i < placements.length; i += 2) {
+            assignment.assign((SchedulingVariable) placements[i], slot((Long) placements[i + 1]));
+        }
+        return assignment;
+    }
+
+    private static SchedulingValue slot(Long id) {
+        return new SchedulingValue(ValueType.TIME_SLOT, id, "Slot " + id);
+    }
+}
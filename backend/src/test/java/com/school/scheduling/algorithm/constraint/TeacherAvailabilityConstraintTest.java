@@ -114,6 +114,33 @@ class TeacherAvailabilityConstraintTest {
                    "Error message should mention consecutive hours");
     }
 
+    @Test
+    @DisplayName("Should count consecutive hours on exact times, not on the quarter-hours a class touches")
+    void shouldConfirmConsecutiveHoursOnExactTimes() {
+        TeacherAvailabilityConstraint strictConstraint = new TeacherAvailabilityConstraint(
+            teacherAvailabilities, 2, 10
+        );
+
+        // 09:05-10:05 and 10:05-11:05 touch 09:00-11:15, but are two hours back to back
+        assertTrue(strictConstraint.checkConsecutiveClasses(Arrays.asList(
+            scheduledClass("course_101", LocalTime.of(9, 5), LocalTime.of(10, 5)),
+            scheduledClass("course_102", LocalTime.of(10, 5), LocalTime.of(11, 5))
+        )).isSatisfied());
+
+        // Five minutes apart fill one quarter-hour run, but the second class does not follow on
+        assertTrue(strictConstraint.checkConsecutiveClasses(Arrays.asList(
+            scheduledClass("course_101", LocalTime.of(9, 0), LocalTime.of(10, 30)),
+            scheduledClass("course_102", LocalTime.of(10, 35), LocalTime.of(12, 0))
+        )).isSatisfied());
+
+        ConstraintResult result = strictConstraint.checkConsecutiveClasses(Arrays.asList(
+            scheduledClass("course_101", LocalTime.of(9, 0), LocalTime.of(10, 30)),
+            scheduledClass("course_102", LocalTime.of(10, 30), LocalTime.of(11, 5))
+        ));
+        assertFalse(result.isSatisfied());
+        assertTrue(result.getMessage().contains("2.1 consecutive hours"), result.getMessage());
+    }
+
     @Test
     @DisplayName("Should detect insufficient break time")
     void shouldDetectInsufficientBreakTime() {
@@ -264,4 +291,12 @@ class TeacherAvailabilityConstraintTest {
         assignment.addMetadata("teacher_1_schedules", tightSchedule);
         return assignment;
     }
-}
\ No newline at end of file
+
+    private static TeacherAvailabilityConstraint.ScheduledClass scheduledClass(String courseOfferingId,
+                                                                               LocalTime start, LocalTime end) {
+        return new TeacherAvailabilityConstraint.ScheduledClass(
+            courseOfferingId, 1L, "room_101", DayOfWeek.MONDAY, start, end,
+            java.time.Duration.between(start, end).toMinutes() / 60.0
+        );
+    }
+}
@@ -0,0 +1,126 @@
+package com.school.scheduling.algorithm.optimization;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for RoomMatcher class.
+ */
+class RoomMatcherTest {
+
+    private static final int LAB = 0;
+    private static final int HALL = 1;
+    private static final int SEMINAR = 2;
+
+    @Test
+    @DisplayName("Should room every class when possible and keep preferred rooms otherwise")
+    void shouldMatchConcurrentClasses() {
+        RoomMatcher matcher = new RoomMatcher(3, new int[][] {
+            {LAB, HALL},      // Prefers the lab, but can move to the hall
+            {LAB},            // Lab course
+            {SEMINAR, HALL}   // Small class
+        });
+
+        assertArrayEquals(new int[] {HALL, LAB, SEMINAR}, matcher.match(new int[] {0, 1, 2}));
+        assertArrayEquals(new int[] {LAB, SEMINAR}, matcher.match(new int[] {0, 2}), "Nobody needs to move");
+        assertArrayEquals(new int[] {LAB, -1}, matcher.match(new int[] {1, 1}), "One lab for two lab courses");
+    }
+
+    @Test
+    @DisplayName("Should count classes confined to too few rooms")
+    void shouldCountShortfall() {
+        RoomMatcher matcher = new RoomMatcher(3, new int[][] {
+            {LAB},
+            {LAB},
+            {LAB, HALL, SEMINAR},
+            {}
+        });
+
+        assertEquals(0, matcher.shortfall(new int[] {0, 2, 2}));
+        assertEquals(1, matcher.shortfall(new int[] {0, 1}));
+        assertEquals(1, matcher.shortfall(new int[] {0, 2, 2, 2}), "Four classes for three rooms");
+        assertEquals(1, matcher.shortfall(new int[] {3}), "A class no room suits");
+        assertThrows(IllegalArgumentException.class, () -> new RoomMatcher(2, new int[][] {{SEMINAR}}));
+    }
+
+    @Test
+    @DisplayName("Should match as many classes as a reference matching on random slots")
+    void shouldMatchRandomSlotsInParallel() {
+        Random random = new Random(47);
+        int rooms = 30;
+        int classes = 400;
+        int[][] suitable = new int[classes][];
+        for (int c = 0; c < classes; c++) {
+            suitable[c] = random.ints(0, rooms).distinct().limit(1 + random.nextInt(4)).toArray();
+        }
+        RoomMatcher matcher = new RoomMatcher(rooms, suitable);
+
+        int[] groupOf = new int[classes];
+        for (int c = 0; c < classes; c++) {
+            groupOf[c] = random.nextInt(10) - 1; // -1: no time
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        int[] roomOf;
+        try {
+            roomOf = matcher.matchAll(groupOf, executor);
+        } finally {
+            executor.shutdown();
+        }
+
+        for (int group = 0; group < 9; group++) {
+            List<Integer> members = new ArrayList<>();
+            Set<Integer> used = new HashSet<>();
+            int matched = 0;
+            for (int c = 0; c < classes; c++) {
+                if (groupOf[c] != group) continue;
+                members.add(c);
+                if (roomOf[c] >= 0) {
+                    matched++;
+                    assertTrue(used.add(roomOf[c]), "Rooms are used once per slot");
+                    int room = roomOf[c];
+                    assertTrue(Arrays.stream(suitable[c]).anyMatch(r -> r == room));
+                }
+            }
+            assertEquals(maximumMatching(members, suitable, rooms), matched);
+            int shortfall = matcher.shortfall(members.stream().mapToInt(Integer::intValue).toArray());
+            assertTrue(shortfall <= members.size() - matched, "Counting never claims more than matching proves");
+        }
+        for (int c = 0; c < classes; c++) {
+            if (groupOf[c] < 0) {
+                assertEquals(-1, roomOf[c]);
+            }
+        }
+    }
+
+    // Simple augmenting-path matching
+    private static int maximumMatching(List<Integer> classes, int[][] suitable, int rooms) {
+        int[] holder = new int[rooms];
+        Arrays.fill(holder, -1);
+        int matched = 0;
+        for (int i = 0; i < classes.size(); i++) {
+            if (augment(i, classes, suitable, holder, new boolean[rooms])) {
+                matched++;
+            }
+        }
+        return matched;
+    }
+
+    private static boolean augment(int i, List<Integer> classes, int[][] suitable, int[] holder, boolean[] seen) {
+        for (int room : suitable[classes.get(i)]) {
+            if (seen[room]) continue;
+            seen[room] = true;
+            if (holder[room] < 0 || augment(holder[room], classes, suitable, holder, seen)) {
+                holder[room] = i;
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,211 @@
+package com.school.scheduling.algorithm.optimization;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for TeacherAssignmentFlow class.
+ */
+class TeacherAssignmentFlowTest {
+
+    @Test
+    @DisplayName("Should staff every offering it can within course limits, preferring better pairings")
+    void shouldAssignWithinCourseLimits() {
+        TeacherAssignmentFlow flow = new TeacherAssignmentFlow(4, 2);
+        flow.setCapacity(0, 2, TeacherAssignmentFlow.UNLIMITED);
+        flow.setCapacity(1, 1, TeacherAssignmentFlow.UNLIMITED);
+        flow.addEligibility(0, 0, 1.0);
+        flow.addEligibility(0, 1, 0.9);
+        flow.addEligibility(1, 0, 0.2); // Only teacher 0 can take offering 1
+        flow.addEligibility(2, 0, 0.8);
+        flow.addEligibility(2, 1, 0.1);
+        // Offering 3 has nobody
+
+        assertArrayEquals(new int[] {1, 0, 0, -1}, flow.solve());
+        assertEquals(Math.round(0.1 * 1000) + Math.round(0.8 * 1000) + Math.round(0.2 * 1000), flow.getCost());
+    }
+
+    @Test
+    @DisplayName("Should keep teachers within their weekly hours")
+    void shouldEnforceHours() {
+        TeacherAssignmentFlow flow = new TeacherAssignmentFlow(3, 2);
+        flow.setLoad(0, 180);
+        flow.setLoad(1, 90);
+        flow.setLoad(2, 90);
+        flow.setCapacity(0, 3, 200);
+        flow.setCapacity(1, 3, 240);
+        for (int o = 0; o < 3; o++) {
+            flow.addEligibility(o, 0, 1.0);
+            flow.addEligibility(o, 1, 0.5);
+        }
+
+        int[] teacherOf = flow.solve();
+        int[] minutes = new int[2];
+        int[] loads = {180, 90, 90};
+        for (int o = 0; o < 3; o++) {
+            assertNotEquals(-1, teacherOf[o]);
+            minutes[teacherOf[o]] += loads[o];
+        }
+        assertTrue(minutes[0] <= 200, "Teacher 0 teaches " + minutes[0] + " minutes");
+        assertTrue(minutes[1] <= 240, "Teacher 1 teaches " + minutes[1] + " minutes");
+    }
+
+    @Test
+    @DisplayName("Should match exhaustive search, from scratch and after incremental teacher updates")
+    void shouldMatchExhaustiveSearch() {
+        Random random = new Random(48);
+        for (int instance = 0; instance < 40; instance++) {
+            int offerings = 1 + random.nextInt(6);
+            int teachers = 1 + random.nextInt(3);
+            int[] limits = new int[teachers];
+            double[][] preference = new double[offerings][teachers];
+            TeacherAssignmentFlow flow = new TeacherAssignmentFlow(offerings, teachers);
+            for (int t = 0; t < teachers; t++) {
+                limits[t] = 1 + random.nextInt(3);
+                flow.setCapacity(t, limits[t], TeacherAssignmentFlow.UNLIMITED);
+            }
+            for (int o = 0; o < offerings; o++) {
+                for (int t = 0; t < teachers; t++) {
+                    preference[o][t] = random.nextInt(3) == 0 ? -1 : random.nextInt(11) / 10.0;
+                    if (preference[o][t] >= 0) {
+                        flow.addEligibility(o, t, preference[o][t]);
+                    }
+                }
+            }
+            assertOptimal(flow.solve(), flow.getCost(), preference, limits);
+
+            for (int update = 0; update < 3; update++) {
+                int t = random.nextInt(teachers);
+                limits[t] = random.nextInt(4);
+                Map<Integer, Double> eligible = new HashMap<>();
+                for (int o = 0; o < offerings; o++) {
+                    preference[o][t] = random.nextInt(3) == 0 ? -1 : random.nextInt(11) / 10.0;
+                    if (preference[o][t] >= 0) {
+                        eligible.put(o, preference[o][t]);
+                    }
+                }
+                int[] teacherOf = flow.updateTeacher(t, limits[t], TeacherAssignmentFlow.UNLIMITED, eligible);
+                assertOptimal(teacherOf, flow.getCost(), preference, limits);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should reach the from-scratch assignment after incremental updates under finite hours")
+    void shouldMatchFreshSolveUnderHours() {
+        Random random = new Random(49);
+        for (int instance = 0; instance < 60; instance++) {
+            int offerings = 2 + random.nextInt(6);
+            int teachers = 1 + random.nextInt(3);
+            int[] loads = new int[offerings];
+            int[] courses = new int[teachers];
+            int[] minutes = new int[teachers];
+            double[][] preference = new double[offerings][teachers];
+            for (int o = 0; o < offerings; o++) {
+                loads[o] = 60 + 15 * random.nextInt(9);
+            }
+            for (int t = 0; t < teachers; t++) {
+                courses[t] = 1 + random.nextInt(4);
+                minutes[t] = 60 * (1 + random.nextInt(5));
+            }
+            for (int o = 0; o < offerings; o++) {
+                for (int t = 0; t < teachers; t++) {
+                    preference[o][t] = random.nextInt(3) == 0 ? -1 : random.nextInt(1000) / 1000.0;
+                }
+            }
+            TeacherAssignmentFlow flow = flowOf(loads, courses, minutes, preference);
+            flow.solve();
+
+            for (int update = 0; update < 4; update++) {
+                int t = random.nextInt(teachers);
+                courses[t] = 1 + random.nextInt(4);
+                minutes[t] = 60 * (1 + random.nextInt(5));
+                Map<Integer, Double> eligible = new HashMap<>();
+                for (int o = 0; o < offerings; o++) {
+                    preference[o][t] = random.nextInt(3) == 0 ? -1 : random.nextInt(1000) / 1000.0;
+                    if (preference[o][t] >= 0) {
+                        eligible.put(o, preference[o][t]);
+                    }
+                }
+                int[] teacherOf = flow.updateTeacher(t, courses[t], minutes[t], eligible);
+
+                TeacherAssignmentFlow fresh = flowOf(loads, courses, minutes, preference);
+                int[] expected = fresh.solve();
+                assertEquals(Arrays.stream(expected).filter(teacher -> teacher >= 0).count(),
+                             Arrays.stream(teacherOf).filter(teacher -> teacher >= 0).count(),
+                             "Instance " + instance + ", update " + update + " staffs as many offerings");
+                assertEquals(fresh.getCost(), flow.getCost(), "Instance " + instance + ", update " + update);
+                int[] taught = new int[teachers];
+                for (int o = 0; o < offerings; o++) {
+                    if (teacherOf[o] >= 0) {
+                        taught[teacherOf[o]] += loads[o];
+                    }
+                }
+                for (int teacher = 0; teacher < teachers; teacher++) {
+                    assertTrue(taught[teacher] <= minutes[teacher], "Teacher " + teacher + " is over their hours");
+                }
+            }
+        }
+    }
+
+    private static TeacherAssignmentFlow flowOf(int[] loads, int[] courses, int[] minutes, double[][] preference) {
+        TeacherAssignmentFlow flow = new TeacherAssignmentFlow(loads.length, courses.length);
+        for (int o = 0; o < loads.length; o++) {
+            flow.setLoad(o, loads[o]);
+        }
+        for (int t = 0; t < courses.length; t++) {
+            flow.setCapacity(t, courses[t], minutes[t]);
+        }
+        for (int o = 0; o < loads.length; o++) {
+            for (int t = 0; t < courses.length; t++) {
+                if (preference[o][t] >= 0) {
+                    flow.addEligibility(o, t, preference[o][t]);
+                }
+            }
+        }
+        return flow;
+    }
+
+    private static void assertOptimal(int[] teacherOf, long cost, double[][] preference, int[] limits) {
+        int[] used = new int[limits.length];
+        int staffed = 0;
+        long actualCost = 0;
+        for (int o = 0; o < teacherOf.length; o++) {
+            int t = teacherOf[o];
+            if (t < 0) continue;
+            assertTrue(preference[o][t] >= 0, "Offering " + o + " went to an unqualified teacher");
+            assertTrue(++used[t] <= limits[t], "Teacher " + t + " is over their limit");
+            staffed++;
+            actualCost += Math.round((1 - preference[o][t]) * 1000);
+        }
+        assertEquals(actualCost, cost);
+
+        long[] best = {-1, Long.MAX_VALUE}; // Staffed, cost
+        search(0, new int[limits.length], 0, 0, preference, limits, best);
+        assertEquals(best[0], staffed);
+        assertEquals(best[1], cost);
+    }
+
+    private static void search(int o, int[] used, int staffed, long cost, double[][] preference, int[] limits,
+                               long[] best) {
+        if (o == preference.length) {
+            if (staffed > best[0] || (staffed == best[0] && cost < best[1])) {
+                best[0] = staffed;
+                best[1] = cost;
+            }
+            return;
+        }
+        search(o + 1, used, staffed, cost, preference, limits, best);
+        for (int t = 0; t < limits.length; t++) {
+            if (preference[o][t] >= 0 && used[t] < limits[t]) {
+                used[t]++;
+                search(o + 1, used, staffed + 1, cost + Math.round((1 - preference[o][t]) * 1000), preference, limits, best);
+                used[t]--;
+            }
+        }
+    }
+}
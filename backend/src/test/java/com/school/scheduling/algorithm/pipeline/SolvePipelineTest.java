@@ -0,0 +1,277 @@
+package com.school.scheduling.algorithm.pipeline;
+
+import com.school.scheduling.algorithm.ConstraintSatisfactionProblem;
+import com.school.scheduling.algorithm.DifferentValueConstraint;
+import com.school.scheduling.algorithm.strategy.GenomeEncoding;
+import com.school.scheduling.algorithm.strategy.SearchListener;
+import com.school.scheduling.algorithm.strategy.SearchState;
+import com.school.scheduling.domain.constraint.*;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SolvePipeline class.
+ */
+class SolvePipelineTest {
+
+    @Test
+    @DisplayName("Should hand the incumbent from construction to improvement stages")
+    void shouldRunStagesInOrder() {
+        ConstraintSatisfactionProblem csp = pairwiseProblem(8, 8, false);
+        SolvePipeline pipeline = new SolvePipeline(List.of(
+            new SolvePipeline.Stage(StageType.DSATUR, 1000),
+            new SolvePipeline.Stage(StageType.TABU, 500),
+            new SolvePipeline.Stage(StageType.POLISH, 500)));
+
+        SolvePipeline.PipelineResult result = pipeline.run(csp);
+
+        assertTrue(result.getAssignment().isPresent());
+        assertTrue(result.getQuality().isFeasible());
+        assertEquals(3, result.getStageReports().size());
+
+        SolvePipeline.StageReport construction = result.getStageReports().get(0);
+        assertEquals(StageType.DSATUR, construction.getStage().getType());
+        assertEquals(8, construction.getBefore().getUnassigned());
+        assertEquals(0, construction.getAfter().getUnassigned(), "Construction assigns every offering");
+        assertTrue(construction.getGain() > 0);
+        for (SolvePipeline.StageReport report : result.getStageReports()) {
+            assertTrue(report.getGain() >= 0, "A stage never makes the incumbent worse");
+        }
+    }
+
+    @Test
+    @DisplayName("Should run parallel tempering as a stage from the incumbent")
+    void shouldRunParallelTemperingStage() {
+        ConstraintSatisfactionProblem csp = pairwiseProblem(8, 8, false);
+        SolvePipeline pipeline = new SolvePipeline(List.of(
+            new SolvePipeline.Stage(StageType.DSATUR, 1000),
+            new SolvePipeline.Stage(StageType.PARALLEL_TEMPERING, 300)));
+
+        SolvePipeline.PipelineResult result = pipeline.run(csp);
+
+        assertTrue(result.getQuality().isFeasible());
+        SolvePipeline.StageReport tempering = result.getStageReports().get(1);
+        assertEquals(StageType.PARALLEL_TEMPERING, tempering.getStage().getType());
+        assertTrue(tempering.getGain() >= 0, "A stage never makes the incumbent worse");
+        assertTrue(tempering.getElapsedMs() < 2000);
+    }
+
+        @Test
+    @DisplayName("Should stop an improvement stage at its time budget")
+    void shouldRespectStageBudget() {
+        ConstraintSatisfactionProblem csp = pairwiseProblem(30, 30, false);
+        SolvePipeline pipeline = new SolvePipeline(List.of(new SolvePipeline.Stage(StageType.SIMULATED_ANNEALING, 50)));
+
+        SolvePipeline.PipelineResult result = pipeline.run(csp);
+
+        assertTrue(result.getAssignment().isPresent());
+        assertTrue(result.getStageReports().get(0).getElapsedMs() < 2000);
+    }
+
+    @Test
+    @DisplayName("Should remove soft violations in the polish stage without adding hard ones")
+    void shouldPolishSoftConstraints() {
+        ConstraintSatisfactionProblem csp = pairwiseProblem(4, 6, true);
+        SolvePipeline pipeline = new SolvePipeline(List.of(
+            new SolvePipeline.Stage(StageType.DSATUR, 1000),
+            new SolvePipeline.Stage(StageType.POLISH, 1000)));
+
+        SolvePipeline.PipelineResult result = pipeline.run(csp);
+
+        assertEquals(0, result.getQuality().getHardViolations());
+        assertEquals(0, result.getQuality().getSoftViolations(), "Four offerings fit in the four unpenalised slots");
+        assertTrue(result.getSummary().contains("POLISH"));
+    }
+
+    @Test
+    @DisplayName("Should publish stage, explored nodes and best quality as progress")
+    void shouldReportProgress() {
+        ConstraintSatisfactionProblem csp = pairwiseProblem(6, 8, true);
+        SolvePipeline pipeline = new SolvePipeline(List.of(
+            new SolvePipeline.Stage(StageType.DSATUR, 1000),
+            new SolvePipeline.Stage(StageType.POLISH, 1000)));
+        SolveProgress progress = new SolveProgress();
+
+        SolveProgress.Snapshot before = progress.snapshot();
+        SolvePipeline.PipelineResult result = pipeline.run(csp, progress);
+        SolveProgress.Snapshot after = progress.snapshot();
+
+        assertNull(before.getBestScore(), "No best score before the first stage finishes");
+        assertEquals("POLISH", after.getStage());
+        assertEquals(2, after.getStageNumber());
+        assertEquals(2, after.getStageCount());
+        assertTrue(after.getNodes() > 0, "The polish stage reports the changes it tried");
+        assertEquals(result.getQuality().getScore().toString(), after.getBestScore());
+        assertEquals(0, after.getHardViolations());
+        assertTrue(after.getEtaMs() >= 0 && after.getEtaMs() <= 1000);
+    }
+
+    @Test
+    @DisplayName("Should skip stages a checkpoint records as finished")
+    void shouldSkipFinishedStagesOnResume(@TempDir Path directory) {
+        ConstraintSatisfactionProblem csp = pairwiseProblem(8, 8, true);
+        SolvePipeline pipeline = new SolvePipeline(List.of(
+            new SolvePipeline.Stage(StageType.DSATUR, 1000),
+            new SolvePipeline.Stage(StageType.POLISH, 1000)));
+        CheckpointFile checkpoints = new CheckpointFile(directory.resolve("job.ckpt"), 60_000);
+
+        SolvePipeline.PipelineResult first = pipeline.run(csp, new SolveProgress(), checkpoints);
+        assertEquals(2, checkpoints.load().orElseThrow().getStageIndex(), "Both stages recorded as done");
+
+        SolvePipeline.PipelineResult resumed = pipeline.run(csp, new SolveProgress(), checkpoints);
+        assertTrue(resumed.getStageReports().isEmpty(), "Nothing left to run");
+        assertEquals(first.getQuality().getScore(), resumed.getQuality().getScore());
+    }
+
+    @Test
+    @DisplayName("Should continue an interrupted stage from its saved state and remaining budget")
+    void shouldResumeInterruptedStage(@TempDir Path directory) {
+        ConstraintSatisfactionProblem csp = pairwiseProblem(8, 8, true);
+        SolvePipeline pipeline = new SolvePipeline(List.of(
+            new SolvePipeline.Stage(StageType.DSATUR, 1000),
+            new SolvePipeline.Stage(StageType.TABU, 2000),
+            new SolvePipeline.Stage(StageType.POLISH, 1000)));
+        GenomeEncoding encoding = new GenomeEncoding(csp);
+        int[] constructed = encoding.encode(StageType.DSATUR.run(csp, null, Long.MAX_VALUE, SearchListener.NONE).orElseThrow());
+
+        // As if the process stopped 1.9s into tabu search
+        CheckpointFile checkpoints = new CheckpointFile(directory.resolve("job.ckpt"), 60_000);
+        checkpoints.save(new SolveCheckpoint(SolveCheckpoint.fingerprint(encoding),
+            SolveCheckpoint.fingerprint(pipeline.getStages()), 1, 1900, constructed, SearchState.incumbent(constructed)));
+
+        SolvePipeline.PipelineResult result = pipeline.run(csp, new SolveProgress(), checkpoints);
+
+        assertEquals(2, result.getStageReports().size(), "Construction is not repeated");
+        assertEquals(StageType.TABU, result.getStageReports().get(0).getStage().getType());
+        assertTrue(result.getStageReports().get(0).getElapsedMs() < 1000, "Only the remaining budget is spent");
+        assertTrue(result.getQuality().compareTo(SolvePipeline.Quality.of(csp, encoding.decode(constructed))) <= 0);
+    }
+
+    @Test
+    @DisplayName("Should ignore a checkpoint taken on a different problem")
+    void shouldIgnoreCheckpointOfAnotherProblem(@TempDir Path directory) {
+        CheckpointFile checkpoints = new CheckpointFile(directory.resolve("job.ckpt"), 60_000);
+        SolvePipeline pipeline = new SolvePipeline(List.of(new SolvePipeline.Stage(StageType.DSATUR, 1000)));
+        pipeline.run(pairwiseProblem(6, 8, false), new SolveProgress(), checkpoints);
+
+        SolvePipeline.PipelineResult result = pipeline.run(pairwiseProblem(7, 8, false), new SolveProgress(), checkpoints);
+
+        assertEquals(1, result.getStageReports().size(), "Starts over instead of resuming");
+        assertTrue(result.getQuality().isFeasible());
+    }
+
+    @Test
+    @DisplayName("Should rank schedules by the score director's levels, not by counting violations")
+    void shouldRankQualityByScoreLevels() {
+        SchedulingVariable first = new SchedulingVariable(VariableType.COURSE_SCHEDULING, "offering_1", "Course 1");
+        SchedulingVariable second = new SchedulingVariable(VariableType.COURSE_SCHEDULING, "offering_2", "Course 2");
+        SchedulingVariable third = new SchedulingVariable(VariableType.COURSE_SCHEDULING, "offering_3", "Course 3");
+        SchedulingValue avoided = new SchedulingValue(ValueType.TIME_SLOT, "slot_0", "Slot 0");
+        SchedulingValue free = new SchedulingValue(ValueType.TIME_SLOT, "slot_1", "Slot 1");
+        Map<SchedulingVariable, List<SchedulingValue>> domains = new HashMap<>();
+        for (SchedulingVariable variable : List.of(first, second, third)) {
+            domains.put(variable, List.of(avoided, free));
+        }
+        ConstraintSatisfactionProblem csp = new ConstraintSatisfactionProblem(domains.keySet(), Set.of(
+            new AvoidSlotsConstraint(first, Set.of("slot_0"), ConstraintPriority.HIGH),
+            new AvoidSlotsConstraint(second, Set.of("slot_0")),
+            new AvoidSlotsConstraint(third, Set.of("slot_0"))), domains);
+
+        SchedulingAssignment breaksHigh = new SchedulingAssignment();
+        breaksHigh.assign(first, avoided);
+        breaksHigh.assign(second, free);
+        breaksHigh.assign(third, free);
+        SchedulingAssignment breaksTwoLow = new SchedulingAssignment();
+        breaksTwoLow.assign(first, free);
+        breaksTwoLow.assign(second, avoided);
+        breaksTwoLow.assign(third, avoided);
+
+        SolvePipeline.Quality high = SolvePipeline.Quality.of(csp, breaksHigh);
+        SolvePipeline.Quality low = SolvePipeline.Quality.of(csp, breaksTwoLow);
+        assertTrue(high.getSoftViolations() < low.getSoftViolations());
+        assertTrue(low.compareTo(high) < 0, "A broken HIGH constraint outweighs any number of LOW ones");
+        assertTrue(low.getFitness() > high.getFitness());
+        assertEquals(0, low.getScore().getMedium());
+    }
+
+    @Test
+    @DisplayName("Should reject a pipeline without stages")
+    void shouldRejectEmptyPipeline() {
+        assertThrows(IllegalArgumentException.class, () -> new SolvePipeline(List.of()));
+    }
+
+    private ConstraintSatisfactionProblem pairwiseProblem(int offerings, int slots, boolean avoidFirstSlots) {
+        Set<SchedulingVariable> variables = new HashSet<>();
+        for (int i = 1; i <= offerings; i++) {
+            variables.add(new SchedulingVariable(VariableType.COURSE_SCHEDULING, "offering_" + i, "Course " + i));
+        }
+
+        List<SchedulingValue> timeSlots = new ArrayList<>();
+        for (int i = 0; i < slots; i++) {
+            timeSlots.add(new SchedulingValue(ValueType.TIME_SLOT, "slot_" + i, "Slot " + i));
+        }
+
+        Map<SchedulingVariable, List<SchedulingValue>> domains = new HashMap<>();
+        for (SchedulingVariable variable : variables) {
+            domains.put(variable, new ArrayList<>(timeSlots));
+        }
+
+        Set<SchedulingConstraint> constraints = new HashSet<>();
+        List<SchedulingVariable> ordered = new ArrayList<>(variables);
+        for (int i = 0; i < ordered.size(); i++) {
+            for (int j = i + 1; j < ordered.size(); j++) {
+                constraints.add(new DifferentValueConstraint(ordered.get(i), ordered.get(j)));
+            }
+            if (avoidFirstSlots) {
+                constraints.add(new AvoidSlotsConstraint(ordered.get(i), Set.of("slot_0", "slot_1")));
+            }
+        }
+
+        return new ConstraintSatisfactionProblem(variables, constraints, domains);
+    }
+
+
+    // Soft constraint: an offering would rather not use some slots
+    private static class AvoidSlotsConstraint extends SchedulingConstraint {
+        private final SchedulingVariable variable;
+        private final Set<String> avoided;
+
+        AvoidSlotsConstraint(SchedulingVariable variable, Set<String> avoided) {
+            this(variable, avoided, ConstraintPriority.LOW);
+        }
+
+        AvoidSlotsConstraint(SchedulingVariable variable, Set<String> avoided, ConstraintPriority priority) {
+            super("Avoid Slots " + variable.getId(), ConstraintType.TIME_PREFERENCE,
+                  priority, "Offering prefers other slots");
+            this.variable = variable;
+            this.avoided = avoided;
+        }
+
+        @Override
+        public ConstraintResult validate(SchedulingAssignment assignment) {
+            SchedulingValue value = assignment.getValue(variable);
+            if (value != null && avoided.contains(value.getValue())) {
+                return ConstraintResult.violated("Unpreferred slot");
+            }
+            return ConstraintResult.satisfied();
+        }
+
+        @Override
+        public Set<SchedulingVariable> getScope() {
+            return Collections.singleton(variable);
+        }
+
+        @Override
+        public List<SchedulingValue> getValidValues(SchedulingAssignment assignment,
+                                                   Map<SchedulingVariable, List<SchedulingValue>> domains) {
+            return new ArrayList<>();
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.school.scheduling.algorithm.preference;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for PreferenceTables class.
+ */
+class PreferenceTablesTest {
+
+    private static final long SCIENCE = 1;
+    private static final long ARTS = 2;
+
+    @Test
+    @DisplayName("Should prefer proficient teachers of the course's department and score unqualified ones 0")
+    void shouldScoreTeachers() {
+        PreferenceModel model = new PreferenceModel();
+        int chemistry = model.addOffering(100, SCIENCE, true, 20);
+        int expert = model.addTeacher(10, SCIENCE);
+        int novice = model.addTeacher(11, SCIENCE);
+        int outsider = model.addTeacher(12, ARTS);
+        int unqualified = model.addTeacher(13, SCIENCE);
+        model.addQualification(10, 100, 1.0);
+        model.addQualification(11, 100, 0.25);
+        model.addQualification(12, 100, 1.0);
+        model.addQualification(12, 999, 1.0); // Offering outside the problem
+
+        PreferenceTables tables = model.compile();
+
+        assertTrue(tables.teacherScore(chemistry, expert) > tables.teacherScore(chemistry, novice));
+        assertTrue(tables.teacherScore(chemistry, expert) > tables.teacherScore(chemistry, outsider));
+        assertEquals(0.0, tables.teacherScore(chemistry, unqualified));
+        assertArrayEquals(new int[] {expert, novice, outsider}, tables.qualifiedTeachers(chemistry));
+    }
+
+    @Test
+    @DisplayName("Should match room type, department building and size")
+    void shouldScoreRooms() {
+        PreferenceModel model = new PreferenceModel();
+        model.setDepartmentBuilding(SCIENCE, "SCI");
+        int lab = model.addOffering(100, SCIENCE, true, 20);
+        int lecture = model.addOffering(101, SCIENCE, false, 20);
+        int scienceLab = model.addRoom(1, "SCI", true, 24);
+        int artsLab = model.addRoom(2, "ART", true, 24);
+        int scienceHall = model.addRoom(3, "SCI", false, 200);
+        int closet = model.addRoom(4, "SCI", false, 10);
+
+        PreferenceTables tables = model.compile();
+
+        assertTrue(tables.roomScore(lab, scienceLab) > tables.roomScore(lab, artsLab));
+        assertTrue(tables.roomScore(lab, artsLab) > tables.roomScore(lab, scienceHall));
+        assertTrue(tables.roomScore(lecture, scienceHall) > tables.roomScore(lecture, artsLab));
+        assertEquals(0.0, tables.roomScore(lecture, closet));
+        assertEquals(scienceHall, tables.roomIndex(3));
+        assertEquals(-1, tables.roomIndex(5));
+    }
+
+    @Test
+    @DisplayName("Should combine time of day with the availability of the qualified teachers")
+    void shouldScoreTimes() {
+        PreferenceModel model = new PreferenceModel();
+        int course = model.addOffering(100, null, false, 0);
+        int teacher = model.addTeacher(10, null);
+        int other = model.addTeacher(11, null);
+        model.addQualification(10, 100, 1.0);
+        int morning = model.addTimeSlot(1, DayOfWeek.MONDAY, time(9), time(10), 1.0);
+        int lunch = model.addTimeSlot(2, DayOfWeek.MONDAY, time(12), time(13), 1.0);
+        int evening = model.addTimeSlot(3, DayOfWeek.MONDAY, time(19), time(20), 1.0 / 3);
+        int tuesday = model.addTimeSlot(4, DayOfWeek.TUESDAY, time(9), time(10), 1.0);
+        model.addAvailability(10, DayOfWeek.MONDAY, time(8), time(18), 1.0);
+        model.addAvailability(10, DayOfWeek.MONDAY, time(12), time(13), 0.0);
+
+        PreferenceTables tables = model.compile();
+
+        assertEquals(1.0, tables.availabilityScore(teacher, morning));
+        assertEquals(0.0, tables.availabilityScore(teacher, lunch));
+        assertEquals(0.3, tables.availabilityScore(teacher, tuesday), 1e-6);
+        assertEquals(0.5, tables.availabilityScore(other, lunch), "No stated availability is neutral");
+
+        assertEquals(1.0, tables.timeScore(course, morning), 1e-6);
+        assertTrue(tables.timeScore(course, morning) > tables.timeScore(course, tuesday));
+        assertTrue(tables.timeScore(course, tuesday) > tables.timeScore(course, lunch));
+        assertTrue(tables.timeScore(course, lunch) > tables.timeScore(course, evening));
+    }
+
+    @Test
+    @DisplayName("Should recompile a teacher's changed availability to the tables a full compile gives")
+    void shouldRecompileOneTeacher() {
+        PreferenceModel model = new PreferenceModel();
+        model.addOffering(100, SCIENCE, false, 0);
+        model.addOffering(101, SCIENCE, false, 0);
+        model.addOffering(102, ARTS, false, 0);
+        int changed = model.addTeacher(10, SCIENCE);
+        model.addTeacher(11, SCIENCE);
+        model.addTeacher(12, ARTS);
+        model.addQualification(10, 100, 1.0);
+        model.addQualification(10, 101, 0.5);
+        model.addQualification(11, 101, 1.0);
+        model.addQualification(12, 102, 1.0);
+        model.addTimeSlot(1, DayOfWeek.MONDAY, time(9), time(10), 1.0);
+        model.addTimeSlot(2, DayOfWeek.MONDAY, time(14), time(15), 0.5);
+        model.addAvailability(10, DayOfWeek.MONDAY, time(8), time(12), 1.0);
+        model.addAvailability(11, DayOfWeek.MONDAY, time(13), time(16), 1.0);
+        PreferenceTables before = model.compile();
+
+        model.clearAvailability(10);
+        model.addAvailability(10, DayOfWeek.MONDAY, time(8), time(12), 0.0);
+        PreferenceTables recompiled = before.recompileTeacher(model, changed);
+        PreferenceTables compiled = model.compile();
+
+        for (int o = 0; o < compiled.getOfferingCount(); o++) {
+            for (int t = 0; t < compiled.getTeacherCount(); t++) {
+                assertEquals(compiled.teacherScore(o, t), recompiled.teacherScore(o, t));
+            }
+            for (int s = 0; s < compiled.getSlotCount(); s++) {
+                assertEquals(compiled.timeScore(o, s), recompiled.timeScore(o, s));
+            }
+        }
+        for (int t = 0; t < compiled.getTeacherCount(); t++) {
+            for (int s = 0; s < compiled.getSlotCount(); s++) {
+                assertEquals(compiled.availabilityScore(t, s), recompiled.availabilityScore(t, s));
+            }
+        }
+        assertNotEquals(before.timeScore(0, 0), recompiled.timeScore(0, 0), "The teacher's offerings moved");
+        assertEquals(1.0, before.availabilityScore(changed, 0), "The earlier tables are left as they were");
+    }
+
+    private static LocalTime time(int hour) {
+        return LocalTime.of(hour, 0);
+    }
+}
@@ -0,0 +1,237 @@
+package com.school.scheduling.algorithm.remote;
+
+import com.school.scheduling.algorithm.ConstraintSatisfactionProblem;
+import com.school.scheduling.algorithm.DifferentValueConstraint;
+import com.school.scheduling.algorithm.pipeline.SolvePipeline;
+import com.school.scheduling.algorithm.pipeline.SolveProgress;
+import com.school.scheduling.algorithm.pipeline.StageType;
+import com.school.scheduling.algorithm.strategy.SearchListener;
+import com.school.scheduling.domain.constraint.*;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.InputStreamReader;
+import java.net.InetSocketAddress;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for RemoteSolverPool class, against workers on local sockets.
+ */
+class RemoteSolverPoolTest {
+
+    private static final String SECRET = "test-secret";
+
+    private final List<SolverWorker> workers = new ArrayList<>();
+
+    @AfterEach
+    void stopWorkers() {
+        workers.forEach(SolverWorker::close);
+    }
+
+    @Test
+    @DisplayName("Should run a portfolio on TCP workers and return the best incumbent")
+    void shouldSolvePortfolioOverTcp() throws Exception {
+        RemoteSolverPool pool = new RemoteSolverPool(List.of(startTcpWorker(), startTcpWorker()), SECRET);
+        ConstraintSatisfactionProblem csp = pairwiseProblem(10, 10);
+        AtomicLong nodes = new AtomicLong();
+
+        Optional<SchedulingAssignment> result = pool.solve(csp, null, RemoteSolverPool.Mode.PORTFOLIO,
+            System.currentTimeMillis() + 800, new SearchListener() {
+                @Override
+                public void nodesExplored(long count) {
+                    nodes.addAndGet(count);
+                }
+            });
+
+        assertTrue(result.isPresent(), "Workers should deliver a schedule: " + pool.getLastFailures());
+        assertEquals(10, result.get().size());
+        assertTrue(SolvePipeline.Quality.of(csp, result.get()).isFeasible());
+        assertTrue(nodes.get() > 0, "Explored nodes are relayed from the workers");
+        pool.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should share the incumbent across LNS epochs on a Unix socket worker")
+    void shouldRunLnsEpochsOverUnixSocket(@TempDir Path directory) throws Exception {
+        WorkerEndpoint endpoint = WorkerEndpoint.parse("unix:" + directory.resolve("worker.sock"));
+        SolverWorker worker = new SolverWorker(endpoint, SECRET);
+        workers.add(worker);
+        worker.start();
+
+        RemoteSolverPool pool = new RemoteSolverPool(List.of(endpoint), SECRET, List.of(StageType.TABU), 100, 200);
+        ConstraintSatisfactionProblem csp = pairwiseProblem(8, 8);
+        SchedulingAssignment start = StageType.DSATUR.run(csp, null, Long.MAX_VALUE, SearchListener.NONE).orElseThrow();
+
+        Optional<SchedulingAssignment> result = pool.solve(csp, start, RemoteSolverPool.Mode.LNS,
+            System.currentTimeMillis() + 600, SearchListener.NONE);
+
+        assertTrue(result.isPresent(), "Worker should deliver a schedule: " + pool.getLastFailures());
+        assertTrue(SolvePipeline.Quality.of(csp, result.get()).compareTo(SolvePipeline.Quality.of(csp, start)) <= 0,
+                   "Epochs never lose the starting schedule");
+        pool.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should fall back to the local stage when no worker is reachable")
+    void shouldFallBackWhenWorkersAreDown() {
+        RemoteSolverPool pool = new RemoteSolverPool(List.of(WorkerEndpoint.parse("tcp://127.0.0.1:1")), SECRET);
+        ConstraintSatisfactionProblem csp = pairwiseProblem(6, 6);
+
+        assertTrue(pool.solve(csp, null, RemoteSolverPool.Mode.PORTFOLIO, System.currentTimeMillis() + 200,
+                              SearchListener.NONE).isEmpty());
+        assertFalse(pool.getLastFailures().isEmpty());
+
+        SolvePipeline pipeline = new SolvePipeline(List.of(
+            new SolvePipeline.Stage(StageType.DSATUR, 1000),
+            new SolvePipeline.Stage(StageType.REMOTE_LNS, 300)), pool);
+        SolvePipeline.PipelineResult result = pipeline.run(csp, new SolveProgress());
+        assertTrue(result.getQuality().isFeasible());
+        pool.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should give up on a worker that accepts the connection but never answers")
+    void shouldCutOffSilentWorker() throws Exception {
+        List<SocketChannel> accepted = new CopyOnWriteArrayList<>();
+        try (ServerSocketChannel silent = ServerSocketChannel.open()) {
+            silent.bind(new InetSocketAddress("127.0.0.1", 0));
+            Thread acceptor = new Thread(() -> {
+                try {
+                    while (true) {
+                        accepted.add(silent.accept());
+                    }
+                } catch (Exception e) {
+                    // Server closed
+                }
+            });
+            acceptor.setDaemon(true);
+            acceptor.start();
+
+            int port = ((InetSocketAddress) silent.getLocalAddress()).getPort();
+            RemoteSolverPool pool = new RemoteSolverPool(List.of(WorkerEndpoint.parse("tcp://127.0.0.1:" + port)), SECRET);
+            ConstraintSatisfactionProblem csp = pairwiseProblem(6, 6);
+
+            long started = System.currentTimeMillis();
+            Optional<SchedulingAssignment> result = pool.solve(csp, null, RemoteSolverPool.Mode.PORTFOLIO,
+                System.currentTimeMillis() + 300, SearchListener.NONE);
+            long elapsed = System.currentTimeMillis() - started;
+
+            assertTrue(result.isEmpty());
+            assertTrue(elapsed < 2000, "The handshake should end at the stage deadline, took " + elapsed + " ms");
+            assertTrue(pool.getLastFailures().stream().anyMatch(failure -> failure.contains("no answer before the stage deadline")),
+                       pool.getLastFailures().toString());
+            pool.shutdown();
+        } finally {
+            for (SocketChannel channel : accepted) {
+                channel.close();
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should solve on a separate worker JVM")
+    void shouldSolveOnWorkerProcess() throws Exception {
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        ProcessBuilder builder = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                                                    SolverWorker.class.getName(), "tcp://127.0.0.1:0")
+            .redirectErrorStream(true);
+        builder.environment().put(SolverWorker.SECRET_VARIABLE, SECRET);
+        Process process = builder.start();
+        try {
+            BufferedReader output = new BufferedReader(new InputStreamReader(process.getInputStream()));
+            String line = output.readLine();
+            assertNotNull(line, "Worker process should report its address");
+            assertTrue(line.startsWith("LISTENING "), line);
+            int port = Integer.parseInt(line.substring(line.lastIndexOf(':') + 1).trim());
+
+            RemoteSolverPool pool = new RemoteSolverPool(List.of(WorkerEndpoint.parse("tcp://127.0.0.1:" + port)), SECRET);
+            ConstraintSatisfactionProblem csp = pairwiseProblem(8, 8);
+            Optional<SchedulingAssignment> result = pool.solve(csp, null, RemoteSolverPool.Mode.PORTFOLIO,
+                System.currentTimeMillis() + 1000, SearchListener.NONE);
+
+            assertTrue(result.isPresent(), "Worker process should deliver a schedule: " + pool.getLastFailures());
+            assertTrue(SolvePipeline.Quality.of(csp, result.get()).isFeasible());
+            pool.shutdown();
+        } finally {
+            process.destroy();
+            process.waitFor(5, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    @DisplayName("Should turn away a coordinator with the wrong secret before reading its frames")
+    void shouldRejectWrongSecret() throws Exception {
+        RemoteSolverPool pool = new RemoteSolverPool(List.of(startTcpWorker()), "not-the-secret");
+
+        // The worker refuses right away; the budget only has to cover a cold handshake
+        assertTrue(pool.solve(pairwiseProblem(4, 4), null, RemoteSolverPool.Mode.PORTFOLIO,
+                              System.currentTimeMillis() + 2000, SearchListener.NONE).isEmpty());
+        assertTrue(pool.getLastFailures().stream().anyMatch(failure -> failure.contains("Authentication failed")),
+                   pool.getLastFailures().toString());
+        pool.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should only listen on loopback addresses and Unix sockets unless remote connections are allowed")
+    void shouldRefuseNonLocalBind() throws Exception {
+        SolverWorker exposed = new SolverWorker(WorkerEndpoint.parse("tcp://0.0.0.0:0"), SECRET);
+        workers.add(exposed);
+        assertThrows(IllegalArgumentException.class, exposed::start);
+
+        SolverWorker allowed = new SolverWorker(WorkerEndpoint.parse("tcp://0.0.0.0:0"), SECRET, true);
+        workers.add(allowed);
+        assertNotNull(allowed.start());
+
+        assertThrows(IllegalArgumentException.class, () -> new SolverWorker(WorkerEndpoint.parse("tcp://127.0.0.1:0"), " "));
+        assertThrows(IllegalArgumentException.class,
+                     () -> new RemoteSolverPool(List.of(WorkerEndpoint.parse("tcp://127.0.0.1:1")), null));
+    }
+
+    @Test
+    @DisplayName("Should reject unsupported endpoint schemes")
+    void shouldRejectUnsupportedEndpoints() {
+        assertThrows(IllegalArgumentException.class, () -> WorkerEndpoint.parse("http://localhost:80"));
+        assertThrows(IllegalArgumentException.class, () -> WorkerEndpoint.parse("tcp://localhost"));
+    }
+
+    private WorkerEndpoint startTcpWorker() throws Exception {
+        SolverWorker worker = new SolverWorker(WorkerEndpoint.parse("tcp://127.0.0.1:0"), SECRET);
+        workers.add(worker);
+        InetSocketAddress address = (InetSocketAddress) worker.start();
+        return WorkerEndpoint.parse("tcp://127.0.0.1:" + address.getPort());
+    }
+
+    private ConstraintSatisfactionProblem pairwiseProblem(int offerings, int slots) {
+        Set<SchedulingVariable> variables = new HashSet<>();
+        for (int i = 1; i <= offerings; i++) {
+            variables.add(new SchedulingVariable(VariableType.COURSE_SCHEDULING, "offering_" + i, "Course " + i));
+        }
+
+        List<SchedulingValue> timeSlots = new ArrayList<>();
+        for (int i = 0; i < slots; i++) {
+            timeSlots.add(new SchedulingValue(ValueType.TIME_SLOT, "slot_" + i, "Slot " + i));
+        }
+
+        Map<SchedulingVariable, List<SchedulingValue>> domains = new HashMap<>();
+        for (SchedulingVariable variable : variables) {
+            domains.put(variable, new ArrayList<>(timeSlots));
+        }
+
+        Set<SchedulingConstraint> constraints = DifferentValueConstraint.allPairs(variables);
+
+        return new ConstraintSatisfactionProblem(variables, constraints, domains);
+    }
+}
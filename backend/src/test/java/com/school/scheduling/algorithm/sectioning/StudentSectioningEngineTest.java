@@ -0,0 +1,142 @@
+package com.school.scheduling.algorithm.sectioning;
+
+import com.school.scheduling.algorithm.WeeklyOccupancy;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for StudentSectioningEngine class.
+ */
+class StudentSectioningEngineTest {
+
+    private static final long MATH = 1;
+    private static final long PHYSICS = 2;
+    private static final long CHEMISTRY = 3;
+
+    @Test
+    @DisplayName("Should place requests in clash-free sections, respecting the requested section")
+    void shouldPlaceClashFree() {
+        SectioningProblem problem = new SectioningProblem();
+        section(problem, 11, MATH, 30, DayOfWeek.MONDAY, 9);
+        section(problem, 12, MATH, 30, DayOfWeek.TUESDAY, 9);
+        section(problem, 21, PHYSICS, 30, DayOfWeek.MONDAY, 9);
+        int math = problem.addRequest(101, 1, MATH, 11L);
+        int physics = problem.addRequest(102, 1, PHYSICS, null);
+
+        SectioningResult result = new StudentSectioningEngine().section(problem);
+
+        assertEquals(2, result.getPlacedCount());
+        assertEquals(12L, result.getSectionId(math), "Physics has a single section, so math gives way");
+        assertEquals(21L, result.getSectionId(physics));
+        assertEquals(List.of(12L, 21L), result.getStudentSections().get(1L));
+    }
+
+    @Test
+    @DisplayName("Should move another student out of a full section to make room")
+    void shouldRepairFullSections() {
+        SectioningProblem problem = new SectioningProblem();
+        section(problem, 11, MATH, 1, DayOfWeek.MONDAY, 9);
+        section(problem, 12, MATH, 1, DayOfWeek.TUESDAY, 9);
+        section(problem, 21, PHYSICS, 1, DayOfWeek.TUESDAY, 9);
+        // Student 1 can go anywhere but asks for section 11; student 2 can only take 11
+        int flexible = problem.addRequest(101, 1, MATH, 11L);
+        int fixed = problem.addRequest(201, 2, MATH, 12L);
+        problem.addRequest(202, 2, PHYSICS, null);
+
+        SectioningResult result = new StudentSectioningEngine(2, 3, 2_000).section(problem);
+
+        assertEquals(3, result.getPlacedCount());
+        assertEquals(12L, result.getSectionId(flexible));
+        assertEquals(11L, result.getSectionId(fixed));
+    }
+
+    @Test
+    @DisplayName("Should explain why requests stay unplaced")
+    void shouldReportReasons() {
+        SectioningProblem problem = new SectioningProblem();
+        section(problem, 11, MATH, 1, DayOfWeek.MONDAY, 9);
+        section(problem, 21, PHYSICS, 1, DayOfWeek.MONDAY, 9);
+        section(problem, 31, CHEMISTRY, 5, DayOfWeek.FRIDAY, 9);
+        problem.addPrerequisite(CHEMISTRY, PHYSICS);
+        problem.addRequest(101, 1, MATH, null);
+        int clash = problem.addRequest(102, 1, PHYSICS, null);
+        int ineligible = problem.addRequest(103, 1, CHEMISTRY, null);
+        int full = problem.addRequest(201, 2, MATH, null);
+        int missing = problem.addRequest(202, 2, 99, null);
+        problem.addCompletedCourse(3, PHYSICS);
+        int eligible = problem.addRequest(301, 3, CHEMISTRY, null);
+
+        SectioningResult result = new StudentSectioningEngine().section(problem);
+
+        assertEquals(SectioningResult.Reason.TIME_CONFLICT, result.getReason(clash));
+        assertEquals(SectioningResult.Reason.NOT_ELIGIBLE, result.getReason(ineligible));
+        assertEquals(SectioningResult.Reason.FULL, result.getReason(full));
+        assertEquals(SectioningResult.Reason.NO_SECTION, result.getReason(missing));
+        assertTrue(result.isPlaced(eligible));
+        assertNull(result.getReason(eligible));
+        assertEquals(2, result.getPlacedCount());
+    }
+
+    @Test
+    @DisplayName("Should section a large population without clashes or overfull sections")
+    void shouldSectionLargePopulation() {
+        int courses = 120;
+        int sectionsPerCourse = 4;
+        int students = 5_000;
+        int requestsPerStudent = 5;
+        Random random = new Random(7);
+
+        SectioningProblem problem = new SectioningProblem();
+        Map<Long, WeeklyOccupancy> weeks = new HashMap<>();
+        Map<Long, Integer> capacities = new HashMap<>();
+        long sectionId = 1;
+        for (long course = 1; course <= courses; course++) {
+            for (int s = 0; s < sectionsPerCourse; s++, sectionId++) {
+                DayOfWeek day = DayOfWeek.of(1 + random.nextInt(5));
+                int hour = 8 + random.nextInt(9);
+                int capacity = 70;
+                section(problem, sectionId, course, capacity, day, hour);
+                weeks.put(sectionId, WeeklyOccupancy.of(day, LocalTime.of(hour, 0), LocalTime.of(hour + 1, 0)));
+                capacities.put(sectionId, capacity);
+            }
+        }
+        List<Integer> requests = new ArrayList<>();
+        long requestId = 1;
+        for (long student = 1; student <= students; student++) {
+            Set<Long> chosen = new HashSet<>();
+            while (chosen.size() < requestsPerStudent) {
+                chosen.add(1L + random.nextInt(courses));
+            }
+            for (long course : chosen) {
+                requests.add(problem.addRequest(requestId++, student, course, null));
+            }
+        }
+
+        SectioningResult result = new StudentSectioningEngine(4, 3, 2_000).section(problem);
+
+        assertTrue(result.getPlacedCount() >= 0.98 * requests.size(), result.getSummary());
+        Map<Long, Integer> seats = new HashMap<>();
+        for (Map.Entry<Long, List<Long>> entry : result.getStudentSections().entrySet()) {
+            WeeklyOccupancy week = new WeeklyOccupancy();
+            for (long section : entry.getValue()) {
+                assertFalse(week.intersects(weeks.get(section)), "Student " + entry.getKey() + " has a clash");
+                week.addAll(weeks.get(section));
+                seats.merge(section, 1, Integer::sum);
+            }
+        }
+        seats.forEach((section, taken) -> assertTrue(taken <= capacities.get(section)));
+    }
+
+    private static void section(SectioningProblem problem, long id, long course, int capacity,
+                                DayOfWeek day, int hour) {
+        problem.addSection(id, course, capacity);
+        problem.addMeeting(id, day, LocalTime.of(hour, 0), LocalTime.of(hour + 1, 0));
+    }
+}
@@ -0,0 +1,225 @@
+package com.school.scheduling.algorithm.strategy;
+
+import com.school.scheduling.algorithm.ConstraintSatisfactionProblem;
+import com.school.scheduling.algorithm.DifferentValueConstraint;
+import com.school.scheduling.domain.constraint.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for GeneticAlgorithmStrategy class.
+ */
+class GeneticAlgorithmStrategyTest {
+
+    private Set<SchedulingVariable> variables;
+    private ConstraintSatisfactionProblem csp;
+
+    @BeforeEach
+    void setUp() {
+        variables = new HashSet<>();
+        for (int i = 1; i <= 5; i++) {
+            variables.add(new SchedulingVariable(
+                VariableType.COURSE_SCHEDULING,
+                "offering_" + i,
+                "CS10" + i + " Course " + i + " - Section 1"
+            ));
+        }
+
+        // Five offerings over four slots: every schedule has a clash, so runs use all their generations
+        List<SchedulingValue> timeSlots = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            timeSlots.add(new SchedulingValue(ValueType.TIME_SLOT, "slot_" + i,
+                "MONDAY " + (9 + i) + ":00 - " + (10 + i) + ":00 (MORNING)"));
+        }
+
+        Map<SchedulingVariable, List<SchedulingValue>> domains = new HashMap<>();
+        for (SchedulingVariable variable : variables) {
+            domains.put(variable, new ArrayList<>(timeSlots));
+        }
+
+        Set<SchedulingConstraint> constraints = DifferentValueConstraint.allPairs(variables);
+
+        csp = new ConstraintSatisfactionProblem(variables, constraints, domains);
+    }
+
+    @Test
+    @DisplayName("Should return a complete assignment from the island model")
+    void shouldReturnCompleteAssignment() {
+        GeneticAlgorithmStrategy ga = new GeneticAlgorithmStrategy(30, 20, 0.1, 0.8, 0.1, 3, 5, 2, 7L);
+        Optional<SchedulingAssignment> solution = ga.solve(csp);
+
+        assertTrue(solution.isPresent(), "Should return the best individual");
+        assertTrue(solution.get().isComplete(variables), "Best individual should be complete");
+        assertNotNull(ga.getPerformanceSummary(), "Should report run statistics");
+    }
+
+    @Test
+    @DisplayName("Should be deterministic for a fixed seed and island count")
+    void shouldBeDeterministicForFixedSeed() {
+        SchedulingAssignment first = new GeneticAlgorithmStrategy(20, 10, 0.2, 0.8, 0.1, 4, 3, 2, 42L)
+            .solve(csp).orElseThrow();
+
+        // Islands finish their epochs in any order; repeated runs catch migrants crossing epochs
+        for (int run = 0; run < 5; run++) {
+            SchedulingAssignment again = new GeneticAlgorithmStrategy(20, 10, 0.2, 0.8, 0.1, 4, 3, 2, 42L)
+                .solve(csp).orElseThrow();
+            for (SchedulingVariable variable : variables) {
+                assertEquals(first.getValue(variable), again.getValue(variable),
+                    "Same seed should produce the same schedule for " + variable.getId());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should continue a checkpointed run exactly as the uninterrupted run")
+    void shouldResumeFromCheckpoint() throws Exception {
+        SchedulingAssignment uninterrupted = new GeneticAlgorithmStrategy(20, 12, 0.2, 0.8, 0.1, 3, 3, 2, 42L)
+            .solve(csp).orElseThrow();
+
+        // Capture the state at the second migration barrier, then round-trip it through its binary form
+        List<SearchState> captured = new ArrayList<>();
+        SearchListener checkpointer = new SearchListener() {
+            private int polls;
+
+            @Override
+            public boolean checkpointDue() {
+                return ++polls == 2;
+            }
+
+            @Override
+            public void checkpoint(SearchState state) {
+                captured.add(state);
+            }
+        };
+        new GeneticAlgorithmStrategy(20, 12, 0.2, 0.8, 0.1, 3, 3, 2, 42L).solve(csp, Long.MAX_VALUE, checkpointer, null);
+        assertEquals(1, captured.size());
+        assertEquals(3, captured.get(0).getIteration(), "Checkpoint taken after the first epoch");
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        captured.get(0).writeTo(new DataOutputStream(bytes));
+        SearchState restored = SearchState.readFrom(
+            new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        SchedulingAssignment resumed = new GeneticAlgorithmStrategy(20, 12, 0.2, 0.8, 0.1, 3, 3, 2, 42L)
+            .solve(csp, Long.MAX_VALUE, SearchListener.NONE, restored).orElseThrow();
+        for (SchedulingVariable variable : variables) {
+            assertEquals(uninterrupted.getValue(variable), resumed.getValue(variable),
+                "Resumed run should match the uninterrupted one for " + variable.getId());
+        }
+    }
+
+    @Test
+    @DisplayName("Should return a deterministic front of mutually non-dominated schedules")
+    void shouldReturnParetoFront() {
+        ConstraintSatisfactionProblem mixed = mixedResourceProblem();
+        ParetoFront front = new GeneticAlgorithmStrategy(24, 15, 0.3, 0.9, 0.0, 1, 5, 0, 11L).solvePareto(mixed);
+        ParetoFront again = new GeneticAlgorithmStrategy(24, 15, 0.3, 0.9, 0.0, 1, 5, 0, 11L).solvePareto(mixed);
+
+        assertFalse(front.isEmpty(), "The first front is never empty");
+        assertEquals(15, front.getGenerations());
+        assertEquals(front.size(), again.size(), "Same seed should produce the same front");
+        for (int i = 0; i < front.size(); i++) {
+            assertArrayEquals(front.getSolutions().get(i).getObjectives(), again.getSolutions().get(i).getObjectives(),
+                              "Same seed should produce the same objective vectors");
+            assertEquals(front.getSolutions().get(i).getScore(), again.getSolutions().get(i).getScore());
+        }
+
+        GenomeEncoding encoding = new GenomeEncoding(mixed);
+        ScoreDirector director = new ScoreDirector(encoding, mixed);
+        ScheduleObjectives objectives = new ScheduleObjectives(encoding);
+        for (ParetoFront.Solution solution : front.getSolutions()) {
+            assertTrue(solution.getAssignment().isComplete(mixed.getVariables()));
+            IncrementalFitnessEvaluator.Tally tally = director.evaluate(encoding.encode(solution.getAssignment()));
+            assertArrayEquals(objectives.evaluate(tally), solution.getObjectives(), 1e-9);
+            assertEquals(tally.getScore().getHard(), solution.getScore().getHard());
+            assertEquals(tally.getScore().getSoft(), solution.getScore().getSoft(), 1e-9);
+
+            for (ParetoFront.Solution other : front.getSolutions()) {
+                assertFalse(dominates(other, solution), other + " dominates " + solution);
+            }
+        }
+        assertTrue(front.best(ScheduleObjectives.Objective.TIME_GAPS).isPresent());
+    }
+
+    @Test
+    @DisplayName("Should return the front reached so far once the deadline has passed")
+    void shouldStopParetoSearchAtDeadline() {
+        ConstraintSatisfactionProblem mixed = mixedResourceProblem();
+
+        ParetoFront front = new GeneticAlgorithmStrategy(24, 1000, 0.3, 0.9, 0.0, 1, 5, 0, 11L)
+            .solvePareto(mixed, System.currentTimeMillis());
+
+        assertEquals(0, front.getGenerations(), "No generation starts after the deadline");
+        assertFalse(front.isEmpty(), "The initial population still yields a front");
+    }
+
+    @Test
+    @DisplayName("Should sort population indices by descending fitness")
+    void shouldSortByFitness() {
+        double[] fitness = new double[40];
+        for (int i = 0; i < fitness.length; i++) {
+            fitness[i] = (i * 7) % 13;
+        }
+        int[] order = new int[fitness.length];
+
+        GeneticAlgorithmStrategy.sortByFitness(order, fitness);
+
+        for (int i = 1; i < order.length; i++) {
+            assertTrue(fitness[order[i - 1]] >= fitness[order[i]]);
+        }
+    }
+
+    // Hard score first, then Pareto dominance on the objectives
+    private static boolean dominates(ParetoFront.Solution a, ParetoFront.Solution b) {
+        if (a.getScore().getHard() != b.getScore().getHard()) {
+            return a.getScore().getHard() < b.getScore().getHard();
+        }
+        double[] x = a.getObjectives();
+        double[] y = b.getObjectives();
+        boolean better = false;
+        for (int m = 0; m < x.length; m++) {
+            if (x[m] > y[m]) return false;
+            better |= x[m] < y[m];
+        }
+        return better;
+    }
+
+    // Offerings choosing among teachers, rooms and slots of two days, with preferences
+    private ConstraintSatisfactionProblem mixedResourceProblem() {
+        List<SchedulingValue> values = new ArrayList<>();
+        for (int t = 1; t <= 3; t++) {
+            values.add(new SchedulingValue(ValueType.TEACHER, "t" + t, "Teacher " + t, 0.2 * t));
+        }
+        for (int r = 1; r <= 3; r++) {
+            values.add(new SchedulingValue(ValueType.CLASSROOM, "r" + r, "MAIN-10" + r, 0.5));
+        }
+        for (String day : List.of("MONDAY", "TUESDAY")) {
+            for (int hour = 8; hour < 12; hour++) {
+                values.add(new SchedulingValue(ValueType.TIME_SLOT, day + hour,
+                    day + " " + hour + ":00 - " + (hour + 1) + ":00 (MORNING)", hour == 8 ? 0.1 : 0.6));
+            }
+        }
+
+        Map<SchedulingVariable, List<SchedulingValue>> domains = new HashMap<>();
+        for (int i = 1; i <= 12; i++) {
+            domains.put(new SchedulingVariable(VariableType.COURSE_SCHEDULING, "mixed_" + i, "MATH" + i),
+                        new ArrayList<>(values));
+        }
+        List<SchedulingVariable> ordered = new ArrayList<>(domains.keySet());
+        Set<SchedulingConstraint> constraints = new HashSet<>();
+        for (int i = 0; i + 1 < ordered.size(); i += 2) {
+            constraints.add(new DifferentValueConstraint(ordered.get(i), ordered.get(i + 1)));
+        }
+        return new ConstraintSatisfactionProblem(new HashSet<>(ordered), constraints, domains);
+    }
+}
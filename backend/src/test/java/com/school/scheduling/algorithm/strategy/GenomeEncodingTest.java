@@ -0,0 +1,101 @@
+package com.school.scheduling.algorithm.strategy;
+
+import com.school.scheduling.algorithm.ConstraintSatisfactionProblem;
+import com.school.scheduling.domain.constraint.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for GenomeEncoding class.
+ */
+class GenomeEncodingTest {
+
+    private Set<SchedulingVariable> variables;
+    private GenomeEncoding encoding;
+
+    @BeforeEach
+    void setUp() {
+        variables = new HashSet<>();
+        for (int i = 1; i <= 4; i++) {
+            variables.add(new SchedulingVariable(VariableType.COURSE_SCHEDULING, "offering_" + i, "Course " + i));
+        }
+
+        List<SchedulingValue> values = Arrays.asList(
+            new SchedulingValue(ValueType.TEACHER, "1", "Teacher A"),
+            new SchedulingValue(ValueType.CLASSROOM, "2", "MAIN-101"),
+            new SchedulingValue(ValueType.TIME_SLOT, "3", "MONDAY 09:00 - 10:00 (MORNING)")
+        );
+
+        Map<SchedulingVariable, List<SchedulingValue>> domains = new HashMap<>();
+        for (SchedulingVariable variable : variables) {
+            domains.put(variable, new ArrayList<>(values));
+        }
+
+        encoding = new GenomeEncoding(new ConstraintSatisfactionProblem(variables, new HashSet<>(), domains));
+    }
+
+    @Test
+    @DisplayName("Should round-trip assignments through genomes")
+    void shouldRoundTripAssignments() {
+        int[] genome = encoding.newGenome();
+        encoding.randomize(genome, new Random(1));
+
+        SchedulingAssignment decoded = encoding.decode(genome);
+        assertTrue(decoded.isComplete(variables));
+        assertArrayEquals(genome, encoding.encode(decoded));
+    }
+
+    @Test
+    @DisplayName("Should share dictionary ids between domains")
+    void shouldShareDictionaryIds() {
+        assertEquals(3, encoding.getDistinctValueCount());
+        assertEquals(encoding.getValueId(0, 1), encoding.getValueId(3, 1));
+    }
+
+    @Test
+    @DisplayName("Should reuse a scratch assignment when decoding")
+    void shouldReuseScratchAssignment() {
+        SchedulingAssignment scratch = new SchedulingAssignment();
+        int[] genome = encoding.newGenome();
+
+        encoding.randomize(genome, new Random(2));
+        encoding.decodeInto(genome, scratch);
+        genome[0] = GenomeEncoding.UNASSIGNED;
+        encoding.decodeInto(genome, scratch);
+
+        assertEquals(variables.size() - 1, scratch.size());
+        assertNull(scratch.getValue(encoding.getVariable(0)));
+    }
+
+    @Test
+    @DisplayName("Should cross over and mutate within the domain")
+    void shouldCrossOverAndMutateWithinDomain() {
+        int[] parent1 = {0, 0, 0, 0};
+        int[] parent2 = {2, 2, 2, 2};
+        int[] child1 = new int[4];
+        int[] child2 = new int[4];
+
+        GenomeEncoding.crossover(parent1, parent2, child1, child2, new Random(3));
+        for (int gene = 0; gene < 4; gene++) {
+            assertEquals(2, child1[gene] + child2[gene], "Children should split each gene between parents");
+        }
+
+        int[] mutated = parent1.clone();
+        encoding.mutate(mutated, new Random(4));
+        assertEquals(1, countDifferences(parent1, mutated), "Mutation should change exactly one gene");
+    }
+
+    private int countDifferences(int[] a, int[] b) {
+        int differences = 0;
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] != b[i]) differences++;
+        }
+        return differences;
+    }
+}
@@ -0,0 +1,134 @@
+package com.school.scheduling.algorithm.strategy;
+
+import com.school.scheduling.algorithm.ConstraintSatisfactionProblem;
+import com.school.scheduling.algorithm.DifferentValueConstraint;
+import com.school.scheduling.algorithm.constraint.ResourceConflictConstraint;
+import com.school.scheduling.domain.constraint.*;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for GreedyStrategy class.
+ */
+class GreedyStrategyTest {
+
+    @Test
+    @DisplayName("Should build a conflict-free schedule with DSatur")
+    void shouldSolveWithDSatur() {
+        ConstraintSatisfactionProblem csp = cliqueProblem(6, 6, 6);
+        GreedyStrategy greedy = new GreedyStrategy(GreedyStrategy.HeuristicType.DSATUR, false, 10);
+
+        Optional<SchedulingAssignment> solution = greedy.solve(csp);
+
+        assertTrue(solution.isPresent());
+        assertTrue(solution.get().isComplete(csp.getVariables()));
+        assertEquals(0, greedy.getLastViolations());
+        assertEquals(1, greedy.getLastRuns(), "A feasible first run needs no discrepancy retries");
+    }
+
+    @Test
+    @DisplayName("Should return a complete near-feasible schedule when slots run out")
+    void shouldNotGiveUpWhenOverConstrained() {
+        ConstraintSatisfactionProblem csp = cliqueProblem(1, 5, 4);
+        GreedyStrategy greedy = new GreedyStrategy(GreedyStrategy.HeuristicType.DSATUR, false, 10, 2);
+
+        Optional<SchedulingAssignment> solution = greedy.solve(csp);
+
+        assertTrue(solution.isPresent(), "DSatur should not give up on a variable");
+        assertTrue(solution.get().isComplete(csp.getVariables()));
+        assertEquals(1, greedy.getLastViolations(), "Five offerings in four slots clash exactly once");
+        assertEquals(3, greedy.getLastRuns(), "Infeasible problems use every discrepancy retry");
+    }
+
+    @Test
+    @DisplayName("Should handle a few hundred offerings with overlapping conflict groups")
+    void shouldSolveLargeSparseProblem() {
+        ConstraintSatisfactionProblem csp = cliqueProblem(100, 6, 12);
+        GreedyStrategy greedy = new GreedyStrategy(GreedyStrategy.HeuristicType.DSATUR, false, 12);
+
+        Optional<SchedulingAssignment> solution = greedy.solve(csp);
+
+        assertTrue(solution.isPresent());
+        assertTrue(solution.get().isComplete(csp.getVariables()));
+        assertEquals(0, greedy.getLastViolations());
+    }
+
+    @Test
+    @DisplayName("Should colour the resource conflict graph of production constraints, one per resource")
+    void shouldSolveProductionConstraints() {
+        List<SchedulingVariable> ordered = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            ordered.add(new SchedulingVariable(VariableType.COURSE_SCHEDULING, String.valueOf(i + 1), "Course " + i));
+        }
+        List<SchedulingValue> timeSlots = new ArrayList<>();
+        for (long i = 1; i <= 5; i++) {
+            timeSlots.add(new SchedulingValue(ValueType.TIME_SLOT, i, "Slot " + i));
+        }
+        Map<SchedulingVariable, List<SchedulingValue>> domains = new HashMap<>();
+        for (SchedulingVariable variable : ordered) {
+            domains.put(variable, new ArrayList<>(timeSlots));
+        }
+
+        // Three teachers with four offerings each, and a room shared across teachers
+        Map<String, Set<SchedulingVariable>> groups = new HashMap<>();
+        for (int t = 0; t < 3; t++) {
+            groups.put("Teacher " + t, new HashSet<>(ordered.subList(t * 4, t * 4 + 4)));
+        }
+        groups.put("Room LAB", new HashSet<>(Arrays.asList(ordered.get(0), ordered.get(4), ordered.get(8), ordered.get(11))));
+        // Slots 4 and 5 overlap, so they count as one
+        Set<ResourceConflictConstraint> resources = ResourceConflictConstraint.forGroups(groups, Map.of(4L, 4L, 5L, 4L));
+        Set<SchedulingConstraint> constraints = new HashSet<>(resources);
+        resources.forEach(constraint -> assertEquals(groups.get(constraint.getResource()), constraint.getScope()));
+
+        ConstraintSatisfactionProblem csp = new ConstraintSatisfactionProblem(new HashSet<>(ordered), constraints, domains);
+        assertEquals(6, csp.getConflicts(ordered.get(0)).size(), "Three teacher colleagues and three other lab users");
+        assertSame(csp.getConflictGraph(), csp.getConflictGraph(), "The graph is built once per problem");
+
+        GreedyStrategy greedy = new GreedyStrategy(GreedyStrategy.HeuristicType.DSATUR, false, 10);
+        Optional<SchedulingAssignment> solution = greedy.solve(csp);
+
+        assertTrue(solution.isPresent());
+        assertTrue(solution.get().isComplete(csp.getVariables()));
+        assertEquals(0, greedy.getLastViolations());
+        resources.forEach(constraint -> assertTrue(constraint.validate(solution.get()).isSatisfied(), constraint.getName()));
+    }
+
+    /**
+     * Offerings in overlapping groups (each group shares half its members with the next one);
+     * offerings in the same group may not share a slot.
+     */
+    private ConstraintSatisfactionProblem cliqueProblem(int groups, int groupSize, int slots) {
+        int offerings = groups == 1 ? groupSize : groups * groupSize / 2 + groupSize / 2;
+        List<SchedulingVariable> ordered = new ArrayList<>();
+        for (int i = 0; i < offerings; i++) {
+            ordered.add(new SchedulingVariable(VariableType.COURSE_SCHEDULING, String.format("offering_%04d", i), "Course " + i));
+        }
+
+        List<SchedulingValue> timeSlots = new ArrayList<>();
+        for (int i = 0; i < slots; i++) {
+            timeSlots.add(new SchedulingValue(ValueType.TIME_SLOT, "slot_" + i, "Slot " + i));
+        }
+
+        Map<SchedulingVariable, List<SchedulingValue>> domains = new HashMap<>();
+        for (SchedulingVariable variable : ordered) {
+            domains.put(variable, new ArrayList<>(timeSlots));
+        }
+
+        Set<SchedulingConstraint> constraints = new HashSet<>();
+        for (int g = 0; g < groups; g++) {
+            int start = g * groupSize / 2;
+            for (int i = start; i < start + groupSize; i++) {
+                for (int j = i + 1; j < start + groupSize; j++) {
+                    constraints.add(new DifferentValueConstraint(ordered.get(i), ordered.get(j)));
+                }
+            }
+        }
+
+        return new ConstraintSatisfactionProblem(new HashSet<>(ordered), constraints, domains);
+    }
+}
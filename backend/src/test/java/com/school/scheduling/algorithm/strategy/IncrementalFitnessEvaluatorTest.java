@@ -0,0 +1,261 @@
+package com.school.scheduling.algorithm.strategy;
+
+import com.school.scheduling.algorithm.ConstraintSatisfactionProblem;
+import com.school.scheduling.algorithm.DifferentValueConstraint;
+import com.school.scheduling.algorithm.constraint.ClassroomCapacityConstraint;
+import com.school.scheduling.algorithm.constraint.ResourceConflictConstraint;
+import com.school.scheduling.algorithm.constraint.StudentScheduleConflictConstraint;
+import com.school.scheduling.algorithm.constraint.TeacherLoadConstraint;
+import com.school.scheduling.domain.constraint.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for IncrementalFitnessEvaluator class.
+ */
+class IncrementalFitnessEvaluatorTest {
+
+    private IncrementalFitnessEvaluator evaluator;
+
+    @BeforeEach
+    void setUp() {
+        Set<SchedulingVariable> variables = new HashSet<>();
+        for (int i = 1; i <= 5; i++) {
+            variables.add(new SchedulingVariable(VariableType.COURSE_SCHEDULING, "offering_" + i, "Course " + i));
+        }
+
+        List<SchedulingValue> values = new ArrayList<>();
+        values.add(new SchedulingValue(ValueType.TEACHER, "1", "Teacher A", 0.9));
+        values.add(new SchedulingValue(ValueType.TEACHER, "2", "Teacher B", 0.4));
+        values.add(new SchedulingValue(ValueType.CLASSROOM, "3", "MAIN-101", 0.7));
+        values.add(new SchedulingValue(ValueType.TIME_SLOT, "4", "MONDAY 09:00 - 10:00 (MORNING)", 0.5));
+
+        Map<SchedulingVariable, List<SchedulingValue>> domains = new HashMap<>();
+        for (SchedulingVariable variable : variables) {
+            domains.put(variable, new ArrayList<>(values));
+        }
+
+        Set<SchedulingConstraint> constraints = new HashSet<>();
+        List<SchedulingVariable> ordered = new ArrayList<>(variables);
+        for (int i = 0; i + 1 < ordered.size(); i++) {
+            constraints.add(new DifferentValueConstraint(ordered.get(i), ordered.get(i + 1)));
+        }
+        constraints.add(new NoTimeSlotConstraint());
+
+        ConstraintSatisfactionProblem csp = new ConstraintSatisfactionProblem(variables, constraints, domains);
+        evaluator = new IncrementalFitnessEvaluator(new GenomeEncoding(csp), csp);
+    }
+
+    @Test
+    @DisplayName("Should match a full evaluation after incremental changes")
+    void shouldMatchFullEvaluationAfterChanges() {
+        Random random = new Random(11);
+        IncrementalFitnessEvaluator.Tally tally = evaluator.newTally();
+        evaluator.getEncoding().randomize(tally.genome(), random);
+        tally.evaluate();
+
+        for (int step = 0; step < 200; step++) {
+            int gene = random.nextInt(tally.getVariableCount());
+            int value = random.nextInt(5) - 1; // includes UNASSIGNED
+            tally.change(gene, value);
+
+            assertSameComponents(evaluator.evaluate(tally.genome()), tally);
+        }
+    }
+
+    @Test
+    @DisplayName("Should derive a child tally from its parent")
+    void shouldDeriveChildFromParent() {
+        Random random = new Random(5);
+        IncrementalFitnessEvaluator.Tally parent = evaluator.newTally();
+        evaluator.getEncoding().randomize(parent.genome(), random);
+        parent.evaluate();
+
+        IncrementalFitnessEvaluator.Tally child = evaluator.newTally();
+        for (int round = 0; round < 50; round++) {
+            System.arraycopy(parent.genome(), 0, child.genome(), 0, child.genome().length);
+            evaluator.getEncoding().mutate(child.genome(), random);
+            child.deriveFrom(parent);
+
+            assertSameComponents(evaluator.evaluate(child.genome()), child);
+        }
+    }
+
+    @Test
+    @DisplayName("Should count distinct resources and preferences")
+    void shouldCountDistinctResources() {
+        IncrementalFitnessEvaluator.Tally tally = evaluator.newTally();
+        tally.evaluate();
+        tally.change(0, 0);
+        tally.change(1, 0);
+        tally.change(2, 1);
+        tally.change(3, 2);
+
+        assertEquals(2, tally.getDistinctCount(ValueType.TEACHER));
+        assertEquals(3, tally.getUseCount(ValueType.TEACHER));
+        assertEquals(1, tally.getDistinctCount(ValueType.CLASSROOM));
+        assertEquals(0.9 + 0.9 + 0.4 + 0.7, tally.getPreferenceSum(), 1e-9);
+
+        tally.change(0, GenomeEncoding.UNASSIGNED);
+        tally.change(1, GenomeEncoding.UNASSIGNED);
+        assertEquals(1, tally.getDistinctCount(ValueType.TEACHER));
+    }
+
+    @Test
+    @DisplayName("Should revalidate only the semester constraints of the offering a move changes")
+    void shouldRevalidateOnlyScopedSemesterConstraints() {
+        List<SchedulingVariable> offerings = new ArrayList<>();
+        Map<SchedulingVariable, List<SchedulingValue>> domains = new HashMap<>();
+        for (int i = 1; i <= 6; i++) {
+            SchedulingVariable offering = new SchedulingVariable(VariableType.COURSE_SCHEDULING, String.valueOf(i), "Course " + i);
+            offerings.add(offering);
+            domains.put(offering, List.of(
+                new SchedulingValue(ValueType.TEACHER, 1L, "Teacher 1"),
+                new SchedulingValue(ValueType.TEACHER, 2L, "Teacher 2"),
+                new SchedulingValue(ValueType.CLASSROOM, 101L, "MAIN-101"),
+                new SchedulingValue(ValueType.TIME_SLOT, 10L, "Slot 10"),
+                new SchedulingValue(ValueType.TIME_SLOT, 11L, "Slot 11")));
+        }
+
+        // Built the way SchedulingService.createSchedulingConstraints builds them
+        Set<SchedulingConstraint> built = new HashSet<>();
+        built.addAll(ResourceConflictConstraint.forGroups(Map.of(
+            "Teacher 1", new HashSet<>(offerings.subList(0, 3)),
+            "Teacher 2", new HashSet<>(offerings.subList(3, 6)),
+            "Room 101", Set.of(offerings.get(0), offerings.get(3))), new HashMap<>()));
+        built.addAll(TeacherLoadConstraint.forTeachers(Map.of(
+            1L, new TeacherLoadConstraint.TeacherLoad(2, 600),
+            2L, new TeacherLoadConstraint.TeacherLoad(2, 600)), domains, Map.of()));
+        Map<String, ClassroomCapacityConstraint.CourseRequirements> requirements = new HashMap<>();
+        offerings.forEach(offering -> requirements.put(offering.getEntityId(),
+            new ClassroomCapacityConstraint.CourseRequirements("C" + offering.getEntityId(), 20, null, false, false, Set.of())));
+        built.addAll(ClassroomCapacityConstraint.forOfferings(offerings, Map.of("101",
+            new ClassroomCapacityConstraint.ClassroomInfo("101", "LECTURE", 30, false, false, Set.of())), requirements, false, 1.0));
+        StudentScheduleConflictConstraint.Timetable timetable = new StudentScheduleConflictConstraint.Timetable(Map.of())
+            .addTimeSlot(10L, DayOfWeek.MONDAY, LocalTime.of(9, 0), LocalTime.of(10, 0))
+            .addTimeSlot(11L, DayOfWeek.MONDAY, LocalTime.of(10, 0), LocalTime.of(11, 0));
+        offerings.forEach(offering -> timetable.addOffering(offering.getEntityId(), "C" + offering.getEntityId(), 3));
+        StudentScheduleConflictConstraint.StudentInfo student =
+            new StudentScheduleConflictConstraint.StudentInfo(7L, Set.of(), Map.of(), 18, 0);
+        for (StudentScheduleConflictConstraint.Checks checks : StudentScheduleConflictConstraint.Checks.values()) {
+            built.add(new StudentScheduleConflictConstraint(
+                student, List.of(offerings.get(1), offerings.get(4)), timetable, checks, 4, 10));
+        }
+
+        AtomicInteger validations = new AtomicInteger();
+        Set<SchedulingConstraint> constraints = new HashSet<>();
+        built.forEach(constraint -> constraints.add(new CountingConstraint(constraint, validations)));
+        ConstraintSatisfactionProblem csp = new ConstraintSatisfactionProblem(new HashSet<>(offerings), constraints, domains);
+        IncrementalFitnessEvaluator semester = new IncrementalFitnessEvaluator(new GenomeEncoding(csp), csp);
+
+        IncrementalFitnessEvaluator.Tally tally = semester.newTally();
+        semester.getEncoding().randomize(tally.genome(), new Random(3));
+        tally.evaluate();
+        SchedulingVariable moved = offerings.get(0);
+        long touching = constraints.stream().filter(constraint -> constraint.getScope().contains(moved)).count();
+
+        validations.set(0);
+        tally.change(semester.getEncoding().indexOf(moved), 3);
+
+        assertEquals(touching, validations.get(), "Only constraints scoped to the moved offering are revalidated");
+        assertTrue(validations.get() < constraints.size(), validations + " of " + constraints.size());
+        assertSameComponents(semester.evaluate(tally.genome()), tally);
+    }
+
+    private void assertSameComponents(IncrementalFitnessEvaluator.Tally expected,
+                                      IncrementalFitnessEvaluator.Tally actual) {
+        assertEquals(expected.getSatisfiedCount(), actual.getSatisfiedCount());
+        assertEquals(expected.getApplicableCount(), actual.getApplicableCount());
+        assertEquals(expected.getSatisfiedApplicableCount(), actual.getSatisfiedApplicableCount());
+        assertEquals(expected.getAssignedCount(), actual.getAssignedCount());
+        assertEquals(expected.getPreferenceSum(), actual.getPreferenceSum(), 1e-9);
+        for (ValueType type : ValueType.values()) {
+            assertEquals(expected.getDistinctCount(type), actual.getDistinctCount(type));
+            assertEquals(expected.getUseCount(type), actual.getUseCount(type));
+        }
+    }
+
+
+    // Global constraint (empty scope): no offering may use a time slot value
+    private static class NoTimeSlotConstraint extends SchedulingConstraint {
+        NoTimeSlotConstraint() {
+            super("No Time Slot", ConstraintType.TEACHER_AVAILABILITY, ConstraintPriority.MEDIUM,
+                  "Global constraint for testing");
+        }
+
+        @Override
+        public ConstraintResult validate(SchedulingAssignment assignment) {
+            for (SchedulingValue value : assignment.getAssignedValues()) {
+                if (value.getType() == ValueType.TIME_SLOT) {
+                    return ConstraintResult.violated("Time slot used");
+                }
+            }
+            return ConstraintResult.satisfied();
+        }
+
+        @Override
+        public Set<SchedulingVariable> getScope() {
+            return new HashSet<>();
+        }
+
+        @Override
+        public List<SchedulingValue> getValidValues(SchedulingAssignment assignment,
+                                                   Map<SchedulingVariable, List<SchedulingValue>> domains) {
+            return new ArrayList<>();
+        }
+    }
+
+    // Passes everything to a semester constraint and counts its validations
+    private static class CountingConstraint extends SchedulingConstraint {
+        private final SchedulingConstraint delegate;
+        private final AtomicInteger validations;
+
+        CountingConstraint(SchedulingConstraint delegate, AtomicInteger validations) {
+            super(delegate.getName(), delegate.getType(), delegate.getPriority(), delegate.getDescription());
+            this.delegate = delegate;
+            this.validations = validations;
+        }
+
+        @Override
+        public ConstraintResult validate(SchedulingAssignment assignment) {
+            validations.incrementAndGet();
+            return delegate.validate(assignment);
+        }
+
+        @Override
+        public int countViolations(SchedulingAssignment assignment) {
+            validations.incrementAndGet();
+            return delegate.countViolations(assignment);
+        }
+
+        @Override
+        public int getMaximumViolations() {
+            return delegate.getMaximumViolations();
+        }
+
+        @Override
+        public Set<SchedulingVariable> getScope() {
+            return delegate.getScope();
+        }
+
+        @Override
+        public Collection<Set<SchedulingVariable>> getConflictGroups() {
+            return delegate.getConflictGroups();
+        }
+
+        @Override
+        public List<SchedulingValue> getValidValues(SchedulingAssignment assignment,
+                                                   Map<SchedulingVariable, List<SchedulingValue>> domains) {
+            return delegate.getValidValues(assignment, domains);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.school.scheduling.algorithm.strategy;
+
+import com.school.scheduling.algorithm.ConstraintSatisfactionProblem;
+import com.school.scheduling.algorithm.DifferentValueConstraint;
+import com.school.scheduling.domain.constraint.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for LargeNeighborhoodSearchStrategy class.
+ */
+class LargeNeighborhoodSearchStrategyTest {
+
+    private Set<SchedulingVariable> variables;
+    private Map<SchedulingVariable, List<SchedulingValue>> domains;
+    private ConstraintSatisfactionProblem csp;
+
+    @BeforeEach
+    void setUp() {
+        variables = new HashSet<>();
+        for (int i = 1; i <= 6; i++) {
+            variables.add(new SchedulingVariable(
+                VariableType.COURSE_SCHEDULING,
+                "offering_" + i,
+                "CS10" + i + " Course " + i + " - Section 1"
+            ));
+        }
+
+        List<SchedulingValue> timeSlots = new ArrayList<>();
+        String[] days = {"MONDAY", "TUESDAY", "WEDNESDAY"};
+        for (int i = 0; i < 6; i++) {
+            timeSlots.add(new SchedulingValue(ValueType.TIME_SLOT, "slot_" + i,
+                days[i % days.length] + " 09:00 - 10:00 (MORNING)"));
+        }
+
+        domains = new HashMap<>();
+        for (SchedulingVariable variable : variables) {
+            domains.put(variable, new ArrayList<>(timeSlots));
+        }
+
+        Set<SchedulingConstraint> constraints = DifferentValueConstraint.allPairs(variables);
+
+        csp = new ConstraintSatisfactionProblem(variables, constraints, domains);
+    }
+
+    @Test
+    @DisplayName("Should repair an infeasible starting solution")
+    void shouldRepairInfeasibleStartingSolution() {
+        SchedulingAssignment initial = new SchedulingAssignment();
+        for (SchedulingVariable variable : variables) {
+            initial.assign(variable, domains.get(variable).get(0));
+        }
+
+        LargeNeighborhoodSearchStrategy lns = new LargeNeighborhoodSearchStrategy(200, 500, 0.5, 2, 0.2);
+        Optional<SchedulingAssignment> solution = lns.solve(csp, initial);
+
+        assertTrue(solution.isPresent(), "Should return the incumbent");
+        assertTrue(solution.get().isComplete(variables), "Incumbent should stay complete");
+        assertTrue(allSlotsDistinct(solution.get()), "Every offering should end up in its own slot");
+    }
+
+    @Test
+    @DisplayName("Should keep an already feasible solution feasible")
+    void shouldKeepFeasibleSolutionFeasible() {
+        Optional<SchedulingAssignment> start = csp.solve();
+        assertTrue(start.isPresent());
+
+        LargeNeighborhoodSearchStrategy lns = new LargeNeighborhoodSearchStrategy(20, 100, 0.3, 1, 0.2);
+        Optional<SchedulingAssignment> solution = lns.solve(csp, start.get());
+
+        assertTrue(solution.isPresent());
+        assertTrue(allSlotsDistinct(solution.get()));
+    }
+
+    @Test
+    @DisplayName("Should relax structured neighborhoods")
+    void shouldRelaxStructuredNeighborhoods() {
+        SchedulingAssignment assignment = csp.solve().orElseThrow();
+
+        Set<SchedulingVariable> dayNeighborhood = LargeNeighborhoodSearchStrategy.NeighborhoodOperator.DAY
+            .selectVariables(assignment, csp, variables.size(), ThreadLocalRandom.current());
+
+        assertFalse(dayNeighborhood.isEmpty());
+        String day = assignment.getValue(dayNeighborhood.iterator().next()).getDisplayName().split(" ")[0];
+        for (SchedulingVariable variable : dayNeighborhood) {
+            assertTrue(assignment.getValue(variable).getDisplayName().startsWith(day),
+                "Day neighborhood should only contain offerings on " + day);
+        }
+
+        Set<SchedulingVariable> randomNeighborhood = LargeNeighborhoodSearchStrategy.NeighborhoodOperator.RANDOM
+            .selectVariables(assignment, csp, 2, ThreadLocalRandom.current());
+        assertEquals(2, randomNeighborhood.size(), "Neighborhood should respect the size cap");
+    }
+
+    @Test
+    @DisplayName("Should favor operators that earn rewards")
+    void shouldFavorRewardedOperators() {
+        LargeNeighborhoodSearchStrategy.AdaptiveOperatorSelector selector =
+            new LargeNeighborhoodSearchStrategy.AdaptiveOperatorSelector(0.5);
+
+        for (int i = 0; i < 5; i++) {
+            selector.reward(LargeNeighborhoodSearchStrategy.NeighborhoodOperator.TEACHER, 3.0);
+            selector.reward(LargeNeighborhoodSearchStrategy.NeighborhoodOperator.RANDOM, 0.0);
+        }
+
+        assertTrue(selector.getWeight(LargeNeighborhoodSearchStrategy.NeighborhoodOperator.TEACHER) >
+                   selector.getWeight(LargeNeighborhoodSearchStrategy.NeighborhoodOperator.DEPARTMENT));
+        assertTrue(selector.getWeight(LargeNeighborhoodSearchStrategy.NeighborhoodOperator.RANDOM) <
+                   selector.getWeight(LargeNeighborhoodSearchStrategy.NeighborhoodOperator.DEPARTMENT));
+    }
+
+    private boolean allSlotsDistinct(SchedulingAssignment assignment) {
+        Set<String> used = new HashSet<>();
+        for (SchedulingVariable variable : assignment.getAssignedVariables()) {
+            if (!used.add(assignment.getValue(variable).getId())) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
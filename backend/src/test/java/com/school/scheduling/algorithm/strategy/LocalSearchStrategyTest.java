@@ -0,0 +1,167 @@
+package com.school.scheduling.algorithm.strategy;
+
+import com.school.scheduling.algorithm.ConstraintSatisfactionProblem;
+import com.school.scheduling.algorithm.DifferentValueConstraint;
+import com.school.scheduling.algorithm.pipeline.SolvePipeline;
+import com.school.scheduling.domain.constraint.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for LocalSearchStrategy class.
+ */
+class LocalSearchStrategyTest {
+
+    private Set<SchedulingVariable> variables;
+    private ConstraintSatisfactionProblem csp;
+
+    @BeforeEach
+    void setUp() {
+        variables = new HashSet<>();
+        for (int i = 1; i <= 5; i++) {
+            variables.add(new SchedulingVariable(
+                VariableType.COURSE_SCHEDULING,
+                "offering_" + i,
+                "CS10" + i + " Course " + i + " - Section 1"
+            ));
+        }
+
+        List<SchedulingValue> timeSlots = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            timeSlots.add(new SchedulingValue(ValueType.TIME_SLOT, "slot_" + i,
+                "MONDAY " + (9 + i) + ":00 - " + (10 + i) + ":00 (MORNING)"));
+        }
+
+        Map<SchedulingVariable, List<SchedulingValue>> domains = new HashMap<>();
+        for (SchedulingVariable variable : variables) {
+            domains.put(variable, new ArrayList<>(timeSlots));
+        }
+
+        Set<SchedulingConstraint> constraints = DifferentValueConstraint.allPairs(variables);
+
+        csp = new ConstraintSatisfactionProblem(variables, constraints, domains);
+    }
+
+    @Test
+    @DisplayName("Should find a conflict-free schedule with parallel tempering")
+    void shouldSolveWithParallelTempering() {
+        LocalSearchStrategy localSearch = new LocalSearchStrategy(2000, 2000, 1.0, 0.995, true, 4, 25, 2);
+        Optional<SchedulingAssignment> solution = localSearch.solveWithParallelTempering(csp);
+
+        assertTrue(solution.isPresent(), "Should return the best replica state");
+        assertTrue(solution.get().isComplete(variables), "Best state should be complete");
+        assertTrue(allSlotsDistinct(solution.get()), "Every offering should end up in its own slot");
+    }
+
+    @Test
+    @DisplayName("Should run replicas on a caller-supplied pool")
+    void shouldRunOnSuppliedPool() {
+        ExecutorService workers = Executors.newFixedThreadPool(3);
+        try {
+            LocalSearchStrategy localSearch = new LocalSearchStrategy(300, 300, 1.0, 0.995, true, 6, 10, 3);
+            assertTrue(localSearch.solveWithParallelTempering(csp, workers).isPresent());
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Should stop parallel tempering at the deadline and never lose the starting schedule")
+    void shouldStopParallelTemperingAtDeadline() {
+        // More offerings than slots: no schedule is clash-free, so only the deadline ends the search
+        ConstraintSatisfactionProblem crowded = pairwiseProblem(30, 20);
+        SchedulingAssignment start = new LocalSearchStrategy().solve(crowded).orElseThrow();
+        LocalSearchStrategy localSearch = new LocalSearchStrategy(Integer.MAX_VALUE, Integer.MAX_VALUE, 1.0, 0.995,
+                                                                  true, 4, 50, 2);
+        AtomicLong nodes = new AtomicLong();
+
+        long started = System.currentTimeMillis();
+        Optional<SchedulingAssignment> solution = localSearch.solveWithParallelTempering(
+            crowded, start, started + 200, new SearchListener() {
+                @Override
+                public void nodesExplored(long count) {
+                    nodes.addAndGet(count);
+                }
+            }, null);
+        long elapsed = System.currentTimeMillis() - started;
+
+        assertTrue(solution.isPresent());
+        assertTrue(elapsed < 2000, "Sweeps should stop at the deadline, took " + elapsed + " ms");
+        assertTrue(nodes.get() > 0, "Replica steps are reported to the listener");
+        assertTrue(SolvePipeline.Quality.of(crowded, solution.get()).compareTo(SolvePipeline.Quality.of(crowded, start)) <= 0,
+                   "The best replica state is at least as good as the start");
+    }
+
+        @Test
+    @DisplayName("Should keep every variable assigned during simulated annealing")
+    void shouldKeepAssignmentsCompleteDuringAnnealing() {
+        Optional<SchedulingAssignment> solution = new LocalSearchStrategy().solve(csp);
+
+        assertTrue(solution.isPresent());
+        assertTrue(solution.get().isComplete(variables));
+    }
+
+    @Test
+    @DisplayName("Should solve with move-based tabu search")
+    void shouldSolveWithTabuSearch() {
+        LocalSearchStrategy localSearch = new LocalSearchStrategy(200, 200, 1.0, 0.995, false, 2, 10, 1, 0);
+        Optional<SchedulingAssignment> solution = localSearch.solveWithTabuSearch(csp);
+
+        assertTrue(solution.isPresent());
+        assertTrue(allSlotsDistinct(solution.get()), "Full-scan tabu search should remove every clash");
+    }
+
+    @Test
+    @DisplayName("Should score large tabu neighborhoods in parallel")
+    void shouldScoreLargeNeighborhoodsInParallel() {
+        ConstraintSatisfactionProblem large = pairwiseProblem(20, 20);
+        Set<SchedulingVariable> largeVariables = large.getVariables();
+
+        LocalSearchStrategy localSearch = new LocalSearchStrategy(300, 300, 1.0, 0.995, false, 2, 10, 4, 0);
+        Optional<SchedulingAssignment> solution = localSearch.solveWithTabuSearch(large);
+
+        assertTrue(solution.isPresent());
+        assertTrue(solution.get().isComplete(largeVariables));
+        assertTrue(allSlotsDistinct(solution.get()));
+    }
+
+    private ConstraintSatisfactionProblem pairwiseProblem(int offerings, int slots) {
+        Set<SchedulingVariable> problemVariables = new HashSet<>();
+        for (int i = 1; i <= offerings; i++) {
+            problemVariables.add(new SchedulingVariable(VariableType.COURSE_SCHEDULING, "offering_" + i, "Course " + i));
+        }
+
+        List<SchedulingValue> timeSlots = new ArrayList<>();
+        for (int i = 0; i < slots; i++) {
+            timeSlots.add(new SchedulingValue(ValueType.TIME_SLOT, "slot_" + i, "Slot " + i));
+        }
+
+        Map<SchedulingVariable, List<SchedulingValue>> domains = new HashMap<>();
+        for (SchedulingVariable variable : problemVariables) {
+            domains.put(variable, new ArrayList<>(timeSlots));
+        }
+
+        Set<SchedulingConstraint> constraints = DifferentValueConstraint.allPairs(problemVariables);
+
+        return new ConstraintSatisfactionProblem(problemVariables, constraints, domains);
+    }
+
+    private boolean allSlotsDistinct(SchedulingAssignment assignment) {
+        Set<String> used = new HashSet<>();
+        for (SchedulingVariable variable : assignment.getAssignedVariables()) {
+            if (!used.add(assignment.getValue(variable).getId())) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
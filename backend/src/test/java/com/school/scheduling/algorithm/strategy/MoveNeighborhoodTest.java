@@ -0,0 +1,126 @@
+package com.school.scheduling.algorithm.strategy;
+
+import com.school.scheduling.algorithm.ConstraintSatisfactionProblem;
+import com.school.scheduling.algorithm.DifferentValueConstraint;
+import com.school.scheduling.algorithm.constraint.ResourceConflictConstraint;
+import com.school.scheduling.domain.constraint.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for MoveNeighborhood class.
+ */
+class MoveNeighborhoodTest {
+
+    private ConstraintSatisfactionProblem csp;
+    private GenomeEncoding encoding;
+    private IncrementalFitnessEvaluator evaluator;
+    private MoveNeighborhood neighborhood;
+
+    @BeforeEach
+    void setUp() {
+        Set<SchedulingVariable> variables = new HashSet<>();
+        for (int i = 1; i <= 4; i++) {
+            variables.add(new SchedulingVariable(VariableType.COURSE_SCHEDULING, "offering_" + i, "Course " + i));
+        }
+
+        List<SchedulingValue> timeSlots = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            timeSlots.add(new SchedulingValue(ValueType.TIME_SLOT, "slot_" + i, "Slot " + i));
+        }
+
+        Map<SchedulingVariable, List<SchedulingValue>> domains = new HashMap<>();
+        for (SchedulingVariable variable : variables) {
+            domains.put(variable, new ArrayList<>(timeSlots));
+        }
+
+        Set<SchedulingConstraint> constraints = DifferentValueConstraint.allPairs(variables);
+
+        csp = new ConstraintSatisfactionProblem(variables, constraints, domains);
+        encoding = new GenomeEncoding(csp);
+        evaluator = new IncrementalFitnessEvaluator(encoding, csp);
+        neighborhood = new MoveNeighborhood(encoding, csp);
+    }
+
+    @Test
+    @DisplayName("Should build the conflict graph from constraint scopes")
+    void shouldBuildConflictGraph() {
+        for (int gene = 0; gene < encoding.size(); gene++) {
+            assertEquals(3, neighborhood.getConflicts(gene).length, "Every offering clashes with the other three");
+        }
+    }
+
+    @Test
+    @DisplayName("Should build the conflict graph from one constraint per shared resource")
+    void shouldBuildConflictGraphFromResources() {
+        List<SchedulingVariable> ordered = new ArrayList<>(csp.getVariables());
+        ordered.sort(Comparator.comparing(SchedulingVariable::getEntityId));
+        Map<String, Set<SchedulingVariable>> groups = new HashMap<>();
+        groups.put("Teacher 1", new HashSet<>(ordered.subList(0, 2)));
+        groups.put("Teacher 2", new HashSet<>(ordered.subList(2, 4)));
+        groups.put("Room 101", new HashSet<>(Arrays.asList(ordered.get(1), ordered.get(2))));
+        ConstraintSatisfactionProblem resources = new ConstraintSatisfactionProblem(
+            new HashSet<>(ordered), new HashSet<>(ResourceConflictConstraint.forGroups(groups, new HashMap<>())), csp.getDomains());
+        GenomeEncoding resourceEncoding = new GenomeEncoding(resources);
+        MoveNeighborhood resourceNeighborhood = new MoveNeighborhood(resourceEncoding, resources);
+
+        int[] degrees = new int[4];
+        for (int i = 0; i < 4; i++) {
+            degrees[i] = resourceNeighborhood.getConflicts(resourceEncoding.indexOf(ordered.get(i))).length;
+        }
+        assertArrayEquals(new int[] {1, 2, 2, 1}, degrees, "A path through the shared room");
+    }
+
+    @Test
+    @DisplayName("Should swap two values and restore them on undo")
+    void shouldSwapAndUndo() {
+        IncrementalFitnessEvaluator.Tally tally = evaluator.evaluate(new int[] {0, 1, 2, 3});
+        Move swap = neighborhood.swap(0, 2, tally.genome());
+        int[] previous = new int[swap.size()];
+
+        swap.apply(tally, previous);
+        assertArrayEquals(new int[] {2, 1, 0, 3}, tally.genome());
+        assertEquals(tally.getConstraintCount(), tally.getSatisfiedCount(), "A swap keeps distinct slots distinct");
+
+        swap.undo(tally, previous);
+        assertArrayEquals(new int[] {0, 1, 2, 3}, tally.genome());
+    }
+
+    @Test
+    @DisplayName("Should interchange two slots along a Kempe chain without creating clashes")
+    void shouldApplyKempeChainWithoutClashes() {
+        IncrementalFitnessEvaluator.Tally tally = evaluator.evaluate(new int[] {0, 1, 2, 3});
+        Move chain = neighborhood.kempeChain(tally.genome(), 0, 1);
+
+        assertNotNull(chain);
+        assertEquals(2, chain.size(), "The chain holds the offerings in slot 0 and slot 1");
+
+        int[] previous = new int[chain.size()];
+        chain.apply(tally, previous);
+        assertArrayEquals(new int[] {1, 0, 2, 3}, tally.genome());
+        assertEquals(tally.getConstraintCount(), tally.getSatisfiedCount());
+
+        IncrementalFitnessEvaluator.Tally full = evaluator.evaluate(tally.genome());
+        assertEquals(full.getSatisfiedCount(), tally.getSatisfiedCount(), "Delta scoring should match a full evaluation");
+    }
+
+    @Test
+    @DisplayName("Should only generate moves that stay inside the domains")
+    void shouldGenerateMovesWithinDomains() {
+        Random random = new Random(7);
+        int[] genome = new int[] {0, 1, 2, 3};
+        for (int i = 0; i < 200; i++) {
+            Move move = neighborhood.randomMove(genome, random);
+            assertNotNull(move);
+            for (int j = 0; j < move.size(); j++) {
+                assertTrue(move.value(j) >= 0 && move.value(j) < encoding.domainSize(move.gene(j)));
+            }
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.school.scheduling.algorithm.strategy;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for NonDominatedSorter class.
+ */
+class NonDominatedSorterTest {
+
+    @Test
+    @DisplayName("Should peel individuals into fronts by dominance")
+    void shouldRankFronts() {
+        // Two objectives; 0, 1 and 2 trade off, 3 is dominated by 1, 4 by 3
+        double[][] values = {
+            {1, 2, 3, 2.5, 4},
+            {3, 2, 1, 2.5, 4}
+        };
+        double[] violation = new double[5];
+        int[] rank = new int[5];
+        NonDominatedSorter sorter = new NonDominatedSorter(5);
+
+        assertEquals(3, sorter.sort(values, violation, 5, rank));
+        assertArrayEquals(new int[] {0, 0, 0, 1, 2}, rank);
+        assertEquals(3, sorter.frontEnd(0) - sorter.frontStart(0));
+    }
+
+    @Test
+    @DisplayName("Should let the less violating individual dominate")
+    void shouldPreferLowerViolation() {
+        double[][] values = {{0, 5}, {0, 5}};
+        double[] violation = {2, 1};
+        int[] rank = new int[2];
+
+        new NonDominatedSorter(2).sort(values, violation, 2, rank);
+
+        assertArrayEquals(new int[] {1, 0}, rank);
+        assertEquals(0, NonDominatedSorter.compare(values, new double[2], 0, 0));
+    }
+
+    @Test
+    @DisplayName("Should give boundary members infinite crowding and interior ones their neighbours' spread")
+    void shouldComputeCrowdingDistance() {
+        double[][] values = {
+            {0, 1, 3, 4},
+            {4, 3, 1, 0}
+        };
+        double[] distance = new double[4];
+        NonDominatedSorter sorter = new NonDominatedSorter(4);
+        sorter.sort(values, new double[4], 4, new int[4]);
+
+        sorter.crowding(values, 0, distance);
+
+        assertEquals(Double.POSITIVE_INFINITY, distance[0]);
+        assertEquals(Double.POSITIVE_INFINITY, distance[3]);
+        assertEquals(2 * (3.0 / 4), distance[1], 1e-9);
+        assertEquals(2 * (3.0 / 4), distance[2], 1e-9);
+    }
+}
@@ -0,0 +1,55 @@
+package com.school.scheduling.algorithm.strategy;
+
+import com.school.scheduling.algorithm.ConstraintSatisfactionProblem;
+import com.school.scheduling.domain.constraint.*;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ScheduleObjectives class.
+ */
+class ScheduleObjectivesTest {
+
+    @Test
+    @DisplayName("Should measure workload spread, room spread and gaps within each day")
+    void shouldEvaluateObjectives() {
+        List<SchedulingValue> values = List.of(
+            new SchedulingValue(ValueType.TEACHER, "t1", "Teacher 1", 1.0),
+            new SchedulingValue(ValueType.TEACHER, "t2", "Teacher 2", 1.0),
+            new SchedulingValue(ValueType.CLASSROOM, "r1", "MAIN-101", 1.0),
+            new SchedulingValue(ValueType.TIME_SLOT, "m9", "MONDAY 9:00 - 10:00 (MORNING)", 1.0),
+            new SchedulingValue(ValueType.TIME_SLOT, "m11", "MONDAY 11:00 - 12:00 (MORNING)", 0.5),
+            new SchedulingValue(ValueType.TIME_SLOT, "m10", "MONDAY 10:00 - 11:00 (MORNING)", 1.0),
+            new SchedulingValue(ValueType.TIME_SLOT, "t9", "TUESDAY 9:00 - 10:00 (MORNING)", 1.0));
+
+        Map<SchedulingVariable, List<SchedulingValue>> domains = new HashMap<>();
+        for (int i = 1; i <= 5; i++) {
+            domains.put(new SchedulingVariable(VariableType.COURSE_SCHEDULING, "o" + i, "Course " + i), values);
+        }
+        ConstraintSatisfactionProblem csp = new ConstraintSatisfactionProblem(
+            new HashSet<>(domains.keySet()), new HashSet<>(), domains);
+        GenomeEncoding encoding = new GenomeEncoding(csp);
+
+        // Teacher 1 twice, the room once, Monday 9:00 and 11:00 with 10:00 free in between
+        SchedulingAssignment assignment = new SchedulingAssignment();
+        List<SchedulingVariable> variables = new ArrayList<>(domains.keySet());
+        assignment.assign(variables.get(0), values.get(0));
+        assignment.assign(variables.get(1), values.get(0));
+        assignment.assign(variables.get(2), values.get(2));
+        assignment.assign(variables.get(3), values.get(3));
+        assignment.assign(variables.get(4), values.get(4));
+
+        IncrementalFitnessEvaluator.Tally tally = new ScoreDirector(encoding, csp).evaluate(encoding.encode(assignment));
+        double[] result = new ScheduleObjectives(encoding).evaluate(tally);
+
+        assertEquals(0.5, result[ScheduleObjectives.Objective.PREFERENCE_REGRET.ordinal()], 1e-9);
+        assertEquals(1.0, result[ScheduleObjectives.Objective.TEACHER_WORKLOAD_IMBALANCE.ordinal()], 1e-9);
+        assertEquals(1.0, result[ScheduleObjectives.Objective.ROOM_SPREAD.ordinal()], 1e-9);
+        assertEquals(1.0, result[ScheduleObjectives.Objective.TIME_GAPS.ordinal()], 1e-9);
+    }
+}
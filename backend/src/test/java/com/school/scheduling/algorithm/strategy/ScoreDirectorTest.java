@@ -0,0 +1,225 @@
+package com.school.scheduling.algorithm.strategy;
+
+import com.school.scheduling.algorithm.ConstraintSatisfactionProblem;
+import com.school.scheduling.algorithm.DifferentValueConstraint;
+import com.school.scheduling.algorithm.constraint.ResourceConflictConstraint;
+import com.school.scheduling.domain.constraint.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ScoreDirector class.
+ */
+class ScoreDirectorTest {
+
+    private ConstraintSatisfactionProblem csp;
+    private GenomeEncoding encoding;
+    private List<SchedulingVariable> variables;
+
+    @BeforeEach
+    void setUp() {
+        variables = new ArrayList<>();
+        for (int i = 1; i <= 4; i++) {
+            variables.add(new SchedulingVariable(VariableType.COURSE_SCHEDULING, "offering_" + i, "Course " + i));
+        }
+
+        // Index 0 is the preferred value, index 2 the time slot the priority constraints forbid
+        List<SchedulingValue> values = new ArrayList<>();
+        values.add(new SchedulingValue(ValueType.TEACHER, "1", "Teacher A", 0.9));
+        values.add(new SchedulingValue(ValueType.CLASSROOM, "2", "MAIN-101", 0.4));
+        values.add(new SchedulingValue(ValueType.TIME_SLOT, "3", "MONDAY 09:00 - 10:00 (MORNING)", 0.5));
+
+        Map<SchedulingVariable, List<SchedulingValue>> domains = new HashMap<>();
+        for (SchedulingVariable variable : variables) {
+            domains.put(variable, new ArrayList<>(values));
+        }
+
+        Set<SchedulingConstraint> constraints = new HashSet<>();
+        constraints.add(new DifferentValueConstraint(variables.get(0), variables.get(1)));
+        constraints.add(new NoTimeSlotConstraint(variables.get(1), ConstraintPriority.HIGH));
+        constraints.add(new NoTimeSlotConstraint(variables.get(2), ConstraintPriority.MEDIUM));
+        constraints.add(new NoTimeSlotConstraint(variables.get(3), ConstraintPriority.LOW));
+
+        csp = new ConstraintSatisfactionProblem(new HashSet<>(variables), constraints, domains);
+        encoding = new GenomeEncoding(csp);
+    }
+
+    @Test
+    @DisplayName("Should keep the score equal to a from-scratch score under random changes")
+    void shouldMatchFromScratchScoreAfterChanges() {
+        ScoreDirector director = new ScoreDirector(encoding, csp);
+        Random random = new Random(17);
+        IncrementalFitnessEvaluator.Tally tally = director.newTally();
+        encoding.randomize(tally.genome(), random);
+        tally.evaluate();
+
+        for (int step = 0; step < 300; step++) {
+            tally.change(random.nextInt(encoding.size()), random.nextInt(4) - 1); // includes UNASSIGNED
+
+            ScoreDirector.Score expected = director.score(encoding.decode(tally.genome()));
+            ScoreDirector.Score actual = tally.getScore();
+            assertEquals(expected.getHard(), actual.getHard());
+            assertEquals(expected.getMedium(), actual.getMedium());
+            assertEquals(expected.getSoft(), actual.getSoft(), 1e-9);
+            assertEquals(director.fitness(expected), tally.getFitness(), 1e-9);
+        }
+    }
+
+    @Test
+    @DisplayName("Should score constraints on the level of their priority")
+    void shouldScoreByPriority() {
+        ScoreDirector director = new ScoreDirector(encoding, csp);
+        int[] genome = encoding.newGenome();
+        genome[gene(0)] = 0;
+        genome[gene(1)] = 0;
+        genome[gene(2)] = 0;
+
+        ScoreDirector.Score score = director.evaluate(genome).getScore();
+        assertEquals(2, score.getHard(), "One broken HARD constraint plus one unassigned variable");
+        assertEquals(0, score.getMedium());
+        assertEquals(0.0, score.getSoft(), 1e-9);
+
+        genome[gene(0)] = 1;
+        genome[gene(1)] = 2;
+        genome[gene(2)] = 2;
+        genome[gene(3)] = 2;
+        score = director.evaluate(genome).getScore();
+        assertEquals(0, score.getHard());
+        assertEquals(3, score.getMedium(), "HIGH weighs 2 and MEDIUM 1");
+        assertEquals(1 + 4 * 0.9 - 0.4 - 3 * 0.5, score.getSoft(), 1e-9, "LOW plus preference regret");
+        assertTrue(score.isFeasible());
+    }
+
+    @Test
+    @DisplayName("Should apply configured weights")
+    void shouldApplyConfiguredWeights() {
+        ScoreDirector.Weights weights = ScoreDirector.Weights.defaults()
+            .with(ConstraintPriority.HIGH, ScoreDirector.Level.HARD, 5)
+            .withUnassignedWeight(0)
+            .withPreferenceWeight(0.0);
+        ScoreDirector director = new ScoreDirector(encoding, csp, weights);
+        int[] genome = encoding.newGenome();
+        genome[gene(1)] = 2;
+
+        ScoreDirector.Score score = director.evaluate(genome).getScore();
+        assertEquals(5, score.getHard());
+        assertEquals(0, score.getMedium());
+        assertEquals(0.0, score.getSoft(), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Should order scores by level and fold them into a fitness that agrees")
+    void shouldOrderScoresLexicographically() {
+        ScoreDirector director = new ScoreDirector(encoding, csp);
+        ScoreDirector.Score perfect = new ScoreDirector.Score(0, 0, 0.0);
+        ScoreDirector.Score soft = new ScoreDirector.Score(0, 0, 1.0);
+        ScoreDirector.Score medium = new ScoreDirector.Score(0, 1, 0.0);
+        ScoreDirector.Score hard = new ScoreDirector.Score(1, 0, 0.0);
+
+        assertTrue(perfect.compareTo(soft) < 0);
+        assertTrue(soft.compareTo(medium) < 0);
+        assertTrue(medium.compareTo(hard) < 0);
+        assertEquals("1hard/0medium/0.0soft", hard.toString());
+
+        assertEquals(1.0, director.fitness(perfect), 1e-9);
+        assertTrue(director.fitness(perfect) > director.fitness(soft));
+        assertTrue(director.fitness(soft) > director.fitness(medium));
+        assertTrue(director.fitness(medium) > director.fitness(hard));
+        assertTrue(director.fitness(new ScoreDirector.Score(0, 1000, 1000.0)) > director.fitness(hard),
+                   "Feasible scores fold above infeasible ones");
+        assertTrue(director.fitness(new ScoreDirector.Score(1000, 1000, 1000.0)) >= 0.0);
+    }
+
+    @Test
+    @DisplayName("Should back evaluators created on their own with a default director")
+    void shouldGiveStandaloneEvaluatorsADirector() {
+        IncrementalFitnessEvaluator evaluator = new IncrementalFitnessEvaluator(encoding, csp);
+        ScoreDirector director = evaluator.getScoreDirector();
+
+        assertSame(evaluator, director.getEvaluator());
+        assertEquals(ScoreDirector.Level.MEDIUM, director.getWeights().levelOf(ConstraintPriority.HIGH));
+        assertEquals(4, evaluator.evaluate(encoding.newGenome()).getScore().getHard(),
+                     "Every unassigned variable costs a hard point");
+    }
+
+    @Test
+    @DisplayName("Should score two clashes of one teacher worse than one")
+    void shouldScoreEachClash() {
+        Map<SchedulingVariable, List<SchedulingValue>> domains = new HashMap<>();
+        for (SchedulingVariable variable : variables) {
+            domains.put(variable, List.of(
+                new SchedulingValue(ValueType.TIME_SLOT, 10L, "Slot 10"),
+                new SchedulingValue(ValueType.TIME_SLOT, 11L, "Slot 11"),
+                new SchedulingValue(ValueType.TIME_SLOT, 12L, "Slot 12"),
+                new SchedulingValue(ValueType.TIME_SLOT, 13L, "Slot 13")));
+        }
+        ConstraintSatisfactionProblem teacher = new ConstraintSatisfactionProblem(new HashSet<>(variables),
+            new HashSet<>(ResourceConflictConstraint.forGroups(Map.of("Teacher 1", new HashSet<>(variables)), Map.of())),
+            domains);
+        GenomeEncoding teacherEncoding = new GenomeEncoding(teacher);
+        ScoreDirector director = new ScoreDirector(teacherEncoding, teacher);
+
+        IncrementalFitnessEvaluator.Tally tally = director.newTally();
+        for (int i = 0; i < variables.size(); i++) {
+            tally.genome()[teacherEncoding.indexOf(variables.get(i))] = i; // slots 10 to 13
+        }
+        tally.evaluate();
+        ScoreDirector.Score apart = tally.getScore();
+        tally.change(teacherEncoding.indexOf(variables.get(1)), 0);
+        ScoreDirector.Score oneClash = tally.getScore();
+        tally.change(teacherEncoding.indexOf(variables.get(3)), 2);
+        ScoreDirector.Score twoClashes = tally.getScore();
+
+        assertEquals(0, apart.getHard());
+        assertEquals(1, oneClash.getHard());
+        assertEquals(2, twoClashes.getHard(), "Two clashing pairs in one constraint");
+        assertTrue(twoClashes.compareTo(oneClash) > 0);
+        assertTrue(director.fitness(twoClashes) < director.fitness(oneClash));
+        assertEquals(director.score(teacherEncoding.decode(tally.genome())), twoClashes);
+
+        tally.change(teacherEncoding.indexOf(variables.get(2)), 0);
+        assertEquals(3, tally.getScore().getHard(), "Three offerings at once are three pairs");
+    }
+
+    private int gene(int variable) {
+        return encoding.indexOf(variables.get(variable));
+    }
+
+
+    // One offering may not take a time slot value
+    private static class NoTimeSlotConstraint extends SchedulingConstraint {
+        private final SchedulingVariable variable;
+
+        NoTimeSlotConstraint(SchedulingVariable variable, ConstraintPriority priority) {
+            super("No Time Slot " + variable.getId(), ConstraintType.TIME_PREFERENCE, priority,
+                  "Offering avoids time slots");
+            this.variable = variable;
+        }
+
+        @Override
+        public ConstraintResult validate(SchedulingAssignment assignment) {
+            SchedulingValue value = assignment.getValue(variable);
+            if (value != null && value.getType() == ValueType.TIME_SLOT) {
+                return ConstraintResult.violated("Time slot used");
+            }
+            return ConstraintResult.satisfied();
+        }
+
+        @Override
+        public Set<SchedulingVariable> getScope() {
+            return new HashSet<>(Collections.singletonList(variable));
+        }
+
+        @Override
+        public List<SchedulingValue> getValidValues(SchedulingAssignment assignment,
+                                                   Map<SchedulingVariable, List<SchedulingValue>> domains) {
+            return new ArrayList<>();
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.school.scheduling.algorithm.strategy;
+
+import com.school.scheduling.algorithm.ConstraintSatisfactionProblem;
+import com.school.scheduling.algorithm.constraint.TeacherLoadConstraint;
+import com.school.scheduling.domain.constraint.*;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for TeacherAssignmentStrategy class.
+ */
+class TeacherAssignmentStrategyTest {
+
+    private static final long EXPERT = 1L;
+    private static final long GENERALIST = 2L;
+
+    @Test
+    @DisplayName("Should staff every offering within course and hour limits at the best total preference")
+    void shouldStaffWithinLimits() {
+        List<SchedulingVariable> offerings = offerings(3);
+        Map<SchedulingVariable, List<SchedulingValue>> domains = new HashMap<>();
+        domains.put(offerings.get(0), List.of(teacher(EXPERT, 0.9), teacher(GENERALIST, 0.8)));
+        domains.put(offerings.get(1), List.of(teacher(EXPERT, 1.0), teacher(GENERALIST, 0.3)));
+        domains.put(offerings.get(2), List.of(teacher(EXPERT, 0.9), teacher(GENERALIST, 0.7)));
+        Set<TeacherLoadConstraint> loads = TeacherLoadConstraint.forTeachers(
+            Map.of(EXPERT, new TeacherLoadConstraint.TeacherLoad(1, 600),
+                   GENERALIST, new TeacherLoadConstraint.TeacherLoad(5, 600)),
+            domains,
+            Map.of("offering_0", 180, "offering_1", 180, "offering_2", 180));
+        ConstraintSatisfactionProblem csp = new ConstraintSatisfactionProblem(
+            new HashSet<>(offerings), new HashSet<>(loads), domains);
+
+        SchedulingAssignment assignment = new TeacherAssignmentStrategy().solve(csp, null).orElseThrow();
+
+        assertTrue(assignment.isComplete(csp.getVariables()));
+        assertEquals(EXPERT, assignment.getValue(offerings.get(1)).getValue(), "The expert goes where they matter most");
+        assertEquals(GENERALIST, assignment.getValue(offerings.get(0)).getValue());
+        assertEquals(GENERALIST, assignment.getValue(offerings.get(2)).getValue());
+        assertEquals(2, loads.size(), "One constraint per teacher");
+        loads.forEach(load -> assertTrue(load.validate(assignment).isSatisfied(), load.getName()));
+    }
+
+    @Test
+    @DisplayName("Should re-staff only offerings that hold a teacher or nothing")
+    void shouldKeepOtherValues() {
+        List<SchedulingVariable> offerings = offerings(3);
+        SchedulingValue slot = new SchedulingValue(ValueType.TIME_SLOT, "slot_0", "Slot 0");
+        Map<SchedulingVariable, List<SchedulingValue>> domains = new HashMap<>();
+        for (SchedulingVariable offering : offerings) {
+            domains.put(offering, List.of(teacher(EXPERT, 1.0), teacher(GENERALIST, 0.2), slot));
+        }
+        ConstraintSatisfactionProblem csp = new ConstraintSatisfactionProblem(
+            new HashSet<>(offerings), Set.of(), domains);
+
+        SchedulingAssignment incumbent = new SchedulingAssignment();
+        incumbent.assign(offerings.get(0), slot);
+        incumbent.assign(offerings.get(1), teacher(GENERALIST, 0.2));
+
+        SchedulingAssignment assignment = new TeacherAssignmentStrategy().solve(csp, incumbent).orElseThrow();
+
+        assertEquals(slot, assignment.getValue(offerings.get(0)));
+        assertEquals(EXPERT, assignment.getValue(offerings.get(1)).getValue());
+        assertEquals(EXPERT, assignment.getValue(offerings.get(2)).getValue(), "Teachers are unlimited without loads");
+        assertEquals(slot, incumbent.getValue(offerings.get(0)), "The incumbent is not modified");
+    }
+
+    private static List<SchedulingVariable> offerings(int count) {
+        List<SchedulingVariable> offerings = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            offerings.add(new SchedulingVariable(VariableType.COURSE_SCHEDULING, "offering_" + i, "Course " + i));
+        }
+        return offerings;
+    }
+
+    private static SchedulingValue teacher(long id, double preference) {
+        return new SchedulingValue("teacher_" + id, ValueType.TEACHER, id, "Teacher " + id, preference);
+    }
+}
@@ -16,6 +16,7 @@ import com.school.scheduling.domain.Department;
 import com.school.scheduling.domain.User;
 import com.school.scheduling.mapper.TeacherMapper;
 import com.school.scheduling.mapper.TeacherAvailabilityMapper;
+import com.school.scheduling.service.SchedulingService;
 import com.school.scheduling.validation.TeacherValidator;
 import com.school.scheduling.validation.ValidationResult;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -25,6 +26,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -57,6 +59,9 @@ class TeacherControllerTest {
     @Mock
     private TeacherValidator teacherValidator;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private TeacherController teacherController;
 
@@ -262,6 +267,8 @@ class TeacherControllerTest {
         assertEquals(HttpStatus.CREATED, response.getStatusCode());
         assertNotNull(response.getBody());
         assertEquals(DayOfWeek.MONDAY, response.getBody().getData().getDayOfWeek());
+        verify(eventPublisher).publishEvent(argThat((Object event) -> event instanceof SchedulingService.TeacherAvailabilityChanged
+            && ((SchedulingService.TeacherAvailabilityChanged) event).getTeacherId().equals(1L)));
     }
 
     @Test
@@ -277,6 +284,7 @@ class TeacherControllerTest {
         assertThrows(RuntimeException.class, () -> {
             teacherController.addTeacherAvailability(1L, request);
         });
+        verifyNoInteractions(schedulingService);
     }
 
     @Test
@@ -0,0 +1,182 @@
+package com.school.scheduling.service;
+
+import com.school.scheduling.domain.Course;
+import com.school.scheduling.domain.CoursePrerequisite;
+import com.school.scheduling.mapper.CoursePrerequisiteMapper;
+import com.school.scheduling.mapper.SemesterSnapshotMapper;
+
+import org.apache.ibatis.executor.result.DefaultResultContext;
+import org.apache.ibatis.session.ResultHandler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for CoursePrerequisiteService class.
+ */
+@ExtendWith(MockitoExtension.class)
+class CoursePrerequisiteServiceTest {
+
+    @Mock
+    private CoursePrerequisiteMapper prerequisiteMapper;
+
+    @Mock
+    private SemesterSnapshotMapper snapshotMapper;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private CoursePrerequisiteService prerequisiteService;
+
+    // Stands in for the table's row count and latest updated_at: every write moves it
+    private final AtomicInteger tableVersion = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        prerequisiteService = new CoursePrerequisiteService(prerequisiteMapper, snapshotMapper,
+                                                            new TransactionTemplate(transactionManager));
+        lenient().when(prerequisiteMapper.findDataVersion()).thenAnswer(invocation -> "v" + tableVersion.get());
+        lenient().when(prerequisiteMapper.insert(any())).thenAnswer(invocation -> tableVersion.incrementAndGet());
+        lenient().when(prerequisiteMapper.update(any())).thenAnswer(invocation -> tableVersion.incrementAndGet());
+        lenient().when(prerequisiteMapper.softDelete(any(), any())).thenAnswer(invocation -> tableVersion.incrementAndGet());
+    }
+
+    @Test
+    @DisplayName("Should write a mandatory prerequisite and add it to the index, and leave optional ones out")
+    void shouldIndexCreatedMandatoryPrerequisite() {
+        stubStoredPrerequisites();
+
+        prerequisiteService.createPrerequisite(prerequisite(null, 2L, 1L, true));
+        prerequisiteService.createPrerequisite(prerequisite(null, 3L, 1L, false));
+
+        verify(prerequisiteMapper, times(2)).insert(any(CoursePrerequisite.class));
+        assertEquals(Set.of(1L), prerequisiteService.getClosure().prerequisitesOf(2L));
+        assertTrue(prerequisiteService.getClosure().prerequisitesOf(3L).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should reject a prerequisite that closes a cycle before writing it")
+    void shouldRejectCycle() {
+        // 3 needs 2 and 2 needs 1, so 1 may not need 3
+        stubStoredPrerequisites(prerequisite(10L, 2L, 1L, true), prerequisite(11L, 3L, 2L, true));
+
+        assertThrows(IllegalArgumentException.class,
+                     () -> prerequisiteService.createPrerequisite(prerequisite(null, 1L, 3L, true)));
+        assertThrows(IllegalArgumentException.class,
+                     () -> prerequisiteService.createPrerequisite(prerequisite(null, 4L, 4L, true)));
+        verify(prerequisiteMapper, never()).insert(any(CoursePrerequisite.class));
+    }
+
+    @Test
+    @DisplayName("Should move an updated prerequisite in the index from its old course to its new one")
+    void shouldReindexUpdatedPrerequisite() {
+        CoursePrerequisite stored = prerequisite(10L, 2L, 1L, true);
+        stubStoredPrerequisites(stored);
+        when(prerequisiteMapper.findById(10L)).thenReturn(Optional.of(stored));
+
+        prerequisiteService.updatePrerequisite(prerequisite(10L, 3L, 1L, true));
+
+        verify(prerequisiteMapper).update(any(CoursePrerequisite.class));
+        assertTrue(prerequisiteService.getClosure().prerequisitesOf(2L).isEmpty());
+        assertEquals(Set.of(1L), prerequisiteService.getClosure().prerequisitesOf(3L));
+    }
+
+    @Test
+    @DisplayName("Should drop a deleted prerequisite from the index and ignore unknown ids")
+    void shouldUnindexDeletedPrerequisite() {
+        CoursePrerequisite stored = prerequisite(10L, 2L, 1L, true);
+        stubStoredPrerequisites(stored);
+        when(prerequisiteMapper.findById(10L)).thenReturn(Optional.of(stored));
+        when(prerequisiteMapper.findById(99L)).thenReturn(Optional.empty());
+        assertEquals(Set.of(1L), prerequisiteService.getClosure().prerequisitesOf(2L));
+
+        prerequisiteService.deletePrerequisite(10L);
+        prerequisiteService.deletePrerequisite(99L);
+
+        verify(prerequisiteMapper).softDelete(eq(10L), any());
+        verify(prerequisiteMapper, never()).softDelete(eq(99L), any());
+        assertTrue(prerequisiteService.getClosure().prerequisitesOf(2L).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should keep the index across its own writes and rebuild it after a change made elsewhere")
+    void shouldRebuildAfterOutsideChange() {
+        stubStoredPrerequisites(prerequisite(10L, 2L, 1L, true));
+        assertEquals(Set.of(1L), prerequisiteService.getClosure().prerequisitesOf(2L));
+
+        prerequisiteService.createPrerequisite(prerequisite(null, 3L, 2L, true));
+        assertEquals(Set.of(1L, 2L), prerequisiteService.getClosure().prerequisitesOf(3L));
+        verify(snapshotMapper, times(1)).streamMandatoryPrerequisites(any());
+
+        // Course 2 was deleted and its rows went with it, without this service knowing
+        stubStoredPrerequisites(prerequisite(12L, 4L, 1L, true));
+        tableVersion.incrementAndGet();
+
+        assertTrue(prerequisiteService.getClosure().prerequisitesOf(3L).isEmpty());
+        assertEquals(Set.of(1L), prerequisiteService.getClosure().prerequisitesOf(4L));
+        verify(snapshotMapper, times(2)).streamMandatoryPrerequisites(any());
+    }
+
+    @Test
+    @DisplayName("Should replace a course's prerequisites, keeping rows that stay and deleting the rest")
+    void shouldReplaceCoursePrerequisites() {
+        CoursePrerequisite kept = prerequisite(10L, 2L, 1L, true);
+        CoursePrerequisite dropped = prerequisite(11L, 2L, 5L, true);
+        stubStoredPrerequisites(kept, dropped);
+        when(prerequisiteMapper.findByCourseId(2L)).thenReturn(List.of(kept, dropped));
+        assertEquals(Set.of(1L, 5L), prerequisiteService.getClosure().prerequisitesOf(2L));
+
+        prerequisiteService.replacePrerequisites(2L, List.of(prerequisite(null, 2L, 1L, false),
+                                                            prerequisite(null, 2L, 3L, true)));
+
+        verify(prerequisiteMapper).update(argThat(row -> Long.valueOf(10L).equals(row.getId())));
+        verify(prerequisiteMapper).insert(argThat(row -> row.getPrerequisiteCourse().getId().equals(3L)));
+        verify(prerequisiteMapper).softDelete(eq(11L), any());
+        assertEquals(Set.of(3L), prerequisiteService.getClosure().prerequisitesOf(2L));
+        assertThrows(IllegalArgumentException.class,
+                     () -> prerequisiteService.replacePrerequisites(2L, List.of(prerequisite(null, 4L, 1L, true))));
+    }
+
+    // Helper methods
+
+    // Hands the stored rows to the handler the way MyBatis does while streaming a result set
+    @SuppressWarnings("unchecked")
+    private void stubStoredPrerequisites(CoursePrerequisite... rows) {
+        doAnswer(invocation -> {
+            ResultHandler<CoursePrerequisite> handler = invocation.getArgument(0);
+            DefaultResultContext<CoursePrerequisite> context = new DefaultResultContext<>();
+            for (CoursePrerequisite row : rows) {
+                context.nextResultObject(row);
+                handler.handleResult(context);
+            }
+            return null;
+        }).when(snapshotMapper).streamMandatoryPrerequisites(any());
+    }
+
+    private static CoursePrerequisite prerequisite(Long id, Long courseId, Long prerequisiteCourseId, boolean mandatory) {
+        CoursePrerequisite prerequisite = new CoursePrerequisite();
+        prerequisite.setId(id);
+        prerequisite.setCourse(course(courseId));
+        prerequisite.setPrerequisiteCourse(course(prerequisiteCourseId));
+        prerequisite.setIsMandatory(mandatory);
+        return prerequisite;
+    }
+
+    private static Course course(Long id) {
+        Course course = new Course();
+        course.setId(id);
+        return course;
+    }
+}
@@ -1,5 +1,7 @@
 package com.school.scheduling.service;
 
+import com.school.scheduling.algorithm.remote.RemoteSolverPool;
+import com.school.scheduling.config.SolvePipelineProperties;
 import com.school.scheduling.domain.*;
 import com.school.scheduling.mapper.*;
 
@@ -7,9 +9,15 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -43,6 +51,18 @@ class SchedulingServiceTest {
     @Mock
     private CourseMapper courseMapper;
 
+    @Mock
+    private TeacherAvailabilityMapper teacherAvailabilityMapper;
+
+    @Mock
+    private SemesterSnapshotLoader snapshotLoader;
+
+    @Mock
+    private StudentSectioningService sectioningService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     private SchedulingService schedulingService;
 
     @BeforeEach
@@ -54,7 +74,13 @@ class SchedulingServiceTest {
             scheduleMapper,
             timeSlotMapper,
             studentMapper,
-            courseMapper
+            courseMapper,
+            teacherAvailabilityMapper,
+            snapshotLoader,
+            sectioningService,
+            new SolvePipelineProperties(),
+            new RemoteSolverPool(List.of(), null),
+            new TransactionTemplate(transactionManager)
         );
     }
 
@@ -68,10 +94,8 @@ class SchedulingServiceTest {
         List<Classroom> classrooms = createMockClassrooms();
         List<TimeSlot> timeSlots = createMockTimeSlots();
 
-        when(courseOfferingMapper.findBySemesterId(semesterId)).thenReturn(courseOfferings);
-        when(teacherMapper.findAllActive()).thenReturn(teachers);
-        when(classroomMapper.findAllActive()).thenReturn(classrooms);
-        when(timeSlotMapper.findAll()).thenReturn(timeSlots);
+        when(snapshotLoader.load(semesterId)).thenReturn(
+            SemesterSnapshot.of(semesterId, courseOfferings, teachers, classrooms, timeSlots, 0));
         when(scheduleMapper.insert(any(Schedule.class))).thenReturn(1);
 
         // Execute
@@ -84,12 +108,11 @@ class SchedulingServiceTest {
         assertNotNull(result.getSchedules(), "Generated schedules should not be null");
         assertNotNull(result.getMetrics(), "Metrics should not be null");
         assertFalse(result.getPerformanceSummary().isEmpty(), "Performance summary should not be empty");
+        assertTrue(result.getPerformanceSummary().startsWith("Load: "), "Load time is reported before solve time");
 
-        // Verify database calls
-        verify(courseOfferingMapper).findBySemesterId(semesterId);
-        verify(teacherMapper).findAllActive();
-        verify(classroomMapper).findAllActive();
-        verify(timeSlotMapper).findAll();
+        // Verify database calls: one snapshot load, no per-table queries
+        verify(snapshotLoader).load(semesterId);
+        verifyNoInteractions(courseOfferingMapper, teacherMapper, classroomMapper, timeSlotMapper);
     }
 
     @Test
@@ -97,7 +120,9 @@ class SchedulingServiceTest {
     void shouldHandleSchedulingFailureGracefully() {
         // Setup empty data that will cause failure
         Long semesterId = 1L;
-        when(courseOfferingMapper.findBySemesterId(semesterId)).thenReturn(Collections.emptyList());
+        when(snapshotLoader.load(semesterId)).thenReturn(SemesterSnapshot.of(
+            semesterId, Collections.emptyList(), Collections.emptyList(), Collections.emptyList(),
+            Collections.emptyList(), 0));
 
         // Execute
         SchedulingService.SchedulingResult result = schedulingService.generateOptimizedSchedule(
@@ -112,6 +137,183 @@ class SchedulingServiceTest {
     }
 
     @Test
+    @DisplayName("Should fail and list the violations when the best schedule breaks a hard constraint")
+    void shouldNotSaveInfeasibleSchedule() {
+        // Five offerings of one teacher and four separate slots; no room fits, so only slots are left to choose
+        Long semesterId = 1L;
+        List<CourseOffering> courseOfferings = createMockCourseOfferings();
+        for (long i = 4; i <= 5; i++) {
+            CourseOffering offering = new CourseOffering();
+            offering.setId(i);
+            offering.setCourse(courseOfferings.get(0).getCourse());
+            offering.setSemester(courseOfferings.get(0).getSemester());
+            offering.setTeacher(courseOfferings.get(0).getTeacher());
+            offering.setSectionNumber(String.valueOf(i));
+            offering.setMaxEnrollment(30);
+            offering.setCurrentEnrollment(0);
+            courseOfferings.add(offering);
+        }
+        when(snapshotLoader.load(semesterId)).thenReturn(SemesterSnapshot.of(
+            semesterId, courseOfferings, createMockTeachers(), Collections.emptyList(), createMockTimeSlots(), 0));
+
+        SchedulingService.SchedulingResult result = schedulingService.generateOptimizedSchedule(
+            semesterId, SchedulingService.SchedulingStrategy.GREEDY
+        );
+
+        assertFalse(result.isSuccess(), "A schedule with a teacher in two places is not a success");
+        assertEquals("No feasible schedule found", result.getMessage());
+        assertNull(result.getSchedules());
+        assertFalse(result.getViolations().isEmpty(), "The failure says what is violated");
+        assertTrue(result.getViolations().stream().anyMatch(violation -> violation.contains("Teacher 1")),
+                   "The double-booked teacher is named: " + result.getViolations());
+        verifyNoInteractions(scheduleMapper);
+    }
+
+    @Test
+    @DisplayName("Should keep offerings a student attends together out of the same time slot")
+    void shouldNotDoubleBookStudent() {
+        // Two offerings of different teachers and one slot; only the shared student stands in the way
+        Long semesterId = 1L;
+        List<Teacher> teachers = createMockTeachers();
+        Teacher second = new Teacher();
+        second.setId(2L);
+        second.setUser(teachers.get(0).getUser());
+        second.setDepartment(teachers.get(0).getDepartment());
+        second.setEmployeeId("EMP002");
+        second.setMaxWeeklyHours(new java.math.BigDecimal("40.0"));
+        second.setMaxCoursesPerSemester(5);
+        teachers.add(second);
+        List<CourseOffering> courseOfferings = createMockCourseOfferings().subList(0, 2);
+        courseOfferings.get(1).setTeacher(second);
+        SemesterSnapshot snapshot = SemesterSnapshot.of(semesterId, courseOfferings, teachers, Collections.emptyList(),
+                                                        createMockTimeSlots().subList(0, 1), 0);
+        snapshot.addEnrollment(7L, 1L);
+        snapshot.addEnrollment(7L, 2L);
+        when(snapshotLoader.load(semesterId)).thenReturn(snapshot);
+
+        SchedulingService.SchedulingResult result = schedulingService.generateOptimizedSchedule(
+            semesterId, SchedulingService.SchedulingStrategy.GREEDY
+        );
+
+        assertFalse(result.isSuccess(), "A student in two classes at once is not a success");
+        assertTrue(result.getViolations().stream().anyMatch(violation ->
+                       violation.startsWith("Student Schedule Conflict Constraint: Student 7")
+                           && violation.contains("Student 7 has time conflict")),
+                   "The student constraint names the double-booked student: " + result.getViolations());
+        verifyNoInteractions(scheduleMapper);
+    }
+
+    @Test
+    @DisplayName("Should generate schedule options within the requested time limit")
+    void shouldGenerateParetoSchedulesWithinTimeLimit() {
+        Long semesterId = 1L;
+        when(snapshotLoader.load(semesterId)).thenReturn(SemesterSnapshot.of(
+            semesterId, createMockCourseOfferings(), createMockTeachers(), createMockClassrooms(),
+            createMockTimeSlots(), 0));
+
+        long start = System.currentTimeMillis();
+        SchedulingService.ParetoSchedulingResult result = schedulingService.generateParetoSchedules(semesterId, 200);
+
+        assertTrue(result.isSuccess(), result.getMessage());
+        assertFalse(result.getOptions().isEmpty());
+        assertTrue(System.currentTimeMillis() - start < 10_000, "The search stops at the time limit");
+        verifyNoInteractions(scheduleMapper);
+    }
+
+    @Test
+    @DisplayName("Should reuse the stored problem while the data version is unchanged and rebuild it when it changes")
+    void shouldReuseStoredProblemOfUnchangedData(@TempDir Path directory) throws Exception {
+        Long semesterId = 1L;
+        SemesterSnapshot snapshot = SemesterSnapshot.of(semesterId, createMockCourseOfferings(), createMockTeachers(),
+                                                        createMockClassrooms(), createMockTimeSlots(), 0);
+        when(snapshotLoader.load(semesterId)).thenReturn(
+            snapshot.withDataVersion("v1"), snapshot.withDataVersion("v1"), snapshot.withDataVersion("v2"));
+        SchedulingService service = problemSnapshotService(directory);
+
+        assertTrue(service.generateParetoSchedules(semesterId, 200).isSuccess());
+        Path stored = onlyFile(directory);
+        Files.setLastModifiedTime(stored, FileTime.fromMillis(0));
+
+        SchedulingService.ParetoSchedulingResult reused = service.generateParetoSchedules(semesterId, 200);
+        assertTrue(reused.isSuccess(), reused.getMessage());
+        assertEquals(stored, onlyFile(directory));
+        assertEquals(0, Files.getLastModifiedTime(stored).toMillis(), "The stored problem is read, not built again");
+
+        assertTrue(service.generateParetoSchedules(semesterId, 200).isSuccess());
+        assertNotEquals(stored, onlyFile(directory), "Changed data is built again and replaces the older version");
+        verifyNoInteractions(scheduleMapper);
+    }
+
+    @Test
+    @DisplayName("Should save concurrent classes in the distinct rooms matched to them")
+    void shouldSaveMatchedRoomsOfTwoPhaseSolve() {
+        // No qualified teachers, so each offering only chooses a slot; both share the one slot
+        Long semesterId = 1L;
+        List<CourseOffering> courseOfferings = createMockCourseOfferings().subList(0, 2);
+        courseOfferings.get(1).setTeacher(new Teacher());
+        courseOfferings.get(1).getTeacher().setId(2L);
+        when(snapshotLoader.load(semesterId)).thenReturn(SemesterSnapshot.of(
+            semesterId, courseOfferings, Collections.emptyList(), createMockClassrooms(),
+            createMockTimeSlots().subList(0, 1), 0));
+        when(scheduleMapper.insert(any(Schedule.class))).thenReturn(1);
+
+        SchedulingService.SchedulingResult result = roomMatchingService().generateOptimizedSchedule(
+            semesterId, SchedulingService.SchedulingStrategy.BACKTRACKING
+        );
+
+        assertTrue(result.isSuccess(), "Two rooms hold two concurrent classes: " + result.getMessage());
+        assertEquals(2, result.getSchedules().size());
+        assertTrue(result.getSchedules().stream().allMatch(schedule -> schedule.getTimeSlot().getId() == 1L));
+        assertEquals(Set.of(1L, 2L), result.getSchedules().stream()
+            .map(schedule -> schedule.getClassroom().getId())
+            .collect(java.util.stream.Collectors.toSet()), "Each class gets its own room");
+        verify(scheduleMapper, times(2)).insert(any(Schedule.class));
+    }
+
+    @Test
+    @DisplayName("Should count classes in overlapping slots against the same rooms")
+    void shouldKeepOverlappingSlotsWithinRooms() {
+        // One room and two slots that overlap by half an hour; apart they would each fit the room
+        Long semesterId = 1L;
+        List<CourseOffering> courseOfferings = createMockCourseOfferings().subList(0, 2);
+        courseOfferings.get(1).setTeacher(new Teacher());
+        courseOfferings.get(1).getTeacher().setId(2L);
+        List<TimeSlot> timeSlots = createMockTimeSlots().subList(0, 2);
+        timeSlots.get(1).setStartTime(java.time.LocalTime.of(9, 30));
+        timeSlots.get(1).setEndTime(java.time.LocalTime.of(10, 30));
+        when(snapshotLoader.load(semesterId)).thenReturn(SemesterSnapshot.of(
+            semesterId, courseOfferings, Collections.emptyList(), createMockClassrooms().subList(0, 1), timeSlots, 0));
+
+        SchedulingService.SchedulingResult result = roomMatchingService().generateOptimizedSchedule(
+            semesterId, SchedulingService.SchedulingStrategy.BACKTRACKING
+        );
+
+        assertFalse(result.isSuccess(), "Two overlapping classes cannot share one room");
+        verifyNoInteractions(scheduleMapper);
+    }
+
+    @Test
+    @DisplayName("Should save teacher assignments and write only the offerings a re-solve changes")
+    void shouldSaveChangedTeacherAssignments() {
+        Long semesterId = 1L;
+        List<CourseOffering> courseOfferings = createMockCourseOfferings();
+        courseOfferings.forEach(offering -> offering.setTeacher(null));
+        when(snapshotLoader.load(semesterId)).thenReturn(SemesterSnapshot.of(
+            semesterId, courseOfferings, createMockTeachers(), createMockClassrooms(), createMockTimeSlots(), 0));
+
+        Map<Long, Long> assigned = schedulingService.assignTeachers(semesterId);
+
+        assigned.forEach((offeringId, teacherId) ->
+            verify(courseOfferingMapper).updateTeacher(eq(offeringId), eq(teacherId), any()));
+        verify(courseOfferingMapper, times(assigned.size())).updateTeacher(any(), any(), any());
+
+        // Same availability, same assignment: nothing left to write
+        clearInvocations(courseOfferingMapper);
+        assertEquals(assigned, schedulingService.reassignTeacher(semesterId, 1L));
+        verify(courseOfferingMapper, never()).updateTeacher(any(), any(), any());
+    }
+
+        @Test
     @DisplayName("Should detect schedule conflicts")
     void shouldDetectScheduleConflicts() {
         // Setup conflicting schedules
@@ -269,6 +471,54 @@ class SchedulingServiceTest {
 
     // Helper methods to create mock data
 
+    private SchedulingService roomMatchingService() {
+        SolvePipelineProperties properties = new SolvePipelineProperties();
+        properties.setRoomMatching(true);
+        return new SchedulingService(
+            courseOfferingMapper,
+            teacherMapper,
+            classroomMapper,
+            scheduleMapper,
+            timeSlotMapper,
+            studentMapper,
+            courseMapper,
+            teacherAvailabilityMapper,
+            snapshotLoader,
+            sectioningService,
+            properties,
+            new RemoteSolverPool(List.of(), null),
+            new TransactionTemplate(transactionManager)
+        );
+    }
+
+    private SchedulingService problemSnapshotService(Path directory) {
+        SolvePipelineProperties properties = new SolvePipelineProperties();
+        properties.setProblemSnapshotDir(directory.toString());
+        return new SchedulingService(
+            courseOfferingMapper,
+            teacherMapper,
+            classroomMapper,
+            scheduleMapper,
+            timeSlotMapper,
+            studentMapper,
+            courseMapper,
+            teacherAvailabilityMapper,
+            snapshotLoader,
+            sectioningService,
+            properties,
+            new RemoteSolverPool(List.of(), null),
+            new TransactionTemplate(transactionManager)
+        );
+    }
+
+    private static Path onlyFile(Path directory) throws Exception {
+        try (var files = Files.list(directory)) {
+            List<Path> all = files.toList();
+            assertEquals(1, all.size(), "One stored problem per semester: " + all);
+            return all.get(0);
+        }
+    }
+
     private List<CourseOffering> createMockCourseOfferings() {
         List<CourseOffering> courseOfferings = new ArrayList<>();
 
@@ -0,0 +1,168 @@
+package com.school.scheduling.service;
+
+import com.school.scheduling.domain.*;
+import com.school.scheduling.mapper.SemesterSnapshotMapper;
+
+import org.apache.ibatis.executor.result.DefaultResultContext;
+import org.apache.ibatis.session.ResultHandler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.stubbing.Answer;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for SemesterSnapshotLoader class.
+ */
+@ExtendWith(MockitoExtension.class)
+class SemesterSnapshotLoaderTest {
+
+    @Mock
+    private SemesterSnapshotMapper snapshotMapper;
+
+    private SemesterSnapshotLoader loader;
+
+    @BeforeEach
+    void setUp() {
+        loader = new SemesterSnapshotLoader(snapshotMapper);
+    }
+
+    @Test
+    @DisplayName("Should attach specializations and index teachers by subject in one pass")
+    void shouldIndexTeachersBySubject() {
+        stubSnapshot(List.of(offering(1L, 10L, "CS101", 30), offering(2L, 10L, "CS101", 25)));
+
+        SemesterSnapshot snapshot = loader.load(1L);
+
+        assertEquals(2, snapshot.getTeachers().size());
+        assertEquals(List.of(1L, 2L), ids(snapshot.teachersFor("CS101")));
+        assertEquals(List.of(2L), ids(snapshot.teachersFor("MATH201")));
+        assertTrue(snapshot.teachersFor("PHYS100").isEmpty());
+        assertEquals(2, snapshot.getTeachers().get(1).getSpecializations().size());
+        assertSame(snapshot.getOfferings().get(0).getCourse(), snapshot.getOfferings().get(1).getCourse(),
+                   "Offerings of one course share the course instance");
+        assertEquals("2@2024-01-15 10:00:00|1@2024-01-10 08:30:00", snapshot.getDataVersion());
+    }
+
+    @Test
+    @DisplayName("Should find rooms by capacity and type")
+    void shouldIndexClassrooms() {
+        stubSnapshot(List.of(offering(1L, 10L, "CS101", 30)));
+
+        SemesterSnapshot snapshot = loader.load(1L);
+
+        assertEquals(List.of(2L, 3L), ids(snapshot.classroomsWithCapacity(30)));
+        assertEquals(List.of(1L, 2L, 3L), ids(snapshot.classroomsWithCapacity(0)));
+        assertTrue(snapshot.classroomsWithCapacity(500).isEmpty());
+        assertEquals(List.of(3L), ids(snapshot.classroomsOfType(Classroom.RoomType.COMPUTER_LAB)));
+        assertTrue(snapshot.getSummary().startsWith("Load: "));
+    }
+
+    @Test
+    @DisplayName("Should keep each student's offerings, passed courses and the prerequisites by course code")
+    void shouldLoadStudentRecords() {
+        stubSnapshot(List.of(offering(1L, 10L, "CS101", 30), offering(2L, 20L, "CS201", 30)));
+        doAnswer(feed(1, List.of(enrollment(7L, 1L, 10L, "CS101", null), enrollment(7L, 2L, 20L, "CS201", null),
+                                 enrollment(8L, 2L, 20L, "CS201", null))))
+            .when(snapshotMapper).streamEnrollments(eq(1L), any());
+        doAnswer(feed(1, List.of(enrollment(8L, 5L, 10L, "CS101", "B"))))
+            .when(snapshotMapper).streamCompletedEnrollments(eq(1L), any());
+        CoursePrerequisite prerequisite = new CoursePrerequisite();
+        prerequisite.setCourse(offering(2L, 20L, "CS201", 30).getCourse());
+        prerequisite.setPrerequisiteCourse(offering(1L, 10L, "CS101", 30).getCourse());
+        doAnswer(feed(0, List.of(prerequisite))).when(snapshotMapper).streamMandatoryPrerequisites(any());
+
+        SemesterSnapshot snapshot = loader.load(1L);
+
+        assertEquals(Map.of(7L, List.of(1L, 2L), 8L, List.of(2L)), snapshot.getOfferingsByStudent());
+        assertEquals(Map.of("CS101", "B"), snapshot.passedCoursesOf(8L));
+        assertTrue(snapshot.passedCoursesOf(7L).isEmpty());
+        assertEquals(Map.of("CS201", Set.of("CS101")), snapshot.getPrerequisitesByCourse());
+    }
+
+    private void stubSnapshot(List<CourseOffering> offerings) {
+        when(snapshotMapper.findDataVersion(1L)).thenReturn("2@2024-01-15 10:00:00|1@2024-01-10 08:30:00");
+        doAnswer(feed(1, offerings)).when(snapshotMapper).streamOfferings(eq(1L), any());
+        doAnswer(feed(0, List.of(teacher(1L), teacher(2L)))).when(snapshotMapper).streamActiveTeachers(any());
+        doAnswer(feed(0, List.of(specialization(1L, "CS101"), specialization(2L, "CS101"),
+                                 specialization(2L, "MATH201"), specialization(99L, "CS101"))))
+            .when(snapshotMapper).streamActiveTeacherSpecializations(any());
+        doAnswer(feed(0, List.of(classroom(1L, 20, Classroom.RoomType.SEMINAR_ROOM),
+                                 classroom(2L, 40, Classroom.RoomType.LECTURE_HALL),
+                                 classroom(3L, 30, Classroom.RoomType.COMPUTER_LAB))))
+            .when(snapshotMapper).streamAvailableClassrooms(any());
+        doAnswer(feed(0, List.of(new TimeSlot()))).when(snapshotMapper).streamTimeSlots(any());
+    }
+
+    // Hands the rows to the handler the way MyBatis does while streaming a result set
+    @SuppressWarnings("unchecked")
+    private static <T> Answer<Void> feed(int handlerIndex, List<T> rows) {
+        return invocation -> {
+            ResultHandler<T> handler = invocation.getArgument(handlerIndex);
+            DefaultResultContext<T> context = new DefaultResultContext<>();
+            for (T row : rows) {
+                context.nextResultObject(row);
+                handler.handleResult(context);
+            }
+            return null;
+        };
+    }
+
+    private static List<Long> ids(List<? extends BaseEntity> entities) {
+        List<Long> ids = new ArrayList<>();
+        entities.forEach(entity -> ids.add(entity.getId()));
+        return ids;
+    }
+
+    private static CourseOffering offering(Long id, Long courseId, String courseCode, int maxEnrollment) {
+        Course course = new Course();
+        course.setId(courseId);
+        course.setCourseCode(courseCode);
+        CourseOffering offering = new CourseOffering();
+        offering.setId(id);
+        offering.setCourse(course);
+        offering.setMaxEnrollment(maxEnrollment);
+        return offering;
+    }
+
+    private static Enrollment enrollment(Long studentId, Long offeringId, Long courseId, String courseCode,
+                                         String gradeLetter) {
+        Student student = new Student();
+        student.setId(studentId);
+        Enrollment enrollment = new Enrollment();
+        enrollment.setStudent(student);
+        enrollment.setCourseOffering(offering(offeringId, courseId, courseCode, 30));
+        enrollment.setGradeLetter(gradeLetter);
+        return enrollment;
+    }
+
+    private static Teacher teacher(Long id) {
+        Teacher teacher = new Teacher();
+        teacher.setId(id);
+        return teacher;
+    }
+
+    private static TeacherSpecialization specialization(Long teacherId, String subjectCode) {
+        TeacherSpecialization specialization = new TeacherSpecialization();
+        specialization.setTeacher(teacher(teacherId));
+        specialization.setSubjectCode(subjectCode);
+        return specialization;
+    }
+
+    private static Classroom classroom(Long id, int capacity, Classroom.RoomType roomType) {
+        Classroom classroom = new Classroom();
+        classroom.setId(id);
+        classroom.setCapacity(capacity);
+        classroom.setRoomType(roomType);
+        return classroom;
+    }
+}
@@ -0,0 +1,256 @@
+package com.school.scheduling.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.school.scheduling.domain.SolveJob;
+import com.school.scheduling.exception.BadRequestException;
+import com.school.scheduling.exception.ConflictException;
+import com.school.scheduling.exception.ServiceUnavailableException;
+import com.school.scheduling.mapper.SolveJobMapper;
+import com.school.scheduling.service.SchedulingService.CommitGuard;
+import com.school.scheduling.service.SchedulingService.ParetoSchedulingResult;
+import com.school.scheduling.service.SchedulingService.SchedulingResult;
+import com.school.scheduling.service.SchedulingService.SchedulingStrategy;
+import com.school.scheduling.websocket.SolverProgressWebSocketHandler;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for SolveJobService class.
+ */
+@ExtendWith(MockitoExtension.class)
+class SolveJobServiceTest {
+
+    @Mock
+    private SolveJobMapper solveJobMapper;
+
+    @Mock
+    private SchedulingService schedulingService;
+
+    @Mock
+    private SolverProgressWebSocketHandler progressHandler;
+
+    private SolveJobService solveJobService;
+
+    @AfterEach
+    void tearDown() {
+        if (solveJobService != null) {
+            solveJobService.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Should answer a full queue with service unavailable and record the job as rejected")
+    void shouldRejectSubmissionWhenQueueIsFull() throws Exception {
+        solveJobService = service(1, 1);
+        AtomicLong ids = new AtomicLong();
+        doAnswer(invocation -> {
+            invocation.<SolveJob>getArgument(0).setId(ids.incrementAndGet());
+            return 1;
+        }).when(solveJobMapper).insert(any(SolveJob.class));
+        when(solveJobMapper.markRunning(anyLong(), any())).thenReturn(1);
+        when(solveJobMapper.findById(anyLong())).thenAnswer(invocation ->
+            Optional.of(job(invocation.getArgument(0), SolveJob.JobStatus.RUNNING)));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(schedulingService.generateOptimizedSchedule(any(), any(), any(), any(), any())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            return SchedulingResult.failure("No feasible schedule found");
+        });
+
+        solveJobService.submit(1L, SchedulingStrategy.GREEDY, "admin");
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        solveJobService.submit(1L, SchedulingStrategy.GREEDY, "admin");
+
+        assertThrows(ServiceUnavailableException.class,
+                     () -> solveJobService.submit(1L, SchedulingStrategy.GREEDY, "admin"));
+        verify(solveJobMapper).markCancelled(eq(3L), contains("queue is full"), any());
+        release.countDown();
+    }
+
+    @Test
+    @DisplayName("Should finish a job inside the transaction that saves its schedule")
+    void shouldFinishJobWhenScheduleIsSaved() {
+        solveJobService = service(1, 1);
+        when(solveJobMapper.markRunning(eq(1L), any())).thenReturn(1);
+        when(solveJobMapper.findById(1L)).thenReturn(Optional.of(job(1L, SolveJob.JobStatus.RUNNING)));
+        when(solveJobMapper.markFinished(eq(1L), eq(SolveJob.JobStatus.SUCCEEDED), any(), any(), any(), any()))
+            .thenReturn(1);
+        when(schedulingService.generateOptimizedSchedule(any(), any(), any(), any(), any()))
+            .thenAnswer(invocation -> save(invocation.getArgument(4)));
+
+        solveJobService.runJob(1L);
+
+        verify(solveJobMapper).markFinished(eq(1L), eq(SolveJob.JobStatus.SUCCEEDED), any(), any(), eq(0), any());
+        verify(solveJobMapper, never()).markFinished(eq(1L), eq(SolveJob.JobStatus.FAILED), any(), any(), any(), any());
+        verify(progressHandler).finish(1L, "SUCCEEDED");
+    }
+
+    @Test
+    @DisplayName("Should roll the schedule back when the job was cancelled before the save committed")
+    void shouldRollBackScheduleOfCancelledJob() {
+        solveJobService = service(1, 1);
+        when(solveJobMapper.markRunning(eq(1L), any())).thenReturn(1);
+        when(solveJobMapper.findById(1L)).thenReturn(Optional.of(job(1L, SolveJob.JobStatus.RUNNING)));
+        // The cancel already set cancel_requested, so finishing the job updates nothing
+        when(solveJobMapper.markFinished(eq(1L), any(), any(), any(), any(), any())).thenReturn(0);
+        when(schedulingService.generateOptimizedSchedule(any(), any(), any(), any(), any()))
+            .thenAnswer(invocation -> save(invocation.getArgument(4)));
+
+        solveJobService.runJob(1L);
+
+        verify(progressHandler).finish(1L, "CANCELLED");
+    }
+
+    @Test
+    @DisplayName("Should record the violations of a failed job")
+    void shouldRecordViolationsOfFailedJob() {
+        solveJobService = service(1, 1);
+        when(solveJobMapper.markRunning(eq(1L), any())).thenReturn(1);
+        when(solveJobMapper.findById(1L)).thenReturn(Optional.of(job(1L, SolveJob.JobStatus.RUNNING)));
+        when(solveJobMapper.markFinished(eq(1L), eq(SolveJob.JobStatus.FAILED), any(), any(), any(), any()))
+            .thenReturn(1);
+        when(schedulingService.generateOptimizedSchedule(any(), any(), any(), any(), any())).thenReturn(
+            SchedulingResult.failure("No feasible schedule found", "", List.of("Teacher 1 has CS101 and CS102 at the same time")));
+
+        solveJobService.runJob(1L);
+
+        verify(solveJobMapper).markFinished(eq(1L), eq(SolveJob.JobStatus.FAILED),
+                                            contains("Teacher 1 has CS101 and CS102"), any(), isNull(), any());
+        verify(progressHandler).finish(1L, "FAILED");
+    }
+
+    @Test
+    @DisplayName("Should not start a job that was cancelled while queued")
+    void shouldSkipJobCancelledWhileQueued() {
+        solveJobService = service(1, 1);
+        when(solveJobMapper.markRunning(eq(1L), any())).thenReturn(0);
+
+        solveJobService.runJob(1L);
+
+        verifyNoInteractions(schedulingService, progressHandler);
+    }
+
+    @Test
+    @DisplayName("Should cancel an unfinished job once and leave a cancelled job as it is")
+    void shouldCancelUnfinishedJob() {
+        solveJobService = service(1, 1);
+        when(solveJobMapper.requestCancel(1L)).thenReturn(1, 0);
+        when(solveJobMapper.findById(1L)).thenReturn(Optional.of(job(1L, SolveJob.JobStatus.CANCELLED)));
+
+        assertEquals(SolveJob.JobStatus.CANCELLED, solveJobService.cancel(1L).getStatus());
+        assertEquals(SolveJob.JobStatus.CANCELLED, solveJobService.cancel(1L).getStatus());
+
+        verify(solveJobMapper, times(1)).markCancelled(eq(1L), eq("Cancelled"), any());
+    }
+
+    @Test
+    @DisplayName("Should reject cancelling a job whose schedule has been saved")
+    void shouldRejectCancelAfterCommit() {
+        solveJobService = service(1, 1);
+        when(solveJobMapper.requestCancel(1L)).thenReturn(0);
+        when(solveJobMapper.findById(1L)).thenReturn(Optional.of(job(1L, SolveJob.JobStatus.SUCCEEDED)));
+
+        assertThrows(ConflictException.class, () -> solveJobService.cancel(1L));
+        verify(solveJobMapper, never()).markCancelled(anyLong(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should requeue unfinished jobs on startup and close the ones cancelled meanwhile")
+    void shouldRecoverJobsOnStartup() {
+        solveJobService = service(1, 5);
+        SolveJob cancelled = job(1L, SolveJob.JobStatus.QUEUED);
+        cancelled.setCancelRequested(true);
+        when(solveJobMapper.requeueRunning()).thenReturn(1);
+        when(solveJobMapper.findUnfinished()).thenReturn(List.of(cancelled, job(2L, SolveJob.JobStatus.QUEUED)));
+        when(solveJobMapper.markRunning(eq(2L), any())).thenReturn(0);
+
+        solveJobService.recoverJobs();
+
+        verify(solveJobMapper).markCancelled(eq(1L), eq("Cancelled"), any());
+        verify(solveJobMapper, timeout(5000)).markRunning(eq(2L), any());
+        verify(solveJobMapper, never()).markRunning(eq(1L), any());
+    }
+
+    @Test
+    @DisplayName("Should reject a search for schedule options without a positive time limit")
+    void shouldRejectNonPositiveParetoLimit() {
+        solveJobService = service(1, 1);
+
+        assertThrows(BadRequestException.class, () -> solveJobService.submitPareto(1L, 0L, "admin"));
+        assertThrows(BadRequestException.class, () -> solveJobService.submitPareto(1L, -1L, "admin"));
+        verify(solveJobMapper, never()).insert(any());
+    }
+
+    @Test
+    @DisplayName("Should run a search for schedule options as a job and keep its options on the job")
+    void shouldKeepOptionsOfParetoJob() {
+        solveJobService = service(1, 1);
+        SolveJob search = job(1L, SolveJob.JobStatus.RUNNING);
+        search.setStrategy(SolveJobService.PARETO_STRATEGY);
+        search.setTimeLimitMs(500L);
+        when(solveJobMapper.markRunning(eq(1L), any())).thenReturn(1);
+        when(solveJobMapper.findById(1L)).thenReturn(Optional.of(search));
+        when(solveJobMapper.markOptionsFound(eq(1L), any(), any(), any(), any())).thenReturn(1);
+        when(schedulingService.generateParetoSchedules(1L, 500L))
+            .thenReturn(ParetoSchedulingResult.success(List.of(), "GA: 3 generations"));
+
+        solveJobService.runJob(1L);
+
+        verify(solveJobMapper).markOptionsFound(eq(1L), eq("Generated 0 schedule options"), eq("GA: 3 generations"),
+                                                eq("[]"), any());
+        verify(schedulingService, never()).generateOptimizedSchedule(any(), any(), any(), any(), any());
+        verify(progressHandler).finish(1L, "SUCCEEDED");
+
+        search.setStatus(SolveJob.JobStatus.SUCCEEDED);
+        search.setScheduleOptions("[]");
+        assertTrue(solveJobService.getOptions(1L).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should not read options of a search that has not succeeded")
+    void shouldRejectOptionsOfUnfinishedSearch() {
+        solveJobService = service(1, 1);
+        SolveJob search = job(1L, SolveJob.JobStatus.RUNNING);
+        search.setStrategy(SolveJobService.PARETO_STRATEGY);
+        when(solveJobMapper.findById(1L)).thenReturn(Optional.of(search));
+
+        assertThrows(ConflictException.class, () -> solveJobService.getOptions(1L));
+    }
+
+    // Helper methods
+
+    private SolveJobService service(int workers, int queueCapacity) {
+        return new SolveJobService(solveJobMapper, schedulingService, progressHandler,
+                                   new ObjectMapper().findAndRegisterModules(), workers, queueCapacity, "", 60000);
+    }
+
+    // What SchedulingService does with a generated schedule: keep it only when the guard agrees
+    private static SchedulingResult save(CommitGuard guard) {
+        SchedulingResult result = SchedulingResult.success(new ArrayList<>(), null, "Pipeline: 5ms");
+        return guard.mayCommit(result) ? result : SchedulingResult.failure("Schedule generation cancelled", "");
+    }
+
+    private static SolveJob job(Long id, SolveJob.JobStatus status) {
+        SolveJob job = new SolveJob();
+        job.setId(id);
+        job.setSemesterId(1L);
+        job.setStrategy(SchedulingStrategy.GREEDY.name());
+        job.setStatus(status);
+        return job;
+    }
+}
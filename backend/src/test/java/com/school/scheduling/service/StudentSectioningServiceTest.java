@@ -0,0 +1,163 @@
+package com.school.scheduling.service;
+
+import com.school.scheduling.algorithm.sectioning.SectioningResult;
+import com.school.scheduling.domain.*;
+import com.school.scheduling.mapper.CourseOfferingMapper;
+import com.school.scheduling.mapper.EnrollmentMapper;
+import com.school.scheduling.mapper.SemesterSnapshotMapper;
+
+import org.apache.ibatis.executor.result.DefaultResultContext;
+import org.apache.ibatis.session.ResultHandler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.stubbing.Answer;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalTime;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for StudentSectioningService class.
+ */
+@ExtendWith(MockitoExtension.class)
+class StudentSectioningServiceTest {
+
+    @Mock
+    private SemesterSnapshotMapper snapshotMapper;
+
+    @Mock
+    private EnrollmentMapper enrollmentMapper;
+
+    @Mock
+    private CourseOfferingMapper courseOfferingMapper;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private StudentSectioningService sectioningService;
+
+    @BeforeEach
+    void setUp() {
+        sectioningService = new StudentSectioningService(snapshotMapper, enrollmentMapper, courseOfferingMapper,
+                                                         new TransactionTemplate(transactionManager));
+    }
+
+    @Test
+    @DisplayName("Should move a student to another section of the course to avoid a clash and save the counts")
+    void shouldMoveClashingEnrollment() {
+        // Sections 1 and 3 meet Monday 09:00; section 2 of the same course as 1 meets on Tuesday
+        stubSemester(List.of(offering(1L, 10L, 30, true), offering(2L, 10L, 30, true), offering(3L, 20L, 30, true)));
+        doAnswer(feed(1, List.of(enrollment(100L, 7L, 1L, 10L), enrollment(101L, 7L, 3L, 20L))))
+            .when(snapshotMapper).streamEnrollments(eq(1L), any());
+
+        SectioningResult result = sectioningService.sectionStudents(1L);
+
+        assertEquals(2, result.getPlacedCount());
+        verify(enrollmentMapper).updateCourseOffering(eq(100L), eq(2L), any());
+        verify(enrollmentMapper, never()).updateCourseOffering(eq(101L), any(), any());
+        verify(courseOfferingMapper).updateCurrentEnrollment(eq(1L), eq(0), any());
+        verify(courseOfferingMapper).updateCurrentEnrollment(eq(2L), eq(1), any());
+        verify(courseOfferingMapper).updateCurrentEnrollment(eq(3L), eq(1), any());
+    }
+
+    @Test
+    @DisplayName("Should leave an enrollment in its section when the only other section is closed")
+    void shouldNotMoveIntoClosedSection() {
+        stubSemester(List.of(offering(1L, 10L, 30, true), offering(2L, 10L, 30, false), offering(3L, 20L, 30, true)));
+        doAnswer(feed(1, List.of(enrollment(100L, 7L, 1L, 10L), enrollment(101L, 7L, 3L, 20L))))
+            .when(snapshotMapper).streamEnrollments(eq(1L), any());
+
+        SectioningResult result = sectioningService.sectionStudents(1L);
+
+        assertEquals(1, result.getUnplacedCount());
+        verify(enrollmentMapper, never()).updateCourseOffering(any(), any(), any());
+        verify(courseOfferingMapper).updateCurrentEnrollment(eq(1L), eq(1), any());
+        verify(courseOfferingMapper).updateCurrentEnrollment(eq(2L), eq(0), any());
+        verify(courseOfferingMapper).updateCurrentEnrollment(eq(3L), eq(1), any());
+    }
+
+    @Test
+    @DisplayName("Should report one conflict per pair of clashing offerings with the number of students affected")
+    void shouldCountStudentsPerClash() {
+        Schedule first = meeting(1L, 10L, TimeSlot.DayOfWeek.MONDAY, 9);
+        Schedule second = meeting(3L, 20L, TimeSlot.DayOfWeek.MONDAY, 9);
+        Schedule third = meeting(2L, 10L, TimeSlot.DayOfWeek.TUESDAY, 9);
+        doAnswer(feed(1, List.of(enrollment(100L, 7L, 1L, 10L), enrollment(101L, 7L, 3L, 20L),
+                                 enrollment(102L, 8L, 1L, 10L), enrollment(103L, 8L, 3L, 20L),
+                                 enrollment(104L, 9L, 2L, 10L), enrollment(105L, 9L, 3L, 20L))))
+            .when(snapshotMapper).streamEnrollments(eq(1L), any());
+
+        List<ScheduleConflict> conflicts = sectioningService.detectStudentConflicts(1L, List.of(first, second, third));
+
+        assertEquals(1, conflicts.size());
+        assertEquals(ScheduleConflict.ConflictType.STUDENT_SCHEDULE_CONFLICT, conflicts.get(0).getConflictType());
+        assertTrue(conflicts.get(0).getDescription().startsWith("2 students"), conflicts.get(0).getDescription());
+    }
+
+    // Helper methods
+
+    private void stubSemester(List<CourseOffering> offerings) {
+        doAnswer(feed(1, offerings)).when(snapshotMapper).streamOfferings(eq(1L), any());
+        doAnswer(feed(1, List.of(meeting(1L, 10L, TimeSlot.DayOfWeek.MONDAY, 9),
+                                 meeting(2L, 10L, TimeSlot.DayOfWeek.TUESDAY, 9),
+                                 meeting(3L, 20L, TimeSlot.DayOfWeek.MONDAY, 9))))
+            .when(snapshotMapper).streamSectionMeetings(eq(1L), any());
+    }
+
+    // Hands the rows to the handler the way MyBatis does while streaming a result set
+    @SuppressWarnings("unchecked")
+    private static <T> Answer<Void> feed(int handlerIndex, List<T> rows) {
+        return invocation -> {
+            ResultHandler<T> handler = invocation.getArgument(handlerIndex);
+            DefaultResultContext<T> context = new DefaultResultContext<>();
+            for (T row : rows) {
+                context.nextResultObject(row);
+                handler.handleResult(context);
+            }
+            return null;
+        };
+    }
+
+    private static CourseOffering offering(Long id, Long courseId, int maxEnrollment, boolean open) {
+        Course course = new Course();
+        course.setId(courseId);
+        course.setCourseCode("C" + courseId);
+        CourseOffering offering = new CourseOffering();
+        offering.setId(id);
+        offering.setCourse(course);
+        offering.setSectionNumber(String.valueOf(id));
+        offering.setMaxEnrollment(maxEnrollment);
+        offering.setIsOpen(open);
+        return offering;
+    }
+
+    private static Schedule meeting(Long offeringId, Long courseId, TimeSlot.DayOfWeek day, int hour) {
+        TimeSlot slot = new TimeSlot();
+        slot.setDayOfWeek(day);
+        slot.setStartTime(LocalTime.of(hour, 0));
+        slot.setEndTime(LocalTime.of(hour + 1, 0));
+        Schedule schedule = new Schedule();
+        schedule.setCourseOffering(offering(offeringId, courseId, 30, true));
+        schedule.setTimeSlot(slot);
+        return schedule;
+    }
+
+    private static Enrollment enrollment(Long id, Long studentId, Long offeringId, Long courseId) {
+        Student student = new Student();
+        student.setId(studentId);
+        Enrollment enrollment = new Enrollment();
+        enrollment.setId(id);
+        enrollment.setStudent(student);
+        enrollment.setCourseOffering(offering(offeringId, courseId, 30, true));
+        return enrollment;
+    }
+}
@@ -0,0 +1,148 @@
+package com.school.scheduling.websocket;
+
+import com.school.scheduling.algorithm.ConstraintSatisfactionProblem;
+import com.school.scheduling.algorithm.pipeline.SolveProgress;
+import com.school.scheduling.algorithm.strategy.GenomeEncoding;
+import com.school.scheduling.algorithm.strategy.IncrementalFitnessEvaluator;
+import com.school.scheduling.algorithm.strategy.ScoreDirector;
+import com.school.scheduling.domain.constraint.*;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.mockito.ArgumentCaptor;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for SolverProgressWebSocketHandler class. The tests drive the publisher by hand:
+ * every call to publishProgress is one tick.
+ */
+class SolverProgressWebSocketHandlerTest {
+
+    private SolverProgressWebSocketHandler handler;
+    private WebSocketSession session;
+
+    @BeforeEach
+    void setUp() {
+        handler = new SolverProgressWebSocketHandler(new ObjectMapper().findAndRegisterModules(), 2);
+        session = mock(WebSocketSession.class);
+        when(session.getId()).thenReturn("session-1");
+        when(session.isOpen()).thenReturn(true);
+        handler.afterConnectionEstablished(session);
+    }
+
+    @Test
+    @DisplayName("Should send at most one update per tick however often progress changes, and none when it does not")
+    void shouldThrottleUpdates() throws Exception {
+        SolveProgress progress = new SolveProgress();
+        handler.track(1L, progress);
+        subscribe(1L);
+
+        IncrementalFitnessEvaluator.Tally tally = oneOfferingTally();
+        for (int i = 0; i < 10_000; i++) {
+            progress.nodesExplored(1);
+            tally.change(0, i % 3);
+            progress.improved(tally);
+        }
+        handler.publishProgress();
+        assertEquals(1, sent("solve_progress"), "Ten thousand changes between ticks make one update");
+
+        handler.publishProgress();
+        handler.publishProgress();
+        assertEquals(1, sent("solve_progress"), "Unchanged progress is not sent again");
+
+        progress.nodesExplored(50);
+        handler.publishProgress();
+        assertEquals(2, sent("solve_progress"));
+    }
+
+    @Test
+    @DisplayName("Should not sample jobs nobody subscribed to")
+    void shouldSkipJobsWithoutSubscribers() throws Exception {
+        SolveProgress progress = new SolveProgress();
+        handler.track(1L, progress);
+        progress.nodesExplored(10);
+
+        handler.publishProgress();
+
+        assertEquals(0, sent("solve_progress"));
+    }
+
+    @Test
+    @DisplayName("Should drop a job's subscriptions when it finishes and answer late subscribers with the outcome")
+    void shouldDropSubscriptionsOfFinishedJob() throws Exception {
+        handler.track(1L, new SolveProgress());
+        subscribe(1L);
+
+        handler.finish(1L, "SUCCEEDED");
+        assertEquals(0, handler.getSubscribedJobCount());
+        assertEquals(0, handler.getTrackedJobCount());
+        assertEquals(1, sent("solve_finished"));
+
+        subscribe(1L);
+        assertEquals(0, handler.getSubscribedJobCount(), "A finished job takes no new subscriptions");
+        assertEquals(2, sent("solve_finished"));
+    }
+
+    @Test
+    @DisplayName("Should drop a session's subscriptions when it closes, including jobs that never ran")
+    void shouldDropSubscriptionsOfClosedSession() throws Exception {
+        handler.track(1L, new SolveProgress());
+        subscribe(1L);
+        subscribe(99L);
+        assertEquals(2, handler.getSubscribedJobCount());
+
+        handler.afterConnectionClosed(session, CloseStatus.NORMAL);
+
+        assertEquals(0, handler.getSubscribedJobCount());
+        assertEquals(0, handler.getActiveConnections());
+    }
+
+    @Test
+    @DisplayName("Should drop a job's entry when its last subscriber unsubscribes")
+    void shouldDropEmptySubscriptions() throws Exception {
+        subscribe(7L);
+        handler.handleTextMessage(session, new TextMessage("{\"type\":\"unsubscribe\",\"data\":7}"));
+
+        assertEquals(0, handler.getSubscribedJobCount());
+    }
+
+    // Helper methods
+
+    private void subscribe(Long jobId) throws Exception {
+        handler.handleTextMessage(session, new TextMessage("{\"type\":\"subscribe\",\"data\":" + jobId + "}"));
+    }
+
+    // One offering with three slots of falling preference, so every slot scores differently
+    private static IncrementalFitnessEvaluator.Tally oneOfferingTally() {
+        SchedulingVariable offering = new SchedulingVariable(VariableType.COURSE_SCHEDULING, "1", "CS101-01");
+        List<SchedulingValue> slots = List.of(new SchedulingValue(ValueType.TIME_SLOT, 1L, "Slot 1", 1.0),
+                                              new SchedulingValue(ValueType.TIME_SLOT, 2L, "Slot 2", 0.5),
+                                              new SchedulingValue(ValueType.TIME_SLOT, 3L, "Slot 3", 0.0));
+        ConstraintSatisfactionProblem csp = new ConstraintSatisfactionProblem(Set.of(offering), Set.of(),
+                                                                              Map.of(offering, slots));
+        GenomeEncoding encoding = new GenomeEncoding(csp);
+        return new ScoreDirector(encoding, csp).evaluate(encoding.newGenome());
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private long sent(String type) throws Exception {
+        ArgumentCaptor<WebSocketMessage> messages = ArgumentCaptor.forClass(WebSocketMessage.class);
+        verify(session, atLeast(0)).sendMessage(messages.capture());
+        List<WebSocketMessage> all = messages.getAllValues();
+        return all.stream()
+            .filter(message -> message.getPayload().toString().contains("\"type\":\"" + type + "\""))
+            .count();
+    }
+}
@@ -0,0 +1,32 @@
+-- Migration 004: Add Solve Jobs
+-- Schedule generation runs as asynchronous jobs; job state is kept here so
+-- queued and running jobs survive an application restart.
+
+USE school_scheduling;
+
+CREATE TABLE IF NOT EXISTS solve_jobs (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    semester_id BIGINT NOT NULL,
+    strategy VARCHAR(30) NOT NULL,
+    status ENUM('QUEUED', 'RUNNING', 'SUCCEEDED', 'FAILED', 'CANCELLED') NOT NULL DEFAULT 'QUEUED',
+    cancel_requested BOOLEAN NOT NULL DEFAULT FALSE,
+    attempts INT NOT NULL DEFAULT 0,
+    schedules_created INT,
+    message TEXT,
+    performance_summary TEXT,
+    submitted_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    started_at TIMESTAMP NULL,
+    finished_at TIMESTAMP NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    deleted_at TIMESTAMP NULL,
+    created_by VARCHAR(100),
+    updated_by VARCHAR(100),
+    is_active BOOLEAN NOT NULL DEFAULT TRUE,
+    FOREIGN KEY (semester_id) REFERENCES semesters(id),
+    INDEX idx_solve_jobs_status (status, submitted_at),
+    INDEX idx_solve_jobs_semester (semester_id, submitted_at)
+);
+
+-- Migration complete
+SELECT 'Migration 004 completed successfully' as status;
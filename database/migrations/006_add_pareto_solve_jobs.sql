@@ -0,0 +1,13 @@
+-- Migration 006: Pareto searches as solve jobs
+-- Searches for schedule options run on the solve job pool like schedule generation.
+-- A job keeps the time limit it was submitted with and the options it found, which
+-- are returned when the job is polled rather than saved as schedules.
+
+USE school_scheduling;
+
+ALTER TABLE solve_jobs
+    ADD COLUMN time_limit_ms BIGINT NULL AFTER strategy,
+    ADD COLUMN schedule_options MEDIUMTEXT NULL AFTER performance_summary;
+
+-- Migration complete
+SELECT 'Migration 006 completed successfully' as status;